@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting;
+
+import georegression.fitting.cylinder.FitCylinderToPoints_F32;
+import georegression.fitting.line.FitLine_F32;
+import georegression.fitting.plane.FitPlane3D_F32;
+import georegression.fitting.sphere.FitSphereToPoints_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for fitting shapes to a set of noisy points which lie on the shape's surface.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkFitShapes_F32 {
+
+	@Param({"100","10000"})
+	public int size;
+
+	FitPlane3D_F32 fitPlane = new FitPlane3D_F32();
+	FitSphereToPoints_F32 fitSphere = new FitSphereToPoints_F32(100);
+	FitCylinderToPoints_F32 fitCylinder = new FitCylinderToPoints_F32(100);
+
+	List<Point2D_F32> linePoints = new ArrayList<Point2D_F32>();
+	List<Point3D_F32> planePoints = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> spherePoints = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> cylinderPoints = new ArrayList<Point3D_F32>();
+
+	Sphere3D_F32 sphereInitial = new Sphere3D_F32(1.1f,2.1f,2.9f,2.2f);
+	Cylinder3D_F32 cylinderInitial = new Cylinder3D_F32(0.9f,2.1f,3,0.1f,0.05f,1,1.2f);
+
+	LinePolar2D_F32 line = new LinePolar2D_F32();
+	Point3D_F32 center = new Point3D_F32();
+	Vector3D_F32 normal = new Vector3D_F32();
+	Sphere3D_F32 sphere = new Sphere3D_F32();
+	Cylinder3D_F32 cylinder = new Cylinder3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		float noise = 0.01f;
+
+		for (int i = 0; i < size; i++) {
+			float t = rand.nextFloat()*20-10;
+			linePoints.add(new Point2D_F32(t + (float)rand.nextGaussian()*noise, 0.5f*t+1 + (float)rand.nextGaussian()*noise));
+
+			float x = rand.nextFloat()*20-10;
+			float y = rand.nextFloat()*20-10;
+			planePoints.add(new Point3D_F32(x,y,0.2f*x-0.4f*y+2 + (float)rand.nextGaussian()*noise));
+
+			// sphere at (1,2,3) with radius 2
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+			float phi = rand.nextFloat()*GrlConstants.F_PId2*2;
+			float c = (float)Math.cos(theta), s = (float)Math.sin(theta);
+			float cp = (float)Math.cos(phi), sp = (float)Math.sin(phi);
+			float r = 2 + (float)rand.nextGaussian()*noise;
+			spherePoints.add(new Point3D_F32(1+r*sp*c, 2+r*sp*s, 3+r*cp));
+
+			// cylinder along the z-axis passing through (1,2) with radius 1
+			r = 1 + (float)rand.nextGaussian()*noise;
+			cylinderPoints.add(new Point3D_F32(1+r*c, 2+r*s, rand.nextFloat()*10-5));
+		}
+	}
+
+	@Benchmark
+	public LinePolar2D_F32 line() {
+		return FitLine_F32.polar(linePoints,line);
+	}
+
+	@Benchmark
+	public boolean plane_svd() {
+		return fitPlane.svd(planePoints,center,normal);
+	}
+
+	@Benchmark
+	public boolean sphere() {
+		return fitSphere.fitModel(spherePoints,sphereInitial,sphere);
+	}
+
+	@Benchmark
+	public boolean cylinder() {
+		return fitCylinder.fitModel(cylinderPoints,cylinderInitial,cylinder);
+	}
+}
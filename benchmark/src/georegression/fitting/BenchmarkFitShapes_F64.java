@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting;
+
+import georegression.fitting.cylinder.FitCylinderToPoints_F64;
+import georegression.fitting.line.FitLine_F64;
+import georegression.fitting.plane.FitPlane3D_F64;
+import georegression.fitting.sphere.FitSphereToPoints_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LinePolar2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for fitting shapes to a set of noisy points which lie on the shape's surface.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkFitShapes_F64 {
+
+	@Param({"100","10000"})
+	public int size;
+
+	FitPlane3D_F64 fitPlane = new FitPlane3D_F64();
+	FitSphereToPoints_F64 fitSphere = new FitSphereToPoints_F64(100);
+	FitCylinderToPoints_F64 fitCylinder = new FitCylinderToPoints_F64(100);
+
+	List<Point2D_F64> linePoints = new ArrayList<Point2D_F64>();
+	List<Point3D_F64> planePoints = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> spherePoints = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> cylinderPoints = new ArrayList<Point3D_F64>();
+
+	Sphere3D_F64 sphereInitial = new Sphere3D_F64(1.1,2.1,2.9,2.2);
+	Cylinder3D_F64 cylinderInitial = new Cylinder3D_F64(0.9,2.1,3,0.1,0.05,1,1.2);
+
+	LinePolar2D_F64 line = new LinePolar2D_F64();
+	Point3D_F64 center = new Point3D_F64();
+	Vector3D_F64 normal = new Vector3D_F64();
+	Sphere3D_F64 sphere = new Sphere3D_F64();
+	Cylinder3D_F64 cylinder = new Cylinder3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		double noise = 0.01;
+
+		for (int i = 0; i < size; i++) {
+			double t = rand.nextDouble()*20-10;
+			linePoints.add(new Point2D_F64(t + rand.nextGaussian()*noise, 0.5*t+1 + rand.nextGaussian()*noise));
+
+			double x = rand.nextDouble()*20-10;
+			double y = rand.nextDouble()*20-10;
+			planePoints.add(new Point3D_F64(x,y,0.2*x-0.4*y+2 + rand.nextGaussian()*noise));
+
+			// sphere at (1,2,3) with radius 2
+			double theta = rand.nextDouble()*GrlConstants.PI2;
+			double phi = rand.nextDouble()*GrlConstants.PId2*2;
+			double c = Math.cos(theta), s = Math.sin(theta);
+			double cp = Math.cos(phi), sp = Math.sin(phi);
+			double r = 2 + rand.nextGaussian()*noise;
+			spherePoints.add(new Point3D_F64(1+r*sp*c, 2+r*sp*s, 3+r*cp));
+
+			// cylinder along the z-axis passing through (1,2) with radius 1
+			r = 1 + rand.nextGaussian()*noise;
+			cylinderPoints.add(new Point3D_F64(1+r*c, 2+r*s, rand.nextDouble()*10-5));
+		}
+	}
+
+	@Benchmark
+	public LinePolar2D_F64 line() {
+		return FitLine_F64.polar(linePoints,line);
+	}
+
+	@Benchmark
+	public boolean plane_svd() {
+		return fitPlane.svd(planePoints,center,normal);
+	}
+
+	@Benchmark
+	public boolean sphere() {
+		return fitSphere.fitModel(spherePoints,sphereInitial,sphere);
+	}
+
+	@Benchmark
+	public boolean cylinder() {
+		return fitCylinder.fitModel(cylinderPoints,cylinderInitial,cylinder);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting;
+
+import georegression.fitting.affine.MotionAffinePoint2D_F32;
+import georegression.fitting.se.MotionSe2PointSVD_F32;
+import georegression.fitting.se.MotionSe3PointSVD_F32;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link MotionTransformPoint} implementations which estimate the motion between two
+ * sets of corresponding points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkMotionTransformPoint_F32 {
+
+	@Param({"10","10000"})
+	public int size;
+
+	MotionAffinePoint2D_F32 affine = new MotionAffinePoint2D_F32();
+	MotionSe2PointSVD_F32 se2 = new MotionSe2PointSVD_F32();
+	MotionSe3PointSVD_F32 se3 = new MotionSe3PointSVD_F32();
+
+	List<Point2D_F32> src2;
+	List<Point2D_F32> dst2 = new ArrayList<Point2D_F32>();
+	List<Point3D_F32> src3;
+	List<Point3D_F32> dst3 = new ArrayList<Point3D_F32>();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		Se2_F32 motion2 = new Se2_F32(1,-2,0.3f);
+		src2 = UtilPoint2D_F32.random(-10,10,size,rand);
+		for (Point2D_F32 p : src2) {
+			dst2.add(SePointOps_F32.transform(motion2,p,null));
+		}
+
+		Se3_F32 motion3 = SpecialEuclideanOps_F32.setEulerXYZ(0.1f,-0.2f,0.3f,1,2,3,null);
+		src3 = UtilPoint3D_F32.random(-10,10,size,rand);
+		for (Point3D_F32 p : src3) {
+			dst3.add(SePointOps_F32.transform(motion3,p,null));
+		}
+	}
+
+	@Benchmark
+	public boolean affine2D() {
+		return affine.process(src2,dst2);
+	}
+
+	@Benchmark
+	public boolean se2() {
+		return se2.process(src2,dst2);
+	}
+
+	@Benchmark
+	public boolean se3() {
+		return se3.process(src3,dst3);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.ellipse;
+
+import georegression.geometry.UtilEllipse_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.EllipseRotated_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for ellipse operations which are applied to many points or covariances
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkEllipse_F64 {
+
+	public static final int NUM = 1000;
+
+	EllipseRotated_F64 ellipse = new EllipseRotated_F64(1,2,3,1.5,0.4);
+
+	CovarianceToEllipse_F64 covToEllipse = new CovarianceToEllipse_F64();
+	ClosestPointEllipseAngle_F64 closest = new ClosestPointEllipseAngle_F64(1.0e-6,100);
+
+	Point2D_F64 points[] = new Point2D_F64[NUM];
+	double covariance[] = new double[NUM*3];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for (int i = 0; i < NUM; i++) {
+			points[i] = new Point2D_F64(rand.nextDouble()*8-3,rand.nextDouble()*8-2);
+
+			// random positive definite matrix
+			double a = rand.nextGaussian(), b = rand.nextGaussian(), c = rand.nextGaussian();
+			covariance[i*3  ] = a*a + c*c + 0.1;
+			covariance[i*3+1] = a*b;
+			covariance[i*3+2] = b*b + 0.1;
+		}
+		closest.setEllipse(ellipse);
+	}
+
+	@Benchmark
+	public double covarianceToEllipse() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			covToEllipse.setCovariance(covariance[i*3],covariance[i*3+1],covariance[i*3+2]);
+			total += covToEllipse.getMajorAxis();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double closestPoint() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			closest.process(points[i]);
+			total += closest.getTheta();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double evaluate() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += UtilEllipse_F64.evaluate(points[i].x,points[i].y,ellipse);
+		}
+		return total;
+	}
+}
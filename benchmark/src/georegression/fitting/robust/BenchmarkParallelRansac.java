@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.robust;
+
+import georegression.fitting.se.DistanceSe3PointPair_F64;
+import georegression.fitting.se.ModelManagerSe3_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ParallelRansac} on an outlier heavy 3D registration problem.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkParallelRansac {
+
+	@Param({"1000","20000"})
+	public int size;
+
+	List<PointPair<Point3D_F64>> pairs = new ArrayList<PointPair<Point3D_F64>>();
+
+	ParallelRansac<Se3_F64,PointPair<Point3D_F64>> sprt;
+	ParallelRansac<Se3_F64,PointPair<Point3D_F64>> plain;
+	ParallelRansac<Se3_F64,PointPair<Point3D_F64>> concurrent;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// 20% inliers
+		Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.1,-0.2,0.3,1,2,3,null);
+		for (int i = 0; i < size; i++) {
+			Point3D_F64 src = new Point3D_F64(rand.nextDouble()*20-10,rand.nextDouble()*20-10,rand.nextDouble()*20-10);
+			Point3D_F64 dst;
+			if( rand.nextDouble() < 0.2 ) {
+				dst = SePointOps_F64.transform(motion,src,null);
+			} else {
+				dst = new Point3D_F64(rand.nextDouble()*20-10,rand.nextDouble()*20-10,rand.nextDouble()*20-10);
+			}
+			pairs.add(new PointPair<Point3D_F64>(src,dst));
+		}
+
+		sprt = create();
+		plain = create();
+		plain.setSprt(false);
+		concurrent = create();
+		concurrent.setConcurrent(true);
+	}
+
+	private ParallelRansac<Se3_F64,PointPair<Point3D_F64>> create() {
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> alg = new ParallelRansac<Se3_F64,PointPair<Point3D_F64>>(
+				234,new ModelManagerSe3_F64(),new Factory(),2000,0.05);
+		// generate every hypothesis so that the amount of work is the same each time
+		alg.setConfidence(1);
+		return alg;
+	}
+
+	@Benchmark
+	public boolean sprt() {
+		return sprt.process(pairs);
+	}
+
+	@Benchmark
+	public boolean noSprt() {
+		return plain.process(pairs);
+	}
+
+	@Benchmark
+	public boolean sprtConcurrent() {
+		return concurrent.process(pairs);
+	}
+
+	static class Factory implements ParallelRansac.Factory<Se3_F64,PointPair<Point3D_F64>> {
+		@Override
+		public ModelGenerator<Se3_F64, PointPair<Point3D_F64>> createGenerator() {
+			return new MotionTransformPointGenerator<Se3_F64,Point3D_F64>(
+					new MotionSe3PointSVD_F64(),new ModelManagerSe3_F64());
+		}
+
+		@Override
+		public DistanceFromModel<Se3_F64, PointPair<Point3D_F64>> createDistance() {
+			return new DistanceSe3PointPair_F64();
+		}
+	}
+}
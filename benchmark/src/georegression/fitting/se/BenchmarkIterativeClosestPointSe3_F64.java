@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link IterativeClosestPointSe3_F64}.  A noisy subset of a smooth surface is registered to the
+ * whole surface.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIterativeClosestPointSe3_F64 {
+
+	@Param({"10000","200000"})
+	public int size;
+
+	PackedPoint3D_F64 reference = new PackedPoint3D_F64();
+	PackedPoint3D_F64 source = new PackedPoint3D_F64();
+
+	IterativeClosestPointSe3_F64 pointToPoint = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_POINT);
+	IterativeClosestPointSe3_F64 pointToPlane = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_PLANE);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.01,-0.015,0.02,0.03,-0.02,0.01,null);
+		Se3_F64 inverse = motion.invert(null);
+
+		for (int i = 0; i < size; i++) {
+			double x = rand.nextDouble()*20-10;
+			double y = rand.nextDouble()*20-10;
+			double z = Math.sin(x)/2 + Math.cos(y)/2;
+			reference.add(x,y,z);
+		}
+		for (int i = 0; i < size/10; i++) {
+			source.add(SePointOps_F64.transform(inverse,reference.getTemp(i*10),null));
+		}
+
+		pointToPoint.setReference(reference);
+		pointToPoint.setMaxCorrespondenceDistance(1);
+		pointToPlane.setReference(reference);
+		pointToPlane.setMaxCorrespondenceDistance(1);
+		// estimate the normals now so that they aren't included in the benchmark
+		pointToPlane.process(source,null);
+	}
+
+	@Benchmark
+	public Se3_F64 pointToPoint() {
+		pointToPoint.process(source,null);
+		return pointToPoint.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 pointToPlane() {
+		pointToPlane.process(source,null);
+		return pointToPlane.getTransformSrcToDst();
+	}
+}
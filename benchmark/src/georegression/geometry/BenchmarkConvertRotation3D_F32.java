@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry;
+
+import georegression.struct.EulerType;
+import georegression.struct.so.Quaternion_F32;
+import georegression.struct.so.Rodrigues_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for converting between different rotation representations
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkConvertRotation3D_F32 {
+
+	@Param({"XYZ","ZYX","ZXZ"})
+	public EulerType type;
+
+	float rotA = 0.1f, rotB = -0.5f, rotC = 1.2f;
+
+	DenseMatrix64F R = new DenseMatrix64F(3,3);
+	Quaternion_F32 quat = new Quaternion_F32();
+	Rodrigues_F32 rodrigues = new Rodrigues_F32();
+	float euler[] = new float[3];
+
+	DenseMatrix64F outputR = new DenseMatrix64F(3,3);
+	Quaternion_F32 outputQuat = new Quaternion_F32();
+	Rodrigues_F32 outputRodrigues = new Rodrigues_F32();
+
+	@Setup
+	public void setup() {
+		ConvertRotation3D_F32.eulerToMatrix(type,rotA,rotB,rotC,R);
+		ConvertRotation3D_F32.matrixToQuaternion(R,quat);
+		ConvertRotation3D_F32.matrixToRodrigues(R,rodrigues);
+	}
+
+	@Benchmark
+	public DenseMatrix64F eulerToMatrix() {
+		return ConvertRotation3D_F32.eulerToMatrix(type,rotA,rotB,rotC,outputR);
+	}
+
+	@Benchmark
+	public Quaternion_F32 eulerToQuaternion() {
+		return ConvertRotation3D_F32.eulerToQuaternion(type,rotA,rotB,rotC,outputQuat);
+	}
+
+	@Benchmark
+	public float[] matrixToEuler() {
+		return ConvertRotation3D_F32.matrixToEuler(R,type,euler);
+	}
+
+	@Benchmark
+	public float[] quaternionToEuler() {
+		return ConvertRotation3D_F32.quaternionToEuler(quat,type,euler);
+	}
+
+	@Benchmark
+	public Quaternion_F32 matrixToQuaternion() {
+		return ConvertRotation3D_F32.matrixToQuaternion(R,outputQuat);
+	}
+
+	@Benchmark
+	public DenseMatrix64F quaternionToMatrix() {
+		return ConvertRotation3D_F32.quaternionToMatrix(quat,outputR);
+	}
+
+	@Benchmark
+	public Rodrigues_F32 matrixToRodrigues() {
+		return ConvertRotation3D_F32.matrixToRodrigues(R,outputRodrigues);
+	}
+
+	@Benchmark
+	public DenseMatrix64F rodriguesToMatrix() {
+		return ConvertRotation3D_F32.rodriguesToMatrix(rodrigues,outputR);
+	}
+
+	@Benchmark
+	public Quaternion_F32 rodriguesToQuaternion() {
+		return ConvertRotation3D_F32.rodriguesToQuaternion(rodrigues,outputQuat);
+	}
+
+	@Benchmark
+	public Rodrigues_F32 quaternionToRodrigues() {
+		return ConvertRotation3D_F32.quaternionToRodrigues(quat,outputRodrigues);
+	}
+}
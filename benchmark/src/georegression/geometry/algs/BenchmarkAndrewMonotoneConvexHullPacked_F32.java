@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link AndrewMonotoneConvexHullPacked_F32} against {@link AndrewMonotoneConvexHull_F32} on uniformly
+ * distributed points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkAndrewMonotoneConvexHullPacked_F32 {
+
+	@Param({"100000","5000000"})
+	public int size;
+
+	AndrewMonotoneConvexHull_F32 objects = new AndrewMonotoneConvexHull_F32();
+	AndrewMonotoneConvexHullPacked_F32 packed = new AndrewMonotoneConvexHullPacked_F32();
+	AndrewMonotoneConvexHullPacked_F32 packedConcurrent = new AndrewMonotoneConvexHullPacked_F32();
+
+	Point2D_F32 original[];
+	Point2D_F32 input[];
+	PackedPoint2D_F32 points;
+	Polygon2D_F32 hull = new Polygon2D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		original = new Point2D_F32[size];
+		input = new Point2D_F32[size];
+		points = new PackedPoint2D_F32(size);
+		for (int i = 0; i < size; i++) {
+			float x = rand.nextFloat()*20-10;
+			float y = rand.nextFloat()*20-10;
+			original[i] = new Point2D_F32(x,y);
+			points.add(x,y);
+		}
+		packedConcurrent.setConcurrent(true);
+	}
+
+	@Benchmark
+	public Polygon2D_F32 objects() {
+		// the input array gets sorted, restore the original order
+		System.arraycopy(original,0,input,0,size);
+		objects.process(input,size,hull);
+		return hull;
+	}
+
+	@Benchmark
+	public Polygon2D_F32 packed() {
+		packed.process(points,hull);
+		return hull;
+	}
+
+	@Benchmark
+	public Polygon2D_F32 packedConcurrent() {
+		packedConcurrent.process(points,hull);
+		return hull;
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for computing the convex hull of a random set of points
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkAndrewMonotoneConvexHull_F32 {
+
+	@Param({"100","100000"})
+	public int size;
+
+	AndrewMonotoneConvexHull_F32 alg = new AndrewMonotoneConvexHull_F32();
+
+	Point2D_F32 original[];
+	Point2D_F32 input[];
+	Polygon2D_F32 hull = new Polygon2D_F32();
+
+	@Setup
+	public void setup() {
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-10,10,size,new Random(234));
+		original = list.toArray(new Point2D_F32[size]);
+		input = new Point2D_F32[size];
+	}
+
+	@Benchmark
+	public Polygon2D_F32 process() {
+		// the input array gets sorted, restore the original order
+		System.arraycopy(original,0,input,0,size);
+		alg.process(input,size,hull);
+		return hull;
+	}
+}
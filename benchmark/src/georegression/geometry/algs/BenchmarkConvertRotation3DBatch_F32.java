@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
+import georegression.struct.so.Quaternion_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts many rotations one at a time using {@link ConvertRotation3D_F32} and in batch over packed arrays.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkConvertRotation3DBatch_F32 {
+
+	@Param({"1000000"})
+	public int size;
+
+	EulerType type = EulerType.XYZ;
+
+	ConvertRotation3DBatch_F32 batch = new ConvertRotation3DBatch_F32();
+	ConvertRotation3DBatch_F32 batchConcurrent = new ConvertRotation3DBatch_F32();
+
+	List<Quaternion_F32> quatList = new ArrayList<Quaternion_F32>();
+	List<DenseMatrix64F> matrixList = new ArrayList<DenseMatrix64F>();
+
+	float quat[];
+	float euler[];
+	float R[];
+
+	float outputQuat[];
+	float outputEuler[];
+	float outputR[];
+
+	DenseMatrix64F M = new DenseMatrix64F(3,3);
+	Quaternion_F32 q = new Quaternion_F32();
+	float e[] = new float[3];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		batchConcurrent.setConcurrent(true);
+
+		euler = new float[size*3];
+		for (int i = 0; i < euler.length; i++) {
+			euler[i] = (rand.nextFloat()-0.5f)*2*GrlConstants.F_PI;
+		}
+		quat = new float[size*4];
+		R = new float[size*9];
+		batch.eulerToQuaternion(type, euler, 0, quat, 0, size);
+		batch.eulerToMatrix(type, euler, 0, R, 0, size);
+
+		quatList.clear();
+		matrixList.clear();
+		for (int i = 0; i < size; i++) {
+			quatList.add(new Quaternion_F32(quat[i*4], quat[i*4+1], quat[i*4+2], quat[i*4+3]));
+			DenseMatrix64F M = new DenseMatrix64F(3,3);
+			for (int k = 0; k < 9; k++) {
+				M.data[k] = R[i*9+k];
+			}
+			matrixList.add(M);
+		}
+
+		outputQuat = new float[size*4];
+		outputEuler = new float[size*3];
+		outputR = new float[size*9];
+	}
+
+	@Benchmark
+	public float quaternionToMatrix_single() {
+		float total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F32.quaternionToMatrix(quatList.get(i), M);
+			total += M.data[0];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float[] quaternionToMatrix_batch() {
+		batch.quaternionToMatrix(quat, 0, outputR, 0, size);
+		return outputR;
+	}
+
+	@Benchmark
+	public float[] quaternionToMatrix_batchConcurrent() {
+		batchConcurrent.quaternionToMatrix(quat, 0, outputR, 0, size);
+		return outputR;
+	}
+
+	@Benchmark
+	public float matrixToQuaternion_single() {
+		float total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F32.matrixToQuaternion(matrixList.get(i), q);
+			total += q.w;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float[] matrixToQuaternion_batch() {
+		batch.matrixToQuaternion(R, 0, outputQuat, 0, size);
+		return outputQuat;
+	}
+
+	@Benchmark
+	public float eulerToMatrix_single() {
+		float total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F32.eulerToMatrix(type, euler[i*3], euler[i*3+1], euler[i*3+2], M);
+			total += M.data[0];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float[] eulerToMatrix_batch() {
+		batch.eulerToMatrix(type, euler, 0, outputR, 0, size);
+		return outputR;
+	}
+
+	@Benchmark
+	public float matrixToEuler_single() {
+		float total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F32.matrixToEuler(matrixList.get(i), type, e);
+			total += e[0];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float[] matrixToEuler_batch() {
+		batch.matrixToEuler(R, 0, type, outputEuler, 0, size);
+		return outputEuler;
+	}
+}
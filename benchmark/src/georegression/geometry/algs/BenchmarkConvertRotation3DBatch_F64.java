@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.so.Quaternion_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts many rotations one at a time using {@link ConvertRotation3D_F64} and in batch over packed arrays.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkConvertRotation3DBatch_F64 {
+
+	@Param({"1000000"})
+	public int size;
+
+	EulerType type = EulerType.XYZ;
+
+	ConvertRotation3DBatch_F64 batch = new ConvertRotation3DBatch_F64();
+	ConvertRotation3DBatch_F64 batchConcurrent = new ConvertRotation3DBatch_F64();
+
+	List<Quaternion_F64> quatList = new ArrayList<Quaternion_F64>();
+	List<DenseMatrix64F> matrixList = new ArrayList<DenseMatrix64F>();
+
+	double quat[];
+	double euler[];
+	double R[];
+
+	double outputQuat[];
+	double outputEuler[];
+	double outputR[];
+
+	DenseMatrix64F M = new DenseMatrix64F(3,3);
+	Quaternion_F64 q = new Quaternion_F64();
+	double e[] = new double[3];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		batchConcurrent.setConcurrent(true);
+
+		euler = new double[size*3];
+		for (int i = 0; i < euler.length; i++) {
+			euler[i] = (rand.nextDouble()-0.5)*2*Math.PI;
+		}
+		quat = new double[size*4];
+		R = new double[size*9];
+		batch.eulerToQuaternion(type, euler, 0, quat, 0, size);
+		batch.eulerToMatrix(type, euler, 0, R, 0, size);
+
+		quatList.clear();
+		matrixList.clear();
+		for (int i = 0; i < size; i++) {
+			quatList.add(new Quaternion_F64(quat[i*4], quat[i*4+1], quat[i*4+2], quat[i*4+3]));
+			DenseMatrix64F M = new DenseMatrix64F(3,3);
+			for (int k = 0; k < 9; k++) {
+				M.data[k] = R[i*9+k];
+			}
+			matrixList.add(M);
+		}
+
+		outputQuat = new double[size*4];
+		outputEuler = new double[size*3];
+		outputR = new double[size*9];
+	}
+
+	@Benchmark
+	public double quaternionToMatrix_single() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F64.quaternionToMatrix(quatList.get(i), M);
+			total += M.data[0];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double[] quaternionToMatrix_batch() {
+		batch.quaternionToMatrix(quat, 0, outputR, 0, size);
+		return outputR;
+	}
+
+	@Benchmark
+	public double[] quaternionToMatrix_batchConcurrent() {
+		batchConcurrent.quaternionToMatrix(quat, 0, outputR, 0, size);
+		return outputR;
+	}
+
+	@Benchmark
+	public double matrixToQuaternion_single() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F64.matrixToQuaternion(matrixList.get(i), q);
+			total += q.w;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double[] matrixToQuaternion_batch() {
+		batch.matrixToQuaternion(R, 0, outputQuat, 0, size);
+		return outputQuat;
+	}
+
+	@Benchmark
+	public double eulerToMatrix_single() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F64.eulerToMatrix(type, euler[i*3], euler[i*3+1], euler[i*3+2], M);
+			total += M.data[0];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double[] eulerToMatrix_batch() {
+		batch.eulerToMatrix(type, euler, 0, outputR, 0, size);
+		return outputR;
+	}
+
+	@Benchmark
+	public double matrixToEuler_single() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			ConvertRotation3D_F64.matrixToEuler(matrixList.get(i), type, e);
+			total += e[0];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double[] matrixToEuler_batch() {
+		batch.matrixToEuler(R, 0, type, outputEuler, 0, size);
+		return outputEuler;
+	}
+}
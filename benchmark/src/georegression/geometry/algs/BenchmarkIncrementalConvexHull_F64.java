@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Points are added one at a time and the hull is requested after every 100 points.  Compares
+ * {@link IncrementalConvexHull_F64} against recomputing the hull with {@link AndrewMonotoneConvexHull_F64}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIncrementalConvexHull_F64 {
+
+	@Param({"10000"})
+	public int size;
+
+	IncrementalConvexHull_F64 incremental = new IncrementalConvexHull_F64();
+	AndrewMonotoneConvexHull_F64 batch = new AndrewMonotoneConvexHull_F64();
+
+	Point2D_F64 points[];
+	Point2D_F64 work[];
+	Polygon2D_F64 hull = new Polygon2D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		points = new Point2D_F64[size];
+		work = new Point2D_F64[size];
+		for (int i = 0; i < size; i++) {
+			double x = rand.nextGaussian()*10;
+			double y = rand.nextGaussian()*10;
+			points[i] = new Point2D_F64(x,y);
+		}
+	}
+
+	@Benchmark
+	public Polygon2D_F64 incremental() {
+		incremental.reset();
+		for (int i = 0; i < size; i++) {
+			incremental.add(points[i]);
+			if( i % 100 == 99 )
+				incremental.getHull(hull);
+		}
+		return hull;
+	}
+
+	@Benchmark
+	public Polygon2D_F64 recompute() {
+		for (int i = 0; i < size; i++) {
+			if( i % 100 == 99 ) {
+				System.arraycopy(points,0,work,0,i+1);
+				batch.process(work,i+1,hull);
+			}
+		}
+		return hull;
+	}
+}
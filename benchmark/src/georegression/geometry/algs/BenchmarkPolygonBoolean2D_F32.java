@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PolygonBoolean2D_F32} and {@link ClipConvexPolygons2D_F32}.  Two overlapping convex polygons
+ * are used so that both algorithms can be compared.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPolygonBoolean2D_F32 {
+
+	@Param({"8","100"})
+	public int vertexes;
+
+	Polygon2D_F32 a, b;
+
+	PolygonBoolean2D_F32 general = new PolygonBoolean2D_F32();
+	ClipConvexPolygons2D_F32 convex = new ClipConvexPolygons2D_F32();
+
+	FastQueue<Polygon2D_F32> outputGeneral = new FastQueue<Polygon2D_F32>(Polygon2D_F32.class,true);
+	Polygon2D_F32 outputConvex = new Polygon2D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		a = createRegular(0,0,vertexes,rand.nextFloat());
+		b = createRegular(0.5f,0.2f,vertexes,rand.nextFloat());
+	}
+
+	private static Polygon2D_F32 createRegular( float cx , float cy , int sides , float offset ) {
+		Polygon2D_F32 polygon = new Polygon2D_F32(sides);
+		for (int i = 0; i < sides; i++) {
+			float theta = (float)Math.PI*2*(i+offset)/sides;
+			float x = (float)Math.cos(theta) + cx;
+			float y = (float)Math.sin(theta) + cy;
+			polygon.set(i,x,y);
+		}
+		return polygon;
+	}
+
+	@Benchmark
+	public FastQueue<Polygon2D_F32> intersection() {
+		general.intersection(a,b,outputGeneral);
+		return outputGeneral;
+	}
+
+	@Benchmark
+	public FastQueue<Polygon2D_F32> union() {
+		general.union(a,b,outputGeneral);
+		return outputGeneral;
+	}
+
+	@Benchmark
+	public float intersectionArea() {
+		return general.intersectionArea(a,b);
+	}
+
+	@Benchmark
+	public Polygon2D_F32 convexIntersection() {
+		convex.process(a,b,outputConvex);
+		return outputConvex;
+	}
+
+	@Benchmark
+	public float convexArea() {
+		return convex.area(a,b);
+	}
+}
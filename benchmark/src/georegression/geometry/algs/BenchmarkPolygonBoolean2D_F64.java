@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.shapes.Polygon2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PolygonBoolean2D_F64} and {@link ClipConvexPolygons2D_F64}.  Two overlapping convex polygons
+ * are used so that both algorithms can be compared.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPolygonBoolean2D_F64 {
+
+	@Param({"8","100"})
+	public int vertexes;
+
+	Polygon2D_F64 a, b;
+
+	PolygonBoolean2D_F64 general = new PolygonBoolean2D_F64();
+	ClipConvexPolygons2D_F64 convex = new ClipConvexPolygons2D_F64();
+
+	FastQueue<Polygon2D_F64> outputGeneral = new FastQueue<Polygon2D_F64>(Polygon2D_F64.class,true);
+	Polygon2D_F64 outputConvex = new Polygon2D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		a = createRegular(0,0,vertexes,rand.nextDouble());
+		b = createRegular(0.5,0.2,vertexes,rand.nextDouble());
+	}
+
+	private static Polygon2D_F64 createRegular( double cx , double cy , int sides , double offset ) {
+		Polygon2D_F64 polygon = new Polygon2D_F64(sides);
+		for (int i = 0; i < sides; i++) {
+			double theta = Math.PI*2*(i+offset)/sides;
+			double x = Math.cos(theta) + cx;
+			double y = Math.sin(theta) + cy;
+			polygon.set(i,x,y);
+		}
+		return polygon;
+	}
+
+	@Benchmark
+	public FastQueue<Polygon2D_F64> intersection() {
+		general.intersection(a,b,outputGeneral);
+		return outputGeneral;
+	}
+
+	@Benchmark
+	public FastQueue<Polygon2D_F64> union() {
+		general.union(a,b,outputGeneral);
+		return outputGeneral;
+	}
+
+	@Benchmark
+	public double intersectionArea() {
+		return general.intersectionArea(a,b);
+	}
+
+	@Benchmark
+	public Polygon2D_F64 convexIntersection() {
+		convex.process(a,b,outputConvex);
+		return outputConvex;
+	}
+
+	@Benchmark
+	public double convexArea() {
+		return convex.area(a,b);
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.point.PackedPoint3D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hull of a single large cloud of points and of many small clusters, sequentially and concurrently.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkQuickHull3D_F64 {
+
+	@Param({"1000000"})
+	public int size;
+
+	@Param({"2000"})
+	public int clusters;
+
+	QuickHull3D_F64 alg = new QuickHull3D_F64();
+	QuickHull3DBatch_F64 batch = new QuickHull3DBatch_F64();
+
+	PackedPoint3D_F64 cloud = new PackedPoint3D_F64();
+	List<PackedPoint3D_F64> clusterList = new ArrayList<PackedPoint3D_F64>();
+
+	GrowQueue_I32 faces = new GrowQueue_I32();
+	FastQueue<GrowQueue_I32> batchFaces = new FastQueue<GrowQueue_I32>(GrowQueue_I32.class, true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		cloud.reset();
+		addGaussian(rand, cloud, size);
+
+		clusterList.clear();
+		for (int i = 0; i < clusters; i++) {
+			PackedPoint3D_F64 points = new PackedPoint3D_F64();
+			addGaussian(rand, points, 500);
+			clusterList.add(points);
+		}
+	}
+
+	private static void addGaussian( Random rand , PackedPoint3D_F64 points , int N ) {
+		for (int i = 0; i < N; i++) {
+			double x = rand.nextGaussian();
+			double y = rand.nextGaussian();
+			double z = rand.nextGaussian();
+			points.add(x, y, z);
+		}
+	}
+
+	@Benchmark
+	public GrowQueue_I32 cloud() {
+		alg.process(cloud);
+		alg.getFaces(faces);
+		return faces;
+	}
+
+	@Benchmark
+	public FastQueue<GrowQueue_I32> clusters() {
+		batch.setConcurrent(false);
+		batch.process(clusterList, batchFaces);
+		return batchFaces;
+	}
+
+	@Benchmark
+	public FastQueue<GrowQueue_I32> clustersConcurrent() {
+		batch.setConcurrent(true);
+		batch.process(clusterList, batchFaces);
+		return batchFaces;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F32;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for computing the distance between a point and different 3D shapes.  Each operation computes
+ * the distance for every point in the set.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistance3D_F32 {
+
+	public static final int NUM = 1000;
+
+	Point3D_F32 points[] = new Point3D_F32[NUM];
+
+	LineParametric3D_F32 line = new LineParametric3D_F32(1,2,3,0.5f,-0.2f,1);
+	LineParametric3D_F32 lines[] = new LineParametric3D_F32[NUM];
+	LineSegment3D_F32 segment = new LineSegment3D_F32(1,2,3,-1,0.5f,2);
+	PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(0.2f,-0.4f,1,2);
+	Sphere3D_F32 sphere = new Sphere3D_F32(1,2,3,2.5f);
+	Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0.5f,-0.2f,1,1.5f);
+	Triangle3D_F32 triangle = new Triangle3D_F32(1,2,3, -1,0.5f,2, 0,2,-1);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for (int i = 0; i < NUM; i++) {
+			points[i] = new Point3D_F32(rand.nextFloat()*10-5,rand.nextFloat()*10-5,rand.nextFloat()*10-5);
+			lines[i] = new LineParametric3D_F32(rand.nextFloat()*2-1,rand.nextFloat()*2-1,rand.nextFloat()*2-1,
+					rand.nextFloat()*2-1,rand.nextFloat()*2-1,rand.nextFloat()*2-1);
+		}
+	}
+
+	@Benchmark
+	public float line_line() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(line,lines[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float line_point() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(line,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float segment_point() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(segment,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float plane_point() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(plane,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float sphere_point() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(sphere,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float cylinder_point() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(cylinder,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float triangle_point() {
+		float total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F32.distance(triangle,points[i]);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for computing the distance between a point and different 3D shapes.  Each operation computes
+ * the distance for every point in the set.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistance3D_F64 {
+
+	public static final int NUM = 1000;
+
+	Point3D_F64 points[] = new Point3D_F64[NUM];
+
+	LineParametric3D_F64 line = new LineParametric3D_F64(1,2,3,0.5,-0.2,1);
+	LineParametric3D_F64 lines[] = new LineParametric3D_F64[NUM];
+	LineSegment3D_F64 segment = new LineSegment3D_F64(1,2,3,-1,0.5,2);
+	PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64(0.2,-0.4,1,2);
+	Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3,2.5);
+	Cylinder3D_F64 cylinder = new Cylinder3D_F64(1,2,3,0.5,-0.2,1,1.5);
+	Triangle3D_F64 triangle = new Triangle3D_F64(1,2,3, -1,0.5,2, 0,2,-1);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for (int i = 0; i < NUM; i++) {
+			points[i] = new Point3D_F64(rand.nextDouble()*10-5,rand.nextDouble()*10-5,rand.nextDouble()*10-5);
+			lines[i] = new LineParametric3D_F64(rand.nextDouble()*2-1,rand.nextDouble()*2-1,rand.nextDouble()*2-1,
+					rand.nextDouble()*2-1,rand.nextDouble()*2-1,rand.nextDouble()*2-1);
+		}
+	}
+
+	@Benchmark
+	public double line_line() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(line,lines[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double line_point() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(line,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double segment_point() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(segment,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double plane_point() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(plane,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double sphere_point() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(sphere,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double cylinder_point() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(cylinder,points[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double triangle_point() {
+		double total = 0;
+		for (int i = 0; i < NUM; i++) {
+			total += Distance3D_F64.distance(triangle,points[i]);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for 2D intersection and containment tests.  Each operation tests every point, line, or rectangle
+ * in the set.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersection2D_F32 {
+
+	public static final int NUM = 1000;
+
+	@Param({"4","100"})
+	public int polygonSides;
+
+	Polygon2D_F32 polygon;
+	Point2D_F32 points[] = new Point2D_F32[NUM];
+	LineSegment2D_F32 segments[] = new LineSegment2D_F32[NUM];
+	Rectangle2D_F32 rectangles[] = new Rectangle2D_F32[NUM];
+
+	Point2D_F32 work = new Point2D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// regular polygon centered around the origin
+		polygon = new Polygon2D_F32(polygonSides);
+		for (int i = 0; i < polygonSides; i++) {
+			float theta = GrlConstants.F_PI2*i/polygonSides;
+			polygon.set(i, 5* (float)Math.cos(theta), 5* (float)Math.sin(theta));
+		}
+
+		for (int i = 0; i < NUM; i++) {
+			points[i] = new Point2D_F32(rand.nextFloat()*12-6,rand.nextFloat()*12-6);
+			segments[i] = new LineSegment2D_F32(rand.nextFloat()*12-6,rand.nextFloat()*12-6,
+					rand.nextFloat()*12-6,rand.nextFloat()*12-6);
+			float x0 = rand.nextFloat()*12-6;
+			float y0 = rand.nextFloat()*12-6;
+			rectangles[i] = new Rectangle2D_F32(x0,y0,x0+rand.nextFloat()*3,y0+rand.nextFloat()*3);
+		}
+	}
+
+	@Benchmark
+	public int containConvex() {
+		int total = 0;
+		for (int i = 0; i < NUM; i++) {
+			if( Intersection2D_F32.containConvex(polygon,points[i]) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int containConcave() {
+		int total = 0;
+		for (int i = 0; i < NUM; i++) {
+			if( Intersection2D_F32.containConcave(polygon,points[i]) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int intersection_segments() {
+		int total = 0;
+		for (int i = 1; i < NUM; i++) {
+			if( Intersection2D_F32.intersection(segments[i-1],segments[i],work) != null )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int intersects_rectangles() {
+		int total = 0;
+		for (int i = 1; i < NUM; i++) {
+			if( Intersection2D_F32.intersects(rectangles[i-1],rectangles[i]) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float intersectionArea_rectangles() {
+		float total = 0;
+		for (int i = 1; i < NUM; i++) {
+			total += Intersection2D_F32.intersectionArea(rectangles[i-1],rectangles[i]);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.algs.QuickHull3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.point.Point3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signed distance from scan-like points to a fixed mesh, one point at a time and in batch, sequentially and
+ * concurrently.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistancePointMeshBatch3D_F32 {
+
+	@Param({"20000"})
+	public int vertexes;
+
+	@Param({"1000000"})
+	public int points;
+
+	DistancePointMeshBatch3D_F32 batch = new DistancePointMeshBatch3D_F32();
+	TriangleMeshBvhQuery3D_F32 query;
+
+	PackedPoint3D_F32 scan = new PackedPoint3D_F32();
+	float distances[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// closed mesh with a bumpy surface
+		PackedPoint3D_F32 meshVertexes = new PackedPoint3D_F32();
+		for (int i = 0; i < vertexes; i++) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			float n = (float)Math.sqrt(x*x + y*y + z*z);
+			meshVertexes.add(x/n, y/n, z/n);
+		}
+		GrowQueue_I32 meshIndexes = new GrowQueue_I32();
+		QuickHull3D_F32 hull = new QuickHull3D_F32();
+		hull.process(meshVertexes);
+		hull.getFaces(meshIndexes);
+		for (int i = 0; i < meshVertexes.size(); i++) {
+			float scale = 0.98f + 0.04f*rand.nextFloat();
+			meshVertexes.set(i, meshVertexes.getX(i)*scale, meshVertexes.getY(i)*scale, meshVertexes.getZ(i)*scale);
+		}
+		batch.setMesh(meshVertexes, meshIndexes);
+		query = new TriangleMeshBvhQuery3D_F32(batch.getMesh());
+
+		// scan lines which sweep across the surface
+		scan.reset();
+		int perLine = 1000;
+		for (int i = 0; i < points; i++) {
+			float phi = GrlConstants.F_PI*(i/perLine)/(points/perLine);
+			float theta = GrlConstants.F_PI2*(i%perLine)/perLine;
+			float noise = (float)rand.nextGaussian();
+			float r = 1 + 0.05f*noise;
+			float x = r*(float)Math.sin(phi)*(float)Math.cos(theta);
+			float y = r*(float)Math.sin(phi)*(float)Math.sin(theta);
+			float z = r*(float)Math.cos(phi);
+			scan.add(x, y, z);
+		}
+		distances = new float[points];
+	}
+
+	@Benchmark
+	public float[] single() {
+		Point3D_F32 p = new Point3D_F32();
+		for (int i = 0; i < scan.size(); i++) {
+			scan.get(i, p);
+			distances[i] = query.signedDistance(p);
+		}
+		return distances;
+	}
+
+	@Benchmark
+	public float[] batch() {
+		batch.setConcurrent(false);
+		batch.signedDistances(scan, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public float[] batchConcurrent() {
+		batch.setConcurrent(true);
+		batch.signedDistances(scan, distances);
+		return distances;
+	}
+}
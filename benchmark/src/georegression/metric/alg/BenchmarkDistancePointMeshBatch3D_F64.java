@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.algs.QuickHull3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signed distance from scan-like points to a fixed mesh, one point at a time and in batch, sequentially and
+ * concurrently.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistancePointMeshBatch3D_F64 {
+
+	@Param({"20000"})
+	public int vertexes;
+
+	@Param({"1000000"})
+	public int points;
+
+	DistancePointMeshBatch3D_F64 batch = new DistancePointMeshBatch3D_F64();
+	TriangleMeshBvhQuery3D_F64 query;
+
+	PackedPoint3D_F64 scan = new PackedPoint3D_F64();
+	double distances[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// closed mesh with a bumpy surface
+		PackedPoint3D_F64 meshVertexes = new PackedPoint3D_F64();
+		for (int i = 0; i < vertexes; i++) {
+			double x = rand.nextGaussian();
+			double y = rand.nextGaussian();
+			double z = rand.nextGaussian();
+			double n = Math.sqrt(x*x + y*y + z*z);
+			meshVertexes.add(x/n, y/n, z/n);
+		}
+		GrowQueue_I32 meshIndexes = new GrowQueue_I32();
+		QuickHull3D_F64 hull = new QuickHull3D_F64();
+		hull.process(meshVertexes);
+		hull.getFaces(meshIndexes);
+		for (int i = 0; i < meshVertexes.size(); i++) {
+			double scale = 0.98 + 0.04*rand.nextDouble();
+			meshVertexes.set(i, meshVertexes.getX(i)*scale, meshVertexes.getY(i)*scale, meshVertexes.getZ(i)*scale);
+		}
+		batch.setMesh(meshVertexes, meshIndexes);
+		query = new TriangleMeshBvhQuery3D_F64(batch.getMesh());
+
+		// scan lines which sweep across the surface
+		scan.reset();
+		int perLine = 1000;
+		for (int i = 0; i < points; i++) {
+			double phi = Math.PI*(i/perLine)/(points/perLine);
+			double theta = GrlConstants.PI2*(i%perLine)/perLine;
+			double noise = rand.nextGaussian();
+			double r = 1 + 0.05*noise;
+			double x = r*Math.sin(phi)*Math.cos(theta);
+			double y = r*Math.sin(phi)*Math.sin(theta);
+			double z = r*Math.cos(phi);
+			scan.add(x, y, z);
+		}
+		distances = new double[points];
+	}
+
+	@Benchmark
+	public double[] single() {
+		Point3D_F64 p = new Point3D_F64();
+		for (int i = 0; i < scan.size(); i++) {
+			scan.get(i, p);
+			distances[i] = query.signedDistance(p);
+		}
+		return distances;
+	}
+
+	@Benchmark
+	public double[] batch() {
+		batch.setConcurrent(false);
+		batch.signedDistances(scan, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public double[] batchConcurrent() {
+		batch.setConcurrent(true);
+		batch.signedDistances(scan, distances);
+		return distances;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersection of a line with many boxes and spheres, one object at a time and in batch over packed arrays.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersectionLineBatch3D_F64 {
+
+	@Param({"1000000"})
+	public int size;
+
+	IntersectionLineBatch3D_F64 batch = new IntersectionLineBatch3D_F64();
+
+	LineParametric3D_F64 line = new LineParametric3D_F64(-0.1,-0.2,-0.3, 1,0.9,0.8);
+	List<Box3D_F64> boxList = new ArrayList<Box3D_F64>();
+	List<Sphere3D_F64> sphereList = new ArrayList<Sphere3D_F64>();
+
+	double lines[];
+	double boxes[];
+	double spheres[];
+
+	double entry[];
+	double exit[];
+	double t[] = new double[2];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		lines = new double[size*6];
+		boxes = new double[size*6];
+		spheres = new double[size*4];
+		boxList.clear();
+		sphereList.clear();
+		for (int i = 0; i < size; i++) {
+			double x = rand.nextDouble(), y = rand.nextDouble(), z = rand.nextDouble();
+			double length = 0.01 + 0.05*rand.nextDouble();
+			boxes[i*6] = x; boxes[i*6+1] = y; boxes[i*6+2] = z;
+			boxes[i*6+3] = x+length; boxes[i*6+4] = y+length; boxes[i*6+5] = z+length;
+			boxList.add(new Box3D_F64(x, y, z, x+length, y+length, z+length));
+
+			spheres[i*4] = x; spheres[i*4+1] = y; spheres[i*4+2] = z; spheres[i*4+3] = length;
+			sphereList.add(new Sphere3D_F64(x, y, z, length));
+
+			for (int k = 0; k < 6; k++) {
+				lines[i*6+k] = rand.nextDouble()-0.5;
+			}
+		}
+		entry = new double[size];
+		exit = new double[size];
+	}
+
+	@Benchmark
+	public int boxesSingle() {
+		int total = 0;
+		for (int i = 0; i < size; i++) {
+			if( Intersection3D_F64.intersect(boxList.get(i), line, t) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double[] boxes() {
+		batch.setConcurrent(false);
+		batch.boxes(line, boxes, 0, size, entry, exit);
+		return entry;
+	}
+
+	@Benchmark
+	public double[] boxesConcurrent() {
+		batch.setConcurrent(true);
+		batch.boxes(line, boxes, 0, size, entry, exit);
+		return entry;
+	}
+
+	@Benchmark
+	public double[] boxesPairs() {
+		batch.setConcurrent(false);
+		batch.boxes(lines, 0, boxes, 0, size, entry, exit);
+		return entry;
+	}
+
+	@Benchmark
+	public int spheresSingle() {
+		int total = 0;
+		for (int i = 0; i < size; i++) {
+			if( Intersection3D_F64.intersect(sphereList.get(i), line, t) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double[] spheres() {
+		batch.setConcurrent(false);
+		batch.spheres(line, spheres, 0, size, entry, exit);
+		return entry;
+	}
+
+	@Benchmark
+	public double[] spheresConcurrent() {
+		batch.setConcurrent(true);
+		batch.spheres(line, spheres, 0, size, entry, exit);
+		return entry;
+	}
+}
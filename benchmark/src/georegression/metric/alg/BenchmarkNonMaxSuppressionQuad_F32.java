@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.struct.shapes.Quadrilateral_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NonMaxSuppressionQuad_F32} on randomly rotated boxes with a constant density, so that each
+ * box overlaps a similar number of other boxes as the count increases.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkNonMaxSuppressionQuad_F32 {
+
+	@Param({"1000","20000"})
+	public int count;
+
+	List<Quadrilateral_F32> quads = new ArrayList<Quadrilateral_F32>();
+	GrowQueue_F32 scores = new GrowQueue_F32();
+	GrowQueue_I32 selected = new GrowQueue_I32();
+
+	NonMaxSuppressionQuad_F32 single = new NonMaxSuppressionQuad_F32();
+	NonMaxSuppressionQuad_F32 concurrent = new NonMaxSuppressionQuad_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		float width = (float)Math.sqrt(count)*2;
+		quads.clear();
+		scores.reset();
+		for (int i = 0; i < count; i++) {
+			float cx = rand.nextFloat()*width;
+			float cy = rand.nextFloat()*width;
+			float theta = (float)Math.PI*rand.nextFloat();
+			float w = 0.5f + rand.nextFloat();
+			float h = 0.5f + rand.nextFloat();
+
+			float c = (float)Math.cos(theta);
+			float s = (float)Math.sin(theta);
+
+			Quadrilateral_F32 q = new Quadrilateral_F32();
+			q.a.set(cx - c*w + s*h, cy - s*w - c*h);
+			q.b.set(cx + c*w + s*h, cy + s*w - c*h);
+			q.c.set(cx + c*w - s*h, cy + s*w + c*h);
+			q.d.set(cx - c*w - s*h, cy - s*w + c*h);
+			quads.add(q);
+			scores.add(rand.nextFloat());
+		}
+
+		concurrent.setConcurrent(true);
+	}
+
+	@Benchmark
+	public GrowQueue_I32 process() {
+		single.process(quads, scores, selected);
+		return selected;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 processConcurrent() {
+		concurrent.process(quads, scores, selected);
+		return selected;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.index.PreparedPolygon2D_F64;
+import georegression.struct.point.PackedPoint2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.ddogleg.struct.GrowQueue_B;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PointInPolygonBatch_F64} against testing each point individually with
+ * {@link Intersection2D_F64#containConcave} and {@link PreparedPolygon2D_F64}.  One million points are
+ * classified against a concave star shaped polygon.  Points are either spread uniformly or clustered, where
+ * consecutive points lie in a narrow band along the y-axis like points from a scan.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPointInPolygonBatch {
+
+	@Param({"8","20","1000"})
+	public int vertexes;
+
+	@Param({"true","false"})
+	public boolean clustered;
+
+	Polygon2D_F64 polygon;
+	PackedPoint2D_F64 points = new PackedPoint2D_F64();
+
+	PointInPolygonBatch_F64 batch = new PointInPolygonBatch_F64();
+	PointInPolygonBatch_F64 batchConcurrent = new PointInPolygonBatch_F64();
+	PreparedPolygon2D_F64 prepared = new PreparedPolygon2D_F64();
+
+	GrowQueue_B output = new GrowQueue_B();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		polygon = new Polygon2D_F64(vertexes);
+		for (int i = 0; i < vertexes; i++) {
+			double theta = Math.PI*2*i/vertexes;
+			double r = 0.5 + rand.nextDouble()*1.5;
+			polygon.get(i).set(r*Math.cos(theta), r*Math.sin(theta));
+		}
+		int N = 1000000;
+		for (int i = 0; i < N; i++) {
+			double y;
+			if( clustered ) {
+				// moves up slowly and is shuffled within a band of about 10000 points
+				y = 5.0*(i + rand.nextDouble()*10000)/(N+10000) - 2.5;
+			} else {
+				y = rand.nextDouble()*5-2.5;
+			}
+			points.add(rand.nextDouble()*5-2.5, y);
+		}
+
+		batch.setPolygon(polygon);
+		batchConcurrent.setPolygon(polygon);
+		batchConcurrent.setConcurrent(true);
+		prepared.setPolygon(polygon);
+		output.resize(points.size);
+	}
+
+	@Benchmark
+	public GrowQueue_B batch() {
+		batch.classify(points, output);
+		return output;
+	}
+
+	@Benchmark
+	public GrowQueue_B batchConcurrent() {
+		batchConcurrent.classify(points, output);
+		return output;
+	}
+
+	@Benchmark
+	public GrowQueue_B prepared() {
+		for (int i = 0; i < points.size; i++) {
+			output.data[i] = prepared.contains(points.data[i*2], points.data[i*2+1]);
+		}
+		return output;
+	}
+
+	@Benchmark
+	public GrowQueue_B containConcave() {
+		for (int i = 0; i < points.size; i++) {
+			output.data[i] = Intersection2D_F64.containConcave(polygon, points.getTemp(i));
+		}
+		return output;
+	}
+}
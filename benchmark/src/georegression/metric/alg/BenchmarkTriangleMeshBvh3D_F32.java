@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.algs.QuickHull3D_F32;
+import georegression.metric.Distance3D_F32;
+import georegression.metric.Intersection3D_F32;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares BVH accelerated ray and closest point queries against brute force and the sequential build
+ * against the concurrent build.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkTriangleMeshBvh3D_F32 {
+
+	@Param({"20000"})
+	public int vertexes;
+
+	@Param({"200"})
+	public int queries;
+
+	PackedPoint3D_F32 meshVertexes = new PackedPoint3D_F32();
+	GrowQueue_I32 meshIndexes = new GrowQueue_I32();
+	List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+
+	TriangleMeshBvh3D_F32 bvh = new TriangleMeshBvh3D_F32();
+	TriangleMeshBvhQuery3D_F32 query = new TriangleMeshBvhQuery3D_F32(bvh);
+
+	List<LineSegment3D_F32> segments = new ArrayList<LineSegment3D_F32>();
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+
+	Point3D_F32 hit = new Point3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// closed mesh with a bumpy surface
+		PackedPoint3D_F32 sphere = new PackedPoint3D_F32();
+		for (int i = 0; i < vertexes; i++) {
+			Point3D_F32 p = randomUnit(rand);
+			sphere.add(p.x, p.y, p.z);
+		}
+		QuickHull3D_F32 hull = new QuickHull3D_F32();
+		hull.process(sphere);
+		hull.getFaces(meshIndexes);
+
+		meshVertexes.reset();
+		for (int i = 0; i < sphere.size(); i++) {
+			float scale = 0.8f + 0.4f*rand.nextFloat();
+			meshVertexes.add(sphere.getX(i)*scale, sphere.getY(i)*scale, sphere.getZ(i)*scale);
+		}
+
+		triangles.clear();
+		for (int i = 0; i < meshIndexes.size; i += 3) {
+			triangles.add(new Triangle3D_F32(
+					meshVertexes.get(meshIndexes.get(i), null),
+					meshVertexes.get(meshIndexes.get(i+1), null),
+					meshVertexes.get(meshIndexes.get(i+2), null)));
+		}
+
+		bvh.build(meshVertexes, meshIndexes);
+
+		segments.clear();
+		points.clear();
+		for (int i = 0; i < queries; i++) {
+			Point3D_F32 a = randomUnit(rand);
+			Point3D_F32 b = randomUnit(rand);
+			a.scale(2);
+			b.scale(0.2f);
+			segments.add(new LineSegment3D_F32(a, b));
+
+			Point3D_F32 p = randomUnit(rand);
+			p.scale(0.5f + rand.nextFloat());
+			points.add(p);
+		}
+	}
+
+	private static Point3D_F32 randomUnit( Random rand ) {
+		float x = (float)rand.nextGaussian();
+		float y = (float)rand.nextGaussian();
+		float z = (float)rand.nextGaussian();
+		float n = (float)Math.sqrt(x*x + y*y + z*z);
+		return new Point3D_F32(x/n, y/n, z/n);
+	}
+
+	@Benchmark
+	public TriangleMeshBvh3D_F32 build() {
+		bvh.setConcurrent(false);
+		bvh.build(meshVertexes, meshIndexes);
+		return bvh;
+	}
+
+	@Benchmark
+	public TriangleMeshBvh3D_F32 buildConcurrent() {
+		bvh.setConcurrent(true);
+		bvh.build(meshVertexes, meshIndexes);
+		return bvh;
+	}
+
+	@Benchmark
+	public int raysBvh() {
+		int total = 0;
+		for (int i = 0; i < segments.size(); i++) {
+			if( query.intersectFirst(segments.get(i), hit) >= 0 )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int raysBruteForce() {
+		int total = 0;
+		for (int i = 0; i < segments.size(); i++) {
+			LineSegment3D_F32 segment = segments.get(i);
+			float best = Float.MAX_VALUE;
+			for (int j = 0; j < triangles.size(); j++) {
+				if( Intersection3D_F32.intersection(triangles.get(j), segment, hit) == 1 )
+					best = (float)Math.min(best, hit.distance2(segment.a));
+			}
+			if( best != Float.MAX_VALUE )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float closestBvh() {
+		float total = 0;
+		for (int i = 0; i < points.size(); i++) {
+			total += query.signedDistance(points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float closestBruteForce() {
+		float total = 0;
+		for (int i = 0; i < points.size(); i++) {
+			Point3D_F32 p = points.get(i);
+			float best = Float.MAX_VALUE;
+			for (int j = 0; j < triangles.size(); j++) {
+				best = (float)Math.min(best, (float)Math.abs(Distance3D_F32.distance(triangles.get(j), p)));
+			}
+			total += best;
+		}
+		return total;
+	}
+}
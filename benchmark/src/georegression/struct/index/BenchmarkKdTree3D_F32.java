@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.struct.point.PackedPoint3D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link KdTree3D_F32}.  Searches are performed for a fixed set of query points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkKdTree3D_F32 {
+
+	@Param({"10000","1000000"})
+	public int size;
+
+	PackedPoint3D_F32 points = new PackedPoint3D_F32();
+	PackedPoint3D_F32 queries = new PackedPoint3D_F32();
+
+	KdTree3D_F32 tree = new KdTree3D_F32();
+	KdTree3D_F32 treeConcurrent = new KdTree3D_F32();
+
+	GrowQueue_I32 indexes = new GrowQueue_I32();
+	GrowQueue_F32 distances = new GrowQueue_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for (int i = 0; i < size; i++) {
+			points.add(rand.nextFloat()*100,rand.nextFloat()*100,rand.nextFloat()*10);
+		}
+		for (int i = 0; i < 1000; i++) {
+			queries.add(rand.nextFloat()*100,rand.nextFloat()*100,rand.nextFloat()*10);
+		}
+
+		tree.build(points);
+		treeConcurrent.setConcurrent(true);
+	}
+
+	@Benchmark
+	public KdTree3D_F32 build() {
+		tree.build(points);
+		return tree;
+	}
+
+	@Benchmark
+	public KdTree3D_F32 buildConcurrent() {
+		treeConcurrent.build(points);
+		return treeConcurrent;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 nearest() {
+		tree.findNearest(queries,Float.MAX_VALUE,indexes);
+		return indexes;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 nearestK() {
+		for (int i = 0; i < queries.size; i++) {
+			tree.findNearest(queries.getTemp(i),Float.MAX_VALUE,10,indexes,distances);
+		}
+		return indexes;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 radius() {
+		for (int i = 0; i < queries.size; i++) {
+			tree.findRadius(queries.getTemp(i),1,indexes,distances);
+		}
+		return indexes;
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.geometry.UtilPolygons2D_F64;
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PolygonIndex2D_F64} against a linear scan of bounding boxes followed by
+ * {@link Intersection2D_F64#containConcave}.  Searches are performed for a fixed set of query points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPolygonIndex2D {
+
+	@Param({"10000","200000"})
+	public int size;
+
+	List<Polygon2D_F64> polygons = new ArrayList<Polygon2D_F64>();
+	List<Rectangle2D_F64> bounds = new ArrayList<Rectangle2D_F64>();
+	List<Point2D_F64> queries = new ArrayList<Point2D_F64>();
+	List<Rectangle2D_F64> windows = new ArrayList<Rectangle2D_F64>();
+
+	PolygonIndex2D_F64 index = new PolygonIndex2D_F64();
+
+	GrowQueue_I32 found = new GrowQueue_I32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// square grid of small hexagons which slightly overlap
+		int cells = (int)Math.sqrt(size);
+		for (int i = 0; i < size; i++) {
+			double cx = (i%cells) + rand.nextDouble()*0.1;
+			double cy = (i/cells) + rand.nextDouble()*0.1;
+			Polygon2D_F64 poly = new Polygon2D_F64(6);
+			for (int j = 0; j < 6; j++) {
+				double theta = Math.PI*2*j/6;
+				poly.get(j).set(cx + 0.6*Math.cos(theta), cy + 0.6*Math.sin(theta));
+			}
+			polygons.add(poly);
+
+			Rectangle2D_F64 r = new Rectangle2D_F64();
+			UtilPolygons2D_F64.bounding(poly, r);
+			bounds.add(r);
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			double x = rand.nextDouble()*cells;
+			double y = rand.nextDouble()*cells;
+			queries.add(new Point2D_F64(x, y));
+			windows.add(new Rectangle2D_F64(x, y, x + 3, y + 3));
+		}
+
+		index.build(polygons);
+	}
+
+	@Benchmark
+	public PolygonIndex2D_F64 build() {
+		index.build(polygons);
+		return index;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 containing() {
+		for (int i = 0; i < queries.size(); i++) {
+			index.findContaining(queries.get(i), found);
+		}
+		return found;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 containingLinear() {
+		for (int i = 0; i < queries.size(); i++) {
+			Point2D_F64 p = queries.get(i);
+			found.reset();
+			for (int j = 0; j < bounds.size(); j++) {
+				Rectangle2D_F64 r = bounds.get(j);
+				if( p.x >= r.p0.x && p.x <= r.p1.x && p.y >= r.p0.y && p.y <= r.p1.y &&
+						Intersection2D_F64.containConcave(polygons.get(j), p) )
+					found.add(j);
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 window() {
+		for (int i = 0; i < windows.size(); i++) {
+			index.findCandidates(windows.get(i), found);
+		}
+		return found;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 windowLinear() {
+		for (int i = 0; i < windows.size(); i++) {
+			Rectangle2D_F64 w = windows.get(i);
+			found.reset();
+			for (int j = 0; j < bounds.size(); j++) {
+				if( Intersection2D_F64.intersects(bounds.get(j), w) )
+					found.add(j);
+			}
+		}
+		return found;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PreparedPolygon2D_F64} against {@link Intersection2D_F64#containConcave}.  A fixed set of
+ * query points is tested against a concave star shaped polygon.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPreparedPolygon2D {
+
+	@Param({"10","1000"})
+	public int vertexes;
+
+	Polygon2D_F64 polygon;
+	Point2D_F64 queries[] = new Point2D_F64[1000];
+
+	PreparedPolygon2D_F64 prepared = new PreparedPolygon2D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		polygon = new Polygon2D_F64(vertexes);
+		for (int i = 0; i < vertexes; i++) {
+			double theta = Math.PI*2*i/vertexes;
+			double r = 0.5 + rand.nextDouble()*1.5;
+			polygon.get(i).set(r*Math.cos(theta), r*Math.sin(theta));
+		}
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = new Point2D_F64(rand.nextDouble()*5-2.5, rand.nextDouble()*5-2.5);
+		}
+
+		prepared.setPolygon(polygon);
+	}
+
+	@Benchmark
+	public PreparedPolygon2D_F64 prepare() {
+		prepared.setPolygon(polygon);
+		return prepared;
+	}
+
+	@Benchmark
+	public int containsPrepared() {
+		int total = 0;
+		for (int i = 0; i < queries.length; i++) {
+			if( prepared.contains(queries[i]) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int containConcave() {
+		int total = 0;
+		for (int i = 0; i < queries.length; i++) {
+			if( Intersection2D_F64.containConcave(polygon, queries[i]) )
+				total++;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.transform.se;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3Fixed_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for applying {@link Se3_F32} and {@link Se2_F32} transforms to points.  Each operation transforms
+ * every point in the set.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSePointOps_F32 {
+
+	@Param({"1000","1000000"})
+	public int size;
+
+	Se3_F32 se3;
+	Se3Fixed_F32 se3Fixed;
+	Se2_F32 se2 = new Se2_F32(1,-2,0.3f);
+
+	List<Point3D_F32> list;
+	PackedPoint3D_F32 packed = new PackedPoint3D_F32();
+	PackedPoint3D_F32 output = new PackedPoint3D_F32();
+	PackedPoint2D_F32 packed2 = new PackedPoint2D_F32();
+	PackedPoint2D_F32 output2 = new PackedPoint2D_F32();
+	Point3D_F32 work = new Point3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		se3 = SpecialEuclideanOps_F32.setEulerXYZ(0.1f,-0.2f,0.3f,1,2,3,null);
+		se3Fixed = new Se3Fixed_F32(se3);
+
+		list = UtilPoint3D_F32.random(-10,10,size,rand);
+		packed.reset();
+		packed.addAll(list);
+		output.resize(size);
+
+		packed2.reset();
+		for (int i = 0; i < size; i++) {
+			packed2.add(rand.nextFloat()*20-10,rand.nextFloat()*20-10);
+		}
+		output2.resize(size);
+	}
+
+	@Benchmark
+	public Point3D_F32 se3_point() {
+		Point3D_F32 p = work;
+		for (int i = 0; i < list.size(); i++) {
+			SePointOps_F32.transform(se3,list.get(i),p);
+		}
+		return p;
+	}
+
+	@Benchmark
+	public List<Point3D_F32> se3_list() {
+		SePointOps_F32.transform(se3,list);
+		return list;
+	}
+
+	@Benchmark
+	public PackedPoint3D_F32 se3_packed() {
+		SePointOps_F32.transform(se3,packed,output);
+		return output;
+	}
+
+	@Benchmark
+	public PackedPoint3D_F32 se3Reverse_packed() {
+		SePointOps_F32.transformReverse(se3,packed,output);
+		return output;
+	}
+
+	@Benchmark
+	public PackedPoint3D_F32 se3Fixed_packed() {
+		SePointOps_F32.transform(se3Fixed,packed.data,0,output.data,0,size);
+		return output;
+	}
+
+	@Benchmark
+	public PackedPoint3D_F32 se3_packed_concurrent() {
+		SePointOps_F32.transformConcurrent(se3,packed,output);
+		return output;
+	}
+
+	@Benchmark
+	public Point2D_F32 se2_point() {
+		Point2D_F32 p = new Point2D_F32();
+		for (int i = 0; i < size; i++) {
+			SePointOps_F32.transform(se2,packed2.getX(i),packed2.getY(i),p);
+		}
+		return p;
+	}
+
+	@Benchmark
+	public PackedPoint2D_F32 se2_packed() {
+		SePointOps_F32.transform(se2,packed2,output2);
+		return output2;
+	}
+
+	@Benchmark
+	public Se3_F32 se3_concat() {
+		return se3.concat(se3,null);
+	}
+
+	@Benchmark
+	public Se3Fixed_F32 se3Fixed_concat() {
+		return se3Fixed.concat(se3Fixed,null);
+	}
+}
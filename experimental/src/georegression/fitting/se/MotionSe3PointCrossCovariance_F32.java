@@ -21,7 +21,6 @@ package georegression.fitting.se;
 import georegression.fitting.MotionTransformPoint;
 import georegression.geometry.ConvertRotation3D_F32;
 import georegression.geometry.GeometryMath_F32;
-import georegression.geometry.UtilPoint3D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se3_F32;
@@ -62,6 +61,9 @@ public class MotionSe3PointCrossCovariance_F32 implements MotionTransformPoint<S
 	// temporarily stores the quaternion
 	private Quaternion_F32 quat = new Quaternion_F32();
 
+	// computes the means and cross-covariance
+	CrossCovarianceReduction3D_F32 reduction = new CrossCovarianceReduction3D_F32();
+
 	public float[] getParam() {
 		return param;
 	}
@@ -73,51 +75,17 @@ public class MotionSe3PointCrossCovariance_F32 implements MotionTransformPoint<S
 
 	@Override
 	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts) {
-		if( srcPts.size() != dstPts.size() )
-			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
-
-		// find the mean of both sets of points
-		Point3D_F32 meanFrom = UtilPoint3D_F32.mean(srcPts, null );
-		Point3D_F32 meanTo = UtilPoint3D_F32.mean(dstPts, null );
-
-		final int N = srcPts.size();
-
-		// compute the cross-covariance matrix Sigma of the two sets of points
-		// Sigma = (1/N)*sum(i=1:N,[p*x^T]) + mu_p*mu_x^T
-		// for performance reasons usage of matrices is postponed
-		float s11 = 0, s12 = 0, s13 = 0;
-		float s21 = 0, s22 = 0, s23 = 0;
-		float s31 = 0, s32 = 0, s33 = 0;
-
-		// mu*mu^2
-		float m11 = meanFrom.x * meanTo.x, m12 = meanFrom.x * meanTo.y, m13 = meanFrom.x * meanTo.z;
-		float m21 = meanFrom.y * meanTo.x, m22 = meanFrom.y * meanTo.y, m23 = meanFrom.y * meanTo.z;
-		float m31 = meanFrom.z * meanTo.x, m32 = meanFrom.z * meanTo.y, m33 = meanFrom.z * meanTo.z;
-
-		for( int i = 0; i < N; i++ ) {
-			Point3D_F32 f = srcPts.get( i );
-			Point3D_F32 t = dstPts.get( i );
-
-			s11 += f.x * t.x;
-			s12 += f.x * t.y;
-			s13 += f.x * t.z;
-			s21 += f.y * t.x;
-			s22 += f.y * t.y;
-			s23 += f.y * t.z;
-			s31 += f.z * t.x;
-			s32 += f.z * t.y;
-			s33 += f.z * t.z;
-		}
-
-		s11 = s11 / N - m11;
-		s12 = s12 / N - m12;
-		s13 = s13 / N - m13;
-		s21 = s21 / N - m21;
-		s22 = s22 / N - m22;
-		s23 = s23 / N - m23;
-		s31 = s31 / N - m31;
-		s32 = s32 / N - m32;
-		s33 = s33 / N - m33;
+		// find the mean of both sets of points and their cross-covariance
+		reduction.process(srcPts, dstPts, null);
+
+		Point3D_F32 meanFrom = reduction.meanSrc.copy();
+		Point3D_F32 meanTo = reduction.meanDst;
+
+		// Sigma = (1/N)*sum(i=1:N,[(p-mu_p)*(x-mu_x)^T]), which is the transpose of the reduction's sum
+		float N = reduction.totalWeight;
+		float s11 = reduction.s11/N, s12 = reduction.s21/N, s13 = reduction.s31/N;
+		float s21 = reduction.s12/N, s22 = reduction.s22/N, s23 = reduction.s32/N;
+		float s31 = reduction.s13/N, s32 = reduction.s23/N, s33 = reduction.s33/N;
 
 		SimpleMatrix Sigma = new SimpleMatrix( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
 
@@ -166,6 +134,17 @@ public class MotionSe3PointCrossCovariance_F32 implements MotionTransformPoint<S
 		ConvertRotation3D_F32.quaternionToMatrix( quat, motion.getR() );
 	}
 
+	public boolean isConcurrent() {
+		return reduction.isConcurrent();
+	}
+
+	/**
+	 * If true then the means and cross-covariance of large point sets will be computed using multiple threads.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		reduction.setConcurrent(concurrent);
+	}
+
 	@Override
 	public int getMinimumPoints() {
 		return 3;
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting;
+
+import georegression.misc.GrlConstants;
+
+/**
+ * <p>
+ * Allocation free decompositions of very small fixed size matrices, i.e. 3x3 and 4x4, which are used inside
+ * of fitting algorithms.  The generic decompositions in EJML work on matrices of any size and have
+ * significant overhead when applied to tiny matrices millions of times.  All matrices are stored in row-major
+ * arrays, which is the same format as DenseMatrix64F.data.
+ * </p>
+ *
+ * <p>
+ * The symmetric eigenvalue decomposition is computed using cyclic Jacobi sweeps, which converge quadratically
+ * and produce eigenvectors which are orthogonal to machine precision.  The SVD is computed with one sided
+ * Jacobi (Hestenes) which avoids squaring the condition number like A<sup>T</sup>A would.  Small symmetric
+ * positive definite linear systems, such as the normal equations inside of Gauss-Newton, are solved using
+ * a Cholesky decomposition.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FixedDecomposition_F32 {
+
+	/**
+	 * Maximum number of sweeps before giving up.  Typically 4 to 6 sweeps are needed.
+	 */
+	public static final int MAX_SWEEPS = 50;
+
+	/**
+	 * Largest linear system which can be solved by {@link #solveSymmetric}
+	 */
+	public static final int MAX_SOLVE = 6;
+
+	// work space
+	float B[] = new float[16];
+	float L[] = new float[MAX_SOLVE*MAX_SOLVE];
+
+	/**
+	 * <p>
+	 * Computes the SVD of a 3x3 matrix, A = U*diag(S)*V<sup>T</sup>.  Singular values are sorted in descending
+	 * order.  U and V are orthogonal but their determinant can be -1.  If A is singular then the
+	 * columns in U which correspond to zero singular values are selected to keep U orthogonal.
+	 * </p>
+	 *
+	 * @param A (Input) 3x3 matrix.  Not modified.
+	 * @param U (Output) 3x3 matrix with left singular vectors as columns.
+	 * @param S (Output) Array with 3 singular values
+	 * @param V (Output) 3x3 matrix with right singular vectors as columns.
+	 * @return true if it converged
+	 */
+	public boolean svd3( float A[] , float U[] , float S[] , float V[] ) {
+		System.arraycopy(A,0,B,0,9);
+		setIdentity(V,3);
+
+		boolean converged = false;
+		for (int sweep = 0; sweep < MAX_SWEEPS && !converged; sweep++) {
+			converged = true;
+			for (int p = 0; p < 2; p++) {
+				for (int q = p+1; q < 3; q++) {
+					float alpha = B[p]*B[p] + B[3+p]*B[3+p] + B[6+p]*B[6+p];
+					float beta  = B[q]*B[q] + B[3+q]*B[3+q] + B[6+q]*B[6+q];
+					float gamma = B[p]*B[q] + B[3+p]*B[3+q] + B[6+p]*B[6+q];
+
+					if( (float)Math.abs(gamma) <= (float)GrlConstants.F_EPS*Math.sqrt(alpha*beta) )
+						continue;
+					converged = false;
+
+					float zeta = (beta - alpha)/(2*gamma);
+					float t = rotationTangent(zeta);
+					float c = 1.0f / (float)Math.sqrt(1 + t*t);
+					float s = c*t;
+
+					rotateColumns(B, 3, p, q, c, s);
+					rotateColumns(V, 3, p, q, c, s);
+				}
+			}
+		}
+
+		// singular values are the length of each column
+		for (int i = 0; i < 3; i++) {
+			S[i] = (float)Math.sqrt(B[i]*B[i] + B[3+i]*B[3+i] + B[6+i]*B[6+i]);
+		}
+		sortDescending(S, B, V, 3);
+
+		// left singular vectors are the normalized columns
+		float tol = S[0]*(float)GrlConstants.F_EPS;
+		if( S[0] == 0 ) {
+			setIdentity(U,3);
+		} else {
+			U[0] = B[0]/S[0]; U[3] = B[3]/S[0]; U[6] = B[6]/S[0];
+			if( S[1] <= tol ) {
+				perpendicular(U);
+			} else {
+				U[1] = B[1]/S[1]; U[4] = B[4]/S[1]; U[7] = B[7]/S[1];
+			}
+			if( S[2] <= tol ) {
+				// U2 = U0 x U1
+				U[2] = U[3]*U[7] - U[6]*U[4];
+				U[5] = U[6]*U[1] - U[0]*U[7];
+				U[8] = U[0]*U[4] - U[3]*U[1];
+			} else {
+				U[2] = B[2]/S[2]; U[5] = B[5]/S[2]; U[8] = B[8]/S[2];
+			}
+		}
+
+		return converged;
+	}
+
+	/**
+	 * Computes the eigenvalues and eigenvectors of a symmetric 3x3 matrix.  Eigenvalues are sorted
+	 * in descending order.
+	 *
+	 * @param A (Input) Symmetric 3x3 matrix.  Only the upper triangle is read.  Not modified.
+	 * @param values (Output) Array with the 3 eigenvalues
+	 * @param vectors (Output) 3x3 matrix with the eigenvectors as columns
+	 * @return true if it converged
+	 */
+	public boolean symmetricEigen3( float A[] , float values[] , float vectors[] ) {
+		return symmetricEigen(A, 3, values, vectors);
+	}
+
+	/**
+	 * Computes the eigenvalues and eigenvectors of a symmetric 4x4 matrix.  Eigenvalues are sorted
+	 * in descending order.
+	 *
+	 * @param A (Input) Symmetric 4x4 matrix.  Only the upper triangle is read.  Not modified.
+	 * @param values (Output) Array with the 4 eigenvalues
+	 * @param vectors (Output) 4x4 matrix with the eigenvectors as columns
+	 * @return true if it converged
+	 */
+	public boolean symmetricEigen4( float A[] , float values[] , float vectors[] ) {
+		return symmetricEigen(A, 4, values, vectors);
+	}
+
+	private boolean symmetricEigen( float A[] , int n , float values[] , float vectors[] ) {
+		// copy the upper triangle and make it symmetric
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				B[i*n+j] = B[j*n+i] = A[i*n+j];
+			}
+		}
+		setIdentity(vectors,n);
+
+		boolean converged = false;
+		for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+			float off = 0, diag = 0;
+			for (int i = 0; i < n; i++) {
+				diag += B[i*n+i]*B[i*n+i];
+				for (int j = i+1; j < n; j++) {
+					off += B[i*n+j]*B[i*n+j];
+				}
+			}
+			if( off <= (float)GrlConstants.F_EPS*(float)GrlConstants.F_EPS*diag || off == 0 ) {
+				converged = true;
+				break;
+			}
+
+			for (int p = 0; p < n-1; p++) {
+				for (int q = p+1; q < n; q++) {
+					float apq = B[p*n+q];
+					if( apq == 0 )
+						continue;
+
+					float theta = (B[q*n+q] - B[p*n+p])/(2*apq);
+					float t = rotationTangent(theta);
+					float c = 1.0f / (float)Math.sqrt(1 + t*t);
+					float s = c*t;
+
+					// B = J^T*B*J
+					rotateColumns(B, n, p, q, c, s);
+					rotateRows(B, n, p, q, c, s);
+					rotateColumns(vectors, n, p, q, c, s);
+				}
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			values[i] = B[i*n+i];
+		}
+		sortDescending(values, null, vectors, n);
+
+		return converged;
+	}
+
+	/**
+	 * Solves the linear system A*x = b, where A is symmetric positive definite, using a Cholesky decomposition.
+	 *
+	 * @param A (Input) Symmetric NxN matrix.  Only the lower triangle is read.  Not modified.
+	 * @param b (Input) Array with N elements.  Not modified.
+	 * @param x (Output) Solution.  Can be the same array as b.
+	 * @param N Size of the system.  Must be &le; {@link #MAX_SOLVE}
+	 * @return true if A is positive definite and the system was solved
+	 */
+	public boolean solveSymmetric( float A[] , float b[] , float x[] , int N ) {
+		if( N > MAX_SOLVE )
+			throw new IllegalArgumentException("System is too large");
+
+		// A = L*L^T
+		for (int i = 0; i < N; i++) {
+			for (int j = 0; j <= i; j++) {
+				float sum = A[i*N+j];
+				for (int k = 0; k < j; k++) {
+					sum -= L[i*N+k]*L[j*N+k];
+				}
+				if( i == j ) {
+					if( sum <= 0 )
+						return false;
+					L[i*N+i] = (float)Math.sqrt(sum);
+				} else {
+					L[i*N+j] = sum/L[j*N+j];
+				}
+			}
+		}
+
+		// L*y = b
+		for (int i = 0; i < N; i++) {
+			float sum = b[i];
+			for (int k = 0; k < i; k++) {
+				sum -= L[i*N+k]*x[k];
+			}
+			x[i] = sum/L[i*N+i];
+		}
+
+		// L^T*x = y
+		for (int i = N-1; i >= 0; i--) {
+			float sum = x[i];
+			for (int k = i+1; k < N; k++) {
+				sum -= L[k*N+i]*x[k];
+			}
+			x[i] = sum/L[i*N+i];
+		}
+
+		return true;
+	}
+
+	/**
+	 * Selects the tangent of the smallest rotation which zeros the off diagonal element.
+	 */
+	private static float rotationTangent( float theta ) {
+		float abs = (float)Math.abs(theta);
+		// avoid overflow when squaring a large number
+		if( abs > 1e15 )
+			return 0.5f/theta;
+		float t = 1.0f/(abs + (float)Math.sqrt(1 + theta*theta));
+		return theta < 0 ? -t : t;
+	}
+
+	/**
+	 * M = M*J, where J is a Givens rotation in the p-q plane
+	 */
+	private static void rotateColumns( float M[] , int n , int p , int q , float c , float s ) {
+		for (int k = 0; k < n; k++) {
+			int row = k*n;
+			float mp = M[row+p];
+			float mq = M[row+q];
+			M[row+p] = c*mp - s*mq;
+			M[row+q] = s*mp + c*mq;
+		}
+	}
+
+	/**
+	 * M = J<sup>T</sup>*M, where J is a Givens rotation in the p-q plane
+	 */
+	private static void rotateRows( float M[] , int n , int p , int q , float c , float s ) {
+		for (int k = 0; k < n; k++) {
+			float mp = M[p*n+k];
+			float mq = M[q*n+k];
+			M[p*n+k] = c*mp - s*mq;
+			M[q*n+k] = s*mp + c*mq;
+		}
+	}
+
+	/**
+	 * Sorts the values in descending order and swaps the columns of the matrices to match.  Insertion sort
+	 * since there are at most 4 elements.
+	 */
+	private static void sortDescending( float values[] , float M0[] , float M1[] , int n ) {
+		for (int i = 1; i < n; i++) {
+			for (int j = i; j > 0 && values[j-1] < values[j]; j--) {
+				float tmp = values[j-1]; values[j-1] = values[j]; values[j] = tmp;
+				if( M0 != null )
+					swapColumns(M0, n, j-1, j);
+				swapColumns(M1, n, j-1, j);
+			}
+		}
+	}
+
+	private static void swapColumns( float M[] , int n , int a , int b ) {
+		for (int k = 0; k < n; k++) {
+			float tmp = M[k*n+a];
+			M[k*n+a] = M[k*n+b];
+			M[k*n+b] = tmp;
+		}
+	}
+
+	private static void setIdentity( float M[] , int n ) {
+		for (int i = 0; i < n*n; i++) {
+			M[i] = 0;
+		}
+		for (int i = 0; i < n; i++) {
+			M[i*n+i] = 1;
+		}
+	}
+
+	/**
+	 * Sets column 1 of U to a unit vector which is perpendicular to column 0
+	 */
+	private static void perpendicular( float U[] ) {
+		float x = U[0], y = U[3], z = U[6];
+
+		// cross product with the axis which is least aligned with the vector
+		float ax, ay, az;
+		if( (float)Math.abs(x) <= (float)Math.abs(y) && (float)Math.abs(x) <= (float)Math.abs(z) ) {
+			ax = 0; ay = z; az = -y;
+		} else if( (float)Math.abs(y) <= (float)Math.abs(z) ) {
+			ax = -z; ay = 0; az = x;
+		} else {
+			ax = y; ay = -x; az = 0;
+		}
+		float n = (float)Math.sqrt(ax*ax + ay*ay + az*az);
+		U[1] = ax/n; U[4] = ay/n; U[7] = az/n;
+	}
+}
@@ -18,11 +18,9 @@
 
 package georegression.fitting.plane;
 
+import georegression.fitting.FixedDecomposition_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Vector3D_F32;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.DecompositionFactory;
-import org.ejml.interfaces.decomposition.SingularValueDecomposition;
 
 import java.util.List;
 
@@ -33,10 +31,11 @@ import java.util.List;
  */
 public class FitPlane3D_F32 {
 
-	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3,10,false, true, false);
+	FixedDecomposition_F32 decomposition = new FixedDecomposition_F32();
 
-	DenseMatrix64F A = new DenseMatrix64F(3,3);
-	DenseMatrix64F V = new DenseMatrix64F(3,3);
+	float S[] = new float[9];
+	float values[] = new float[3];
+	float vectors[] = new float[9];
 
 	/**
 	 * SVD based method for fitting a plane to a set of points.  The plane's equation is returned
@@ -80,37 +79,32 @@ public class FitPlane3D_F32 {
 
 		final int N = points.size();
 
-		// construct the matrix
-		A.reshape(N,3);
-		int index = 0;
+		// construct the scatter matrix, which is A^T*A where each row in A is a point relative to the plane point
+		float xx = 0, xy = 0, xz = 0, yy = 0, yz = 0, zz = 0;
 		for( int i = 0; i < N; i++ ) {
 			Point3D_F32 p = points.get(i);
-			A.data[index++] = p.x - pointOnPlane.x;
-			A.data[index++] = p.y - pointOnPlane.y;
-			A.data[index++] = p.z - pointOnPlane.z;
-		}
+			float dx = p.x - pointOnPlane.x;
+			float dy = p.y - pointOnPlane.y;
+			float dz = p.z - pointOnPlane.z;
 
-		// decompose and find the singular value
-		if( !svd.decompose(A) )
-			return false;
+			xx += dx*dx; xy += dx*dy; xz += dx*dz;
+			yy += dy*dy; yz += dy*dz;
+			zz += dz*dz;
+		}
 
-		/**/double sv[] = svd.getSingularValues();
+		S[0] = xx; S[1] = xy; S[2] = xz;
+		S[3] = xy; S[4] = yy; S[5] = yz;
+		S[6] = xz; S[7] = yz; S[8] = zz;
 
-		int smallestIndex = -1;
-		/**/double smallestValue = Float.MAX_VALUE;
-		for( int i = 0; i < 3; i++ ) {
-			/**/double v = sv[i];
-			if( v < smallestValue ) {
-				smallestValue = v;
-				smallestIndex = i;
-			}
-		}
+		// the right singular vector of A with the smallest singular value is the normal.  Which is the same
+		// as the eigenvector of the scatter matrix with the smallest eigenvalue
+		if( !decomposition.symmetricEigen3(S,values,vectors) )
+			return false;
 
-		// the normal is the singular vector
-		svd.getV(V,true);
-		outputNormal.x = (float) V.unsafe_get(smallestIndex,0);
-		outputNormal.y = (float) V.unsafe_get(smallestIndex,1);
-		outputNormal.z = (float) V.unsafe_get(smallestIndex,2);
+		// eigenvalues are sorted in descending order
+		outputNormal.x = vectors[2];
+		outputNormal.y = vectors[5];
+		outputNormal.z = vectors[8];
 
 		return true;
 	}
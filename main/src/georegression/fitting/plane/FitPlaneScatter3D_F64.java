@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.plane;
+
+import georegression.fitting.FixedDecomposition_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Fits a plane to a set of points which can be modified incrementally.  Only the mean and the 3x3 scatter
+ * matrix of the points are stored, which are updated using Welford's method as points are added or removed.
+ * The plane's normal is the eigenvector of the scatter matrix with the smallest eigenvalue, which is the same
+ * solution as found by {@link FitPlane3D_F64}.  Memory usage is constant and fitting takes the same
+ * amount of time no matter how many points there are.
+ * </p>
+ *
+ * <p>
+ * Repeatedly adding and removing points will slowly accumulate floating point errors.  If points are
+ * added and removed for a very long time then the fitter can be periodically rebuilt from scratch.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitPlaneScatter3D_F64 {
+
+	// number of points
+	public int N;
+
+	// mean of all the points
+	public Point3D_F64 mean = new Point3D_F64();
+
+	// upper triangle of the scatter matrix, sum( (p-mean)*(p-mean)^T )
+	public double sxx, sxy, sxz;
+	public double syy, syz;
+	public double szz;
+
+	FixedDecomposition_F64 decomposition = new FixedDecomposition_F64();
+	double S[] = new double[9];
+	double values[] = new double[3];
+	double vectors[] = new double[9];
+
+	/**
+	 * Removes all the points
+	 */
+	public void reset() {
+		N = 0;
+		mean.set(0,0,0);
+		sxx = sxy = sxz = 0;
+		syy = syz = 0;
+		szz = 0;
+	}
+
+	/**
+	 * Adds a point
+	 */
+	public void add( Point3D_F64 p ) {
+		add(p.x,p.y,p.z);
+	}
+
+	/**
+	 * Adds a point
+	 */
+	public void add( double x , double y , double z ) {
+		N++;
+
+		double dx = x - mean.x;
+		double dy = y - mean.y;
+		double dz = z - mean.z;
+
+		mean.x += dx/N;
+		mean.y += dy/N;
+		mean.z += dz/N;
+
+		double ex = x - mean.x;
+		double ey = y - mean.y;
+		double ez = z - mean.z;
+
+		sxx += dx*ex; sxy += dx*ey; sxz += dx*ez;
+		syy += dy*ey; syz += dy*ez;
+		szz += dz*ez;
+	}
+
+	/**
+	 * Adds all the points in the list
+	 */
+	public void addAll( List<Point3D_F64> points ) {
+		for (int i = 0; i < points.size(); i++) {
+			Point3D_F64 p = points.get(i);
+			add(p.x,p.y,p.z);
+		}
+	}
+
+	/**
+	 * Adds all the points in the packed array
+	 */
+	public void addAll( PackedPoint3D_F64 points ) {
+		addAll(points.data,0,points.size);
+	}
+
+	/**
+	 * Adds points which are stored in an array as interleaved (x,y,z) tuples
+	 *
+	 * @param data Array containing the points
+	 * @param offset Index of the first point's x-coordinate
+	 * @param count Number of points
+	 */
+	public void addAll( double data[] , int offset , int count ) {
+		int end = offset + count*3;
+		for (int i = offset; i < end; i += 3) {
+			add(data[i],data[i+1],data[i+2]);
+		}
+	}
+
+	/**
+	 * Removes a point which was previously added.
+	 */
+	public void remove( Point3D_F64 p ) {
+		remove(p.x,p.y,p.z);
+	}
+
+	/**
+	 * Removes a point which was previously added.  This is the exact inverse of
+	 * {@link #add(double, double, double)}.
+	 */
+	public void remove( double x , double y , double z ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException("There are no points to remove");
+		if( N == 1 ) {
+			reset();
+			return;
+		}
+
+		// difference from the current mean
+		double ex = x - mean.x;
+		double ey = y - mean.y;
+		double ez = z - mean.z;
+
+		N--;
+
+		mean.x -= ex/N;
+		mean.y -= ey/N;
+		mean.z -= ez/N;
+
+		// difference from the mean once the point has been removed
+		double dx = x - mean.x;
+		double dy = y - mean.y;
+		double dz = z - mean.z;
+
+		sxx -= dx*ex; sxy -= dx*ey; sxz -= dx*ez;
+		syy -= dy*ey; syz -= dy*ez;
+		szz -= dz*ez;
+	}
+
+	/**
+	 * Adds all the points in another fitter to this one.
+	 *
+	 * @param src The fitter which is to be merged into this one.  Not modified.
+	 */
+	public void merge( FitPlaneScatter3D_F64 src ) {
+		if( src.N == 0 )
+			return;
+
+		int total = N + src.N;
+
+		double dx = src.mean.x - mean.x;
+		double dy = src.mean.y - mean.y;
+		double dz = src.mean.z - mean.z;
+
+		double w = (double)N*src.N/total;
+
+		sxx += src.sxx + w*dx*dx; sxy += src.sxy + w*dx*dy; sxz += src.sxz + w*dx*dz;
+		syy += src.syy + w*dy*dy; syz += src.syz + w*dy*dz;
+		szz += src.szz + w*dz*dz;
+
+		double f = (double)src.N/total;
+		mean.x += dx*f;
+		mean.y += dy*f;
+		mean.z += dz*f;
+
+		N = total;
+	}
+
+	/**
+	 * Fits a plane to the points.
+	 *
+	 * @param outputCenter (Output) Centroid of the points. Modified.
+	 * @param outputNormal (Output) Normal of the plane.  Normalized.  Modified.
+	 * @return true if successful or false if there are fewer than three points.
+	 */
+	public boolean process( Point3D_F64 outputCenter , Vector3D_F64 outputNormal ) {
+		if( !solve() )
+			return false;
+
+		// the normal is the eigenvector with the smallest eigenvalue.  Eigenvalues are sorted in descending order
+		outputNormal.x = vectors[2];
+		outputNormal.y = vectors[5];
+		outputNormal.z = vectors[8];
+
+		outputCenter.set(mean);
+
+		return true;
+	}
+
+	/**
+	 * Fits a plane to the points.
+	 *
+	 * @param output (Output) The plane in general form with a normalized (A,B,C).  Modified.
+	 * @return true if successful or false if there are fewer than three points.
+	 */
+	public boolean process( PlaneGeneral3D_F64 output ) {
+		if( !solve() )
+			return false;
+
+		output.A = vectors[2];
+		output.B = vectors[5];
+		output.C = vectors[8];
+		output.D = output.A*mean.x + output.B*mean.y + output.C*mean.z;
+
+		return true;
+	}
+
+	/**
+	 * Computes the eigen decomposition of the scatter matrix
+	 */
+	private boolean solve() {
+		if( N < 3 )
+			return false;
+
+		S[0] = sxx; S[1] = sxy; S[2] = sxz;
+		S[3] = sxy; S[4] = syy; S[5] = syz;
+		S[6] = sxz; S[7] = syz; S[8] = szz;
+
+		return decomposition.symmetricEigen3(S,values,vectors);
+	}
+
+	/**
+	 * Mean squared distance of the points from the plane found by the most recent call to process.
+	 */
+	public double getMeanSquaredError() {
+		return Math.max(0,values[2])/N;
+	}
+
+	/**
+	 * Number of points which have been added
+	 */
+	public int size() {
+		return N;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.robust;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps a {@link MotionTransformPoint} so that it can be used as a {@link ModelGenerator} by a robust estimator, or
+ * as a {@link ModelFitter} to refine the motion using all the inliers.  When used as a fitter the initial model is
+ * ignored since the motion is found in closed form.
+ *
+ * @author Peter Abeles
+ */
+public class MotionTransformPointGenerator<Model extends InvertibleTransform, P extends GeoTuple>
+		implements ModelGenerator<Model,PointPair<P>>, ModelFitter<Model,PointPair<P>>
+{
+	MotionTransformPoint<Model,P> motion;
+	ModelManager<Model> manager;
+
+	// storage for the points after they have been split into two lists
+	List<P> src = new ArrayList<P>();
+	List<P> dst = new ArrayList<P>();
+
+	/**
+	 * @param motion Estimates the motion.  Each thread needs its own instance.
+	 * @param manager Used to copy the found motion into the output model.
+	 */
+	public MotionTransformPointGenerator(MotionTransformPoint<Model, P> motion, ModelManager<Model> manager) {
+		this.motion = motion;
+		this.manager = manager;
+	}
+
+	@Override
+	public boolean generate(List<PointPair<P>> dataSet, Model output) {
+		src.clear();
+		dst.clear();
+		for (int i = 0; i < dataSet.size(); i++) {
+			PointPair<P> p = dataSet.get(i);
+			src.add(p.src);
+			dst.add(p.dst);
+		}
+
+		if( !motion.process(src, dst) )
+			return false;
+
+		manager.copyModel(motion.getTransformSrcToDst(), output);
+		return true;
+	}
+
+	@Override
+	public boolean fitModel(List<PointPair<P>> dataSet, Model initial, Model found) {
+		return generate(dataSet, found);
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return motion.getMinimumPoints();
+	}
+
+	public MotionTransformPoint<Model, P> getMotion() {
+		return motion;
+	}
+}
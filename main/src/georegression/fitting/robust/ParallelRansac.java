@@ -0,0 +1,640 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.robust;
+
+import georegression.misc.GrlConcurrency;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * RANSAC which scores hypotheses concurrently and rejects bad hypotheses early using the Sequential Probability
+ * Ratio Test (SPRT) [1].  Each hypothesis is evaluated against the points in a fixed random order.  After each
+ * point the likelihood ratio between the model being bad and the model being good is updated, and evaluation
+ * stops once the ratio exceeds a threshold.  Evaluation also stops once a hypothesis can no longer have more
+ * inliers than the best hypothesis.  The SPRT parameters are estimated from the data as the search progresses.
+ * </p>
+ *
+ * <p>
+ * Hypotheses are generated in batches.  The minimal sample for each hypothesis is drawn from a random number
+ * generator seeded by the hypothesis's index, and the SPRT parameters and best hypothesis are only updated between
+ * batches.  As a result the output depends only on the seed and settings, not on the number of threads.  When the
+ * batch is processed concurrently each thread gets its own {@link ModelGenerator} and {@link DistanceFromModel},
+ * which are created by the {@link Factory}.  Once enough hypotheses have been evaluated no memory is
+ * allocated.
+ * </p>
+ *
+ * <p>
+ * If a refinement {@link ModelFitter} is specified then it's applied to the inliers of the best hypothesis.
+ * The refined model is kept if it has at least as many inliers.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondrej, and Jiri Matas. "Optimal randomized RANSAC." IEEE Transactions on Pattern Analysis and
+ * Machine Intelligence 30.8 (2008): 1472-1482.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ParallelRansac<Model,Point> implements ModelMatcher<Model,Point> {
+
+	// used to create random numbers
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	// creates per thread algorithms
+	Factory<Model,Point> factory;
+	ModelManager<Model> manager;
+
+	// seed for the random number generator
+	long randSeed;
+	// maximum number of hypotheses which will be generated
+	int maxIterations;
+	// points with a distance less than or equal to this are inliers
+	double thresholdFit;
+
+	// probability that the best solution has been found before stopping
+	double confidence = 0.999;
+	// number of hypotheses which are generated and scored before updating the state
+	int batchSize = 64;
+	// if true then SPRT is used to reject hypotheses early
+	boolean sprt = true;
+	// initial estimate of the fraction of inliers
+	double initialInlierRatio = 0.1;
+	// initial estimate of the probability that a point is consistent with a bad model
+	double initialBadConsistency = 0.05;
+	// time to generate a hypothesis relative to evaluating a single point
+	double modelCost = 200;
+	// if true then the batches will be processed concurrently
+	boolean concurrent = false;
+
+	// optional refinement of the best model
+	ModelFitter<Model,Point> refine;
+
+	// number of points needed to generate a hypothesis
+	int sampleSize;
+
+	// the input points
+	List<Point> points;
+	// order the points are evaluated in
+	int order[] = new int[0];
+
+	// storage for hypotheses in the current batch
+	List<Model> hypotheses = new ArrayList<Model>();
+	// number of inliers for each hypothesis.  -1 if rejected
+	int hypInliers[];
+	// number of points evaluated and inliers found in hypotheses rejected by SPRT
+	int hypEvaluated[];
+	int hypConsistent[];
+	// index of the first hypothesis in the batch
+	int batchFirst;
+
+	// best hypothesis found so far and the number of inliers it has
+	Model bestModel;
+	int bestInliers;
+	// storage for the refined model
+	Model refinedModel;
+
+	// current SPRT parameters
+	double epsilon, delta;
+	double decisionThreshold;
+	// statistics used to estimate delta
+	long totalEvaluated, totalConsistent;
+
+	// total number of hypotheses generated
+	int iterations;
+	// number of hypotheses rejected by SPRT
+	int rejectedSprt;
+
+	// inliers of the best model
+	List<Point> matchSet = new ArrayList<Point>();
+	GrowQueue_I32 matchToInput = new GrowQueue_I32();
+
+	// workers which are not in use
+	final List<Worker> available = new ArrayList<Worker>();
+	// worker used outside of the batches
+	Worker mainWorker;
+
+	/**
+	 * Creates the estimator
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param manager Creates and copies models
+	 * @param factory Creates the generators and distance functions used by each thread
+	 * @param maxIterations Maximum number of hypotheses which will be generated
+	 * @param thresholdFit Points with a distance less than or equal to this are inliers
+	 */
+	public ParallelRansac(long randSeed, ModelManager<Model> manager, Factory<Model,Point> factory,
+						  int maxIterations, double thresholdFit)
+	{
+		this.randSeed = randSeed;
+		this.manager = manager;
+		this.factory = factory;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+
+		mainWorker = new Worker();
+		sampleSize = mainWorker.generator.getMinimumPoints();
+
+		bestModel = manager.createModelInstance();
+		refinedModel = manager.createModelInstance();
+		declareBatch();
+	}
+
+	@Override
+	public boolean process(List<Point> dataSet) {
+		this.points = dataSet;
+		int N = dataSet.size();
+
+		matchSet.clear();
+		matchToInput.reset();
+		iterations = 0;
+		rejectedSprt = 0;
+		bestInliers = 0;
+
+		if( N < sampleSize )
+			return false;
+
+		declareBatch();
+		shuffle(N);
+
+		epsilon = initialInlierRatio;
+		delta = initialBadConsistency;
+		totalEvaluated = totalConsistent = 0;
+		computeDecisionThreshold();
+
+		while( iterations < maxIterations ) {
+			batchFirst = iterations;
+			int count = Math.min(batchSize, maxIterations-iterations);
+
+			if( concurrent ) {
+				GrlConcurrency.loopFixedBlocks(0, count, 1, N, scoreBatch);
+			} else {
+				scoreBatch.process(0, count);
+			}
+			iterations += count;
+
+			updateState(count);
+
+			if( bestInliers > 0 && iterations >= requiredIterations() )
+				break;
+		}
+
+		if( bestInliers == 0 )
+			return false;
+
+		selectMatchSet(bestModel);
+
+		if( refine != null && refine.fitModel(matchSet, bestModel, refinedModel) ) {
+			int before = matchSet.size();
+			selectMatchSet(refinedModel);
+			if( matchSet.size() >= before ) {
+				manager.copyModel(refinedModel, bestModel);
+			} else {
+				selectMatchSet(bestModel);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Makes sure there is storage for a full batch of hypotheses
+	 */
+	private void declareBatch() {
+		while( hypotheses.size() < batchSize ) {
+			hypotheses.add(manager.createModelInstance());
+		}
+		if( hypInliers == null || hypInliers.length < batchSize ) {
+			hypInliers = new int[batchSize];
+			hypEvaluated = new int[batchSize];
+			hypConsistent = new int[batchSize];
+		}
+	}
+
+	/**
+	 * Randomly selects the order in which points are evaluated
+	 */
+	private void shuffle( int N ) {
+		if( order.length < N )
+			order = new int[N];
+		for (int i = 0; i < N; i++) {
+			order[i] = i;
+		}
+		long state = randSeed;
+		for (int i = N-1; i > 0; i--) {
+			state += GOLDEN_GAMMA;
+			int j = (int)((mix(state) >>> 1) % (i+1));
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+	}
+
+	/**
+	 * Examines the results from the batch in the order the hypotheses were generated.  Then updates the
+	 * best hypothesis and the SPRT parameters.
+	 */
+	private void updateState( int count ) {
+		int N = points.size();
+		boolean improved = false;
+
+		for (int i = 0; i < count; i++) {
+			int inliers = hypInliers[i];
+			if( inliers > bestInliers ) {
+				bestInliers = inliers;
+				manager.copyModel(hypotheses.get(i), bestModel);
+				improved = true;
+			} else if( inliers < 0 && hypEvaluated[i] > 0 ) {
+				rejectedSprt++;
+				totalEvaluated += hypEvaluated[i];
+				totalConsistent += hypConsistent[i];
+			}
+		}
+
+		boolean changed = false;
+		if( improved && bestInliers > epsilon*N ) {
+			epsilon = bestInliers/(double)N;
+			changed = true;
+		}
+		if( totalEvaluated > 0 ) {
+			double found = Math.max(totalConsistent/(double)totalEvaluated, 1.0/N);
+			if( Math.abs(found-delta) > 0.05*delta ) {
+				delta = found;
+				changed = true;
+			}
+		}
+		if( changed )
+			computeDecisionThreshold();
+	}
+
+	/**
+	 * Computes the SPRT decision threshold A from the current estimates of epsilon and delta.  See equation 17
+	 * in [1].  If the test can't tell good models from bad ones then it's turned off.
+	 */
+	private void computeDecisionThreshold() {
+		if( !sprt || delta >= epsilon || epsilon >= 1 ) {
+			decisionThreshold = Double.MAX_VALUE;
+			return;
+		}
+
+		double C = (1-delta)*Math.log((1-delta)/(1-epsilon)) + delta*Math.log(delta/epsilon);
+		double K = modelCost*C + 1;
+
+		double A = K;
+		for (int i = 0; i < 10; i++) {
+			A = K + Math.log(A);
+		}
+		decisionThreshold = A;
+	}
+
+	/**
+	 * Number of hypotheses needed to find a good model with the requested confidence.  Takes in account
+	 * the probability that SPRT will reject a good model.
+	 */
+	int requiredIterations() {
+		double w = bestInliers/(double)points.size();
+		double p = Math.pow(w, sampleSize);
+		if( decisionThreshold != Double.MAX_VALUE )
+			p *= 1.0 - 1.0/decisionThreshold;
+
+		if( p >= 1 )
+			return 1;
+		if( p <= 0 )
+			return Integer.MAX_VALUE;
+
+		double k = Math.log(1.0-confidence)/Math.log(1.0-p);
+		if( k >= Integer.MAX_VALUE )
+			return Integer.MAX_VALUE;
+		return (int)Math.ceil(k);
+	}
+
+	/**
+	 * Finds all the points which are inliers to the model
+	 */
+	private void selectMatchSet( Model model ) {
+		matchSet.clear();
+		matchToInput.reset();
+
+		DistanceFromModel<Model,Point> distance = mainWorker.distance;
+		distance.setModel(model);
+		for (int i = 0; i < points.size(); i++) {
+			Point p = points.get(i);
+			if( distance.computeDistance(p) <= thresholdFit ) {
+				matchSet.add(p);
+				matchToInput.add(i);
+			}
+		}
+	}
+
+	/**
+	 * Generates and scores a range of hypotheses in the batch
+	 */
+	private final GrlConcurrency.IntRangeTask scoreBatch = new GrlConcurrency.IntRangeTask() {
+		@Override
+		public void process(int idx0, int idx1) {
+			Worker worker = acquireWorker();
+			try {
+				for (int i = idx0; i < idx1; i++) {
+					worker.score(i);
+				}
+			} finally {
+				releaseWorker(worker);
+			}
+		}
+	};
+
+	private Worker acquireWorker() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Worker();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void releaseWorker( Worker worker ) {
+		synchronized( available ) {
+			available.add(worker);
+		}
+	}
+
+	/**
+	 * Scrambles the bits in the number.  Used to create random numbers.  From SplitMix64.
+	 */
+	static long mix( long z ) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Algorithms and storage used by a single thread
+	 */
+	class Worker {
+		ModelGenerator<Model,Point> generator = factory.createGenerator();
+		DistanceFromModel<Model,Point> distance = factory.createDistance();
+
+		List<Point> sample = new ArrayList<Point>();
+		int sampleIdx[] = new int[generator.getMinimumPoints()];
+
+		// state of the random number generator
+		long state;
+
+		/**
+		 * Generates the hypothesis and scores it
+		 *
+		 * @param index Index of the hypothesis in the batch
+		 */
+		void score( int index ) {
+			hypInliers[index] = -1;
+			hypEvaluated[index] = 0;
+			hypConsistent[index] = 0;
+
+			Model model = hypotheses.get(index);
+			drawSample(batchFirst + index);
+			if( !generator.generate(sample, model) )
+				return;
+
+			distance.setModel(model);
+
+			int N = points.size();
+			double A = decisionThreshold;
+			boolean useSprt = A != Double.MAX_VALUE;
+			double ratioInlier = delta/epsilon;
+			double ratioOutlier = (1-delta)/(1-epsilon);
+			int best = bestInliers;
+
+			double lambda = 1;
+			int inliers = 0;
+			for (int i = 0; i < N; i++) {
+				if( distance.computeDistance(points.get(order[i])) <= thresholdFit ) {
+					inliers++;
+					lambda *= ratioInlier;
+				} else {
+					lambda *= ratioOutlier;
+					if( useSprt && lambda > A ) {
+						hypEvaluated[index] = i+1;
+						hypConsistent[index] = inliers;
+						return;
+					}
+				}
+				// it can't do better than the best model
+				if( inliers + N-i-1 <= best )
+					return;
+			}
+
+			hypInliers[index] = inliers;
+		}
+
+		/**
+		 * Randomly selects a set of unique points.  The random number generator is seeded using the
+		 * hypothesis's index so that the sample doesn't depend on which thread draws it.
+		 */
+		void drawSample( int hypothesis ) {
+			int N = points.size();
+			state = mix(randSeed + (hypothesis+1L)*GOLDEN_GAMMA);
+
+			sample.clear();
+			for (int i = 0; i < sampleIdx.length; i++) {
+				int selected;
+				boolean duplicate;
+				do {
+					state += GOLDEN_GAMMA;
+					selected = (int)((mix(state) >>> 1) % N);
+					duplicate = false;
+					for (int j = 0; j < i; j++) {
+						if( sampleIdx[j] == selected ) {
+							duplicate = true;
+							break;
+						}
+					}
+				} while( duplicate );
+				sampleIdx[i] = selected;
+				sample.add(points.get(selected));
+			}
+		}
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return matchSet;
+	}
+
+	@Override
+	public int getInputIndex(int matchIndex) {
+		return matchToInput.get(matchIndex);
+	}
+
+	/**
+	 * Number of inliers for the best model
+	 */
+	@Override
+	public double getFitQuality() {
+		return matchSet.size();
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	/**
+	 * Number of hypotheses generated in the last call to {@link #process}
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Number of hypotheses rejected early by SPRT in the last call to {@link #process}
+	 */
+	public int getRejectedSprt() {
+		return rejectedSprt;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+
+	public void setThresholdFit(double thresholdFit) {
+		this.thresholdFit = thresholdFit;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+
+	/**
+	 * Probability that the best model has been found before it stops.  Set to 1 to always generate the
+	 * maximum number of hypotheses.
+	 */
+	public void setConfidence(double confidence) {
+		this.confidence = confidence;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Number of hypotheses generated between updates of the best model.  Larger batches keep more threads busy
+	 * but might generate more hypotheses than necessary.  Changing this will change the output.
+	 */
+	public void setBatchSize(int batchSize) {
+		if( batchSize < 1 )
+			throw new IllegalArgumentException("Batch size must be at least 1");
+		this.batchSize = batchSize;
+	}
+
+	public boolean isSprt() {
+		return sprt;
+	}
+
+	/**
+	 * If true then hypotheses are rejected early using SPRT
+	 */
+	public void setSprt(boolean sprt) {
+		this.sprt = sprt;
+	}
+
+	public double getInitialInlierRatio() {
+		return initialInlierRatio;
+	}
+
+	/**
+	 * Initial guess for the fraction of points which are inliers.  Used by SPRT until a better model is found.
+	 */
+	public void setInitialInlierRatio(double initialInlierRatio) {
+		this.initialInlierRatio = initialInlierRatio;
+	}
+
+	public double getInitialBadConsistency() {
+		return initialBadConsistency;
+	}
+
+	/**
+	 * Initial guess for the probability that a point is consistent with a bad model.  Used by SPRT until
+	 * enough models have been rejected to estimate it.
+	 */
+	public void setInitialBadConsistency(double initialBadConsistency) {
+		this.initialBadConsistency = initialBadConsistency;
+	}
+
+	public double getModelCost() {
+		return modelCost;
+	}
+
+	/**
+	 * Time needed to generate a single hypothesis relative to the time needed to evaluate a single point.
+	 */
+	public void setModelCost(double modelCost) {
+		this.modelCost = modelCost;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the hypotheses in a batch should be scored concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public ModelFitter<Model, Point> getRefine() {
+		return refine;
+	}
+
+	/**
+	 * Used to refine the best model using all of its inliers.  If null then no refinement is done.
+	 */
+	public void setRefine(ModelFitter<Model, Point> refine) {
+		this.refine = refine;
+	}
+
+	/**
+	 * Creates the algorithms used by each thread
+	 */
+	public interface Factory<Model,Point> {
+		ModelGenerator<Model,Point> createGenerator();
+
+		DistanceFromModel<Model,Point> createDistance();
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.robust;
+
+import georegression.struct.GeoTuple;
+
+/**
+ * A pair of corresponding points.  The 'src' point is transformed into the 'dst' point by the motion.
+ *
+ * @author Peter Abeles
+ */
+public class PointPair<P extends GeoTuple> {
+	/**
+	 * Point in the source coordinate system
+	 */
+	public P src;
+	/**
+	 * Corresponding point in the destination coordinate system
+	 */
+	public P dst;
+
+	public PointPair(P src, P dst) {
+		this.src = src;
+		this.dst = dst;
+	}
+
+	public PointPair() {
+	}
+
+	public void set( P src , P dst ) {
+		this.src = src;
+		this.dst = dst;
+	}
+
+	public P getSrc() {
+		return src;
+	}
+
+	public void setSrc(P src) {
+		this.src = src;
+	}
+
+	public P getDst() {
+		return dst;
+	}
+
+	public void setDst(P dst) {
+		this.dst = dst;
+	}
+}
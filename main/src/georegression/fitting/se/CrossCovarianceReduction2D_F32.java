@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the weighted mean of two sets of associated 2D points and the sum of their cross-covariance,
+ * sum( w*(src-meanSrc)*(dst-meanDst)<sup>T</sup> ).  Designed for very large point sets.
+ * </p>
+ *
+ * <p>
+ * See {@link CrossCovarianceReduction3D_F32} for how the computation is structured.  Results are identical
+ * no matter how many threads are used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CrossCovarianceReduction2D_F32 {
+
+	/**
+	 * Number of points in each block
+	 */
+	public static final int BLOCK_SIZE = 1024;
+
+	// sum of all the weights
+	public float totalWeight;
+
+	// weighted mean of the source and destination points
+	public Point2D_F32 meanSrc = new Point2D_F32();
+	public Point2D_F32 meanDst = new Point2D_F32();
+
+	// sum of the weighted cross-covariance, sum( w*(src-meanSrc)*(dst-meanDst)^T )
+	public float s11, s12;
+	public float s21, s22;
+
+	// if true the blocks will be processed concurrently
+	boolean concurrent = false;
+
+	// partial sums from each block
+	GrowQueue_F32 partial = new GrowQueue_F32();
+
+	// references to the input while it's being processed
+	List<Point2D_F32> srcPts;
+	List<Point2D_F32> dstPts;
+	float weights[];
+
+	/**
+	 * Computes the weighted means and cross-covariance.
+	 *
+	 * @param srcPts Source points
+	 * @param dstPts Destination points.  Must be the same size as srcPts.
+	 * @param weights Weight of each point pair.  If null then every pair has a weight of one.
+	 */
+	public void process( List<Point2D_F32> srcPts , List<Point2D_F32> dstPts , float weights[] ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+		final int N = srcPts.size();
+		if( weights != null && weights.length < N )
+			throw new IllegalArgumentException("There must be one weight for every point");
+
+		this.srcPts = srcPts;
+		this.dstPts = dstPts;
+		this.weights = weights;
+
+		int numBlocks = (N + BLOCK_SIZE - 1)/BLOCK_SIZE;
+		partial.resize(Math.max(1,numBlocks)*5);
+
+		// first pass computes the means
+		partial.fill(0);
+		loop(N,computeMeans);
+		sumPartial(numBlocks);
+
+		float d[] = partial.data;
+		totalWeight = d[0];
+		if( totalWeight != 0 ) {
+			meanSrc.set(d[1]/totalWeight,d[2]/totalWeight);
+			meanDst.set(d[3]/totalWeight,d[4]/totalWeight);
+		} else {
+			meanSrc.set(0,0);
+			meanDst.set(0,0);
+		}
+
+		// second pass computes the cross-covariance
+		partial.fill(0);
+		loop(N,computeCrossCovariance);
+		sumPartial(numBlocks);
+
+		s11 = d[0]; s12 = d[1];
+		s21 = d[2]; s22 = d[3];
+
+		this.srcPts = null;
+		this.dstPts = null;
+		this.weights = null;
+	}
+
+	private void loop( int N , GrlConcurrency.IntRangeTask task ) {
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, N, BLOCK_SIZE, task);
+		} else {
+			for (int idx0 = 0; idx0 < N; idx0 += BLOCK_SIZE) {
+				task.process(idx0,Math.min(N, idx0 + BLOCK_SIZE));
+			}
+		}
+	}
+
+	/**
+	 * Adds the partial sums together in a fixed binary tree.  Results are stored in the first block.
+	 */
+	private void sumPartial( int numBlocks ) {
+		float d[] = partial.data;
+		for (int step = 1; step < numBlocks; step *= 2) {
+			for (int i = 0; i + step < numBlocks; i += 2*step) {
+				int a = i*5, b = (i+step)*5;
+				for (int k = 0; k < 5; k++) {
+					d[a+k] += d[b+k];
+				}
+			}
+		}
+	}
+
+	private final GrlConcurrency.IntRangeTask computeMeans = new GrlConcurrency.IntRangeTask() {
+		@Override
+		public void process(int idx0, int idx1) {
+			float w_sum = 0;
+			float sx = 0, sy = 0;
+			float dx = 0, dy = 0;
+
+			for (int i = idx0; i < idx1; i++) {
+				Point2D_F32 f = srcPts.get(i);
+				Point2D_F32 t = dstPts.get(i);
+				float w = weights == null ? 1 : weights[i];
+
+				w_sum += w;
+				sx += w*f.x; sy += w*f.y;
+				dx += w*t.x; dy += w*t.y;
+			}
+
+			float d[] = partial.data;
+			int index = (idx0/BLOCK_SIZE)*5;
+			d[index  ] = w_sum;
+			d[index+1] = sx; d[index+2] = sy;
+			d[index+3] = dx; d[index+4] = dy;
+		}
+	};
+
+	private final GrlConcurrency.IntRangeTask computeCrossCovariance = new GrlConcurrency.IntRangeTask() {
+		@Override
+		public void process(int idx0, int idx1) {
+			float s11 = 0, s12 = 0;
+			float s21 = 0, s22 = 0;
+
+			for (int i = idx0; i < idx1; i++) {
+				Point2D_F32 f = srcPts.get(i);
+				Point2D_F32 t = dstPts.get(i);
+				float w = weights == null ? 1 : weights[i];
+
+				float dfx = w*(f.x - meanSrc.x);
+				float dfy = w*(f.y - meanSrc.y);
+
+				float dtx = t.x - meanDst.x;
+				float dty = t.y - meanDst.y;
+
+				s11 += dfx*dtx; s12 += dfx*dty;
+				s21 += dfy*dtx; s22 += dfy*dty;
+			}
+
+			float d[] = partial.data;
+			int index = (idx0/BLOCK_SIZE)*5;
+			d[index  ] = s11; d[index+1] = s12;
+			d[index+2] = s21; d[index+3] = s22;
+		}
+	};
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the blocks should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.Point3D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the weighted mean of two sets of associated 3D points and the sum of their cross-covariance,
+ * sum( w*(dst-meanDst)*(src-meanSrc)<sup>T</sup> ).  Designed for very large point sets.
+ * </p>
+ *
+ * <p>
+ * The points are processed in blocks of {@link #BLOCK_SIZE} and each block is reduced to a partial sum.
+ * The partial sums are then added together using pairwise summation, which keeps the rounding error
+ * growing with the logarithm of the number of points instead of linearly.  The cross-covariance is computed
+ * in a second pass from points which have had the mean subtracted, avoiding the catastrophic cancellation
+ * which happens when the points are far from the origin.  Blocks can be processed concurrently.  Since
+ * block boundaries and the order the partial sums are added in are fixed, the results are identical
+ * no matter how many threads are used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CrossCovarianceReduction3D_F32 {
+
+	/**
+	 * Number of points in each block
+	 */
+	public static final int BLOCK_SIZE = 1024;
+
+	// sum of all the weights
+	public float totalWeight;
+
+	// weighted mean of the source and destination points
+	public Point3D_F32 meanSrc = new Point3D_F32();
+	public Point3D_F32 meanDst = new Point3D_F32();
+
+	// sum of the weighted cross-covariance, sum( w*(dst-meanDst)*(src-meanSrc)^T )
+	public float s11, s12, s13;
+	public float s21, s22, s23;
+	public float s31, s32, s33;
+
+	// if true the blocks will be processed concurrently
+	boolean concurrent = false;
+
+	// partial sums from each block
+	GrowQueue_F32 partial = new GrowQueue_F32();
+
+	// references to the input while it's being processed
+	List<Point3D_F32> srcPts;
+	List<Point3D_F32> dstPts;
+	float weights[];
+
+	/**
+	 * Computes the weighted means and cross-covariance.
+	 *
+	 * @param srcPts Source points
+	 * @param dstPts Destination points.  Must be the same size as srcPts.
+	 * @param weights Weight of each point pair.  If null then every pair has a weight of one.
+	 */
+	public void process( List<Point3D_F32> srcPts , List<Point3D_F32> dstPts , float weights[] ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+		final int N = srcPts.size();
+		if( weights != null && weights.length < N )
+			throw new IllegalArgumentException("There must be one weight for every point");
+
+		this.srcPts = srcPts;
+		this.dstPts = dstPts;
+		this.weights = weights;
+
+		int numBlocks = (N + BLOCK_SIZE - 1)/BLOCK_SIZE;
+		partial.resize(Math.max(1,numBlocks)*9);
+
+		// first pass computes the means
+		partial.fill(0);
+		loop(N,computeMeans);
+		sumPartial(numBlocks, 7);
+
+		float d[] = partial.data;
+		totalWeight = d[0];
+		if( totalWeight != 0 ) {
+			meanSrc.set(d[1]/totalWeight,d[2]/totalWeight,d[3]/totalWeight);
+			meanDst.set(d[4]/totalWeight,d[5]/totalWeight,d[6]/totalWeight);
+		} else {
+			meanSrc.set(0,0,0);
+			meanDst.set(0,0,0);
+		}
+
+		// second pass computes the cross-covariance
+		partial.fill(0);
+		loop(N,computeCrossCovariance);
+		sumPartial(numBlocks, 9);
+
+		s11 = d[0]; s12 = d[1]; s13 = d[2];
+		s21 = d[3]; s22 = d[4]; s23 = d[5];
+		s31 = d[6]; s32 = d[7]; s33 = d[8];
+
+		this.srcPts = null;
+		this.dstPts = null;
+		this.weights = null;
+	}
+
+	private void loop( int N , GrlConcurrency.IntRangeTask task ) {
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, N, BLOCK_SIZE, task);
+		} else {
+			for (int idx0 = 0; idx0 < N; idx0 += BLOCK_SIZE) {
+				task.process(idx0,Math.min(N, idx0 + BLOCK_SIZE));
+			}
+		}
+	}
+
+	/**
+	 * Adds the partial sums together in a fixed binary tree.  Results are stored in the first block.
+	 */
+	private void sumPartial( int numBlocks , int length ) {
+		float d[] = partial.data;
+		for (int step = 1; step < numBlocks; step *= 2) {
+			for (int i = 0; i + step < numBlocks; i += 2*step) {
+				int a = i*9, b = (i+step)*9;
+				for (int k = 0; k < length; k++) {
+					d[a+k] += d[b+k];
+				}
+			}
+		}
+	}
+
+	private final GrlConcurrency.IntRangeTask computeMeans = new GrlConcurrency.IntRangeTask() {
+		@Override
+		public void process(int idx0, int idx1) {
+			float w_sum = 0;
+			float sx = 0, sy = 0, sz = 0;
+			float dx = 0, dy = 0, dz = 0;
+
+			for (int i = idx0; i < idx1; i++) {
+				Point3D_F32 f = srcPts.get(i);
+				Point3D_F32 t = dstPts.get(i);
+				float w = weights == null ? 1 : weights[i];
+
+				w_sum += w;
+				sx += w*f.x; sy += w*f.y; sz += w*f.z;
+				dx += w*t.x; dy += w*t.y; dz += w*t.z;
+			}
+
+			float d[] = partial.data;
+			int index = (idx0/BLOCK_SIZE)*9;
+			d[index  ] = w_sum;
+			d[index+1] = sx; d[index+2] = sy; d[index+3] = sz;
+			d[index+4] = dx; d[index+5] = dy; d[index+6] = dz;
+		}
+	};
+
+	private final GrlConcurrency.IntRangeTask computeCrossCovariance = new GrlConcurrency.IntRangeTask() {
+		@Override
+		public void process(int idx0, int idx1) {
+			float s11 = 0, s12 = 0, s13 = 0;
+			float s21 = 0, s22 = 0, s23 = 0;
+			float s31 = 0, s32 = 0, s33 = 0;
+
+			for (int i = idx0; i < idx1; i++) {
+				Point3D_F32 f = srcPts.get(i);
+				Point3D_F32 t = dstPts.get(i);
+				float w = weights == null ? 1 : weights[i];
+
+				float dfx = f.x - meanSrc.x;
+				float dfy = f.y - meanSrc.y;
+				float dfz = f.z - meanSrc.z;
+
+				float dtx = w*(t.x - meanDst.x);
+				float dty = w*(t.y - meanDst.y);
+				float dtz = w*(t.z - meanDst.z);
+
+				s11 += dtx*dfx; s12 += dtx*dfy; s13 += dtx*dfz;
+				s21 += dty*dfx; s22 += dty*dfy; s23 += dty*dfz;
+				s31 += dtz*dfx; s32 += dtz*dfy; s33 += dtz*dfz;
+			}
+
+			float d[] = partial.data;
+			int index = (idx0/BLOCK_SIZE)*9;
+			d[index  ] = s11; d[index+1] = s12; d[index+2] = s13;
+			d[index+3] = s21; d[index+4] = s22; d[index+5] = s23;
+			d[index+6] = s31; d[index+7] = s32; d[index+8] = s33;
+		}
+	};
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the blocks should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.fitting.robust.PointPair;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+
+import java.util.List;
+
+/**
+ * Euclidean distance between the 'dst' point and the 'src' point after it has been transformed by
+ * a {@link Se2_F32}.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceSe2PointPair_F32 implements DistanceFromModel<Se2_F32,PointPair<Point2D_F32>> {
+
+	Se2_F32 model;
+
+	Point2D_F32 work = new Point2D_F32();
+
+	@Override
+	public void setModel(Se2_F32 model) {
+		this.model = model;
+	}
+
+	@Override
+	public /**/double computeDistance(PointPair<Point2D_F32> pt) {
+		SePointOps_F32.transform(model, pt.src, work);
+		return work.distance(pt.dst);
+	}
+
+	@Override
+	public void computeDistance(List<PointPair<Point2D_F32>> points, /**/double[] distance) {
+		for (int i = 0; i < points.size(); i++) {
+			distance[i] = computeDistance(points.get(i));
+		}
+	}
+}
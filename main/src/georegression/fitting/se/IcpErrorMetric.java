@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+/**
+ * Error which is minimized by Iterative Closest Point.
+ *
+ * @author Peter Abeles
+ */
+public enum IcpErrorMetric {
+	/**
+	 * Euclidean distance between a point and its closest reference point.
+	 */
+	POINT_TO_POINT,
+	/**
+	 * Distance between a point and the plane, or line in 2D, tangent to the surface at the closest reference
+	 * point.  Typically converges in fewer iterations than {@link #POINT_TO_POINT} on smooth surfaces.
+	 */
+	POINT_TO_PLANE
+}
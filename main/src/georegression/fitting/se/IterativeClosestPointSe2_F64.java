@@ -0,0 +1,499 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.fitting.FixedDecomposition_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.index.KdTree2D_F64;
+import georegression.struct.point.PackedPoint2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Vector2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Iterative Closest Point (ICP) registration of a 2D point cloud to a reference point cloud.  Each iteration
+ * the points are transformed by the current motion, matched to their closest reference point, and then the motion
+ * is updated to minimize the error between the matched points.  Matches which are farther apart than
+ * {@link #setMaxCorrespondenceDistance(double) max correspondence distance} are rejected.
+ * </p>
+ *
+ * <ul>
+ * <li>{@link IcpErrorMetric#POINT_TO_POINT}: The motion is found in closed form with
+ * {@link MotionSe2PointAccumulator_F64}.</li>
+ * <li>{@link IcpErrorMetric#POINT_TO_PLANE}: The distance to the line tangent to the reference point is minimized
+ * by linearizing the rotation and solving the 3x3 normal equations.  Normals can be provided by the user or
+ * are estimated by fitting a line to each reference point's nearest neighbors.</li>
+ * </ul>
+ *
+ * <p>
+ * See {@link IterativeClosestPointSe3_F64} for more details.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IterativeClosestPointSe2_F64 {
+
+	// which error is minimized
+	IcpErrorMetric metric;
+
+	// maximum number of iterations
+	int maxIterations = 50;
+	// matches with a distance larger than this are rejected
+	double maxCorrespondenceDistance = Double.MAX_VALUE;
+	// stops once the change in translation and rotation angle are both less than these
+	double convergenceTranslation = 100*(double)GrlConstants.EPS;
+	double convergenceAngle = 100*(double)GrlConstants.EPS;
+	// number of neighbors used to estimate normals
+	int normalNeighbors = 5;
+
+	// reference points and normals
+	PackedPoint2D_F64 reference = new PackedPoint2D_F64();
+	PackedPoint2D_F64 normals = new PackedPoint2D_F64();
+	boolean normalsKnown;
+	// true if the normals were estimated instead of being provided
+	boolean normalsEstimated;
+	KdTree2D_F64 tree = new KdTree2D_F64();
+
+	// the points being registered before and after being transformed
+	PackedPoint2D_F64 source = new PackedPoint2D_F64();
+	PackedPoint2D_F64 transformed = new PackedPoint2D_F64();
+	// index of the matching reference point for each source point, -1 if none
+	GrowQueue_I32 matches = new GrowQueue_I32();
+
+	// found motion
+	Se2_F64 motion = new Se2_F64();
+	// change in the motion and work space
+	Se2_F64 delta = new Se2_F64();
+	Se2_F64 work = new Se2_F64();
+
+	// point-to-point
+	MotionSe2PointAccumulator_F64 accumulator = new MotionSe2PointAccumulator_F64();
+
+	// point-to-line
+	FixedDecomposition_F64 decomposition = new FixedDecomposition_F64();
+	double A[] = new double[9];
+	double b[] = new double[3];
+
+	// used to estimate the normals
+	GrowQueue_I32 neighbors = new GrowQueue_I32();
+	GrowQueue_F64 neighborDistance = new GrowQueue_F64();
+
+	// statistics for each iteration
+	GrowQueue_F64 iterationError = new GrowQueue_F64();
+	GrowQueue_I32 iterationMatches = new GrowQueue_I32();
+	GrowQueue_I64 iterationNanos = new GrowQueue_I64();
+	boolean converged;
+
+	// change in motion found in the last iteration
+	double deltaTranslation, deltaAngle;
+
+	/**
+	 * Specifies which error metric is minimized.
+	 */
+	public IterativeClosestPointSe2_F64( IcpErrorMetric metric ) {
+		this.metric = metric;
+	}
+
+	public IterativeClosestPointSe2_F64() {
+		this(IcpErrorMetric.POINT_TO_POINT);
+	}
+
+	/**
+	 * Specifies the reference points that other points are registered to.  Normals are estimated when
+	 * needed.
+	 *
+	 * @param points Reference points.  Not modified.
+	 */
+	public void setReference( List<Point2D_F64> points ) {
+		reference.reset();
+		reference.addAll(points);
+		setReference();
+	}
+
+	/**
+	 * Specifies the reference points that other points are registered to.  Normals are estimated when
+	 * needed.
+	 *
+	 * @param points Reference points.  Not modified.
+	 */
+	public void setReference( PackedPoint2D_F64 points ) {
+		reference.setTo(points);
+		setReference();
+	}
+
+	private void setReference() {
+		tree.build(reference);
+		normalsKnown = false;
+	}
+
+	/**
+	 * Specifies the normal of each reference point, which is used by {@link IcpErrorMetric#POINT_TO_PLANE}.
+	 * Must be called after the reference points have been set.
+	 *
+	 * @param normals Unit normal for each reference point.  Not modified.
+	 */
+	public void setReferenceNormals( List<Vector2D_F64> normals ) {
+		if( normals.size() != reference.size )
+			throw new IllegalArgumentException("Must have one normal for each reference point");
+		this.normals.reset();
+		for (int i = 0; i < normals.size(); i++) {
+			Vector2D_F64 n = normals.get(i);
+			this.normals.add(n.x, n.y);
+		}
+		normalsKnown = true;
+		normalsEstimated = false;
+	}
+
+	/**
+	 * Estimates the normal of each reference point by fitting a line to its nearest neighbors.  The normal
+	 * is perpendicular to the direction of largest variance.  If all the neighbors are identical the normal
+	 * is set to zero and the point is ignored.
+	 */
+	void estimateNormals() {
+		normals.resize(reference.size);
+		double data[] = reference.data;
+		for (int i = 0; i < reference.size; i++) {
+			tree.findNearest(data[i*2], data[i*2+1], Double.MAX_VALUE, normalNeighbors, neighbors, neighborDistance);
+
+			double meanX = 0, meanY = 0;
+			for (int j = 0; j < neighbors.size; j++) {
+				int n = neighbors.data[j];
+				meanX += data[n*2];
+				meanY += data[n*2+1];
+			}
+			meanX /= neighbors.size;
+			meanY /= neighbors.size;
+
+			double sxx = 0, sxy = 0, syy = 0;
+			for (int j = 0; j < neighbors.size; j++) {
+				int n = neighbors.data[j];
+				double dx = data[n*2]-meanX, dy = data[n*2+1]-meanY;
+				sxx += dx*dx;
+				sxy += dx*dy;
+				syy += dy*dy;
+			}
+
+			if( sxx + syy == 0 ) {
+				normals.data[i*2  ] = 0;
+				normals.data[i*2+1] = 0;
+			} else {
+				// angle of the principal axis
+				double theta = Math.atan2(2*sxy, sxx-syy)/2;
+				normals.data[i*2  ] = -Math.sin(theta);
+				normals.data[i*2+1] = Math.cos(theta);
+			}
+		}
+		normalsKnown = true;
+		normalsEstimated = true;
+	}
+
+	/**
+	 * Finds the motion which registers the points to the reference points.
+	 *
+	 * @param points Points which are to be registered.  Not modified.
+	 * @param initial Initial estimate of the motion from the points to the reference.  If null then identity.
+	 * @return true if a motion was found or false if there were too few matches
+	 */
+	public boolean process( List<Point2D_F64> points , Se2_F64 initial ) {
+		source.reset();
+		source.addAll(points);
+		return process(initial);
+	}
+
+	/**
+	 * Finds the motion which registers the points to the reference points.
+	 *
+	 * @param points Points which are to be registered.  Not modified.
+	 * @param initial Initial estimate of the motion from the points to the reference.  If null then identity.
+	 * @return true if a motion was found or false if there were too few matches
+	 */
+	public boolean process( PackedPoint2D_F64 points , Se2_F64 initial ) {
+		source.setTo(points);
+		return process(initial);
+	}
+
+	private boolean process( Se2_F64 initial ) {
+		if( initial == null )
+			motion.reset();
+		else
+			motion.set(initial);
+
+		iterationError.reset();
+		iterationMatches.reset();
+		iterationNanos.reset();
+		converged = false;
+
+		if( metric == IcpErrorMetric.POINT_TO_PLANE && !normalsKnown )
+			estimateNormals();
+
+		transformed.resize(source.size);
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			long before = System.nanoTime();
+
+			SePointOps_F64.transform(motion, source, transformed);
+			tree.findNearest(transformed, maxCorrespondenceDistance, matches);
+
+			boolean success;
+			if( metric == IcpErrorMetric.POINT_TO_POINT )
+				success = updatePointToPoint();
+			else
+				success = updatePointToLine();
+
+			iterationNanos.add(System.nanoTime()-before);
+
+			if( !success )
+				return false;
+
+			motion.concat(delta, work);
+			motion.set(work);
+
+			if( deltaTranslation <= convergenceTranslation && deltaAngle <= convergenceAngle ) {
+				converged = true;
+				break;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the motion which minimizes the distance between the matched points
+	 */
+	private boolean updatePointToPoint() {
+		accumulator.reset();
+		double src[] = transformed.data;
+		double dst[] = reference.data;
+		double error = 0;
+		for (int i = 0; i < transformed.size; i++) {
+			int m = matches.data[i];
+			if( m < 0 )
+				continue;
+			double x = src[i*2], y = src[i*2+1];
+			double rx = dst[m*2], ry = dst[m*2+1];
+			accumulator.add(x, y, rx, ry);
+
+			double dx = rx-x, dy = ry-y;
+			error += dx*dx + dy*dy;
+		}
+
+		if( !saveStatistics(accumulator.size(), error) || !accumulator.process() )
+			return false;
+
+		delta.set(accumulator.getTransformSrcToDst());
+		deltaTranslation = delta.T.norm();
+		deltaAngle = Math.abs(Math.atan2(delta.s, delta.c));
+
+		return true;
+	}
+
+	/**
+	 * Linearizes the rotation and finds the motion which minimizes the distance to the tangent lines
+	 */
+	private boolean updatePointToLine() {
+		for (int i = 0; i < 9; i++) {
+			A[i] = 0;
+		}
+		for (int i = 0; i < 3; i++) {
+			b[i] = 0;
+		}
+
+		double src[] = transformed.data;
+		double dst[] = reference.data;
+		double nrm[] = normals.data;
+		double error = 0;
+		int total = 0;
+		for (int i = 0; i < transformed.size; i++) {
+			int m = matches.data[i];
+			if( m < 0 )
+				continue;
+			double nx = nrm[m*2], ny = nrm[m*2+1];
+			if( nx == 0 && ny == 0 )
+				continue;
+
+			double x = src[i*2], y = src[i*2+1];
+
+			// residual and its jacobian [ p cross n , n ]
+			double r = nx*(x-dst[m*2]) + ny*(y-dst[m*2+1]);
+			double a0 = x*ny - y*nx;
+
+			A[0] += a0*a0;
+			A[3] += nx*a0; A[4] += nx*nx;
+			A[6] += ny*a0; A[7] += ny*nx; A[8] += ny*ny;
+
+			b[0] -= a0*r; b[1] -= nx*r; b[2] -= ny*r;
+
+			error += r*r;
+			total++;
+		}
+
+		if( !saveStatistics(total, error) || total < 3 )
+			return false;
+
+		if( !decomposition.solveSymmetric(A, b, b, 3) )
+			return false;
+
+		delta.set(b[1], b[2], b[0]);
+
+		deltaTranslation = Math.sqrt(b[1]*b[1] + b[2]*b[2]);
+		deltaAngle = Math.abs(b[0]);
+
+		return true;
+	}
+
+	/**
+	 * Records the number of matches and mean squared error for the current iteration
+	 *
+	 * @return false if there are no matches
+	 */
+	private boolean saveStatistics( int total , double error ) {
+		iterationMatches.add(total);
+		iterationError.add(total == 0 ? 0 : error/total);
+		return total > 0;
+	}
+
+	/**
+	 * Found motion from the points to the reference
+	 */
+	public Se2_F64 getTransformSrcToDst() {
+		return motion;
+	}
+
+	/**
+	 * Index of the reference point each point was matched to in the last iteration, -1 if it was rejected.
+	 * The matches are found before the motion is updated.
+	 */
+	public GrowQueue_I32 getMatches() {
+		return matches;
+	}
+
+	/**
+	 * True if the last call stopped because the change in motion was small
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * Number of iterations performed in the last call
+	 */
+	public int getIterations() {
+		return iterationNanos.size;
+	}
+
+	/**
+	 * Mean squared error of the matches at the start of each iteration.  For point-to-line this is
+	 * the distance to the line.
+	 */
+	public GrowQueue_F64 getIterationError() {
+		return iterationError;
+	}
+
+	/**
+	 * Number of matches which were not rejected in each iteration
+	 */
+	public GrowQueue_I32 getIterationMatches() {
+		return iterationMatches;
+	}
+
+	/**
+	 * Time each iteration took in nanoseconds
+	 */
+	public GrowQueue_I64 getIterationNanos() {
+		return iterationNanos;
+	}
+
+	public IcpErrorMetric getMetric() {
+		return metric;
+	}
+
+	public void setMetric(IcpErrorMetric metric) {
+		this.metric = metric;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getMaxCorrespondenceDistance() {
+		return maxCorrespondenceDistance;
+	}
+
+	/**
+	 * Matches which are farther apart than this are rejected
+	 */
+	public void setMaxCorrespondenceDistance(double maxCorrespondenceDistance) {
+		this.maxCorrespondenceDistance = maxCorrespondenceDistance;
+	}
+
+	public double getConvergenceTranslation() {
+		return convergenceTranslation;
+	}
+
+	/**
+	 * Specifies when it has converged.  Both the translation and rotation angle, in radians, of the change
+	 * in motion must be less than or equal to these values.
+	 */
+	public void setConvergence(double translation, double angle) {
+		this.convergenceTranslation = translation;
+		this.convergenceAngle = angle;
+	}
+
+	public double getConvergenceAngle() {
+		return convergenceAngle;
+	}
+
+	public int getNormalNeighbors() {
+		return normalNeighbors;
+	}
+
+	/**
+	 * Number of nearest neighbors used to estimate each normal, including the point itself.
+	 */
+	public void setNormalNeighbors(int normalNeighbors) {
+		if( normalNeighbors < 2 )
+			throw new IllegalArgumentException("Need at least 2 neighbors to fit a line");
+		this.normalNeighbors = normalNeighbors;
+		if( normalsEstimated )
+			normalsKnown = false;
+	}
+
+	/**
+	 * If true then the nearest neighbor search is performed concurrently
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		tree.setConcurrent(concurrent);
+	}
+
+	public boolean isConcurrent() {
+		return tree.isConcurrent();
+	}
+}
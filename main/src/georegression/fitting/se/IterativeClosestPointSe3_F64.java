@@ -0,0 +1,531 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.fitting.FixedDecomposition_F64;
+import georegression.fitting.plane.FitPlaneScatter3D_F64;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.index.KdTree3D_F64;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.so.Rodrigues_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Iterative Closest Point (ICP) registration of a 3D point cloud to a reference point cloud.  Each iteration
+ * the points are transformed by the current motion, matched to their closest reference point, and then the motion
+ * is updated to minimize the error between the matched points.  Matches which are farther apart than
+ * {@link #setMaxCorrespondenceDistance(double) max correspondence distance} are rejected.
+ * </p>
+ *
+ * <ul>
+ * <li>{@link IcpErrorMetric#POINT_TO_POINT}: The motion is found in closed form with
+ * {@link MotionSe3PointAccumulator_F64}.</li>
+ * <li>{@link IcpErrorMetric#POINT_TO_PLANE}: The distance to the plane tangent to the reference point is minimized
+ * by linearizing the rotation and solving the 6x6 normal equations [1].  Normals can be provided by the user or
+ * are estimated by fitting a plane to each reference point's nearest neighbors.</li>
+ * </ul>
+ *
+ * <p>
+ * Closest points are found with a {@link KdTree3D_F64} which is built once when the reference is specified.  All
+ * storage is recycled between iterations and calls, so after the first call no memory is allocated for inputs of
+ * the same size.  The mean squared error, number of matches, and time of each iteration are recorded.
+ * </p>
+ *
+ * <p>
+ * [1] Low, Kok-Lim. "Linear least-squares optimization for point-to-plane icp surface registration."
+ * Chapel Hill, University of North Carolina 4 (2004).
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IterativeClosestPointSe3_F64 {
+
+	// which error is minimized
+	IcpErrorMetric metric;
+
+	// maximum number of iterations
+	int maxIterations = 50;
+	// matches with a distance larger than this are rejected
+	double maxCorrespondenceDistance = Double.MAX_VALUE;
+	// stops once the change in translation and rotation angle are both less than these
+	double convergenceTranslation = 100*(double)GrlConstants.EPS;
+	double convergenceAngle = 100*(double)GrlConstants.EPS;
+	// number of neighbors used to estimate normals
+	int normalNeighbors = 8;
+
+	// reference points and normals
+	PackedPoint3D_F64 reference = new PackedPoint3D_F64();
+	PackedPoint3D_F64 normals = new PackedPoint3D_F64();
+	boolean normalsKnown;
+	// true if the normals were estimated instead of being provided
+	boolean normalsEstimated;
+	KdTree3D_F64 tree = new KdTree3D_F64();
+
+	// the points being registered before and after being transformed
+	PackedPoint3D_F64 source = new PackedPoint3D_F64();
+	PackedPoint3D_F64 transformed = new PackedPoint3D_F64();
+	// index of the matching reference point for each source point, -1 if none
+	GrowQueue_I32 matches = new GrowQueue_I32();
+
+	// found motion
+	Se3_F64 motion = new Se3_F64();
+	// change in the motion and work space
+	Se3_F64 delta = new Se3_F64();
+	Se3_F64 work = new Se3_F64();
+
+	// point-to-point
+	MotionSe3PointAccumulator_F64 accumulator = new MotionSe3PointAccumulator_F64();
+
+	// point-to-plane
+	FixedDecomposition_F64 decomposition = new FixedDecomposition_F64();
+	double A[] = new double[36];
+	double b[] = new double[6];
+	Rodrigues_F64 rodrigues = new Rodrigues_F64();
+
+	// used to estimate the normals
+	FitPlaneScatter3D_F64 fitPlane = new FitPlaneScatter3D_F64();
+	GrowQueue_I32 neighbors = new GrowQueue_I32();
+	GrowQueue_F64 neighborDistance = new GrowQueue_F64();
+	Point3D_F64 center = new Point3D_F64();
+	Vector3D_F64 normal = new Vector3D_F64();
+
+	// statistics for each iteration
+	GrowQueue_F64 iterationError = new GrowQueue_F64();
+	GrowQueue_I32 iterationMatches = new GrowQueue_I32();
+	GrowQueue_I64 iterationNanos = new GrowQueue_I64();
+	boolean converged;
+
+	// change in motion found in the last iteration
+	double deltaTranslation, deltaAngle;
+
+	/**
+	 * Specifies which error metric is minimized.
+	 */
+	public IterativeClosestPointSe3_F64( IcpErrorMetric metric ) {
+		this.metric = metric;
+	}
+
+	public IterativeClosestPointSe3_F64() {
+		this(IcpErrorMetric.POINT_TO_POINT);
+	}
+
+	/**
+	 * Specifies the reference points that other points are registered to.  Normals are estimated when
+	 * needed.
+	 *
+	 * @param points Reference points.  Not modified.
+	 */
+	public void setReference( List<Point3D_F64> points ) {
+		reference.reset();
+		reference.addAll(points);
+		setReference();
+	}
+
+	/**
+	 * Specifies the reference points that other points are registered to.  Normals are estimated when
+	 * needed.
+	 *
+	 * @param points Reference points.  Not modified.
+	 */
+	public void setReference( PackedPoint3D_F64 points ) {
+		reference.setTo(points);
+		setReference();
+	}
+
+	private void setReference() {
+		tree.build(reference);
+		normalsKnown = false;
+	}
+
+	/**
+	 * Specifies the normal of each reference point, which is used by {@link IcpErrorMetric#POINT_TO_PLANE}.
+	 * Must be called after the reference points have been set.
+	 *
+	 * @param normals Unit normal for each reference point.  Not modified.
+	 */
+	public void setReferenceNormals( List<Vector3D_F64> normals ) {
+		if( normals.size() != reference.size )
+			throw new IllegalArgumentException("Must have one normal for each reference point");
+		this.normals.reset();
+		for (int i = 0; i < normals.size(); i++) {
+			Vector3D_F64 n = normals.get(i);
+			this.normals.add(n.x, n.y, n.z);
+		}
+		normalsKnown = true;
+		normalsEstimated = false;
+	}
+
+	/**
+	 * Estimates the normal of each reference point by fitting a plane to its nearest neighbors.  If a plane
+	 * can't be fit the normal is set to zero and the point is ignored.
+	 */
+	void estimateNormals() {
+		normals.resize(reference.size);
+		double data[] = reference.data;
+		for (int i = 0; i < reference.size; i++) {
+			tree.findNearest(data[i*3], data[i*3+1], data[i*3+2], Double.MAX_VALUE, normalNeighbors,
+					neighbors, neighborDistance);
+
+			fitPlane.reset();
+			for (int j = 0; j < neighbors.size; j++) {
+				int n = neighbors.data[j];
+				fitPlane.add(data[n*3], data[n*3+1], data[n*3+2]);
+			}
+
+			if( fitPlane.process(center, normal) ) {
+				normals.data[i*3  ] = normal.x;
+				normals.data[i*3+1] = normal.y;
+				normals.data[i*3+2] = normal.z;
+			} else {
+				normals.data[i*3  ] = 0;
+				normals.data[i*3+1] = 0;
+				normals.data[i*3+2] = 0;
+			}
+		}
+		normalsKnown = true;
+		normalsEstimated = true;
+	}
+
+	/**
+	 * Finds the motion which registers the points to the reference points.
+	 *
+	 * @param points Points which are to be registered.  Not modified.
+	 * @param initial Initial estimate of the motion from the points to the reference.  If null then identity.
+	 * @return true if a motion was found or false if there were too few matches
+	 */
+	public boolean process( List<Point3D_F64> points , Se3_F64 initial ) {
+		source.reset();
+		source.addAll(points);
+		return process(initial);
+	}
+
+	/**
+	 * Finds the motion which registers the points to the reference points.
+	 *
+	 * @param points Points which are to be registered.  Not modified.
+	 * @param initial Initial estimate of the motion from the points to the reference.  If null then identity.
+	 * @return true if a motion was found or false if there were too few matches
+	 */
+	public boolean process( PackedPoint3D_F64 points , Se3_F64 initial ) {
+		source.setTo(points);
+		return process(initial);
+	}
+
+	private boolean process( Se3_F64 initial ) {
+		if( initial == null )
+			motion.reset();
+		else
+			motion.set(initial);
+
+		iterationError.reset();
+		iterationMatches.reset();
+		iterationNanos.reset();
+		converged = false;
+
+		if( metric == IcpErrorMetric.POINT_TO_PLANE && !normalsKnown )
+			estimateNormals();
+
+		transformed.resize(source.size);
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			long before = System.nanoTime();
+
+			SePointOps_F64.transform(motion, source, transformed);
+			tree.findNearest(transformed, maxCorrespondenceDistance, matches);
+
+			boolean success;
+			if( metric == IcpErrorMetric.POINT_TO_POINT )
+				success = updatePointToPoint();
+			else
+				success = updatePointToPlane();
+
+			iterationNanos.add(System.nanoTime()-before);
+
+			if( !success )
+				return false;
+
+			motion.concat(delta, work);
+			motion.set(work);
+
+			if( deltaTranslation <= convergenceTranslation && deltaAngle <= convergenceAngle ) {
+				converged = true;
+				break;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the motion which minimizes the distance between the matched points
+	 */
+	private boolean updatePointToPoint() {
+		accumulator.reset();
+		double src[] = transformed.data;
+		double dst[] = reference.data;
+		double error = 0;
+		for (int i = 0; i < transformed.size; i++) {
+			int m = matches.data[i];
+			if( m < 0 )
+				continue;
+			double x = src[i*3], y = src[i*3+1], z = src[i*3+2];
+			double rx = dst[m*3], ry = dst[m*3+1], rz = dst[m*3+2];
+			accumulator.add(x, y, z, rx, ry, rz);
+
+			double dx = rx-x, dy = ry-y, dz = rz-z;
+			error += dx*dx + dy*dy + dz*dz;
+		}
+
+		if( !saveStatistics(accumulator.size(), error) || !accumulator.process() )
+			return false;
+
+		delta.set(accumulator.getTransformSrcToDst());
+		deltaTranslation = delta.T.norm();
+
+		// 1 - cos(theta) is approximately theta^2/2
+		/**/double R[] = delta.R.data;
+		double trace = (double)(R[0] + R[4] + R[8]);
+		deltaAngle = Math.sqrt(Math.max(0, 3 - trace));
+
+		return true;
+	}
+
+	/**
+	 * Linearizes the rotation and finds the motion which minimizes the distance to the tangent planes
+	 */
+	private boolean updatePointToPlane() {
+		for (int i = 0; i < 36; i++) {
+			A[i] = 0;
+		}
+		for (int i = 0; i < 6; i++) {
+			b[i] = 0;
+		}
+
+		double src[] = transformed.data;
+		double dst[] = reference.data;
+		double nrm[] = normals.data;
+		double error = 0;
+		int total = 0;
+		for (int i = 0; i < transformed.size; i++) {
+			int m = matches.data[i];
+			if( m < 0 )
+				continue;
+			double nx = nrm[m*3], ny = nrm[m*3+1], nz = nrm[m*3+2];
+			if( nx == 0 && ny == 0 && nz == 0 )
+				continue;
+
+			double x = src[i*3], y = src[i*3+1], z = src[i*3+2];
+
+			// residual and its jacobian [ p cross n , n ]
+			double r = nx*(x-dst[m*3]) + ny*(y-dst[m*3+1]) + nz*(z-dst[m*3+2]);
+			double a0 = y*nz - z*ny;
+			double a1 = z*nx - x*nz;
+			double a2 = x*ny - y*nx;
+
+			addOuter(a0, a1, a2, nx, ny, nz, r);
+			error += r*r;
+			total++;
+		}
+
+		if( !saveStatistics(total, error) || total < 6 )
+			return false;
+
+		// fill in the upper triangle
+		for (int i = 0; i < 6; i++) {
+			for (int j = i+1; j < 6; j++) {
+				A[i*6+j] = A[j*6+i];
+			}
+		}
+
+		if( !decomposition.solveSymmetric(A, b, b, 6) )
+			return false;
+
+		double theta = Math.sqrt(b[0]*b[0] + b[1]*b[1] + b[2]*b[2]);
+		if( theta == 0 ) {
+			delta.reset();
+		} else {
+			rodrigues.setParamVector(b[0], b[1], b[2]);
+			ConvertRotation3D_F64.rodriguesToMatrix(rodrigues, delta.R);
+		}
+		delta.T.set(b[3], b[4], b[5]);
+
+		deltaTranslation = delta.T.norm();
+		deltaAngle = theta;
+
+		return true;
+	}
+
+	/**
+	 * Adds the contribution of a single residual to the lower triangle of A<sup>T</sup>A and to -A<sup>T</sup>r
+	 */
+	private void addOuter( double a0 , double a1 , double a2 , double a3 , double a4 , double a5 , double r ) {
+		A[0]  += a0*a0;
+		A[6]  += a1*a0; A[7]  += a1*a1;
+		A[12] += a2*a0; A[13] += a2*a1; A[14] += a2*a2;
+		A[18] += a3*a0; A[19] += a3*a1; A[20] += a3*a2; A[21] += a3*a3;
+		A[24] += a4*a0; A[25] += a4*a1; A[26] += a4*a2; A[27] += a4*a3; A[28] += a4*a4;
+		A[30] += a5*a0; A[31] += a5*a1; A[32] += a5*a2; A[33] += a5*a3; A[34] += a5*a4; A[35] += a5*a5;
+
+		b[0] -= a0*r; b[1] -= a1*r; b[2] -= a2*r;
+		b[3] -= a3*r; b[4] -= a4*r; b[5] -= a5*r;
+	}
+
+	/**
+	 * Records the number of matches and mean squared error for the current iteration
+	 *
+	 * @return false if there are no matches
+	 */
+	private boolean saveStatistics( int total , double error ) {
+		iterationMatches.add(total);
+		iterationError.add(total == 0 ? 0 : error/total);
+		return total > 0;
+	}
+
+	/**
+	 * Found motion from the points to the reference
+	 */
+	public Se3_F64 getTransformSrcToDst() {
+		return motion;
+	}
+
+	/**
+	 * Index of the reference point each point was matched to in the last iteration, -1 if it was rejected.
+	 * The matches are found before the motion is updated.
+	 */
+	public GrowQueue_I32 getMatches() {
+		return matches;
+	}
+
+	/**
+	 * True if the last call stopped because the change in motion was small
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * Number of iterations performed in the last call
+	 */
+	public int getIterations() {
+		return iterationNanos.size;
+	}
+
+	/**
+	 * Mean squared error of the matches at the start of each iteration.  For point-to-plane this is
+	 * the distance to the plane.
+	 */
+	public GrowQueue_F64 getIterationError() {
+		return iterationError;
+	}
+
+	/**
+	 * Number of matches which were not rejected in each iteration
+	 */
+	public GrowQueue_I32 getIterationMatches() {
+		return iterationMatches;
+	}
+
+	/**
+	 * Time each iteration took in nanoseconds
+	 */
+	public GrowQueue_I64 getIterationNanos() {
+		return iterationNanos;
+	}
+
+	public IcpErrorMetric getMetric() {
+		return metric;
+	}
+
+	public void setMetric(IcpErrorMetric metric) {
+		this.metric = metric;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getMaxCorrespondenceDistance() {
+		return maxCorrespondenceDistance;
+	}
+
+	/**
+	 * Matches which are farther apart than this are rejected
+	 */
+	public void setMaxCorrespondenceDistance(double maxCorrespondenceDistance) {
+		this.maxCorrespondenceDistance = maxCorrespondenceDistance;
+	}
+
+	public double getConvergenceTranslation() {
+		return convergenceTranslation;
+	}
+
+	/**
+	 * Specifies when it has converged.  Both the translation and rotation angle, in radians, of the change
+	 * in motion must be less than or equal to these values.
+	 */
+	public void setConvergence(double translation, double angle) {
+		this.convergenceTranslation = translation;
+		this.convergenceAngle = angle;
+	}
+
+	public double getConvergenceAngle() {
+		return convergenceAngle;
+	}
+
+	public int getNormalNeighbors() {
+		return normalNeighbors;
+	}
+
+	/**
+	 * Number of nearest neighbors used to estimate each normal, including the point itself.
+	 */
+	public void setNormalNeighbors(int normalNeighbors) {
+		if( normalNeighbors < 3 )
+			throw new IllegalArgumentException("Need at least 3 neighbors to fit a plane");
+		this.normalNeighbors = normalNeighbors;
+		if( normalsEstimated )
+			normalsKnown = false;
+	}
+
+	/**
+	 * If true then the nearest neighbor search is performed concurrently
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		tree.setConcurrent(concurrent);
+	}
+
+	public boolean isConcurrent() {
+		return tree.isConcurrent();
+	}
+}
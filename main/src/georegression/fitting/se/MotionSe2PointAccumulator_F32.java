@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * <p>
+ * Incrementally computes the rigid body motion between two sets of associated 2D points.  The mean of each set
+ * and the sum of the cross-covariance are updated one correspondence at a time using Welford's method, which
+ * allows correspondences to be added and removed from a sliding window without revisiting the other points.
+ * Partial accumulators can be combined with {@link #merge}.  The motion is found in constant time
+ * by {@link MotionSe2PointSVD_F32#computeMotion}.
+ * </p>
+ *
+ * <p>
+ * Repeatedly adding and removing points will slowly accumulate floating point errors.  If a window is maintained
+ * for a very long time it can be periodically rebuilt from scratch.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe2PointAccumulator_F32 {
+
+	// number of correspondences
+	public int N;
+
+	// mean of the source and destination points
+	public Point2D_F32 meanSrc = new Point2D_F32();
+	public Point2D_F32 meanDst = new Point2D_F32();
+
+	// sum of the cross-covariance, sum( (src-meanSrc)*(dst-meanDst)^T )
+	public float s11, s12;
+	public float s21, s22;
+
+	// computes the motion from the statistics
+	MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+	DenseMatrix64F Sigma = new DenseMatrix64F(2,2);
+
+	/**
+	 * Removes all correspondences
+	 */
+	public void reset() {
+		N = 0;
+		meanSrc.set(0,0);
+		meanDst.set(0,0);
+		s11 = s12 = s21 = s22 = 0;
+	}
+
+	/**
+	 * Adds a correspondence
+	 *
+	 * @param src Point in the source frame
+	 * @param dst The same point in the destination frame
+	 */
+	public void add( Point2D_F32 src , Point2D_F32 dst ) {
+		add(src.x,src.y,dst.x,dst.y);
+	}
+
+	/**
+	 * Adds a correspondence
+	 */
+	public void add( float srcX , float srcY , float dstX , float dstY ) {
+		N++;
+
+		// difference from the original mean of src and the updated mean of dst
+		float dfx = srcX - meanSrc.x;
+		float dfy = srcY - meanSrc.y;
+
+		meanSrc.x += dfx/N;
+		meanSrc.y += dfy/N;
+
+		meanDst.x += (dstX - meanDst.x)/N;
+		meanDst.y += (dstY - meanDst.y)/N;
+
+		float dtx = dstX - meanDst.x;
+		float dty = dstY - meanDst.y;
+
+		s11 += dfx*dtx; s12 += dfx*dty;
+		s21 += dfy*dtx; s22 += dfy*dty;
+	}
+
+	/**
+	 * Removes a correspondence which was previously added.
+	 *
+	 * @param src Point in the source frame
+	 * @param dst The same point in the destination frame
+	 */
+	public void remove( Point2D_F32 src , Point2D_F32 dst ) {
+		remove(src.x,src.y,dst.x,dst.y);
+	}
+
+	/**
+	 * Removes a correspondence which was previously added.  This is the exact inverse of
+	 * {@link #add(float, float, float, float)}.
+	 */
+	public void remove( float srcX , float srcY , float dstX , float dstY ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException("There are no correspondences to remove");
+		if( N == 1 ) {
+			reset();
+			return;
+		}
+
+		// difference from the current mean of dst and the mean of src once the point has been removed
+		float dtx = dstX - meanDst.x;
+		float dty = dstY - meanDst.y;
+
+		N--;
+
+		meanSrc.x -= (srcX - meanSrc.x)/N;
+		meanSrc.y -= (srcY - meanSrc.y)/N;
+
+		meanDst.x -= dtx/N;
+		meanDst.y -= dty/N;
+
+		float dfx = srcX - meanSrc.x;
+		float dfy = srcY - meanSrc.y;
+
+		s11 -= dfx*dtx; s12 -= dfx*dty;
+		s21 -= dfy*dtx; s22 -= dfy*dty;
+	}
+
+	/**
+	 * Adds all the correspondences in another accumulator to this one.  The result is the same as if they
+	 * had been added individually, up to floating point error.
+	 *
+	 * @param src The accumulator which is to be merged into this one.  Not modified.
+	 */
+	public void merge( MotionSe2PointAccumulator_F32 src ) {
+		if( src.N == 0 )
+			return;
+
+		int total = N + src.N;
+
+		float dfx = src.meanSrc.x - meanSrc.x;
+		float dfy = src.meanSrc.y - meanSrc.y;
+
+		float dtx = src.meanDst.x - meanDst.x;
+		float dty = src.meanDst.y - meanDst.y;
+
+		float w = (float)N*src.N/total;
+
+		s11 += src.s11 + w*dfx*dtx; s12 += src.s12 + w*dfx*dty;
+		s21 += src.s21 + w*dfy*dtx; s22 += src.s22 + w*dfy*dty;
+
+		float f = (float)src.N/total;
+
+		meanSrc.x += dfx*f;
+		meanSrc.y += dfy*f;
+
+		meanDst.x += dtx*f;
+		meanDst.y += dty*f;
+
+		N = total;
+	}
+
+	/**
+	 * Copies the state of the provided accumulator into this one
+	 */
+	public void set( MotionSe2PointAccumulator_F32 src ) {
+		N = src.N;
+		meanSrc.set(src.meanSrc);
+		meanDst.set(src.meanDst);
+		s11 = src.s11; s12 = src.s12;
+		s21 = src.s21; s22 = src.s22;
+	}
+
+	/**
+	 * Computes the motion which best fits the current set of correspondences.  Runs in constant time.
+	 *
+	 * @return true if successful or false if there are too few correspondences
+	 */
+	public boolean process() {
+		if( N < getMinimumPoints() )
+			return false;
+
+		Sigma.data[0] = s11; Sigma.data[1] = s12;
+		Sigma.data[2] = s21; Sigma.data[3] = s22;
+
+		return alg.computeMotion(meanSrc,meanDst,Sigma);
+	}
+
+	/**
+	 * Returns the motion found by the most recent call to {@link #process()}.
+	 */
+	public Se2_F32 getTransformSrcToDst() {
+		return alg.getTransformSrcToDst();
+	}
+
+	/**
+	 * Number of correspondences which have been accumulated
+	 */
+	public int size() {
+		return N;
+	}
+
+	public int getMinimumPoints() {
+		return alg.getMinimumPoints();
+	}
+}
@@ -20,7 +20,6 @@ package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
 import georegression.geometry.GeometryMath_F64;
-import georegression.geometry.UtilPoint2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se2_F64;
 import org.ejml.data.DenseMatrix64F;
@@ -39,7 +38,9 @@ import java.util.List;
  * The mean square error function that is minimized is:<br>
  * f(p) = (1/N) sum( i=1:N , ||x_i - R(theta)*p_i + T||<sup>2</sup> )<br>
  * where theta is the angle of rotation and T is the translation, x is the set of 'to' points
- * and p is the set of 'from' points.
+ * and p is the set of 'from' points.  Each pair of points can optionally be weighted.  The means and
+ * cross-covariance are computed by {@link CrossCovarianceReduction2D_F64}, which can process very large
+ * point sets concurrently, see {@link #setConcurrent(boolean)}.
  * </p>
  * <p>
  * Based upon the sketch of Arun et al. 1987 provided in: D.W. Eggert, A. Loruso, R.B. Fisher, "Estimating 3-D Rigid Body Transformation:
@@ -52,8 +53,10 @@ public class MotionSe2PointSVD_F64 implements MotionTransformPoint<Se2_F64, Poin
 
 	Se2_F64 motion = new Se2_F64();
 
-	Point2D_F64 meanFrom = new Point2D_F64();
-	Point2D_F64 meanTo = new Point2D_F64();
+	Point2D_F64 rotated = new Point2D_F64();
+
+	// computes the means and cross-covariance
+	CrossCovarianceReduction2D_F64 reduction = new CrossCovarianceReduction2D_F64();
 
 	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(2,2,true,true,false);
 	DenseMatrix64F Sigma = new DenseMatrix64F(2,2);
@@ -68,42 +71,40 @@ public class MotionSe2PointSVD_F64 implements MotionTransformPoint<Se2_F64, Poin
 
 	@Override
 	public boolean process( List<Point2D_F64> srcPts, List<Point2D_F64> dstPts) {
-		if( srcPts.size() != dstPts.size() )
-			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
-
-		// find the mean of both sets of points
-		UtilPoint2D_F64.mean(srcPts, meanFrom );
-		UtilPoint2D_F64.mean(dstPts, meanTo );
-
-		final int N = srcPts.size();
-
-		// compute the cross-covariance matrix Sigma of the two sets of points
-		// Sigma = (1/N)*sum(i=1:N,[p*x^T]) + mu_p*mu_x^T
-		// for performance reasons usage of matrices is postponed
-		double s11 = 0, s12 = 0;
-		double s21 = 0, s22 = 0;
+		return process(srcPts, dstPts, null);
+	}
 
-		// mu*mu^2
-		double m11 = meanFrom.x * meanTo.x, m12 = meanFrom.x * meanTo.y;
-		double m21 = meanFrom.y * meanTo.x, m22 = meanFrom.y * meanTo.y;
+	/**
+	 * Computes the motion which minimizes the weighted squared error between the two sets of points.
+	 *
+	 * @param srcPts Source points
+	 * @param dstPts Destination points
+	 * @param weights Non-negative weight for each pair of points.  If null then all points have the same weight.
+	 * @return true if successful
+	 */
+	public boolean process( List<Point2D_F64> srcPts, List<Point2D_F64> dstPts, double weights[] ) {
+		// compute the mean of both sets of points and the cross-covariance matrix Sigma of the two sets of points
+		reduction.process(srcPts, dstPts, weights);
+
+		if( reduction.totalWeight <= 0 )
+			return false;
 
-		for( int i = 0; i < N; i++ ) {
-			Point2D_F64 f = srcPts.get( i );
-			Point2D_F64 t = dstPts.get( i );
+		Sigma.data[0] = reduction.s11;Sigma.data[1] = reduction.s12;
+		Sigma.data[2] = reduction.s21;Sigma.data[3] = reduction.s22;
 
-			s11 += f.x * t.x;
-			s12 += f.x * t.y;
-			s21 += f.y * t.x;
-			s22 += f.y * t.y;
-		}
-
-		s11 = s11 / N - m11;
-		s12 = s12 / N - m12;
-		s21 = s21 / N - m21;
-		s22 = s22 / N - m22;
+		return computeMotion(reduction.meanSrc, reduction.meanDst, Sigma);
+	}
 
-		Sigma.data[0] = s11;Sigma.data[1] = s12;
-		Sigma.data[2] = s21;Sigma.data[3] = s22;
+	/**
+	 * Computes the motion from the mean of each set of points and their cross-covariance matrix.  Scale of the
+	 * cross-covariance does not matter, so the un-normalized sum can be passed in.
+	 *
+	 * @param meanSrc Mean of the source points.  Not modified.
+	 * @param meanDst Mean of the destination points.  Not modified.
+	 * @param Sigma Cross-covariance, sum( (src-meanSrc)*(dst-meanDst)<sup>T</sup> ). Modified.
+	 * @return true if successful
+	 */
+	public boolean computeMotion( Point2D_F64 meanSrc , Point2D_F64 meanDst , DenseMatrix64F Sigma ) {
 		// Compute the SVD of the cross correlation matrix
 		// The rotation matrix is R = V*U^T
 
@@ -132,14 +133,26 @@ public class MotionSe2PointSVD_F64 implements MotionTransformPoint<Se2_F64, Poin
 		double yaw = Math.atan2( R.get( 1, 0 ), R.get( 0, 0 ) );
 
 		// save the results
-		GeometryMath_F64.rotate( yaw, meanFrom, meanFrom );
-		motion.getTranslation().x = meanTo.x - meanFrom.x;
-		motion.getTranslation().y = meanTo.y - meanFrom.y;
+		GeometryMath_F64.rotate( yaw, meanSrc, rotated );
+		motion.getTranslation().x = meanDst.x - rotated.x;
+		motion.getTranslation().y = meanDst.y - rotated.y;
 		motion.setYaw( yaw );
 
 		return true;
 	}
 
+	public boolean isConcurrent() {
+		return reduction.isConcurrent();
+	}
+
+	/**
+	 * If true then the means and cross-covariance of large point sets will be computed using multiple threads.
+	 * The results are identical to the single threaded computation.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		reduction.setConcurrent(concurrent);
+	}
+
 	@Override
 	public int getMinimumPoints() {
 		return 3;
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+
+/**
+ * <p>
+ * Incrementally computes the rigid body motion between two sets of associated 3D points.  The mean of each set
+ * and the sum of the cross-covariance are updated one correspondence at a time using Welford's method, which
+ * allows correspondences to be added and removed from a sliding window without revisiting the other points.
+ * Partial accumulators which were computed independently can be combined with {@link #merge}.  The motion is
+ * then found in constant time by {@link MotionSe3PointSVD_F64#computeMotion}, independent of the number of points.
+ * </p>
+ *
+ * <p>
+ * Repeatedly adding and removing points will slowly accumulate floating point errors.  If a window is maintained
+ * for a very long time it can be periodically rebuilt from scratch.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointAccumulator_F64 {
+
+	// number of correspondences
+	public int N;
+
+	// mean of the source and destination points
+	public Point3D_F64 meanSrc = new Point3D_F64();
+	public Point3D_F64 meanDst = new Point3D_F64();
+
+	// sum of the cross-covariance, sum( (dst-meanDst)*(src-meanSrc)^T )
+	public double s11, s12, s13;
+	public double s21, s22, s23;
+	public double s31, s32, s33;
+
+	// computes the motion from the statistics
+	MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+	double Sigma[] = new double[9];
+
+	/**
+	 * Removes all correspondences
+	 */
+	public void reset() {
+		N = 0;
+		meanSrc.set(0,0,0);
+		meanDst.set(0,0,0);
+		s11 = s12 = s13 = 0;
+		s21 = s22 = s23 = 0;
+		s31 = s32 = s33 = 0;
+	}
+
+	/**
+	 * Adds a correspondence
+	 *
+	 * @param src Point in the source frame
+	 * @param dst The same point in the destination frame
+	 */
+	public void add( Point3D_F64 src , Point3D_F64 dst ) {
+		add(src.x,src.y,src.z,dst.x,dst.y,dst.z);
+	}
+
+	/**
+	 * Adds a correspondence
+	 */
+	public void add( double srcX , double srcY , double srcZ ,
+					 double dstX , double dstY , double dstZ ) {
+		N++;
+
+		// difference from the original mean of dst and the updated mean of src
+		double dtx = dstX - meanDst.x;
+		double dty = dstY - meanDst.y;
+		double dtz = dstZ - meanDst.z;
+
+		meanDst.x += dtx/N;
+		meanDst.y += dty/N;
+		meanDst.z += dtz/N;
+
+		meanSrc.x += (srcX - meanSrc.x)/N;
+		meanSrc.y += (srcY - meanSrc.y)/N;
+		meanSrc.z += (srcZ - meanSrc.z)/N;
+
+		double dfx = srcX - meanSrc.x;
+		double dfy = srcY - meanSrc.y;
+		double dfz = srcZ - meanSrc.z;
+
+		s11 += dtx*dfx; s12 += dtx*dfy; s13 += dtx*dfz;
+		s21 += dty*dfx; s22 += dty*dfy; s23 += dty*dfz;
+		s31 += dtz*dfx; s32 += dtz*dfy; s33 += dtz*dfz;
+	}
+
+	/**
+	 * Removes a correspondence which was previously added.
+	 *
+	 * @param src Point in the source frame
+	 * @param dst The same point in the destination frame
+	 */
+	public void remove( Point3D_F64 src , Point3D_F64 dst ) {
+		remove(src.x,src.y,src.z,dst.x,dst.y,dst.z);
+	}
+
+	/**
+	 * Removes a correspondence which was previously added.  This is the exact inverse of
+	 * {@link #add(double, double, double, double, double, double)}.
+	 */
+	public void remove( double srcX , double srcY , double srcZ ,
+						double dstX , double dstY , double dstZ ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException("There are no correspondences to remove");
+		if( N == 1 ) {
+			reset();
+			return;
+		}
+
+		// difference from the current mean of src and the mean of dst once the point has been removed
+		double dfx = srcX - meanSrc.x;
+		double dfy = srcY - meanSrc.y;
+		double dfz = srcZ - meanSrc.z;
+
+		N--;
+
+		meanDst.x -= (dstX - meanDst.x)/N;
+		meanDst.y -= (dstY - meanDst.y)/N;
+		meanDst.z -= (dstZ - meanDst.z)/N;
+
+		meanSrc.x -= dfx/N;
+		meanSrc.y -= dfy/N;
+		meanSrc.z -= dfz/N;
+
+		double dtx = dstX - meanDst.x;
+		double dty = dstY - meanDst.y;
+		double dtz = dstZ - meanDst.z;
+
+		s11 -= dtx*dfx; s12 -= dtx*dfy; s13 -= dtx*dfz;
+		s21 -= dty*dfx; s22 -= dty*dfy; s23 -= dty*dfz;
+		s31 -= dtz*dfx; s32 -= dtz*dfy; s33 -= dtz*dfz;
+	}
+
+	/**
+	 * Adds all the correspondences in another accumulator to this one.  The result is the same as if they
+	 * had been added individually, up to floating point error.
+	 *
+	 * @param src The accumulator which is to be merged into this one.  Not modified.
+	 */
+	public void merge( MotionSe3PointAccumulator_F64 src ) {
+		if( src.N == 0 )
+			return;
+
+		int total = N + src.N;
+
+		double dfx = src.meanSrc.x - meanSrc.x;
+		double dfy = src.meanSrc.y - meanSrc.y;
+		double dfz = src.meanSrc.z - meanSrc.z;
+
+		double dtx = src.meanDst.x - meanDst.x;
+		double dty = src.meanDst.y - meanDst.y;
+		double dtz = src.meanDst.z - meanDst.z;
+
+		double w = (double)N*src.N/total;
+
+		s11 += src.s11 + w*dtx*dfx; s12 += src.s12 + w*dtx*dfy; s13 += src.s13 + w*dtx*dfz;
+		s21 += src.s21 + w*dty*dfx; s22 += src.s22 + w*dty*dfy; s23 += src.s23 + w*dty*dfz;
+		s31 += src.s31 + w*dtz*dfx; s32 += src.s32 + w*dtz*dfy; s33 += src.s33 + w*dtz*dfz;
+
+		double f = (double)src.N/total;
+
+		meanSrc.x += dfx*f;
+		meanSrc.y += dfy*f;
+		meanSrc.z += dfz*f;
+
+		meanDst.x += dtx*f;
+		meanDst.y += dty*f;
+		meanDst.z += dtz*f;
+
+		N = total;
+	}
+
+	/**
+	 * Copies the state of the provided accumulator into this one
+	 */
+	public void set( MotionSe3PointAccumulator_F64 src ) {
+		N = src.N;
+		meanSrc.set(src.meanSrc);
+		meanDst.set(src.meanDst);
+		s11 = src.s11; s12 = src.s12; s13 = src.s13;
+		s21 = src.s21; s22 = src.s22; s23 = src.s23;
+		s31 = src.s31; s32 = src.s32; s33 = src.s33;
+	}
+
+	/**
+	 * Computes the motion which best fits the current set of correspondences.  Runs in constant time.
+	 *
+	 * @return true if successful or false if there are too few correspondences
+	 */
+	public boolean process() {
+		if( N < getMinimumPoints() )
+			return false;
+
+		Sigma[0] = s11; Sigma[1] = s12; Sigma[2] = s13;
+		Sigma[3] = s21; Sigma[4] = s22; Sigma[5] = s23;
+		Sigma[6] = s31; Sigma[7] = s32; Sigma[8] = s33;
+
+		return alg.computeMotion(meanSrc,meanDst,Sigma);
+	}
+
+	/**
+	 * Returns the motion found by the most recent call to {@link #process()}.
+	 */
+	public Se3_F64 getTransformSrcToDst() {
+		return alg.getTransformSrcToDst();
+	}
+
+	/**
+	 * Number of correspondences which have been accumulated
+	 */
+	public int size() {
+		return N;
+	}
+
+	public int getMinimumPoints() {
+		return alg.getMinimumPoints();
+	}
+}
@@ -18,16 +18,11 @@
 
 package georegression.fitting.se;
 
+import georegression.fitting.FixedDecomposition_F32;
 import georegression.fitting.MotionTransformPoint;
 import georegression.geometry.GeometryMath_F32;
-import georegression.geometry.UtilPoint3D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.se.Se3_F32;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.DecompositionFactory;
-import org.ejml.interfaces.decomposition.SingularValueDecomposition;
-import org.ejml.ops.CommonOps;
-import org.ejml.ops.SingularOps;
 
 import java.util.List;
 
@@ -35,7 +30,12 @@ import java.util.List;
  * <p>
  * Finds the rigid body motion which minimizes the different between the two sets of associated points in 3D.
  * Computes the SVD of the covariance and extracts the motion from the mean of the two
- * sets of points and the U and V components of SVD.
+ * sets of points and the U and V components of SVD.  Points can optionally be weighted.  The SVD is
+ * computed with {@link FixedDecomposition_F32}, which is much faster than a generic SVD for 3x3 matrices.
+ * </p>
+ * <p>
+ * The means and cross-covariance are computed by {@link CrossCovarianceReduction3D_F32}, which can
+ * process very large point sets concurrently, see {@link #setConcurrent(boolean)}.
  * </p>
  * <p>
  * No paper to cite.  If anyone has one let me know.
@@ -48,7 +48,17 @@ public class MotionSe3PointSVD_F32 implements MotionTransformPoint<Se3_F32, Poin
 	// rigid body motion
 	private Se3_F32 motion = new Se3_F32();
 
-	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3, 3,true,true,false);
+	// computes the means and cross-covariance
+	CrossCovarianceReduction3D_F32 reduction = new CrossCovarianceReduction3D_F32();
+	float Sigma[] = new float[9];
+
+	// SVD of the cross-covariance
+	FixedDecomposition_F32 decomposition = new FixedDecomposition_F32();
+	float U[] = new float[9];
+	float S[] = new float[3];
+	float V[] = new float[9];
+
+	Point3D_F32 temp = new Point3D_F32();
 
 	@Override
 	public Se3_F32 getTransformSrcToDst() {
@@ -57,66 +67,62 @@ public class MotionSe3PointSVD_F32 implements MotionTransformPoint<Se3_F32, Poin
 
 	@Override
 	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts) {
-		if( srcPts.size() != dstPts.size() )
-			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
-
-		// find the mean of both sets of points
-		Point3D_F32 meanSrc = UtilPoint3D_F32.mean(srcPts, null );
-		Point3D_F32 meanDst = UtilPoint3D_F32.mean(dstPts, null );
-
-		final int N = srcPts.size();
-
-		// compute the cross-covariance matrix Sigma of the two sets of points
-		// Sigma = (1/N)*sum(i=1:N,[p*x^T]) + mu_p*mu_x^T
-		// for performance reasons usage of matrices is postponed
-		float s11 = 0, s12 = 0, s13 = 0;
-		float s21 = 0, s22 = 0, s23 = 0;
-		float s31 = 0, s32 = 0, s33 = 0;
-
-		for( int i = 0; i < N; i++ ) {
-			Point3D_F32 f = srcPts.get( i );
-			Point3D_F32 t = dstPts.get( i );
-
-			float dfx = f.x - meanSrc.x;
-			float dfy = f.y - meanSrc.y;
-			float dfz = f.z - meanSrc.z;
-
-			float dtx = t.x - meanDst.x;
-			float dty = t.y - meanDst.y;
-			float dtz = t.z - meanDst.z;
-
-			s11 += dtx*dfx;
-			s12 += dtx*dfy;
-			s13 += dtx*dfz;
-			s21 += dty*dfx;
-			s22 += dty*dfy;
-			s23 += dty*dfz;
-			s31 += dtz*dfx;
-			s32 += dtz*dfy;
-			s33 += dtz*dfz;
-		}
-
-		DenseMatrix64F Sigma = new DenseMatrix64F( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
-
-		if( !svd.decompose(Sigma) )
-			throw new RuntimeException("SVD failed!?");
+		return process(srcPts, dstPts, null);
+	}
 
-		DenseMatrix64F U = svd.getU(null,false);
-		DenseMatrix64F V = svd.getV(null,false);
+	/**
+	 * Computes the motion which minimizes the weighted squared error between the two sets of points.
+	 *
+	 * @param srcPts Source points
+	 * @param dstPts Destination points
+	 * @param weights Non-negative weight for each pair of points.  If null then all points have the same weight.
+	 * @return true if successful
+	 */
+	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts, float weights[] ) {
+		// compute the mean of both sets of points and the cross-covariance matrix Sigma of the two sets of points
+		reduction.process(srcPts, dstPts, weights);
+
+		if( reduction.totalWeight <= 0 )
+			return false;
+
+		CrossCovarianceReduction3D_F32 r = reduction;
+		Sigma[0] = r.s11; Sigma[1] = r.s12; Sigma[2] = r.s13;
+		Sigma[3] = r.s21; Sigma[4] = r.s22; Sigma[5] = r.s23;
+		Sigma[6] = r.s31; Sigma[7] = r.s32; Sigma[8] = r.s33;
+
+		return computeMotion(r.meanSrc, r.meanDst, Sigma);
+	}
 
-		SingularOps.descendingOrder(U,false,svd.getSingularValues(),3,V,false);
-		
-		if( CommonOps.det(U) < 0 ^ CommonOps.det(V) < 0 ) {
+	/**
+	 * Computes the motion from the mean of each set of points and their cross-covariance matrix.  Scale of the
+	 * cross-covariance does not matter, so the un-normalized sum can be passed in.
+	 *
+	 * @param meanSrc Mean of the source points.  Not modified.
+	 * @param meanDst Mean of the destination points.  Not modified.
+	 * @param Sigma Cross-covariance, sum( (dst-meanDst)*(src-meanSrc)<sup>T</sup> ), as a row-major 3x3 matrix.
+	 *              Not modified.
+	 * @return true if successful
+	 */
+	public boolean computeMotion( Point3D_F32 meanSrc , Point3D_F32 meanDst , float Sigma[] ) {
+		if( !decomposition.svd3(Sigma, U, S, V) )
+			return false;
+
+		if( det(U) < 0 ^ det(V) < 0 ) {
 			// swap sign of the column 2
 			// this only needs to happen if data is planar
-			V.data[2] = -V.data[2];
-			V.data[5] = -V.data[5];
-			V.data[8] = -V.data[8];
+			V[2] = -V[2];
+			V[5] = -V[5];
+			V[8] = -V[8];
 		}
 
-		CommonOps.multTransB(U, V, motion.getR());
+		// R = U*V^T
+		/**/double R[] = motion.getR().data;
+		for (int row = 0; row < 3; row++) {
+			for (int col = 0; col < 3; col++) {
+				R[row*3+col] = U[row*3]*V[col*3] + U[row*3+1]*V[col*3+1] + U[row*3+2]*V[col*3+2];
+			}
+		}
 
-		Point3D_F32 temp = new Point3D_F32();
 		GeometryMath_F32.mult(motion.getR(),meanSrc,temp);
 
 		motion.getT().set(meanDst.x - temp.x,meanDst.y - temp.y,meanDst.z - temp.z);
@@ -124,6 +130,21 @@ public class MotionSe3PointSVD_F32 implements MotionTransformPoint<Se3_F32, Poin
 		return true;
 	}
 
+	private static float det( float M[] ) {
+		return M[0]*(M[4]*M[8] - M[5]*M[7]) - M[1]*(M[3]*M[8] - M[5]*M[6]) + M[2]*(M[3]*M[7] - M[4]*M[6]);
+	}
+
+	public boolean isConcurrent() {
+		return reduction.isConcurrent();
+	}
+
+	/**
+	 * If true then the means and cross-covariance of large point sets will be computed using multiple threads.
+	 * The results are identical to the single threaded computation.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		reduction.setConcurrent(concurrent);
+	}
 
 	@Override
 	public int getMinimumPoints() {
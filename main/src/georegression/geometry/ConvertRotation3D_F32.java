@@ -149,53 +149,58 @@ public class ConvertRotation3D_F32 {
 		if( euler == null )
 			euler = new float[3];
 
+		float m00 = (float)R.data[0], m01 = (float)R.data[1], m02 = (float)R.data[2];
+		float m10 = (float)R.data[3], m11 = (float)R.data[4], m12 = (float)R.data[5];
+		float m20 = (float)R.data[6], m21 = (float)R.data[7], m22 = (float)R.data[8];
+
+		// Elements for each rotation sequence were found by GenerateEulerConversionsApp
 		switch(type){
 			case ZYX:
-				TanSinTan(-2,1,  3,  -6,9,  5,-7,4,8,  R,euler);
+				TanSinTan(-m01, m00, m02, -m12, m22, m11, -m20, m10, m21, euler);
 				break;
 
 			case ZYZ:
-				TanCosTan(8,-7,  9,   6,3,  5,-7,4,8,  R,euler);
+				TanCosTan(m21, -m20, m22, m12, m02, m11, m00, m10, -m01, euler);
 				break;
 
 			case ZXY:
-				TanSinTan(4,5,  -6,   3,9,  1,8,-2,7,  R,euler);
+				TanSinTan(m10, m11, -m12, m02, m22, m00, m21, -m01, m20, euler);
 				break;
 
 			case ZXZ:
-				TanCosTan(7,8,   9,  3,-6,  1,8,-2,7,  R,euler);
+				TanCosTan(m20, m21, m22, m02, -m12, m00, m11, -m01, m10, euler);
 				break;
 
 			case YXZ:
-				TanSinTan(-7,9,  8, -2,5,  1,-6,3,4,   R,euler);
+				TanSinTan(-m20, m22, m21, -m01, m11, m00, -m12, m02, m10, euler);
 				break;
 
 			case YXY:
-				TanCosTan(4,-6,  5,  2,8,  1,-6,3,4,   R,euler);
+				TanCosTan(m10, -m12, m11, m01, m21, m00, m22, m02, -m20, euler);
 				break;
 
 			case YZX:
-				TanSinTan(3,1,  -2,  8,5,  9,4,-7,6,   R,euler);
+				TanSinTan(m02, m00, -m01, m21, m11, m22, m10, -m20, m12, euler);
 				break;
 
 			case YZY:
-				TanCosTan(6,4,   5,  8,-2, 9,4,-7,6,   R,euler);
+				TanCosTan(m12, m10, m11, m21, -m01, m22, m00, -m20, m02, euler);
 				break;
 
 			case XYZ:
-				TanSinTan(8,9,  -7,  4,1,  5,3,-6,2,   R,euler);
+				TanSinTan(m21, m22, -m20, m10, m00, m11, m02, -m12, m01, euler);
 				break;
 
 			case XYX:
-				TanCosTan(2,3,   1,  4,-7, 5,3,-6,2,   R,euler);
+				TanCosTan(m01, m02, m00, m10, -m20, m11, m22, -m12, m21, euler);
 				break;
 
 			case XZY:
-				TanSinTan(-6,5,  4, -7,1,  9,-2,8,3,   R,euler);
+				TanSinTan(-m12, m11, m10, -m20, m00, m22, -m01, m21, m02, euler);
 				break;
 
 			case XZX:
-				TanCosTan(3,-2,  1,  7,4,  9,-2,8,3,   R,euler);
+				TanCosTan(m02, -m01, m00, m20, m10, m22, m11, m21, -m12, euler);
 				break;
 
 			default:
@@ -205,65 +210,51 @@ public class ConvertRotation3D_F32 {
 		return euler;
 	}
 
-	private static void TanSinTan( int y0 , int x0 , int sin1 , int y2 , int x2 ,
-								   int cos0a , int cos0b , int sin0a , int sin0b,
-								   DenseMatrix64F R , float euler[] ) {
-
-		float val_y0 = get(R,y0);
-		float val_x0 = get(R,x0);
-		float val_sin1 = get(R,sin1);
-		float val_y2 = get(R,y2);
-		float val_x2 = get(R,x2);
-
-		if( 1.0f-Math.abs(val_sin1) <= GrlConstants.F_EPS ) {
+	/**
+	 * Tait-Bryan angles, where the middle angle is found from its sine.
+	 */
+	private static void TanSinTan( float y0 , float x0 , float sin1 , float y2 , float x2 ,
+								   float cos0a , float cos0b , float sin0a , float sin0b,
+								   float euler[] ) {
 
-			float sign = (float)Math.signum(val_sin1);
+		if( 1.0f-Math.abs(sin1) <= GrlConstants.F_EPS ) {
+			// singular.  Only the sum or difference of the first and third angles can be found
+			float sign = (float)Math.signum(sin1);
 
-			float sin0 = (get(R,sin0a)+sign*get(R,sin0b))/2.0f;
-			float cos0 = (get(R,cos0a)+sign*get(R,cos0b))/2.0f;
+			float sin0 = (sin0a+sign*sin0b)/2.0f;
+			float cos0 = (cos0a+sign*cos0b)/2.0f;
 
 			euler[0] = (float)Math.atan2(sin0,cos0);
 			euler[1] = sign * (float)Math.PI/2.0f;
 			euler[2] = 0;
 		} else {
-			euler[0] = (float)Math.atan2(val_y0,val_x0);
-			euler[1] = (float)Math.asin(val_sin1);
-			euler[2] = (float)Math.atan2(val_y2,val_x2);
+			euler[0] = (float)Math.atan2(y0,x0);
+			euler[1] = (float)Math.asin(sin1);
+			euler[2] = (float)Math.atan2(y2,x2);
 		}
 	}
 
-	private static void TanCosTan( int y0 , int x0 , int cos1 , int y2 , int x2 ,
-								   int cos0a , int cos0b , int sin0a , int sin0b,
-								  DenseMatrix64F R , float euler[] ) {
+	/**
+	 * Proper Euler angles, where the middle angle is found from its cosine.
+	 */
+	private static void TanCosTan( float y0 , float x0 , float cos1 , float y2 , float x2 ,
+								   float cos0a , float cos0b , float sin0a , float sin0b,
+								   float euler[] ) {
 
-		float val_y0 = get(R,y0);
-		float val_x0 = get(R,x0);
-		float val_cos1 = get(R,cos1);
-		float val_y2 = get(R,y2);
-		float val_x2 = get(R,x2);
+		if( 1.0f-Math.abs(cos1) <= GrlConstants.F_EPS ) {
+			// singular.  Only the sum or difference of the first and third angles can be found
+			float sign = (float)Math.signum(cos1);
 
-		if( 1.0f-Math.abs(val_cos1) <= GrlConstants.F_EPS ) {
-			float sin0 = (get(R,sin0a)+get(R,sin0b))/2.0f;
-			float cos0 = (get(R,cos0a)+get(R,cos0b))/2.0f;
+			float sin0 = (sin0a+sign*sin0b)/2.0f;
+			float cos0 = (cos0a+sign*cos0b)/2.0f;
 
 			euler[0] = (float)Math.atan2(sin0,cos0);
-			euler[1] = 0;
+			euler[1] = sign > 0 ? 0 : (float)Math.PI;
 			euler[2] = 0;
 		} else {
-			euler[0] = (float)Math.atan2(val_y0,val_x0);
-			euler[1] = (float)Math.acos(val_cos1);
-			euler[2] = (float)Math.atan2(val_y2,val_x2);
-		}
-	}
-
-	/**
-	 * If the index is negative it returns the negative of the value at -index.  Starts at 0
-	 */
-	private static float get( DenseMatrix64F M , int index ) {
-		if( index < 0 ) {
-			return (float)-M.data[-index-1];
-		} else {
-			return (float)M.data[index-1];
+			euler[0] = (float)Math.atan2(y0,x0);
+			euler[1] = (float)Math.acos(cos1);
+			euler[2] = (float)Math.atan2(y2,x2);
 		}
 	}
 
@@ -508,14 +499,162 @@ public class ConvertRotation3D_F32 {
 												DenseMatrix64F R ) {
 		R = checkDeclare3x3( R );
 
-		DenseMatrix64F R_a = rotationAboutAxis( type.getAxisA(), rotA, null );
-		DenseMatrix64F R_b = rotationAboutAxis( type.getAxisB(), rotB, null );
-		DenseMatrix64F R_c = rotationAboutAxis( type.getAxisC(), rotC, null );
+		float ca = (float)Math.cos( rotA );
+		float sa = (float)Math.sin( rotA );
+		float cb = (float)Math.cos( rotB );
+		float sb = (float)Math.sin( rotB );
+		float cc = (float)Math.cos( rotC );
+		float sc = (float)Math.sin( rotC );
+
+		// R = R_c*R_b*R_a multiplied out by GenerateEulerConversionsApp
+		switch( type ) {
+			case ZYX:
+				R.data[0] = ca*cb;
+				R.data[1] = -sa*cb;
+				R.data[2] = sb;
+				R.data[3] = ca*sb*sc + sa*cc;
+				R.data[4] = ca*cc - sa*sb*sc;
+				R.data[5] = -cb*sc;
+				R.data[6] = -ca*sb*cc + sa*sc;
+				R.data[7] = ca*sc + sa*sb*cc;
+				R.data[8] = cb*cc;
+				break;
+
+			case ZYZ:
+				R.data[0] = ca*cb*cc - sa*sc;
+				R.data[1] = -ca*sc - sa*cb*cc;
+				R.data[2] = sb*cc;
+				R.data[3] = ca*cb*sc + sa*cc;
+				R.data[4] = ca*cc - sa*cb*sc;
+				R.data[5] = sb*sc;
+				R.data[6] = -ca*sb;
+				R.data[7] = sa*sb;
+				R.data[8] = cb;
+				break;
+
+			case ZXY:
+				R.data[0] = ca*cc + sa*sb*sc;
+				R.data[1] = ca*sb*sc - sa*cc;
+				R.data[2] = cb*sc;
+				R.data[3] = sa*cb;
+				R.data[4] = ca*cb;
+				R.data[5] = -sb;
+				R.data[6] = -ca*sc + sa*sb*cc;
+				R.data[7] = ca*sb*cc + sa*sc;
+				R.data[8] = cb*cc;
+				break;
+
+			case ZXZ:
+				R.data[0] = ca*cc - sa*cb*sc;
+				R.data[1] = -ca*cb*sc - sa*cc;
+				R.data[2] = sb*sc;
+				R.data[3] = ca*sc + sa*cb*cc;
+				R.data[4] = ca*cb*cc - sa*sc;
+				R.data[5] = -sb*cc;
+				R.data[6] = sa*sb;
+				R.data[7] = ca*sb;
+				R.data[8] = cb;
+				break;
 
-		DenseMatrix64F A = new DenseMatrix64F( 3, 3 );
+			case YXZ:
+				R.data[0] = ca*cc - sa*sb*sc;
+				R.data[1] = -cb*sc;
+				R.data[2] = ca*sb*sc + sa*cc;
+				R.data[3] = ca*sc + sa*sb*cc;
+				R.data[4] = cb*cc;
+				R.data[5] = -ca*sb*cc + sa*sc;
+				R.data[6] = -sa*cb;
+				R.data[7] = sb;
+				R.data[8] = ca*cb;
+				break;
 
-		CommonOps.mult( R_b, R_a, A );
-		CommonOps.mult( R_c, A, R );
+			case YXY:
+				R.data[0] = ca*cc - sa*cb*sc;
+				R.data[1] = sb*sc;
+				R.data[2] = ca*cb*sc + sa*cc;
+				R.data[3] = sa*sb;
+				R.data[4] = cb;
+				R.data[5] = -ca*sb;
+				R.data[6] = -ca*sc - sa*cb*cc;
+				R.data[7] = sb*cc;
+				R.data[8] = ca*cb*cc - sa*sc;
+				break;
+
+			case YZX:
+				R.data[0] = ca*cb;
+				R.data[1] = -sb;
+				R.data[2] = sa*cb;
+				R.data[3] = ca*sb*cc + sa*sc;
+				R.data[4] = cb*cc;
+				R.data[5] = -ca*sc + sa*sb*cc;
+				R.data[6] = ca*sb*sc - sa*cc;
+				R.data[7] = cb*sc;
+				R.data[8] = ca*cc + sa*sb*sc;
+				break;
+
+			case YZY:
+				R.data[0] = ca*cb*cc - sa*sc;
+				R.data[1] = -sb*cc;
+				R.data[2] = ca*sc + sa*cb*cc;
+				R.data[3] = ca*sb;
+				R.data[4] = cb;
+				R.data[5] = sa*sb;
+				R.data[6] = -ca*cb*sc - sa*cc;
+				R.data[7] = sb*sc;
+				R.data[8] = ca*cc - sa*cb*sc;
+				break;
+
+			case XYZ:
+				R.data[0] = cb*cc;
+				R.data[1] = -ca*sc + sa*sb*cc;
+				R.data[2] = ca*sb*cc + sa*sc;
+				R.data[3] = cb*sc;
+				R.data[4] = ca*cc + sa*sb*sc;
+				R.data[5] = ca*sb*sc - sa*cc;
+				R.data[6] = -sb;
+				R.data[7] = sa*cb;
+				R.data[8] = ca*cb;
+				break;
+
+			case XYX:
+				R.data[0] = cb;
+				R.data[1] = sa*sb;
+				R.data[2] = ca*sb;
+				R.data[3] = sb*sc;
+				R.data[4] = ca*cc - sa*cb*sc;
+				R.data[5] = -ca*cb*sc - sa*cc;
+				R.data[6] = -sb*cc;
+				R.data[7] = ca*sc + sa*cb*cc;
+				R.data[8] = ca*cb*cc - sa*sc;
+				break;
+
+			case XZY:
+				R.data[0] = cb*cc;
+				R.data[1] = -ca*sb*cc + sa*sc;
+				R.data[2] = ca*sc + sa*sb*cc;
+				R.data[3] = sb;
+				R.data[4] = ca*cb;
+				R.data[5] = -sa*cb;
+				R.data[6] = -cb*sc;
+				R.data[7] = ca*sb*sc + sa*cc;
+				R.data[8] = ca*cc - sa*sb*sc;
+				break;
+
+			case XZX:
+				R.data[0] = cb;
+				R.data[1] = -ca*sb;
+				R.data[2] = sa*sb;
+				R.data[3] = sb*cc;
+				R.data[4] = ca*cb*cc - sa*sc;
+				R.data[5] = -ca*sc - sa*cb*cc;
+				R.data[6] = sb*sc;
+				R.data[7] = ca*cb*sc + sa*cc;
+				R.data[8] = ca*cc - sa*cb*sc;
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown rotation sequence");
+		}
 
 		return R;
 	}
@@ -626,29 +765,6 @@ public class ConvertRotation3D_F32 {
 	}
 
 
-	/**
-	 * Creates a rotation matrix about the specified axis.
-	 *
-	 * @param axis  0 = x, 1 = y, 2 = z
-	 * @param angle The angle it is rotated by in radians.
-	 * @return The 3 by 3 rotation matrix.
-	 */
-	private static DenseMatrix64F rotationAboutAxis(int axis, float angle, DenseMatrix64F R ) {
-		switch( axis ) {
-			case 0:
-				return ConvertRotation3D_F32.rotX( angle, R );
-
-			case 1:
-				return ConvertRotation3D_F32.rotY( angle, R );
-
-			case 2:
-				return ConvertRotation3D_F32.rotZ( angle, R );
-
-			default:
-				throw new IllegalArgumentException( "Unknown which" );
-		}
-	}
-
 	/**
 	 * <p>
 	 * Finds a rotation matrix which is the optimal approximation to an arbitrary 3 by 3 matrix. Optimality
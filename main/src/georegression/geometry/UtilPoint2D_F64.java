@@ -19,6 +19,7 @@
 package georegression.geometry;
 
 import georegression.struct.GeoTuple2D_F64;
+import georegression.struct.point.PackedPoint2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.Rectangle2D_F64;
 import georegression.struct.shapes.RectangleLength2D_F64;
@@ -122,6 +123,35 @@ public class UtilPoint2D_F64 {
 		return mean;
 	}
 
+	/**
+	 * Finds the point which has the mean location of all the packed points. This is also known
+	 * as the centroid.
+	 *
+	 * @param points Packed points
+	 * @param mean Storage for mean point.  If null then a new instance will be declared
+	 * @return The found mean
+	 */
+	public static Point2D_F64 mean( PackedPoint2D_F64 points , Point2D_F64 mean ) {
+		if( mean == null )
+			mean = new Point2D_F64();
+
+		double x = 0;
+		double y = 0;
+
+		final double data[] = points.data;
+		final int end = points.size*2;
+		for (int i = 0; i < end; i += 2) {
+			x += data[i];
+			y += data[i+1];
+		}
+
+		x /= points.size;
+		y /= points.size;
+
+		mean.set(x, y);
+		return mean;
+	}
+
 	/**
 	 * Computes the mean/average of two points.
 	 *
@@ -227,6 +257,38 @@ public class UtilPoint2D_F64 {
 		return bounding;
 	}
 
+	/**
+	 * Finds the minimal area {@link Rectangle2D_F64} which contains all the packed points.
+	 *
+	 * @param points Input: Packed points.
+	 * @param bounding Output: Bounding rectangle
+	 */
+	public static Rectangle2D_F64 bounding(PackedPoint2D_F64 points, Rectangle2D_F64 bounding) {
+		if( bounding == null )
+			bounding = new Rectangle2D_F64();
+
+		double minX=Double.MAX_VALUE,maxX=-Double.MAX_VALUE;
+		double minY=Double.MAX_VALUE,maxY=-Double.MAX_VALUE;
+
+		final double data[] = points.data;
+		final int end = points.size*2;
+		for( int i = 0; i < end; i += 2 ) {
+			double x = data[i], y = data[i+1];
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+		}
+
+		bounding.set(minX,minY,maxX,maxY);
+
+		return bounding;
+	}
+
 	/**
 	 * Puts the points into counter-clockwise order around their center.
 	 *
@@ -18,6 +18,7 @@
 
 package georegression.geometry;
 
+import georegression.struct.point.PackedPoint3D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 
@@ -158,6 +159,34 @@ public class UtilPoint3D_F32 {
 		return mean;
 	}
 
+	/**
+	 * Computes the mean of the packed points.
+	 *
+	 * @param points Packed points
+	 * @param mean (Optional) storage for the mean.  Can be null
+	 * @return Mean
+	 */
+	public static Point3D_F32 mean( PackedPoint3D_F32 points , Point3D_F32 mean ) {
+		if( mean == null )
+			mean = new Point3D_F32();
+
+		float x = 0, y = 0, z = 0;
+
+		final float data[] = points.data;
+		final int end = points.size*3;
+		for( int i = 0; i < end; i += 3 ) {
+			x += data[i];
+			y += data[i+1];
+			z += data[i+2];
+		}
+
+		mean.x = x / points.size;
+		mean.y = y / points.size;
+		mean.z = z / points.size;
+
+		return mean;
+	}
+
 	/**
 	 * Finds the minimal volume {@link Box3D_F32} which contains all the points.
 	 *
@@ -188,4 +217,37 @@ public class UtilPoint3D_F32 {
 		bounding.p0.set(minX,minY,minZ);
 		bounding.p1.set(maxX, maxY, maxZ);
 	}
+
+	/**
+	 * Finds the minimal volume {@link Box3D_F32} which contains all the packed points.
+	 *
+	 * @param points Input: Packed points.
+	 * @param bounding Output: Bounding box
+	 */
+	public static void boundingBox(PackedPoint3D_F32 points, Box3D_F32 bounding) {
+		float minX=Float.MAX_VALUE,maxX=-Float.MAX_VALUE;
+		float minY=Float.MAX_VALUE,maxY=-Float.MAX_VALUE;
+		float minZ=Float.MAX_VALUE,maxZ=-Float.MAX_VALUE;
+
+		final float data[] = points.data;
+		final int end = points.size*3;
+		for( int i = 0; i < end; i += 3 ) {
+			float x = data[i], y = data[i+1], z = data[i+2];
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+			if( z < minZ )
+				minZ = z;
+			if( z > maxZ )
+				maxZ = z;
+		}
+
+		bounding.p0.set(minX,minY,minZ);
+		bounding.p1.set(maxX, maxY, maxZ);
+	}
 }
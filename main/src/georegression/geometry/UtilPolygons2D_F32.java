@@ -182,6 +182,30 @@ public class UtilPolygons2D_F32 {
 		rectangle.p1.y = (float)Math.max(rectangle.p1.y,quad.d.y);
 	}
 
+	/**
+	 * Finds the minimum area axis aligned bounding rectangle around the polygon.
+	 *
+	 * @param polygon (Input) Polygon with at least one vertex
+	 * @param rectangle (Output) Minimum area rectangle
+	 */
+	public static void bounding( Polygon2D_F32 polygon , Rectangle2D_F32 rectangle ) {
+		Point2D_F32 v = polygon.vertexes.data[0];
+		rectangle.p0.set(v);
+		rectangle.p1.set(v);
+
+		for (int i = 1; i < polygon.size(); i++) {
+			v = polygon.vertexes.data[i];
+			if( v.x < rectangle.p0.x )
+				rectangle.p0.x = v.x;
+			else if( v.x > rectangle.p1.x )
+				rectangle.p1.x = v.x;
+			if( v.y < rectangle.p0.y )
+				rectangle.p0.y = v.y;
+			else if( v.y > rectangle.p1.y )
+				rectangle.p1.y = v.y;
+		}
+	}
+
 	/**
 	 * Computes the center or average point in the quadrilateral.
 	 *
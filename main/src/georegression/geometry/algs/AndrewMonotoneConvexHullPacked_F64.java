@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the convex hull of a large set of points stored in a packed array.  Produces the same output as
+ * {@link AndrewMonotoneConvexHull_F64}, counter-clockwise order starting with the point with the smallest
+ * x-coordinate, but all the work is done on primitive arrays.
+ * </p>
+ *
+ * <p>
+ * Before sorting the Akl-Toussaint heuristic is applied.  The points which are extreme along 8 directions form an
+ * octagon and any point strictly inside of it can't be part of the hull.  For most distributions this removes
+ * almost all the points in O(n) time.  The remaining points are sorted in place and processed with Andrew's
+ * monotone chain algorithm.
+ * </p>
+ *
+ * <p>
+ * Points are processed in blocks.  When concurrent, see {@link #setConcurrent(boolean)}, the hull of each block is
+ * computed independently and then the hulls are merged by computing the hull of their vertexes.  The output is
+ * the same either way.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AndrewMonotoneConvexHullPacked_F64 {
+	/**
+	 * Number of points in each block
+	 */
+	public static final int BLOCK_SIZE = 1 << 16;
+
+	// ranges smaller than this are sorted with insertion sort
+	private static final int SMALL_SORT = 16;
+
+	// Points which survive the heuristic.  Each block writes to the same range it reads from in the input
+	double workX[] = new double[0];
+	double workY[] = new double[0];
+	int blockCount[] = new int[0];
+
+	// Extreme points of each block along the 8 directions
+	double blockExtremes[] = new double[0];
+
+	// Extreme points across all the blocks
+	double extremes[] = new double[16];
+	// Edges in the octagon, packed as (x,y,dx,dy)
+	double octagon[] = new double[32];
+	int numOctagon;
+	// axis aligned rectangle which is strictly inside the octagon.  Used to quickly discard most points
+	double innerX0, innerY0, innerX1, innerY1;
+
+	// storage for the hull when computed in a single thread
+	double hullX[] = new double[0];
+	double hullY[] = new double[0];
+
+	// workers which are not in use
+	final List<Worker> available = new ArrayList<Worker>();
+
+	// if true blocks are processed concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Computes the convex hull.  The output will be in counter-clockwise order.
+	 *
+	 * @param points (Input) Points.  Not modified.
+	 * @param hull (Output) Where the complex hull is written to
+	 */
+	public void process( PackedPoint2D_F64 points , Polygon2D_F64 hull ) {
+		process(points.data, 0, points.size, hull);
+	}
+
+	/**
+	 * Computes the convex hull.  The output will be in counter-clockwise order.
+	 *
+	 * @param points (Input) Interleaved x and y coordinates.  Not modified.
+	 * @param offset Index of the first point's x-coordinate
+	 * @param count Number of points
+	 * @param hull (Output) Where the complex hull is written to
+	 */
+	public void process( final double[] points , final int offset , int count , Polygon2D_F64 hull ) {
+		// handle special cases
+		if( count == 2 ) {
+			hull.vertexes.resize(2);
+			hull.get(0).set(points[offset], points[offset+1]);
+			hull.get(1).set(points[offset+2], points[offset+3]);
+			return;
+		} else if( count < 2 ) {
+			hull.vertexes.reset();
+			return;
+		}
+
+		final int numBlocks = (count + BLOCK_SIZE - 1)/BLOCK_SIZE;
+		if( workX.length < count ) {
+			workX = new double[count];
+			workY = new double[count];
+		}
+		if( blockCount.length < numBlocks ) {
+			blockCount = new int[numBlocks];
+			blockExtremes = new double[numBlocks*16];
+		}
+		final int total = count;
+
+		// find the extreme points
+		process(numBlocks, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int block = idx0; block < idx1; block++) {
+					int i0 = block*BLOCK_SIZE;
+					int i1 = i0+BLOCK_SIZE < total ? i0+BLOCK_SIZE : total;
+					findExtremes(points, offset, i0, i1, block*16);
+				}
+			}
+		});
+		createOctagon(numBlocks);
+
+		// remove points inside the octagon, and compute the hull of each block if concurrent
+		process(numBlocks, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int block = idx0; block < idx1; block++) {
+					int i0 = block*BLOCK_SIZE;
+					int i1 = i0+BLOCK_SIZE < total ? i0+BLOCK_SIZE : total;
+					int n = filter(points, offset, i0, i1);
+
+					if( concurrent && numBlocks > 1 && n > 2 ) {
+						sort(workX, workY, i0, i0+n);
+						Worker worker = acquireWorker();
+						try {
+							n = chain(workX, workY, i0, n, worker.hullX, worker.hullY);
+							System.arraycopy(worker.hullX, 0, workX, i0, n);
+							System.arraycopy(worker.hullY, 0, workY, i0, n);
+						} finally {
+							releaseWorker(worker);
+						}
+					}
+					blockCount[block] = n;
+				}
+			}
+		});
+
+		// move all the points to the front
+		int N = blockCount[0];
+		for (int block = 1; block < numBlocks; block++) {
+			int n = blockCount[block];
+			System.arraycopy(workX, block*BLOCK_SIZE, workX, N, n);
+			System.arraycopy(workY, block*BLOCK_SIZE, workY, N, n);
+			N += n;
+		}
+
+		sort(workX, workY, 0, N);
+		if( hullX.length < N+1 ) {
+			hullX = new double[N+1];
+			hullY = new double[N+1];
+		}
+		int size = chain(workX, workY, 0, N, hullX, hullY);
+
+		hull.vertexes.resize(size);
+		for (int i = 0; i < size; i++) {
+			hull.vertexes.data[i].set(hullX[i], hullY[i]);
+		}
+	}
+
+	private void process( int numBlocks , GrlConcurrency.IntRangeTask task ) {
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, numBlocks, 1, BLOCK_SIZE, task);
+		} else {
+			task.process(0, numBlocks);
+		}
+	}
+
+	/**
+	 * Finds the points which are extreme along 8 directions, in counter-clockwise order starting with the minimum y.
+	 * The results are saved as (x,y) pairs in blockExtremes.
+	 */
+	void findExtremes( double[] points , int offset , int i0 , int i1 , int output ) {
+		double[] extremes = blockExtremes;
+		double best0 = -Double.MAX_VALUE, best1 = -Double.MAX_VALUE, best2 = -Double.MAX_VALUE;
+		double best3 = -Double.MAX_VALUE, best4 = -Double.MAX_VALUE, best5 = -Double.MAX_VALUE;
+		double best6 = -Double.MAX_VALUE, best7 = -Double.MAX_VALUE;
+
+		for (int i = i0; i < i1; i++) {
+			double x = points[offset + i*2];
+			double y = points[offset + i*2 + 1];
+
+			if( -y > best0 ) { best0 = -y; extremes[output] = x; extremes[output+1] = y; }
+			if( x-y > best1 ) { best1 = x-y; extremes[output+2] = x; extremes[output+3] = y; }
+			if( x > best2 ) { best2 = x; extremes[output+4] = x; extremes[output+5] = y; }
+			if( x+y > best3 ) { best3 = x+y; extremes[output+6] = x; extremes[output+7] = y; }
+			if( y > best4 ) { best4 = y; extremes[output+8] = x; extremes[output+9] = y; }
+			if( y-x > best5 ) { best5 = y-x; extremes[output+10] = x; extremes[output+11] = y; }
+			if( -x > best6 ) { best6 = -x; extremes[output+12] = x; extremes[output+13] = y; }
+			if( -x-y > best7 ) { best7 = -x-y; extremes[output+14] = x; extremes[output+15] = y; }
+		}
+	}
+
+	/**
+	 * Selects the extreme points across all the blocks and creates the octagon's edges.  Edges with zero length
+	 * are skipped.
+	 */
+	void createOctagon( int numBlocks ) {
+		// find the global extremes
+		for (int k = 0; k < 8; k++) {
+			double bestX = blockExtremes[k*2];
+			double bestY = blockExtremes[k*2+1];
+			double best = direction(k, bestX, bestY);
+			for (int block = 1; block < numBlocks; block++) {
+				double x = blockExtremes[block*16 + k*2];
+				double y = blockExtremes[block*16 + k*2 + 1];
+				double value = direction(k, x, y);
+				if( value > best ) {
+					best = value;
+					bestX = x;
+					bestY = y;
+				}
+			}
+			extremes[k*2] = bestX;
+			extremes[k*2+1] = bestY;
+		}
+
+		numOctagon = 0;
+		for (int k = 0; k < 8; k++) {
+			int l = (k+1)%8;
+			double x = extremes[k*2];
+			double y = extremes[k*2+1];
+			double dx = extremes[l*2]-x;
+			double dy = extremes[l*2+1]-y;
+			if( dx == 0 && dy == 0 )
+				continue;
+			octagon[numOctagon*4] = x;
+			octagon[numOctagon*4+1] = y;
+			octagon[numOctagon*4+2] = dx;
+			octagon[numOctagon*4+3] = dy;
+			numOctagon++;
+		}
+
+		// The extreme points on the right side are all to the right of this rectangle, the top points above it,
+		// and so on.  That places it on the inside of every edge
+		innerX0 = Math.max(extremes[10],Math.max(extremes[12],extremes[14]));
+		innerX1 = Math.min(extremes[2],Math.min(extremes[4],extremes[6]));
+		innerY0 = Math.max(extremes[15],Math.max(extremes[1],extremes[3]));
+		innerY1 = Math.min(extremes[7],Math.min(extremes[9],extremes[11]));
+		if( numOctagon < 3 ) {
+			innerX0 = innerY0 = Double.MAX_VALUE;
+			innerX1 = innerY1 = -Double.MAX_VALUE;
+		}
+	}
+
+	private static double direction( int k , double x , double y ) {
+		switch( k ) {
+			case 0: return -y;
+			case 1: return x-y;
+			case 2: return x;
+			case 3: return x+y;
+			case 4: return y;
+			case 5: return y-x;
+			case 6: return -x;
+			default: return -x-y;
+		}
+	}
+
+	/**
+	 * Copies points which are not strictly inside the octagon into the work arrays, starting at i0.
+	 *
+	 * @return number of points copied
+	 */
+	int filter( double[] points , int offset , int i0 , int i1 ) {
+		double[] octagon = this.octagon;
+		double[] workX = this.workX;
+		double[] workY = this.workY;
+		int numOctagon = this.numOctagon;
+		double x0 = innerX0, y0 = innerY0, x1 = innerX1, y1 = innerY1;
+
+		int n = i0;
+		for (int i = i0; i < i1; i++) {
+			double x = points[offset + i*2];
+			double y = points[offset + i*2 + 1];
+
+			// inside the rectangle means it's inside the octagon
+			if( x > x0 && x < x1 && y > y0 && y < y1 )
+				continue;
+
+			// a degenerate octagon has no inside
+			boolean inside = numOctagon >= 3;
+			for (int k = 0; k < numOctagon && inside; k++) {
+				int idx = k*4;
+				inside = octagon[idx+2]*(y-octagon[idx+1]) - octagon[idx+3]*(x-octagon[idx]) > 0;
+			}
+
+			if( !inside ) {
+				workX[n] = x;
+				workY[n] = y;
+				n++;
+			}
+		}
+		return n-i0;
+	}
+
+	/**
+	 * Andrew's monotone chain algorithm on points which have been sorted by x then y.  Same as
+	 * {@link AndrewMonotoneConvexHull_F64}.
+	 *
+	 * @return number of vertexes in the hull
+	 */
+	static int chain( double[] xs , double[] ys , int start , int length , double[] hullX , double[] hullY ) {
+		int size = 0;
+
+		// construct the lower hull
+		for (int i = start; i < start+length; i++) {
+			double x = xs[i];
+			double y = ys[i];
+			while( size >= 2 && subtractThenCross(x,y,hullX[size-1],hullY[size-1],hullX[size-2],hullY[size-2]) >= 0 )
+				size--;
+			hullX[size] = x;
+			hullY[size++] = y;
+		}
+
+		size--;
+		int minSize = size+2;
+
+		// construct upper hull
+		for (int i = start+length-1; i >= start; i--) {
+			double x = xs[i];
+			double y = ys[i];
+			while( size >= minSize && subtractThenCross(x,y,hullX[size-1],hullY[size-1],hullX[size-2],hullY[size-2]) >= 0 )
+				size--;
+			hullX[size] = x;
+			hullY[size++] = y;
+		}
+		return size-1;
+	}
+
+	/**
+	 * Performs the following operation: output = z-component[ (a-b) cross (a-c) ]
+	 */
+	private static double subtractThenCross( double ax , double ay , double bx , double by , double cx , double cy ) {
+		double x0 = bx - ax;
+		double y0 = by - ay;
+
+		double x1 = cx - ax;
+		double y1 = cy - ay;
+
+		return x0 * y1 - y0 * x1;
+	}
+
+	/**
+	 * Sorts the points in the range [lo,hi) by x and then y using quick sort
+	 */
+	static void sort( double[] xs , double[] ys , int lo , int hi ) {
+		while( hi-lo > SMALL_SORT ) {
+			// median of three pivot
+			int mid = (lo+hi) >>> 1;
+			if( less(xs,ys,mid,lo) ) swap(xs,ys,mid,lo);
+			if( less(xs,ys,hi-1,lo) ) swap(xs,ys,hi-1,lo);
+			if( less(xs,ys,hi-1,mid) ) swap(xs,ys,hi-1,mid);
+			double px = xs[mid];
+			double py = ys[mid];
+
+			int i = lo, j = hi-1;
+			while( i <= j ) {
+				while( xs[i] < px || (xs[i] == px && ys[i] < py) ) i++;
+				while( px < xs[j] || (px == xs[j] && py < ys[j]) ) j--;
+				if( i <= j ) {
+					swap(xs,ys,i,j);
+					i++;
+					j--;
+				}
+			}
+
+			// recurse into the smaller half to limit the stack depth
+			if( j-lo < hi-i ) {
+				sort(xs, ys, lo, j+1);
+				lo = i;
+			} else {
+				sort(xs, ys, i, hi);
+				hi = j+1;
+			}
+		}
+
+		for (int i = lo+1; i < hi; i++) {
+			double x = xs[i];
+			double y = ys[i];
+			int j = i-1;
+			while( j >= lo && (xs[j] > x || (xs[j] == x && ys[j] > y)) ) {
+				xs[j+1] = xs[j];
+				ys[j+1] = ys[j];
+				j--;
+			}
+			xs[j+1] = x;
+			ys[j+1] = y;
+		}
+	}
+
+	private static boolean less( double[] xs , double[] ys , int a , int b ) {
+		return xs[a] < xs[b] || (xs[a] == xs[b] && ys[a] < ys[b]);
+	}
+
+	private static void swap( double[] xs , double[] ys , int a , int b ) {
+		double tx = xs[a]; xs[a] = xs[b]; xs[b] = tx;
+		double ty = ys[a]; ys[a] = ys[b]; ys[b] = ty;
+	}
+
+	private Worker acquireWorker() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Worker();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void releaseWorker( Worker worker ) {
+		synchronized( available ) {
+			available.add(worker);
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if blocks of points should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage for the hull of a single block
+	 */
+	static class Worker {
+		double hullX[] = new double[BLOCK_SIZE+1];
+		double hullY[] = new double[BLOCK_SIZE+1];
+	}
+}
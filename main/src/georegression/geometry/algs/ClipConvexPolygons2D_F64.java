@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+
+/**
+ * <p>
+ * Computes the intersection of two convex polygons in O(n+m) time using O'Rourke's algorithm [1].  The two
+ * perimeters are advanced together, always moving along the edge which is "behind" the other, and the intersection
+ * is output as the inner chain is traced.  Input polygons can be in either order and the output will be in
+ * counter-clockwise order.
+ * </p>
+ *
+ * <p>
+ * Edges which lie along the same line, vertexes which touch the other perimeter, and identical polygons are all
+ * handled.  If the intersection has no area, e.g. the polygons only touch, then the output will be empty.  All
+ * work is done in internal buffers which are recycled between calls.
+ * </p>
+ *
+ * <p>
+ * [1] O'Rourke, J., Chien, C.-B., Olson, T., Naddor, D. "A new linear algorithm for intersecting convex polygons."
+ * Computer Graphics and Image Processing 19.4 (1982): 384-391.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ClipConvexPolygons2D_F64 {
+
+	// which perimeter is inside the other along the current part of the intersection
+	private static final int UNKNOWN = 0;
+	private static final int A_INSIDE = 1;
+	private static final int B_INSIDE = 2;
+
+	// type of intersection between two edges
+	private static final int NONE = 0;
+	private static final int PROPER = 1;
+	private static final int VERTEX = 2;
+	private static final int OVERLAP = 3;
+
+	// copies of the input in counter-clockwise order
+	Polygon2D_F64 workA = new Polygon2D_F64();
+	Polygon2D_F64 workB = new Polygon2D_F64();
+
+	// storage for the output when only the area is requested
+	Polygon2D_F64 workOutput = new Polygon2D_F64();
+
+	// location of the most recent edge intersection
+	Point2D_F64 crossing = new Point2D_F64();
+
+	// two points closer than this are considered to be the same
+	double tolerance;
+
+	/**
+	 * Computes the intersection of the two convex polygons.
+	 *
+	 * @param a (Input) Convex polygon.  Not modified.
+	 * @param b (Input) Convex polygon.  Not modified.
+	 * @param output (Output) Intersection in counter-clockwise order.  Empty if there is no intersection.
+	 * @return true if the intersection has a non-zero area or false if empty
+	 */
+	public boolean process( Polygon2D_F64 a , Polygon2D_F64 b , Polygon2D_F64 output ) {
+		output.vertexes.reset();
+		if( a.size() < 3 || b.size() < 3 )
+			return false;
+
+		PolygonBoolean2D_F64.copyCounterClockwise(a, workA);
+		PolygonBoolean2D_F64.copyCounterClockwise(b, workB);
+
+		double scale = 0;
+		for (int i = 0; i < workA.size(); i++) {
+			Point2D_F64 p = workA.get(i);
+			scale = Math.max(scale,Math.max(Math.abs(p.x),Math.abs(p.y)));
+		}
+		for (int i = 0; i < workB.size(); i++) {
+			Point2D_F64 p = workB.get(i);
+			scale = Math.max(scale,Math.max(Math.abs(p.x),Math.abs(p.y)));
+		}
+		tolerance = scale*100*(double)GrlConstants.EPS;
+
+		int n = workA.size();
+		int m = workB.size();
+
+		int indexA = 0, indexB = 0;
+		// number of times each polygon has been advanced
+		int advancedA = 0, advancedB = 0;
+		int inside = UNKNOWN;
+		boolean first = true;
+
+		do {
+			Point2D_F64 a1 = workA.get(indexA);
+			Point2D_F64 a0 = workA.get(indexA == 0 ? n-1 : indexA-1);
+			Point2D_F64 b1 = workB.get(indexB);
+			Point2D_F64 b0 = workB.get(indexB == 0 ? m-1 : indexB-1);
+
+			double ax = a1.x-a0.x;
+			double ay = a1.y-a0.y;
+			double bx = b1.x-b0.x;
+			double by = b1.y-b0.y;
+
+			int cross = sign(ax*by - ay*bx);
+			// which side of the other edge the head of each edge lies on
+			int aHB = sign(orientation(b0,b1,a1));
+			int bHA = sign(orientation(a0,a1,b1));
+
+			int type = intersect(a0,a1,b0,b1);
+			if( type == PROPER || type == VERTEX ) {
+				if( inside == UNKNOWN && first ) {
+					// start counting from the first intersection so that the whole intersection is traced
+					advancedA = advancedB = 0;
+					first = false;
+				}
+				addPoint(output, crossing.x, crossing.y);
+				if( aHB > 0 )
+					inside = A_INSIDE;
+				else if( bHA > 0 )
+					inside = B_INSIDE;
+			}
+
+			if( type == OVERLAP && ax*bx + ay*by < 0 ) {
+				// edges overlap but point in opposite directions.  They only touch
+				output.vertexes.reset();
+				return false;
+			}
+
+			if( cross == 0 && aHB < 0 && bHA < 0 ) {
+				// parallel edges which face away from each other.  The polygons are disjoint
+				output.vertexes.reset();
+				return false;
+			} else if( cross == 0 && aHB == 0 && bHA == 0 ) {
+				// collinear edges.  Advance without adding points
+				if( inside == A_INSIDE ) {
+					indexB = indexB == m-1 ? 0 : indexB+1; advancedB++;
+				} else {
+					indexA = indexA == n-1 ? 0 : indexA+1; advancedA++;
+				}
+			} else if( cross >= 0 ) {
+				if( bHA > 0 ) {
+					if( inside == A_INSIDE ) addPoint(output, a1.x, a1.y);
+					indexA = indexA == n-1 ? 0 : indexA+1; advancedA++;
+				} else {
+					if( inside == B_INSIDE ) addPoint(output, b1.x, b1.y);
+					indexB = indexB == m-1 ? 0 : indexB+1; advancedB++;
+				}
+			} else {
+				if( aHB > 0 ) {
+					if( inside == B_INSIDE ) addPoint(output, b1.x, b1.y);
+					indexB = indexB == m-1 ? 0 : indexB+1; advancedB++;
+				} else {
+					if( inside == A_INSIDE ) addPoint(output, a1.x, a1.y);
+					indexA = indexA == n-1 ? 0 : indexA+1; advancedA++;
+				}
+			}
+		} while( (advancedA < n || advancedB < m) && advancedA < 2*n && advancedB < 2*m );
+
+		if( inside == UNKNOWN ) {
+			// The perimeters never crossed.  Either one polygon is inside the other or they are disjoint
+			output.vertexes.reset();
+			boolean insideB = containsAverage(workA, workB);
+			boolean insideA = containsAverage(workB, workA);
+
+			if( insideA && insideB ) {
+				// one contains the other.  The intersection is the smaller one
+				if( PolygonBoolean2D_F64.signedArea(workA) <= PolygonBoolean2D_F64.signedArea(workB) )
+					output.set(workA);
+				else
+					output.set(workB);
+			} else if( insideB ) {
+				output.set(workA);
+			} else if( insideA ) {
+				output.set(workB);
+			} else {
+				return false;
+			}
+			return true;
+		}
+
+		// the last point can be the same as the first
+		while( output.size() > 1 && isSame(output.get(0), output.get(output.size()-1)) )
+			output.vertexes.removeTail();
+
+		if( output.size() < 3 ) {
+			output.vertexes.reset();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the area of the intersection of the two convex polygons.
+	 *
+	 * @param a (Input) Convex polygon.  Not modified.
+	 * @param b (Input) Convex polygon.  Not modified.
+	 * @return Area of the intersection
+	 */
+	public double area( Polygon2D_F64 a , Polygon2D_F64 b ) {
+		if( !process(a, b, workOutput) )
+			return 0;
+		return PolygonBoolean2D_F64.signedArea(workOutput);
+	}
+
+	/**
+	 * Checks to see if the average of the vertexes in 'inner' is inside of 'outer'
+	 */
+	private boolean containsAverage( Polygon2D_F64 inner , Polygon2D_F64 outer ) {
+		double x = 0, y = 0;
+		for (int i = 0; i < inner.size(); i++) {
+			Point2D_F64 p = inner.get(i);
+			x += p.x;
+			y += p.y;
+		}
+		crossing.x = x/inner.size();
+		crossing.y = y/inner.size();
+		return Intersection2D_F64.containConvex(outer, crossing);
+	}
+
+	/**
+	 * Adds a point to the output unless it's the same as the previous point
+	 */
+	private void addPoint( Polygon2D_F64 output , double x , double y ) {
+		if( output.size() > 0 ) {
+			Point2D_F64 p = output.get(output.size()-1);
+			if( Math.abs(p.x-x) <= tolerance && Math.abs(p.y-y) <= tolerance )
+				return;
+		}
+		output.vertexes.grow().set(x,y);
+	}
+
+	private boolean isSame( Point2D_F64 a , Point2D_F64 b ) {
+		return Math.abs(a.x-b.x) <= tolerance && Math.abs(a.y-b.y) <= tolerance;
+	}
+
+	/**
+	 * Finds the intersection between line segments a0-a1 and b0-b1.  The location is written to {@link #crossing}.
+	 *
+	 * @return Type of intersection
+	 */
+	private int intersect( Point2D_F64 a0 , Point2D_F64 a1 , Point2D_F64 b0 , Point2D_F64 b1 ) {
+		double denominator = (a1.x-a0.x)*(b1.y-b0.y) - (a1.y-a0.y)*(b1.x-b0.x);
+
+		if( denominator == 0 )
+			return intersectParallel(a0,a1,b0,b1);
+
+		int type = NONE;
+
+		double numerator = (b0.x-a0.x)*(b1.y-b0.y) - (b0.y-a0.y)*(b1.x-b0.x);
+		if( numerator == 0 || numerator == denominator )
+			type = VERTEX;
+		double s = numerator/denominator;
+
+		numerator = (b0.x-a0.x)*(a1.y-a0.y) - (b0.y-a0.y)*(a1.x-a0.x);
+		if( numerator == 0 || numerator == denominator )
+			type = VERTEX;
+		double t = numerator/denominator;
+
+		if( s > 0 && s < 1 && t > 0 && t < 1 )
+			type = PROPER;
+		else if( s < 0 || s > 1 || t < 0 || t > 1 )
+			type = NONE;
+
+		crossing.x = a0.x + s*(a1.x-a0.x);
+		crossing.y = a0.y + s*(a1.y-a0.y);
+
+		return type;
+	}
+
+	/**
+	 * Intersection between parallel line segments.  If they overlap then {@link #crossing} is set to an end point
+	 * inside the overlapping region.
+	 */
+	private int intersectParallel( Point2D_F64 a0 , Point2D_F64 a1 , Point2D_F64 b0 , Point2D_F64 b1 ) {
+		if( orientation(a0,a1,b0) != 0 )
+			return NONE;
+
+		if( between(a0,a1,b0) ) {
+			crossing.set(b0);
+		} else if( between(a0,a1,b1) ) {
+			crossing.set(b1);
+		} else if( between(b0,b1,a0) ) {
+			crossing.set(a0);
+		} else if( between(b0,b1,a1) ) {
+			crossing.set(a1);
+		} else {
+			return NONE;
+		}
+		return OVERLAP;
+	}
+
+	/**
+	 * Checks to see if 'c' is between 'a' and 'b', assuming all three points lie along the same line
+	 */
+	private static boolean between( Point2D_F64 a , Point2D_F64 b , Point2D_F64 c ) {
+		if( a.x != b.x )
+			return (a.x <= c.x && c.x <= b.x) || (a.x >= c.x && c.x >= b.x);
+		else
+			return (a.y <= c.y && c.y <= b.y) || (a.y >= c.y && c.y >= b.y);
+	}
+
+	/**
+	 * Twice the signed area of the triangle a,b,c.  Positive if c is to the left of line a-b
+	 */
+	private static double orientation( Point2D_F64 a , Point2D_F64 b , Point2D_F64 c ) {
+		return (b.x-a.x)*(c.y-a.y) - (b.y-a.y)*(c.x-a.x);
+	}
+
+	private static int sign( double value ) {
+		if( value > 0 )
+			return 1;
+		else if( value < 0 )
+			return -1;
+		return 0;
+	}
+}
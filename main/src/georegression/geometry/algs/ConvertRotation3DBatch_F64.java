@@ -0,0 +1,899 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
+
+/**
+ * <p>
+ * Converts between parameterizations of 3D rotations stored in packed arrays.  The conversions are the same as
+ * in {@link ConvertRotation3D_F64} but are written out element by element so that no memory is allocated and
+ * no matrix operations are performed.  Blocks of rotations can be processed concurrently,
+ * see {@link #setConcurrent(boolean)}.
+ * </p>
+ *
+ * <p>
+ * Packed formats, with each element being a double:<br>
+ * quaternion = (w, x, y, z), unit quaternion<br>
+ * matrix = (r00, r01, r02, r10, r11, r12, r20, r21, r22), row major rotation matrix<br>
+ * rodrigues = (theta, x, y, z), rotation angle followed by the unit axis of rotation<br>
+ * rotation vector = (x, y, z), axis of rotation scaled by the rotation angle<br>
+ * euler = (rotA, rotB, rotC), angles for the axes of the {@link EulerType}<br>
+ * </p>
+ *
+ * <p>
+ * Each function reads 'count' rotations from the input array starting at 'inputOffset' and writes them to the
+ * output array starting at 'outputOffset'.  The input and output must not overlap.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvertRotation3DBatch_F64 {
+	/**
+	 * Number of rotations in each block
+	 */
+	public static final int BLOCK_SIZE = 4096;
+
+	// if true blocks are processed concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Converts unit quaternions into rotation matrices.
+	 *
+	 * @see ConvertRotation3D_F64#quaternionToMatrix
+	 */
+	public void quaternionToMatrix( final double quat[] , final int inputOffset ,
+									final double R[] , final int outputOffset , int count ) {
+		checkArguments(quat, inputOffset, 4, R, outputOffset, 9, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int q = inputOffset + i*4;
+					quaternionToMatrix(quat[q], quat[q+1], quat[q+2], quat[q+3], R, outputOffset + i*9);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rotation matrices into unit quaternions.
+	 *
+	 * @see ConvertRotation3D_F64#matrixToQuaternion
+	 */
+	public void matrixToQuaternion( final double R[] , final int inputOffset ,
+									final double quat[] , final int outputOffset , int count ) {
+		checkArguments(R, inputOffset, 9, quat, outputOffset, 4, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int r = inputOffset + i*9;
+					matrixToQuaternion(R[r], R[r+1], R[r+2], R[r+3], R[r+4], R[r+5], R[r+6], R[r+7], R[r+8],
+							quat, outputOffset + i*4);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rodrigues coordinates into rotation matrices.
+	 *
+	 * @see ConvertRotation3D_F64#rodriguesToMatrix
+	 */
+	public void rodriguesToMatrix( final double rodrigues[] , final int inputOffset ,
+								   final double R[] , final int outputOffset , int count ) {
+		checkArguments(rodrigues, inputOffset, 4, R, outputOffset, 9, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int r = inputOffset + i*4;
+					rodriguesToMatrix(rodrigues[r], rodrigues[r+1], rodrigues[r+2], rodrigues[r+3],
+							R, outputOffset + i*9);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rotation matrices into rodrigues coordinates.
+	 *
+	 * @see ConvertRotation3D_F64#matrixToRodrigues
+	 */
+	public void matrixToRodrigues( final double R[] , final int inputOffset ,
+								   final double rodrigues[] , final int outputOffset , int count ) {
+		checkArguments(R, inputOffset, 9, rodrigues, outputOffset, 4, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int r = inputOffset + i*9;
+					matrixToRodrigues(R[r], R[r+1], R[r+2], R[r+3], R[r+4], R[r+5], R[r+6], R[r+7], R[r+8],
+							false, rodrigues, outputOffset + i*4);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rodrigues coordinates into unit quaternions.
+	 *
+	 * @see ConvertRotation3D_F64#rodriguesToQuaternion
+	 */
+	public void rodriguesToQuaternion( final double rodrigues[] , final int inputOffset ,
+									   final double quat[] , final int outputOffset , int count ) {
+		checkArguments(rodrigues, inputOffset, 4, quat, outputOffset, 4, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int r = inputOffset + i*4;
+					int q = outputOffset + i*4;
+					double theta = rodrigues[r];
+					double c = Math.cos(theta*0.5);
+					double s = Math.sin(theta*0.5);
+					quat[q] = c;
+					quat[q+1] = rodrigues[r+1]*s;
+					quat[q+2] = rodrigues[r+2]*s;
+					quat[q+3] = rodrigues[r+3]*s;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts unit quaternions into rodrigues coordinates.  The angle is found using atan2() instead of acos()
+	 * so that a quaternion which is slightly longer than one doesn't produce NaN.  As with
+	 * {@link ConvertRotation3D_F64}, the axis is NaN if there is no rotation.
+	 *
+	 * @see ConvertRotation3D_F64#quaternionToRodrigues
+	 */
+	public void quaternionToRodrigues( final double quat[] , final int inputOffset ,
+									   final double rodrigues[] , final int outputOffset , int count ) {
+		checkArguments(quat, inputOffset, 4, rodrigues, outputOffset, 4, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int q = inputOffset + i*4;
+					int r = outputOffset + i*4;
+					double x = quat[q+1], y = quat[q+2], z = quat[q+3];
+					double n = Math.sqrt(x*x + y*y + z*z);
+					rodrigues[r] = 2.0*Math.atan2(n, quat[q]);
+					rodrigues[r+1] = x/n;
+					rodrigues[r+2] = y/n;
+					rodrigues[r+3] = z/n;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rotation vectors into rotation matrices.  A zero vector is the identity matrix.
+	 */
+	public void rotationVectorToMatrix( final double vector[] , final int inputOffset ,
+										final double R[] , final int outputOffset , int count ) {
+		checkArguments(vector, inputOffset, 3, R, outputOffset, 9, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int v = inputOffset + i*3;
+					double x = vector[v], y = vector[v+1], z = vector[v+2];
+					double theta = Math.sqrt(x*x + y*y + z*z);
+					if( theta == 0 )
+						rodriguesToMatrix(0, 1, 0, 0, R, outputOffset + i*9);
+					else
+						rodriguesToMatrix(theta, x/theta, y/theta, z/theta, R, outputOffset + i*9);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rotation matrices into rotation vectors.
+	 */
+	public void matrixToRotationVector( final double R[] , final int inputOffset ,
+										final double vector[] , final int outputOffset , int count ) {
+		checkArguments(R, inputOffset, 9, vector, outputOffset, 3, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int r = inputOffset + i*9;
+					matrixToRodrigues(R[r], R[r+1], R[r+2], R[r+3], R[r+4], R[r+5], R[r+6], R[r+7], R[r+8],
+							true, vector, outputOffset + i*3);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rotation vectors into unit quaternions.
+	 */
+	public void rotationVectorToQuaternion( final double vector[] , final int inputOffset ,
+											final double quat[] , final int outputOffset , int count ) {
+		checkArguments(vector, inputOffset, 3, quat, outputOffset, 4, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int v = inputOffset + i*3;
+					int q = outputOffset + i*4;
+					double x = vector[v], y = vector[v+1], z = vector[v+2];
+					double theta = Math.sqrt(x*x + y*y + z*z);
+					// sin(theta/2)/theta, which goes to 1/2 as theta goes to zero
+					double s = theta == 0 ? 0.5 : Math.sin(theta*0.5)/theta;
+					quat[q] = Math.cos(theta*0.5);
+					quat[q+1] = x*s;
+					quat[q+2] = y*s;
+					quat[q+3] = z*s;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts unit quaternions into rotation vectors.
+	 */
+	public void quaternionToRotationVector( final double quat[] , final int inputOffset ,
+											final double vector[] , final int outputOffset , int count ) {
+		checkArguments(quat, inputOffset, 4, vector, outputOffset, 3, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int q = inputOffset + i*4;
+					int v = outputOffset + i*3;
+					double x = quat[q+1], y = quat[q+2], z = quat[q+3];
+					double n = Math.sqrt(x*x + y*y + z*z);
+					double s = n == 0 ? 0 : 2.0*Math.atan2(n, quat[q])/n;
+					vector[v] = x*s;
+					vector[v+1] = y*s;
+					vector[v+2] = z*s;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts Euler angles into rotation matrices.
+	 *
+	 * @see ConvertRotation3D_F64#eulerToMatrix
+	 */
+	public void eulerToMatrix( final EulerType type ,
+							   final double euler[] , final int inputOffset ,
+							   final double R[] , final int outputOffset , int count ) {
+		checkArguments(euler, inputOffset, 3, R, outputOffset, 9, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int e = inputOffset + i*3;
+					eulerToMatrix(type, euler[e], euler[e+1], euler[e+2], R, outputOffset + i*9);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts rotation matrices into Euler angles.
+	 *
+	 * @see ConvertRotation3D_F64#matrixToEuler
+	 */
+	public void matrixToEuler( final double R[] , final int inputOffset ,
+							   final EulerType type ,
+							   final double euler[] , final int outputOffset , int count ) {
+		checkArguments(R, inputOffset, 9, euler, outputOffset, 3, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int r = inputOffset + i*9;
+					matrixToEuler(R[r], R[r+1], R[r+2], R[r+3], R[r+4], R[r+5], R[r+6], R[r+7], R[r+8],
+							type, euler, outputOffset + i*3);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts Euler angles into unit quaternions.
+	 *
+	 * @see ConvertRotation3D_F64#eulerToQuaternion
+	 */
+	public void eulerToQuaternion( final EulerType type ,
+								   final double euler[] , final int inputOffset ,
+								   final double quat[] , final int outputOffset , int count ) {
+		checkArguments(euler, inputOffset, 3, quat, outputOffset, 4, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int e = inputOffset + i*3;
+					eulerToQuaternion(type, euler[e], euler[e+1], euler[e+2], quat, outputOffset + i*4);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Converts unit quaternions into Euler angles.
+	 *
+	 * @see ConvertRotation3D_F64#quaternionToEuler
+	 */
+	public void quaternionToEuler( final double quat[] , final int inputOffset ,
+								   final EulerType type ,
+								   final double euler[] , final int outputOffset , int count ) {
+		checkArguments(quat, inputOffset, 4, euler, outputOffset, 3, count);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int q = inputOffset + i*4;
+					double w = quat[q], x = quat[q+1], y = quat[q+2], z = quat[q+3];
+					matrixToEuler(
+							w*w + x*x - y*y - z*z, 2.0*(x*y - w*z), 2.0*(x*z + w*y),
+							2.0*(x*y + w*z), w*w - x*x + y*y - z*z, 2.0*(y*z - w*x),
+							2.0*(x*z - w*y), 2.0*(y*z + w*x), w*w - x*x - y*y + z*z,
+							type, euler, outputOffset + i*3);
+				}
+			}
+		});
+	}
+
+	static void quaternionToMatrix( double q0 , double q1 , double q2 , double q3 , double R[] , int o ) {
+		R[o  ] = q0*q0 + q1*q1 - q2*q2 - q3*q3;
+		R[o+1] = 2.0*(q1*q2 - q0*q3);
+		R[o+2] = 2.0*(q1*q3 + q0*q2);
+		R[o+3] = 2.0*(q1*q2 + q0*q3);
+		R[o+4] = q0*q0 - q1*q1 + q2*q2 - q3*q3;
+		R[o+5] = 2.0*(q2*q3 - q0*q1);
+		R[o+6] = 2.0*(q1*q3 - q0*q2);
+		R[o+7] = 2.0*(q2*q3 + q0*q1);
+		R[o+8] = q0*q0 - q1*q1 - q2*q2 + q3*q3;
+	}
+
+	static void matrixToQuaternion( double m00 , double m01 , double m02 ,
+									double m10 , double m11 , double m12 ,
+									double m20 , double m21 , double m22 ,
+									double quat[] , int o ) {
+		double trace = m00 + m11 + m22;
+
+		if( trace > 0 ) {
+			double S = Math.sqrt(trace + 1.0)*2; // S=4*qw
+			quat[o  ] = 0.25*S;
+			quat[o+1] = (m21 - m12)/S;
+			quat[o+2] = (m02 - m20)/S;
+			quat[o+3] = (m10 - m01)/S;
+		} else if( (m00 > m11) & (m00 > m22) ) {
+			double S = Math.sqrt(1.0 + m00 - m11 - m22)*2; // S=4*qx
+			quat[o  ] = (m21 - m12)/S;
+			quat[o+1] = 0.25*S;
+			quat[o+2] = (m01 + m10)/S;
+			quat[o+3] = (m02 + m20)/S;
+		} else if( m11 > m22 ) {
+			double S = Math.sqrt(1.0 + m11 - m00 - m22)*2; // S=4*qy
+			quat[o  ] = (m02 - m20)/S;
+			quat[o+1] = (m01 + m10)/S;
+			quat[o+2] = 0.25*S;
+			quat[o+3] = (m12 + m21)/S;
+		} else {
+			double S = Math.sqrt(1.0 + m22 - m00 - m11)*2; // S=4*qz
+			quat[o  ] = (m10 - m01)/S;
+			quat[o+1] = (m02 + m20)/S;
+			quat[o+2] = (m12 + m21)/S;
+			quat[o+3] = 0.25*S;
+		}
+	}
+
+	static void rodriguesToMatrix( double theta , double x , double y , double z , double R[] , int o ) {
+		double c = Math.cos(theta);
+		double s = Math.sin(theta);
+		double oc = 1.0 - c;
+
+		R[o  ] = c + x*x*oc;
+		R[o+1] = x*y*oc - z*s;
+		R[o+2] = x*z*oc + y*s;
+		R[o+3] = y*x*oc + z*s;
+		R[o+4] = c + y*y*oc;
+		R[o+5] = y*z*oc - x*s;
+		R[o+6] = z*x*oc - y*s;
+		R[o+7] = z*y*oc + x*s;
+		R[o+8] = c + z*z*oc;
+	}
+
+	/**
+	 * Same algorithm as {@link ConvertRotation3D_F64#matrixToRodrigues}.  If 'vector' is true the output is
+	 * a rotation vector, otherwise it's (theta, x, y, z).
+	 */
+	static void matrixToRodrigues( double m00 , double m01 , double m02 ,
+								   double m10 , double m11 , double m12 ,
+								   double m20 , double m21 , double m22 ,
+								   boolean vector , double output[] , int o ) {
+		double diagSum = ((m00 + m11 + m22) - 1.0)/2.0;
+		double absDiagSum = Math.abs(diagSum);
+
+		double theta, x, y, z;
+		if( absDiagSum <= 1.0 && 1.0 - absDiagSum > 10.0*GrlConstants.EPS ) {
+			theta = Math.acos(diagSum);
+			double bottom = 2.0*Math.sin(theta);
+
+			x = (m21 - m12)/bottom;
+			y = (m02 - m20)/bottom;
+			z = (m10 - m01)/bottom;
+
+			// in extreme underflow situations the result can be unnormalized
+			double n = Math.sqrt(x*x + y*y + z*z);
+			x /= n;
+			y /= n;
+			z /= n;
+		} else {
+			// this handles the special case where the bottom is very very small or equal to zero
+			if( diagSum >= 1.0 )
+				theta = 0;
+			else if( diagSum <= -1.0 )
+				theta = Math.PI;
+			else
+				theta = Math.acos(diagSum);
+
+			// compute the value of x,y,z up to a sign ambiguity
+			x = Math.sqrt((m00 + 1)/2);
+			y = Math.sqrt((m11 + 1)/2);
+			z = Math.sqrt((m22 + 1)/2);
+
+			if( Math.abs(m10 - 2*x*y) > GrlConstants.EPS ) {
+				x *= -1;
+			}
+			if( Math.abs(m20 - 2*x*z) > GrlConstants.EPS ) {
+				z *= -1;
+			}
+			if( Math.abs(m21 - 2*z*y) > GrlConstants.EPS ) {
+				y *= -1;
+				x *= -1;
+			}
+		}
+
+		if( vector ) {
+			output[o  ] = x*theta;
+			output[o+1] = y*theta;
+			output[o+2] = z*theta;
+		} else {
+			output[o  ] = theta;
+			output[o+1] = x;
+			output[o+2] = y;
+			output[o+3] = z;
+		}
+	}
+
+	/**
+	 * Same as {@link ConvertRotation3D_F64#eulerToMatrix}, which is R = R_c*R_b*R_a multiplied out by
+	 * GenerateEulerConversionsApp.
+	 */
+	static void eulerToMatrix( EulerType type , double rotA , double rotB , double rotC , double R[] , int o ) {
+		double ca = Math.cos(rotA);
+		double sa = Math.sin(rotA);
+		double cb = Math.cos(rotB);
+		double sb = Math.sin(rotB);
+		double cc = Math.cos(rotC);
+		double sc = Math.sin(rotC);
+
+		switch( type ) {
+			case ZYX:
+				R[o  ] = ca*cb;
+				R[o+1] = -sa*cb;
+				R[o+2] = sb;
+				R[o+3] = ca*sb*sc + sa*cc;
+				R[o+4] = ca*cc - sa*sb*sc;
+				R[o+5] = -cb*sc;
+				R[o+6] = -ca*sb*cc + sa*sc;
+				R[o+7] = ca*sc + sa*sb*cc;
+				R[o+8] = cb*cc;
+				break;
+
+			case ZYZ:
+				R[o  ] = ca*cb*cc - sa*sc;
+				R[o+1] = -ca*sc - sa*cb*cc;
+				R[o+2] = sb*cc;
+				R[o+3] = ca*cb*sc + sa*cc;
+				R[o+4] = ca*cc - sa*cb*sc;
+				R[o+5] = sb*sc;
+				R[o+6] = -ca*sb;
+				R[o+7] = sa*sb;
+				R[o+8] = cb;
+				break;
+
+			case ZXY:
+				R[o  ] = ca*cc + sa*sb*sc;
+				R[o+1] = ca*sb*sc - sa*cc;
+				R[o+2] = cb*sc;
+				R[o+3] = sa*cb;
+				R[o+4] = ca*cb;
+				R[o+5] = -sb;
+				R[o+6] = -ca*sc + sa*sb*cc;
+				R[o+7] = ca*sb*cc + sa*sc;
+				R[o+8] = cb*cc;
+				break;
+
+			case ZXZ:
+				R[o  ] = ca*cc - sa*cb*sc;
+				R[o+1] = -ca*cb*sc - sa*cc;
+				R[o+2] = sb*sc;
+				R[o+3] = ca*sc + sa*cb*cc;
+				R[o+4] = ca*cb*cc - sa*sc;
+				R[o+5] = -sb*cc;
+				R[o+6] = sa*sb;
+				R[o+7] = ca*sb;
+				R[o+8] = cb;
+				break;
+
+			case YXZ:
+				R[o  ] = ca*cc - sa*sb*sc;
+				R[o+1] = -cb*sc;
+				R[o+2] = ca*sb*sc + sa*cc;
+				R[o+3] = ca*sc + sa*sb*cc;
+				R[o+4] = cb*cc;
+				R[o+5] = -ca*sb*cc + sa*sc;
+				R[o+6] = -sa*cb;
+				R[o+7] = sb;
+				R[o+8] = ca*cb;
+				break;
+
+			case YXY:
+				R[o  ] = ca*cc - sa*cb*sc;
+				R[o+1] = sb*sc;
+				R[o+2] = ca*cb*sc + sa*cc;
+				R[o+3] = sa*sb;
+				R[o+4] = cb;
+				R[o+5] = -ca*sb;
+				R[o+6] = -ca*sc - sa*cb*cc;
+				R[o+7] = sb*cc;
+				R[o+8] = ca*cb*cc - sa*sc;
+				break;
+
+			case YZX:
+				R[o  ] = ca*cb;
+				R[o+1] = -sb;
+				R[o+2] = sa*cb;
+				R[o+3] = ca*sb*cc + sa*sc;
+				R[o+4] = cb*cc;
+				R[o+5] = -ca*sc + sa*sb*cc;
+				R[o+6] = ca*sb*sc - sa*cc;
+				R[o+7] = cb*sc;
+				R[o+8] = ca*cc + sa*sb*sc;
+				break;
+
+			case YZY:
+				R[o  ] = ca*cb*cc - sa*sc;
+				R[o+1] = -sb*cc;
+				R[o+2] = ca*sc + sa*cb*cc;
+				R[o+3] = ca*sb;
+				R[o+4] = cb;
+				R[o+5] = sa*sb;
+				R[o+6] = -ca*cb*sc - sa*cc;
+				R[o+7] = sb*sc;
+				R[o+8] = ca*cc - sa*cb*sc;
+				break;
+
+			case XYZ:
+				R[o  ] = cb*cc;
+				R[o+1] = -ca*sc + sa*sb*cc;
+				R[o+2] = ca*sb*cc + sa*sc;
+				R[o+3] = cb*sc;
+				R[o+4] = ca*cc + sa*sb*sc;
+				R[o+5] = ca*sb*sc - sa*cc;
+				R[o+6] = -sb;
+				R[o+7] = sa*cb;
+				R[o+8] = ca*cb;
+				break;
+
+			case XYX:
+				R[o  ] = cb;
+				R[o+1] = sa*sb;
+				R[o+2] = ca*sb;
+				R[o+3] = sb*sc;
+				R[o+4] = ca*cc - sa*cb*sc;
+				R[o+5] = -ca*cb*sc - sa*cc;
+				R[o+6] = -sb*cc;
+				R[o+7] = ca*sc + sa*cb*cc;
+				R[o+8] = ca*cb*cc - sa*sc;
+				break;
+
+			case XZY:
+				R[o  ] = cb*cc;
+				R[o+1] = -ca*sb*cc + sa*sc;
+				R[o+2] = ca*sc + sa*sb*cc;
+				R[o+3] = sb;
+				R[o+4] = ca*cb;
+				R[o+5] = -sa*cb;
+				R[o+6] = -cb*sc;
+				R[o+7] = ca*sb*sc + sa*cc;
+				R[o+8] = ca*cc - sa*sb*sc;
+				break;
+
+			case XZX:
+				R[o  ] = cb;
+				R[o+1] = -ca*sb;
+				R[o+2] = sa*sb;
+				R[o+3] = sb*cc;
+				R[o+4] = ca*cb*cc - sa*sc;
+				R[o+5] = -ca*sc - sa*cb*cc;
+				R[o+6] = sb*sc;
+				R[o+7] = ca*cb*sc + sa*cc;
+				R[o+8] = ca*cc - sa*cb*sc;
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown rotation sequence");
+		}
+	}
+
+	static void eulerToQuaternion( EulerType type , double rotA , double rotB , double rotC ,
+								   double quat[] , int o ) {
+		double ca = Math.cos(rotA*0.5);
+		double sa = Math.sin(rotA*0.5);
+		double cb = Math.cos(rotB*0.5);
+		double sb = Math.sin(rotB*0.5);
+		double cc = Math.cos(rotC*0.5);
+		double sc = Math.sin(rotC*0.5);
+
+		double w, x, y, z;
+		switch( type ) {
+			case ZYX:
+				w = ca*cb*cc - sa*sb*sc;
+				x = cc*sa*sb + ca*cb*sc;
+				y = ca*cc*sb - cb*sa*sc;
+				z = cb*cc*sa + ca*sb*sc;
+				break;
+
+			case ZYZ:
+				w = ca*cb*cc - cb*sa*sc;
+				x = cc*sa*sb - ca*sb*sc;
+				y = ca*cc*sb + sa*sb*sc;
+				z = cb*cc*sa + ca*cb*sc;
+				break;
+
+			case ZXY:
+				w = ca*cb*cc + sa*sb*sc;
+				x = ca*cc*sb + cb*sa*sc;
+				y = -cc*sa*sb + ca*cb*sc;
+				z = cb*cc*sa - ca*sb*sc;
+				break;
+
+			case ZXZ:
+				w = ca*cb*cc - cb*sa*sc;
+				x = ca*cc*sb + sa*sb*sc;
+				y = -cc*sa*sb + ca*sb*sc;
+				z = cb*cc*sa + ca*cb*sc;
+				break;
+
+			case YXZ:
+				w = ca*cb*cc - sa*sb*sc;
+				x = ca*cc*sb - cb*sa*sc;
+				y = cb*cc*sa + ca*sb*sc;
+				z = cc*sa*sb + ca*cb*sc;
+				break;
+
+			case YXY:
+				w = ca*cb*cc - cb*sa*sc;
+				x = ca*cc*sb + sa*sb*sc;
+				y = cb*cc*sa + ca*cb*sc;
+				z = cc*sa*sb - ca*sb*sc;
+				break;
+
+			case YZX:
+				w = ca*cb*cc + sa*sb*sc;
+				x = -cc*sa*sb + ca*cb*sc;
+				y = cb*cc*sa - ca*sb*sc;
+				z = ca*cc*sb + cb*sa*sc;
+				break;
+
+			case YZY:
+				w = ca*cb*cc - cb*sa*sc;
+				x = -cc*sa*sb + ca*sb*sc;
+				y = cb*cc*sa + ca*cb*sc;
+				z = ca*cc*sb + sa*sb*sc;
+				break;
+
+			case XYZ:
+				w = ca*cb*cc + sa*sb*sc;
+				x = cb*cc*sa - ca*sb*sc;
+				y = ca*cc*sb + cb*sa*sc;
+				z = -cc*sa*sb + ca*cb*sc;
+				break;
+
+			case XYX:
+				w = ca*cb*cc - cb*sa*sc;
+				x = cb*cc*sa + ca*cb*sc;
+				y = ca*cc*sb + sa*sb*sc;
+				z = -cc*sa*sb + ca*sb*sc;
+				break;
+
+			case XZY:
+				w = ca*cb*cc - sa*sb*sc;
+				x = cb*cc*sa + ca*sb*sc;
+				y = cc*sa*sb + ca*cb*sc;
+				z = ca*cc*sb - cb*sa*sc;
+				break;
+
+			case XZX:
+				w = ca*cb*cc - cb*sa*sc;
+				x = cb*cc*sa + ca*cb*sc;
+				y = cc*sa*sb - ca*sb*sc;
+				z = ca*cc*sb + sa*sb*sc;
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown rotation sequence");
+		}
+
+		quat[o  ] = w;
+		quat[o+1] = x;
+		quat[o+2] = y;
+		quat[o+3] = z;
+	}
+
+	/**
+	 * Same as {@link ConvertRotation3D_F64#matrixToEuler}.  Elements for each rotation sequence were found by
+	 * GenerateEulerConversionsApp.
+	 */
+	static void matrixToEuler( double m00 , double m01 , double m02 ,
+							   double m10 , double m11 , double m12 ,
+							   double m20 , double m21 , double m22 ,
+							   EulerType type , double euler[] , int e ) {
+		switch( type ) {
+			case ZYX:
+				tanSinTan(-m01, m00, m02, -m12, m22, m11, -m20, m10, m21, euler, e);
+				break;
+
+			case ZYZ:
+				tanCosTan(m21, -m20, m22, m12, m02, m11, m00, m10, -m01, euler, e);
+				break;
+
+			case ZXY:
+				tanSinTan(m10, m11, -m12, m02, m22, m00, m21, -m01, m20, euler, e);
+				break;
+
+			case ZXZ:
+				tanCosTan(m20, m21, m22, m02, -m12, m00, m11, -m01, m10, euler, e);
+				break;
+
+			case YXZ:
+				tanSinTan(-m20, m22, m21, -m01, m11, m00, -m12, m02, m10, euler, e);
+				break;
+
+			case YXY:
+				tanCosTan(m10, -m12, m11, m01, m21, m00, m22, m02, -m20, euler, e);
+				break;
+
+			case YZX:
+				tanSinTan(m02, m00, -m01, m21, m11, m22, m10, -m20, m12, euler, e);
+				break;
+
+			case YZY:
+				tanCosTan(m12, m10, m11, m21, -m01, m22, m00, -m20, m02, euler, e);
+				break;
+
+			case XYZ:
+				tanSinTan(m21, m22, -m20, m10, m00, m11, m02, -m12, m01, euler, e);
+				break;
+
+			case XYX:
+				tanCosTan(m01, m02, m00, m10, -m20, m11, m22, -m12, m21, euler, e);
+				break;
+
+			case XZY:
+				tanSinTan(-m12, m11, m10, -m20, m00, m22, -m01, m21, m02, euler, e);
+				break;
+
+			case XZX:
+				tanCosTan(m02, -m01, m00, m20, m10, m22, m11, m21, -m12, euler, e);
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown rotation sequence");
+		}
+	}
+
+	private static void tanSinTan( double y0 , double x0 , double sin1 , double y2 , double x2 ,
+								   double cos0a , double cos0b , double sin0a , double sin0b ,
+								   double euler[] , int e ) {
+		if( 1.0 - Math.abs(sin1) <= GrlConstants.EPS ) {
+			double sign = Math.signum(sin1);
+
+			double sin0 = (sin0a + sign*sin0b)/2.0;
+			double cos0 = (cos0a + sign*cos0b)/2.0;
+
+			euler[e  ] = Math.atan2(sin0, cos0);
+			euler[e+1] = sign*Math.PI/2.0;
+			euler[e+2] = 0;
+		} else {
+			euler[e  ] = Math.atan2(y0, x0);
+			euler[e+1] = Math.asin(sin1);
+			euler[e+2] = Math.atan2(y2, x2);
+		}
+	}
+
+	private static void tanCosTan( double y0 , double x0 , double cos1 , double y2 , double x2 ,
+								   double cos0a , double cos0b , double sin0a , double sin0b ,
+								   double euler[] , int e ) {
+		if( 1.0 - Math.abs(cos1) <= GrlConstants.EPS ) {
+			double sign = Math.signum(cos1);
+
+			double sin0 = (sin0a + sign*sin0b)/2.0;
+			double cos0 = (cos0a + sign*cos0b)/2.0;
+
+			euler[e  ] = Math.atan2(sin0, cos0);
+			euler[e+1] = sign > 0 ? 0 : Math.PI;
+			euler[e+2] = 0;
+		} else {
+			euler[e  ] = Math.atan2(y0, x0);
+			euler[e+1] = Math.acos(cos1);
+			euler[e+2] = Math.atan2(y2, x2);
+		}
+	}
+
+	private void process( int count , GrlConcurrency.IntRangeTask task ) {
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, count, BLOCK_SIZE, task);
+		} else if( count > 0 ) {
+			task.process(0, count);
+		}
+	}
+
+	private static void checkArguments( double input[] , int inputOffset , int inputStride ,
+										double output[] , int outputOffset , int outputStride , int count ) {
+		if( count < 0 )
+			throw new IllegalArgumentException("count must be non-negative");
+		if( inputOffset < 0 || inputOffset + (long)inputStride*count > input.length )
+			throw new IllegalArgumentException("Input is out of bounds");
+		if( outputOffset < 0 || outputOffset + (long)outputStride*count > output.length )
+			throw new IllegalArgumentException("Output is out of bounds");
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if rotations should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
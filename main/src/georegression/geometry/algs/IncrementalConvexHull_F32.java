@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+
+/**
+ * <p>
+ * Convex hull which is updated as points are added one at a time.  Intended for when the hull of a growing set of
+ * points is needed after every addition, where recomputing it from scratch would have a quadratic total cost.
+ * </p>
+ *
+ * <p>
+ * The hull is stored as a lower and an upper chain, each sorted by x-coordinate in a balanced search tree.  A new
+ * point is compared against its two neighbors in each chain, which takes O(log n) and rejects points inside the
+ * hull.  If it's outside then it's inserted and the neighbors it makes redundant are removed.  Each point can only
+ * be removed once, so adding a point takes O(log n) amortized time.  Collinear points are not included in the
+ * hull, same as {@link AndrewMonotoneConvexHull_F32}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IncrementalConvexHull_F32 {
+
+	// chain below the points and above the points
+	Chain lower = new Chain(1);
+	Chain upper = new Chain(-1);
+
+	/**
+	 * Adds a point to the set
+	 *
+	 * @param x x-coordinate of the point
+	 * @param y y-coordinate of the point
+	 * @return true if the hull changed or false if the point is inside the hull
+	 */
+	public boolean add( float x , float y ) {
+		boolean changed = lower.add(x,y);
+		changed |= upper.add(x,y);
+		return changed;
+	}
+
+	/**
+	 * Adds a point to the set
+	 *
+	 * @param p The point.  Not modified.
+	 * @return true if the hull changed or false if the point is inside the hull
+	 */
+	public boolean add( Point2D_F32 p ) {
+		return add(p.x, p.y);
+	}
+
+	/**
+	 * Removes all the points
+	 */
+	public void reset() {
+		lower.reset();
+		upper.reset();
+	}
+
+	/**
+	 * Number of vertexes in the hull
+	 */
+	public int size() {
+		if( lower.size == 0 )
+			return 0;
+		int upperSize = upper.size;
+		if( sameEnds(lower.last(), upper.last()) )
+			upperSize--;
+		if( upperSize > 0 && sameEnds(lower.first(), upper.first()) )
+			upperSize--;
+		return lower.size + upperSize;
+	}
+
+	/**
+	 * Copies the current hull into the polygon.  Vertexes are in counter-clockwise order starting with the
+	 * lowest point with the smallest x-coordinate.  Takes O(h) time where h is the number of vertexes in the hull.
+	 *
+	 * @param hull (Output) Storage for the hull.  Modified.
+	 */
+	public void getHull( Polygon2D_F32 hull ) {
+		hull.vertexes.reset();
+		if( lower.size == 0 )
+			return;
+
+		boolean skipLast = sameEnds(lower.last(), upper.last());
+		boolean skipFirst = sameEnds(lower.first(), upper.first());
+
+		lower.increasing(hull);
+		int before = hull.size();
+		upper.decreasing(hull);
+
+		// the chains can share their end points
+		if( skipLast )
+			hull.vertexes.remove(before);
+		if( skipFirst && hull.size() > before )
+			hull.vertexes.removeTail();
+	}
+
+	private boolean sameEnds( int lowerNode , int upperNode ) {
+		return lower.xs[lowerNode] == upper.xs[upperNode] && lower.ys[lowerNode] == upper.ys[upperNode];
+	}
+
+	/**
+	 * One side of the hull.  Points are stored in a treap, a randomized balanced binary search tree, sorted by
+	 * their x-coordinate.  Nodes are stored in arrays and recycled.
+	 */
+	static class Chain {
+		// 1 for the lower chain and -1 for the upper chain
+		final int sign;
+
+		float xs[] = new float[16];
+		float ys[] = new float[16];
+		int left[] = new int[16];
+		int right[] = new int[16];
+		int priority[] = new int[16];
+
+		int root = -1;
+		int size;
+		// number of nodes which have been used and the start of the list of free nodes
+		int used;
+		int free = -1;
+
+		// state of the random number generator used for priorities
+		int seed = 0x2545F491;
+
+		// output of split
+		int splitLeft, splitRight;
+
+		Chain( int sign ) {
+			this.sign = sign;
+		}
+
+		void reset() {
+			root = -1;
+			size = 0;
+			used = 0;
+			free = -1;
+			seed = 0x2545F491;
+		}
+
+		boolean add( float x , float y ) {
+			int same = find(x);
+			if( same != -1 ) {
+				// only the lowest point (or highest for the upper chain) can be on the chain
+				if( sign*(y - ys[same]) >= 0 )
+					return false;
+				delete(x);
+			} else {
+				int l = lower(x);
+				int r = higher(x);
+				if( l != -1 && r != -1 && sign*turn(xs[l], ys[l], x, y, xs[r], ys[r]) <= 0 )
+					return false;
+			}
+
+			insert(x, y);
+
+			// remove points which are no longer on the chain
+			while( true ) {
+				int l = lower(x);
+				if( l == -1 ) break;
+				int ll = lower(xs[l]);
+				if( ll == -1 || sign*turn(xs[ll], ys[ll], xs[l], ys[l], x, y) > 0 ) break;
+				delete(xs[l]);
+			}
+			while( true ) {
+				int r = higher(x);
+				if( r == -1 ) break;
+				int rr = higher(xs[r]);
+				if( rr == -1 || sign*turn(x, y, xs[r], ys[r], xs[rr], ys[rr]) > 0 ) break;
+				delete(xs[r]);
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the node with the largest x-coordinate less than x, or -1 if there is none
+		 */
+		int lower( float x ) {
+			int best = -1;
+			int t = root;
+			while( t != -1 ) {
+				if( xs[t] < x ) {
+					best = t;
+					t = right[t];
+				} else {
+					t = left[t];
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Returns the node with the smallest x-coordinate greater than x, or -1 if there is none
+		 */
+		int higher( float x ) {
+			int best = -1;
+			int t = root;
+			while( t != -1 ) {
+				if( xs[t] > x ) {
+					best = t;
+					t = left[t];
+				} else {
+					t = right[t];
+				}
+			}
+			return best;
+		}
+
+		int find( float x ) {
+			int t = root;
+			while( t != -1 && xs[t] != x ) {
+				t = x < xs[t] ? left[t] : right[t];
+			}
+			return t;
+		}
+
+		int first() {
+			int t = root;
+			while( left[t] != -1 ) t = left[t];
+			return t;
+		}
+
+		int last() {
+			int t = root;
+			while( right[t] != -1 ) t = right[t];
+			return t;
+		}
+
+		void insert( float x , float y ) {
+			int node;
+			if( free != -1 ) {
+				node = free;
+				free = left[free];
+			} else {
+				if( used == xs.length )
+					grow();
+				node = used++;
+			}
+			xs[node] = x;
+			ys[node] = y;
+			left[node] = right[node] = -1;
+			// xorshift
+			seed ^= seed << 13;
+			seed ^= seed >>> 17;
+			seed ^= seed << 5;
+			priority[node] = seed;
+
+			split(root, x);
+			int r = splitRight;
+			root = merge(merge(splitLeft, node), r);
+			size++;
+		}
+
+		void delete( float x ) {
+			root = delete(root, x);
+			size--;
+		}
+
+		private int delete( int t , float x ) {
+			if( xs[t] == x ) {
+				int replacement = merge(left[t], right[t]);
+				left[t] = free;
+				free = t;
+				return replacement;
+			}
+			if( x < xs[t] )
+				left[t] = delete(left[t], x);
+			else
+				right[t] = delete(right[t], x);
+			return t;
+		}
+
+		/**
+		 * Splits the tree into nodes less than x, splitLeft, and nodes greater than or equal to x, splitRight.
+		 */
+		private void split( int t , float x ) {
+			if( t == -1 ) {
+				splitLeft = splitRight = -1;
+			} else if( xs[t] < x ) {
+				split(right[t], x);
+				right[t] = splitLeft;
+				splitLeft = t;
+			} else {
+				split(left[t], x);
+				left[t] = splitRight;
+				splitRight = t;
+			}
+		}
+
+		/**
+		 * Merges two trees where every node in 'a' is less than every node in 'b'
+		 */
+		private int merge( int a , int b ) {
+			if( a == -1 ) return b;
+			if( b == -1 ) return a;
+			if( priority[a] > priority[b] ) {
+				right[a] = merge(right[a], b);
+				return a;
+			} else {
+				left[b] = merge(a, left[b]);
+				return b;
+			}
+		}
+
+		/**
+		 * Appends the points to the polygon in order of increasing x
+		 */
+		void increasing( Polygon2D_F32 polygon ) {
+			increasing(root, polygon);
+		}
+
+		private void increasing( int t , Polygon2D_F32 polygon ) {
+			while( t != -1 ) {
+				increasing(left[t], polygon);
+				polygon.vertexes.grow().set(xs[t], ys[t]);
+				t = right[t];
+			}
+		}
+
+		/**
+		 * Appends the points to the polygon in order of decreasing x
+		 */
+		void decreasing( Polygon2D_F32 polygon ) {
+			decreasing(root, polygon);
+		}
+
+		private void decreasing( int t , Polygon2D_F32 polygon ) {
+			while( t != -1 ) {
+				decreasing(right[t], polygon);
+				polygon.vertexes.grow().set(xs[t], ys[t]);
+				t = left[t];
+			}
+		}
+
+		private void grow() {
+			int length = xs.length*2;
+			float xs[] = new float[length];
+			float ys[] = new float[length];
+			int left[] = new int[length];
+			int right[] = new int[length];
+			int priority[] = new int[length];
+			System.arraycopy(this.xs, 0, xs, 0, used);
+			System.arraycopy(this.ys, 0, ys, 0, used);
+			System.arraycopy(this.left, 0, left, 0, used);
+			System.arraycopy(this.right, 0, right, 0, used);
+			System.arraycopy(this.priority, 0, priority, 0, used);
+			this.xs = xs;
+			this.ys = ys;
+			this.left = left;
+			this.right = right;
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * z-component of (b-a) cross (c-a).  Positive if a, b, c make a counter-clockwise turn
+	 */
+	private static float turn( float ax , float ay , float bx , float by , float cx , float cy ) {
+		return (bx-ax)*(cy-ay) - (by-ay)*(cx-ax);
+	}
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Boolean operations (intersection, union, and difference) between two simple polygons using the Greiner-Hormann
+ * algorithm.  Polygons can be convex or concave but must not self intersect.  Every edge in one polygon is
+ * intersected against every edge in the other, so the computational cost is O(n*m + k), where n and m are the
+ * number of vertexes and k the number of intersections.  For two convex polygons {@link ClipConvexPolygons2D_F32}
+ * is faster.
+ * </p>
+ *
+ * <p>
+ * The result is a list of polygons.  Outer boundaries are in counter-clockwise order and holes are in clockwise order,
+ * so the sum of the signed areas of the output is the area of the result.  Input polygons can be in either order.
+ * </p>
+ *
+ * <p>
+ * Greiner-Hormann can't handle degenerate configurations where a vertex lies on an edge of the other polygon or
+ * two edges overlap.  When one is detected the vertexes of the clip polygon involved are moved by a tiny
+ * amount, relative to the size of the polygons, and the intersections are recomputed.  Identical and touching
+ * polygons are handled this way, with an error of the same tiny magnitude in the output.  If the configuration is
+ * still degenerate after several attempts the operation fails.
+ * </p>
+ *
+ * <p>
+ * All work is done inside of internal buffers which are recycled between calls.  Once they have grown large enough
+ * no memory is declared, provided the output list was created with declared instances.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PolygonBoolean2D_F32 {
+
+	// maximum number of times the clip polygon will be perturbed to remove degenerate configurations
+	int maxPerturb = 20;
+
+	private static final int INTERSECTION = 0;
+	private static final int UNION = 1;
+	private static final int DIFFERENCE = 2;
+
+	// tolerance for an intersection being at the end of an edge, in fractions of the edge's length
+	float tol = 100*(float)GrlConstants.F_EPS;
+
+	// copies of the input in counter-clockwise order.  'a' is the subject and 'b' the clip polygon
+	Polygon2D_F32 workA = new Polygon2D_F32();
+	Polygon2D_F32 workB = new Polygon2D_F32();
+
+	// Linked lists of vertexes and intersections for both polygons.  Nodes [0,n) are the vertexes in 'a'
+	// and [n,n+m) the vertexes in 'b'.  Intersections are added after those
+	int numNodes;
+	float nodeX[] = new float[0];
+	float nodeY[] = new float[0];
+	int next[] = new int[0];
+	int prev[] = new int[0];
+	// the same intersection in the other polygon's list
+	int neighbor[] = new int[0];
+	// location of an intersection along its edge, 0 to 1
+	float alpha[] = new float[0];
+	boolean intersection[] = new boolean[0];
+	// true if the polygon enters the other polygon at this intersection
+	boolean entry[] = new boolean[0];
+	boolean visited[] = new boolean[0];
+
+	// marks vertexes in 'b' which are part of a degenerate configuration
+	boolean degenerate[] = new boolean[0];
+	// used to perturb vertexes.  Seeded each time so that the output is deterministic
+	Random rand = new Random(234);
+
+	/**
+	 * Computes the intersection of the two polygons.
+	 *
+	 * @param a (Input) Simple polygon.  Not modified.
+	 * @param b (Input) Simple polygon.  Not modified.
+	 * @param output (Output) Polygons in the intersection.  Reset and then filled.
+	 * @return true if successful or false if a degenerate configuration couldn't be removed.  If false the
+	 * output is empty.
+	 */
+	public boolean intersection( Polygon2D_F32 a , Polygon2D_F32 b , FastQueue<Polygon2D_F32> output ) {
+		return process(a,b,INTERSECTION,output);
+	}
+
+	/**
+	 * Computes the union of the two polygons.  If they don't overlap then the output will contain both of them.
+	 *
+	 * @param a (Input) Simple polygon.  Not modified.
+	 * @param b (Input) Simple polygon.  Not modified.
+	 * @param output (Output) Polygons in the union.  Reset and then filled.
+	 * @return true if successful or false if a degenerate configuration couldn't be removed.  If false the
+	 * output is empty.
+	 */
+	public boolean union( Polygon2D_F32 a , Polygon2D_F32 b , FastQueue<Polygon2D_F32> output ) {
+		return process(a,b,UNION,output);
+	}
+
+	/**
+	 * Computes the difference a - b, i.e. the region inside of 'a' and outside of 'b'.
+	 *
+	 * @param a (Input) Simple polygon.  Not modified.
+	 * @param b (Input) Simple polygon.  Not modified.
+	 * @param output (Output) Polygons in the difference.  Reset and then filled.
+	 * @return true if successful or false if a degenerate configuration couldn't be removed.  If false the
+	 * output is empty.
+	 */
+	public boolean difference( Polygon2D_F32 a , Polygon2D_F32 b , FastQueue<Polygon2D_F32> output ) {
+		return process(a,b,DIFFERENCE,output);
+	}
+
+	/**
+	 * Computes the area of the intersection of the two polygons without constructing the intersection.  Green's
+	 * theorem is applied to each part of a polygon's perimeter which lies inside the other polygon.
+	 *
+	 * @param a (Input) Simple polygon.  Not modified.
+	 * @param b (Input) Simple polygon.  Not modified.
+	 * @return Area of the intersection or NaN if a degenerate configuration couldn't be removed
+	 */
+	public float intersectionArea( Polygon2D_F32 a , Polygon2D_F32 b ) {
+		if( a.size() < 3 || b.size() < 3 )
+			return 0;
+
+		if( !computeIntersections(a, b) )
+			return Float.NaN;
+
+		int n = workA.size();
+
+		float total = perimeterInside(0, Intersection2D_F32.containConcave(workB, workA.get(0)));
+		total += perimeterInside(n, Intersection2D_F32.containConcave(workA, workB.get(0)));
+
+		return total/2.0f;
+	}
+
+	/**
+	 * Sums up the cross product along the parts of a polygon's perimeter which are inside the other polygon.
+	 * The inside state toggles at each intersection.
+	 */
+	private float perimeterInside( int start , boolean inside ) {
+		float total = 0;
+		int i = start;
+		do {
+			int j = next[i];
+			if( inside )
+				total += nodeX[i]*nodeY[j] - nodeY[i]*nodeX[j];
+			if( intersection[j] )
+				inside = !inside;
+			i = j;
+		} while( i != start );
+		return total;
+	}
+
+	private boolean process( Polygon2D_F32 a , Polygon2D_F32 b , int operation , FastQueue<Polygon2D_F32> output ) {
+		output.reset();
+
+		// polygons which are too small to have an area are treated as empty
+		boolean emptyA = a.size() < 3;
+		boolean emptyB = b.size() < 3;
+		if( emptyA || emptyB ) {
+			if( !emptyA && operation != INTERSECTION )
+				copyCounterClockwise(a, output.grow());
+			if( !emptyB && operation == UNION )
+				copyCounterClockwise(b, output.grow());
+			return true;
+		}
+
+		// the entry and exit flags would be inconsistent and the traced output wrong
+		if( !computeIntersections(a, b) )
+			return false;
+
+		int n = workA.size();
+		int m = workB.size();
+
+		if( numNodes == n+m ) {
+			// The perimeters don't cross so one is inside the other or they are disjoint
+			boolean insideB = Intersection2D_F32.containConcave(workB, workA.get(0));
+			boolean insideA = !insideB && Intersection2D_F32.containConcave(workA, workB.get(0));
+
+			switch( operation ) {
+				case INTERSECTION:
+					if( insideB ) output.grow().set(workA);
+					else if( insideA ) output.grow().set(workB);
+					break;
+
+				case UNION:
+					if( insideB ) output.grow().set(workB);
+					else if( insideA ) output.grow().set(workA);
+					else {
+						output.grow().set(workA);
+						output.grow().set(workB);
+					}
+					break;
+
+				case DIFFERENCE:
+					if( insideA ) {
+						output.grow().set(workA);
+						// 'b' becomes a hole
+						Polygon2D_F32 hole = output.grow();
+						hole.set(workB);
+						hole.vertexes.reverse();
+					} else if( !insideB ) {
+						output.grow().set(workA);
+					}
+					break;
+			}
+			return true;
+		}
+
+		markEntries(0, Intersection2D_F32.containConcave(workB, workA.get(0)), operation != INTERSECTION);
+		markEntries(n, Intersection2D_F32.containConcave(workA, workB.get(0)), operation == UNION);
+
+		traceOutput(output);
+		return true;
+	}
+
+	/**
+	 * Copies the input polygons into the work polygons, then finds all the intersections between their edges and
+	 * creates the linked lists.  If degenerate configurations are found 'b' is perturbed and it tries again.
+	 *
+	 * @return true if successful or false if it's still degenerate after the maximum number of attempts
+	 */
+	private boolean computeIntersections( Polygon2D_F32 a , Polygon2D_F32 b ) {
+		copyCounterClockwise(a, workA);
+		copyCounterClockwise(b, workB);
+
+		rand.setSeed(234);
+
+		// scale of the perturbation is based on the size of the polygons
+		float scale = 0;
+		for (int i = 0; i < workA.size(); i++) {
+			Point2D_F32 p = workA.get(i);
+			scale = (float)Math.max(scale,Math.max(Math.abs(p.x),Math.abs(p.y)));
+		}
+		for (int i = 0; i < workB.size(); i++) {
+			Point2D_F32 p = workB.get(i);
+			scale = (float)Math.max(scale,Math.max(Math.abs(p.x),Math.abs(p.y)));
+		}
+		float magnitude = 10*tol*scale;
+
+		for (int trial = 0;; trial++) {
+			if( !createLists() )
+				return true;
+			if( trial == maxPerturb )
+				return false;
+
+			for (int i = 0; i < workB.size(); i++) {
+				if( degenerate[i] ) {
+					Point2D_F32 p = workB.get(i);
+					p.x += (rand.nextFloat()-0.5f)*magnitude;
+					p.y += (rand.nextFloat()-0.5f)*magnitude;
+				}
+			}
+			magnitude *= 2;
+		}
+	}
+
+	/**
+	 * Creates linked lists for both polygons and inserts the intersections between their edges
+	 *
+	 * @return true if a degenerate configuration was found
+	 */
+	private boolean createLists() {
+		int n = workA.size();
+		int m = workB.size();
+
+		numNodes = 0;
+		growNodes(n+m);
+		for (int i = 0; i < n; i++) {
+			Point2D_F32 p = workA.get(i);
+			addNode(p.x, p.y, i == 0 ? n-1 : i-1, i == n-1 ? 0 : i+1);
+		}
+		for (int i = 0; i < m; i++) {
+			Point2D_F32 p = workB.get(i);
+			addNode(p.x, p.y, n+(i == 0 ? m-1 : i-1), n+(i == m-1 ? 0 : i+1));
+		}
+
+		if( degenerate.length < m )
+			degenerate = new boolean[m];
+		boolean found = false;
+
+		for (int i = 0; i < n; i++) {
+			Point2D_F32 a0 = workA.get(i);
+			Point2D_F32 a1 = workA.get(i == n-1 ? 0 : i+1);
+
+			float dax = a1.x-a0.x;
+			float day = a1.y-a0.y;
+			float lengthA = dax*dax + day*day;
+
+			for (int j = 0; j < m; j++) {
+				int jj = j == m-1 ? 0 : j+1;
+				Point2D_F32 b0 = workB.get(j);
+				Point2D_F32 b1 = workB.get(jj);
+
+				float dbx = b1.x-b0.x;
+				float dby = b1.y-b0.y;
+				float lengthB = dbx*dbx + dby*dby;
+
+				float abx = b0.x-a0.x;
+				float aby = b0.y-a0.y;
+
+				float denominator = dax*dby - day*dbx;
+
+				if( (float)Math.abs(denominator) <= tol*Math.sqrt(lengthA*lengthB) ) {
+					// parallel lines.  See if they are the same line and overlap
+					float distance = (float)Math.abs(abx*day - aby*dax);
+					if( distance > tol*lengthA )
+						continue;
+					float t0 = (abx*dax + aby*day)/lengthA;
+					float t1 = ((b1.x-a0.x)*dax + (b1.y-a0.y)*day)/lengthA;
+					if( (float)Math.max(t0,t1) < -tol || (float)Math.min(t0,t1) > 1+tol )
+						continue;
+				} else {
+					float alphaA = (abx*dby - aby*dbx)/denominator;
+					float alphaB = (abx*day - aby*dax)/denominator;
+
+					if( alphaA < -tol || alphaA > 1+tol || alphaB < -tol || alphaB > 1+tol )
+						continue;
+
+					if( alphaA > tol && alphaA < 1-tol && alphaB > tol && alphaB < 1-tol ) {
+						if( !found ) {
+							float x = a0.x + alphaA*dax;
+							float y = a0.y + alphaA*day;
+							int nodeA = addIntersection(x,y,alphaA,i);
+							int nodeB = addIntersection(x,y,alphaB,n+j);
+							neighbor[nodeA] = nodeB;
+							neighbor[nodeB] = nodeA;
+						}
+						continue;
+					}
+				}
+
+				if( !found ) {
+					found = true;
+					for (int k = 0; k < m; k++) {
+						degenerate[k] = false;
+					}
+				}
+				degenerate[j] = true;
+				degenerate[jj] = true;
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Determines if each intersection along a polygon is an entry or an exit into the other polygon
+	 *
+	 * @param start First vertex in the polygon
+	 * @param inside If the first vertex is inside the other polygon
+	 * @param invert If true the entry flag will be inverted
+	 */
+	private void markEntries( int start , boolean inside , boolean invert ) {
+		int i = start;
+		do {
+			if( intersection[i] ) {
+				entry[i] = inside == invert;
+				inside = !inside;
+			}
+			i = next[i];
+		} while( i != start );
+	}
+
+	/**
+	 * Traces out the polygons by following the perimeter of a polygon until an intersection is encountered then
+	 * switching to the other polygon.  Entry intersections are followed forward and exit intersections backwards.
+	 * Tracing only starts at entry intersections in 'a' so that the parts of 'a' are always traversed forward.
+	 * Then the region is always to the left of the output's perimeter.
+	 */
+	private void traceOutput( FastQueue<Polygon2D_F32> output ) {
+		for (int i = 0; i < numNodes; i++) {
+			visited[i] = false;
+		}
+
+		int i = 0;
+		do {
+			if( intersection[i] && entry[i] && !visited[i] ) {
+				Polygon2D_F32 polygon = output.grow();
+				polygon.vertexes.reset();
+				polygon.vertexes.grow().set(nodeX[i],nodeY[i]);
+
+				int current = i;
+				do {
+					visited[current] = true;
+					visited[neighbor[current]] = true;
+					if( entry[current] ) {
+						do {
+							current = next[current];
+							polygon.vertexes.grow().set(nodeX[current],nodeY[current]);
+						} while( !intersection[current] );
+					} else {
+						do {
+							current = prev[current];
+							polygon.vertexes.grow().set(nodeX[current],nodeY[current]);
+						} while( !intersection[current] );
+					}
+					current = neighbor[current];
+				} while( !visited[current] );
+
+				// the last point is the same as the first
+				polygon.vertexes.removeTail();
+			}
+			i = next[i];
+		} while( i != 0 );
+	}
+
+	/**
+	 * Adds an intersection to the linked list after the vertex at the start of the edge, sorted by its
+	 * location along the edge.
+	 */
+	private int addIntersection( float x , float y , float alpha , int start ) {
+		int current = start;
+		while( intersection[next[current]] && this.alpha[next[current]] < alpha )
+			current = next[current];
+
+		int after = next[current];
+		int node = addNode(x, y, current, after);
+		next[current] = node;
+		prev[after] = node;
+		this.alpha[node] = alpha;
+		intersection[node] = true;
+		return node;
+	}
+
+	private int addNode( float x , float y , int prev , int next ) {
+		if( numNodes == nodeX.length )
+			growNodes(numNodes*2+10);
+		int node = numNodes++;
+		nodeX[node] = x;
+		nodeY[node] = y;
+		this.prev[node] = prev;
+		this.next[node] = next;
+		intersection[node] = false;
+		return node;
+	}
+
+	private void growNodes( int length ) {
+		if( length <= nodeX.length )
+			return;
+
+		float nodeX[] = new float[length];
+		float nodeY[] = new float[length];
+		int next[] = new int[length];
+		int prev[] = new int[length];
+		int neighbor[] = new int[length];
+		float alpha[] = new float[length];
+		boolean intersection[] = new boolean[length];
+
+		System.arraycopy(this.nodeX,0,nodeX,0,numNodes);
+		System.arraycopy(this.nodeY,0,nodeY,0,numNodes);
+		System.arraycopy(this.next,0,next,0,numNodes);
+		System.arraycopy(this.prev,0,prev,0,numNodes);
+		System.arraycopy(this.neighbor,0,neighbor,0,numNodes);
+		System.arraycopy(this.alpha,0,alpha,0,numNodes);
+		System.arraycopy(this.intersection,0,intersection,0,numNodes);
+
+		this.nodeX = nodeX;
+		this.nodeY = nodeY;
+		this.next = next;
+		this.prev = prev;
+		this.neighbor = neighbor;
+		this.alpha = alpha;
+		this.intersection = intersection;
+		this.entry = new boolean[length];
+		this.visited = new boolean[length];
+	}
+
+	/**
+	 * Copies the polygon into the output in counter-clockwise order
+	 */
+	static void copyCounterClockwise( Polygon2D_F32 input , Polygon2D_F32 output ) {
+		output.set(input);
+		if( signedArea(output) < 0 )
+			output.vertexes.reverse();
+	}
+
+	/**
+	 * Signed area of a polygon.  Positive for counter-clockwise order.
+	 */
+	static float signedArea( Polygon2D_F32 polygon ) {
+		float total = 0;
+		Point2D_F32 a = polygon.get(polygon.size()-1);
+		for (int i = 0; i < polygon.size(); i++) {
+			Point2D_F32 b = polygon.get(i);
+			total += a.x*b.y - a.y*b.x;
+			a = b;
+		}
+		return total/2.0f;
+	}
+
+	public float getTolerance() {
+		return tol;
+	}
+
+	/**
+	 * Specifies the tolerance used to detect degenerate configurations.  Relative to the length of an edge.
+	 */
+	public void setTolerance( float tol ) {
+		this.tol = tol;
+	}
+}
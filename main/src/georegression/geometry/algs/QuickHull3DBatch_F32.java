@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint3D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the 3D convex hull of many independent clusters of points using {@link QuickHull3D_F32}.  When
+ * concurrent, clusters are divided between threads with each thread using its own hull algorithm and work space.
+ *
+ * @author Peter Abeles
+ */
+public class QuickHull3DBatch_F32 {
+
+	// hull algorithms which are not in use
+	final List<QuickHull3D_F32> available = new ArrayList<QuickHull3D_F32>();
+
+	// if true the clusters are processed concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Computes the convex hull of each cluster.
+	 *
+	 * @param clusters (Input) Sets of points.  Not modified.
+	 * @param faces (Output) Indexed face list for each cluster, see {@link QuickHull3D_F32#getFaces(GrowQueue_I32)}.
+	 *              Degenerate clusters have no faces.  Resized to match the number of clusters.
+	 */
+	public void process( final List<PackedPoint3D_F32> clusters , final FastQueue<GrowQueue_I32> faces ) {
+		final int N = clusters.size();
+		faces.resize(N);
+
+		long totalPoints = 0;
+		for (int i = 0; i < N; i++) {
+			totalPoints += clusters.get(i).size;
+		}
+		int cost = N == 0 ? 1 : (int)Math.max(1, totalPoints/N);
+
+		GrlConcurrency.IntRangeTask task = new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				QuickHull3D_F32 alg = acquire();
+				try {
+					for (int i = idx0; i < idx1; i++) {
+						if( alg.process(clusters.get(i)) )
+							alg.getFaces(faces.get(i));
+						else
+							faces.get(i).reset();
+					}
+				} finally {
+					release(alg);
+				}
+			}
+		};
+
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, N, 1, cost, task);
+		} else if( N > 0 ) {
+			task.process(0, N);
+		}
+	}
+
+	private QuickHull3D_F32 acquire() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new QuickHull3D_F32();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void release( QuickHull3D_F32 alg ) {
+		synchronized( available ) {
+			available.add(alg);
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the clusters should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
@@ -0,0 +1,629 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.math.BigDecimal;
+
+/**
+ * <p>
+ * Computes the convex hull of a set of 3D points using the Quickhull algorithm [1].  The hull is a closed
+ * triangle mesh.  Each face's vertexes are in counter-clockwise order when viewed from outside the hull, i.e.
+ * the right-hand normal points outwards.  Faces reference points by their index in the input.
+ * </p>
+ *
+ * <p>
+ * The hull starts as a tetrahedron made from extreme points.  Every other point is assigned to a face it's outside
+ * of.  Then, until no face has points outside of it, the point farthest from a face is selected, the faces it can
+ * see are removed and replaced with a cone of faces connecting it to the horizon.  Points belonging to the removed
+ * faces are reassigned to the new faces or discarded if inside.  Expected time is O(n log n).
+ * </p>
+ *
+ * <p>
+ * Deciding if a point is above a face is done with an orientation test that always returns the correct sign.  The
+ * determinant is first computed in floating point and only when its magnitude is smaller than a bound on the
+ * rounding error [2] is it recomputed with exact arithmetic.  As a result the hull is exactly convex, with every
+ * point on or below the plane of every face, and it's never necessary to merge faces or discard points because
+ * of numerical error.  Flat regions of the hull are split into multiple triangles and points which lie on the
+ * hull's surface can be included as vertexes if they were outside of the hull when it was partially complete.
+ * All the work is done inside internal buffers which are recycled between calls.
+ * </p>
+ *
+ * <p>
+ * [1] Barber, C. Bradford, David P. Dobkin, and Hannu Huhdanpaa. "The quickhull algorithm for convex hulls."
+ * ACM Transactions on Mathematical Software 22.4 (1996): 469-483.<br>
+ * [2] Shewchuk, Jonathan Richard. "Adaptive precision floating-point arithmetic and fast robust geometric
+ * predicates." Discrete and Computational Geometry 18.3 (1997): 305-363.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class QuickHull3D_F32 {
+
+	// bound on the relative error of the floating point orientation test.  See orient3d errboundA in [2]
+	private static final float ORIENT_ERROR = (7 + 56*Math.ulp(1.0f)*0.5f)*Math.ulp(1.0f)*0.5f;
+
+	// input points.  Interleaved x,y,z
+	float points[];
+	int offset;
+	int numPoints;
+
+	// inputs which are flatter than this are considered degenerate
+	float tolerance;
+
+	//---------- Faces.  Deleted faces are recycled
+	int numFaces;
+	// index of each face's three vertexes
+	int faceVertex[] = new int[0];
+	// the face on the other side of each edge.  Edge i goes from vertex i to vertex (i+1)%3
+	int faceAdjacent[] = new int[0];
+	// normal of each face's plane, not normalized.  The cross product (v1-v0)x(v2-v0).  3 per face
+	float faceNormal[] = new float[0];
+	// sum of the magnitude of the products used to compute each normal component.  Bounds the error.  3 per face
+	float faceNormalError[] = new float[0];
+	// one over the length of the normal
+	float faceScale[] = new float[0];
+	boolean faceAlive[] = new boolean[0];
+	// used to mark faces which have been visited
+	int faceMark[] = new int[0];
+	// first point in the list of points outside of each face
+	int faceOutside[] = new int[0];
+	// point farthest from each face and its distance
+	int faceFar[] = new int[0];
+	float faceFarDistance[] = new float[0];
+	GrowQueue_I32 freeFaces = new GrowQueue_I32();
+	int mark;
+
+	// next point in the list of outside points
+	int pointNext[] = new int[0];
+
+	//---------- Work space
+	// faces which might have points outside of them
+	GrowQueue_I32 pending = new GrowQueue_I32();
+	// faces which are visible from the eye point
+	GrowQueue_I32 visible = new GrowQueue_I32();
+	// points which need to be assigned to a new face
+	GrowQueue_I32 unclaimed = new GrowQueue_I32();
+	// horizon edges in counter-clockwise order.  Start vertex, end vertex, and face on the other side
+	GrowQueue_I32 horizon = new GrowQueue_I32();
+	// new faces created from the horizon
+	GrowQueue_I32 newFaces = new GrowQueue_I32();
+	// stack used to search for visible faces.  Face, first edge, and number of edges processed
+	GrowQueue_I32 stack = new GrowQueue_I32();
+
+	/**
+	 * Computes the convex hull of the points
+	 *
+	 * @param points (Input) Points.  Not modified.
+	 * @return true if successful or false if the points don't span 3D space
+	 */
+	public boolean process( PackedPoint3D_F32 points ) {
+		return process(points.data, 0, points.size);
+	}
+
+	/**
+	 * Computes the convex hull of the points
+	 *
+	 * @param points (Input) Interleaved x, y, and z coordinates.  Not modified.
+	 * @param offset Index of the first point's x-coordinate
+	 * @param count Number of points
+	 * @return true if successful or false if the points don't span 3D space
+	 */
+	public boolean process( float[] points , int offset , int count ) {
+		this.points = points;
+		this.offset = offset;
+		this.numPoints = count;
+
+		numFaces = 0;
+		freeFaces.reset();
+		pending.reset();
+
+		if( count < 4 )
+			return false;
+
+		if( pointNext.length < count )
+			pointNext = new int[count];
+
+		if( !createSimplex() ) {
+			numFaces = 0;
+			return false;
+		}
+
+		while( pending.size > 0 ) {
+			int face = pending.data[--pending.size];
+			if( !faceAlive[face] || faceOutside[face] == -1 )
+				continue;
+			addPointToHull(faceFar[face], face);
+		}
+		return true;
+	}
+
+	/**
+	 * Creates a tetrahedron from extreme points and assigns the other points to its faces
+	 */
+	private boolean createSimplex() {
+		// find the extreme points along each axis
+		int minIndex[] = new int[3];
+		int maxIndex[] = new int[3];
+		float maxAbs[] = new float[3];
+		for (int axis = 0; axis < 3; axis++) {
+			float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+			for (int i = 0; i < numPoints; i++) {
+				float v = points[offset + i*3 + axis];
+				if( v < min ) { min = v; minIndex[axis] = i; }
+				if( v > max ) { max = v; maxIndex[axis] = i; }
+			}
+			maxAbs[axis] = (float)Math.max(Math.abs(min),Math.abs(max));
+		}
+		tolerance = 3*(float)GrlConstants.F_EPS*(maxAbs[0] + maxAbs[1] + maxAbs[2]);
+
+		// the first two vertexes are the extremes along the axis with the largest spread
+		int axis = 0;
+		float best = 0;
+		for (int i = 0; i < 3; i++) {
+			float spread = points[offset + maxIndex[i]*3 + i] - points[offset + minIndex[i]*3 + i];
+			if( spread > best ) {
+				best = spread;
+				axis = i;
+			}
+		}
+		if( best <= tolerance )
+			return false;
+		int v0 = minIndex[axis];
+		int v1 = maxIndex[axis];
+
+		// the third is the farthest from the line
+		float dx = x(v1)-x(v0), dy = y(v1)-y(v0), dz = z(v1)-z(v0);
+		int v2 = -1;
+		best = 0;
+		for (int i = 0; i < numPoints; i++) {
+			float px = x(i)-x(v0), py = y(i)-y(v0), pz = z(i)-z(v0);
+			float cx = dy*pz - dz*py;
+			float cy = dz*px - dx*pz;
+			float cz = dx*py - dy*px;
+			float distance = cx*cx + cy*cy + cz*cz;
+			if( distance > best ) {
+				best = distance;
+				v2 = i;
+			}
+		}
+		if( v2 == -1 || (float)Math.sqrt(best) <= tolerance*Math.sqrt(dx*dx + dy*dy + dz*dz) )
+			return false;
+
+		// the fourth is the farthest from the plane
+		float ex = x(v2)-x(v0), ey = y(v2)-y(v0), ez = z(v2)-z(v0);
+		float nx = dy*ez - dz*ey;
+		float ny = dz*ex - dx*ez;
+		float nz = dx*ey - dy*ex;
+		float norm = (float)Math.sqrt(nx*nx + ny*ny + nz*nz);
+		nx /= norm; ny /= norm; nz /= norm;
+		int v3 = -1;
+		best = 0;
+		for (int i = 0; i < numPoints; i++) {
+			float distance = nx*(x(i)-x(v0)) + ny*(y(i)-y(v0)) + nz*(z(i)-z(v0));
+			if( (float)Math.abs(distance) > best ) {
+				best = (float)Math.abs(distance);
+				v3 = i;
+			}
+		}
+		if( v3 == -1 || best <= tolerance )
+			return false;
+
+		// orient the base so that its normal points away from the fourth vertex
+		int orientation = orientExact(v0, v1, v2, v3);
+		if( orientation == 0 )
+			return false;
+		if( orientation > 0 ) {
+			int tmp = v1; v1 = v2; v2 = tmp;
+		}
+
+		int f0 = createFace(v0, v1, v2);
+		int f1 = createFace(v0, v3, v1);
+		int f2 = createFace(v1, v3, v2);
+		int f3 = createFace(v2, v3, v0);
+
+		setAdjacent(f0, f1, f2, f3);
+		setAdjacent(f1, f3, f2, f0);
+		setAdjacent(f2, f1, f3, f0);
+		setAdjacent(f3, f2, f1, f0);
+
+		// assign the remaining points to the face they are farthest outside of
+		for (int i = 0; i < numPoints; i++) {
+			if( i == v0 || i == v1 || i == v2 || i == v3 )
+				continue;
+			int bestFace = -1;
+			float bestDistance = 0;
+			for (int f = f0; f <= f3; f++) {
+				float distance = distance(f, i);
+				if( distance > bestDistance ) {
+					bestDistance = distance;
+					bestFace = f;
+				}
+			}
+			if( bestFace != -1 )
+				addOutside(bestFace, i, bestDistance);
+		}
+
+		for (int f = f0; f <= f3; f++) {
+			if( faceOutside[f] != -1 )
+				pending.add(f);
+		}
+		return true;
+	}
+
+	private void setAdjacent( int face , int a , int b , int c ) {
+		faceAdjacent[face*3] = a;
+		faceAdjacent[face*3+1] = b;
+		faceAdjacent[face*3+2] = c;
+	}
+
+	/**
+	 * Adds the eye point to the hull.  The faces it can see are found, replaced by new faces which connect it to
+	 * the horizon, and then the points outside of the old faces are reassigned.
+	 */
+	private void addPointToHull( int eye , int startFace ) {
+		findVisible(eye, startFace);
+
+		// create the new faces now that the information in the visible faces is no longer needed
+		for (int i = 0; i < visible.size; i++) {
+			int f = visible.data[i];
+			faceAlive[f] = false;
+			freeFaces.add(f);
+		}
+
+		newFaces.reset();
+		int numHorizon = horizon.size/3;
+		for (int i = 0; i < numHorizon; i++) {
+			int a = horizon.data[i*3];
+			int b = horizon.data[i*3+1];
+			int neighbor = horizon.data[i*3+2];
+			int face = createFace(a, b, eye);
+			newFaces.add(face);
+
+			// the neighbor's edge b->a is now next to the new face
+			faceAdjacent[face*3] = neighbor;
+			for (int e = 0; e < 3; e++) {
+				if( faceVertex[neighbor*3+e] == b ) {
+					faceAdjacent[neighbor*3+e] = face;
+					break;
+				}
+			}
+		}
+		for (int i = 0; i < numHorizon; i++) {
+			int face = newFaces.data[i];
+			int next = newFaces.data[(i+1)%numHorizon];
+			faceAdjacent[face*3+1] = next;
+			faceAdjacent[next*3+2] = face;
+		}
+
+		// assign points to the new faces
+		for (int i = 0; i < unclaimed.size; i++) {
+			int p = unclaimed.data[i];
+			if( p == eye )
+				continue;
+			int bestFace = -1;
+			float bestDistance = 0;
+			for (int j = 0; j < newFaces.size; j++) {
+				int f = newFaces.data[j];
+				float distance = distance(f, p);
+				if( distance > bestDistance ) {
+					bestDistance = distance;
+					bestFace = f;
+				}
+			}
+			if( bestFace != -1 )
+				addOutside(bestFace, p, bestDistance);
+		}
+
+		for (int i = 0; i < newFaces.size; i++) {
+			int f = newFaces.data[i];
+			if( faceOutside[f] != -1 )
+				pending.add(f);
+		}
+	}
+
+	/**
+	 * Depth first search for faces which are visible from the eye.  The horizon is the boundary between visible
+	 * and not visible faces.  Edges are visited in order so that the horizon is found in counter-clockwise order.
+	 */
+	private void findVisible( int eye , int startFace ) {
+		visible.reset();
+		horizon.reset();
+		unclaimed.reset();
+		stack.reset();
+		mark++;
+
+		pushVisible(startFace, 0);
+
+		while( stack.size > 0 ) {
+			int top = stack.size-3;
+			int face = stack.data[top];
+			int count = stack.data[top+2];
+			if( count == 3 ) {
+				stack.size -= 3;
+				continue;
+			}
+			stack.data[top+2]++;
+			int edge = (stack.data[top+1] + count)%3;
+
+			int neighbor = faceAdjacent[face*3+edge];
+			if( faceMark[neighbor] == mark )
+				continue;
+
+			if( distance(neighbor, eye) > 0 ) {
+				// continue the search starting with the edge after the one which was crossed
+				int crossed = 0;
+				while( faceAdjacent[neighbor*3+crossed] != face )
+					crossed++;
+				pushVisible(neighbor, (crossed+1)%3);
+			} else {
+				horizon.add(faceVertex[face*3+edge]);
+				horizon.add(faceVertex[face*3+(edge+1)%3]);
+				horizon.add(neighbor);
+			}
+		}
+	}
+
+	private void pushVisible( int face , int firstEdge ) {
+		faceMark[face] = mark;
+		visible.add(face);
+		stack.add(face);
+		stack.add(firstEdge);
+		stack.add(0);
+
+		// the points outside this face will need to be reassigned
+		int p = faceOutside[face];
+		while( p != -1 ) {
+			unclaimed.add(p);
+			p = pointNext[p];
+		}
+		faceOutside[face] = -1;
+	}
+
+	private void addOutside( int face , int point , float distance ) {
+		pointNext[point] = faceOutside[face];
+		faceOutside[face] = point;
+		if( distance > faceFarDistance[face] ) {
+			faceFarDistance[face] = distance;
+			faceFar[face] = point;
+		}
+	}
+
+	/**
+	 * Creates a new face and computes its plane.  Adjacency is not set.
+	 */
+	private int createFace( int a , int b , int c ) {
+		int face;
+		if( freeFaces.size > 0 ) {
+			face = freeFaces.data[--freeFaces.size];
+		} else {
+			if( numFaces == faceAlive.length )
+				growFaces(Math.max(16,numFaces*2));
+			face = numFaces++;
+		}
+		faceVertex[face*3] = a;
+		faceVertex[face*3+1] = b;
+		faceVertex[face*3+2] = c;
+		faceAlive[face] = true;
+		faceMark[face] = 0;
+		faceOutside[face] = -1;
+		faceFar[face] = -1;
+		faceFarDistance[face] = 0;
+
+		float ux = x(b)-x(a), uy = y(b)-y(a), uz = z(b)-z(a);
+		float vx = x(c)-x(a), vy = y(c)-y(a), vz = z(c)-z(a);
+		float nx = uy*vz - uz*vy;
+		float ny = uz*vx - ux*vz;
+		float nz = ux*vy - uy*vx;
+		faceNormal[face*3] = nx;
+		faceNormal[face*3+1] = ny;
+		faceNormal[face*3+2] = nz;
+		faceNormalError[face*3] = (float)Math.abs(uy*vz) + (float)Math.abs(uz*vy);
+		faceNormalError[face*3+1] = (float)Math.abs(uz*vx) + (float)Math.abs(ux*vz);
+		faceNormalError[face*3+2] = (float)Math.abs(ux*vy) + (float)Math.abs(uy*vx);
+		float norm = (float)Math.sqrt(nx*nx + ny*ny + nz*nz);
+		faceScale[face] = norm > 0 ? 1.0f/norm : 0;
+
+		return face;
+	}
+
+	/**
+	 * Signed distance of a point from a face's plane.  Positive is outside.  The sign is always correct.  If the
+	 * point is so close to the plane that exact arithmetic was needed then the magnitude is the smallest possible
+	 * value.
+	 */
+	private float distance( int face , int point ) {
+		int idx = offset + point*3;
+		int a = offset + faceVertex[face*3]*3;
+		float wx = points[idx]-points[a];
+		float wy = points[idx+1]-points[a+1];
+		float wz = points[idx+2]-points[a+2];
+
+		float det = faceNormal[face*3]*wx + faceNormal[face*3+1]*wy + faceNormal[face*3+2]*wz;
+		float permanent = faceNormalError[face*3]*Math.abs(wx) + faceNormalError[face*3+1]*Math.abs(wy) +
+				faceNormalError[face*3+2]*Math.abs(wz);
+
+		if( (float)Math.abs(det) > ORIENT_ERROR*permanent )
+			return det*faceScale[face];
+
+		int sign = orientExact(faceVertex[face*3], faceVertex[face*3+1], faceVertex[face*3+2], point);
+		return sign*Float.MIN_VALUE;
+	}
+
+	/**
+	 * Sign of the determinant [b-a, c-a, p-a] computed using exact arithmetic.  Positive if p is above the plane
+	 * of triangle (a,b,c) using the right-hand rule.
+	 */
+	private int orientExact( int a , int b , int c , int p ) {
+		BigDecimal ax = new BigDecimal(x(a)), ay = new BigDecimal(y(a)), az = new BigDecimal(z(a));
+		BigDecimal ux = new BigDecimal(x(b)).subtract(ax);
+		BigDecimal uy = new BigDecimal(y(b)).subtract(ay);
+		BigDecimal uz = new BigDecimal(z(b)).subtract(az);
+		BigDecimal vx = new BigDecimal(x(c)).subtract(ax);
+		BigDecimal vy = new BigDecimal(y(c)).subtract(ay);
+		BigDecimal vz = new BigDecimal(z(c)).subtract(az);
+		BigDecimal wx = new BigDecimal(x(p)).subtract(ax);
+		BigDecimal wy = new BigDecimal(y(p)).subtract(ay);
+		BigDecimal wz = new BigDecimal(z(p)).subtract(az);
+
+		BigDecimal nx = uy.multiply(vz).subtract(uz.multiply(vy));
+		BigDecimal ny = uz.multiply(vx).subtract(ux.multiply(vz));
+		BigDecimal nz = ux.multiply(vy).subtract(uy.multiply(vx));
+
+		return nx.multiply(wx).add(ny.multiply(wy)).add(nz.multiply(wz)).signum();
+	}
+
+	private float x( int point ) { return points[offset + point*3]; }
+	private float y( int point ) { return points[offset + point*3 + 1]; }
+	private float z( int point ) { return points[offset + point*3 + 2]; }
+
+	private void growFaces( int length ) {
+		int faceVertex[] = new int[length*3];
+		int faceAdjacent[] = new int[length*3];
+		float faceNormal[] = new float[length*3];
+		float faceNormalError[] = new float[length*3];
+		float faceScale[] = new float[length];
+		boolean faceAlive[] = new boolean[length];
+		int faceMark[] = new int[length];
+		int faceOutside[] = new int[length];
+		int faceFar[] = new int[length];
+		float faceFarDistance[] = new float[length];
+
+		System.arraycopy(this.faceVertex, 0, faceVertex, 0, numFaces*3);
+		System.arraycopy(this.faceAdjacent, 0, faceAdjacent, 0, numFaces*3);
+		System.arraycopy(this.faceNormal, 0, faceNormal, 0, numFaces*3);
+		System.arraycopy(this.faceNormalError, 0, faceNormalError, 0, numFaces*3);
+		System.arraycopy(this.faceScale, 0, faceScale, 0, numFaces);
+		System.arraycopy(this.faceAlive, 0, faceAlive, 0, numFaces);
+		System.arraycopy(this.faceMark, 0, faceMark, 0, numFaces);
+		System.arraycopy(this.faceOutside, 0, faceOutside, 0, numFaces);
+		System.arraycopy(this.faceFar, 0, faceFar, 0, numFaces);
+		System.arraycopy(this.faceFarDistance, 0, faceFarDistance, 0, numFaces);
+
+		this.faceVertex = faceVertex;
+		this.faceAdjacent = faceAdjacent;
+		this.faceNormal = faceNormal;
+		this.faceNormalError = faceNormalError;
+		this.faceScale = faceScale;
+		this.faceAlive = faceAlive;
+		this.faceMark = faceMark;
+		this.faceOutside = faceOutside;
+		this.faceFar = faceFar;
+		this.faceFarDistance = faceFarDistance;
+	}
+
+	/**
+	 * Returns the faces in the hull as an indexed face list
+	 *
+	 * @param faces (Output) Index of each face's three vertexes in the input.  Reset and then filled.
+	 */
+	public void getFaces( GrowQueue_I32 faces ) {
+		faces.reset();
+		for (int f = 0; f < numFaces; f++) {
+			if( !faceAlive[f] )
+				continue;
+			faces.add(faceVertex[f*3]);
+			faces.add(faceVertex[f*3+1]);
+			faces.add(faceVertex[f*3+2]);
+		}
+	}
+
+	/**
+	 * Returns the faces in the hull as triangles
+	 *
+	 * @param triangles (Output) Storage for the triangles.  Reset and then filled.
+	 */
+	public void getFaces( FastQueue<Triangle3D_F32> triangles ) {
+		triangles.reset();
+		for (int f = 0; f < numFaces; f++) {
+			if( !faceAlive[f] )
+				continue;
+			int a = faceVertex[f*3], b = faceVertex[f*3+1], c = faceVertex[f*3+2];
+			triangles.grow().set(x(a),y(a),z(a), x(b),y(b),z(b), x(c),y(c),z(c));
+		}
+	}
+
+	/**
+	 * Returns the index of every point which is a vertex in the hull
+	 *
+	 * @param vertexes (Output) Indexes of the hull's vertexes in increasing order.  Reset and then filled.
+	 */
+	public void getVertexes( GrowQueue_I32 vertexes ) {
+		vertexes.reset();
+		// reuse pointNext to mark which points have been seen
+		for (int f = 0; f < numFaces; f++) {
+			if( !faceAlive[f] )
+				continue;
+			for (int i = 0; i < 3; i++) {
+				pointNext[faceVertex[f*3+i]] = -2;
+			}
+		}
+		for (int i = 0; i < numPoints && numFaces > 0; i++) {
+			if( pointNext[i] == -2 ) {
+				vertexes.add(i);
+				pointNext[i] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Number of faces in the hull
+	 */
+	public int getFaceCount() {
+		int total = 0;
+		for (int f = 0; f < numFaces; f++) {
+			if( faceAlive[f] )
+				total++;
+		}
+		return total;
+	}
+
+	/**
+	 * Computes the volume inside the hull
+	 */
+	public float computeVolume() {
+		// sum of the signed volume of the tetrahedrons formed by each face and the first point
+		float ox = x(0), oy = y(0), oz = z(0);
+		float total = 0;
+		for (int f = 0; f < numFaces; f++) {
+			if( !faceAlive[f] )
+				continue;
+			int a = faceVertex[f*3], b = faceVertex[f*3+1], c = faceVertex[f*3+2];
+			float ax = x(a)-ox, ay = y(a)-oy, az = z(a)-oz;
+			float bx = x(b)-ox, by = y(b)-oy, bz = z(b)-oz;
+			float cx = x(c)-ox, cy = y(c)-oy, cz = z(c)-oz;
+			total += ax*(by*cz - bz*cy) + ay*(bz*cx - bx*cz) + az*(bx*cy - by*cx);
+		}
+		return total/6.0f;
+	}
+
+	/**
+	 * Inputs which are flatter than this along any direction are degenerate.  Computed from the magnitude of
+	 * the input's coordinates.
+	 */
+	public float getTolerance() {
+		return tolerance;
+	}
+}
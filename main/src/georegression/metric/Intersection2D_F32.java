@@ -105,7 +105,7 @@ public class Intersection2D_F32 {
 
 		if( (pt.y >= a.y && pt.y < b.y) || (pt.y >= b.y && pt.y < a.y) ) {
 			// location of line segment along x-axis at y = pt.y
-			float x = b.y==a.y ? pt.x : (pt.y-pt.y)*(b.x-a.x)/(b.y-a.y) + a.x;
+			float x = b.y==a.y ? pt.x : (pt.y-a.y)*(b.x-a.x)/(b.y-a.y) + a.x;
 
 			if( x <= pt.x )
 				left++;
@@ -29,6 +29,8 @@ import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 import georegression.struct.shapes.BoxLength3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
 import georegression.struct.shapes.Triangle3D_F32;
 
 /**
@@ -314,6 +316,149 @@ public class Intersection3D_F32 {
 				intersect(boxA.p0.z , boxB.p0.z , boxA.p1.z , boxB.p1.z ) );
 	}
 
+	/**
+	 * <p>
+	 * Finds where a line enters and exits an axis aligned box using the slab method.  Points on the line are
+	 * line.p + t*line.slope and the box's sides are included.  For a ray, which starts at line.p, there is an
+	 * intersection only if t[1] &ge; 0.
+	 * </p>
+	 *
+	 * <p>
+	 * Components of the slope which are zero are handled, the line is then parallel to a pair of sides and
+	 * doesn't constrain t along that axis if it's between them.
+	 * </p>
+	 *
+	 * @param box (Input) Box
+	 * @param line (Input) Line
+	 * @param t (Output) Values of t where the line enters, t[0], and exits, t[1], the box.  Only modified if there
+	 *          is an intersection.  Can be null.
+	 * @return true if the line intersects the box
+	 */
+	public static boolean intersect( Box3D_F32 box , LineParametric3D_F32 line , float t[] ) {
+		float t0 = Float.NEGATIVE_INFINITY, t1 = Float.POSITIVE_INFINITY;
+
+		// The side which is reached first depends on the sign of the slope.  Comparisons are written so that NaN,
+		// caused by the line being inside a side, is ignored
+		float inv = 1.0f/line.slope.x;
+		float tn = ((inv >= 0 ? box.p0.x : box.p1.x) - line.p.x)*inv;
+		float tf = ((inv >= 0 ? box.p1.x : box.p0.x) - line.p.x)*inv;
+		if( tn > t0 ) t0 = tn;
+		if( tf < t1 ) t1 = tf;
+
+		inv = 1.0f/line.slope.y;
+		tn = ((inv >= 0 ? box.p0.y : box.p1.y) - line.p.y)*inv;
+		tf = ((inv >= 0 ? box.p1.y : box.p0.y) - line.p.y)*inv;
+		if( tn > t0 ) t0 = tn;
+		if( tf < t1 ) t1 = tf;
+
+		inv = 1.0f/line.slope.z;
+		tn = ((inv >= 0 ? box.p0.z : box.p1.z) - line.p.z)*inv;
+		tf = ((inv >= 0 ? box.p1.z : box.p0.z) - line.p.z)*inv;
+		if( tn > t0 ) t0 = tn;
+		if( tf < t1 ) t1 = tf;
+
+		if( !(t0 <= t1) )
+			return false;
+		if( t != null ) {
+			t[0] = t0;
+			t[1] = t1;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds where a line enters and exits a sphere.  Points on the line are line.p + t*line.slope.  For a ray, which
+	 * starts at line.p, there is an intersection only if t[1] &ge; 0.  The quadratic is solved in a form which
+	 * avoids catastrophic cancellation when the line is far from the sphere's center or nearly tangent.
+	 *
+	 * @param sphere (Input) Sphere
+	 * @param line (Input) Line.  A line with a slope of zero never intersects.
+	 * @param t (Output) Values of t where the line enters, t[0], and exits, t[1], the sphere.  Only modified if
+	 *          there is an intersection.  Can be null.
+	 * @return true if the line intersects the sphere
+	 */
+	public static boolean intersect( Sphere3D_F32 sphere , LineParametric3D_F32 line , float t[] ) {
+		float lx = line.p.x - sphere.center.x;
+		float ly = line.p.y - sphere.center.y;
+		float lz = line.p.z - sphere.center.z;
+
+		return intersectQuadratic(lx, ly, lz, line.slope.x, line.slope.y, line.slope.z, sphere.radius, t);
+	}
+
+	/**
+	 * Finds where a line enters and exits a cylinder of infinite length.  Points on the line are
+	 * line.p + t*line.slope.  For a ray, which starts at line.p, there is an intersection only if t[1] &ge; 0.  If
+	 * the line is parallel to the cylinder and inside of it then t[0] = -infinity and t[1] = infinity.
+	 *
+	 * @param cylinder (Input) Cylinder.  The slope of its axis must not be zero.
+	 * @param line (Input) Line.  A line with a slope of zero never intersects.
+	 * @param t (Output) Values of t where the line enters, t[0], and exits, t[1], the cylinder.  Only modified if
+	 *          there is an intersection.  Can be null.
+	 * @return true if the line intersects the cylinder
+	 */
+	public static boolean intersect( Cylinder3D_F32 cylinder , LineParametric3D_F32 line , float t[] ) {
+		Vector3D_F32 v = cylinder.line.slope;
+		float vv = v.x*v.x + v.y*v.y + v.z*v.z;
+
+		float lx = line.p.x - cylinder.line.p.x;
+		float ly = line.p.y - cylinder.line.p.y;
+		float lz = line.p.z - cylinder.line.p.z;
+		float dx = line.slope.x, dy = line.slope.y, dz = line.slope.z;
+
+		// remove the components along the cylinder's axis, leaving a 2D problem which is the same as for a circle
+		float s = (lx*v.x + ly*v.y + lz*v.z)/vv;
+		lx -= s*v.x; ly -= s*v.y; lz -= s*v.z;
+		s = (dx*v.x + dy*v.y + dz*v.z)/vv;
+		dx -= s*v.x; dy -= s*v.y; dz -= s*v.z;
+
+		if( dx == 0 && dy == 0 && dz == 0 ) {
+			// parallel to the axis
+			if( line.slope.x == 0 && line.slope.y == 0 && line.slope.z == 0 )
+				return false;
+			if( lx*lx + ly*ly + lz*lz > cylinder.radius*cylinder.radius )
+				return false;
+			if( t != null ) {
+				t[0] = Float.NEGATIVE_INFINITY;
+				t[1] = Float.POSITIVE_INFINITY;
+			}
+			return true;
+		}
+
+		return intersectQuadratic(lx, ly, lz, dx, dy, dz, cylinder.radius, t);
+	}
+
+	/**
+	 * Solves for t in |l + t*d| = r.
+	 */
+	private static boolean intersectQuadratic( float lx , float ly , float lz ,
+											   float dx , float dy , float dz ,
+											   float r , float t[] ) {
+		float a = dx*dx + dy*dy + dz*dz;
+		if( a == 0 )
+			return false;
+		float b = lx*dx + ly*dy + lz*dz;
+
+		// the discriminant is found from the closest point on the line, which is more accurate than b*b - a*c
+		float k = b/a;
+		float qx = lx - k*dx, qy = ly - k*dy, qz = lz - k*dz;
+		float disc = r*r - (qx*qx + qy*qy + qz*qz);
+		if( disc < 0 )
+			return false;
+
+		if( t != null ) {
+			float q = -(b + (float)Math.copySign(Math.sqrt(a*disc), b));
+			float c = lx*lx + ly*ly + lz*lz - r*r;
+			float t0 = q/a;
+			float t1 = q != 0 ? c/q : t0;
+			if( t0 <= t1 ) {
+				t[0] = t0; t[1] = t1;
+			} else {
+				t[0] = t1; t[1] = t0;
+			}
+		}
+		return true;
+	}
+
 	protected static boolean intersect( float a0 , float b0 , float a1, float b1 ) {
 		if( a0 <= b0 ) {
 			return b0 < a1;
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the closest point on a fixed triangle mesh and the signed distance to it for a large number of points.
+ * Edges, normals, and pseudo normals of each triangle are computed once when the mesh is specified and stored
+ * in a {@link TriangleMeshBvh3D_F64}, which is then shared by all the queries.  Points are processed in blocks
+ * and inside a block the triangle found for the previous point is examined first, which lets most of the tree be
+ * skipped when neighboring points are close to each other, as is typical for scans.  Blocks can be processed
+ * concurrently, see {@link #setConcurrent(boolean)}.
+ * </p>
+ *
+ * <p>
+ * Results are written into arrays provided by the caller, where element i corresponds to point i.  Any of the
+ * output arrays can be null if that result isn't needed.  No memory is allocated once the workers have been
+ * created.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DistancePointMeshBatch3D_F64 {
+	/**
+	 * Number of points in each block.  The hint is reset at the start of every block so that results don't depend
+	 * on how blocks are divided between threads.
+	 */
+	public static final int BLOCK_SIZE = 1024;
+
+	// the mesh
+	TriangleMeshBvh3D_F64 mesh;
+
+	// queries which are not in use
+	final List<TriangleMeshBvhQuery3D_F64> available = new ArrayList<TriangleMeshBvhQuery3D_F64>();
+
+	// if true blocks are processed concurrently
+	boolean concurrent = false;
+
+	public DistancePointMeshBatch3D_F64( TriangleMeshBvh3D_F64 mesh ) {
+		setMesh(mesh);
+	}
+
+	public DistancePointMeshBatch3D_F64() {
+		this(new TriangleMeshBvh3D_F64());
+	}
+
+	/**
+	 * Specifies the mesh as an indexed triangle list.
+	 *
+	 * @see TriangleMeshBvh3D_F64#build(PackedPoint3D_F64, GrowQueue_I32)
+	 */
+	public void setMesh( PackedPoint3D_F64 vertexes , GrowQueue_I32 indexes ) {
+		mesh.setConcurrent(concurrent);
+		mesh.build(vertexes, indexes);
+	}
+
+	/**
+	 * Specifies the mesh as a list of triangles.  See {@link TriangleMeshBvh3D_F64#build(List)}.
+	 */
+	public void setMesh( List<Triangle3D_F64> triangles ) {
+		mesh.setConcurrent(concurrent);
+		mesh.build(triangles);
+	}
+
+	/**
+	 * Specifies a mesh which has already been built.  It's referenced and not copied.
+	 */
+	public void setMesh( TriangleMeshBvh3D_F64 mesh ) {
+		this.mesh = mesh;
+		synchronized( available ) {
+			for (int i = 0; i < available.size(); i++) {
+				available.get(i).setBvh(mesh);
+			}
+		}
+	}
+
+	public TriangleMeshBvh3D_F64 getMesh() {
+		return mesh;
+	}
+
+	/**
+	 * Finds the closest point on the mesh to each point
+	 *
+	 * @param points (Input) Points.  Not modified.
+	 * @param closest (Output) Interleaved (x,y,z) coordinates of the closest points.  Must have at least 3*N elements.
+	 */
+	public void closestPoints( PackedPoint3D_F64 points , double closest[] ) {
+		process(points.data, 0, points.size, closest, null, null);
+	}
+
+	/**
+	 * Computes the signed distance from each point to the mesh.  Positive if outside and negative if inside.
+	 * Use the absolute value for the unsigned distance.
+	 *
+	 * @param points (Input) Points.  Not modified.
+	 * @param distances (Output) Signed distance of each point.  Must have at least N elements.
+	 */
+	public void signedDistances( PackedPoint3D_F64 points , double distances[] ) {
+		process(points.data, 0, points.size, null, distances, null);
+	}
+
+	/**
+	 * Finds the closest point on the mesh to each point and the signed distance.  If the mesh is empty then
+	 * closest points and distances are NaN and the triangle is -1.
+	 *
+	 * @param points (Input) Array of interleaved (x,y,z) coordinates.  Not modified.
+	 * @param offset (Input) Index of the first element in the array
+	 * @param count (Input) Number of points
+	 * @param closest (Output) Interleaved (x,y,z) coordinates of the closest points. Must have at least 3*count
+	 *                elements.  Can be null.
+	 * @param distances (Output) Signed distance of each point.  Must have at least count elements.  Can be null.
+	 * @param triangles (Output) Index of the triangle the closest point is on.  Must have at least count elements.
+	 *                  Can be null.
+	 */
+	public void process( final double points[] , final int offset , final int count ,
+						 final double closest[] , final double distances[] , final int triangles[] ) {
+		if( offset < 0 || count < 0 || offset + 3*count > points.length )
+			throw new IllegalArgumentException("Points are out of bounds");
+		if( closest != null && closest.length < 3*count )
+			throw new IllegalArgumentException("closest is too small");
+		if( distances != null && distances.length < count )
+			throw new IllegalArgumentException("distances is too small");
+		if( triangles != null && triangles.length < count )
+			throw new IllegalArgumentException("triangles is too small");
+
+		GrlConcurrency.IntRangeTask task = new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				TriangleMeshBvhQuery3D_F64 query = acquire();
+				try {
+					int hint = -1;
+					for (int i = idx0; i < idx1; i++) {
+						int p = offset + i*3;
+						int triangle = query.closestPoint(points[p], points[p+1], points[p+2], hint);
+						hint = query.found;
+
+						if( closest != null ) {
+							if( triangle == -1 ) {
+								closest[i*3] = closest[i*3+1] = closest[i*3+2] = Double.NaN;
+							} else {
+								closest[i*3] = query.closestX;
+								closest[i*3+1] = query.closestY;
+								closest[i*3+2] = query.closestZ;
+							}
+						}
+						if( distances != null )
+							distances[i] = triangle == -1 ? Double.NaN : query.getSignedDistance();
+						if( triangles != null )
+							triangles[i] = triangle;
+					}
+				} finally {
+					release(query);
+				}
+			}
+		};
+
+		// cost of a query grows with the log of the number of triangles
+		int cost = 1 + 32 - Integer.numberOfLeadingZeros(mesh.getTriangleCount());
+
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, count, BLOCK_SIZE, cost, task);
+		} else {
+			for (int idx0 = 0; idx0 < count; idx0 += BLOCK_SIZE) {
+				task.process(idx0, idx0+BLOCK_SIZE < count ? idx0+BLOCK_SIZE : count);
+			}
+		}
+	}
+
+	private TriangleMeshBvhQuery3D_F64 acquire() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new TriangleMeshBvhQuery3D_F64(mesh);
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void release( TriangleMeshBvhQuery3D_F64 query ) {
+		synchronized( available ) {
+			available.add(query);
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if points should be processed concurrently.  This also applies to building the mesh.
+	 * The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
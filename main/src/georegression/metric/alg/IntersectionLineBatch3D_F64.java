@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.line.LineParametric3D_F64;
+
+/**
+ * <p>
+ * Intersects lines with boxes, spheres, and cylinders stored in packed arrays.  Either a single line is tested
+ * against every primitive or the i-th line is tested against the i-th primitive.  Boxes are intersected using
+ * a slab test without data dependent branches, so that the JIT can turn it into conditional moves.  For spheres
+ * and cylinders the only branch skips computing the roots when the line misses, which is the common case when
+ * culling.  Blocks can be processed concurrently, see {@link #setConcurrent(boolean)}.
+ * </p>
+ *
+ * <p>
+ * Packed formats, with each element being a double:<br>
+ * line = (x, y, z, slopeX, slopeY, slopeZ)<br>
+ * box = (x0, y0, z0, x1, y1, z1) with x0 &le; x1, y0 &le; y1, z0 &le; z1<br>
+ * sphere = (x, y, z, radius)<br>
+ * cylinder = (x, y, z, slopeX, slopeY, slopeZ, radius)<br>
+ * </p>
+ *
+ * <p>
+ * For each test the values of t where the line enters and exits the primitive are written to the output arrays.
+ * Points on the line are p + t*slope.  If there is no intersection both values are NaN.  For a ray, which starts
+ * at p, there is an intersection only if the exit is &ge; 0.  Definitions of an intersection are the same as in
+ * {@link georegression.metric.Intersection3D_F64}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IntersectionLineBatch3D_F64 {
+	/**
+	 * Number of tests in each block
+	 */
+	public static final int BLOCK_SIZE = 4096;
+
+	// if true blocks are processed concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Intersects a single line with every box
+	 *
+	 * @param line (Input) The line
+	 * @param boxes (Input) Packed boxes
+	 * @param offset (Input) Index of the first element in boxes
+	 * @param count (Input) Number of boxes
+	 * @param entry (Output) Where the line enters each box.  Must have at least count elements.
+	 * @param exit (Output) Where the line exits each box.  Must have at least count elements.  Can be null.
+	 */
+	public void boxes( LineParametric3D_F64 line , final double boxes[] , final int offset , int count ,
+					   final double entry[] , final double exit[] ) {
+		checkArguments(boxes, offset, count, 6, entry, exit);
+
+		final double ox = line.p.x, oy = line.p.y, oz = line.p.z;
+		final double ix = 1.0/line.slope.x, iy = 1.0/line.slope.y, iz = 1.0/line.slope.z;
+
+		// which side of the box is reached first along each axis is the same for every box
+		final int nearX = ix >= 0 ? 0 : 3, nearY = iy >= 0 ? 1 : 4, nearZ = iz >= 0 ? 2 : 5;
+		final int farX = 3-nearX, farY = 5-nearY, farZ = 7-nearZ;
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int o = offset + i*6;
+					double t0 = Double.NEGATIVE_INFINITY, t1 = Double.POSITIVE_INFINITY;
+
+					// comparisons are written so that NaN, caused by the line being inside a side, is ignored
+					double tn = (boxes[o+nearX]-ox)*ix, tf = (boxes[o+farX]-ox)*ix;
+					t0 = tn > t0 ? tn : t0;
+					t1 = tf < t1 ? tf : t1;
+					tn = (boxes[o+nearY]-oy)*iy; tf = (boxes[o+farY]-oy)*iy;
+					t0 = tn > t0 ? tn : t0;
+					t1 = tf < t1 ? tf : t1;
+					tn = (boxes[o+nearZ]-oz)*iz; tf = (boxes[o+farZ]-oz)*iz;
+					t0 = tn > t0 ? tn : t0;
+					t1 = tf < t1 ? tf : t1;
+
+					boolean hit = t0 <= t1;
+					entry[i] = hit ? t0 : Double.NaN;
+					if( exit != null )
+						exit[i] = hit ? t1 : Double.NaN;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Intersects the i-th line with the i-th box
+	 *
+	 * @param lines (Input) Packed lines
+	 * @param lineOffset (Input) Index of the first element in lines
+	 * @param boxes (Input) Packed boxes
+	 * @param boxOffset (Input) Index of the first element in boxes
+	 * @param count (Input) Number of lines and boxes
+	 * @param entry (Output) Where each line enters its box.  Must have at least count elements.
+	 * @param exit (Output) Where each line exits its box.  Must have at least count elements.  Can be null.
+	 */
+	public void boxes( final double lines[] , final int lineOffset ,
+					   final double boxes[] , final int boxOffset , int count ,
+					   final double entry[] , final double exit[] ) {
+		checkArguments(lines, lineOffset, count, 6, entry, exit);
+		checkArguments(boxes, boxOffset, count, 6, entry, exit);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int l = lineOffset + i*6;
+					int o = boxOffset + i*6;
+					double t0 = Double.NEGATIVE_INFINITY, t1 = Double.POSITIVE_INFINITY;
+
+					for (int k = 0; k < 3; k++) {
+						// the side reached first depends on the sign.  Selected with a conditional move
+						double inv = 1.0/lines[l+3+k];
+						double lo = boxes[o+k], hi = boxes[o+3+k];
+						double tn = ((inv >= 0 ? lo : hi)-lines[l+k])*inv;
+						double tf = ((inv >= 0 ? hi : lo)-lines[l+k])*inv;
+						// comparisons are written so that NaN, caused by the line being inside a side, is ignored
+						t0 = tn > t0 ? tn : t0;
+						t1 = tf < t1 ? tf : t1;
+					}
+
+					boolean hit = t0 <= t1;
+					entry[i] = hit ? t0 : Double.NaN;
+					if( exit != null )
+						exit[i] = hit ? t1 : Double.NaN;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Intersects a single line with every sphere
+	 *
+	 * @param line (Input) The line
+	 * @param spheres (Input) Packed spheres
+	 * @param offset (Input) Index of the first element in spheres
+	 * @param count (Input) Number of spheres
+	 * @param entry (Output) Where the line enters each sphere.  Must have at least count elements.
+	 * @param exit (Output) Where the line exits each sphere.  Must have at least count elements.  Can be null.
+	 */
+	public void spheres( LineParametric3D_F64 line , final double spheres[] , final int offset , int count ,
+						 final double entry[] , final double exit[] ) {
+		checkArguments(spheres, offset, count, 4, entry, exit);
+
+		final double px = line.p.x, py = line.p.y, pz = line.p.z;
+		final double dx = line.slope.x, dy = line.slope.y, dz = line.slope.z;
+		final double invA = 1.0/(dx*dx + dy*dy + dz*dz);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int o = offset + i*4;
+					double lx = px - spheres[o], ly = py - spheres[o+1], lz = pz - spheres[o+2];
+					quadratic(lx, ly, lz, dx, dy, dz, invA, spheres[o+3], entry, exit, i);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Intersects the i-th line with the i-th sphere
+	 *
+	 * @param lines (Input) Packed lines
+	 * @param lineOffset (Input) Index of the first element in lines
+	 * @param spheres (Input) Packed spheres
+	 * @param sphereOffset (Input) Index of the first element in spheres
+	 * @param count (Input) Number of lines and spheres
+	 * @param entry (Output) Where each line enters its sphere.  Must have at least count elements.
+	 * @param exit (Output) Where each line exits its sphere.  Must have at least count elements.  Can be null.
+	 */
+	public void spheres( final double lines[] , final int lineOffset ,
+						 final double spheres[] , final int sphereOffset , int count ,
+						 final double entry[] , final double exit[] ) {
+		checkArguments(lines, lineOffset, count, 6, entry, exit);
+		checkArguments(spheres, sphereOffset, count, 4, entry, exit);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int l = lineOffset + i*6;
+					int o = sphereOffset + i*4;
+					double dx = lines[l+3], dy = lines[l+4], dz = lines[l+5];
+					double lx = lines[l] - spheres[o], ly = lines[l+1] - spheres[o+1], lz = lines[l+2] - spheres[o+2];
+					quadratic(lx, ly, lz, dx, dy, dz, 1.0/(dx*dx + dy*dy + dz*dz), spheres[o+3], entry, exit, i);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Intersects a single line with every cylinder.  Cylinders have an infinite length.
+	 *
+	 * @param line (Input) The line
+	 * @param cylinders (Input) Packed cylinders.  The slope of each axis must not be zero.
+	 * @param offset (Input) Index of the first element in cylinders
+	 * @param count (Input) Number of cylinders
+	 * @param entry (Output) Where the line enters each cylinder.  Must have at least count elements.
+	 * @param exit (Output) Where the line exits each cylinder.  Must have at least count elements.  Can be null.
+	 */
+	public void cylinders( final LineParametric3D_F64 line , final double cylinders[] , final int offset , int count ,
+						   final double entry[] , final double exit[] ) {
+		checkArguments(cylinders, offset, count, 7, entry, exit);
+
+		final double px = line.p.x, py = line.p.y, pz = line.p.z;
+		final double dx = line.slope.x, dy = line.slope.y, dz = line.slope.z;
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					cylinder(px, py, pz, dx, dy, dz, cylinders, offset + i*7, entry, exit, i);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Intersects the i-th line with the i-th cylinder.  Cylinders have an infinite length.
+	 *
+	 * @param lines (Input) Packed lines
+	 * @param lineOffset (Input) Index of the first element in lines
+	 * @param cylinders (Input) Packed cylinders.  The slope of each axis must not be zero.
+	 * @param cylinderOffset (Input) Index of the first element in cylinders
+	 * @param count (Input) Number of lines and cylinders
+	 * @param entry (Output) Where each line enters its cylinder.  Must have at least count elements.
+	 * @param exit (Output) Where each line exits its cylinder.  Must have at least count elements.  Can be null.
+	 */
+	public void cylinders( final double lines[] , final int lineOffset ,
+						   final double cylinders[] , final int cylinderOffset , int count ,
+						   final double entry[] , final double exit[] ) {
+		checkArguments(lines, lineOffset, count, 6, entry, exit);
+		checkArguments(cylinders, cylinderOffset, count, 7, entry, exit);
+
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					int l = lineOffset + i*6;
+					cylinder(lines[l], lines[l+1], lines[l+2], lines[l+3], lines[l+4], lines[l+5],
+							cylinders, cylinderOffset + i*7, entry, exit, i);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Intersects a line with the cylinder at index 'o' by removing the components along the axis and solving
+	 * the same problem as for a circle.
+	 */
+	static void cylinder( double px , double py , double pz , double dx , double dy , double dz ,
+						  double cylinders[] , int o , double entry[] , double exit[] , int i ) {
+		double vx = cylinders[o+3], vy = cylinders[o+4], vz = cylinders[o+5];
+		double vv = vx*vx + vy*vy + vz*vz;
+
+		double lx = px - cylinders[o], ly = py - cylinders[o+1], lz = pz - cylinders[o+2];
+		double s = (lx*vx + ly*vy + lz*vz)/vv;
+		lx -= s*vx; ly -= s*vy; lz -= s*vz;
+		s = (dx*vx + dy*vy + dz*vz)/vv;
+		dx -= s*vx; dy -= s*vy; dz -= s*vz;
+
+		double r = cylinders[o+6];
+		double a = dx*dx + dy*dy + dz*dz;
+		if( a == 0 ) {
+			// parallel to the axis.  The entire line is either inside or outside.  A slope of zero is never inside
+			boolean inside = s != 0 && lx*lx + ly*ly + lz*lz <= r*r;
+			entry[i] = inside ? Double.NEGATIVE_INFINITY : Double.NaN;
+			if( exit != null )
+				exit[i] = inside ? Double.POSITIVE_INFINITY : Double.NaN;
+			return;
+		}
+		quadratic(lx, ly, lz, dx, dy, dz, 1.0/a, r, entry, exit, i);
+	}
+
+	/**
+	 * Solves for t in |l + t*d| = r, where invA = 1/(d.d).  Most lines miss, so the roots are only computed if the
+	 * discriminant isn't negative.  If invA isn't finite the discriminant is NaN and there's no intersection.
+	 */
+	static void quadratic( double lx , double ly , double lz , double dx , double dy , double dz , double invA ,
+						   double r , double entry[] , double exit[] , int i ) {
+		double b = lx*dx + ly*dy + lz*dz;
+
+		// the discriminant is found from the closest point on the line, which is more accurate than b*b - a*c
+		double k = b*invA;
+		double qx = lx - k*dx, qy = ly - k*dy, qz = lz - k*dz;
+		double disc = r*r - (qx*qx + qy*qy + qz*qz);
+		if( !(disc >= 0) ) {
+			entry[i] = Double.NaN;
+			if( exit != null )
+				exit[i] = Double.NaN;
+			return;
+		}
+
+		double q = -(b + Math.copySign(Math.sqrt(disc/invA), b));
+		double c = lx*lx + ly*ly + lz*lz - r*r;
+		double ta = q*invA;
+		double tb = q != 0 ? c/q : ta;
+
+		entry[i] = ta < tb ? ta : tb;
+		if( exit != null )
+			exit[i] = ta < tb ? tb : ta;
+	}
+
+	private void process( int count , GrlConcurrency.IntRangeTask task ) {
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, count, BLOCK_SIZE, task);
+		} else if( count > 0 ) {
+			task.process(0, count);
+		}
+	}
+
+	private static void checkArguments( double input[] , int offset , int count , int stride ,
+										double entry[] , double exit[] ) {
+		if( offset < 0 || count < 0 || offset + (long)stride*count > input.length )
+			throw new IllegalArgumentException("Input is out of bounds");
+		if( entry.length < count )
+			throw new IllegalArgumentException("entry is too small");
+		if( exit != null && exit.length < count )
+			throw new IllegalArgumentException("exit is too small");
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if tests should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.UtilPolygons2D_F32;
+import georegression.geometry.algs.ClipConvexPolygons2D_F32;
+import georegression.metric.Area2D_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Quadrilateral_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.ddogleg.sorting.QuickSort_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Non-maximum suppression for scored convex quadrilaterals, e.g. rotated bounding boxes from a detector.  Going from
+ * the highest to the lowest score, a quadrilateral is selected unless it overlaps an already selected quadrilateral
+ * by more than the threshold.  Overlap is measured using the exact intersection over union (IoU).
+ * </p>
+ *
+ * <p>
+ * Only quadrilaterals whose axis aligned bounding boxes overlap can have a non-zero IoU.  Those candidate pairs are
+ * found by dividing the y-axis into bands and sweeping along the x-axis inside each band.  When the quadrilaterals
+ * are spread out and of similar size this takes O(n log n + k) time, where k is the number of candidate pairs.
+ * The IoU of each candidate pair is then computed using {@link ClipConvexPolygons2D_F32}.  That is the expensive
+ * part and can be done concurrently, see {@link #setConcurrent(boolean)}.  The results are the same either way.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class NonMaxSuppressionQuad_F32 {
+	/**
+	 * Number of candidate pairs in each block when computing the IoU.
+	 */
+	public static final int BLOCK_SIZE = 1024;
+
+	// approximate cost of computing the IoU of one pair, in units of elements
+	private static final int PAIR_COST = 50;
+
+	// pairs with an IoU greater than this will suppress the one with the lower score
+	float threshold;
+
+	// bounding box and area of each quadrilateral
+	float minX[] = new float[0];
+	float minY[] = new float[0];
+	float maxX[] = new float[0];
+	float maxY[] = new float[0];
+	float area[] = new float[0];
+
+	// work space for sorting
+	QuickSort_F32 sorter = new QuickSort_F32();
+	float sortValues[] = new float[0];
+	int order[] = new int[0];
+
+	// boxes in each band along the y-axis, sorted by minimum x
+	int bandStart[] = new int[0];
+	int bandNext[] = new int[0];
+	int firstBand[] = new int[0];
+	GrowQueue_I32 bandBoxes = new GrowQueue_I32();
+
+	// indexes of quadrilaterals whose bounding boxes intersect.  Two elements for each pair
+	GrowQueue_I32 pairs = new GrowQueue_I32();
+	// IoU of each pair
+	GrowQueue_F32 pairIoU = new GrowQueue_F32();
+
+	// quadrilaterals which overlap each quadrilateral by more than the threshold
+	int neighborStart[] = new int[1];
+	int neighbors[] = new int[0];
+
+	boolean suppressed[] = new boolean[0];
+
+	Rectangle2D_F32 bounds = new Rectangle2D_F32();
+
+	// workers which are not in use
+	final List<Worker> available = new ArrayList<Worker>();
+
+	// if true the IoU of pairs are computed concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Specifies the IoU threshold
+	 *
+	 * @param threshold Quadrilaterals with an IoU above this are suppressed.  0 to 1.
+	 */
+	public NonMaxSuppressionQuad_F32( float threshold ) {
+		setThreshold(threshold);
+	}
+
+	/**
+	 * Uses an IoU threshold of 0.5
+	 */
+	public NonMaxSuppressionQuad_F32() {
+		this(0.5f);
+	}
+
+	/**
+	 * Selects the quadrilaterals which are not suppressed.
+	 *
+	 * @param quads (Input) Convex quadrilaterals.  Not modified.
+	 * @param scores (Input) Score of each quadrilateral.  Higher is better.  Not modified.
+	 * @param selected (Output) Indexes of the selected quadrilaterals, ordered from highest to lowest score.
+	 */
+	public void process( List<Quadrilateral_F32> quads , GrowQueue_F32 scores , GrowQueue_I32 selected ) {
+		final int N = quads.size();
+		if( scores.size != N )
+			throw new IllegalArgumentException("Number of scores and quadrilaterals don't match");
+
+		selected.reset();
+		growArrays(N);
+
+		for (int i = 0; i < N; i++) {
+			Quadrilateral_F32 q = quads.get(i);
+			UtilPolygons2D_F32.bounding(q, bounds);
+			minX[i] = bounds.p0.x;
+			minY[i] = bounds.p0.y;
+			maxX[i] = bounds.p1.x;
+			maxY[i] = bounds.p1.y;
+			area[i] = Area2D_F32.quadrilateral(q);
+		}
+
+		findCandidatePairs(N);
+		computeIoU(quads);
+		createNeighbors(N);
+
+		// greedily select starting with the highest score
+		for (int i = 0; i < N; i++) {
+			sortValues[i] = -scores.data[i];
+			suppressed[i] = false;
+		}
+		sorter.sort(sortValues, N, order);
+
+		for (int k = 0; k < N; k++) {
+			int i = order[k];
+			if( suppressed[i] )
+				continue;
+			selected.add(i);
+			for (int idx = neighborStart[i]; idx < neighborStart[i+1]; idx++) {
+				suppressed[neighbors[idx]] = true;
+			}
+		}
+	}
+
+	/**
+	 * Finds all pairs with intersecting bounding boxes.  The y-axis is divided into bands which are about as tall
+	 * as the average bounding box, then each band is swept along the x-axis.  A pair is only reported in the first
+	 * band which contains both of them so that it isn't reported twice.
+	 */
+	void findCandidatePairs( int N ) {
+		pairs.reset();
+		if( N == 0 )
+			return;
+
+		System.arraycopy(minX, 0, sortValues, 0, N);
+		sorter.sort(sortValues, N, order);
+
+		float y0 = minY[0], y1 = maxY[0];
+		float totalHeight = 0;
+		for (int i = 0; i < N; i++) {
+			if( minY[i] < y0 ) y0 = minY[i];
+			if( maxY[i] > y1 ) y1 = maxY[i];
+			totalHeight += maxY[i]-minY[i];
+		}
+
+		float bandHeight = totalHeight/N;
+		int numBands = 1;
+		if( bandHeight > 0 ) {
+			float bands = (y1-y0)/bandHeight;
+			numBands = bands < N ? (int)bands + 1 : N;
+		} else {
+			bandHeight = 1;
+		}
+
+		// count how many boxes are in each band
+		if( bandStart.length < numBands+1 )
+			bandStart = new int[numBands+1];
+		for (int b = 0; b <= numBands; b++) {
+			bandStart[b] = 0;
+		}
+		int total = 0;
+		for (int i = 0; i < N; i++) {
+			int b0 = band(minY[i], y0, bandHeight, numBands);
+			int b1 = band(maxY[i], y0, bandHeight, numBands);
+			firstBand[i] = b0;
+			for (int b = b0; b <= b1; b++) {
+				bandStart[b+1]++;
+			}
+			total += b1-b0+1;
+		}
+		for (int b = 0; b < numBands; b++) {
+			bandStart[b+1] += bandStart[b];
+		}
+
+		// add boxes to the bands in order of minimum x
+		bandBoxes.resize(total);
+		System.arraycopy(bandStart, 0, bandNext, 0, numBands);
+		for (int k = 0; k < N; k++) {
+			int i = order[k];
+			int b1 = band(maxY[i], y0, bandHeight, numBands);
+			for (int b = firstBand[i]; b <= b1; b++) {
+				bandBoxes.data[bandNext[b]++] = i;
+			}
+		}
+
+		// sweep each band
+		for (int b = 0; b < numBands; b++) {
+			int end = bandStart[b+1];
+			for (int k = bandStart[b]; k < end; k++) {
+				int i = bandBoxes.data[k];
+				float x1 = maxX[i];
+				float ya = minY[i];
+				float yb = maxY[i];
+				int bandI = firstBand[i];
+
+				for (int l = k+1; l < end; l++) {
+					int j = bandBoxes.data[l];
+					if( minX[j] > x1 )
+						break;
+					if( minY[j] <= yb && maxY[j] >= ya ) {
+						int bandJ = firstBand[j];
+						if( (bandI > bandJ ? bandI : bandJ) == b ) {
+							pairs.add(i);
+							pairs.add(j);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the band which contains the y-coordinate
+	 */
+	private static int band( float y , float y0 , float bandHeight , int numBands ) {
+		int b = (int)((y-y0)/bandHeight);
+		return b < numBands ? b : numBands-1;
+	}
+
+	/**
+	 * Computes the IoU of each candidate pair
+	 */
+	private void computeIoU( final List<Quadrilateral_F32> quads ) {
+		final int numPairs = pairs.size/2;
+		pairIoU.resize(numPairs);
+
+		GrlConcurrency.IntRangeTask task = new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				Worker worker = acquireWorker();
+				try {
+					for (int pair = idx0; pair < idx1; pair++) {
+						int i = pairs.data[pair*2];
+						int j = pairs.data[pair*2+1];
+						pairIoU.data[pair] = worker.computeIoU(quads.get(i), quads.get(j), area[i], area[j]);
+					}
+				} finally {
+					releaseWorker(worker);
+				}
+			}
+		};
+
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, numPairs, BLOCK_SIZE, PAIR_COST, task);
+		} else if( numPairs > 0 ) {
+			task.process(0, numPairs);
+		}
+	}
+
+	/**
+	 * Creates a graph connecting the quadrilaterals which overlap by more than the threshold
+	 */
+	private void createNeighbors( int N ) {
+		final int numPairs = pairs.size/2;
+
+		for (int i = 0; i <= N; i++) {
+			neighborStart[i] = 0;
+		}
+		int total = 0;
+		for (int pair = 0; pair < numPairs; pair++) {
+			if( pairIoU.data[pair] > threshold ) {
+				neighborStart[pairs.data[pair*2]+1]++;
+				neighborStart[pairs.data[pair*2+1]+1]++;
+				total += 2;
+			}
+		}
+		for (int i = 0; i < N; i++) {
+			neighborStart[i+1] += neighborStart[i];
+		}
+
+		if( neighbors.length < total )
+			neighbors = new int[total];
+
+		// use 'order' to keep track of where the next neighbor goes
+		System.arraycopy(neighborStart, 0, order, 0, N);
+		for (int pair = 0; pair < numPairs; pair++) {
+			if( pairIoU.data[pair] > threshold ) {
+				int i = pairs.data[pair*2];
+				int j = pairs.data[pair*2+1];
+				neighbors[order[i]++] = j;
+				neighbors[order[j]++] = i;
+			}
+		}
+	}
+
+	private void growArrays( int N ) {
+		if( minX.length >= N )
+			return;
+
+		minX = new float[N];
+		minY = new float[N];
+		maxX = new float[N];
+		maxY = new float[N];
+		area = new float[N];
+		sortValues = new float[N];
+		order = new int[N];
+		suppressed = new boolean[N];
+		neighborStart = new int[N+1];
+		bandNext = new int[N];
+		firstBand = new int[N];
+	}
+
+	private Worker acquireWorker() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Worker();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void releaseWorker( Worker worker ) {
+		synchronized( available ) {
+			available.add(worker);
+		}
+	}
+
+	/**
+	 * Number of pairs whose bounding boxes intersected in the most recent call to process
+	 */
+	public int getCandidateCount() {
+		return pairs.size/2;
+	}
+
+	public float getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold( float threshold ) {
+		if( threshold < 0 || threshold > 1 )
+			throw new IllegalArgumentException("Threshold must be from 0 to 1");
+		this.threshold = threshold;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the IoU of candidate pairs should be computed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage used to compute the IoU
+	 */
+	static class Worker {
+		ClipConvexPolygons2D_F32 clipper = new ClipConvexPolygons2D_F32();
+		Polygon2D_F32 polyA = new Polygon2D_F32(4);
+		Polygon2D_F32 polyB = new Polygon2D_F32(4);
+
+		float computeIoU( Quadrilateral_F32 a , Quadrilateral_F32 b , float areaA , float areaB ) {
+			UtilPolygons2D_F32.convert(a, polyA);
+			UtilPolygons2D_F32.convert(b, polyB);
+
+			float intersection = clipper.area(polyA, polyB);
+			float union = areaA + areaB - intersection;
+			if( union <= 0 )
+				return 0;
+			return intersection/union;
+		}
+	}
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Determines which points in a large set are inside of a polygon.  Points are processed in blocks.  Points in a
+ * block which are inside the polygon's bounding box are sorted by their y-coordinate, using a bucket sort, and
+ * then swept upwards.  The polygon's edges are sorted by their lower y-coordinate ahead of time, which allows the
+ * list of edges that cross the sweep line to be updated incrementally instead of every edge being tested against
+ * every point.  Each point is then only compared against the k edges crossing its y-coordinate.  Memory is O(n)
+ * in the number of vertexes.  Blocks can be processed concurrently, see {@link #setConcurrent(boolean)}.
+ * </p>
+ *
+ * <p>
+ * The sweep only pays off when there are enough edges.  Polygons with 16 edges or fewer skip the sort and each
+ * point inside the bounding box is tested against every edge.  Compared to calling
+ * containConcave on each point it's about 2x to 3x faster for polygons with less than 20 vertexes and over
+ * 10x faster once there are hundreds of vertexes.
+ * </p>
+ *
+ * <p>
+ * The same crossing rule as {@link georegression.metric.Intersection2D_F32#containConcave} is used, so results
+ * agree with it.  Points which lie along the perimeter may or may not be considered as inside.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointInPolygonBatch_F32 {
+	/**
+	 * Number of points in each block.  A multiple of 64 so that blocks never share a word in a bit set.
+	 */
+	public static final int BLOCK_SIZE = 8192;
+
+	// maximum number of buckets points in a block are sorted into
+	static final int MAX_BUCKETS = BLOCK_SIZE/4 + 1;
+	// if a bucket has more points than this the insertion sort is too slow and a quick sort is used instead
+	static final int MAX_BUCKET_SIZE = 64;
+
+	// polygons with this many edges or fewer are faster to test against every edge than to sweep
+	static final int SMALL_POLYGON = 16;
+
+	// bounding box of the polygon
+	float minX, minY, maxX, maxY;
+
+	// edges which aren't horizontal sorted by their lower y-coordinate
+	int numEdges;
+	float edgeLow[] = new float[0];
+	float edgeHigh[] = new float[0];
+	// point on the edge and change in x for a change in y
+	float edgeX[] = new float[0];
+	float edgeY[] = new float[0];
+	float edgeSlope[] = new float[0];
+
+	// work space for sorting edges
+	float workLow[] = new float[0];
+	int workOrder[] = new int[0];
+
+	// workers which are not in use
+	final List<Worker> available = new ArrayList<Worker>();
+
+	// if true blocks are processed concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Specifies the polygon which points are tested against
+	 *
+	 * @param polygon The polygon.  Not modified.
+	 */
+	public void setPolygon( Polygon2D_F32 polygon ) {
+		final int N = polygon.size();
+		numEdges = 0;
+		if( N == 0 ) {
+			minX = minY = maxX = maxY = 0;
+			return;
+		}
+
+		if( edgeLow.length < N ) {
+			edgeLow = new float[N];
+			edgeHigh = new float[N];
+			edgeX = new float[N];
+			edgeY = new float[N];
+			edgeSlope = new float[N];
+			workLow = new float[N];
+			workOrder = new int[N];
+		}
+
+		Point2D_F32 v = polygon.vertexes.data[0];
+		minX = maxX = v.x;
+		minY = maxY = v.y;
+
+		for (int i = 0, j = N-1; i < N; j = i++) {
+			Point2D_F32 a = polygon.vertexes.data[i];
+			Point2D_F32 b = polygon.vertexes.data[j];
+			if( a.x < minX ) minX = a.x; else if( a.x > maxX ) maxX = a.x;
+			if( a.y < minY ) minY = a.y; else if( a.y > maxY ) maxY = a.y;
+
+			// horizontal edges are never crossed
+			if( a.y == b.y )
+				continue;
+			workLow[numEdges] = a.y < b.y ? a.y : b.y;
+			workOrder[numEdges++] = i;
+		}
+		sort(workLow, workOrder, 0, numEdges);
+
+		for (int k = 0; k < numEdges; k++) {
+			int i = workOrder[k];
+			Point2D_F32 a = polygon.vertexes.data[i];
+			Point2D_F32 b = polygon.vertexes.data[i == 0 ? N-1 : i-1];
+			edgeLow[k] = workLow[k];
+			edgeHigh[k] = a.y < b.y ? b.y : a.y;
+			edgeX[k] = a.x;
+			edgeY[k] = a.y;
+			edgeSlope[k] = (b.x-a.x)/(b.y-a.y);
+		}
+	}
+
+	/**
+	 * Determines which points are inside the polygon
+	 *
+	 * @param points Points being tested.  Not modified.
+	 * @param output Storage for the results.  Element i is true if point i is inside.  Resized.
+	 */
+	public void classify( PackedPoint2D_F32 points , GrowQueue_B output ) {
+		classify(points.data, 0, points.size, output);
+	}
+
+	/**
+	 * Determines which points are inside the polygon
+	 *
+	 * @param points Array of interleaved (x,y) coordinates.  Not modified.
+	 * @param offset Index of the first element in the array
+	 * @param count Number of points
+	 * @param output Storage for the results.  Element i is true if point i is inside.  Resized.
+	 */
+	public void classify( final float points[] , final int offset , int count , final GrowQueue_B output ) {
+		output.resize(count);
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				Worker worker = acquireWorker();
+				try {
+					worker.sweep(points, offset, idx0, idx1);
+
+					boolean[] inside = output.data;
+					Arrays.fill(inside, idx0, idx1, false);
+					for (int i = 0; i < worker.numInside; i++) {
+						inside[worker.found[i]] = true;
+					}
+				} finally {
+					releaseWorker(worker);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Determines which points are inside the polygon and saves the results in a bit set.  Point i is inside if
+	 * bit (i % 64) in word (i / 64) is one.
+	 *
+	 * @param points Points being tested.  Not modified.
+	 * @param output Storage for the bit set.  Resized.
+	 */
+	public void classify( PackedPoint2D_F32 points , GrowQueue_I64 output ) {
+		classify(points.data, 0, points.size, output);
+	}
+
+	/**
+	 * Determines which points are inside the polygon and saves the results in a bit set.  Point i is inside if
+	 * bit (i % 64) in word (i / 64) is one.
+	 *
+	 * @param points Array of interleaved (x,y) coordinates.  Not modified.
+	 * @param offset Index of the first element in the array
+	 * @param count Number of points
+	 * @param output Storage for the bit set.  Resized.
+	 */
+	public void classify( final float points[] , final int offset , int count , final GrowQueue_I64 output ) {
+		output.resize((count+63)/64);
+		process(count, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				Worker worker = acquireWorker();
+				try {
+					worker.sweep(points, offset, idx0, idx1);
+
+					long[] bits = output.data;
+					Arrays.fill(bits, idx0/64, (idx1+63)/64, 0);
+					for (int i = 0; i < worker.numInside; i++) {
+						int index = worker.found[i];
+						bits[index >> 6] |= 1L << (index & 63);
+					}
+				} finally {
+					releaseWorker(worker);
+				}
+			}
+		});
+	}
+
+	private void process( int count , GrlConcurrency.IntRangeTask task ) {
+		if( concurrent ) {
+			GrlConcurrency.loopFixedBlocks(0, count, BLOCK_SIZE, task);
+		} else {
+			for (int idx0 = 0; idx0 < count; idx0 += BLOCK_SIZE) {
+				task.process(idx0, idx0+BLOCK_SIZE < count ? idx0+BLOCK_SIZE : count);
+			}
+		}
+	}
+
+	/**
+	 * Sorts keys[lo,hi) into ascending order and applies the same rearrangement to values
+	 */
+	static void sort( float keys[] , int values[] , int lo , int hi ) {
+		while( hi-lo > 16 ) {
+			// median of three pivot
+			int mid = (lo+hi) >>> 1;
+			int left = lo, right = hi-1;
+			if( keys[mid] < keys[left] ) swap(keys, values, mid, left);
+			if( keys[right] < keys[left] ) swap(keys, values, right, left);
+			if( keys[right] < keys[mid] ) swap(keys, values, right, mid);
+			float pivot = keys[mid];
+
+			int i = left, j = right;
+			while( i <= j ) {
+				while( keys[i] < pivot ) i++;
+				while( keys[j] > pivot ) j--;
+				if( i <= j ) {
+					swap(keys, values, i, j);
+					i++;
+					j--;
+				}
+			}
+
+			// recurse into the smaller side to bound the stack depth
+			if( j-lo < hi-i ) {
+				sort(keys, values, lo, j+1);
+				lo = i;
+			} else {
+				sort(keys, values, i, hi);
+				hi = j+1;
+			}
+		}
+
+		// insertion sort for small arrays
+		for (int i = lo+1; i < hi; i++) {
+			float k = keys[i];
+			int v = values[i];
+			int j = i-1;
+			while( j >= lo && keys[j] > k ) {
+				keys[j+1] = keys[j];
+				values[j+1] = values[j];
+				j--;
+			}
+			keys[j+1] = k;
+			values[j+1] = v;
+		}
+	}
+
+	private static void swap( float keys[] , int values[] , int i , int j ) {
+		float tk = keys[i]; keys[i] = keys[j]; keys[j] = tk;
+		int tv = values[i]; values[i] = values[j]; values[j] = tv;
+	}
+
+	private Worker acquireWorker() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Worker();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void releaseWorker( Worker worker ) {
+		synchronized( available ) {
+			available.add(worker);
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if blocks of points should be processed concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage used to sweep a single block
+	 */
+	class Worker {
+		// coordinates, index, and bucket of points inside the bounding box
+		float candX[] = new float[BLOCK_SIZE];
+		float candY[] = new float[BLOCK_SIZE];
+		int candIndex[] = new int[BLOCK_SIZE];
+		int candBucket[] = new int[BLOCK_SIZE];
+
+		// candidates sorted by y-coordinate
+		float sortedX[] = new float[BLOCK_SIZE];
+		float sortedY[] = new float[BLOCK_SIZE];
+		int sortedIndex[] = new int[BLOCK_SIZE];
+
+		// index of the first candidate in each bucket and where the next candidate in the bucket goes
+		int bucketStart[] = new int[MAX_BUCKETS+1];
+		int bucketNext[] = new int[MAX_BUCKETS];
+
+		// index of points which are inside the polygon
+		int found[] = new int[BLOCK_SIZE];
+		int numInside;
+
+		// packed (x,y,slope,high) of edges which cross the sweep line.  Same as the edge arrays
+		int numActive;
+		float active[] = new float[0];
+
+		/**
+		 * Finds all the points in [idx0,idx1) which are inside the polygon and saves their index in found
+		 */
+		void sweep( float points[] , int offset , int idx0 , int idx1 ) {
+			numInside = 0;
+			if( active.length < numEdges*4 ) {
+				active = new float[numEdges*4];
+			}
+
+			// points outside the bounding box can't be inside
+			int numCandidates = 0;
+			for (int i = idx0; i < idx1; i++) {
+				float x = points[offset+i*2];
+				float y = points[offset+i*2+1];
+				if( y >= minY && y < maxY && x >= minX && x <= maxX ) {
+					candX[numCandidates] = x;
+					candY[numCandidates] = y;
+					candIndex[numCandidates++] = i;
+				}
+			}
+
+			if( numEdges <= SMALL_POLYGON ) {
+				testEachEdge(numCandidates);
+				return;
+			}
+
+			sortByY(numCandidates);
+
+			numActive = 0;
+			int next = 0;
+			// the sweep line must pass this before any active edge needs to be removed
+			float removeY = Float.MAX_VALUE;
+
+			for (int c = 0; c < numCandidates; c++) {
+				float y = sortedY[c];
+
+				if( y >= removeY )
+					removeY = removeEdges(y);
+
+				while( next < numEdges && edgeLow[next] <= y ) {
+					if( edgeHigh[next] > y ) {
+						int k = numActive++*4;
+						active[k  ] = edgeX[next];
+						active[k+1] = edgeY[next];
+						active[k+2] = edgeSlope[next];
+						active[k+3] = edgeHigh[next];
+						if( edgeHigh[next] < removeY )
+							removeY = edgeHigh[next];
+					}
+					next++;
+				}
+
+				// count edges which cross the sweep line to the left of the point
+				float x = sortedX[c];
+				boolean inside = false;
+				for (int i = 0, end = numActive*4; i < end; i += 4) {
+					if( active[i] + (y-active[i+1])*active[i+2] <= x )
+						inside = !inside;
+				}
+				if( inside )
+					found[numInside++] = sortedIndex[c];
+			}
+		}
+
+		/**
+		 * Tests the candidates against every edge.  Sorting isn't worth it when there are only a few edges.
+		 * The crossing rule is the same as when sweeping.
+		 */
+		void testEachEdge( int numCandidates ) {
+			for (int c = 0; c < numCandidates; c++) {
+				float x = candX[c];
+				float y = candY[c];
+				boolean inside = false;
+				// edges are sorted by their lower y-coordinate
+				for (int k = 0; k < numEdges && edgeLow[k] <= y; k++) {
+					if( edgeHigh[k] > y && edgeX[k] + (y-edgeY[k])*edgeSlope[k] <= x )
+						inside = !inside;
+				}
+				if( inside )
+					found[numInside++] = candIndex[c];
+			}
+		}
+
+		/**
+		 * Sorts the candidates by y-coordinate.  A counting sort places them into buckets which contain a few
+		 * points on average, then each bucket is sorted with an insertion sort.  The buckets span the y-coordinates
+		 * of the candidates in this block, not the polygon, since consecutive points are often close together.
+		 * If the points are still crowded into a few buckets they are sorted with a quick sort instead.
+		 */
+		void sortByY( int numCandidates ) {
+			if( numCandidates == 0 )
+				return;
+
+			float lowY = candY[0], highY = candY[0];
+			for (int i = 1; i < numCandidates; i++) {
+				float y = candY[i];
+				if( y < lowY ) lowY = y; else if( y > highY ) highY = y;
+			}
+
+			int numBuckets = numCandidates/4 + 1;
+			float scale = highY > lowY ? numBuckets/(highY-lowY) : 0;
+
+			for (int b = 0; b <= numBuckets; b++) {
+				bucketStart[b] = 0;
+			}
+			for (int i = 0; i < numCandidates; i++) {
+				int b = (int)((candY[i]-lowY)*scale);
+				if( b >= numBuckets )
+					b = numBuckets-1;
+				bucketStart[b+1]++;
+				candBucket[i] = b;
+			}
+			int largest = 0;
+			for (int b = 0; b < numBuckets; b++) {
+				if( bucketStart[b+1] > largest )
+					largest = bucketStart[b+1];
+				bucketStart[b+1] += bucketStart[b];
+				bucketNext[b] = bucketStart[b];
+			}
+
+			if( largest > MAX_BUCKET_SIZE ) {
+				quickSortByY(numCandidates);
+				return;
+			}
+
+			for (int i = 0; i < numCandidates; i++) {
+				int b = candBucket[i];
+				float y = candY[i];
+
+				// insert into the bucket while keeping it sorted
+				int k = bucketNext[b]++;
+				int first = bucketStart[b];
+				while( k > first && sortedY[k-1] > y ) {
+					sortedX[k] = sortedX[k-1];
+					sortedY[k] = sortedY[k-1];
+					sortedIndex[k] = sortedIndex[k-1];
+					k--;
+				}
+				sortedX[k] = candX[i];
+				sortedY[k] = y;
+				sortedIndex[k] = candIndex[i];
+			}
+		}
+
+		/**
+		 * Sorts the candidates by y-coordinate using a quick sort, which is O(n log n) no matter how they are
+		 * distributed
+		 */
+		void quickSortByY( int numCandidates ) {
+			for (int i = 0; i < numCandidates; i++) {
+				sortedY[i] = candY[i];
+				sortedIndex[i] = i;
+			}
+			sort(sortedY, sortedIndex, 0, numCandidates);
+			for (int i = 0; i < numCandidates; i++) {
+				int c = sortedIndex[i];
+				sortedX[i] = candX[c];
+				sortedIndex[i] = candIndex[c];
+			}
+		}
+
+		/**
+		 * Removes edges which are entirely below the sweep line.  The order of active edges doesn't matter, so a
+		 * removed edge is replaced by the last edge.
+		 *
+		 * @return The lowest upper y-coordinate of the remaining edges
+		 */
+		float removeEdges( float y ) {
+			float lowest = Float.MAX_VALUE;
+			int i = 0;
+			while( i < numActive ) {
+				int k = i*4;
+				float high = active[k+3];
+				if( high > y ) {
+					if( high < lowest )
+						lowest = high;
+					i++;
+				} else {
+					System.arraycopy(active, --numActive*4, active, k, 4);
+				}
+			}
+			return lowest;
+		}
+	}
+}
@@ -0,0 +1,629 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Bounding volume hierarchy (BVH) for a triangle mesh.  Each node in the tree has an axis aligned bounding box
+ * which contains all the triangles below it, allowing queries to skip over most of the mesh.  The tree is built
+ * by splitting triangles along the axis and location which minimizes the surface area heuristic (SAH), with the
+ * candidate splits found by dividing each node into bins [1].  Queries are done with
+ * {@link TriangleMeshBvhQuery3D_F32}.
+ * </p>
+ *
+ * <p>
+ * Triangles are stored in the order they appear in the leaves along with their first vertex, two edges, and
+ * normal so that the queries don't need to recompute them.  Angle weighted pseudo normals [2] for each edge and
+ * vertex are also computed and used to determine the sign of a point's distance from a closed mesh.  For the sign to
+ * be correct the mesh must be closed and the vertexes of each triangle must be in counter-clockwise order when
+ * viewed from outside, i.e. the normal (v1-v0)x(v2-v0) points outwards.
+ * </p>
+ *
+ * <p>
+ * Once built the tree is not modified by queries and can be shared between threads.
+ * </p>
+ *
+ * <p>
+ * [1] Wald, Ingo. "On fast construction of SAH-based bounding volume hierarchies." IEEE Symposium on Interactive
+ * Ray Tracing, 2007.<br>
+ * [2] Baerentzen, J. Andreas, and Henrik Aanaes. "Signed distance computation using the angle weighted
+ * pseudonormal." IEEE Transactions on Visualization and Computer Graphics 11.3 (2005): 243-253.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangleMeshBvh3D_F32 {
+
+	// number of bins along each axis when searching for the best split
+	private static final int BINS = 16;
+	// nodes deeper than this are split in half to prevent a degenerate tree from becoming too deep
+	private static final int MAX_SAH_DEPTH = 64;
+	// nodes with at least this many triangles will have their children built in parallel
+	private static final int PARALLEL_SIZE = 4096;
+	// cost of traversing a node relative to testing a triangle
+	private static final float TRAVERSAL_COST = 1.0f;
+
+	// maximum number of triangles in a leaf
+	int maxLeafSize = 4;
+
+	// if true the tree is built concurrently
+	boolean concurrent = false;
+
+	//---------- Triangles in the order they appear in leaves
+	int numTriangles;
+	// index of the triangle in the input
+	int triangleIndex[] = new int[0];
+	// inverse of triangleIndex.  Location of each input triangle in the leaf order
+	int triangleLeaf[] = new int[0];
+	// vertex index of each corner.  3 per triangle
+	int triangleVertex[] = new int[0];
+	// first vertex, v1-v0, v2-v0, and unit normal.  3 per triangle
+	float v0[] = new float[0];
+	float e0[] = new float[0];
+	float e1[] = new float[0];
+	float normal[] = new float[0];
+	// pseudo normal of each edge.  Edges are v0-v1, v1-v2, v2-v0.  9 per triangle
+	float edgeNormal[] = new float[0];
+	// copy of the input vertexes.  3 per vertex
+	float vertexes[] = new float[0];
+	// pseudo normal of each vertex.  3 per vertex
+	float vertexNormal[] = new float[0];
+
+	//---------- Nodes.  The first child of a node comes immediately after it
+	int numNodes;
+	// min x,y,z and max x,y,z.  6 per node
+	float nodeBounds[] = new float[0];
+	// leaf: index of the first triangle.  Inner node: index of the second child
+	int nodeStart[] = new int[0];
+	// leaf: number of triangles.  Inner node: 0
+	int nodeCount[] = new int[0];
+
+	//---------- Work space for building
+	float centroid[] = new float[0];
+	float triangleBounds[] = new float[0];
+	PackedPoint3D_F32 weldedVertexes = new PackedPoint3D_F32();
+	GrowQueue_I32 weldedIndexes = new GrowQueue_I32();
+
+	/**
+	 * Builds the tree for a list of triangles.  Vertexes with identical coordinates are considered to be the
+	 * same when computing pseudo normals.
+	 *
+	 * @param triangles (Input) Triangles.  Not modified.
+	 */
+	public void build( List<Triangle3D_F32> triangles ) {
+		weldedVertexes.reset();
+		weldedIndexes.reset();
+
+		Map<VertexKey,Integer> lookup = new HashMap<VertexKey,Integer>();
+		for (int i = 0; i < triangles.size(); i++) {
+			Triangle3D_F32 t = triangles.get(i);
+			weldedIndexes.add(weld(t.v0, lookup));
+			weldedIndexes.add(weld(t.v1, lookup));
+			weldedIndexes.add(weld(t.v2, lookup));
+		}
+
+		build(weldedVertexes, weldedIndexes);
+	}
+
+	private int weld( Point3D_F32 p , Map<VertexKey,Integer> lookup ) {
+		VertexKey key = new VertexKey(p.x, p.y, p.z);
+		Integer index = lookup.get(key);
+		if( index == null ) {
+			index = weldedVertexes.size;
+			weldedVertexes.add(p.x, p.y, p.z);
+			lookup.put(key, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Builds the tree for an indexed triangle list.
+	 *
+	 * @param vertexes (Input) Vertexes in the mesh.  Not modified.
+	 * @param indexes (Input) Index of each triangle's three vertexes.  Not modified.
+	 */
+	public void build( PackedPoint3D_F32 vertexes , GrowQueue_I32 indexes ) {
+		if( indexes.size % 3 != 0 )
+			throw new IllegalArgumentException("Number of indexes must be a multiple of 3");
+		for (int i = 0; i < indexes.size; i++) {
+			int v = indexes.data[i];
+			if( v < 0 || v >= vertexes.size )
+				throw new IllegalArgumentException("Vertex index out of bounds. "+v);
+		}
+
+		final int T = indexes.size/3;
+		numTriangles = T;
+		growTriangles(T, vertexes.size);
+
+		float[] xyz = vertexes.data;
+		for (int i = 0; i < T; i++) {
+			int a = indexes.data[i*3]*3, b = indexes.data[i*3+1]*3, c = indexes.data[i*3+2]*3;
+			for (int k = 0; k < 3; k++) {
+				float min = (float)Math.min(xyz[a+k], (float)Math.min(xyz[b+k], xyz[c+k]));
+				float max = (float)Math.max(xyz[a+k], (float)Math.max(xyz[b+k], xyz[c+k]));
+				triangleBounds[i*6+k] = min;
+				triangleBounds[i*6+3+k] = max;
+				centroid[i*3+k] = (xyz[a+k] + xyz[b+k] + xyz[c+k])/3.0f;
+			}
+			triangleIndex[i] = i;
+		}
+
+		numNodes = Math.max(0, 2*T-1);
+		if( T > 0 ) {
+			if( concurrent && T >= Math.max(PARALLEL_SIZE, GrlConcurrency.getMinimumConcurrent()) ) {
+				GrlConcurrency.getPool().invoke(new BuildTask(0, 0, T, 0));
+			} else {
+				buildNode(0, 0, T, 0, new Workspace(), false);
+			}
+		}
+
+		System.arraycopy(xyz, 0, this.vertexes, 0, vertexes.size*3);
+		storeTriangles(xyz, indexes);
+		computePseudoNormals(vertexes.size);
+	}
+
+	/**
+	 * Recursively splits the triangles in [i0,i1) and creates the node for them.  A node with N triangles reserves
+	 * 2*N-1 node indexes for itself and its children so that the layout doesn't depend on how the work is divided
+	 * between threads.
+	 */
+	private void buildNode( int node , int i0 , int i1 , int depth , Workspace ws , boolean parallel ) {
+		final int N = i1-i0;
+
+		// bounds of the triangles and of their centroids
+		float[] b = ws.bounds;
+		float[] cb = ws.centroidBounds;
+		for (int k = 0; k < 3; k++) {
+			b[k] = cb[k] = Float.MAX_VALUE;
+			b[k+3] = cb[k+3] = -Float.MAX_VALUE;
+		}
+		for (int i = i0; i < i1; i++) {
+			int t = triangleIndex[i];
+			for (int k = 0; k < 3; k++) {
+				b[k] = (float)Math.min(b[k], triangleBounds[t*6+k]);
+				b[k+3] = (float)Math.max(b[k+3], triangleBounds[t*6+3+k]);
+				cb[k] = (float)Math.min(cb[k], centroid[t*3+k]);
+				cb[k+3] = (float)Math.max(cb[k+3], centroid[t*3+k]);
+			}
+		}
+		System.arraycopy(b, 0, nodeBounds, node*6, 6);
+
+		if( N == 1 ) {
+			setLeaf(node, i0, N);
+			return;
+		}
+
+		int mid = -1;
+		if( depth < MAX_SAH_DEPTH ) {
+			if( findBestSplit(i0, i1, ws) ) {
+				float splitCost = TRAVERSAL_COST + ws.bestCost/area(b, 0);
+				if( N > maxLeafSize || splitCost < N ) {
+					mid = partition(i0, i1, ws.bestAxis, ws.bestBin, cb);
+				}
+			}
+		}
+		if( mid == -1 ) {
+			if( N <= maxLeafSize ) {
+				setLeaf(node, i0, N);
+				return;
+			}
+			// no useful split could be found.  Divide the triangles in half
+			mid = (i0+i1)/2;
+		}
+
+		int left = node+1;
+		int right = node + 2*(mid-i0);
+		nodeStart[node] = right;
+		nodeCount[node] = 0;
+
+		if( parallel && N >= PARALLEL_SIZE ) {
+			RecursiveAction.invokeAll(new BuildTask(left, i0, mid, depth+1), new BuildTask(right, mid, i1, depth+1));
+		} else {
+			buildNode(left, i0, mid, depth+1, ws, parallel);
+			buildNode(right, mid, i1, depth+1, ws, parallel);
+		}
+	}
+
+	private void setLeaf( int node , int start , int count ) {
+		nodeStart[node] = start;
+		nodeCount[node] = count;
+	}
+
+	/**
+	 * Bins the centroids along each axis and finds the split between bins with the lowest SAH cost
+	 *
+	 * @return true if a valid split was found
+	 */
+	private boolean findBestSplit( int i0 , int i1 , Workspace ws ) {
+		float[] cb = ws.centroidBounds;
+		float[] binBounds = ws.binBounds;
+		int[] binCount = ws.binCount;
+		ws.bestCost = Float.MAX_VALUE;
+		ws.bestAxis = -1;
+
+		// conversion from centroid to bin along each axis.  A zero scale places everything in the first bin
+		float[] scale = ws.scale;
+		for (int axis = 0; axis < 3; axis++) {
+			float extent = cb[axis+3]-cb[axis];
+			scale[axis] = extent > 0 ? BINS/extent : 0;
+		}
+
+		Arrays.fill(binCount, 0);
+		for (int bin = 0; bin < 3*BINS; bin++) {
+			resetBounds(binBounds, bin*6);
+		}
+
+		// bin all three axes in a single pass so that each triangle is only read once
+		for (int i = i0; i < i1; i++) {
+			int t = triangleIndex[i];
+			for (int axis = 0; axis < 3; axis++) {
+				int bin = axis*BINS + bin(centroid[t*3+axis], cb[axis], scale[axis]);
+				binCount[bin]++;
+				int o = bin*6;
+				for (int k = 0; k < 3; k++) {
+					binBounds[o+k] = (float)Math.min(binBounds[o+k], triangleBounds[t*6+k]);
+					binBounds[o+3+k] = (float)Math.max(binBounds[o+3+k], triangleBounds[t*6+3+k]);
+				}
+			}
+		}
+
+		float[] acc = ws.accumulated;
+		for (int axis = 0; axis < 3; axis++) {
+			if( scale[axis] == 0 )
+				continue;
+			int first = axis*BINS;
+
+			// sweep from the right to get the cost of everything to the right of each split
+			resetBounds(acc, 0);
+			int count = 0;
+			float rightArea = 0;
+			for (int bin = BINS-1; bin > 0; bin--) {
+				// small nodes leave most bins empty and those don't change the bounds
+				if( binCount[first+bin] > 0 ) {
+					count += binCount[first+bin];
+					union(acc, binBounds, (first+bin)*6);
+					rightArea = area(acc, 0);
+				}
+				ws.rightCount[bin] = count;
+				ws.rightArea[bin] = rightArea;
+			}
+
+			// sweep from the left and evaluate each split
+			resetBounds(acc, 0);
+			count = 0;
+			for (int bin = 0; bin < BINS-1; bin++) {
+				if( binCount[first+bin] == 0 )
+					continue;
+				count += binCount[first+bin];
+				union(acc, binBounds, (first+bin)*6);
+				int rightCount = ws.rightCount[bin+1];
+				if( rightCount == 0 )
+					continue;
+				float cost = area(acc, 0)*count + ws.rightArea[bin+1]*rightCount;
+				if( cost < ws.bestCost ) {
+					ws.bestCost = cost;
+					ws.bestAxis = axis;
+					ws.bestBin = bin;
+				}
+			}
+		}
+		return ws.bestAxis != -1;
+	}
+
+	/**
+	 * Moves triangles in bins less than or equal to the split bin to the front
+	 *
+	 * @return index of the first triangle in the second half
+	 */
+	private int partition( int i0 , int i1 , int axis , int splitBin , float[] centroidBounds ) {
+		float min = centroidBounds[axis];
+		float scale = BINS/(centroidBounds[axis+3]-min);
+		int i = i0, j = i1-1;
+		while( i <= j ) {
+			if( bin(centroid[triangleIndex[i]*3+axis], min, scale) <= splitBin ) {
+				i++;
+			} else {
+				int tmp = triangleIndex[i];
+				triangleIndex[i] = triangleIndex[j];
+				triangleIndex[j--] = tmp;
+			}
+		}
+		return i;
+	}
+
+	private static int bin( float value , float min , float scale ) {
+		int bin = (int)((value-min)*scale);
+		return bin < BINS ? bin : BINS-1;
+	}
+
+	private static void resetBounds( float[] b , int offset ) {
+		for (int k = 0; k < 3; k++) {
+			b[offset+k] = Float.MAX_VALUE;
+			b[offset+3+k] = -Float.MAX_VALUE;
+		}
+	}
+
+	private static void union( float[] b , float[] src , int offset ) {
+		for (int k = 0; k < 3; k++) {
+			b[k] = (float)Math.min(b[k], src[offset+k]);
+			b[k+3] = (float)Math.max(b[k+3], src[offset+3+k]);
+		}
+	}
+
+	/**
+	 * Surface area of a box
+	 */
+	private static float area( float[] b , int offset ) {
+		float dx = b[offset+3]-b[offset];
+		float dy = b[offset+4]-b[offset+1];
+		float dz = b[offset+5]-b[offset+2];
+		return 2*(dx*dy + dy*dz + dz*dx);
+	}
+
+	/**
+	 * Copies the geometry of each triangle into arrays in the order they appear in leaves
+	 */
+	private void storeTriangles( float[] xyz , GrowQueue_I32 indexes ) {
+		for (int i = 0; i < numTriangles; i++) {
+			int t = triangleIndex[i];
+			triangleLeaf[t] = i;
+			int a = indexes.data[t*3], b = indexes.data[t*3+1], c = indexes.data[t*3+2];
+			triangleVertex[i*3] = a;
+			triangleVertex[i*3+1] = b;
+			triangleVertex[i*3+2] = c;
+
+			for (int k = 0; k < 3; k++) {
+				v0[i*3+k] = xyz[a*3+k];
+				e0[i*3+k] = xyz[b*3+k]-xyz[a*3+k];
+				e1[i*3+k] = xyz[c*3+k]-xyz[a*3+k];
+			}
+			float nx = e0[i*3+1]*e1[i*3+2] - e0[i*3+2]*e1[i*3+1];
+			float ny = e0[i*3+2]*e1[i*3] - e0[i*3]*e1[i*3+2];
+			float nz = e0[i*3]*e1[i*3+1] - e0[i*3+1]*e1[i*3];
+			float norm = (float)Math.sqrt(nx*nx + ny*ny + nz*nz);
+			if( norm > 0 ) {
+				nx /= norm; ny /= norm; nz /= norm;
+			}
+			normal[i*3] = nx;
+			normal[i*3+1] = ny;
+			normal[i*3+2] = nz;
+		}
+	}
+
+	/**
+	 * Computes the pseudo normal of each vertex by summing the normals of triangles which touch it, weighted
+	 * by the angle at the vertex, and of each edge by summing the normals of the triangles on either side.
+	 */
+	private void computePseudoNormals( int numVertexes ) {
+		Arrays.fill(vertexNormal, 0, numVertexes*3, 0);
+		for (int i = 0; i < numTriangles; i++) {
+			// edges leaving each corner
+			for (int corner = 0; corner < 3; corner++) {
+				float ux, uy, uz, vx, vy, vz;
+				if( corner == 0 ) {
+					ux = e0[i*3]; uy = e0[i*3+1]; uz = e0[i*3+2];
+					vx = e1[i*3]; vy = e1[i*3+1]; vz = e1[i*3+2];
+				} else if( corner == 1 ) {
+					ux = e1[i*3]-e0[i*3]; uy = e1[i*3+1]-e0[i*3+1]; uz = e1[i*3+2]-e0[i*3+2];
+					vx = -e0[i*3]; vy = -e0[i*3+1]; vz = -e0[i*3+2];
+				} else {
+					ux = -e1[i*3]; uy = -e1[i*3+1]; uz = -e1[i*3+2];
+					vx = e0[i*3]-e1[i*3]; vy = e0[i*3+1]-e1[i*3+1]; vz = e0[i*3+2]-e1[i*3+2];
+				}
+				float cx = uy*vz - uz*vy, cy = uz*vx - ux*vz, cz = ux*vy - uy*vx;
+				float angle = (float)Math.atan2(Math.sqrt(cx*cx + cy*cy + cz*cz), ux*vx + uy*vy + uz*vz);
+
+				int v = triangleVertex[i*3+corner];
+				for (int k = 0; k < 3; k++) {
+					vertexNormal[v*3+k] += angle*normal[i*3+k];
+				}
+			}
+		}
+
+		// find triangles which share an edge by sorting the edges
+		long keys[] = new long[numTriangles*3];
+		for (int i = 0; i < numTriangles; i++) {
+			for (int edge = 0; edge < 3; edge++) {
+				keys[i*3+edge] = edgeKey(triangleVertex[i*3+edge], triangleVertex[i*3+(edge+1)%3]);
+			}
+		}
+		long unique[] = keys.clone();
+		Arrays.sort(unique);
+		int numUnique = 0;
+		for (int i = 0; i < unique.length; i++) {
+			if( i == 0 || unique[i] != unique[numUnique-1] )
+				unique[numUnique++] = unique[i];
+		}
+
+		float sum[] = new float[numUnique*3];
+		int group[] = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			int g = group[i] = Arrays.binarySearch(unique, 0, numUnique, keys[i]);
+			int t = i/3;
+			for (int k = 0; k < 3; k++) {
+				sum[g*3+k] += normal[t*3+k];
+			}
+		}
+		for (int i = 0; i < keys.length; i++) {
+			System.arraycopy(sum, group[i]*3, edgeNormal, i*3, 3);
+		}
+	}
+
+	private static long edgeKey( int a , int b ) {
+		return a < b ? ((long)a << 32) | b : ((long)b << 32) | a;
+	}
+
+	private void growTriangles( int T , int numVertexes ) {
+		if( triangleIndex.length < T ) {
+			triangleIndex = new int[T];
+			triangleLeaf = new int[T];
+			triangleVertex = new int[T*3];
+			v0 = new float[T*3];
+			e0 = new float[T*3];
+			e1 = new float[T*3];
+			normal = new float[T*3];
+			edgeNormal = new float[T*9];
+			centroid = new float[T*3];
+			triangleBounds = new float[T*6];
+		}
+		int N = 2*T;
+		if( nodeCount.length < N ) {
+			nodeBounds = new float[N*6];
+			nodeStart = new int[N];
+			nodeCount = new int[N];
+		}
+		if( vertexNormal.length < numVertexes*3 ) {
+			vertexes = new float[numVertexes*3];
+			vertexNormal = new float[numVertexes*3];
+		}
+	}
+
+	/**
+	 * Copies a triangle into the provided storage.  The vertexes are identical to the ones it was built from.
+	 *
+	 * @param index Index of the triangle in the input
+	 * @param output (Output) Storage for the triangle
+	 */
+	public void getTriangle( int index , Triangle3D_F32 output ) {
+		if( index < 0 || index >= numTriangles )
+			throw new IllegalArgumentException("Unknown triangle "+index);
+		int i = triangleLeaf[index];
+		getVertex(triangleVertex[i*3], output.v0);
+		getVertex(triangleVertex[i*3+1], output.v1);
+		getVertex(triangleVertex[i*3+2], output.v2);
+	}
+
+	private void getVertex( int v , Point3D_F32 output ) {
+		output.set(vertexes[v*3], vertexes[v*3+1], vertexes[v*3+2]);
+	}
+
+	/**
+	 * Number of triangles in the mesh
+	 */
+	public int getTriangleCount() {
+		return numTriangles;
+	}
+
+	/**
+	 * Maximum number of triangles in a leaf
+	 */
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+
+	/**
+	 * Specifies the maximum number of triangles in a leaf.  Smaller leaves make queries faster and the tree larger.
+	 *
+	 * @param maxLeafSize Must be &ge; 1
+	 */
+	public void setMaxLeafSize(int maxLeafSize) {
+		if( maxLeafSize < 1 )
+			throw new IllegalArgumentException("Leaf size must be at least 1");
+		this.maxLeafSize = maxLeafSize;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the tree should be built concurrently.  The results are the same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage used while building a subtree
+	 */
+	static class Workspace {
+		float bounds[] = new float[6];
+		float centroidBounds[] = new float[6];
+		float accumulated[] = new float[6];
+		float scale[] = new float[3];
+		float binBounds[] = new float[3*BINS*6];
+		int binCount[] = new int[3*BINS];
+		int rightCount[] = new int[BINS];
+		float rightArea[] = new float[BINS];
+
+		float bestCost;
+		int bestAxis;
+		int bestBin;
+	}
+
+	/**
+	 * Builds a subtree inside the thread pool
+	 */
+	private class BuildTask extends RecursiveAction {
+		int node, i0, i1, depth;
+
+		BuildTask(int node, int i0, int i1, int depth) {
+			this.node = node;
+			this.i0 = i0;
+			this.i1 = i1;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			buildNode(node, i0, i1, depth, new Workspace(), true);
+		}
+	}
+
+	/**
+	 * Used to find vertexes with identical coordinates
+	 */
+	private static class VertexKey {
+		float x, y, z;
+
+		VertexKey(float x, float y, float z) {
+			// adding zero turns -0 into 0 so that they have the same hash
+			this.x = x + 0.0f;
+			this.y = y + 0.0f;
+			this.z = z + 0.0f;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			VertexKey k = (VertexKey)o;
+			return k.x == x && k.y == y && k.z == z;
+		}
+
+		@Override
+		public int hashCode() {
+			long h = Float.floatToIntBits(x);
+			h = h*31 + Float.floatToIntBits(y);
+			h = h*31 + Float.floatToIntBits(z);
+			return (int)(h ^ (h >>> 32));
+		}
+	}
+}
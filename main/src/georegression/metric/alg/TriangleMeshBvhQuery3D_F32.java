@@ -0,0 +1,581 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineParametric3D_F32;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.point.Point3D_F32;
+
+/**
+ * <p>
+ * Queries a {@link TriangleMeshBvh3D_F32} for the first or any triangle hit by a line segment or ray, and for the
+ * closest point on the mesh to a point along with its signed distance.  Nodes are visited nearest first and
+ * skipped when they can't contain a better solution.  Triangles are intersected with the Moller-Trumbore
+ * algorithm [1] and the closest point on a triangle is found by testing which Voronoi region the point lies in [2].
+ * </p>
+ *
+ * <p>
+ * A query can only be used by one thread at a time, but any number of queries can share the same tree.  All
+ * storage is recycled, so no memory is created once the traversal stack has grown to the depth of the tree.
+ * </p>
+ *
+ * <p>
+ * [1] Moller, Tomas, and Ben Trumbore. "Fast, minimum storage ray-triangle intersection." Journal of Graphics
+ * Tools 2.1 (1997): 21-28.<br>
+ * [2] Ericson, Christer. "Real-Time Collision Detection." CRC Press, 2004. Section 5.1.5
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangleMeshBvhQuery3D_F32 {
+
+	// which part of the triangle the closest point is on
+	static final int FACE = 0;
+	static final int EDGE01 = 1;
+	static final int EDGE12 = 2;
+	static final int EDGE20 = 3;
+	static final int VERTEX0 = 4;
+	static final int VERTEX1 = 5;
+	static final int VERTEX2 = 6;
+
+	// enlarges the exit distance from a bounding box so that rounding doesn't cause a hit to be missed
+	private static final float SLAB_SCALE = 1 + 4*Math.ulp(1.0f);
+
+	TriangleMeshBvh3D_F32 bvh;
+
+	// traversal stack.  Node and its distance
+	int stackNode[] = new int[64];
+	float stackDistance[] = new float[64];
+	int stackSize;
+
+	// line being traced
+	float ox, oy, oz;
+	float dx, dy, dz;
+	float invX, invY, invZ;
+	// index of the box's side which the line reaches first along each axis
+	int nearX, nearY, nearZ;
+
+	// the point being searched for
+	float px, py, pz;
+
+	// solution to the most recent query.  Triangle is the location in the tree's arrays
+	int found = -1;
+	float hitT;
+	float closestX, closestY, closestZ;
+	float distanceSq;
+	int feature;
+
+	// closest point on the most recently examined triangle
+	float candX, candY, candZ;
+	int candFeature;
+
+	public TriangleMeshBvhQuery3D_F32( TriangleMeshBvh3D_F32 bvh ) {
+		this.bvh = bvh;
+	}
+
+	public TriangleMeshBvhQuery3D_F32() {
+	}
+
+	/**
+	 * Finds the first triangle hit when moving along the line segment from 'a' to 'b'.  Triangles which are
+	 * parallel to the segment are ignored.
+	 *
+	 * @param segment (Input) Line segment.  Not modified.
+	 * @param hit (Output) Optional storage for the intersection point.  Can be null.
+	 * @return Index of the triangle which was hit or -1 if none were hit
+	 */
+	public int intersectFirst( LineSegment3D_F32 segment , Point3D_F32 hit ) {
+		setSegment(segment);
+		return trace(1.0f, false, hit);
+	}
+
+	/**
+	 * Finds the first triangle hit by the ray.  The ray starts at the line's point and moves along its slope.
+	 * Triangles which are parallel to the ray are ignored.
+	 *
+	 * @param ray (Input) Ray.  Not modified.
+	 * @param hit (Output) Optional storage for the intersection point.  Can be null.
+	 * @return Index of the triangle which was hit or -1 if none were hit
+	 */
+	public int intersectFirst( LineParametric3D_F32 ray , Point3D_F32 hit ) {
+		setRay(ray);
+		return trace(Float.POSITIVE_INFINITY, false, hit);
+	}
+
+	/**
+	 * Returns true if the line segment hits any triangle.  Faster than finding the first hit.
+	 *
+	 * @param segment (Input) Line segment.  Not modified.
+	 * @return true if a triangle was hit
+	 */
+	public boolean intersectAny( LineSegment3D_F32 segment ) {
+		setSegment(segment);
+		return trace(1.0f, true, null) != -1;
+	}
+
+	/**
+	 * Returns true if the ray hits any triangle.  Faster than finding the first hit.
+	 *
+	 * @param ray (Input) Ray.  Not modified.
+	 * @return true if a triangle was hit
+	 */
+	public boolean intersectAny( LineParametric3D_F32 ray ) {
+		setRay(ray);
+		return trace(Float.POSITIVE_INFINITY, true, null) != -1;
+	}
+
+	private void setSegment( LineSegment3D_F32 segment ) {
+		ox = segment.a.x; oy = segment.a.y; oz = segment.a.z;
+		dx = segment.b.x - ox; dy = segment.b.y - oy; dz = segment.b.z - oz;
+	}
+
+	private void setRay( LineParametric3D_F32 ray ) {
+		ox = ray.p.x; oy = ray.p.y; oz = ray.p.z;
+		dx = ray.slope.x; dy = ray.slope.y; dz = ray.slope.z;
+	}
+
+	/**
+	 * Searches for triangles hit by the line between 0 and tmax, nearest nodes first
+	 */
+	private int trace( float tmax , boolean any , Point3D_F32 hit ) {
+		found = -1;
+		hitT = Float.NaN;
+
+		float length = (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+		if( bvh.numNodes == 0 || length == 0 )
+			return -1;
+		float parallelTol = (float)(GrlConstants.F_EPS*length);
+		invX = 1.0f/dx; invY = 1.0f/dy; invZ = 1.0f/dz;
+		nearX = invX >= 0 ? 0 : 3; nearY = invY >= 0 ? 1 : 4; nearZ = invZ >= 0 ? 2 : 5;
+
+		float[] normal = bvh.normal;
+		int[] nodeStart = bvh.nodeStart;
+		int[] nodeCount = bvh.nodeCount;
+
+		stackSize = 0;
+		float entry = slab(0, tmax);
+		if( entry != Float.MAX_VALUE )
+			push(0, entry);
+
+		while( stackSize > 0 ) {
+			stackSize--;
+			int node = stackNode[stackSize];
+			if( stackDistance[stackSize] > tmax )
+				continue;
+
+			int count = nodeCount[node];
+			if( count > 0 ) {
+				int start = nodeStart[node];
+				for (int i = start; i < start+count; i++) {
+					// skip triangles which are parallel to the line, including degenerate triangles
+					float nd = normal[i*3]*dx + normal[i*3+1]*dy + normal[i*3+2]*dz;
+					if( (float)Math.abs(nd) <= parallelTol )
+						continue;
+					float t = intersectTriangle(i);
+					if( t >= 0 && t <= tmax ) {
+						tmax = t;
+						found = i;
+						if( any )
+							break;
+					}
+				}
+				if( any && found != -1 )
+					break;
+			} else {
+				int left = node+1;
+				int right = nodeStart[node];
+				float tl = slab(left, tmax);
+				float tr = slab(right, tmax);
+				// push the farther child first so that the nearer one is processed first
+				if( tl <= tr ) {
+					if( tr != Float.MAX_VALUE ) push(right, tr);
+					if( tl != Float.MAX_VALUE ) push(left, tl);
+				} else {
+					if( tl != Float.MAX_VALUE ) push(left, tl);
+					if( tr != Float.MAX_VALUE ) push(right, tr);
+				}
+			}
+		}
+
+		if( found == -1 )
+			return -1;
+
+		hitT = tmax;
+		if( hit != null )
+			hit.set(ox + tmax*dx, oy + tmax*dy, oz + tmax*dz);
+		return bvh.triangleIndex[found];
+	}
+
+	/**
+	 * Intersects the line with a node's bounding box
+	 *
+	 * @return Distance along the line where it enters the box or Float.MAX_VALUE if it misses
+	 */
+	private float slab( int node , float tmax ) {
+		float[] b = bvh.nodeBounds;
+		int o = node*6;
+		float t0 = 0, t1 = tmax;
+
+		// The side which is reached first depends on the sign of the slope.  Comparisons are written so that NaN,
+		// caused by the line being inside a box's side, is ignored
+		float tn = (b[o+nearX]-ox)*invX, tf = (b[o+3-nearX]-ox)*invX;
+		if( tn > t0 ) t0 = tn;
+		if( tf*SLAB_SCALE < t1 ) t1 = tf*SLAB_SCALE;
+
+		tn = (b[o+nearY]-oy)*invY; tf = (b[o+5-nearY]-oy)*invY;
+		if( tn > t0 ) t0 = tn;
+		if( tf*SLAB_SCALE < t1 ) t1 = tf*SLAB_SCALE;
+
+		tn = (b[o+nearZ]-oz)*invZ; tf = (b[o+7-nearZ]-oz)*invZ;
+		if( tn > t0 ) t0 = tn;
+		if( tf*SLAB_SCALE < t1 ) t1 = tf*SLAB_SCALE;
+
+		return t0 <= t1 ? t0 : Float.MAX_VALUE;
+	}
+
+	/**
+	 * Moller-Trumbore line-triangle intersection.  The triangle must not be parallel to the line.
+	 *
+	 * @return location along the line or -1 if it misses
+	 */
+	private float intersectTriangle( int i ) {
+		float[] v0 = bvh.v0, e0 = bvh.e0, e1 = bvh.e1;
+		int idx = i*3;
+		float e0x = e0[idx], e0y = e0[idx+1], e0z = e0[idx+2];
+		float e1x = e1[idx], e1y = e1[idx+1], e1z = e1[idx+2];
+
+		float qx = dy*e1z - dz*e1y;
+		float qy = dz*e1x - dx*e1z;
+		float qz = dx*e1y - dy*e1x;
+		float inv = 1.0f/(e0x*qx + e0y*qy + e0z*qz);
+
+		float sx = ox - v0[idx], sy = oy - v0[idx+1], sz = oz - v0[idx+2];
+		float u = (sx*qx + sy*qy + sz*qz)*inv;
+		if( u < 0 || u > 1 )
+			return -1;
+
+		float rx = sy*e0z - sz*e0y;
+		float ry = sz*e0x - sx*e0z;
+		float rz = sx*e0y - sy*e0x;
+		float v = (dx*rx + dy*ry + dz*rz)*inv;
+		if( v < 0 || u + v > 1 )
+			return -1;
+
+		return (e1x*rx + e1y*ry + e1z*rz)*inv;
+	}
+
+	/**
+	 * Finds the closest point on the mesh
+	 *
+	 * @param point (Input) The point.  Not modified.
+	 * @param closest (Output) Optional storage for the closest point on the mesh.  Can be null.
+	 * @return Index of the triangle the closest point is on or -1 if the mesh is empty
+	 */
+	public int closestPoint( Point3D_F32 point , Point3D_F32 closest ) {
+		int triangle = closestPoint(point.x, point.y, point.z);
+		if( closest != null && triangle != -1 )
+			closest.set(closestX, closestY, closestZ);
+		return triangle;
+	}
+
+	/**
+	 * Finds the closest point on the mesh.  The solution is retrieved using {@link #getClosest},
+	 * {@link #getDistance()}, and {@link #getSignedDistance()}.
+	 *
+	 * @return Index of the triangle the closest point is on or -1 if the mesh is empty
+	 */
+	public int closestPoint( float x , float y , float z ) {
+		return closestPoint(x, y, z, -1);
+	}
+
+	/**
+	 * Finds the closest point on the mesh after first examining a triangle which is likely to be close, e.g. the
+	 * solution for a neighboring point.  Its distance is used to skip nodes which can't contain a better solution.
+	 *
+	 * @param hint Index of a triangle in the tree's arrays or -1 if there is no hint
+	 * @return Index of the triangle the closest point is on or -1 if the mesh is empty
+	 */
+	int closestPoint( float x , float y , float z , int hint ) {
+		px = x; py = y; pz = z;
+		found = -1;
+		distanceSq = Float.MAX_VALUE;
+
+		if( bvh.numNodes == 0 )
+			return -1;
+
+		if( hint >= 0 ) {
+			distanceSq = closestPointTriangle(hint);
+			found = hint;
+			feature = candFeature;
+			closestX = candX; closestY = candY; closestZ = candZ;
+		}
+
+		int[] nodeStart = bvh.nodeStart;
+		int[] nodeCount = bvh.nodeCount;
+		float[] v0 = bvh.v0, normal = bvh.normal;
+
+		stackSize = 0;
+		push(0, boxDistanceSq(0));
+
+		while( stackSize > 0 ) {
+			stackSize--;
+			int node = stackNode[stackSize];
+			if( stackDistance[stackSize] >= distanceSq )
+				continue;
+
+			int count = nodeCount[node];
+			if( count > 0 ) {
+				int start = nodeStart[node];
+				for (int i = start; i < start+count; i++) {
+					// distance to the plane is a lower bound and much cheaper to compute.  It's zero if degenerate
+					int idx = i*3;
+					float h = (px-v0[idx])*normal[idx] + (py-v0[idx+1])*normal[idx+1] + (pz-v0[idx+2])*normal[idx+2];
+					if( h*h >= distanceSq )
+						continue;
+
+					float d = closestPointTriangle(i);
+					if( d < distanceSq ) {
+						distanceSq = d;
+						found = i;
+						feature = candFeature;
+						closestX = candX; closestY = candY; closestZ = candZ;
+					}
+				}
+			} else {
+				int left = node+1;
+				int right = nodeStart[node];
+				float dl = boxDistanceSq(left);
+				float dr = boxDistanceSq(right);
+				if( dl <= dr ) {
+					if( dr < distanceSq ) push(right, dr);
+					if( dl < distanceSq ) push(left, dl);
+				} else {
+					if( dl < distanceSq ) push(left, dl);
+					if( dr < distanceSq ) push(right, dr);
+				}
+			}
+		}
+
+		if( found == -1 )
+			return -1;
+		return bvh.triangleIndex[found];
+	}
+
+	/**
+	 * Signed distance from the point to the mesh.  Positive if outside and negative if inside.
+	 * See {@link TriangleMeshBvh3D_F32} for the requirements on the mesh.
+	 *
+	 * @param point (Input) The point.  Not modified.
+	 * @return Signed distance or NaN if the mesh is empty
+	 */
+	public float signedDistance( Point3D_F32 point ) {
+		if( closestPoint(point.x, point.y, point.z) == -1 )
+			return Float.NaN;
+		return getSignedDistance();
+	}
+
+	/**
+	 * Squared distance from the point to the closest point inside a node's bounding box
+	 */
+	private float boxDistanceSq( int node ) {
+		float[] b = bvh.nodeBounds;
+		int o = node*6;
+		float ex = (float)Math.max(0, (float)Math.max(b[o]-px, px-b[o+3]));
+		float ey = (float)Math.max(0, (float)Math.max(b[o+1]-py, py-b[o+4]));
+		float ez = (float)Math.max(0, (float)Math.max(b[o+2]-pz, pz-b[o+5]));
+		return ex*ex + ey*ey + ez*ez;
+	}
+
+	/**
+	 * Finds the closest point on a triangle by determining which vertex, edge, or face Voronoi region the point
+	 * is inside of.
+	 *
+	 * @return distance squared
+	 */
+	private float closestPointTriangle( int i ) {
+		float[] v0 = bvh.v0, e0 = bvh.e0, e1 = bvh.e1, normal = bvh.normal;
+		int idx = i*3;
+		float ax = v0[idx], ay = v0[idx+1], az = v0[idx+2];
+		float abx = e0[idx], aby = e0[idx+1], abz = e0[idx+2];
+		float acx = e1[idx], acy = e1[idx+1], acz = e1[idx+2];
+
+		if( normal[idx] == 0 && normal[idx+1] == 0 && normal[idx+2] == 0 )
+			return closestPointDegenerate(ax, ay, az, abx, aby, abz, acx, acy, acz);
+
+		float apx = px-ax, apy = py-ay, apz = pz-az;
+		float d1 = abx*apx + aby*apy + abz*apz;
+		float d2 = acx*apx + acy*apy + acz*apz;
+		if( d1 <= 0 && d2 <= 0 ) {
+			return candidate(ax, ay, az, VERTEX0);
+		}
+
+		float abab = abx*abx + aby*aby + abz*abz;
+		float abac = abx*acx + aby*acy + abz*acz;
+		float acac = acx*acx + acy*acy + acz*acz;
+
+		// dot products with p-b
+		float d3 = d1 - abab;
+		float d4 = d2 - abac;
+		if( d3 >= 0 && d4 <= d3 ) {
+			return candidate(ax+abx, ay+aby, az+abz, VERTEX1);
+		}
+
+		float vc = d1*d4 - d3*d2;
+		if( vc <= 0 && d1 >= 0 && d3 <= 0 ) {
+			float v = d1/(d1-d3);
+			return candidate(ax+v*abx, ay+v*aby, az+v*abz, EDGE01);
+		}
+
+		// dot products with p-c
+		float d5 = d1 - abac;
+		float d6 = d2 - acac;
+		if( d6 >= 0 && d5 <= d6 ) {
+			return candidate(ax+acx, ay+acy, az+acz, VERTEX2);
+		}
+
+		float vb = d5*d2 - d1*d6;
+		if( vb <= 0 && d2 >= 0 && d6 <= 0 ) {
+			float w = d2/(d2-d6);
+			return candidate(ax+w*acx, ay+w*acy, az+w*acz, EDGE20);
+		}
+
+		float va = d3*d6 - d5*d4;
+		if( va <= 0 && d4-d3 >= 0 && d5-d6 >= 0 ) {
+			float w = (d4-d3)/((d4-d3) + (d5-d6));
+			return candidate(ax+abx+w*(acx-abx), ay+aby+w*(acy-aby), az+abz+w*(acz-abz), EDGE12);
+		}
+
+		float sum = va + vb + vc;
+		if( !(sum > 0) )
+			return closestPointDegenerate(ax, ay, az, abx, aby, abz, acx, acy, acz);
+		float v = vb/sum;
+		float w = vc/sum;
+		return candidate(ax+v*abx+w*acx, ay+v*aby+w*acy, az+v*abz+w*acz, FACE);
+	}
+
+	/**
+	 * Closest point on a triangle with no area.  Each edge is treated as a line segment.
+	 */
+	private float closestPointDegenerate( float ax , float ay , float az ,
+										   float abx , float aby , float abz ,
+										   float acx , float acy , float acz ) {
+		float bestX = ax, bestY = ay, bestZ = az;
+		float best = Float.MAX_VALUE;
+		int bestFeature = VERTEX0;
+		for (int edge = 0; edge < 3; edge++) {
+			float sx, sy, sz, ux, uy, uz;
+			if( edge == 0 ) {
+				sx = ax; sy = ay; sz = az;
+				ux = abx; uy = aby; uz = abz;
+			} else if( edge == 1 ) {
+				sx = ax+abx; sy = ay+aby; sz = az+abz;
+				ux = acx-abx; uy = acy-aby; uz = acz-abz;
+			} else {
+				sx = ax+acx; sy = ay+acy; sz = az+acz;
+				ux = -acx; uy = -acy; uz = -acz;
+			}
+			float lengthSq = ux*ux + uy*uy + uz*uz;
+			float t = lengthSq > 0 ? ((px-sx)*ux + (py-sy)*uy + (pz-sz)*uz)/lengthSq : 0;
+			t = (float)Math.max(0, (float)Math.min(1, t));
+			float cx = sx + t*ux, cy = sy + t*uy, cz = sz + t*uz;
+			float d = (px-cx)*(px-cx) + (py-cy)*(py-cy) + (pz-cz)*(pz-cz);
+			if( d < best ) {
+				best = d;
+				bestX = cx; bestY = cy; bestZ = cz;
+				// the edge features are in the same order as the edges
+				bestFeature = t == 0 ? VERTEX0 + edge : (t == 1 ? VERTEX0 + (edge+1)%3 : EDGE01 + edge);
+			}
+		}
+		return candidate(bestX, bestY, bestZ, bestFeature);
+	}
+
+	private float candidate( float x , float y , float z , int feature ) {
+		candX = x; candY = y; candZ = z;
+		candFeature = feature;
+		return (px-x)*(px-x) + (py-y)*(py-y) + (pz-z)*(pz-z);
+	}
+
+	private void push( int node , float distance ) {
+		if( stackSize == stackNode.length ) {
+			int[] nodes = new int[stackSize*2];
+			float[] distances = new float[stackSize*2];
+			System.arraycopy(stackNode, 0, nodes, 0, stackSize);
+			System.arraycopy(stackDistance, 0, distances, 0, stackSize);
+			stackNode = nodes;
+			stackDistance = distances;
+		}
+		stackNode[stackSize] = node;
+		stackDistance[stackSize++] = distance;
+	}
+
+	/**
+	 * Closest point found by the most recent call to closestPoint
+	 */
+	public void getClosest( Point3D_F32 closest ) {
+		closest.set(closestX, closestY, closestZ);
+	}
+
+	/**
+	 * Distance to the closest point found by the most recent call to closestPoint
+	 */
+	public float getDistance() {
+		return (float)Math.sqrt(distanceSq);
+	}
+
+	/**
+	 * Signed distance to the closest point found by the most recent call to closestPoint.  The sign is found using
+	 * the pseudo normal of the vertex, edge, or face the closest point is on.  Positive if outside and negative if
+	 * inside.
+	 */
+	public float getSignedDistance() {
+		float distance = (float)Math.sqrt(distanceSq);
+		if( distance == 0 )
+			return 0;
+
+		float[] n;
+		int idx;
+		if( feature == FACE ) {
+			n = bvh.normal; idx = found*3;
+		} else if( feature <= EDGE20 ) {
+			n = bvh.edgeNormal; idx = found*9 + (feature-EDGE01)*3;
+		} else {
+			n = bvh.vertexNormal; idx = bvh.triangleVertex[found*3 + feature-VERTEX0]*3;
+		}
+		float dot = (px-closestX)*n[idx] + (py-closestY)*n[idx+1] + (pz-closestZ)*n[idx+2];
+		return dot < 0 ? -distance : distance;
+	}
+
+	/**
+	 * Location of the most recent hit along the line.  The hit is at start + t*direction, where the direction is
+	 * b-a for a line segment and the slope for a ray.
+	 */
+	public float getHitT() {
+		return hitT;
+	}
+
+	public TriangleMeshBvh3D_F32 getBvh() {
+		return bvh;
+	}
+
+	public void setBvh(TriangleMeshBvh3D_F32 bvh) {
+		this.bvh = bvh;
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.misc;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Settings and helper functions for algorithms which can split their work across multiple threads.  Work is
+ * performed inside a {@link ForkJoinPool}, which can be changed by the user.  Inputs which are smaller than the
+ * threshold are processed in the calling thread since the overhead of going concurrent would dominate.
+ * </p>
+ *
+ * <p>
+ * Concurrent algorithms only divide the work up by index, with each index being processed exactly the same
+ * way it would be in a single thread.  Unless stated otherwise, the results are identical to the single
+ * threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GrlConcurrency {
+
+	// pool that all the concurrent algorithms use.  Lazily created
+	private static volatile ForkJoinPool pool;
+
+	// inputs with fewer elements than this will be processed in a single thread
+	private static volatile int minimumConcurrent = 50000;
+
+	/**
+	 * Returns the pool used to process concurrent tasks.  If no pool has been specified then one is created
+	 * with a parallelism equal to the number of processors.
+	 */
+	public static ForkJoinPool getPool() {
+		ForkJoinPool ret = pool;
+		if( ret == null ) {
+			synchronized( GrlConcurrency.class ) {
+				if( pool == null )
+					pool = new ForkJoinPool();
+				ret = pool;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Changes the pool used to process concurrent tasks.
+	 *
+	 * @param pool The new pool.  If null then a default pool will be created the next time it is needed.
+	 */
+	public static void setPool( ForkJoinPool pool ) {
+		GrlConcurrency.pool = pool;
+	}
+
+	/**
+	 * Inputs which have fewer than this number of elements are processed in a single thread.
+	 */
+	public static int getMinimumConcurrent() {
+		return minimumConcurrent;
+	}
+
+	/**
+	 * Specifies the number of elements an input must have before it's processed in multiple threads.
+	 *
+	 * @param minimumConcurrent Minimum number of elements.  Must be &ge; 1.
+	 */
+	public static void setMinimumConcurrent( int minimumConcurrent ) {
+		if( minimumConcurrent < 1 )
+			throw new IllegalArgumentException("Must be at least 1");
+		GrlConcurrency.minimumConcurrent = minimumConcurrent;
+	}
+
+	/**
+	 * Processes the range of indexes [start,end) by breaking it up into blocks which are handed to the task.
+	 * If the range is smaller than {@link #getMinimumConcurrent()} it's handed to the task as a single
+	 * block in the calling thread.  The function doesn't return until all blocks have been processed.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param task Processes a block of indexes.  Must be safe to call from multiple threads at once.
+	 */
+	public static void loopBlocks( int start , int end , IntRangeTask task ) {
+		int length = end-start;
+		if( length <= 0 )
+			return;
+
+		if( length < minimumConcurrent ) {
+			task.process(start,end);
+			return;
+		}
+
+		ForkJoinPool pool = getPool();
+
+		// create several blocks per thread so that the load can be balanced
+		int blockSize = Math.max(1,length/(pool.getParallelism()*4));
+		blockSize = Math.max(blockSize,Math.min(length,minimumConcurrent/4));
+
+		pool.invoke(new BlockAction(task,start,end,blockSize));
+	}
+
+	/**
+	 * Processes the range of indexes [start,end) in blocks which contain exactly blockSize indexes, except for the
+	 * last block which can be smaller.  Unlike {@link #loopBlocks} the block boundaries do not depend on the
+	 * number of threads.  Algorithms which reduce each block to a partial result and then combine the partial
+	 * results in a fixed order will produce identical output no matter how many threads are used.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param blockSize Number of indexes in each block.  Must be &ge; 1.
+	 * @param task Called once for each block.  Must be safe to call from multiple threads at once.
+	 */
+	public static void loopFixedBlocks( int start , int end , int blockSize , IntRangeTask task ) {
+		loopFixedBlocks(start, end, blockSize, 1, task);
+	}
+
+	/**
+	 * Same as {@link #loopFixedBlocks(int, int, int, IntRangeTask)} but for tasks where processing a single index
+	 * is expensive.  The range is processed concurrently when the number of indexes multiplied by the cost is at
+	 * least {@link #getMinimumConcurrent()}.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param blockSize Number of indexes in each block.  Must be &ge; 1.
+	 * @param cost Approximate amount of work needed to process one index, in units of elements.  Must be &ge; 1.
+	 * @param task Called once for each block.  Must be safe to call from multiple threads at once.
+	 */
+	public static void loopFixedBlocks( int start , int end , int blockSize , int cost , IntRangeTask task ) {
+		if( blockSize < 1 )
+			throw new IllegalArgumentException("Block size must be at least 1");
+		int length = end-start;
+		if( length <= 0 )
+			return;
+
+		int numBlocks = (length + blockSize - 1)/blockSize;
+
+		if( cost < 1 )
+			throw new IllegalArgumentException("Cost must be at least 1");
+
+		if( (long)length*cost < minimumConcurrent || numBlocks == 1 ) {
+			for (int block = 0; block < numBlocks; block++) {
+				int idx0 = start + block*blockSize;
+				task.process(idx0,Math.min(end,idx0+blockSize));
+			}
+			return;
+		}
+
+		ForkJoinPool pool = getPool();
+
+		int blocksPerTask = Math.max(1,numBlocks/(pool.getParallelism()*4));
+
+		pool.invoke(new FixedBlockAction(task,start,end,blockSize,0,numBlocks,blocksPerTask));
+	}
+
+	/**
+	 * Processes a block of indexes.
+	 */
+	public interface IntRangeTask {
+		/**
+		 * @param idx0 First index in the block, inclusive
+		 * @param idx1 Last index in the block, exclusive
+		 */
+		void process( int idx0 , int idx1 );
+	}
+
+	/**
+	 * Recursively splits the range in half until it's smaller than the block size
+	 */
+	private static class BlockAction extends RecursiveAction {
+		IntRangeTask task;
+		int idx0, idx1;
+		int blockSize;
+
+		BlockAction(IntRangeTask task, int idx0, int idx1, int blockSize) {
+			this.task = task;
+			this.idx0 = idx0;
+			this.idx1 = idx1;
+			this.blockSize = blockSize;
+		}
+
+		@Override
+		protected void compute() {
+			if( idx1-idx0 <= blockSize ) {
+				task.process(idx0,idx1);
+			} else {
+				int middle = idx0 + (idx1-idx0)/2;
+				invokeAll(new BlockAction(task,idx0,middle,blockSize),
+						new BlockAction(task,middle,idx1,blockSize));
+			}
+		}
+	}
+
+	/**
+	 * Recursively splits a range of fixed size blocks in half until there are few enough blocks
+	 */
+	private static class FixedBlockAction extends RecursiveAction {
+		IntRangeTask task;
+		int start, end;
+		int blockSize;
+		int block0, block1;
+		int blocksPerTask;
+
+		FixedBlockAction(IntRangeTask task, int start, int end, int blockSize,
+						 int block0, int block1, int blocksPerTask) {
+			this.task = task;
+			this.start = start;
+			this.end = end;
+			this.blockSize = blockSize;
+			this.block0 = block0;
+			this.block1 = block1;
+			this.blocksPerTask = blocksPerTask;
+		}
+
+		@Override
+		protected void compute() {
+			if( block1-block0 <= blocksPerTask ) {
+				for (int block = block0; block < block1; block++) {
+					int idx0 = start + block*blockSize;
+					task.process(idx0,Math.min(end,idx0+blockSize));
+				}
+			} else {
+				int middle = block0 + (block1-block0)/2;
+				invokeAll(new FixedBlockAction(task,start,end,blockSize,block0,middle,blocksPerTask),
+						new FixedBlockAction(task,start,end,blockSize,middle,block1,blocksPerTask));
+			}
+		}
+	}
+}
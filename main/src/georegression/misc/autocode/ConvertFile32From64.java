@@ -31,6 +31,10 @@ public class ConvertFile32From64 {
 	InputStream in;
 	PrintStream out;
 
+	// true while inside of a comment.  Numbers in comments, e.g. "22.4" in a citation, are not converted
+	boolean insideBlockComment;
+	boolean insideLineComment;
+
 	public ConvertFile32From64( File inputFile ) throws FileNotFoundException {
 		in = new FileInputStream( inputFile );
 
@@ -55,6 +59,8 @@ public class ConvertFile32From64 {
 					s.delete( 0, s.length() );
 					prevChar = false;
 				}
+				if( n == '\n' )
+					insideLineComment = false;
 				out.write( n );
 			} else {
 				prevChar = true;
@@ -98,10 +104,12 @@ public class ConvertFile32From64 {
 		s = s.replaceAll( "GrlConstants.PI2", "GrlConstants.F_PI2" );
 		s = s.replaceAll( "GrlConstants.PId2", "GrlConstants.F_PId2" );
 		s = s.replaceAll( "GrlConstants.EPS", "GrlConstants.F_EPS" );
-		s = replaceStartString( s, "Math.", "(float)Math." );
-		s = replaceStartString( s, "-Math.", "(float)-Math." );
-		s = replaceStartString( s, "rand.nextGaussian", "(float)rand.nextGaussian" );
-		s = handleFloats( s );
+		if( !insideComment(s) ) {
+			s = replaceStartString( s, "Math.", "(float)Math." );
+			s = replaceStartString( s, "-Math.", "(float)-Math." );
+			s = replaceStartString( s, "rand.nextGaussian", "(float)rand.nextGaussian" );
+			s = handleFloats( s );
+		}
 
 		// put the doubles back in
 		s = s.replaceAll( "FIXED_DOUBLE","/\\*\\*/double" );
@@ -109,6 +117,33 @@ public class ConvertFile32From64 {
 		out.print( s );
 	}
 
+	/**
+	 * Returns true if the token is part of a comment and updates the comment state for the following tokens.
+	 * A token which starts as code is treated as code.
+	 */
+	private boolean insideComment( String token ) {
+		boolean comment = insideBlockComment || insideLineComment ||
+				token.startsWith("//") || token.startsWith("/*");
+
+		for (int i = 0; i < token.length()-1; i++) {
+			if( insideLineComment )
+				break;
+			if( insideBlockComment ) {
+				if( token.startsWith("*/",i) ) {
+					insideBlockComment = false;
+					i++;
+				}
+			} else if( token.startsWith("//",i) ) {
+				insideLineComment = true;
+			} else if( token.startsWith("/*",i) ) {
+				insideBlockComment = true;
+				i++;
+			}
+		}
+
+		return comment;
+	}
+
 	/**
 	 * Looks for a floating point constant number and tacks on a 'f' to the end
 	 * to make it into a float and not a double.
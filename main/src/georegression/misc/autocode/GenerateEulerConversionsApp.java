@@ -0,0 +1,432 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.misc.autocode;
+
+import georegression.struct.EulerType;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Generates closed form code for converting between Euler angles and rotation matrices for every {@link EulerType}.
+ * The code is printed to standard out, pasted into {@link georegression.geometry.ConvertRotation3D_F64} and
+ * {@link georegression.geometry.algs.ConvertRotation3DBatch_F64}, and then converted into 32bit code.
+ * </p>
+ *
+ * <p>
+ * Euler to matrix: R = R<sub>C</sub>*R<sub>B</sub>*R<sub>A</sub> is multiplied out symbolically with each element
+ * being a polynomial of the sine and cosine of the three angles.<br>
+ * Matrix to Euler: elements which only depend on one or two angles are found in the symbolic matrix and are used
+ * to recover the angles.  At a singularity only the sum or difference of the first and third angle can be found.
+ * Elements for that case are found by numerically testing every candidate.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateEulerConversionsApp {
+
+	// variables which can appear in a term. cosine and sine of each angle
+	static final String VARIABLES[] = {"ca","sa","cb","sb","cc","sc"};
+
+	PrintStream out;
+
+	Random rand = new Random(234);
+
+	public GenerateEulerConversionsApp( PrintStream out ) {
+		this.out = out;
+	}
+
+	/**
+	 * Prints the body of a switch statement which assigns the closed form rotation matrix for each type.
+	 *
+	 * @param matrix Name of the output array
+	 * @param offset Offset added to each index or an empty string
+	 */
+	public void printEulerToMatrix( String matrix , String offset ) {
+		for( EulerType type : EulerType.values() ) {
+			Poly R[] = eulerToMatrix(type);
+
+			out.println("\t\t\tcase "+type+":");
+			for (int i = 0; i < 9; i++) {
+				// with an offset the first index is padded so that the assignments line up
+				String index = offset.length() == 0 ? ""+i : (i == 0 ? offset+"  " : offset+"+"+i);
+				out.println("\t\t\t\t"+matrix+"["+index+"] = "+R[i]+";");
+			}
+			out.println("\t\t\t\tbreak;");
+			out.println();
+		}
+	}
+
+	/**
+	 * Prints the body of a switch statement which selects the matrix elements, named m00 to m22, for each type.
+	 *
+	 * @param sinFunction Name of the function used for Tait-Bryan angles
+	 * @param cosFunction Name of the function used for proper Euler angles
+	 * @param arguments Arguments after the matrix elements
+	 */
+	public void printMatrixToEuler( String sinFunction , String cosFunction , String arguments ) {
+		for( EulerType type : EulerType.values() ) {
+			String elements[] = matrixToEuler(type);
+			boolean proper = type.getAxisA() == type.getAxisC();
+
+			StringBuilder call = new StringBuilder();
+			call.append(proper ? cosFunction : sinFunction).append('(');
+			for (int i = 0; i < elements.length; i++) {
+				call.append(elements[i]).append(", ");
+			}
+			call.append(arguments).append(");");
+
+			out.println("\t\t\tcase "+type+":");
+			out.println("\t\t\t\t"+call);
+			out.println("\t\t\t\tbreak;");
+			out.println();
+		}
+	}
+
+	/**
+	 * Multiplies the three rotation matrices together symbolically.
+	 */
+	public static Poly[] eulerToMatrix( EulerType type ) {
+		Poly Ra[] = rotation(type.getAxisA(), 0);
+		Poly Rb[] = rotation(type.getAxisB(), 1);
+		Poly Rc[] = rotation(type.getAxisC(), 2);
+
+		return mult(Rc, mult(Rb, Ra));
+	}
+
+	/**
+	 * Selects the matrix elements used to find each angle.  The order matches the arguments of the functions
+	 * in {@link georegression.geometry.ConvertRotation3D_F64}, which are: y0, x0, center, y2, x2,
+	 * cos0a, cos0b, sin0a, sin0b.  A negative element is written with a minus sign.
+	 */
+	public String[] matrixToEuler( EulerType type ) {
+		Poly R[] = eulerToMatrix(type);
+		boolean proper = type.getAxisA() == type.getAxisC();
+
+		String found[] = new String[9];
+
+		// the middle angle.  sin(b) for Tait-Bryan and cos(b) for proper Euler angles
+		found[2] = findTerm(R, new int[]{0,0,proper?1:0,proper?0:1,0,0});
+
+		// the first and third angle are found with atan2 from elements which are scaled by the same function of b
+		int scaleB[] = proper ? new int[]{0,0,0,1,0,0} : new int[]{0,0,1,0,0,0};
+		found[0] = findTerm(R, add(scaleB, new int[]{0,1,0,0,0,0}));
+		found[1] = findTerm(R, add(scaleB, new int[]{1,0,0,0,0,0}));
+		found[3] = findTerm(R, add(scaleB, new int[]{0,0,0,0,0,1}));
+		found[4] = findTerm(R, add(scaleB, new int[]{0,0,0,0,1,0}));
+
+		// at the singularity
+		String cos[] = findSingular(type, R, false);
+		String sin[] = findSingular(type, R, true);
+		found[5] = cos[0];
+		found[6] = cos[1];
+		found[7] = sin[0];
+		found[8] = sin[1];
+
+		return found;
+	}
+
+	/**
+	 * Finds the element which is composed of a single term with the specified exponents
+	 */
+	private static String findTerm( Poly R[] , int exponents[] ) {
+		String match = null;
+		for (int i = 0; i < 9; i++) {
+			if( R[i].terms.size() != 1 )
+				continue;
+			Map.Entry<String,Integer> term = R[i].terms.entrySet().iterator().next();
+			if( !term.getKey().equals(Poly.key(exponents)) )
+				continue;
+			if( match != null || Math.abs(term.getValue()) != 1 )
+				throw new RuntimeException("Unexpected matrix structure");
+			match = (term.getValue() < 0 ? "-" : "") + element(i);
+		}
+		if( match == null )
+			throw new RuntimeException("No element found");
+		return match;
+	}
+
+	/**
+	 * At a singularity the middle angle is &plusmn;&pi;/2 for Tait-Bryan angles and 0 or &pi; for proper Euler
+	 * angles.  Then only the first angle is found and the third is set to zero.  The sine (or cosine) of the first
+	 * angle is found using (u + sign*v)/2, where u and v are elements and sign is the sign of the middle element.
+	 * Every pair of elements is tested numerically until one is found which works for both signs.
+	 */
+	private String[] findSingular( EulerType type , Poly R[] , boolean sine ) {
+		boolean proper = type.getAxisA() == type.getAxisC();
+		double singularB[] = proper ? new double[]{0,Math.PI} : new double[]{Math.PI/2.0,-Math.PI/2.0};
+
+		// elements which depend on both the first and third angles
+		List<Integer> candidates = new ArrayList<Integer>();
+		for (int i = 0; i < 9; i++) {
+			if( R[i].uses(0) && R[i].uses(2) )
+				candidates.add(i);
+		}
+
+		// random angles for testing
+		double trials[][] = new double[10][];
+		for (int i = 0; i < trials.length; i++) {
+			trials[i] = new double[]{(rand.nextDouble()-0.5)*2*Math.PI,(rand.nextDouble()-0.5)*2*Math.PI};
+		}
+
+		for( int a : candidates ) {
+			for( int b : candidates ) {
+				if( a == b )
+					continue;
+				for (int signs = 0; signs < 4; signs++) {
+					int signA = signs%2 == 0 ? 1 : -1;
+					int signB = signs/2 == 0 ? 1 : -1;
+					if( isSingularSolution(type, R, sine, singularB, trials, a, signA, b, signB) ) {
+						return new String[]{(signA < 0 ? "-" : "")+element(a),(signB < 0 ? "-" : "")+element(b)};
+					}
+				}
+			}
+		}
+		throw new RuntimeException("No solution at the singularity for "+type);
+	}
+
+	private static boolean isSingularSolution( EulerType type , Poly R[] , boolean sine , double singularB[] ,
+											   double trials[][] ,
+											   int a , int signA , int b , int signB ) {
+		for (int k = 0; k < singularB.length; k++) {
+			double rotB = singularB[k];
+			double sign = k == 0 ? 1 : -1;
+
+			for( double trial[] : trials ) {
+				double values[] = values(trial[0], rotB, trial[1]);
+				double found = (signA*R[a].evaluate(values) + sign*signB*R[b].evaluate(values))/2.0;
+
+				// recover the first angle, with the third angle being zero, and see if it's the same rotation
+				double angle = sine ? Math.asin(found) : Math.acos(found);
+				if( !sameRotation(type, values, angle, rotB, sine) )
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sees if the angle found from just its sine or cosine produces the same rotation.  Since only its sine or
+	 * cosine is known, both possible angles are tried.
+	 */
+	private static boolean sameRotation( EulerType type , double values[] , double angle , double rotB ,
+										 boolean sine ) {
+		Poly R[] = eulerToMatrix(type);
+		double alternative = sine ? Math.PI - angle : -angle;
+
+		for( double a : new double[]{angle,alternative} ) {
+			double found[] = values(a, rotB, 0);
+			boolean matched = true;
+			for (int i = 0; i < 9 && matched; i++) {
+				matched = Math.abs(R[i].evaluate(values) - R[i].evaluate(found)) <= 1e-8;
+			}
+			if( matched )
+				return true;
+		}
+		return false;
+	}
+
+	private static double[] values( double rotA , double rotB , double rotC ) {
+		return new double[]{Math.cos(rotA),Math.sin(rotA),Math.cos(rotB),Math.sin(rotB),
+				Math.cos(rotC),Math.sin(rotC)};
+	}
+
+	private static int[] add( int a[] , int b[] ) {
+		int c[] = new int[a.length];
+		for (int i = 0; i < a.length; i++) {
+			c[i] = a[i] + b[i];
+		}
+		return c;
+	}
+
+	private static String element( int index ) {
+		return "m"+(index/3)+(index%3);
+	}
+
+	/**
+	 * Symbolic rotation matrix around the specified axis
+	 *
+	 * @param axis 0 = x, 1 = y, 2 = z
+	 * @param angle 0 = a, 1 = b, 2 = c
+	 */
+	private static Poly[] rotation( int axis , int angle ) {
+		Poly R[] = new Poly[9];
+		for (int i = 0; i < 9; i++) {
+			R[i] = new Poly();
+		}
+		int i = (axis+1)%3, j = (axis+2)%3;
+
+		R[axis*3+axis] = Poly.constant(1);
+		R[i*3+i] = Poly.variable(angle*2, 1);
+		R[j*3+j] = Poly.variable(angle*2, 1);
+		R[i*3+j] = Poly.variable(angle*2+1, -1);
+		R[j*3+i] = Poly.variable(angle*2+1, 1);
+
+		return R;
+	}
+
+	private static Poly[] mult( Poly A[] , Poly B[] ) {
+		Poly C[] = new Poly[9];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				Poly sum = new Poly();
+				for (int k = 0; k < 3; k++) {
+					sum = sum.plus(A[i*3+k].times(B[k*3+j]));
+				}
+				C[i*3+j] = sum;
+			}
+		}
+		return C;
+	}
+
+	/**
+	 * Polynomial of {@link #VARIABLES} with integer coefficients.  Each term is identified by a string containing
+	 * the exponent of each variable.
+	 */
+	public static class Poly {
+		TreeMap<String,Integer> terms = new TreeMap<String,Integer>();
+
+		public static Poly constant( int value ) {
+			Poly p = new Poly();
+			if( value != 0 )
+				p.terms.put(key(new int[VARIABLES.length]), value);
+			return p;
+		}
+
+		public static Poly variable( int which , int coefficient ) {
+			int exponents[] = new int[VARIABLES.length];
+			exponents[which] = 1;
+			Poly p = new Poly();
+			p.terms.put(key(exponents), coefficient);
+			return p;
+		}
+
+		public Poly plus( Poly b ) {
+			Poly c = new Poly();
+			c.terms.putAll(terms);
+			for( Map.Entry<String,Integer> t : b.terms.entrySet() ) {
+				c.add(t.getKey(), t.getValue());
+			}
+			return c;
+		}
+
+		public Poly times( Poly b ) {
+			Poly c = new Poly();
+			for( Map.Entry<String,Integer> ta : terms.entrySet() ) {
+				for( Map.Entry<String,Integer> tb : b.terms.entrySet() ) {
+					int exponents[] = new int[VARIABLES.length];
+					for (int i = 0; i < exponents.length; i++) {
+						exponents[i] = (ta.getKey().charAt(i)-'0') + (tb.getKey().charAt(i)-'0');
+					}
+					c.add(key(exponents), ta.getValue()*tb.getValue());
+				}
+			}
+			return c;
+		}
+
+		private void add( String key , int coefficient ) {
+			Integer previous = terms.get(key);
+			int total = (previous == null ? 0 : previous) + coefficient;
+			if( total == 0 )
+				terms.remove(key);
+			else
+				terms.put(key, total);
+		}
+
+		/**
+		 * Returns true if the sine or cosine of the specified angle is used
+		 */
+		public boolean uses( int angle ) {
+			for( String key : terms.keySet() ) {
+				if( key.charAt(angle*2) != '0' || key.charAt(angle*2+1) != '0' )
+					return true;
+			}
+			return false;
+		}
+
+		public double evaluate( double values[] ) {
+			double total = 0;
+			for( Map.Entry<String,Integer> t : terms.entrySet() ) {
+				double product = t.getValue();
+				for (int i = 0; i < values.length; i++) {
+					product *= Math.pow(values[i], t.getKey().charAt(i)-'0');
+				}
+				total += product;
+			}
+			return total;
+		}
+
+		static String key( int exponents[] ) {
+			StringBuilder s = new StringBuilder();
+			for (int i = 0; i < exponents.length; i++) {
+				s.append(exponents[i]);
+			}
+			return s.toString();
+		}
+
+		@Override
+		public String toString() {
+			if( terms.isEmpty() )
+				return "0";
+
+			StringBuilder s = new StringBuilder();
+			// terms with the most variables are listed first
+			for( Map.Entry<String,Integer> t : terms.descendingMap().entrySet() ) {
+				int coefficient = t.getValue();
+				if( s.length() == 0 )
+					s.append(coefficient < 0 ? "-" : "");
+				else
+					s.append(coefficient < 0 ? " - " : " + ");
+
+				StringBuilder product = new StringBuilder();
+				if( Math.abs(coefficient) != 1 )
+					product.append(Math.abs(coefficient));
+				String key = t.getKey();
+				for (int i = 0; i < key.length(); i++) {
+					for (int j = 0; j < key.charAt(i)-'0'; j++) {
+						if( product.length() > 0 )
+							product.append('*');
+						product.append(VARIABLES[i]);
+					}
+				}
+				s.append(product.length() == 0 ? "1" : product);
+			}
+			return s.toString();
+		}
+	}
+
+	public static void main( String args[] ) {
+		GenerateEulerConversionsApp app = new GenerateEulerConversionsApp(System.out);
+
+		System.out.println("---------- ConvertRotation3D_F64.eulerToMatrix()");
+		app.printEulerToMatrix("R.data", "");
+		System.out.println("---------- ConvertRotation3DBatch_F64.eulerToMatrix()");
+		app.printEulerToMatrix("R", "o");
+		System.out.println("---------- ConvertRotation3D_F64.matrixToEuler()");
+		app.printMatrixToEuler("TanSinTan", "TanCosTan", "euler");
+		System.out.println("---------- ConvertRotation3DBatch_F64.matrixToEuler()");
+		app.printMatrixToEuler("tanSinTan", "tanCosTan", "euler, e");
+	}
+}
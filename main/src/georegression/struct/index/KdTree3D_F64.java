@@ -0,0 +1,549 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * K-D tree for finding the nearest neighbors of 3D points.  The tree is balanced and stored implicitly.  The points
+ * are copied into a single packed array and rearranged so that each node is the median of its sub-array, with
+ * the points before it in the left branch and the points after it in the right branch.  The branch is split along
+ * the axis with the largest spread.  Sub-arrays with {@link #LEAF_SIZE} or fewer points are leaves and are searched
+ * exhaustively.  Construction is O(n log n) and can optionally be done concurrently, see
+ * {@link #setConcurrent(boolean)}.
+ * </p>
+ *
+ * <p>
+ * Searches return the index of points in the original input.  Once built the tree is not modified by
+ * searches, which can be performed by multiple threads at once when each thread has its own output storage.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTree3D_F64 {
+	/**
+	 * Maximum number of points in a leaf
+	 */
+	public static final int LEAF_SIZE = 8;
+
+	// packed (x,y,z) coordinates in tree order
+	double data[] = new double[0];
+	// index of each point in the original input
+	int indexes[] = new int[0];
+	// axis that the node at each position splits along.  Only used by nodes which aren't leaves
+	byte axes[] = new byte[0];
+	// number of points in the tree
+	int size;
+
+	// if true the tree is built concurrently
+	boolean concurrent = false;
+
+	/**
+	 * Builds the tree from a list of points.
+	 *
+	 * @param points Points.  Not modified.
+	 */
+	public void build( List<Point3D_F64> points ) {
+		declare(points.size());
+		for (int i = 0; i < size; i++) {
+			Point3D_F64 p = points.get(i);
+			data[i*3  ] = p.x;
+			data[i*3+1] = p.y;
+			data[i*3+2] = p.z;
+		}
+		build();
+	}
+
+	/**
+	 * Builds the tree from packed points.
+	 *
+	 * @param points Points.  Not modified.
+	 */
+	public void build( PackedPoint3D_F64 points ) {
+		build(points.data, 0, points.size);
+	}
+
+	/**
+	 * Builds the tree from an array of interleaved (x,y,z) coordinates.
+	 *
+	 * @param points Array with the points.  Not modified.
+	 * @param offset Index of the first element in the array
+	 * @param count Number of points
+	 */
+	public void build( double points[] , int offset , int count ) {
+		declare(count);
+		System.arraycopy(points, offset, data, 0, count*3);
+		build();
+	}
+
+	private void declare( int N ) {
+		if( indexes.length < N ) {
+			data = new double[N*3];
+			indexes = new int[N];
+			axes = new byte[N];
+		}
+		size = N;
+		for (int i = 0; i < N; i++) {
+			indexes[i] = i;
+		}
+	}
+
+	private void build() {
+		int minimum = GrlConcurrency.getMinimumConcurrent();
+		if( concurrent && size >= minimum ) {
+			int threshold = minimum/4 > LEAF_SIZE ? minimum/4 : LEAF_SIZE;
+			GrlConcurrency.getPool().invoke(new BuildAction(0, size, threshold));
+		} else {
+			buildRange(0, size);
+		}
+	}
+
+	/**
+	 * Recursively builds the tree for the sub-array [lo,hi)
+	 */
+	void buildRange( int lo , int hi ) {
+		while( hi-lo > LEAF_SIZE ) {
+			int m = split(lo, hi);
+			buildRange(lo, m);
+			lo = m+1;
+		}
+	}
+
+	/**
+	 * Selects the split axis for the sub-array and moves the median along that axis to the middle.
+	 *
+	 * @return The median's position
+	 */
+	int split( int lo , int hi ) {
+		double minX = data[lo*3  ], maxX = minX;
+		double minY = data[lo*3+1], maxY = minY;
+		double minZ = data[lo*3+2], maxZ = minZ;
+		for (int i = lo+1; i < hi; i++) {
+			double x = data[i*3], y = data[i*3+1], z = data[i*3+2];
+			if( x < minX ) minX = x; else if( x > maxX ) maxX = x;
+			if( y < minY ) minY = y; else if( y > maxY ) maxY = y;
+			if( z < minZ ) minZ = z; else if( z > maxZ ) maxZ = z;
+		}
+
+		double spreadX = maxX-minX, spreadY = maxY-minY, spreadZ = maxZ-minZ;
+		int axis;
+		if( spreadX >= spreadY )
+			axis = spreadX >= spreadZ ? 0 : 2;
+		else
+			axis = spreadY >= spreadZ ? 1 : 2;
+
+		int m = (lo+hi) >>> 1;
+		select(lo, hi, m, axis);
+		axes[m] = (byte)axis;
+		return m;
+	}
+
+	/**
+	 * Rearranges the sub-array [lo,hi) so that the element at k is the one which would be there if it was sorted
+	 * along the axis.  Elements before k are &le; and elements after k are &ge;.
+	 */
+	void select( int lo , int hi , int k , int axis ) {
+		int left = lo, right = hi-1;
+		while( right > left ) {
+			// median of three pivot
+			int mid = (left+right) >>> 1;
+			if( data[mid*3+axis] < data[left*3+axis] ) swap(mid, left);
+			if( data[right*3+axis] < data[left*3+axis] ) swap(right, left);
+			if( data[right*3+axis] < data[mid*3+axis] ) swap(right, mid);
+			double pivot = data[mid*3+axis];
+
+			int i = left, j = right;
+			while( i <= j ) {
+				while( data[i*3+axis] < pivot ) i++;
+				while( data[j*3+axis] > pivot ) j--;
+				if( i <= j ) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+
+			if( k <= j )
+				right = j;
+			else if( k >= i )
+				left = i;
+			else
+				break;
+		}
+	}
+
+	private void swap( int i , int j ) {
+		int a = i*3, b = j*3;
+		double tmp;
+		tmp = data[a  ]; data[a  ] = data[b  ]; data[b  ] = tmp;
+		tmp = data[a+1]; data[a+1] = data[b+1]; data[b+1] = tmp;
+		tmp = data[a+2]; data[a+2] = data[b+2]; data[b+2] = tmp;
+		int itmp = indexes[i]; indexes[i] = indexes[j]; indexes[j] = itmp;
+	}
+
+	/**
+	 * Finds the point which is closest to the query point.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param maxDistance Only points with a Euclidean distance &le; this are considered.
+	 *                    Use Double.MAX_VALUE for no limit.
+	 * @return Index of the closest point in the input or -1 if no point is close enough.
+	 */
+	public int findNearest( double x , double y , double z , double maxDistance ) {
+		double maxDistance2 = maxDistance >= Double.MAX_VALUE ? Double.MAX_VALUE : maxDistance*maxDistance;
+		int best = nearest(0, size, x, y, z, -1, maxDistance2);
+		return best < 0 ? -1 : indexes[best];
+	}
+
+	/**
+	 * @see #findNearest(double, double, double, double)
+	 */
+	public int findNearest( Point3D_F64 p , double maxDistance ) {
+		return findNearest(p.x, p.y, p.z, maxDistance);
+	}
+
+	/**
+	 * Finds the nearest neighbor of every query point.  Can be processed concurrently.
+	 *
+	 * @param queries Points being searched for.  Not modified.
+	 * @param maxDistance Only points with a Euclidean distance &le; this are considered.
+	 * @param output Storage for the index of each query point's nearest neighbor, -1 if there is none.
+	 *               Is resized.
+	 */
+	public void findNearest( final PackedPoint3D_F64 queries , double maxDistance , final GrowQueue_I32 output ) {
+		final double maxDistance2 = maxDistance >= Double.MAX_VALUE ? Double.MAX_VALUE : maxDistance*maxDistance;
+		output.resize(queries.size);
+
+		GrlConcurrency.IntRangeTask task = new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				double points[] = queries.data;
+				for (int i = idx0; i < idx1; i++) {
+					int best = nearest(0, size, points[i*3], points[i*3+1], points[i*3+2], -1, maxDistance2);
+					output.data[i] = best < 0 ? -1 : indexes[best];
+				}
+			}
+		};
+
+		if( concurrent ) {
+			// each search is expensive so use a smaller threshold than a simple loop would
+			GrlConcurrency.loopFixedBlocks(0, queries.size, 256, 32, task);
+		} else {
+			task.process(0, queries.size);
+		}
+	}
+
+	/**
+	 * Searches the sub-array [lo,hi) for a point closer than the best found so far.
+	 *
+	 * @param best Position of the best point found so far, -1 if none
+	 * @param bestDistance2 Distance squared of the best point or the maximum distance squared
+	 * @return Position of the best point found so far, -1 if none
+	 */
+	private int nearest( int lo , int hi , double x , double y , double z , int best , double bestDistance2 ) {
+		if( hi-lo <= LEAF_SIZE ) {
+			for (int i = lo; i < hi; i++) {
+				double d2 = distance2(i, x, y, z);
+				if( d2 <= bestDistance2 ) {
+					bestDistance2 = d2;
+					best = i;
+				}
+			}
+			return best;
+		}
+
+		int m = (lo+hi) >>> 1;
+		int axis = axes[m];
+		double diff = axis == 0 ? x - data[m*3] : (axis == 1 ? y - data[m*3+1] : z - data[m*3+2]);
+
+		double d2 = distance2(m, x, y, z);
+		if( d2 <= bestDistance2 ) {
+			bestDistance2 = d2;
+			best = m;
+		}
+
+		int nearLo, nearHi, farLo, farHi;
+		if( diff < 0 ) {
+			nearLo = lo; nearHi = m; farLo = m+1; farHi = hi;
+		} else {
+			nearLo = m+1; nearHi = hi; farLo = lo; farHi = m;
+		}
+
+		int found = nearest(nearLo, nearHi, x, y, z, best, bestDistance2);
+		if( found != best ) {
+			best = found;
+			bestDistance2 = distance2(best, x, y, z);
+		}
+		if( diff*diff <= bestDistance2 ) {
+			best = nearest(farLo, farHi, x, y, z, best, bestDistance2);
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the K closest points to the query point.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param maxDistance Only points with a Euclidean distance &le; this are considered.
+	 *                    Use Double.MAX_VALUE for no limit.
+	 * @param k Maximum number of points which are returned
+	 * @param outIndexes Storage for the input index of each neighbor.  Sorted from closest to farthest.
+	 * @param outDistance2 Storage for the Euclidean distance squared of each neighbor.
+	 */
+	public void findNearest( double x , double y , double z , double maxDistance , int k ,
+							 GrowQueue_I32 outIndexes , GrowQueue_F64 outDistance2 ) {
+		double maxDistance2 = maxDistance >= Double.MAX_VALUE ? Double.MAX_VALUE : maxDistance*maxDistance;
+
+		// the output is used as a max heap while searching
+		outIndexes.resize(k);
+		outDistance2.resize(k);
+		outIndexes.size = 0;
+		outDistance2.size = 0;
+
+		if( k > 0 )
+			nearestK(0, size, x, y, z, k, maxDistance2, outIndexes, outDistance2);
+
+		// heap sort into ascending order
+		int[] heapIdx = outIndexes.data;
+		double[] heapD = outDistance2.data;
+		for (int end = outIndexes.size-1; end > 0; end--) {
+			double td = heapD[0]; heapD[0] = heapD[end]; heapD[end] = td;
+			int ti = heapIdx[0]; heapIdx[0] = heapIdx[end]; heapIdx[end] = ti;
+			siftDown(heapIdx, heapD, 0, end);
+		}
+
+		// convert from tree position into input index
+		for (int i = 0; i < outIndexes.size; i++) {
+			heapIdx[i] = indexes[heapIdx[i]];
+		}
+	}
+
+	/**
+	 * @see #findNearest(double, double, double, double, int, GrowQueue_I32, GrowQueue_F64)
+	 */
+	public void findNearest( Point3D_F64 p , double maxDistance , int k ,
+							 GrowQueue_I32 outIndexes , GrowQueue_F64 outDistance2 ) {
+		findNearest(p.x, p.y, p.z, maxDistance, k, outIndexes, outDistance2);
+	}
+
+	private void nearestK( int lo , int hi , double x , double y , double z , int k , double maxDistance2 ,
+						   GrowQueue_I32 heapIdx , GrowQueue_F64 heapD ) {
+		if( hi-lo <= LEAF_SIZE ) {
+			for (int i = lo; i < hi; i++) {
+				offer(i, distance2(i, x, y, z), k, maxDistance2, heapIdx, heapD);
+			}
+			return;
+		}
+
+		int m = (lo+hi) >>> 1;
+		int axis = axes[m];
+		double diff = axis == 0 ? x - data[m*3] : (axis == 1 ? y - data[m*3+1] : z - data[m*3+2]);
+
+		offer(m, distance2(m, x, y, z), k, maxDistance2, heapIdx, heapD);
+
+		if( diff < 0 ) {
+			nearestK(lo, m, x, y, z, k, maxDistance2, heapIdx, heapD);
+			if( diff*diff <= bound(k, maxDistance2, heapD) )
+				nearestK(m+1, hi, x, y, z, k, maxDistance2, heapIdx, heapD);
+		} else {
+			nearestK(m+1, hi, x, y, z, k, maxDistance2, heapIdx, heapD);
+			if( diff*diff <= bound(k, maxDistance2, heapD) )
+				nearestK(lo, m, x, y, z, k, maxDistance2, heapIdx, heapD);
+		}
+	}
+
+	/**
+	 * Distance squared a point must be within to be added to the heap
+	 */
+	private static double bound( int k , double maxDistance2 , GrowQueue_F64 heapD ) {
+		return heapD.size < k ? maxDistance2 : heapD.data[0];
+	}
+
+	/**
+	 * Adds the point to the heap if it's closer than the farthest point in the heap
+	 */
+	private static void offer( int position , double d2 , int k , double maxDistance2 ,
+							   GrowQueue_I32 heapIdx , GrowQueue_F64 heapD ) {
+		if( d2 > maxDistance2 )
+			return;
+
+		int[] idx = heapIdx.data;
+		double[] dist = heapD.data;
+		if( heapD.size < k ) {
+			// sift up
+			int i = heapD.size++;
+			heapIdx.size++;
+			while( i > 0 ) {
+				int parent = (i-1)/2;
+				if( dist[parent] >= d2 )
+					break;
+				dist[i] = dist[parent];
+				idx[i] = idx[parent];
+				i = parent;
+			}
+			dist[i] = d2;
+			idx[i] = position;
+		} else if( d2 < dist[0] ) {
+			dist[0] = d2;
+			idx[0] = position;
+			siftDown(idx, dist, 0, heapD.size);
+		}
+	}
+
+	private static void siftDown( int[] idx , double[] dist , int i , int length ) {
+		double d = dist[i];
+		int p = idx[i];
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= length )
+				break;
+			if( child+1 < length && dist[child+1] > dist[child] )
+				child++;
+			if( dist[child] <= d )
+				break;
+			dist[i] = dist[child];
+			idx[i] = idx[child];
+			i = child;
+		}
+		dist[i] = d;
+		idx[i] = p;
+	}
+
+	/**
+	 * Finds all the points within the specified distance of the query point.  The found points are not sorted.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param radius Points with a Euclidean distance &le; this are returned
+	 * @param outIndexes Storage for the input index of each found point.  Reset.
+	 * @param outDistance2 Storage for the Euclidean distance squared of each found point.  Reset.
+	 */
+	public void findRadius( double x , double y , double z , double radius ,
+							GrowQueue_I32 outIndexes , GrowQueue_F64 outDistance2 ) {
+		outIndexes.reset();
+		outDistance2.reset();
+		radius(0, size, x, y, z, radius*radius, outIndexes, outDistance2);
+	}
+
+	/**
+	 * @see #findRadius(double, double, double, double, GrowQueue_I32, GrowQueue_F64)
+	 */
+	public void findRadius( Point3D_F64 p , double radius , GrowQueue_I32 outIndexes , GrowQueue_F64 outDistance2 ) {
+		findRadius(p.x, p.y, p.z, radius, outIndexes, outDistance2);
+	}
+
+	private void radius( int lo , int hi , double x , double y , double z , double radius2 ,
+						 GrowQueue_I32 outIndexes , GrowQueue_F64 outDistance2 ) {
+		while( hi-lo > LEAF_SIZE ) {
+			int m = (lo+hi) >>> 1;
+			int axis = axes[m];
+			double diff = axis == 0 ? x - data[m*3] : (axis == 1 ? y - data[m*3+1] : z - data[m*3+2]);
+
+			double d2 = distance2(m, x, y, z);
+			if( d2 <= radius2 ) {
+				outIndexes.add(indexes[m]);
+				outDistance2.add(d2);
+			}
+
+			boolean searchLeft = diff < 0 || diff*diff <= radius2;
+			boolean searchRight = diff >= 0 || diff*diff <= radius2;
+
+			if( searchLeft && searchRight ) {
+				radius(lo, m, x, y, z, radius2, outIndexes, outDistance2);
+				lo = m+1;
+			} else if( searchLeft ) {
+				hi = m;
+			} else {
+				lo = m+1;
+			}
+		}
+
+		for (int i = lo; i < hi; i++) {
+			double d2 = distance2(i, x, y, z);
+			if( d2 <= radius2 ) {
+				outIndexes.add(indexes[i]);
+				outDistance2.add(d2);
+			}
+		}
+	}
+
+	private double distance2( int position , double x , double y , double z ) {
+		double dx = data[position*3  ] - x;
+		double dy = data[position*3+1] - y;
+		double dz = data[position*3+2] - z;
+		return dx*dx + dy*dy + dz*dz;
+	}
+
+	/**
+	 * Number of points in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the tree should be built and batch searches performed concurrently.  The results are the
+	 * same either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Builds the two branches of a node concurrently
+	 */
+	private class BuildAction extends RecursiveAction {
+		int lo, hi;
+		int threshold;
+
+		BuildAction(int lo, int hi, int threshold) {
+			this.lo = lo;
+			this.hi = hi;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if( hi-lo <= threshold ) {
+				buildRange(lo, hi);
+			} else {
+				int m = split(lo, hi);
+				invokeAll(new BuildAction(lo, m, threshold), new BuildAction(m+1, hi, threshold));
+			}
+		}
+	}
+}
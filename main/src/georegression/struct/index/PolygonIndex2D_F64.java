@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.geometry.UtilPolygons2D_F64;
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Spatial index for a layer of polygons.  The bounding box of each polygon is stored in a {@link RTree2D_F64}.
+ * Point location first finds all polygons whose bounding box contains the point and then only keeps those which
+ * contain the point according to {@link Intersection2D_F64#containConcave}.
+ * </p>
+ *
+ * <p>
+ * A reference to the list of polygons is saved and they must not be modified until the index is rebuilt.
+ * Searches return the index of polygons in the list and write into storage provided by the caller.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PolygonIndex2D_F64 {
+	// index of polygon bounding boxes
+	RTree2D_F64 tree;
+
+	// the polygons which have been indexed
+	List<Polygon2D_F64> polygons;
+
+	// packed bounding boxes of each polygon
+	double boxes[] = new double[0];
+	Rectangle2D_F64 work = new Rectangle2D_F64();
+
+	/**
+	 * Specifies the branching factor of the internal R-tree
+	 *
+	 * @param maxEntries Maximum number of children in a node.  Must be at least 2.
+	 */
+	public PolygonIndex2D_F64( int maxEntries ) {
+		tree = new RTree2D_F64(maxEntries);
+	}
+
+	public PolygonIndex2D_F64() {
+		tree = new RTree2D_F64();
+	}
+
+	/**
+	 * Builds the index for the set of polygons.
+	 *
+	 * @param polygons Polygons which are to be indexed.  Each must have at least one vertex.  Reference is saved.
+	 */
+	public void build( List<Polygon2D_F64> polygons ) {
+		this.polygons = polygons;
+		int N = polygons.size();
+		if( boxes.length < N*4 )
+			boxes = new double[N*4];
+
+		for (int i = 0; i < N; i++) {
+			UtilPolygons2D_F64.bounding(polygons.get(i), work);
+			boxes[i*4  ] = work.p0.x;
+			boxes[i*4+1] = work.p0.y;
+			boxes[i*4+2] = work.p1.x;
+			boxes[i*4+3] = work.p1.y;
+		}
+		tree.build(boxes, 0, N);
+	}
+
+	/**
+	 * Finds all the polygons which contain the point.
+	 *
+	 * @param p Query point.  Not modified.
+	 * @param output Storage for the index of each polygon which contains the point.  Reset.
+	 */
+	public void findContaining( Point2D_F64 p , GrowQueue_I32 output ) {
+		tree.findContaining(p.x, p.y, output);
+
+		// remove candidates which don't contain the point
+		int count = 0;
+		for (int i = 0; i < output.size; i++) {
+			int index = output.data[i];
+			if( Intersection2D_F64.containConcave(polygons.get(index), p) ) {
+				output.data[count++] = index;
+			}
+		}
+		output.size = count;
+	}
+
+	/**
+	 * Finds all the polygons whose bounding box intersects the query window.  The polygons themselves are not
+	 * tested against the window.
+	 *
+	 * @param window Query window.  Not modified.
+	 * @param output Storage for the index of each found polygon.  Reset.
+	 */
+	public void findCandidates( Rectangle2D_F64 window , GrowQueue_I32 output ) {
+		tree.findIntersecting(window, output);
+	}
+
+	/**
+	 * Finds the polygon whose bounding box is closest to the point.  Useful for snapping a point which isn't
+	 * inside of any polygon.
+	 *
+	 * @param p Query point.  Not modified.
+	 * @param maxDistance Only polygons with a bounding box that's a Euclidean distance &le; this are considered.
+	 * @return Index of the polygon or -1 if none are close enough
+	 */
+	public int findNearestCandidate( Point2D_F64 p , double maxDistance ) {
+		return tree.findNearest(p.x, p.y, maxDistance);
+	}
+
+	/**
+	 * Returns the R-tree which stores the bounding box of each polygon
+	 */
+	public RTree2D_F64 getTree() {
+		return tree;
+	}
+
+	/**
+	 * Returns the polygons which have been indexed
+	 */
+	public List<Polygon2D_F64> getPolygons() {
+		return polygons;
+	}
+
+	/**
+	 * Number of polygons in the index
+	 */
+	public int size() {
+		return tree.size();
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Polygon which has been preprocessed so that checking to see if a point is inside of it takes O(log n + k)
+ * instead of O(n), where n is the number of vertexes and k is the number of edges which cross a horizontal line
+ * through the point.  Intended for when the same polygon is tested against a large number of points.
+ * </p>
+ *
+ * <p>
+ * The y-axis is divided into slabs at the y-coordinate of every vertex.  No vertex lies inside a slab, so the
+ * set of edges which cross a slab is the same everywhere inside of it.  A point is located by a binary search for
+ * its slab and then the edges crossing the slab are tested using precomputed coefficients.  Points outside the
+ * polygon's bounding box are rejected immediately.  Memory is proportional to the total number of edges crossing
+ * each slab, which is O(n) for convex polygons and O(n<sup>2</sup>) in the worst case.
+ * </p>
+ *
+ * <p>
+ * The same crossing rule as {@link georegression.metric.Intersection2D_F64#containConcave} and
+ * {@link georegression.metric.Intersection2D_F64#containConvex} is used, so results agree with them.  Points
+ * which lie along the perimeter may or may not be considered as inside.  Once prepared the polygon is not modified
+ * by searches, which can be performed by multiple threads at once.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PreparedPolygon2D_F64 {
+	// bounding box of the polygon
+	double minX, minY, maxX, maxY;
+
+	// y-coordinate of each slab's lower boundary.  The last element is the upper boundary of the last slab
+	double slabY[] = new double[0];
+	// number of slabs
+	int numSlabs;
+	// index of the first edge in each slab.  Has numSlabs+1 elements
+	int slabStart[] = new int[1];
+	// packed (x,y,slope) of each edge in each slab, where the edge's x-coordinate at y' is x + (y'-y)*slope
+	double edges[] = new double[0];
+
+	// work space for the first slab each edge crosses
+	int edgeFirst[] = new int[0];
+
+	/**
+	 * Prepares the polygon
+	 *
+	 * @param polygon The polygon.  Not modified.
+	 */
+	public PreparedPolygon2D_F64( Polygon2D_F64 polygon ) {
+		setPolygon(polygon);
+	}
+
+	public PreparedPolygon2D_F64() {
+	}
+
+	/**
+	 * Prepares a new polygon.  Internal storage is reused when possible.
+	 *
+	 * @param polygon The polygon.  Not modified.
+	 */
+	public void setPolygon( Polygon2D_F64 polygon ) {
+		final int N = polygon.size();
+		numSlabs = 0;
+		if( N == 0 ) {
+			minX = minY = maxX = maxY = 0;
+			return;
+		}
+
+		// bounding box and sorted unique y-coordinates
+		if( slabY.length < N ) {
+			slabY = new double[N];
+			slabStart = new int[N+1];
+			edgeFirst = new int[N];
+		}
+		Point2D_F64 v = polygon.vertexes.data[0];
+		minX = maxX = v.x;
+		minY = maxY = v.y;
+		for (int i = 0; i < N; i++) {
+			v = polygon.vertexes.data[i];
+			if( v.x < minX ) minX = v.x; else if( v.x > maxX ) maxX = v.x;
+			if( v.y < minY ) minY = v.y; else if( v.y > maxY ) maxY = v.y;
+			slabY[i] = v.y;
+		}
+		Arrays.sort(slabY, 0, N);
+		int unique = 1;
+		for (int i = 1; i < N; i++) {
+			if( slabY[i] != slabY[unique-1] )
+				slabY[unique++] = slabY[i];
+		}
+		numSlabs = unique-1;
+
+		// count the number of edges crossing each slab
+		Arrays.fill(slabStart, 0, numSlabs+1, 0);
+		for (int i = 0, j = N-1; i < N; j = i++) {
+			Point2D_F64 a = polygon.vertexes.data[i];
+			Point2D_F64 b = polygon.vertexes.data[j];
+			if( a.y == b.y )
+				continue;
+			int s0 = Arrays.binarySearch(slabY, 0, unique, a.y < b.y ? a.y : b.y);
+			int s1 = Arrays.binarySearch(slabY, 0, unique, a.y < b.y ? b.y : a.y);
+			edgeFirst[i] = s0;
+			for (int s = s0; s < s1; s++) {
+				slabStart[s+1]++;
+			}
+		}
+		for (int s = 0; s < numSlabs; s++) {
+			slabStart[s+1] += slabStart[s];
+		}
+
+		int total = slabStart[numSlabs];
+		if( edges.length < total*3 )
+			edges = new double[total*3];
+
+		// add each edge to the slabs it crosses.  slabStart is used as a cursor and shifted back afterwards
+		for (int i = 0, j = N-1; i < N; j = i++) {
+			Point2D_F64 a = polygon.vertexes.data[i];
+			Point2D_F64 b = polygon.vertexes.data[j];
+			if( a.y == b.y )
+				continue;
+			double slope = (b.x-a.x)/(b.y-a.y);
+			double upper = a.y < b.y ? b.y : a.y;
+			for (int s = edgeFirst[i]; slabY[s] < upper; s++) {
+				int k = slabStart[s]++;
+				edges[k*3  ] = a.x;
+				edges[k*3+1] = a.y;
+				edges[k*3+2] = slope;
+			}
+		}
+		for (int s = numSlabs; s > 0; s--) {
+			slabStart[s] = slabStart[s-1];
+		}
+		slabStart[0] = 0;
+	}
+
+	/**
+	 * Checks to see if the point is inside the polygon.
+	 *
+	 * @param x Point x-coordinate
+	 * @param y Point y-coordinate
+	 * @return true if the point is inside the polygon
+	 */
+	public boolean contains( double x , double y ) {
+		// outside the bounding box.  On the right side all the crossings are to the left, which is an even number
+		if( y < minY || y >= maxY || x < minX || x > maxX )
+			return false;
+
+		// find the slab with slabY[s] <= y < slabY[s+1]
+		int lo = 0, hi = numSlabs;
+		while( hi-lo > 1 ) {
+			int mid = (lo+hi) >>> 1;
+			if( slabY[mid] <= y )
+				lo = mid;
+			else
+				hi = mid;
+		}
+
+		// count edges which cross the horizontal line to the left of the point
+		boolean inside = false;
+		for (int i = slabStart[lo]*3, end = slabStart[lo+1]*3; i < end; i += 3) {
+			if( edges[i] + (y-edges[i+1])*edges[i+2] <= x )
+				inside = !inside;
+		}
+		return inside;
+	}
+
+	/**
+	 * @see #contains(double, double)
+	 */
+	public boolean contains( Point2D_F64 p ) {
+		return contains(p.x, p.y);
+	}
+
+	/**
+	 * Returns the polygon's axis aligned bounding box
+	 *
+	 * @param rectangle (Output) Bounding box
+	 */
+	public void getBounding( Rectangle2D_F64 rectangle ) {
+		rectangle.p0.set(minX, minY);
+		rectangle.p1.set(maxX, maxY);
+	}
+
+	/**
+	 * Number of slabs the y-axis has been divided into
+	 */
+	public int getSlabCount() {
+		return numSlabs;
+	}
+
+	/**
+	 * Total number of edges stored in all the slabs
+	 */
+	public int getEdgeEntries() {
+		return slabStart[numSlabs];
+	}
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * R-tree for searching axis aligned rectangles.  The tree is bulk loaded using Sort-Tile-Recursive (STR), which
+ * sorts the rectangles by the x-coordinate of their center, cuts them into vertical slices, then sorts each slice
+ * by the y-coordinate of their center and packs consecutive rectangles into nodes.  The same is done to each level
+ * of nodes until a single root remains.  This produces nodes which are nearly full and have little overlap.
+ * </p>
+ *
+ * <p>
+ * The tree is stored in flat arrays.  Leaf nodes come first and the root is last.  The children of each node are
+ * stored in a contiguous block.  Rectangles are considered closed, i.e. a rectangle contains points on its
+ * border and touching rectangles intersect.  Searches return the index of rectangles in the original input and
+ * write into storage provided by the caller, so no memory is declared once the storage has grown.  Once built the
+ * tree is not modified by searches, which can be performed by multiple threads at once when each thread has its
+ * own output storage.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RTree2D_F32 {
+	/**
+	 * Default maximum number of children in a node
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 16;
+
+	// maximum number of children in a node
+	int maxEntries;
+
+	// bounding box (x0,y0,x1,y1) of each rectangle in tree order
+	float itemBoxes[] = new float[0];
+	// index of each rectangle in the original input
+	int itemIds[] = new int[0];
+	// number of rectangles in the tree
+	int size;
+
+	// bounding box (x0,y0,x1,y1) of each node
+	float nodeBoxes[] = new float[0];
+	// index of the first child of each node.  The children of leaves are rectangles, otherwise they are nodes
+	int nodeFirst[] = new int[0];
+	// number of children in each node
+	int nodeCount[] = new int[0];
+	// total number of nodes and the number of leaves
+	int numNodes;
+	int numLeaves;
+
+	// work space used while building
+	int order[] = new int[0];
+	float keys[] = new float[0];
+	float workBoxes[] = new float[0];
+	int workFirst[] = new int[0];
+	int workCount[] = new int[0];
+
+	/**
+	 * Specifies the tree's branching factor
+	 *
+	 * @param maxEntries Maximum number of children in a node.  Must be at least 2.
+	 */
+	public RTree2D_F32( int maxEntries ) {
+		if( maxEntries < 2 )
+			throw new IllegalArgumentException("maxEntries must be at least 2");
+		this.maxEntries = maxEntries;
+	}
+
+	public RTree2D_F32() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Builds the tree from a list of rectangles.
+	 *
+	 * @param rectangles Rectangles.  Not modified.
+	 */
+	public void build( List<Rectangle2D_F32> rectangles ) {
+		int N = rectangles.size();
+		declareWork(N);
+		for (int i = 0; i < N; i++) {
+			Rectangle2D_F32 r = rectangles.get(i);
+			workBoxes[i*4  ] = r.p0.x;
+			workBoxes[i*4+1] = r.p0.y;
+			workBoxes[i*4+2] = r.p1.x;
+			workBoxes[i*4+3] = r.p1.y;
+		}
+		build(workBoxes, 0, N);
+	}
+
+	/**
+	 * Builds the tree from an array of interleaved (x0,y0,x1,y1) rectangles.
+	 *
+	 * @param rectangles Array with the rectangles.  Not modified.
+	 * @param offset Index of the first element in the array
+	 * @param count Number of rectangles
+	 */
+	public void build( float rectangles[] , int offset , int count ) {
+		declare(count);
+		if( count == 0 )
+			return;
+
+		// sort the rectangles and copy them in tree order
+		strOrder(rectangles, offset, count);
+		for (int i = 0; i < count; i++) {
+			int o = order[i];
+			System.arraycopy(rectangles, offset+o*4, itemBoxes, i*4, 4);
+			itemIds[i] = o;
+		}
+
+		// create the leaves then each level above them until there's only the root
+		createParents(itemBoxes, 0, count);
+		numLeaves = numNodes;
+		int levelStart = 0, levelEnd = numNodes;
+		while( levelEnd-levelStart > 1 ) {
+			int N = levelEnd-levelStart;
+			strOrder(nodeBoxes, levelStart*4, N);
+			permuteNodes(levelStart, N);
+			createParents(nodeBoxes, levelStart, N);
+			levelStart = levelEnd;
+			levelEnd = numNodes;
+		}
+	}
+
+	private void declare( int N ) {
+		size = N;
+		numNodes = 0;
+		numLeaves = 0;
+
+		// number of nodes in the tree
+		int total = 0;
+		int count = N;
+		while( count > 1 ) {
+			count = (count+maxEntries-1)/maxEntries;
+			total += count;
+		}
+		if( N == 1 )
+			total = 1;
+
+		if( itemIds.length < N ) {
+			itemBoxes = new float[N*4];
+			itemIds = new int[N];
+		}
+		if( nodeFirst.length < total ) {
+			nodeBoxes = new float[total*4];
+			nodeFirst = new int[total];
+			nodeCount = new int[total];
+		}
+		if( order.length < N ) {
+			order = new int[N];
+			keys = new float[N];
+		}
+	}
+
+	private void declareWork( int N ) {
+		if( workBoxes.length < N*4 ) {
+			workBoxes = new float[N*4];
+		}
+	}
+
+	/**
+	 * Computes the order the entries should be packed into nodes using STR and saves the results in 'order'
+	 *
+	 * @param boxes Array containing bounding boxes
+	 * @param offset Index of the first element in the array
+	 * @param N Number of boxes
+	 */
+	void strOrder( float boxes[] , int offset , int N ) {
+		for (int i = 0; i < N; i++) {
+			int j = offset+i*4;
+			keys[i] = boxes[j] + boxes[j+2];
+			order[i] = i;
+		}
+		sort(0, N);
+
+		// number of nodes which will be created and the number of vertical slices
+		int numParents = (N+maxEntries-1)/maxEntries;
+		int numSlices = (int)Math.ceil(Math.sqrt(numParents));
+		int sliceSize = numSlices*maxEntries;
+
+		for (int lo = 0; lo < N; lo += sliceSize) {
+			int hi = lo+sliceSize < N ? lo+sliceSize : N;
+			for (int i = lo; i < hi; i++) {
+				int j = offset+order[i]*4;
+				keys[order[i]] = boxes[j+1] + boxes[j+3];
+			}
+			sort(lo, hi);
+		}
+	}
+
+	/**
+	 * Sorts order[lo,hi) by the value of keys[order[i]]
+	 */
+	void sort( int lo , int hi ) {
+		while( hi-lo > 16 ) {
+			// median of three pivot
+			int mid = (lo+hi) >>> 1;
+			int left = lo, right = hi-1;
+			if( keys[order[mid]] < keys[order[left]] ) swap(mid, left);
+			if( keys[order[right]] < keys[order[left]] ) swap(right, left);
+			if( keys[order[right]] < keys[order[mid]] ) swap(right, mid);
+			float pivot = keys[order[mid]];
+
+			int i = left, j = right;
+			while( i <= j ) {
+				while( keys[order[i]] < pivot ) i++;
+				while( keys[order[j]] > pivot ) j--;
+				if( i <= j ) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+
+			// recurse into the smaller side to bound the stack depth
+			if( j-lo < hi-i ) {
+				sort(lo, j+1);
+				lo = i;
+			} else {
+				sort(i, hi);
+				hi = j+1;
+			}
+		}
+
+		// insertion sort for small arrays
+		for (int i = lo+1; i < hi; i++) {
+			int o = order[i];
+			float k = keys[o];
+			int j = i-1;
+			while( j >= lo && keys[order[j]] > k ) {
+				order[j+1] = order[j];
+				j--;
+			}
+			order[j+1] = o;
+		}
+	}
+
+	private void swap( int i , int j ) {
+		int tmp = order[i]; order[i] = order[j]; order[j] = tmp;
+	}
+
+	/**
+	 * Rearranges the nodes in [start,start+N) into the sorted order
+	 */
+	private void permuteNodes( int start , int N ) {
+		if( workFirst.length < N ) {
+			workFirst = new int[N];
+			workCount = new int[N];
+		}
+		declareWork(N);
+		for (int i = 0; i < N; i++) {
+			int o = start+order[i];
+			System.arraycopy(nodeBoxes, o*4, workBoxes, i*4, 4);
+			workFirst[i] = nodeFirst[o];
+			workCount[i] = nodeCount[o];
+		}
+		System.arraycopy(workBoxes, 0, nodeBoxes, start*4, N*4);
+		System.arraycopy(workFirst, 0, nodeFirst, start, N);
+		System.arraycopy(workCount, 0, nodeCount, start, N);
+	}
+
+	/**
+	 * Packs consecutive entries into new nodes which are added to the end of the node list
+	 */
+	private void createParents( float boxes[] , int start , int N ) {
+		for (int i = 0; i < N; i += maxEntries) {
+			int node = numNodes++;
+			int first = start+i;
+			int count = N-i < maxEntries ? N-i : maxEntries;
+			nodeFirst[node] = first;
+			nodeCount[node] = count;
+
+			float x0 = boxes[first*4  ], y0 = boxes[first*4+1];
+			float x1 = boxes[first*4+2], y1 = boxes[first*4+3];
+			for (int j = first+1; j < first+count; j++) {
+				int k = j*4;
+				if( boxes[k  ] < x0 ) x0 = boxes[k  ];
+				if( boxes[k+1] < y0 ) y0 = boxes[k+1];
+				if( boxes[k+2] > x1 ) x1 = boxes[k+2];
+				if( boxes[k+3] > y1 ) y1 = boxes[k+3];
+			}
+			nodeBoxes[node*4  ] = x0;
+			nodeBoxes[node*4+1] = y0;
+			nodeBoxes[node*4+2] = x1;
+			nodeBoxes[node*4+3] = y1;
+		}
+	}
+
+	/**
+	 * Finds all the rectangles which intersect the query window.  Rectangles which touch the window are included.
+	 *
+	 * @param x0 Window lower extent x-coordinate
+	 * @param y0 Window lower extent y-coordinate
+	 * @param x1 Window upper extent x-coordinate
+	 * @param y1 Window upper extent y-coordinate
+	 * @param output Storage for the input index of each found rectangle.  Reset.
+	 */
+	public void findIntersecting( float x0 , float y0 , float x1 , float y1 , GrowQueue_I32 output ) {
+		output.reset();
+		int root = numNodes-1;
+		if( root >= 0 && overlaps(nodeBoxes, root, x0, y0, x1, y1) )
+			intersecting(root, x0, y0, x1, y1, output);
+	}
+
+	/**
+	 * @see #findIntersecting(float, float, float, float, GrowQueue_I32)
+	 */
+	public void findIntersecting( Rectangle2D_F32 window , GrowQueue_I32 output ) {
+		findIntersecting(window.p0.x, window.p0.y, window.p1.x, window.p1.y, output);
+	}
+
+	private void intersecting( int node , float x0 , float y0 , float x1 , float y1 , GrowQueue_I32 output ) {
+		int first = nodeFirst[node];
+		int end = first + nodeCount[node];
+		if( node < numLeaves ) {
+			for (int i = first; i < end; i++) {
+				if( overlaps(itemBoxes, i, x0, y0, x1, y1) )
+					output.add(itemIds[i]);
+			}
+		} else {
+			for (int i = first; i < end; i++) {
+				if( overlaps(nodeBoxes, i, x0, y0, x1, y1) )
+					intersecting(i, x0, y0, x1, y1, output);
+			}
+		}
+	}
+
+	private static boolean overlaps( float boxes[] , int i , float x0 , float y0 , float x1 , float y1 ) {
+		int j = i*4;
+		return boxes[j] <= x1 && boxes[j+2] >= x0 && boxes[j+1] <= y1 && boxes[j+3] >= y0;
+	}
+
+	/**
+	 * Finds all the rectangles which contain the point.  Points on a rectangle's border are contained.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param output Storage for the input index of each found rectangle.  Reset.
+	 */
+	public void findContaining( float x , float y , GrowQueue_I32 output ) {
+		findIntersecting(x, y, x, y, output);
+	}
+
+	/**
+	 * @see #findContaining(float, float, GrowQueue_I32)
+	 */
+	public void findContaining( Point2D_F32 p , GrowQueue_I32 output ) {
+		findIntersecting(p.x, p.y, p.x, p.y, output);
+	}
+
+	/**
+	 * Finds the rectangle which is closest to the query point.  The distance is zero if the rectangle contains
+	 * the point.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param maxDistance Only rectangles with a Euclidean distance &le; this are considered.
+	 *                    Use Float.MAX_VALUE for no limit.
+	 * @return Index of the closest rectangle in the input or -1 if no rectangle is close enough.
+	 */
+	public int findNearest( float x , float y , float maxDistance ) {
+		float maxDistance2 = maxDistance >= Float.MAX_VALUE ? Float.MAX_VALUE : maxDistance*maxDistance;
+		int root = numNodes-1;
+		if( root < 0 || distance2(nodeBoxes, root, x, y) > maxDistance2 )
+			return -1;
+		int best = nearest(root, x, y, -1, maxDistance2);
+		return best < 0 ? -1 : itemIds[best];
+	}
+
+	/**
+	 * @see #findNearest(float, float, float)
+	 */
+	public int findNearest( Point2D_F32 p , float maxDistance ) {
+		return findNearest(p.x, p.y, maxDistance);
+	}
+
+	/**
+	 * Searches the node for a rectangle closer than the best found so far.
+	 *
+	 * @param best Position of the best rectangle found so far, -1 if none
+	 * @param bestDistance2 Distance squared of the best rectangle or the maximum distance squared
+	 * @return Position of the best rectangle found so far, -1 if none
+	 */
+	private int nearest( int node , float x , float y , int best , float bestDistance2 ) {
+		int first = nodeFirst[node];
+		int end = first + nodeCount[node];
+		if( node < numLeaves ) {
+			for (int i = first; i < end; i++) {
+				float d2 = distance2(itemBoxes, i, x, y);
+				if( d2 <= bestDistance2 ) {
+					bestDistance2 = d2;
+					best = i;
+				}
+			}
+		} else {
+			for (int i = first; i < end; i++) {
+				if( distance2(nodeBoxes, i, x, y) > bestDistance2 )
+					continue;
+				int found = nearest(i, x, y, best, bestDistance2);
+				if( found != best ) {
+					best = found;
+					bestDistance2 = distance2(itemBoxes, best, x, y);
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the K closest rectangles to the query point.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param maxDistance Only rectangles with a Euclidean distance &le; this are considered.
+	 *                    Use Float.MAX_VALUE for no limit.
+	 * @param k Maximum number of rectangles which are returned
+	 * @param outIndexes Storage for the input index of each neighbor.  Sorted from closest to farthest.
+	 * @param outDistance2 Storage for the Euclidean distance squared of each neighbor.
+	 */
+	public void findNearest( float x , float y , float maxDistance , int k ,
+							 GrowQueue_I32 outIndexes , GrowQueue_F32 outDistance2 ) {
+		float maxDistance2 = maxDistance >= Float.MAX_VALUE ? Float.MAX_VALUE : maxDistance*maxDistance;
+
+		// the output is used as a max heap while searching
+		outIndexes.resize(k);
+		outDistance2.resize(k);
+		outIndexes.size = 0;
+		outDistance2.size = 0;
+
+		int root = numNodes-1;
+		if( k > 0 && root >= 0 && distance2(nodeBoxes, root, x, y) <= maxDistance2 )
+			nearestK(root, x, y, k, maxDistance2, outIndexes, outDistance2);
+
+		// heap sort into ascending order
+		int[] heapIdx = outIndexes.data;
+		float[] heapD = outDistance2.data;
+		for (int end = outIndexes.size-1; end > 0; end--) {
+			float td = heapD[0]; heapD[0] = heapD[end]; heapD[end] = td;
+			int ti = heapIdx[0]; heapIdx[0] = heapIdx[end]; heapIdx[end] = ti;
+			siftDown(heapIdx, heapD, 0, end);
+		}
+
+		// convert from tree position into input index
+		for (int i = 0; i < outIndexes.size; i++) {
+			heapIdx[i] = itemIds[heapIdx[i]];
+		}
+	}
+
+	/**
+	 * @see #findNearest(float, float, float, int, GrowQueue_I32, GrowQueue_F32)
+	 */
+	public void findNearest( Point2D_F32 p , float maxDistance , int k ,
+							 GrowQueue_I32 outIndexes , GrowQueue_F32 outDistance2 ) {
+		findNearest(p.x, p.y, maxDistance, k, outIndexes, outDistance2);
+	}
+
+	private void nearestK( int node , float x , float y , int k , float maxDistance2 ,
+						   GrowQueue_I32 heapIdx , GrowQueue_F32 heapD ) {
+		int first = nodeFirst[node];
+		int end = first + nodeCount[node];
+		if( node < numLeaves ) {
+			for (int i = first; i < end; i++) {
+				offer(i, distance2(itemBoxes, i, x, y), k, maxDistance2, heapIdx, heapD);
+			}
+		} else {
+			for (int i = first; i < end; i++) {
+				if( distance2(nodeBoxes, i, x, y) <= bound(k, maxDistance2, heapD) )
+					nearestK(i, x, y, k, maxDistance2, heapIdx, heapD);
+			}
+		}
+	}
+
+	/**
+	 * Distance squared a rectangle must be within to be added to the heap
+	 */
+	private static float bound( int k , float maxDistance2 , GrowQueue_F32 heapD ) {
+		return heapD.size < k ? maxDistance2 : heapD.data[0];
+	}
+
+	/**
+	 * Adds the rectangle to the heap if it's closer than the farthest rectangle in the heap
+	 */
+	private static void offer( int position , float d2 , int k , float maxDistance2 ,
+							   GrowQueue_I32 heapIdx , GrowQueue_F32 heapD ) {
+		if( d2 > maxDistance2 )
+			return;
+
+		int[] idx = heapIdx.data;
+		float[] dist = heapD.data;
+		if( heapD.size < k ) {
+			// sift up
+			int i = heapD.size++;
+			heapIdx.size++;
+			while( i > 0 ) {
+				int parent = (i-1)/2;
+				if( dist[parent] >= d2 )
+					break;
+				dist[i] = dist[parent];
+				idx[i] = idx[parent];
+				i = parent;
+			}
+			dist[i] = d2;
+			idx[i] = position;
+		} else if( d2 < dist[0] ) {
+			dist[0] = d2;
+			idx[0] = position;
+			siftDown(idx, dist, 0, heapD.size);
+		}
+	}
+
+	private static void siftDown( int[] idx , float[] dist , int i , int length ) {
+		float d = dist[i];
+		int p = idx[i];
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= length )
+				break;
+			if( child+1 < length && dist[child+1] > dist[child] )
+				child++;
+			if( dist[child] <= d )
+				break;
+			dist[i] = dist[child];
+			idx[i] = idx[child];
+			i = child;
+		}
+		dist[i] = d;
+		idx[i] = p;
+	}
+
+	/**
+	 * Euclidean distance squared from the point to the closest point in the box.  Zero if the point is inside.
+	 */
+	private static float distance2( float boxes[] , int i , float x , float y ) {
+		int j = i*4;
+		float dx = x < boxes[j  ] ? boxes[j  ]-x : (x > boxes[j+2] ? x-boxes[j+2] : 0);
+		float dy = y < boxes[j+1] ? boxes[j+1]-y : (y > boxes[j+3] ? y-boxes[j+3] : 0);
+		return dx*dx + dy*dy;
+	}
+
+	/**
+	 * Number of rectangles in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Maximum number of children in a node
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+}
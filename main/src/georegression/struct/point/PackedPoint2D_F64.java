@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.point;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact storage for a large set of 2D points.  Instead of one {@link Point2D_F64} per point the coordinates are
+ * packed into a single array, with point i stored at elements 2*i and 2*i+1.  This removes per object
+ * overhead and keeps the points adjacent in memory.  Individual points are accessed by copying them into
+ * caller provided storage or into an internal flyweight point, see {@link #getTemp(int)}.
+ *
+ * @author Peter Abeles
+ */
+public class PackedPoint2D_F64 implements Serializable {
+
+	// packed (x,y) coordinates
+	public double data[];
+	// number of points
+	public int size;
+
+	// internal point which is recycled by getTemp()
+	private Point2D_F64 temp = new Point2D_F64();
+
+	/**
+	 * Creates storage with enough space for the specified number of points.
+	 *
+	 * @param initialCapacity Number of points it can store before needing to grow
+	 */
+	public PackedPoint2D_F64( int initialCapacity ) {
+		data = new double[ initialCapacity*2 ];
+	}
+
+	public PackedPoint2D_F64() {
+		this(10);
+	}
+
+	/**
+	 * Sets the number of points to zero.  The internal array is not modified.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Ensures that the internal array can store the specified number of points without needing to grow.  Points
+	 * which are already stored are preserved.
+	 *
+	 * @param numPoints Number of points
+	 */
+	public void reserve( int numPoints ) {
+		if( data.length >= numPoints*2 )
+			return;
+
+		double tmp[] = new double[ numPoints*2 ];
+		System.arraycopy(data,0,tmp,0,size*2);
+		data = tmp;
+	}
+
+	/**
+	 * Changes the number of points.  If it grows then the values of the new points are undefined.
+	 *
+	 * @param numPoints The new number of points
+	 */
+	public void resize( int numPoints ) {
+		reserve(numPoints);
+		size = numPoints;
+	}
+
+	/**
+	 * Adds a new point to the end of the list
+	 */
+	public void add( double x , double y ) {
+		if( size*2 == data.length ) {
+			reserve(Math.max(10,size*2));
+		}
+		int index = size*2;
+		data[index  ] = x;
+		data[index+1] = y;
+		size++;
+	}
+
+	/**
+	 * Adds a copy of the point to the end of the list
+	 */
+	public void add( Point2D_F64 p ) {
+		add(p.x,p.y);
+	}
+
+	/**
+	 * Adds a copy of all the points in the list
+	 */
+	public void addAll( List<Point2D_F64> points ) {
+		reserve(size+points.size());
+		for (int i = 0; i < points.size(); i++) {
+			Point2D_F64 p = points.get(i);
+			int index = size*2;
+			data[index  ] = p.x;
+			data[index+1] = p.y;
+			size++;
+		}
+	}
+
+	public void set( int index , double x , double y ) {
+		index *= 2;
+		data[index  ] = x;
+		data[index+1] = y;
+	}
+
+	public void set( int index , Point2D_F64 p ) {
+		set(index,p.x,p.y);
+	}
+
+	/**
+	 * Makes this a copy of 'src'.
+	 *
+	 * @param src The points which are to be copied
+	 */
+	public void setTo( PackedPoint2D_F64 src ) {
+		resize(src.size);
+		System.arraycopy(src.data,0,data,0,size*2);
+	}
+
+	/**
+	 * Copies the point at the specified index into storage.
+	 *
+	 * @param index Index of the point
+	 * @param storage (Optional) storage for the point.  If null a new instance is created.
+	 * @return The point
+	 */
+	public Point2D_F64 get( int index , Point2D_F64 storage ) {
+		if( storage == null )
+			storage = new Point2D_F64();
+
+		index *= 2;
+		storage.x = data[index  ];
+		storage.y = data[index+1];
+
+		return storage;
+	}
+
+	/**
+	 * Copies the point at the specified index into an internal point and returns it.  The same instance
+	 * is returned on every call and is overwritten the next time this function is called.  Changes to
+	 * the returned point are not written back into the array.
+	 *
+	 * @param index Index of the point
+	 * @return Internal copy of the point
+	 */
+	public Point2D_F64 getTemp( int index ) {
+		return get(index,temp);
+	}
+
+	public double getX( int index ) {
+		return data[index*2];
+	}
+
+	public double getY( int index ) {
+		return data[index*2+1];
+	}
+
+	/**
+	 * Creates a list with a new {@link Point2D_F64} for every point.
+	 *
+	 * @return List of points
+	 */
+	public List<Point2D_F64> toList() {
+		List<Point2D_F64> ret = new ArrayList<Point2D_F64>(size);
+		for (int i = 0; i < size; i++) {
+			ret.add( get(i,null));
+		}
+		return ret;
+	}
+
+	public PackedPoint2D_F64 copy() {
+		PackedPoint2D_F64 ret = new PackedPoint2D_F64(size);
+		ret.setTo(this);
+		return ret;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName()+"{ size "+size+" }";
+	}
+}
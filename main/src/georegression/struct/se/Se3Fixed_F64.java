@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.se;
+
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.Vector3D_F64;
+import org.ejml.data.DenseMatrix64F;
+
+
+/**
+ * <p>
+ * Rigid body transform composed of a rotation and translation, just like {@link Se3_F64}.  The difference is
+ * that the rotation matrix is stored in a fixed sized {@link Matrix3x3_F64} instead of a {@link DenseMatrix64F}.
+ * All operations are written out by hand for the 3x3 case, which avoids the overhead of generic matrix
+ * operations when transforms are being composed and inverted in tight loops.
+ * </p>
+ *
+ * <p>
+ * Use {@link #set(Se3_F64)} and {@link #get(Se3_F64)} to convert to and from {@link Se3_F64}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Se3Fixed_F64 implements SpecialEuclidean<Se3Fixed_F64> {
+
+	// serialization version
+	public static final long serialVersionUID = 1L;
+
+	// rotation matrix
+	public Matrix3x3_F64 R = new Matrix3x3_F64();
+	// translation vector
+	public Vector3D_F64 T = new Vector3D_F64();
+
+	/**
+	 * Creates a new transform that does nothing.
+	 */
+	public Se3Fixed_F64() {
+		R.a11 = R.a22 = R.a33 = 1;
+	}
+
+	/**
+	 * Creates a new transform which is a copy of the provided {@link Se3_F64}
+	 *
+	 * @param se The transform that is copied
+	 */
+	public Se3Fixed_F64( Se3_F64 se ) {
+		set(se);
+	}
+
+	/**
+	 * Set's 'this' to be identical to the provided transform.
+	 *
+	 * @param se The transform that is being copied.
+	 */
+	@Override
+	public void set( Se3Fixed_F64 se ) {
+		R.set(se.R);
+		T.set(se.T);
+	}
+
+	/**
+	 * Set's 'this' to be identical to the provided transform.
+	 *
+	 * @param se The transform that is being copied.
+	 */
+	public void set( Se3_F64 se ) {
+		setRotation(se.R);
+		T.set(se.T);
+	}
+
+	/**
+	 * Copies the value of 'this' into the provided {@link Se3_F64}.
+	 *
+	 * @param se (Output) Storage for the transform.  If null a new instance is created.
+	 * @return The transform
+	 */
+	public Se3_F64 get( Se3_F64 se ) {
+		if( se == null )
+			se = new Se3_F64();
+
+		/**/double[] d = se.R.data;
+		d[0] = R.a11; d[1] = R.a12; d[2] = R.a13;
+		d[3] = R.a21; d[4] = R.a22; d[5] = R.a23;
+		d[6] = R.a31; d[7] = R.a32; d[8] = R.a33;
+
+		se.T.set(T);
+
+		return se;
+	}
+
+	/**
+	 * Sets the rotation to R.
+	 *
+	 * @param R New rotation.
+	 */
+	public void setRotation( Matrix3x3_F64 R ) {
+		this.R.set( R );
+	}
+
+	/**
+	 * Sets the rotation to R.
+	 *
+	 * @param R New rotation.  3 by 3 matrix.
+	 */
+	public void setRotation( DenseMatrix64F R ) {
+		if( R.numRows != 3 || R.numCols != 3 )
+			throw new IllegalArgumentException("Rotation matrix must be 3 by 3");
+
+		/**/double[] d = R.data;
+		this.R.set( (double)d[0], (double)d[1], (double)d[2],
+				(double)d[3], (double)d[4], (double)d[5],
+				(double)d[6], (double)d[7], (double)d[8] );
+	}
+
+	/**
+	 * Sets the translation to T
+	 * @param T New translation
+	 */
+	public void setTranslation( Vector3D_F64 T ) {
+		this.T.set( T );
+	}
+
+	/**
+	 * Sets the translation to (x,y,z)
+	 * @param x x component of translation
+	 * @param y y component of translation
+	 * @param z z component of translation
+	 */
+	public void setTranslation( double x, double y, double z ) {
+		this.T.set( x, y, z );
+	}
+
+	public Matrix3x3_F64 getR() {
+		return R;
+	}
+
+	public Vector3D_F64 getT() {
+		return T;
+	}
+
+	public double getX() {
+		return T.getX();
+	}
+
+	public double getY() {
+		return T.getY();
+	}
+
+	public double getZ() {
+		return T.getZ();
+	}
+
+	@Override
+	public int getDimension() {
+		return 3;
+	}
+
+	@Override
+	public Se3Fixed_F64 createInstance() {
+		return new Se3Fixed_F64();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Unlike {@link Se3_F64}, 'result' can be the same instance as 'this' or 'second'.</p>
+	 */
+	@Override
+	public Se3Fixed_F64 concat( Se3Fixed_F64 second, Se3Fixed_F64 result ) {
+		if( result == null )
+			result = new Se3Fixed_F64();
+
+		final Matrix3x3_F64 A = second.R;
+
+		double b11 = R.a11, b12 = R.a12, b13 = R.a13;
+		double b21 = R.a21, b22 = R.a22, b23 = R.a23;
+		double b31 = R.a31, b32 = R.a32, b33 = R.a33;
+		double tx = T.x, ty = T.y, tz = T.z;
+
+		double a11 = A.a11, a12 = A.a12, a13 = A.a13;
+		double a21 = A.a21, a22 = A.a22, a23 = A.a23;
+		double a31 = A.a31, a32 = A.a32, a33 = A.a33;
+
+		// R = second.R*this.R
+		result.R.a11 = a11*b11 + a12*b21 + a13*b31;
+		result.R.a12 = a11*b12 + a12*b22 + a13*b32;
+		result.R.a13 = a11*b13 + a12*b23 + a13*b33;
+		result.R.a21 = a21*b11 + a22*b21 + a23*b31;
+		result.R.a22 = a21*b12 + a22*b22 + a23*b32;
+		result.R.a23 = a21*b13 + a22*b23 + a23*b33;
+		result.R.a31 = a31*b11 + a32*b21 + a33*b31;
+		result.R.a32 = a31*b12 + a32*b22 + a33*b32;
+		result.R.a33 = a31*b13 + a32*b23 + a33*b33;
+
+		// T = second.R*this.T + second.T
+		double sx = second.T.x, sy = second.T.y, sz = second.T.z;
+		result.T.x = (a11*tx + a12*ty + a13*tz) + sx;
+		result.T.y = (a21*tx + a22*ty + a23*tz) + sy;
+		result.T.z = (a31*tx + a32*ty + a33*tz) + sz;
+
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>'inverse' can be the same instance as 'this'.</p>
+	 */
+	@Override
+	public Se3Fixed_F64 invert( Se3Fixed_F64 inverse ) {
+		if( inverse == null )
+			inverse = new Se3Fixed_F64();
+
+		// To derive the inverse transform solve for P
+		// R*P+T = P'
+		// P = R^T*P' - R^T*T
+
+		double r11 = R.a11, r12 = R.a12, r13 = R.a13;
+		double r21 = R.a21, r22 = R.a22, r23 = R.a23;
+		double r31 = R.a31, r32 = R.a32, r33 = R.a33;
+		double tx = T.x, ty = T.y, tz = T.z;
+
+		// -R^T*T
+		inverse.T.x = -(r11*tx + r21*ty + r31*tz);
+		inverse.T.y = -(r12*tx + r22*ty + r32*tz);
+		inverse.T.z = -(r13*tx + r23*ty + r33*tz);
+
+		// R^T
+		inverse.R.set(r11,r21,r31,
+				r12,r22,r32,
+				r13,r23,r33);
+
+		return inverse;
+	}
+
+	@Override
+	public void reset() {
+		R.zero();
+		R.a11 = R.a22 = R.a33 = 1;
+		T.set( 0, 0, 0 );
+	}
+
+	public Se3Fixed_F64 copy() {
+		Se3Fixed_F64 ret = new Se3Fixed_F64();
+		ret.set( this );
+
+		return ret;
+	}
+
+	public String toString() {
+		String ret = "Se3Fixed_F64: T = "+T.toString()+"\n";
+		ret += "R = [ "+R.a11+" "+R.a12+" "+R.a13+" ; "+R.a21+" "+R.a22+" "+R.a23+" ; "+
+				R.a31+" "+R.a32+" "+R.a33+" ]";
+
+		return ret+"\n";
+	}
+
+	public void print() {
+		System.out.println(this);
+	}
+}
@@ -20,6 +20,7 @@ package georegression.struct.se;
 
 import georegression.geometry.ConvertRotation3D_F32;
 import georegression.struct.EulerType;
+import georegression.struct.Matrix3x3_F32;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.point.Vector3D_F32;
 import org.ejml.data.DenseMatrix64F;
@@ -43,6 +44,41 @@ public class SpecialEuclideanOps_F32 {
 		se.getT().set( 0, 0, 0 );
 	}
 
+	/**
+	 * Sets the provided transform so that it does not transform any points.
+	 *
+	 * @param se The transform which is to be set to no motion.
+	 */
+	public static void setToNoMotion( Se3Fixed_F32 se ) {
+		se.reset();
+	}
+
+	/**
+	 * Converts {@link Se3_F32} into {@link Se3Fixed_F32}.
+	 *
+	 * @param src (Input) Original transform
+	 * @param dst (Output) Equivalent transform.  If null a new object will be declared.
+	 * @return Equivalent transform
+	 */
+	public static Se3Fixed_F32 convert( Se3_F32 src , Se3Fixed_F32 dst ) {
+		if( dst == null )
+			dst = new Se3Fixed_F32();
+
+		dst.set(src);
+		return dst;
+	}
+
+	/**
+	 * Converts {@link Se3Fixed_F32} into {@link Se3_F32}.
+	 *
+	 * @param src (Input) Original transform
+	 * @param dst (Output) Equivalent transform.  If null a new object will be declared.
+	 * @return Equivalent transform
+	 */
+	public static Se3_F32 convert( Se3Fixed_F32 src , Se3_F32 dst ) {
+		return src.get(dst);
+	}
+
 	/**
 	 * Converts {@link Se2_F32} into {@link Affine2D_F32}.
 	 * @param se (Input) Se2
@@ -91,6 +127,54 @@ public class SpecialEuclideanOps_F32 {
 		return ret;
 	}
 
+	/**
+	 * Converts it into a 4 by 4 homogeneous matrix.
+	 *
+	 * @param se  original 3D transform
+	 * @param ret Where the results will be written to.  If null a new matrix is declared. Modified.
+	 * @return equivalent homogeneous transform.
+	 */
+	public static DenseMatrix64F toHomogeneous( Se3Fixed_F32 se, DenseMatrix64F ret ) {
+		if( ret == null )
+			ret = new DenseMatrix64F( 4, 4 );
+		else
+			ret.reshape(4,4);
+
+		Matrix3x3_F32 R = se.R;
+		Vector3D_F32 T = se.T;
+
+		/**/double[] d = ret.data;
+		d[0 ] = R.a11; d[1 ] = R.a12; d[2 ] = R.a13; d[3 ] = T.x;
+		d[4 ] = R.a21; d[5 ] = R.a22; d[6 ] = R.a23; d[7 ] = T.y;
+		d[8 ] = R.a31; d[9 ] = R.a32; d[10] = R.a33; d[11] = T.z;
+		d[12] = 0;     d[13] = 0;     d[14] = 0;     d[15] = 1;
+
+		return ret;
+	}
+
+	/**
+	 * Converts a homogeneous representation into {@link Se3Fixed_F32}.
+	 *
+	 * @param H   Homogeneous 4 by 4 matrix.
+	 * @param ret If not null where the results are written to.
+	 * @return Se3Fixed_F32 transform.
+	 */
+	public static Se3Fixed_F32 toSe3Fixed( DenseMatrix64F H, Se3Fixed_F32 ret ) {
+		if( H.numCols != 4 || H.numRows != 4 )
+			throw new IllegalArgumentException( "The homogeneous matrix must be 4 by 4 by definition." );
+
+		if( ret == null )
+			ret = new Se3Fixed_F32();
+
+		/**/double[] d = H.data;
+		ret.R.set( (float)d[0], (float)d[1], (float)d[2],
+				(float)d[4], (float)d[5], (float)d[6],
+				(float)d[8], (float)d[9], (float)d[10]);
+		ret.T.set( (float)d[3], (float)d[7], (float)d[11]);
+
+		return ret;
+	}
+
 	/**
 	 * Converts a homogeneous representation into {@link Se3_F32}.
 	 *
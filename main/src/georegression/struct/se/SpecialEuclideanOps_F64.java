@@ -20,6 +20,7 @@ package georegression.struct.se;
 
 import georegression.geometry.ConvertRotation3D_F64;
 import georegression.struct.EulerType;
+import georegression.struct.Matrix3x3_F64;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Vector3D_F64;
 import org.ejml.data.DenseMatrix64F;
@@ -43,6 +44,41 @@ public class SpecialEuclideanOps_F64 {
 		se.getT().set( 0, 0, 0 );
 	}
 
+	/**
+	 * Sets the provided transform so that it does not transform any points.
+	 *
+	 * @param se The transform which is to be set to no motion.
+	 */
+	public static void setToNoMotion( Se3Fixed_F64 se ) {
+		se.reset();
+	}
+
+	/**
+	 * Converts {@link Se3_F64} into {@link Se3Fixed_F64}.
+	 *
+	 * @param src (Input) Original transform
+	 * @param dst (Output) Equivalent transform.  If null a new object will be declared.
+	 * @return Equivalent transform
+	 */
+	public static Se3Fixed_F64 convert( Se3_F64 src , Se3Fixed_F64 dst ) {
+		if( dst == null )
+			dst = new Se3Fixed_F64();
+
+		dst.set(src);
+		return dst;
+	}
+
+	/**
+	 * Converts {@link Se3Fixed_F64} into {@link Se3_F64}.
+	 *
+	 * @param src (Input) Original transform
+	 * @param dst (Output) Equivalent transform.  If null a new object will be declared.
+	 * @return Equivalent transform
+	 */
+	public static Se3_F64 convert( Se3Fixed_F64 src , Se3_F64 dst ) {
+		return src.get(dst);
+	}
+
 	/**
 	 * Converts {@link Se2_F64} into {@link Affine2D_F64}.
 	 * @param se (Input) Se2
@@ -91,6 +127,54 @@ public class SpecialEuclideanOps_F64 {
 		return ret;
 	}
 
+	/**
+	 * Converts it into a 4 by 4 homogeneous matrix.
+	 *
+	 * @param se  original 3D transform
+	 * @param ret Where the results will be written to.  If null a new matrix is declared. Modified.
+	 * @return equivalent homogeneous transform.
+	 */
+	public static DenseMatrix64F toHomogeneous( Se3Fixed_F64 se, DenseMatrix64F ret ) {
+		if( ret == null )
+			ret = new DenseMatrix64F( 4, 4 );
+		else
+			ret.reshape(4,4);
+
+		Matrix3x3_F64 R = se.R;
+		Vector3D_F64 T = se.T;
+
+		/**/double[] d = ret.data;
+		d[0 ] = R.a11; d[1 ] = R.a12; d[2 ] = R.a13; d[3 ] = T.x;
+		d[4 ] = R.a21; d[5 ] = R.a22; d[6 ] = R.a23; d[7 ] = T.y;
+		d[8 ] = R.a31; d[9 ] = R.a32; d[10] = R.a33; d[11] = T.z;
+		d[12] = 0;     d[13] = 0;     d[14] = 0;     d[15] = 1;
+
+		return ret;
+	}
+
+	/**
+	 * Converts a homogeneous representation into {@link Se3Fixed_F64}.
+	 *
+	 * @param H   Homogeneous 4 by 4 matrix.
+	 * @param ret If not null where the results are written to.
+	 * @return Se3Fixed_F64 transform.
+	 */
+	public static Se3Fixed_F64 toSe3Fixed( DenseMatrix64F H, Se3Fixed_F64 ret ) {
+		if( H.numCols != 4 || H.numRows != 4 )
+			throw new IllegalArgumentException( "The homogeneous matrix must be 4 by 4 by definition." );
+
+		if( ret == null )
+			ret = new Se3Fixed_F64();
+
+		/**/double[] d = H.data;
+		ret.R.set( (double)d[0], (double)d[1], (double)d[2],
+				(double)d[4], (double)d[5], (double)d[6],
+				(double)d[8], (double)d[9], (double)d[10]);
+		ret.T.set( (double)d[3], (double)d[7], (double)d[11]);
+
+		return ret;
+	}
+
 	/**
 	 * Converts a homogeneous representation into {@link Se3_F64}.
 	 *
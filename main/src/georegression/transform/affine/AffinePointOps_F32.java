@@ -18,7 +18,9 @@
 
 package georegression.transform.affine;
 
+import georegression.misc.GrlConcurrency;
 import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.PackedPoint2D_F32;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Vector2D_F32;
 
@@ -102,4 +104,64 @@ public class AffinePointOps_F32 {
 
 		return result;
 	}
+
+	/**
+	 * Applies a 2D affine transform to points which are packed into an array as (x,y) pairs. 'src' and 'dst'
+	 * can be the same array if the offsets are the same.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Packed points which are to be transformed. Not modified.
+	 * @param srcOffset Index of the first element in 'src'
+	 * @param dst Storage for the packed transformed points. Modified.
+	 * @param dstOffset Index of the first element in 'dst'
+	 * @param count Number of points that are to be transformed.
+	 */
+	public static void transform( Affine2D_F32 se, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final float a11 = se.a11, a12 = se.a12, a21 = se.a21, a22 = se.a22;
+		final float tx = se.tx, ty = se.ty;
+
+		final int end = srcOffset + count*2;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2 ) {
+			float x = src[i];
+			float y = src[i+1];
+
+			dst[j  ] = tx + a11 * x + a12 * y;
+			dst[j+1] = ty + a21 * x + a22 * y;
+		}
+	}
+
+	/**
+	 * Applies a 2D affine transform to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transform( Affine2D_F32 se, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transform(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Affine2D_F32, float[], int, float[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformConcurrent( final Affine2D_F32 se, final float[] src, final int srcOffset,
+										final float[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transform(se,src,srcOffset+idx0*2,dst,dstOffset+idx0*2,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Affine2D_F32, PackedPoint2D_F32, PackedPoint2D_F32)}
+	 */
+	public static void transformConcurrent( Affine2D_F32 se, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transformConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
 }
@@ -18,7 +18,9 @@
 
 package georegression.transform.homography;
 
+import georegression.misc.GrlConcurrency;
 import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.point.PackedPoint2D_F32;
 import georegression.struct.point.Point2D_F32;
 
 
@@ -84,4 +86,67 @@ public class HomographyPointOps_F32 {
 
 		return result;
 	}
+
+	/**
+	 * Applies a 2D homography transform to points which are packed into an array as (x,y) pairs. 'src' and 'dst'
+	 * can be the same array if the offsets are the same.
+	 *
+	 * @param H Homography transform. Not modified.
+	 * @param src Packed points which are to be transformed. Not modified.
+	 * @param srcOffset Index of the first element in 'src'
+	 * @param dst Storage for the packed transformed points. Modified.
+	 * @param dstOffset Index of the first element in 'dst'
+	 * @param count Number of points that are to be transformed.
+	 */
+	public static void transform( Homography2D_F32 H, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final float a11 = H.a11, a12 = H.a12, a13 = H.a13;
+		final float a21 = H.a21, a22 = H.a22, a23 = H.a23;
+		final float a31 = H.a31, a32 = H.a32, a33 = H.a33;
+
+		final int end = srcOffset + count*2;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2 ) {
+			float x = src[i];
+			float y = src[i+1];
+
+			float z = a31 * x + a32 * y + a33;
+
+			dst[j  ] = (a11 * x + a12 * y + a13)/z;
+			dst[j+1] = (a21 * x + a22 * y + a23)/z;
+		}
+	}
+
+	/**
+	 * Applies a 2D homography transform to all the packed points.
+	 *
+	 * @param H Homography transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transform( Homography2D_F32 H, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transform(H,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Homography2D_F32, float[], int, float[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformConcurrent( final Homography2D_F32 H, final float[] src, final int srcOffset,
+										final float[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transform(H,src,srcOffset+idx0*2,dst,dstOffset+idx0*2,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Homography2D_F32, PackedPoint2D_F32, PackedPoint2D_F32)}
+	 */
+	public static void transformConcurrent( Homography2D_F32 H, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transformConcurrent(H,src.data,0,dst.data,0,src.size);
+	}
 }
@@ -18,10 +18,8 @@
 
 package georegression.transform.se;
 
+import georegression.fitting.FixedDecomposition_F64;
 import georegression.struct.so.Quaternion_F64;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.DecompositionFactory;
-import org.ejml.interfaces.decomposition.EigenDecomposition;
 
 import java.util.List;
 
@@ -34,9 +32,12 @@ import java.util.List;
  */
 public class AverageQuaternion_F64 {
 
-	DenseMatrix64F M = new DenseMatrix64F(4,4);
+	// sum of q*q^T
+	double M[] = new double[16];
 
-	EigenDecomposition<DenseMatrix64F> eig = DecompositionFactory.eig(4,true,true);
+	FixedDecomposition_F64 decomposition = new FixedDecomposition_F64();
+	double values[] = new double[4];
+	double vectors[] = new double[16];
 
 	public boolean process(List<Quaternion_F64> list , Quaternion_F64 average ) {
 
@@ -45,7 +46,9 @@ public class AverageQuaternion_F64 {
 		if( average == null )
 			throw new IllegalArgumentException("average is null");
 
-		M.zero();
+		for (int i = 0; i < 16; i++) {
+			M[i] = 0;
+		}
 
 		for (int i = 0; i < list.size(); i++) {
 			Quaternion_F64 q = list.get(i);
@@ -54,36 +57,25 @@ public class AverageQuaternion_F64 {
 			// Where q is a column [w,x,y,z] vector
 
 			// row 0
-			M.data[0]  += q.w*q.w; M.data[1]  += q.w*q.x; M.data[2]  += q.w*q.y; M.data[3]  += q.w*q.z;
+			M[0]  += q.w*q.w; M[1]  += q.w*q.x; M[2]  += q.w*q.y; M[3]  += q.w*q.z;
 			// row 1
-			M.data[4]  += q.x*q.w; M.data[5]  += q.x*q.x; M.data[6]  += q.x*q.y; M.data[7]  += q.x*q.z;
+			M[4]  += q.x*q.w; M[5]  += q.x*q.x; M[6]  += q.x*q.y; M[7]  += q.x*q.z;
 			// row 2
-			M.data[8]  += q.y*q.w; M.data[9]  += q.y*q.x; M.data[10] += q.y*q.y; M.data[11] += q.y*q.z;
+			M[8]  += q.y*q.w; M[9]  += q.y*q.x; M[10] += q.y*q.y; M[11] += q.y*q.z;
 			// row 3
-			M.data[12] += q.z*q.w; M.data[13] += q.z*q.x; M.data[14] += q.z*q.y; M.data[15] += q.z*q.z;
+			M[12] += q.z*q.w; M[13] += q.z*q.x; M[14] += q.z*q.y; M[15] += q.z*q.z;
 		}
 
-		if( !eig.decompose(M) )
+		if( !decomposition.symmetricEigen4(M,values,vectors) )
 			return false;
 
-		// the largest eigenvector is the quaternion
-		int largest = 0;
-		/**/double largestMag = eig.getEigenvalue(0).getMagnitude2();
-		for (int i = 1; i < 4; i++) {
-			/**/double mag = eig.getEigenvalue(i).getMagnitude2();
-			if( mag > largestMag ) {
-				largestMag = mag;
-				largest = i;
-			}
-		}
-
-		DenseMatrix64F v = eig.getEigenVector(largest);
-
+		// the eigenvector with the largest eigenvalue is the quaternion.  Eigenvalues are sorted in
+		// descending order and are all positive since M is positive semi-definite.
 		// this will be a normalized quaternion due to properties of eigenvectors
-		average.w = (double) v.get(0);
-		average.x = (double) v.get(1);
-		average.y = (double) v.get(2);
-		average.z = (double) v.get(3);
+		average.w = vectors[0];
+		average.x = vectors[4];
+		average.y = vectors[8];
+		average.z = vectors[12];
 
 		return true;
 	}
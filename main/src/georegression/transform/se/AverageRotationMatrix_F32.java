@@ -18,14 +18,10 @@
 
 package georegression.transform.se;
 
+import georegression.fitting.FixedDecomposition_F32;
 import georegression.struct.so.Quaternion_F32;
-import org.ejml.alg.fixed.FixedOps3;
 import org.ejml.data.DenseMatrix64F;
 import org.ejml.data.FixedMatrix3x3_64F;
-import org.ejml.factory.DecompositionFactory;
-import org.ejml.interfaces.decomposition.SingularValueDecomposition;
-import org.ejml.ops.CommonOps;
-import org.ejml.ops.ConvertMatrixType;
 
 import java.util.List;
 
@@ -41,10 +37,14 @@ import java.util.List;
  */
 public class AverageRotationMatrix_F32 {
 
-	DenseMatrix64F M = new DenseMatrix64F(3,3);
-	FixedMatrix3x3_64F F = new FixedMatrix3x3_64F();
+	// sum of all the matrices
+	float M[] = new float[9];
 
-	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3,3,true,true,true);
+	FixedDecomposition_F32 decomposition = new FixedDecomposition_F32();
+	float U[] = new float[9];
+	float S[] = new float[3];
+	float V[] = new float[9];
+	float R[] = new float[9];
 
 	public boolean process(List<DenseMatrix64F> list , DenseMatrix64F average ) {
 
@@ -53,32 +53,30 @@ public class AverageRotationMatrix_F32 {
 		if( average == null )
 			throw new IllegalArgumentException("average is null");
 
-		M.zero();
+		for (int i = 0; i < 9; i++) {
+			M[i] = 0;
+		}
 
 		for (int i = 0; i < list.size(); i++) {
-			DenseMatrix64F m = list.get(i);
+			/**/double a[] = list.get(i).data;
 
-			// unroll to make it faster.  M = M + m
+			// unroll to make it faster.  M = M + a
 			// row 0
-			M.data[0]  += m.data[0]; M.data[1]  += m.data[1]; M.data[2]  += m.data[2];
+			M[0]  += a[0]; M[1]  += a[1]; M[2]  += a[2];
 			// row 1
-			M.data[3]  += m.data[3]; M.data[4]  += m.data[4]; M.data[5]  += m.data[5];
+			M[3]  += a[3]; M[4]  += a[4]; M[5]  += a[5];
 			// row 2
-			M.data[6]  += m.data[6]; M.data[7]  += m.data[7]; M.data[8]  += m.data[8];
+			M[6]  += a[6]; M[7]  += a[7]; M[8]  += a[8];
 		}
 
-		CommonOps.divide(M,list.size());
-
-		if( !svd.decompose(M) )
+		// scaling M by 1/N does not change the singular vectors so it's skipped
+		if( !computeAverage() )
 			return false;
 
-		CommonOps.multTransB(svd.getU(null,false),svd.getV(null,false),average);
-
-		// determinant should be +1
-		/**/double det = CommonOps.det(average);
-
-		if( det < 0 )
-			CommonOps.scale(-1,average);
+		average.reshape(3,3);
+		for (int i = 0; i < 9; i++) {
+			average.data[i] = R[i];
+		}
 
 		return true;
 	}
@@ -90,35 +88,53 @@ public class AverageRotationMatrix_F32 {
 		if( average == null )
 			throw new IllegalArgumentException("average is null");
 
-		FixedOps3.fill(F,0);
+		for (int i = 0; i < 9; i++) {
+			M[i] = 0;
+		}
 
 		for (int i = 0; i < list.size(); i++) {
-			FixedMatrix3x3_64F m = list.get(i);
+			FixedMatrix3x3_64F a = list.get(i);
 
-			// unroll to make it faster.  M = M + m
+			// unroll to make it faster.  M = M + a
 			// row 0
-			F.a11  += m.a11; F.a12  += m.a12; F.a13  += m.a13;
+			M[0]  += a.a11; M[1]  += a.a12; M[2]  += a.a13;
 			// row 1
-			F.a21  += m.a21; F.a22  += m.a22; F.a23  += m.a23;
+			M[3]  += a.a21; M[4]  += a.a22; M[5]  += a.a23;
 			// row 2
-			F.a31  += m.a31; F.a32  += m.a32; F.a33  += m.a33;
+			M[6]  += a.a31; M[7]  += a.a32; M[8]  += a.a33;
 		}
 
-		FixedOps3.divide(F,list.size());
+		if( !computeAverage() )
+			return false;
 
-		ConvertMatrixType.convert(F,M);
-		if( !svd.decompose(M) )
+		average.a11 = R[0]; average.a12 = R[1]; average.a13 = R[2];
+		average.a21 = R[3]; average.a22 = R[4]; average.a23 = R[5];
+		average.a31 = R[6]; average.a32 = R[7]; average.a33 = R[8];
+
+		return true;
+	}
+
+	/**
+	 * Finds the rotation matrix closest to M, R = U*V<sup>T</sup>
+	 */
+	private boolean computeAverage() {
+		if( !decomposition.svd3(M,U,S,V) )
 			return false;
 
-		CommonOps.multTransB(svd.getU(null,false),svd.getV(null,false),M);
+		for (int row = 0; row < 3; row++) {
+			for (int col = 0; col < 3; col++) {
+				R[row*3+col] = U[row*3]*V[col*3] + U[row*3+1]*V[col*3+1] + U[row*3+2]*V[col*3+2];
+			}
+		}
 
 		// determinant should be +1
-		/**/double det = CommonOps.det(M);
-
-		if( det < 0 )
-			CommonOps.scale(-1,M);
+		float det = R[0]*(R[4]*R[8] - R[5]*R[7]) - R[1]*(R[3]*R[8] - R[5]*R[6]) + R[2]*(R[3]*R[7] - R[4]*R[6]);
 
-		ConvertMatrixType.convert(M,average);
+		if( det < 0 ) {
+			for (int i = 0; i < 9; i++) {
+				R[i] = -R[i];
+			}
+		}
 
 		return true;
 	}
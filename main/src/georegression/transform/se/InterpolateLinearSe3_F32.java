@@ -19,7 +19,9 @@
 package georegression.transform.se;
 
 import georegression.geometry.ConvertRotation3D_F32;
+import georegression.struct.Matrix3x3_F32;
 import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se3Fixed_F32;
 import georegression.struct.se.Se3_F32;
 import georegression.struct.so.Rodrigues_F32;
 import org.ejml.data.DenseMatrix64F;
@@ -52,6 +54,10 @@ public class InterpolateLinearSe3_F32 {
 	// difference between the initial transform and the end or the output
 	DenseMatrix64F R = new DenseMatrix64F(3,3);
 
+	// work space for the Se3Fixed_F32 functions
+	Se3_F32 work0 = new Se3_F32();
+	Se3_F32 work1 = new Se3_F32();
+
 	/**
 	 * Specify the two transforms which values are to be interpolated between
 	 * @param initial first transform
@@ -87,4 +93,41 @@ public class InterpolateLinearSe3_F32 {
 		CommonOps.mult(initial.R,R,output.R);
 	}
 
+	/**
+	 * Specify the two transforms which values are to be interpolated between
+	 * @param initial first transform
+	 * @param end second transform
+	 */
+	public void setTransforms( Se3Fixed_F32 initial , Se3Fixed_F32 end) {
+		setTransforms(initial.get(work0),end.get(work1));
+	}
+
+	/**
+	 * Interpolates a value between the first and second transform.  A value close to 0 will be
+	 * more similar to the initial and 1 more similar to the end.
+	 * @param where A value between 0 and 1 which specifies the interpolation location
+	 * @param output Resulting transform
+	 */
+	public void interpolate( float where , Se3Fixed_F32 output ) {
+		rotation.setTheta(where*rotMagnitude);
+		ConvertRotation3D_F32.rodriguesToMatrix(rotation,R);
+
+		output.T.x = initial.T.x + where*translation.x;
+		output.T.y = initial.T.y + where*translation.y;
+		output.T.z = initial.T.z + where*translation.z;
+
+		// output.R = initial.R*R
+		/**/double a[] = initial.R.data;
+		/**/double b[] = R.data;
+		Matrix3x3_F32 c = output.R;
+		c.a11 = (float)(a[0]*b[0] + a[1]*b[3] + a[2]*b[6]);
+		c.a12 = (float)(a[0]*b[1] + a[1]*b[4] + a[2]*b[7]);
+		c.a13 = (float)(a[0]*b[2] + a[1]*b[5] + a[2]*b[8]);
+		c.a21 = (float)(a[3]*b[0] + a[4]*b[3] + a[5]*b[6]);
+		c.a22 = (float)(a[3]*b[1] + a[4]*b[4] + a[5]*b[7]);
+		c.a23 = (float)(a[3]*b[2] + a[4]*b[5] + a[5]*b[8]);
+		c.a31 = (float)(a[6]*b[0] + a[7]*b[3] + a[8]*b[6]);
+		c.a32 = (float)(a[6]*b[1] + a[7]*b[4] + a[8]*b[7]);
+		c.a33 = (float)(a[6]*b[2] + a[7]*b[5] + a[8]*b[8]);
+	}
 }
@@ -18,11 +18,16 @@
 
 package georegression.transform.se;
 
+import georegression.misc.GrlConcurrency;
 import georegression.geometry.GeometryMath_F32;
+import georegression.struct.Matrix3x3_F32;
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.point.PackedPoint3D_F32;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3Fixed_F32;
 import georegression.struct.se.Se3_F32;
 import org.ejml.data.DenseMatrix64F;
 
@@ -225,4 +230,352 @@ public class SePointOps_F32 {
 
 		return tranPt;
 	}
+
+	/**
+	 * <p>.
+	 * Applies the transform specified by {@link Se3Fixed_F32} to a point.<br>
+	 * <br>
+	 * p' = R*p + T
+	 * </p>
+	 * <p>
+	 * Both origPt and tranPt can be the same instance.
+	 * </p>
+	 *
+	 * @param se	 SpecialEuclidean transform. Not modified.
+	 * @param origPt Original coordinate of the point. Not modified.
+	 * @param tranPt Storage for transformed coordinate of the point. Point declared if null.  Modified.
+	 * @return Transformed point.
+	 */
+	public static Point3D_F32 transform( Se3Fixed_F32 se, Point3D_F32 origPt, Point3D_F32 tranPt ) {
+		if( tranPt == null )
+			tranPt = new Point3D_F32();
+
+		Matrix3x3_F32 R = se.R;
+		Vector3D_F32 T = se.T;
+
+		float x = origPt.x, y = origPt.y, z = origPt.z;
+
+		tranPt.x = (R.a11 * x + R.a12 * y + R.a13 * z) + T.x;
+		tranPt.y = (R.a21 * x + R.a22 * y + R.a23 * z) + T.y;
+		tranPt.z = (R.a31 * x + R.a32 * y + R.a33 * z) + T.z;
+
+		return tranPt;
+	}
+
+	/**
+	 * <p>.
+	 * Applies the transform specified by {@link Se3Fixed_F32} in the reverse direction<br>
+	 * <br>
+	 * p = R<sup>T</sup>*(p'-T)
+	 * </p>
+	 * <p>
+	 * Both origPt and tranPt can be the same instance.
+	 * </p>
+	 *
+	 * @param se	 SpecialEuclidean transform.
+	 * @param origPt Original coordinate of the point.
+	 * @param tranPt Transformed coordinate of the point.
+	 */
+	public static Point3D_F32 transformReverse( Se3Fixed_F32 se, Point3D_F32 origPt, Point3D_F32 tranPt ) {
+		if( tranPt == null )
+			tranPt = new Point3D_F32();
+
+		Matrix3x3_F32 R = se.R;
+		Vector3D_F32 T = se.T;
+
+		float x = origPt.x - T.x, y = origPt.y - T.y, z = origPt.z - T.z;
+
+		tranPt.x = R.a11 * x + R.a21 * y + R.a31 * z;
+		tranPt.y = R.a12 * x + R.a22 * y + R.a32 * z;
+		tranPt.z = R.a13 * x + R.a23 * y + R.a33 * z;
+
+		return tranPt;
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points which are packed into an array as (x,y) pairs.
+	 * The rotation and translation are read once before iterating through the points.
+	 * </p>
+	 * <p>
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 * </p>
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Packed points which are to be transformed. Not modified.
+	 * @param srcOffset Index of the first element in 'src'
+	 * @param dst Storage for the packed transformed points. Modified.
+	 * @param dstOffset Index of the first element in 'dst'
+	 * @param count Number of points that are to be transformed.
+	 */
+	public static void transform( Se2_F32 se, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		final int end = srcOffset + count*2;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2 ) {
+			float x = src[i];
+			float y = src[i+1];
+
+			dst[j  ] = tranX + x * c - y * s;
+			dst[j+1] = tranY + x * s + y * c;
+		}
+	}
+
+	/**
+	 * Applies the 2D special euclidean transform in the reverse direction to points which are packed into an
+	 * array as (x,y) pairs.  'src' and 'dst' can be the same array if the offsets are the same.
+	 *
+	 * @see #transform(Se2_F32, float[], int, float[], int, int)
+	 */
+	public static void transformReverse( Se2_F32 se, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		final int end = srcOffset + count*2;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2 ) {
+			float x = src[i  ] - tranX;
+			float y = src[i+1] - tranY;
+
+			dst[j  ] = x * c + y * s;
+			dst[j+1] = -x * s + y * c;
+		}
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transform( Se2_F32 se, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transform(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform in the reverse direction to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transformReverse( Se2_F32 se, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transformReverse(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points which are packed into an array as (x,y,z) triples.
+	 * p' = R*p + T.  The elements of R and T are copied into local variables once and each point is
+	 * then transformed using straight line code.
+	 * </p>
+	 * <p>
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 * </p>
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Packed points which are to be transformed. Not modified.
+	 * @param srcOffset Index of the first element in 'src'
+	 * @param dst Storage for the packed transformed points. Modified.
+	 * @param dstOffset Index of the first element in 'dst'
+	 * @param count Number of points that are to be transformed.
+	 */
+	public static void transform( Se3_F32 se, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final /**/double R[] = se.R.data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+		final float tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		final int end = srcOffset + count*3;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3 ) {
+			float x = src[i];
+			float y = src[i+1];
+			float z = src[i+2];
+
+			dst[j  ] = (r11 * x + r12 * y + r13 * z) + tx;
+			dst[j+1] = (r21 * x + r22 * y + r23 * z) + ty;
+			dst[j+2] = (r31 * x + r32 * y + r33 * z) + tz;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies the 3D special euclidean transform in the reverse direction to points which are packed into an
+	 * array as (x,y,z) triples.  p = R<sup>T</sup>*(p'-T)
+	 * </p>
+	 * <p>
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 * </p>
+	 *
+	 * @see #transform(Se3_F32, float[], int, float[], int, int)
+	 */
+	public static void transformReverse( Se3_F32 se, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final /**/double R[] = se.R.data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+		final float tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		final int end = srcOffset + count*3;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3 ) {
+			float x = src[i  ] - tx;
+			float y = src[i+1] - ty;
+			float z = src[i+2] - tz;
+
+			dst[j  ] = r11 * x + r21 * y + r31 * z;
+			dst[j+1] = r12 * x + r22 * y + r32 * z;
+			dst[j+2] = r13 * x + r23 * y + r33 * z;
+		}
+	}
+
+	/**
+	 * Applies a {@link Se3Fixed_F32} transform to points which are packed into an array as (x,y,z) triples.
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 *
+	 * @see #transform(Se3_F32, float[], int, float[], int, int)
+	 */
+	public static void transform( Se3Fixed_F32 se, float[] src, int srcOffset, float[] dst, int dstOffset, int count ) {
+		final Matrix3x3_F32 R = se.R;
+		final float r11 = R.a11, r12 = R.a12, r13 = R.a13;
+		final float r21 = R.a21, r22 = R.a22, r23 = R.a23;
+		final float r31 = R.a31, r32 = R.a32, r33 = R.a33;
+		final float tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		final int end = srcOffset + count*3;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3 ) {
+			float x = src[i];
+			float y = src[i+1];
+			float z = src[i+2];
+
+			dst[j  ] = (r11 * x + r12 * y + r13 * z) + tx;
+			dst[j+1] = (r21 * x + r22 * y + r23 * z) + ty;
+			dst[j+2] = (r31 * x + r32 * y + r33 * z) + tz;
+		}
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transform( Se3_F32 se, PackedPoint3D_F32 src, PackedPoint3D_F32 dst ) {
+		dst.resize(src.size);
+		transform(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform in the reverse direction to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transformReverse( Se3_F32 se, PackedPoint3D_F32 src, PackedPoint3D_F32 dst ) {
+		dst.resize(src.size);
+		transformReverse(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se2_F32, float[], int, float[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformConcurrent( final Se2_F32 se, final float[] src, final int srcOffset,
+										final float[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transform(se,src,srcOffset+idx0*2,dst,dstOffset+idx0*2,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se2_F32, PackedPoint2D_F32, PackedPoint2D_F32)}
+	 */
+	public static void transformConcurrent( Se2_F32 se, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transformConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se2_F32, float[], int, float[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformReverseConcurrent( final Se2_F32 se, final float[] src, final int srcOffset,
+										final float[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transformReverse(se,src,srcOffset+idx0*2,dst,dstOffset+idx0*2,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se2_F32, PackedPoint2D_F32, PackedPoint2D_F32)}
+	 */
+	public static void transformReverseConcurrent( Se2_F32 se, PackedPoint2D_F32 src, PackedPoint2D_F32 dst ) {
+		dst.resize(src.size);
+		transformReverseConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F32, float[], int, float[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformConcurrent( final Se3_F32 se, final float[] src, final int srcOffset,
+										final float[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transform(se,src,srcOffset+idx0*3,dst,dstOffset+idx0*3,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F32, PackedPoint3D_F32, PackedPoint3D_F32)}
+	 */
+	public static void transformConcurrent( Se3_F32 se, PackedPoint3D_F32 src, PackedPoint3D_F32 dst ) {
+		dst.resize(src.size);
+		transformConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se3_F32, float[], int, float[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformReverseConcurrent( final Se3_F32 se, final float[] src, final int srcOffset,
+										final float[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transformReverse(se,src,srcOffset+idx0*3,dst,dstOffset+idx0*3,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se3_F32, PackedPoint3D_F32, PackedPoint3D_F32)}
+	 */
+	public static void transformReverseConcurrent( Se3_F32 se, PackedPoint3D_F32 src, PackedPoint3D_F32 dst ) {
+		dst.resize(src.size);
+		transformReverseConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
 }
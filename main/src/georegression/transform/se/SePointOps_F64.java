@@ -18,11 +18,16 @@
 
 package georegression.transform.se;
 
+import georegression.misc.GrlConcurrency;
 import georegression.geometry.GeometryMath_F64;
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.PackedPoint2D_F64;
+import georegression.struct.point.PackedPoint3D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se2_F64;
+import georegression.struct.se.Se3Fixed_F64;
 import georegression.struct.se.Se3_F64;
 import org.ejml.data.DenseMatrix64F;
 
@@ -225,4 +230,352 @@ public class SePointOps_F64 {
 
 		return tranPt;
 	}
+
+	/**
+	 * <p>.
+	 * Applies the transform specified by {@link Se3Fixed_F64} to a point.<br>
+	 * <br>
+	 * p' = R*p + T
+	 * </p>
+	 * <p>
+	 * Both origPt and tranPt can be the same instance.
+	 * </p>
+	 *
+	 * @param se	 SpecialEuclidean transform. Not modified.
+	 * @param origPt Original coordinate of the point. Not modified.
+	 * @param tranPt Storage for transformed coordinate of the point. Point declared if null.  Modified.
+	 * @return Transformed point.
+	 */
+	public static Point3D_F64 transform( Se3Fixed_F64 se, Point3D_F64 origPt, Point3D_F64 tranPt ) {
+		if( tranPt == null )
+			tranPt = new Point3D_F64();
+
+		Matrix3x3_F64 R = se.R;
+		Vector3D_F64 T = se.T;
+
+		double x = origPt.x, y = origPt.y, z = origPt.z;
+
+		tranPt.x = (R.a11 * x + R.a12 * y + R.a13 * z) + T.x;
+		tranPt.y = (R.a21 * x + R.a22 * y + R.a23 * z) + T.y;
+		tranPt.z = (R.a31 * x + R.a32 * y + R.a33 * z) + T.z;
+
+		return tranPt;
+	}
+
+	/**
+	 * <p>.
+	 * Applies the transform specified by {@link Se3Fixed_F64} in the reverse direction<br>
+	 * <br>
+	 * p = R<sup>T</sup>*(p'-T)
+	 * </p>
+	 * <p>
+	 * Both origPt and tranPt can be the same instance.
+	 * </p>
+	 *
+	 * @param se	 SpecialEuclidean transform.
+	 * @param origPt Original coordinate of the point.
+	 * @param tranPt Transformed coordinate of the point.
+	 */
+	public static Point3D_F64 transformReverse( Se3Fixed_F64 se, Point3D_F64 origPt, Point3D_F64 tranPt ) {
+		if( tranPt == null )
+			tranPt = new Point3D_F64();
+
+		Matrix3x3_F64 R = se.R;
+		Vector3D_F64 T = se.T;
+
+		double x = origPt.x - T.x, y = origPt.y - T.y, z = origPt.z - T.z;
+
+		tranPt.x = R.a11 * x + R.a21 * y + R.a31 * z;
+		tranPt.y = R.a12 * x + R.a22 * y + R.a32 * z;
+		tranPt.z = R.a13 * x + R.a23 * y + R.a33 * z;
+
+		return tranPt;
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points which are packed into an array as (x,y) pairs.
+	 * The rotation and translation are read once before iterating through the points.
+	 * </p>
+	 * <p>
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 * </p>
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Packed points which are to be transformed. Not modified.
+	 * @param srcOffset Index of the first element in 'src'
+	 * @param dst Storage for the packed transformed points. Modified.
+	 * @param dstOffset Index of the first element in 'dst'
+	 * @param count Number of points that are to be transformed.
+	 */
+	public static void transform( Se2_F64 se, double[] src, int srcOffset, double[] dst, int dstOffset, int count ) {
+		final double tranX = se.getX();
+		final double tranY = se.getY();
+
+		final double c = se.getCosineYaw();
+		final double s = se.getSineYaw();
+
+		final int end = srcOffset + count*2;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2 ) {
+			double x = src[i];
+			double y = src[i+1];
+
+			dst[j  ] = tranX + x * c - y * s;
+			dst[j+1] = tranY + x * s + y * c;
+		}
+	}
+
+	/**
+	 * Applies the 2D special euclidean transform in the reverse direction to points which are packed into an
+	 * array as (x,y) pairs.  'src' and 'dst' can be the same array if the offsets are the same.
+	 *
+	 * @see #transform(Se2_F64, double[], int, double[], int, int)
+	 */
+	public static void transformReverse( Se2_F64 se, double[] src, int srcOffset, double[] dst, int dstOffset, int count ) {
+		final double tranX = se.getX();
+		final double tranY = se.getY();
+
+		final double c = se.getCosineYaw();
+		final double s = se.getSineYaw();
+
+		final int end = srcOffset + count*2;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 2, j += 2 ) {
+			double x = src[i  ] - tranX;
+			double y = src[i+1] - tranY;
+
+			dst[j  ] = x * c + y * s;
+			dst[j+1] = -x * s + y * c;
+		}
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transform( Se2_F64 se, PackedPoint2D_F64 src, PackedPoint2D_F64 dst ) {
+		dst.resize(src.size);
+		transform(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform in the reverse direction to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transformReverse( Se2_F64 se, PackedPoint2D_F64 src, PackedPoint2D_F64 dst ) {
+		dst.resize(src.size);
+		transformReverse(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points which are packed into an array as (x,y,z) triples.
+	 * p' = R*p + T.  The elements of R and T are copied into local variables once and each point is
+	 * then transformed using straight line code.
+	 * </p>
+	 * <p>
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 * </p>
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Packed points which are to be transformed. Not modified.
+	 * @param srcOffset Index of the first element in 'src'
+	 * @param dst Storage for the packed transformed points. Modified.
+	 * @param dstOffset Index of the first element in 'dst'
+	 * @param count Number of points that are to be transformed.
+	 */
+	public static void transform( Se3_F64 se, double[] src, int srcOffset, double[] dst, int dstOffset, int count ) {
+		final /**/double R[] = se.R.data;
+		final double r11 = (double)R[0], r12 = (double)R[1], r13 = (double)R[2];
+		final double r21 = (double)R[3], r22 = (double)R[4], r23 = (double)R[5];
+		final double r31 = (double)R[6], r32 = (double)R[7], r33 = (double)R[8];
+		final double tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		final int end = srcOffset + count*3;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3 ) {
+			double x = src[i];
+			double y = src[i+1];
+			double z = src[i+2];
+
+			dst[j  ] = (r11 * x + r12 * y + r13 * z) + tx;
+			dst[j+1] = (r21 * x + r22 * y + r23 * z) + ty;
+			dst[j+2] = (r31 * x + r32 * y + r33 * z) + tz;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies the 3D special euclidean transform in the reverse direction to points which are packed into an
+	 * array as (x,y,z) triples.  p = R<sup>T</sup>*(p'-T)
+	 * </p>
+	 * <p>
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 * </p>
+	 *
+	 * @see #transform(Se3_F64, double[], int, double[], int, int)
+	 */
+	public static void transformReverse( Se3_F64 se, double[] src, int srcOffset, double[] dst, int dstOffset, int count ) {
+		final /**/double R[] = se.R.data;
+		final double r11 = (double)R[0], r12 = (double)R[1], r13 = (double)R[2];
+		final double r21 = (double)R[3], r22 = (double)R[4], r23 = (double)R[5];
+		final double r31 = (double)R[6], r32 = (double)R[7], r33 = (double)R[8];
+		final double tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		final int end = srcOffset + count*3;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3 ) {
+			double x = src[i  ] - tx;
+			double y = src[i+1] - ty;
+			double z = src[i+2] - tz;
+
+			dst[j  ] = r11 * x + r21 * y + r31 * z;
+			dst[j+1] = r12 * x + r22 * y + r32 * z;
+			dst[j+2] = r13 * x + r23 * y + r33 * z;
+		}
+	}
+
+	/**
+	 * Applies a {@link Se3Fixed_F64} transform to points which are packed into an array as (x,y,z) triples.
+	 * 'src' and 'dst' can be the same array if the offsets are the same.
+	 *
+	 * @see #transform(Se3_F64, double[], int, double[], int, int)
+	 */
+	public static void transform( Se3Fixed_F64 se, double[] src, int srcOffset, double[] dst, int dstOffset, int count ) {
+		final Matrix3x3_F64 R = se.R;
+		final double r11 = R.a11, r12 = R.a12, r13 = R.a13;
+		final double r21 = R.a21, r22 = R.a22, r23 = R.a23;
+		final double r31 = R.a31, r32 = R.a32, r33 = R.a33;
+		final double tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		final int end = srcOffset + count*3;
+		for( int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3 ) {
+			double x = src[i];
+			double y = src[i+1];
+			double z = src[i+2];
+
+			dst[j  ] = (r11 * x + r12 * y + r13 * z) + tx;
+			dst[j+1] = (r21 * x + r22 * y + r23 * z) + ty;
+			dst[j+2] = (r31 * x + r32 * y + r33 * z) + tz;
+		}
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transform( Se3_F64 se, PackedPoint3D_F64 src, PackedPoint3D_F64 dst ) {
+		dst.resize(src.size);
+		transform(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform in the reverse direction to all the packed points.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src Points which are to be transformed. Not modified.
+	 * @param dst Storage for the transformed points.  Can be the same instance as 'src'. Modified.
+	 */
+	public static void transformReverse( Se3_F64 se, PackedPoint3D_F64 src, PackedPoint3D_F64 dst ) {
+		dst.resize(src.size);
+		transformReverse(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se2_F64, double[], int, double[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformConcurrent( final Se2_F64 se, final double[] src, final int srcOffset,
+										final double[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transform(se,src,srcOffset+idx0*2,dst,dstOffset+idx0*2,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se2_F64, PackedPoint2D_F64, PackedPoint2D_F64)}
+	 */
+	public static void transformConcurrent( Se2_F64 se, PackedPoint2D_F64 src, PackedPoint2D_F64 dst ) {
+		dst.resize(src.size);
+		transformConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se2_F64, double[], int, double[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformReverseConcurrent( final Se2_F64 se, final double[] src, final int srcOffset,
+										final double[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transformReverse(se,src,srcOffset+idx0*2,dst,dstOffset+idx0*2,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se2_F64, PackedPoint2D_F64, PackedPoint2D_F64)}
+	 */
+	public static void transformReverseConcurrent( Se2_F64 se, PackedPoint2D_F64 src, PackedPoint2D_F64 dst ) {
+		dst.resize(src.size);
+		transformReverseConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F64, double[], int, double[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformConcurrent( final Se3_F64 se, final double[] src, final int srcOffset,
+										final double[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transform(se,src,srcOffset+idx0*3,dst,dstOffset+idx0*3,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F64, PackedPoint3D_F64, PackedPoint3D_F64)}
+	 */
+	public static void transformConcurrent( Se3_F64 se, PackedPoint3D_F64 src, PackedPoint3D_F64 dst ) {
+		dst.resize(src.size);
+		transformConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se3_F64, double[], int, double[], int, int)}.  The points are broken up
+	 * into blocks which are processed by {@link GrlConcurrency}.  Results are identical to the single threaded
+	 * version.
+	 */
+	public static void transformReverseConcurrent( final Se3_F64 se, final double[] src, final int srcOffset,
+										final double[] dst, final int dstOffset, int count ) {
+		GrlConcurrency.loopBlocks(0,count,new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				transformReverse(se,src,srcOffset+idx0*3,dst,dstOffset+idx0*3,idx1-idx0);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se3_F64, PackedPoint3D_F64, PackedPoint3D_F64)}
+	 */
+	public static void transformReverseConcurrent( Se3_F64 se, PackedPoint3D_F64 src, PackedPoint3D_F64 dst ) {
+		dst.resize(src.size);
+		transformReverseConcurrent(se,src.data,0,dst.data,0,src.size);
+	}
 }
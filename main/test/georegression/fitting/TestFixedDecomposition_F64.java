@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFixedDecomposition_F64 {
+
+	Random rand = new Random(234);
+
+	FixedDecomposition_F64 alg = new FixedDecomposition_F64();
+
+	double U[] = new double[9];
+	double S[] = new double[3];
+	double V[] = new double[9];
+
+	@Test
+	public void svd3_random() {
+		for (int trial = 0; trial < 50; trial++) {
+			double A[] = new double[9];
+			for (int i = 0; i < 9; i++) {
+				A[i] = rand.nextGaussian();
+			}
+			checkSvd(A);
+		}
+	}
+
+	@Test
+	public void svd3_singular() {
+		double a[] = new double[]{1,2,-0.5};
+		double b[] = new double[]{0.3,-1,2};
+		double c[] = new double[]{-2,0.1,0.4};
+		double d[] = new double[]{0.5,0.5,-1};
+
+		// rank 2
+		double A[] = new double[9];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				A[i*3+j] = a[i]*b[j] + c[i]*d[j];
+			}
+		}
+		checkSvd(A);
+		assertEquals(0, S[2], GrlConstants.DOUBLE_TEST_TOL);
+
+		// rank 1
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				A[i*3+j] = a[i]*b[j];
+			}
+		}
+		checkSvd(A);
+		assertEquals(0, S[1], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, S[2], GrlConstants.DOUBLE_TEST_TOL);
+
+		// rank 0
+		checkSvd(new double[9]);
+		assertEquals(0, S[0], 0);
+	}
+
+	/**
+	 * The input matrix should not be modified
+	 */
+	@Test
+	public void svd3_notModified() {
+		double A[] = new double[]{1,2,3,4,5,6,7,8,10};
+		double B[] = A.clone();
+
+		assertTrue(alg.svd3(A, U, S, V));
+		for (int i = 0; i < 9; i++) {
+			assertEquals(B[i], A[i], 0);
+		}
+	}
+
+	@Test
+	public void symmetricEigen3() {
+		for (int trial = 0; trial < 50; trial++) {
+			checkSymmetricEigen(3, randomSymmetric(3));
+		}
+
+		// repeated eigenvalues
+		checkSymmetricEigen(3, new double[]{2,0,0, 0,1,0, 0,0,2});
+		checkSymmetricEigen(3, new double[9]);
+	}
+
+	@Test
+	public void symmetricEigen4() {
+		for (int trial = 0; trial < 50; trial++) {
+			checkSymmetricEigen(4, randomSymmetric(4));
+		}
+
+		// repeated eigenvalues
+		checkSymmetricEigen(4, new double[]{1,0,0,0, 0,3,0,0, 0,0,1,0, 0,0,0,3});
+	}
+
+	@Test
+	public void solveSymmetric() {
+		FixedDecomposition_F64 alg = new FixedDecomposition_F64();
+
+		for (int N = 1; N <= FixedDecomposition_F64.MAX_SOLVE; N++) {
+			// positive definite matrix from M*M^T
+			double M[] = new double[N*N];
+			for (int i = 0; i < M.length; i++) {
+				M[i] = rand.nextGaussian();
+			}
+			double A[] = new double[N*N];
+			for (int i = 0; i < N; i++) {
+				for (int j = 0; j < N; j++) {
+					double sum = i == j ? 0.1 : 0;
+					for (int k = 0; k < N; k++) {
+						sum += M[i*N+k]*M[j*N+k];
+					}
+					A[i*N+j] = sum;
+				}
+			}
+			double expected[] = new double[N];
+			double b[] = new double[N];
+			for (int i = 0; i < N; i++) {
+				expected[i] = rand.nextGaussian();
+			}
+			for (int i = 0; i < N; i++) {
+				for (int j = 0; j < N; j++) {
+					b[i] += A[i*N+j]*expected[j];
+				}
+			}
+
+			double x[] = new double[N];
+			assertTrue(alg.solveSymmetric(A, b, x, N));
+			for (int i = 0; i < N; i++) {
+				assertEquals(expected[i], x[i], GrlConstants.DOUBLE_TEST_TOL*100);
+			}
+
+			// solve in place
+			assertTrue(alg.solveSymmetric(A, b, b, N));
+			for (int i = 0; i < N; i++) {
+				assertEquals(expected[i], b[i], GrlConstants.DOUBLE_TEST_TOL*100);
+			}
+		}
+
+		// not positive definite
+		assertFalse(alg.solveSymmetric(new double[]{1,2, 2,1}, new double[]{1,1}, new double[2], 2));
+	}
+
+	/**
+	 * Only the upper triangle should be read
+	 */
+	@Test
+	public void symmetricEigen_upperTriangle() {
+		double A[] = randomSymmetric(4);
+		double B[] = A.clone();
+		for (int i = 1; i < 4; i++) {
+			for (int j = 0; j < i; j++) {
+				B[i*4+j] = rand.nextGaussian();
+			}
+		}
+
+		double valuesA[] = new double[4];
+		double vectorsA[] = new double[16];
+		double valuesB[] = new double[4];
+		double vectorsB[] = new double[16];
+
+		assertTrue(alg.symmetricEigen4(A, valuesA, vectorsA));
+		assertTrue(alg.symmetricEigen4(B, valuesB, vectorsB));
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(valuesA[i], valuesB[i], 0);
+		}
+	}
+
+	private double[] randomSymmetric( int n ) {
+		double A[] = new double[n*n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				A[i*n+j] = A[j*n+i] = rand.nextGaussian();
+			}
+		}
+		return A;
+	}
+
+	private void checkSvd( double A[] ) {
+		double tol = GrlConstants.DOUBLE_TEST_TOL;
+
+		assertTrue(alg.svd3(A, U, S, V));
+
+		// sorted and positive
+		assertTrue(S[0] >= S[1]);
+		assertTrue(S[1] >= S[2]);
+		assertTrue(S[2] >= 0);
+
+		checkOrthogonal(U, 3, tol);
+		checkOrthogonal(V, 3, tol);
+
+		// A = U*diag(S)*V^T
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				double sum = 0;
+				for (int k = 0; k < 3; k++) {
+					sum += U[i*3+k]*S[k]*V[j*3+k];
+				}
+				assertEquals(A[i*3+j], sum, tol);
+			}
+		}
+	}
+
+	private void checkSymmetricEigen( int n , double A[] ) {
+		double tol = GrlConstants.DOUBLE_TEST_TOL;
+
+		double values[] = new double[n];
+		double vectors[] = new double[n*n];
+
+		if( n == 3 )
+			assertTrue(alg.symmetricEigen3(A, values, vectors));
+		else
+			assertTrue(alg.symmetricEigen4(A, values, vectors));
+
+		for (int i = 1; i < n; i++) {
+			assertTrue(values[i-1] >= values[i]);
+		}
+
+		checkOrthogonal(vectors, n, tol);
+
+		// A*v = lambda*v
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				double sum = 0;
+				for (int j = 0; j < n; j++) {
+					sum += A[i*n+j]*vectors[j*n+k];
+				}
+				assertEquals(values[k]*vectors[i*n+k], sum, tol);
+			}
+		}
+	}
+
+	private void checkOrthogonal( double M[] , int n , double tol ) {
+		for (int a = 0; a < n; a++) {
+			for (int b = 0; b < n; b++) {
+				double dot = 0;
+				for (int k = 0; k < n; k++) {
+					dot += M[k*n+a]*M[k*n+b];
+				}
+				assertEquals(a == b ? 1 : 0, dot, tol);
+			}
+		}
+	}
+}
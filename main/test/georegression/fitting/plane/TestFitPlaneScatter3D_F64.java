@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.plane;
+
+import georegression.geometry.UtilPlane3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitPlaneScatter3D_F64 {
+
+	Random rand = new Random(234);
+
+	Vector3D_F64 axisX,axisY,axisZ;
+	Point3D_F64 center;
+	List<Point3D_F64> cloud;
+
+	public TestFitPlaneScatter3D_F64() {
+		createCloud(100, 0);
+	}
+
+	/**
+	 * Compare against the batch algorithm on noisy data
+	 */
+	@Test
+	public void process_compareToBatch() {
+		createCloud(100, 0.05);
+
+		Point3D_F64 expectedCenter = new Point3D_F64();
+		Vector3D_F64 expectedNorm = new Vector3D_F64();
+		assertTrue(new FitPlane3D_F64().svd(cloud, expectedCenter, expectedNorm));
+
+		FitPlaneScatter3D_F64 alg = new FitPlaneScatter3D_F64();
+		alg.addAll(cloud);
+
+		Point3D_F64 foundCenter = new Point3D_F64();
+		Vector3D_F64 foundNorm = new Vector3D_F64();
+		assertTrue(alg.process(foundCenter, foundNorm));
+
+		GeometryUnitTest.assertEquals(expectedCenter, foundCenter, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1, Math.abs(expectedNorm.dot(foundNorm)), GrlConstants.DOUBLE_TEST_TOL);
+		assertTrue(alg.getMeanSquaredError() > 0);
+	}
+
+	@Test
+	public void process_noiseless() {
+		FitPlaneScatter3D_F64 alg = new FitPlaneScatter3D_F64();
+		alg.addAll(cloud);
+
+		Point3D_F64 foundCenter = new Point3D_F64();
+		Vector3D_F64 foundNorm = new Vector3D_F64();
+		assertTrue(alg.process(foundCenter, foundNorm));
+
+		checkPlane(foundCenter, foundNorm);
+		assertEquals(0, alg.getMeanSquaredError(), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void process_general() {
+		FitPlaneScatter3D_F64 alg = new FitPlaneScatter3D_F64();
+		alg.addAll(cloud);
+
+		PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64();
+		assertTrue(alg.process(plane));
+
+		for( Point3D_F64 p : cloud ) {
+			assertEquals(0, UtilPlane3D_F64.evaluate(plane, p), GrlConstants.DOUBLE_TEST_TOL);
+		}
+		assertEquals(1, Math.sqrt(plane.A*plane.A + plane.B*plane.B + plane.C*plane.C), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void process_tooFew() {
+		FitPlaneScatter3D_F64 alg = new FitPlaneScatter3D_F64();
+		alg.add(cloud.get(0));
+		alg.add(cloud.get(1));
+
+		assertFalse(alg.process(new Point3D_F64(), new Vector3D_F64()));
+		assertFalse(alg.process(new PlaneGeneral3D_F64()));
+	}
+
+	@Test
+	public void addAll_packed() {
+		PackedPoint3D_F64 packed = new PackedPoint3D_F64();
+		packed.addAll(cloud);
+
+		FitPlaneScatter3D_F64 expected = new FitPlaneScatter3D_F64();
+		expected.addAll(cloud);
+
+		FitPlaneScatter3D_F64 found = new FitPlaneScatter3D_F64();
+		found.addAll(packed);
+		checkIdentical(expected, found);
+
+		// offset into the array
+		found.reset();
+		found.addAll(cloud.subList(0,10));
+		found.addAll(packed.data, 10*3, cloud.size()-10);
+		checkIdentical(expected, found);
+	}
+
+	/**
+	 * Removing points should produce the same scatter as never having added them
+	 */
+	@Test
+	public void remove() {
+		createCloud(100, 0.05);
+
+		FitPlaneScatter3D_F64 alg = new FitPlaneScatter3D_F64();
+		alg.addAll(cloud);
+		for (int i = 0; i < 30; i++) {
+			alg.remove(cloud.get(i));
+		}
+
+		FitPlaneScatter3D_F64 expected = new FitPlaneScatter3D_F64();
+		expected.addAll(cloud.subList(30,cloud.size()));
+
+		checkEquals(expected, alg);
+
+		// remove everything
+		for (int i = 30; i < cloud.size(); i++) {
+			alg.remove(cloud.get(i));
+		}
+		assertEquals(0, alg.size());
+		assertEquals(0, alg.sxx, 0);
+
+		try {
+			alg.remove(cloud.get(0));
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	@Test
+	public void merge() {
+		createCloud(100, 0.05);
+
+		FitPlaneScatter3D_F64 a = new FitPlaneScatter3D_F64();
+		FitPlaneScatter3D_F64 b = new FitPlaneScatter3D_F64();
+		a.addAll(cloud.subList(0,40));
+		b.addAll(cloud.subList(40,cloud.size()));
+		a.merge(b);
+
+		FitPlaneScatter3D_F64 expected = new FitPlaneScatter3D_F64();
+		expected.addAll(cloud);
+
+		checkEquals(expected, a);
+
+		// merging into an empty fitter
+		FitPlaneScatter3D_F64 c = new FitPlaneScatter3D_F64();
+		c.merge(a);
+		checkEquals(expected, c);
+	}
+
+	private void checkPlane( Point3D_F64 foundCenter , Vector3D_F64 foundNorm ) {
+		// see if the found center is on the plane
+		assertEquals(0,
+				(foundCenter.x-center.x)*axisZ.x +
+				(foundCenter.y-center.y)*axisZ.y +
+				(foundCenter.z-center.z)*axisZ.z,
+				GrlConstants.DOUBLE_TEST_TOL);
+
+		// see if the found normal is valid
+		assertEquals(1, foundNorm.norm(), GrlConstants.DOUBLE_TEST_TOL);
+		double dot = foundNorm.dot(axisZ);
+		assertEquals(0, Math.abs(dot) - 1, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	private void checkIdentical( FitPlaneScatter3D_F64 a , FitPlaneScatter3D_F64 b ) {
+		assertEquals(a.size(), b.size());
+		GeometryUnitTest.assertEquals(a.mean, b.mean, 0);
+		assertEquals(a.sxx, b.sxx, 0); assertEquals(a.sxy, b.sxy, 0); assertEquals(a.sxz, b.sxz, 0);
+		assertEquals(a.syy, b.syy, 0); assertEquals(a.syz, b.syz, 0);
+		assertEquals(a.szz, b.szz, 0);
+	}
+
+	private void checkEquals( FitPlaneScatter3D_F64 a , FitPlaneScatter3D_F64 b ) {
+		double tol = GrlConstants.DOUBLE_TEST_TOL*100;
+		assertEquals(a.size(), b.size());
+		GeometryUnitTest.assertEquals(a.mean, b.mean, tol);
+		assertEquals(a.sxx, b.sxx, tol); assertEquals(a.sxy, b.sxy, tol); assertEquals(a.sxz, b.sxz, tol);
+		assertEquals(a.syy, b.syy, tol); assertEquals(a.syz, b.syz, tol);
+		assertEquals(a.szz, b.szz, tol);
+	}
+
+	private void createCloud( int N , double noise ) {
+		// define a plane and its coordinate system
+		axisX = new Vector3D_F64(1,2,3);
+		axisY = new Vector3D_F64(3,-2,1);
+		axisZ = axisX.cross(axisY);
+
+		axisX.normalize();
+		axisZ.normalize();
+		axisY = axisX.cross(axisZ);
+
+		center = new Point3D_F64(2,-1,0.5);
+
+		// randomly generate points on the plane
+		cloud = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < N; i++ ) {
+			double x = rand.nextGaussian()*5;
+			double y = rand.nextGaussian()*5;
+			double z = rand.nextGaussian()*noise;
+
+			Point3D_F64 p = new Point3D_F64();
+			p.x = center.x + x*axisX.x + y*axisY.x + z*axisZ.x;
+			p.y = center.y + x*axisX.y + y*axisY.y + z*axisZ.y;
+			p.z = center.z + x*axisX.z + y*axisY.z + z*axisZ.z;
+
+			cloud.add(p);
+		}
+	}
+}
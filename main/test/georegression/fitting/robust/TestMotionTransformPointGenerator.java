@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.robust;
+
+import georegression.fitting.se.ModelManagerSe3_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionTransformPointGenerator {
+
+	Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.3, 1, -2, 0.5, null);
+
+	@Test
+	public void generate() {
+		List<PointPair<Point3D_F64>> pairs = new ArrayList<PointPair<Point3D_F64>>();
+		for (int i = 0; i < 5; i++) {
+			Point3D_F64 src = new Point3D_F64(i, 2*i*i-1, 3-i);
+			pairs.add(new PointPair<Point3D_F64>(src, SePointOps_F64.transform(motion, src, null)));
+		}
+
+		MotionTransformPointGenerator<Se3_F64,Point3D_F64> alg =
+				new MotionTransformPointGenerator<Se3_F64,Point3D_F64>(new MotionSe3PointSVD_F64(), new ModelManagerSe3_F64());
+
+		assertEquals(3, alg.getMinimumPoints());
+
+		Se3_F64 found = new Se3_F64();
+		assertTrue(alg.generate(pairs, found));
+		checkEquals(motion, found);
+
+		// the output should be a copy
+		assertTrue(found != alg.getMotion().getTransformSrcToDst());
+
+		found.reset();
+		assertTrue(alg.fitModel(pairs, null, found));
+		checkEquals(motion, found);
+	}
+
+	private void checkEquals( Se3_F64 expected , Se3_F64 found ) {
+		GeometryUnitTest.assertEquals(expected.getT(), found.getT(), GrlConstants.DOUBLE_TEST_TOL);
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL));
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.robust;
+
+import georegression.fitting.se.DistanceSe3PointPair_F64;
+import georegression.fitting.se.ModelManagerSe3_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestParallelRansac {
+
+	Random rand = new Random(234);
+
+	Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.3, 1, -2, 0.5, null);
+
+	List<PointPair<Point3D_F64>> pairs = new ArrayList<PointPair<Point3D_F64>>();
+	List<Integer> inliers = new ArrayList<Integer>();
+
+	/**
+	 * Creates a set of pairs where the inliers have a small amount of noise
+	 */
+	private void createPairs( int N , double inlierFraction ) {
+		pairs.clear();
+		inliers.clear();
+		for (int i = 0; i < N; i++) {
+			Point3D_F64 src = new Point3D_F64(rand.nextDouble()*20-10, rand.nextDouble()*20-10, rand.nextDouble()*20-10);
+			Point3D_F64 dst;
+			if( rand.nextDouble() < inlierFraction ) {
+				dst = SePointOps_F64.transform(motion, src, null);
+				dst.x += (rand.nextDouble()-0.5)*0.01;
+				dst.y += (rand.nextDouble()-0.5)*0.01;
+				dst.z += (rand.nextDouble()-0.5)*0.01;
+				inliers.add(i);
+			} else {
+				dst = new Point3D_F64(rand.nextDouble()*20-10, rand.nextDouble()*20-10, rand.nextDouble()*20-10);
+			}
+			pairs.add(new PointPair<Point3D_F64>(src, dst));
+		}
+	}
+
+	private ParallelRansac<Se3_F64,PointPair<Point3D_F64>> createAlg( long seed ) {
+		return new ParallelRansac<Se3_F64,PointPair<Point3D_F64>>(seed, new ModelManagerSe3_F64(),
+				new Factory(), 2000, 0.1);
+	}
+
+	@Test
+	public void process() {
+		createPairs(300, 0.3);
+
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> alg = createAlg(0xBEEF);
+		assertTrue(alg.process(pairs));
+
+		checkSolution(alg);
+		assertTrue(alg.getIterations() < 2000);
+		assertTrue(alg.getRejectedSprt() > 0);
+	}
+
+	@Test
+	public void process_noSprt() {
+		createPairs(300, 0.3);
+
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> alg = createAlg(0xBEEF);
+		alg.setSprt(false);
+		assertTrue(alg.process(pairs));
+
+		checkSolution(alg);
+		assertEquals(0, alg.getRejectedSprt());
+	}
+
+	@Test
+	public void process_refine() {
+		createPairs(300, 0.3);
+
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> alg = createAlg(0xBEEF);
+		alg.setRefine(new MotionTransformPointGenerator<Se3_F64,Point3D_F64>(
+				new MotionSe3PointSVD_F64(), new ModelManagerSe3_F64()));
+		assertTrue(alg.process(pairs));
+
+		checkSolution(alg);
+	}
+
+	/**
+	 * Same seed should produce the same output.  The output shouldn't depend on the number of threads
+	 */
+	@Test
+	public void deterministic() {
+		createPairs(300, 0.3);
+
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> expected = createAlg(0xBEEF);
+		assertTrue(expected.process(pairs));
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			GrlConcurrency.setMinimumConcurrent(1);
+			GrlConcurrency.setPool(pool);
+
+			ParallelRansac<Se3_F64,PointPair<Point3D_F64>> found = createAlg(0xBEEF);
+			found.setConcurrent(true);
+			for (int trial = 0; trial < 3; trial++) {
+				assertTrue(found.process(pairs));
+				checkIdentical(expected, found);
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+			GrlConcurrency.setPool(null);
+			pool.shutdown();
+		}
+
+		// a different seed should select different samples
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> other = createAlg(0xCAFE);
+		assertTrue(other.process(pairs));
+		checkSolution(other);
+	}
+
+	@Test
+	public void process_tooFewPoints() {
+		createPairs(2, 1.0);
+
+		ParallelRansac<Se3_F64,PointPair<Point3D_F64>> alg = createAlg(0xBEEF);
+		assertFalse(alg.process(pairs));
+		assertEquals(0, alg.getMatchSet().size());
+	}
+
+	/**
+	 * Makes sure the match set is the set of inliers and that the model is correct
+	 */
+	private void checkSolution( ParallelRansac<Se3_F64,PointPair<Point3D_F64>> alg ) {
+		Se3_F64 found = alg.getModelParameters();
+		assertTrue(found.getT().distance(motion.getT()) < 0.02);
+
+		List<PointPair<Point3D_F64>> matches = alg.getMatchSet();
+		assertEquals(inliers.size(), matches.size());
+		assertEquals(inliers.size(), alg.getFitQuality(), 0);
+		for (int i = 0; i < matches.size(); i++) {
+			int index = alg.getInputIndex(i);
+			assertEquals((int)inliers.get(i), index);
+			assertTrue(pairs.get(index) == matches.get(i));
+		}
+	}
+
+	private void checkIdentical( ParallelRansac<Se3_F64,PointPair<Point3D_F64>> a ,
+								 ParallelRansac<Se3_F64,PointPair<Point3D_F64>> b ) {
+		assertEquals(a.getIterations(), b.getIterations());
+		assertEquals(a.getRejectedSprt(), b.getRejectedSprt());
+		assertEquals(a.getMatchSet().size(), b.getMatchSet().size());
+		for (int i = 0; i < a.getMatchSet().size(); i++) {
+			assertEquals(a.getInputIndex(i), b.getInputIndex(i));
+		}
+		GeometryUnitTest.assertEquals(a.getModelParameters().getT(), b.getModelParameters().getT(), 0);
+		assertTrue(MatrixFeatures.isIdentical(
+				a.getModelParameters().getR(), b.getModelParameters().getR(), GrlConstants.DOUBLE_TEST_TOL));
+	}
+
+	static class Factory implements ParallelRansac.Factory<Se3_F64,PointPair<Point3D_F64>> {
+		@Override
+		public ModelGenerator<Se3_F64, PointPair<Point3D_F64>> createGenerator() {
+			return new MotionTransformPointGenerator<Se3_F64,Point3D_F64>(
+					new MotionSe3PointSVD_F64(), new ModelManagerSe3_F64());
+		}
+
+		@Override
+		public DistanceFromModel<Se3_F64, PointPair<Point3D_F64>> createDistance() {
+			return new DistanceSe3PointPair_F64();
+		}
+	}
+}
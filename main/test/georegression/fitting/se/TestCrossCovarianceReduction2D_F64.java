@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point2D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCrossCovarianceReduction2D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against a straight forward implementation.  Enough points are used that there are multiple blocks
+	 */
+	@Test
+	public void compareToBruteForce() {
+		int N = CrossCovarianceReduction2D_F64.BLOCK_SIZE*3 + 20;
+		List<Point2D_F64> src = UtilPoint2D_F64.random(-10, 10, N, rand);
+		List<Point2D_F64> dst = UtilPoint2D_F64.random(-10, 10, N, rand);
+
+		double weights[] = new double[N];
+		for (int i = 0; i < N; i++) {
+			weights[i] = rand.nextDouble();
+		}
+
+		CrossCovarianceReduction2D_F64 alg = new CrossCovarianceReduction2D_F64();
+		alg.process(src, dst, null);
+		checkBruteForce(src, dst, null, alg);
+
+		alg.process(src, dst, weights);
+		checkBruteForce(src, dst, weights, alg);
+
+		// a small number of points
+		alg.process(src.subList(0,5), dst.subList(0,5), weights);
+		checkBruteForce(src.subList(0,5), dst.subList(0,5), weights, alg);
+	}
+
+	/**
+	 * The results should be exactly the same independent of the number of threads
+	 */
+	@Test
+	public void concurrent_identical() {
+		int N = CrossCovarianceReduction2D_F64.BLOCK_SIZE*10 + 123;
+		List<Point2D_F64> src = UtilPoint2D_F64.random(-10, 10, N, rand);
+		List<Point2D_F64> dst = UtilPoint2D_F64.random(-10, 10, N, rand);
+
+		CrossCovarianceReduction2D_F64 expected = new CrossCovarianceReduction2D_F64();
+		expected.process(src, dst, null);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			for( int threads : new int[]{1,2,3,7} ) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				GrlConcurrency.setPool(pool);
+
+				CrossCovarianceReduction2D_F64 found = new CrossCovarianceReduction2D_F64();
+				found.setConcurrent(true);
+				found.process(src, dst, null);
+
+				checkIdentical(expected, found);
+				pool.shutdown();
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+			GrlConcurrency.setPool(null);
+		}
+	}
+
+	@Test
+	public void emptyAndZeroWeight() {
+		CrossCovarianceReduction2D_F64 alg = new CrossCovarianceReduction2D_F64();
+		alg.process(new ArrayList<Point2D_F64>(), new ArrayList<Point2D_F64>(), null);
+		assertEquals(0, alg.totalWeight, 0);
+
+		List<Point2D_F64> src = UtilPoint2D_F64.random(-10, 10, 5, rand);
+		alg.process(src, src, new double[5]);
+		assertEquals(0, alg.totalWeight, 0);
+		assertEquals(0, alg.meanSrc.x, 0);
+		assertEquals(0, alg.s11, 0);
+	}
+
+	@Test
+	public void badInput() {
+		CrossCovarianceReduction2D_F64 alg = new CrossCovarianceReduction2D_F64();
+		List<Point2D_F64> src = UtilPoint2D_F64.random(-10, 10, 5, rand);
+		try {
+			alg.process(src, src.subList(0,4), null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+		try {
+			alg.process(src, src, new double[4]);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	private void checkIdentical( CrossCovarianceReduction2D_F64 a , CrossCovarianceReduction2D_F64 b ) {
+		assertEquals(a.totalWeight, b.totalWeight, 0);
+		GeometryUnitTest.assertEquals(a.meanSrc, b.meanSrc, 0);
+		GeometryUnitTest.assertEquals(a.meanDst, b.meanDst, 0);
+		assertEquals(a.s11, b.s11, 0); assertEquals(a.s12, b.s12, 0);
+		assertEquals(a.s21, b.s21, 0); assertEquals(a.s22, b.s22, 0);
+	}
+
+	private void checkBruteForce( List<Point2D_F64> src , List<Point2D_F64> dst , double weights[] ,
+								  CrossCovarianceReduction2D_F64 found ) {
+		double W = 0;
+		Point2D_F64 meanSrc = new Point2D_F64();
+		Point2D_F64 meanDst = new Point2D_F64();
+		for (int i = 0; i < src.size(); i++) {
+			double w = weights == null ? 1 : weights[i];
+			W += w;
+			meanSrc.x += w*src.get(i).x; meanSrc.y += w*src.get(i).y;
+			meanDst.x += w*dst.get(i).x; meanDst.y += w*dst.get(i).y;
+		}
+		meanSrc.x /= W; meanSrc.y /= W;
+		meanDst.x /= W; meanDst.y /= W;
+
+		double s11 = 0, s12 = 0, s21 = 0, s22 = 0;
+		for (int i = 0; i < src.size(); i++) {
+			double w = weights == null ? 1 : weights[i];
+			Point2D_F64 f = src.get(i);
+			Point2D_F64 t = dst.get(i);
+
+			s11 += w*(f.x-meanSrc.x)*(t.x-meanDst.x);
+			s12 += w*(f.x-meanSrc.x)*(t.y-meanDst.y);
+			s21 += w*(f.y-meanSrc.y)*(t.x-meanDst.x);
+			s22 += w*(f.y-meanSrc.y)*(t.y-meanDst.y);
+		}
+
+		double tol = GrlConstants.DOUBLE_TEST_TOL*W;
+
+		assertEquals(W, found.totalWeight, tol);
+		GeometryUnitTest.assertEquals(meanSrc, found.meanSrc, GrlConstants.DOUBLE_TEST_TOL);
+		GeometryUnitTest.assertEquals(meanDst, found.meanDst, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(s11, found.s11, tol); assertEquals(s12, found.s12, tol);
+		assertEquals(s21, found.s21, tol); assertEquals(s22, found.s22, tol);
+	}
+}
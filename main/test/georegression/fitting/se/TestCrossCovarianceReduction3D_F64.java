@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCrossCovarianceReduction3D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against a straight forward implementation.  Enough points are used that there are multiple blocks
+	 */
+	@Test
+	public void compareToBruteForce() {
+		int N = CrossCovarianceReduction3D_F64.BLOCK_SIZE*3 + 20;
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, N, rand);
+		List<Point3D_F64> dst = UtilPoint3D_F64.random(-10, 10, N, rand);
+
+		double weights[] = new double[N];
+		for (int i = 0; i < N; i++) {
+			weights[i] = rand.nextDouble();
+		}
+
+		CrossCovarianceReduction3D_F64 alg = new CrossCovarianceReduction3D_F64();
+		alg.process(src, dst, null);
+		checkBruteForce(src, dst, null, alg);
+
+		alg.process(src, dst, weights);
+		checkBruteForce(src, dst, weights, alg);
+
+		// a small number of points
+		alg.process(src.subList(0,5), dst.subList(0,5), weights);
+		checkBruteForce(src.subList(0,5), dst.subList(0,5), weights, alg);
+	}
+
+	/**
+	 * The results should be exactly the same independent of the number of threads
+	 */
+	@Test
+	public void concurrent_identical() {
+		int N = CrossCovarianceReduction3D_F64.BLOCK_SIZE*10 + 123;
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, N, rand);
+		List<Point3D_F64> dst = UtilPoint3D_F64.random(-10, 10, N, rand);
+
+		CrossCovarianceReduction3D_F64 expected = new CrossCovarianceReduction3D_F64();
+		expected.process(src, dst, null);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			for( int threads : new int[]{1,2,3,7} ) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				GrlConcurrency.setPool(pool);
+
+				CrossCovarianceReduction3D_F64 found = new CrossCovarianceReduction3D_F64();
+				found.setConcurrent(true);
+				found.process(src, dst, null);
+
+				checkIdentical(expected, found);
+				pool.shutdown();
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+			GrlConcurrency.setPool(null);
+		}
+	}
+
+	@Test
+	public void emptyAndZeroWeight() {
+		CrossCovarianceReduction3D_F64 alg = new CrossCovarianceReduction3D_F64();
+		alg.process(new ArrayList<Point3D_F64>(), new ArrayList<Point3D_F64>(), null);
+		assertEquals(0, alg.totalWeight, 0);
+
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 5, rand);
+		alg.process(src, src, new double[5]);
+		assertEquals(0, alg.totalWeight, 0);
+		assertEquals(0, alg.meanSrc.x, 0);
+		assertEquals(0, alg.s11, 0);
+	}
+
+	@Test
+	public void badInput() {
+		CrossCovarianceReduction3D_F64 alg = new CrossCovarianceReduction3D_F64();
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 5, rand);
+		try {
+			alg.process(src, src.subList(0,4), null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+		try {
+			alg.process(src, src, new double[4]);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	private void checkIdentical( CrossCovarianceReduction3D_F64 a , CrossCovarianceReduction3D_F64 b ) {
+		assertEquals(a.totalWeight, b.totalWeight, 0);
+		GeometryUnitTest.assertEquals(a.meanSrc, b.meanSrc, 0);
+		GeometryUnitTest.assertEquals(a.meanDst, b.meanDst, 0);
+		assertEquals(a.s11, b.s11, 0); assertEquals(a.s12, b.s12, 0); assertEquals(a.s13, b.s13, 0);
+		assertEquals(a.s21, b.s21, 0); assertEquals(a.s22, b.s22, 0); assertEquals(a.s23, b.s23, 0);
+		assertEquals(a.s31, b.s31, 0); assertEquals(a.s32, b.s32, 0); assertEquals(a.s33, b.s33, 0);
+	}
+
+	private void checkBruteForce( List<Point3D_F64> src , List<Point3D_F64> dst , double weights[] ,
+								  CrossCovarianceReduction3D_F64 found ) {
+		double W = 0;
+		Point3D_F64 meanSrc = new Point3D_F64();
+		Point3D_F64 meanDst = new Point3D_F64();
+		for (int i = 0; i < src.size(); i++) {
+			double w = weights == null ? 1 : weights[i];
+			W += w;
+			meanSrc.x += w*src.get(i).x; meanSrc.y += w*src.get(i).y; meanSrc.z += w*src.get(i).z;
+			meanDst.x += w*dst.get(i).x; meanDst.y += w*dst.get(i).y; meanDst.z += w*dst.get(i).z;
+		}
+		meanSrc.set(meanSrc.x/W, meanSrc.y/W, meanSrc.z/W);
+		meanDst.set(meanDst.x/W, meanDst.y/W, meanDst.z/W);
+
+		double S[] = new double[9];
+		for (int i = 0; i < src.size(); i++) {
+			double w = weights == null ? 1 : weights[i];
+			Point3D_F64 f = src.get(i);
+			Point3D_F64 t = dst.get(i);
+
+			double df[] = new double[]{f.x-meanSrc.x,f.y-meanSrc.y,f.z-meanSrc.z};
+			double dt[] = new double[]{t.x-meanDst.x,t.y-meanDst.y,t.z-meanDst.z};
+			for (int row = 0; row < 3; row++) {
+				for (int col = 0; col < 3; col++) {
+					S[row*3+col] += w*dt[row]*df[col];
+				}
+			}
+		}
+
+		double tol = GrlConstants.DOUBLE_TEST_TOL*W;
+
+		assertEquals(W, found.totalWeight, tol);
+		GeometryUnitTest.assertEquals(meanSrc, found.meanSrc, GrlConstants.DOUBLE_TEST_TOL);
+		GeometryUnitTest.assertEquals(meanDst, found.meanDst, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(S[0], found.s11, tol); assertEquals(S[1], found.s12, tol); assertEquals(S[2], found.s13, tol);
+		assertEquals(S[3], found.s21, tol); assertEquals(S[4], found.s22, tol); assertEquals(S[5], found.s23, tol);
+		assertEquals(S[6], found.s31, tol); assertEquals(S[7], found.s32, tol); assertEquals(S[8], found.s33, tol);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.robust.PointPair;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceSe2PointPair_F64 {
+
+	Se2_F64 motion = new Se2_F64(1,-2,0.5);
+
+	@Test
+	public void computeDistance() {
+		Point2D_F64 src = new Point2D_F64(1,2);
+		Point2D_F64 dst = SePointOps_F64.transform(motion, src, null);
+
+		DistanceSe2PointPair_F64 alg = new DistanceSe2PointPair_F64();
+		alg.setModel(motion);
+
+		assertEquals(0, alg.computeDistance(new PointPair<Point2D_F64>(src, dst)), GrlConstants.DOUBLE_TEST_TOL);
+
+		dst.x += 0.5;
+		dst.y -= 1.2;
+		assertEquals(1.3, alg.computeDistance(new PointPair<Point2D_F64>(src, dst)), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void computeDistance_list() {
+		List<PointPair<Point2D_F64>> pairs = new ArrayList<PointPair<Point2D_F64>>();
+		for (int i = 0; i < 5; i++) {
+			Point2D_F64 src = new Point2D_F64(1,2);
+			src.x += i;
+			Point2D_F64 dst = SePointOps_F64.transform(motion, src, null);
+			dst.y += i*0.1;
+			pairs.add(new PointPair<Point2D_F64>(src, dst));
+		}
+
+		DistanceSe2PointPair_F64 alg = new DistanceSe2PointPair_F64();
+		alg.setModel(motion);
+
+		/**/double found[] = new /**/double[pairs.size()];
+		alg.computeDistance(pairs, found);
+
+		for (int i = 0; i < pairs.size(); i++) {
+			assertEquals(alg.computeDistance(pairs.get(i)), found[i], 0);
+		}
+	}
+}
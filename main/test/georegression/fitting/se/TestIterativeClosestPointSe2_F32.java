@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Vector2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIterativeClosestPointSe2_F32 {
+
+	Random rand = new Random(234);
+
+	Se2_F32 motion = new Se2_F32(0.03f, -0.02f, 0.02f);
+
+	// points on a smooth curve and their normals
+	List<Point2D_F32> reference = new ArrayList<Point2D_F32>();
+	List<Vector2D_F32> normals = new ArrayList<Vector2D_F32>();
+
+	public TestIterativeClosestPointSe2_F32() {
+		// r = 2 + cos(5*theta)/2
+		int N = 600;
+		for (int i = 0; i < N; i++) {
+			float theta = GrlConstants.F_PI2*i/N;
+			float c = (float)Math.cos(theta);
+			float s = (float)Math.sin(theta);
+			float r = 2 + (float)Math.cos(5*theta)/2;
+			float drdt = (float)-Math.sin(5*theta)*2.5f;
+			reference.add(new Point2D_F32(r*c, r*s));
+
+			// normal is perpendicular to the tangent
+			Vector2D_F32 n = new Vector2D_F32(-(drdt*s + r*c), drdt*c - r*s);
+			n.normalize();
+			normals.add(n);
+		}
+	}
+
+	/**
+	 * Creates points by applying the inverse motion to a random subset of the reference points
+	 */
+	private List<Point2D_F32> createSource() {
+		Se2_F32 inverse = motion.invert(null);
+		List<Point2D_F32> source = new ArrayList<Point2D_F32>();
+		for (int i = 0; i < reference.size(); i++) {
+			Point2D_F32 p = reference.get(i);
+			if( rand.nextFloat() < 0.5f )
+				continue;
+			source.add(SePointOps_F32.transform(inverse, p, null));
+		}
+		return source;
+	}
+
+	@Test
+	public void pointToPoint() {
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+
+		checkSolution(alg, createSource(), GrlConstants.FLOAT_TEST_TOL*100);
+	}
+
+	@Test
+	public void pointToPlane() {
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+
+		checkSolution(alg, createSource(), 1.0e-3f);
+	}
+
+	@Test
+	public void pointToPlane_userNormals() {
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+		alg.setReferenceNormals(normals);
+
+		checkSolution(alg, createSource(), 1.0e-3f);
+	}
+
+	/**
+	 * Estimated normals should be close to the true normals
+	 */
+	@Test
+	public void estimateNormals() {
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+		alg.estimateNormals();
+
+		for (int i = 0; i < reference.size(); i++) {
+			Vector2D_F32 expected = normals.get(i);
+			float dot = expected.x*alg.normals.getX(i) + expected.y*alg.normals.getY(i);
+			assertEquals(1, (float)Math.abs(dot), 0.05f);
+		}
+	}
+
+	/**
+	 * Points which are far from the reference should be rejected
+	 */
+	@Test
+	public void rejectOutliers() {
+		List<Point2D_F32> source = createSource();
+		int numInliers = source.size();
+		for (int i = 0; i < 20; i++) {
+			source.add(new Point2D_F32(rand.nextFloat()*0.5f-0.25f, rand.nextFloat()*0.5f-0.25f));
+		}
+
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+		alg.setMaxCorrespondenceDistance(0.5f);
+
+		checkSolution(alg, source, GrlConstants.FLOAT_TEST_TOL*100);
+
+		for (int i = 0; i < source.size(); i++) {
+			assertEquals(i < numInliers, alg.getMatches().get(i) >= 0);
+		}
+		assertEquals(numInliers, alg.getIterationMatches().get(alg.getIterations()-1));
+	}
+
+	/**
+	 * Calling it multiple times should produce the same result
+	 */
+	@Test
+	public void multipleCalls() {
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+
+		List<Point2D_F32> source = createSource();
+		assertTrue(alg.process(source, null));
+		Se2_F32 expected = alg.getTransformSrcToDst().copy();
+		int iterations = alg.getIterations();
+
+		assertTrue(alg.process(source, null));
+		assertEquals(iterations, alg.getIterations());
+		assertEquals(expected.getYaw(), alg.getTransformSrcToDst().getYaw(), 0);
+		assertEquals(0, expected.T.distance(alg.getTransformSrcToDst().T), 0);
+
+		// starting at the solution it should converge immediately
+		assertTrue(alg.process(source, motion));
+		assertTrue(alg.isConverged());
+		assertTrue(alg.getIterations() <= 2);
+	}
+
+	@Test
+	public void tooFewMatches() {
+		IterativeClosestPointSe2_F32 alg = new IterativeClosestPointSe2_F32(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+		alg.setMaxCorrespondenceDistance(1.0e-4f);
+
+		List<Point2D_F32> source = new ArrayList<Point2D_F32>();
+		for (int i = 0; i < 10; i++) {
+			source.add(new Point2D_F32(10 + i, 0));
+		}
+		assertFalse(alg.process(source, null));
+		assertEquals(0, alg.getIterationMatches().get(0));
+	}
+
+	private void checkSolution( IterativeClosestPointSe2_F32 alg , List<Point2D_F32> source , float tol ) {
+		assertTrue(alg.process(source, null));
+		assertTrue(alg.isConverged());
+
+		Se2_F32 found = alg.getTransformSrcToDst();
+		assertEquals(motion.getYaw(), found.getYaw(), tol);
+		assertEquals(0, motion.T.distance(found.T), tol);
+
+		// statistics should be recorded for each iteration
+		int N = alg.getIterations();
+		assertTrue(N > 1);
+		assertEquals(N, alg.getIterationError().size);
+		assertEquals(N, alg.getIterationMatches().size);
+		assertEquals(N, alg.getIterationNanos().size);
+		assertTrue(alg.getIterationError().get(0) > alg.getIterationError().get(N-1));
+		assertEquals(0, alg.getIterationError().get(N-1), tol);
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIterativeClosestPointSe3_F32 {
+
+	Random rand = new Random(234);
+
+	Se3_F32 motion = SpecialEuclideanOps_F32.setEulerXYZ(0.01f, -0.015f, 0.02f, 0.03f, -0.02f, 0.01f, null);
+
+	// points on a smooth surface and their normals
+	List<Point3D_F32> reference = new ArrayList<Point3D_F32>();
+	List<Vector3D_F32> normals = new ArrayList<Vector3D_F32>();
+
+	public TestIterativeClosestPointSe3_F32() {
+		// z = 0.5*sin(x) + 0.5*cos(y)
+		for (int i = 0; i < 40; i++) {
+			for (int j = 0; j < 40; j++) {
+				float x = -3 + 6*i/39.0f;
+				float y = -3 + 6*j/39.0f;
+				float z = (float)Math.sin(x)/2 + (float)Math.cos(y)/2;
+				reference.add(new Point3D_F32(x, y, z));
+
+				// normal from the gradient
+				float dzdx = (float)Math.cos(x)/2;
+				float dzdy = (float)-Math.sin(y)/2;
+				Vector3D_F32 n = new Vector3D_F32(-dzdx, -dzdy, 1);
+				n.normalize();
+				normals.add(n);
+			}
+		}
+	}
+
+	/**
+	 * Creates points by applying the inverse motion to reference points away from the border
+	 */
+	private List<Point3D_F32> createSource() {
+		Se3_F32 inverse = motion.invert(null);
+		List<Point3D_F32> source = new ArrayList<Point3D_F32>();
+		for (int i = 0; i < reference.size(); i++) {
+			Point3D_F32 p = reference.get(i);
+			if( (float)Math.abs(p.x) > 2.5f || (float)Math.abs(p.y) > 2.5f || rand.nextFloat() < 0.5f )
+				continue;
+			source.add(SePointOps_F32.transform(inverse, p, null));
+		}
+		return source;
+	}
+
+	@Test
+	public void pointToPoint() {
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+
+		checkSolution(alg, createSource(), GrlConstants.FLOAT_TEST_TOL*100);
+	}
+
+	@Test
+	public void pointToPlane() {
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+
+		checkSolution(alg, createSource(), 1.0e-3f);
+	}
+
+	@Test
+	public void pointToPlane_userNormals() {
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+		alg.setReferenceNormals(normals);
+
+		checkSolution(alg, createSource(), 1.0e-3f);
+	}
+
+	/**
+	 * Estimated normals should be close to the true normals
+	 */
+	@Test
+	public void estimateNormals() {
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+		alg.estimateNormals();
+
+		for (int i = 0; i < reference.size(); i++) {
+			Vector3D_F32 expected = normals.get(i);
+			float dot = expected.x*alg.normals.getX(i) + expected.y*alg.normals.getY(i) + expected.z*alg.normals.getZ(i);
+			assertEquals(1, (float)Math.abs(dot), 0.05f);
+		}
+	}
+
+	/**
+	 * Points which are far from the reference should be rejected
+	 */
+	@Test
+	public void rejectOutliers() {
+		List<Point3D_F32> source = createSource();
+		int numInliers = source.size();
+		for (int i = 0; i < 20; i++) {
+			source.add(new Point3D_F32(rand.nextFloat()*6-3, rand.nextFloat()*6-3, 5 + rand.nextFloat()));
+		}
+
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+		alg.setMaxCorrespondenceDistance(0.5f);
+
+		checkSolution(alg, source, GrlConstants.FLOAT_TEST_TOL*100);
+
+		for (int i = 0; i < source.size(); i++) {
+			assertEquals(i < numInliers, alg.getMatches().get(i) >= 0);
+		}
+		assertEquals(numInliers, alg.getIterationMatches().get(alg.getIterations()-1));
+	}
+
+	/**
+	 * Calling it multiple times should produce the same result
+	 */
+	@Test
+	public void multipleCalls() {
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+
+		List<Point3D_F32> source = createSource();
+		assertTrue(alg.process(source, null));
+		Se3_F32 expected = alg.getTransformSrcToDst().copy();
+		int iterations = alg.getIterations();
+
+		assertTrue(alg.process(source, null));
+		assertEquals(iterations, alg.getIterations());
+		assertTrue(MatrixFeatures.isIdentical(expected.R, alg.getTransformSrcToDst().R, 0));
+		assertEquals(0, expected.T.distance(alg.getTransformSrcToDst().T), 0);
+
+		// starting at the solution it should converge immediately
+		assertTrue(alg.process(source, motion));
+		assertTrue(alg.isConverged());
+		assertTrue(alg.getIterations() <= 2);
+	}
+
+	@Test
+	public void tooFewMatches() {
+		IterativeClosestPointSe3_F32 alg = new IterativeClosestPointSe3_F32(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+		alg.setMaxCorrespondenceDistance(1.0e-4f);
+
+		List<Point3D_F32> source = new ArrayList<Point3D_F32>();
+		for (int i = 0; i < 10; i++) {
+			source.add(new Point3D_F32(0, 0, 10 + i));
+		}
+		assertFalse(alg.process(source, null));
+		assertEquals(0, alg.getIterationMatches().get(0));
+	}
+
+	private void checkSolution( IterativeClosestPointSe3_F32 alg , List<Point3D_F32> source , float tol ) {
+		assertTrue(alg.process(source, null));
+		assertTrue(alg.isConverged());
+
+		Se3_F32 found = alg.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(motion.R, found.R, tol));
+		assertEquals(0, motion.T.distance(found.T), tol);
+
+		// statistics should be recorded for each iteration
+		int N = alg.getIterations();
+		assertTrue(N > 1);
+		assertEquals(N, alg.getIterationError().size);
+		assertEquals(N, alg.getIterationMatches().size);
+		assertEquals(N, alg.getIterationNanos().size);
+		assertTrue(alg.getIterationError().get(0) > alg.getIterationError().get(N-1));
+		assertEquals(0, alg.getIterationError().get(N-1), tol);
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIterativeClosestPointSe3_F64 {
+
+	Random rand = new Random(234);
+
+	Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.01, -0.015, 0.02, 0.03, -0.02, 0.01, null);
+
+	// points on a smooth surface and their normals
+	List<Point3D_F64> reference = new ArrayList<Point3D_F64>();
+	List<Vector3D_F64> normals = new ArrayList<Vector3D_F64>();
+
+	public TestIterativeClosestPointSe3_F64() {
+		// z = 0.5*sin(x) + 0.5*cos(y)
+		for (int i = 0; i < 40; i++) {
+			for (int j = 0; j < 40; j++) {
+				double x = -3 + 6*i/39.0;
+				double y = -3 + 6*j/39.0;
+				double z = Math.sin(x)/2 + Math.cos(y)/2;
+				reference.add(new Point3D_F64(x, y, z));
+
+				// normal from the gradient
+				double dzdx = Math.cos(x)/2;
+				double dzdy = -Math.sin(y)/2;
+				Vector3D_F64 n = new Vector3D_F64(-dzdx, -dzdy, 1);
+				n.normalize();
+				normals.add(n);
+			}
+		}
+	}
+
+	/**
+	 * Creates points by applying the inverse motion to reference points away from the border
+	 */
+	private List<Point3D_F64> createSource() {
+		Se3_F64 inverse = motion.invert(null);
+		List<Point3D_F64> source = new ArrayList<Point3D_F64>();
+		for (int i = 0; i < reference.size(); i++) {
+			Point3D_F64 p = reference.get(i);
+			if( Math.abs(p.x) > 2.5 || Math.abs(p.y) > 2.5 || rand.nextDouble() < 0.5 )
+				continue;
+			source.add(SePointOps_F64.transform(inverse, p, null));
+		}
+		return source;
+	}
+
+	@Test
+	public void pointToPoint() {
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+
+		checkSolution(alg, createSource(), GrlConstants.DOUBLE_TEST_TOL*100);
+	}
+
+	@Test
+	public void pointToPlane() {
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+
+		checkSolution(alg, createSource(), 1.0e-3);
+	}
+
+	@Test
+	public void pointToPlane_userNormals() {
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+		alg.setReferenceNormals(normals);
+
+		checkSolution(alg, createSource(), 1.0e-3);
+	}
+
+	/**
+	 * Estimated normals should be close to the true normals
+	 */
+	@Test
+	public void estimateNormals() {
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+		alg.estimateNormals();
+
+		for (int i = 0; i < reference.size(); i++) {
+			Vector3D_F64 expected = normals.get(i);
+			double dot = expected.x*alg.normals.getX(i) + expected.y*alg.normals.getY(i) + expected.z*alg.normals.getZ(i);
+			assertEquals(1, Math.abs(dot), 0.05);
+		}
+	}
+
+	/**
+	 * Points which are far from the reference should be rejected
+	 */
+	@Test
+	public void rejectOutliers() {
+		List<Point3D_F64> source = createSource();
+		int numInliers = source.size();
+		for (int i = 0; i < 20; i++) {
+			source.add(new Point3D_F64(rand.nextDouble()*6-3, rand.nextDouble()*6-3, 5 + rand.nextDouble()));
+		}
+
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+		alg.setMaxCorrespondenceDistance(0.5);
+
+		checkSolution(alg, source, GrlConstants.DOUBLE_TEST_TOL*100);
+
+		for (int i = 0; i < source.size(); i++) {
+			assertEquals(i < numInliers, alg.getMatches().get(i) >= 0);
+		}
+		assertEquals(numInliers, alg.getIterationMatches().get(alg.getIterations()-1));
+	}
+
+	/**
+	 * Calling it multiple times should produce the same result
+	 */
+	@Test
+	public void multipleCalls() {
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_PLANE);
+		alg.setReference(reference);
+
+		List<Point3D_F64> source = createSource();
+		assertTrue(alg.process(source, null));
+		Se3_F64 expected = alg.getTransformSrcToDst().copy();
+		int iterations = alg.getIterations();
+
+		assertTrue(alg.process(source, null));
+		assertEquals(iterations, alg.getIterations());
+		assertTrue(MatrixFeatures.isIdentical(expected.R, alg.getTransformSrcToDst().R, 0));
+		assertEquals(0, expected.T.distance(alg.getTransformSrcToDst().T), 0);
+
+		// starting at the solution it should converge immediately
+		assertTrue(alg.process(source, motion));
+		assertTrue(alg.isConverged());
+		assertTrue(alg.getIterations() <= 2);
+	}
+
+	@Test
+	public void tooFewMatches() {
+		IterativeClosestPointSe3_F64 alg = new IterativeClosestPointSe3_F64(IcpErrorMetric.POINT_TO_POINT);
+		alg.setReference(reference);
+		alg.setMaxCorrespondenceDistance(1.0e-4);
+
+		List<Point3D_F64> source = new ArrayList<Point3D_F64>();
+		for (int i = 0; i < 10; i++) {
+			source.add(new Point3D_F64(0, 0, 10 + i));
+		}
+		assertFalse(alg.process(source, null));
+		assertEquals(0, alg.getIterationMatches().get(0));
+	}
+
+	private void checkSolution( IterativeClosestPointSe3_F64 alg , List<Point3D_F64> source , double tol ) {
+		assertTrue(alg.process(source, null));
+		assertTrue(alg.isConverged());
+
+		Se3_F64 found = alg.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(motion.R, found.R, tol));
+		assertEquals(0, motion.T.distance(found.T), tol);
+
+		// statistics should be recorded for each iteration
+		int N = alg.getIterations();
+		assertTrue(N > 1);
+		assertEquals(N, alg.getIterationError().size);
+		assertEquals(N, alg.getIterationMatches().size);
+		assertEquals(N, alg.getIterationNanos().size);
+		assertTrue(alg.getIterationError().get(0) > alg.getIterationError().get(N-1));
+		assertEquals(0, alg.getIterationError().get(N-1), tol);
+	}
+}
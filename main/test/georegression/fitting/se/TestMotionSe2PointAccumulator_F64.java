@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe2PointAccumulator_F64 {
+
+	Random rand = new Random(234);
+
+	List<Point2D_F64> src;
+	List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+
+	public TestMotionSe2PointAccumulator_F64() {
+		Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+		src = UtilPoint2D_F64.random(-10, 10, 30, rand);
+		for( Point2D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+	}
+
+	@Test
+	public void process_noiseless() {
+		MotionSe2PointAccumulator_F64 alg = new MotionSe2PointAccumulator_F64();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i),dst.get(i));
+		}
+
+		assertEquals(30,alg.size());
+		assertTrue(alg.process());
+
+		TestMotionSe2PointSVD_F64.checkTransform(src, dst, alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void process_tooFew() {
+		MotionSe2PointAccumulator_F64 alg = new MotionSe2PointAccumulator_F64();
+		alg.add(src.get(0),dst.get(0));
+		alg.add(src.get(1),dst.get(1));
+
+		assertFalse(alg.process());
+	}
+
+	/**
+	 * Compare the statistics against computing them directly
+	 */
+	@Test
+	public void add() {
+		MotionSe2PointAccumulator_F64 alg = new MotionSe2PointAccumulator_F64();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i),dst.get(i));
+		}
+
+		checkStatistics(alg, 0, src.size());
+	}
+
+	@Test
+	public void remove() {
+		MotionSe2PointAccumulator_F64 alg = new MotionSe2PointAccumulator_F64();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i),dst.get(i));
+		}
+		for (int i = 0; i < 10; i++) {
+			alg.remove(src.get(i),dst.get(i));
+		}
+
+		checkStatistics(alg, 10, src.size());
+
+		assertTrue(alg.process());
+		TestMotionSe2PointSVD_F64.checkTransform(src, dst, alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Remove every point and see if it is back in its initial state
+	 */
+	@Test
+	public void remove_all() {
+		MotionSe2PointAccumulator_F64 alg = new MotionSe2PointAccumulator_F64();
+		alg.add(src.get(0),dst.get(0));
+		alg.add(src.get(1),dst.get(1));
+		alg.remove(src.get(1),dst.get(1));
+		checkStatistics(alg, 0, 1);
+		alg.remove(src.get(0),dst.get(0));
+
+		assertEquals(0,alg.size());
+		assertEquals(0,alg.meanSrc.x,0);
+		assertEquals(0,alg.s11,0);
+
+		try {
+			alg.remove(src.get(0),dst.get(0));
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	@Test
+	public void merge() {
+		MotionSe2PointAccumulator_F64 a = new MotionSe2PointAccumulator_F64();
+		MotionSe2PointAccumulator_F64 b = new MotionSe2PointAccumulator_F64();
+		for (int i = 0; i < 12; i++) {
+			a.add(src.get(i),dst.get(i));
+		}
+		for (int i = 12; i < src.size(); i++) {
+			b.add(src.get(i),dst.get(i));
+		}
+
+		a.merge(b);
+		checkStatistics(a, 0, src.size());
+
+		// merging an empty accumulator should do nothing, and merging into an empty one should copy
+		a.merge(new MotionSe2PointAccumulator_F64());
+		checkStatistics(a, 0, src.size());
+
+		MotionSe2PointAccumulator_F64 c = new MotionSe2PointAccumulator_F64();
+		c.merge(a);
+		checkStatistics(c, 0, src.size());
+	}
+
+	@Test
+	public void set() {
+		MotionSe2PointAccumulator_F64 a = new MotionSe2PointAccumulator_F64();
+		for (int i = 0; i < src.size(); i++) {
+			a.add(src.get(i),dst.get(i));
+		}
+
+		MotionSe2PointAccumulator_F64 b = new MotionSe2PointAccumulator_F64();
+		b.set(a);
+		checkStatistics(b, 0, src.size());
+	}
+
+	private void checkStatistics( MotionSe2PointAccumulator_F64 alg , int start , int end ) {
+		List<Point2D_F64> subSrc = src.subList(start, end);
+		List<Point2D_F64> subDst = dst.subList(start, end);
+
+		Point2D_F64 meanSrc = UtilPoint2D_F64.mean(subSrc, null);
+		Point2D_F64 meanDst = UtilPoint2D_F64.mean(subDst, null);
+
+		double tol = GrlConstants.DOUBLE_TEST_TOL*100;
+
+		assertEquals(end-start, alg.size());
+		GeometryUnitTest.assertEquals(meanSrc, alg.meanSrc, tol);
+		GeometryUnitTest.assertEquals(meanDst, alg.meanDst, tol);
+
+		double s11 = 0, s12 = 0, s21 = 0, s22 = 0;
+		for (int i = 0; i < subSrc.size(); i++) {
+			Point2D_F64 f = subSrc.get(i);
+			Point2D_F64 t = subDst.get(i);
+
+			s11 += (f.x-meanSrc.x)*(t.x-meanDst.x);
+			s12 += (f.x-meanSrc.x)*(t.y-meanDst.y);
+			s21 += (f.y-meanSrc.y)*(t.x-meanDst.x);
+			s22 += (f.y-meanSrc.y)*(t.y-meanDst.y);
+		}
+
+		assertEquals(s11, alg.s11, tol);
+		assertEquals(s12, alg.s12, tol);
+		assertEquals(s21, alg.s21, tol);
+		assertEquals(s22, alg.s22, tol);
+	}
+}
@@ -19,6 +19,7 @@
 package georegression.fitting.se;
 
 import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.point.Point2D_F32;
@@ -30,7 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * @author Peter Abeles
@@ -61,6 +62,71 @@ public class TestMotionSe2PointSVD_F32 {
 		checkTransform( src, dst, foundSrcToDst, GrlConstants.FLOAT_TEST_TOL );
 	}
 
+	/**
+	 * Points with a weight of zero are outliers and should be ignored
+	 */
+	@Test
+	public void weighted() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		float weights[] = new float[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			dst.add(SePointOps_F32.transform(tran, src.get(i), null));
+			weights[i] = 0.5f + rand.nextFloat();
+		}
+
+		// corrupt several points
+		for (int i = 0; i < 5; i++) {
+			dst.get(i).x += 10;
+			weights[i] = 0;
+		}
+
+		MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+		assertTrue(alg.process(src, dst, weights));
+
+		checkTransform(src.subList(5,30), dst.subList(5,30), alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL);
+
+		// all the weights are zero
+		assertFalse(alg.process(src, dst, new float[src.size()]));
+	}
+
+	/**
+	 * The concurrent solution should be identical to the single threaded one
+	 */
+	@Test
+	public void concurrent() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 5000, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+
+		MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+		assertTrue(alg.process(src, dst));
+		Se2_F32 expected = alg.getTransformSrcToDst().copy();
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+			assertTrue(alg.isConcurrent());
+			assertTrue(alg.process(src, dst));
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		Se2_F32 found = alg.getTransformSrcToDst();
+		assertEquals(expected.T.x, found.T.x, 0);
+		assertEquals(expected.T.y, found.T.y, 0);
+		assertEquals(expected.c, found.c, 0);
+		assertEquals(expected.s, found.s, 0);
+		checkTransform( src, dst, found, GrlConstants.FLOAT_TEST_TOL );
+	}
+
 	public static void checkTransform( List<Point2D_F32> src, List<Point2D_F32> dst, Se2_F32 foundSrcToDst, float tol ) {
 		Point2D_F32 foundPt = new Point2D_F32();
 		for( int i = 0; i < src.size(); i++ ) {
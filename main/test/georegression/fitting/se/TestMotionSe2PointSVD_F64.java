@@ -19,6 +19,7 @@
 package georegression.fitting.se;
 
 import georegression.geometry.UtilPoint2D_F64;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.point.Point2D_F64;
@@ -30,7 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * @author Peter Abeles
@@ -61,6 +62,71 @@ public class TestMotionSe2PointSVD_F64 {
 		checkTransform( src, dst, foundSrcToDst, GrlConstants.DOUBLE_TEST_TOL );
 	}
 
+	/**
+	 * Points with a weight of zero are outliers and should be ignored
+	 */
+	@Test
+	public void weighted() {
+		Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+		List<Point2D_F64> src = UtilPoint2D_F64.random( -10, 10, 30, rand );
+		List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+		double weights[] = new double[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			dst.add(SePointOps_F64.transform(tran, src.get(i), null));
+			weights[i] = 0.5 + rand.nextDouble();
+		}
+
+		// corrupt several points
+		for (int i = 0; i < 5; i++) {
+			dst.get(i).x += 10;
+			weights[i] = 0;
+		}
+
+		MotionSe2PointSVD_F64 alg = new MotionSe2PointSVD_F64();
+		assertTrue(alg.process(src, dst, weights));
+
+		checkTransform(src.subList(5,30), dst.subList(5,30), alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL);
+
+		// all the weights are zero
+		assertFalse(alg.process(src, dst, new double[src.size()]));
+	}
+
+	/**
+	 * The concurrent solution should be identical to the single threaded one
+	 */
+	@Test
+	public void concurrent() {
+		Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+		List<Point2D_F64> src = UtilPoint2D_F64.random( -10, 10, 5000, rand );
+		List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+		for( Point2D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+
+		MotionSe2PointSVD_F64 alg = new MotionSe2PointSVD_F64();
+		assertTrue(alg.process(src, dst));
+		Se2_F64 expected = alg.getTransformSrcToDst().copy();
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+			assertTrue(alg.isConcurrent());
+			assertTrue(alg.process(src, dst));
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		Se2_F64 found = alg.getTransformSrcToDst();
+		assertEquals(expected.T.x, found.T.x, 0);
+		assertEquals(expected.T.y, found.T.y, 0);
+		assertEquals(expected.c, found.c, 0);
+		assertEquals(expected.s, found.s, 0);
+		checkTransform( src, dst, found, GrlConstants.DOUBLE_TEST_TOL );
+	}
+
 	public static void checkTransform( List<Point2D_F64> src, List<Point2D_F64> dst, Se2_F64 foundSrcToDst, double tol ) {
 		Point2D_F64 foundPt = new Point2D_F64();
 		for( int i = 0; i < src.size(); i++ ) {
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.fitting.se;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointAccumulator_F32 {
+
+	Random rand = new Random(234);
+
+	List<Point3D_F32> src;
+	List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+
+	public TestMotionSe3PointAccumulator_F32() {
+		DenseMatrix64F R = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, null);
+		Se3_F32 tran = new Se3_F32(R, new Vector3D_F32(1, -2, 0.5f));
+
+		src = UtilPoint3D_F32.random(-10, 10, 30, rand);
+		for( Point3D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+	}
+
+	@Test
+	public void process_noiseless() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i),dst.get(i));
+		}
+
+		assertEquals(30,alg.size());
+		assertTrue(alg.process());
+
+		GeneralMotionSe3Tests_F32.checkTransform(src, dst, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void process_tooFew() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		alg.add(src.get(0),dst.get(0));
+		alg.add(src.get(1),dst.get(1));
+
+		assertFalse(alg.process());
+	}
+
+	/**
+	 * Compare the statistics against computing them directly
+	 */
+	@Test
+	public void add() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i),dst.get(i));
+		}
+
+		checkStatistics(alg, 0, src.size());
+	}
+
+	@Test
+	public void remove() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i),dst.get(i));
+		}
+		for (int i = 0; i < 10; i++) {
+			alg.remove(src.get(i),dst.get(i));
+		}
+
+		checkStatistics(alg, 10, src.size());
+
+		assertTrue(alg.process());
+		GeneralMotionSe3Tests_F32.checkTransform(src, dst, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Remove every point and see if it is back in its initial state
+	 */
+	@Test
+	public void remove_all() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		alg.add(src.get(0),dst.get(0));
+		alg.add(src.get(1),dst.get(1));
+		alg.remove(src.get(1),dst.get(1));
+		checkStatistics(alg, 0, 1);
+		alg.remove(src.get(0),dst.get(0));
+
+		assertEquals(0,alg.size());
+		assertEquals(0,alg.meanSrc.x,0);
+		assertEquals(0,alg.s11,0);
+
+		try {
+			alg.remove(src.get(0),dst.get(0));
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	@Test
+	public void merge() {
+		MotionSe3PointAccumulator_F32 a = new MotionSe3PointAccumulator_F32();
+		MotionSe3PointAccumulator_F32 b = new MotionSe3PointAccumulator_F32();
+		for (int i = 0; i < 12; i++) {
+			a.add(src.get(i),dst.get(i));
+		}
+		for (int i = 12; i < src.size(); i++) {
+			b.add(src.get(i),dst.get(i));
+		}
+
+		a.merge(b);
+		checkStatistics(a, 0, src.size());
+
+		// merging an empty accumulator should do nothing, and merging into an empty one should copy
+		a.merge(new MotionSe3PointAccumulator_F32());
+		checkStatistics(a, 0, src.size());
+
+		MotionSe3PointAccumulator_F32 c = new MotionSe3PointAccumulator_F32();
+		c.merge(a);
+		checkStatistics(c, 0, src.size());
+	}
+
+	@Test
+	public void set() {
+		MotionSe3PointAccumulator_F32 a = new MotionSe3PointAccumulator_F32();
+		for (int i = 0; i < src.size(); i++) {
+			a.add(src.get(i),dst.get(i));
+		}
+
+		MotionSe3PointAccumulator_F32 b = new MotionSe3PointAccumulator_F32();
+		b.set(a);
+		checkStatistics(b, 0, src.size());
+	}
+
+	private void checkStatistics( MotionSe3PointAccumulator_F32 alg , int start , int end ) {
+		List<Point3D_F32> subSrc = src.subList(start, end);
+		List<Point3D_F32> subDst = dst.subList(start, end);
+
+		Point3D_F32 meanSrc = UtilPoint3D_F32.mean(subSrc, null);
+		Point3D_F32 meanDst = UtilPoint3D_F32.mean(subDst, null);
+
+		float tol = GrlConstants.FLOAT_TEST_TOL*100;
+
+		assertEquals(end-start, alg.size());
+		GeometryUnitTest.assertEquals(meanSrc, alg.meanSrc, tol);
+		GeometryUnitTest.assertEquals(meanDst, alg.meanDst, tol);
+
+		float S[] = new float[9];
+		for (int i = 0; i < subSrc.size(); i++) {
+			Point3D_F32 f = subSrc.get(i);
+			Point3D_F32 t = subDst.get(i);
+
+			float df[] = new float[]{f.x-meanSrc.x,f.y-meanSrc.y,f.z-meanSrc.z};
+			float dt[] = new float[]{t.x-meanDst.x,t.y-meanDst.y,t.z-meanDst.z};
+			for (int row = 0; row < 3; row++) {
+				for (int col = 0; col < 3; col++) {
+					S[row*3+col] += dt[row]*df[col];
+				}
+			}
+		}
+
+		assertEquals(S[0], alg.s11, tol);
+		assertEquals(S[1], alg.s12, tol);
+		assertEquals(S[2], alg.s13, tol);
+		assertEquals(S[3], alg.s21, tol);
+		assertEquals(S[4], alg.s22, tol);
+		assertEquals(S[5], alg.s23, tol);
+		assertEquals(S[6], alg.s31, tol);
+		assertEquals(S[7], alg.s32, tol);
+		assertEquals(S[8], alg.s33, tol);
+	}
+}
@@ -16,11 +16,26 @@
  * limitations under the License.
  */
 
+
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 /**
  * @author Peter Abeles
@@ -32,4 +47,75 @@ public class TestMotionSe3PointSVD_F64 extends GeneralMotionSe3Tests_F64 {
 		return new MotionSe3PointSVD_F64();
 	}
 
+	/**
+	 * Points with a weight of zero are outliers and should be ignored
+	 */
+	@Test
+	public void weighted() {
+		Se3_F64 tran = createTransform();
+
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 30, rand);
+		List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+		double weights[] = new double[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			dst.add(SePointOps_F64.transform(tran, src.get(i), null));
+			weights[i] = 0.5 + rand.nextDouble();
+		}
+
+		// corrupt several points
+		for (int i = 0; i < 5; i++) {
+			dst.get(i).x += 10;
+			weights[i] = 0;
+		}
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+		assertTrue(alg.process(src, dst, weights));
+
+		checkTransform(src.subList(5,30), dst.subList(5,30), alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL);
+
+		// all the weights are zero
+		assertFalse(alg.process(src, dst, new double[src.size()]));
+	}
+
+	/**
+	 * The concurrent solution should be identical to the single threaded one
+	 */
+	@Test
+	public void concurrent() {
+		Se3_F64 tran = createTransform();
+
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 5000, rand);
+		List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+		assertTrue(alg.process(src, dst));
+		Se3_F64 expected = alg.getTransformSrcToDst().copy();
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+			assertTrue(alg.isConcurrent());
+			assertTrue(alg.process(src, dst));
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		Se3_F64 found = alg.getTransformSrcToDst();
+		for (int i = 0; i < 9; i++) {
+			assertEquals(expected.R.data[i], found.R.data[i], 0);
+		}
+		assertEquals(expected.T.x, found.T.x, 0);
+		assertEquals(expected.T.y, found.T.y, 0);
+		assertEquals(expected.T.z, found.T.z, 0);
+		checkTransform(src, dst, found, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	private Se3_F64 createTransform() {
+		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.1, -0.5, 1.2, null);
+		return new Se3_F64(R, new Vector3D_F64(1, -2, 0.5));
+	}
 }
@@ -337,6 +337,30 @@ public class TestConvertRotation3D_F32 {
 		assertTrue(MatrixFeatures.isIdentity(difference,Math.sqrt(GrlConstants.FLOAT_TEST_TOL)));
 	}
 
+	/**
+	 * The middle rotation is at a singularity.  For proper Euler angles that's 0 or 180 degrees and for Tait-Bryan
+	 * angles it's 90 or -90 degrees.
+	 */
+	@Test
+	public void matrixToEuler_singular() {
+		float PId2 = (float)Math.PI/2.0f;
+		float PI = (float)Math.PI;
+
+		for( EulerType type : EulerType.values() ) {
+			float rotB[];
+			if( type.getAxisA() == type.getAxisC() )
+				rotB = new float[]{0,PI,-PI};
+			else
+				rotB = new float[]{PId2,-PId2};
+
+			for( float b : rotB ) {
+				matrixToEuler(type,0.3f,b,0.2f);
+				matrixToEuler(type,-0.4f,b,0.7f);
+				quaternionToEuler(type,0.3f,b,0.2f);
+			}
+		}
+	}
+
 	/**
 	 * Creates a random matrix and sees if the approximation is a valid rotation matrix
 	 */
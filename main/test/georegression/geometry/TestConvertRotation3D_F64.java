@@ -337,6 +337,30 @@ public class TestConvertRotation3D_F64 {
 		assertTrue(MatrixFeatures.isIdentity(difference,Math.sqrt(GrlConstants.DOUBLE_TEST_TOL)));
 	}
 
+	/**
+	 * The middle rotation is at a singularity.  For proper Euler angles that's 0 or 180 degrees and for Tait-Bryan
+	 * angles it's 90 or -90 degrees.
+	 */
+	@Test
+	public void matrixToEuler_singular() {
+		double PId2 = Math.PI/2.0;
+		double PI = Math.PI;
+
+		for( EulerType type : EulerType.values() ) {
+			double rotB[];
+			if( type.getAxisA() == type.getAxisC() )
+				rotB = new double[]{0,PI,-PI};
+			else
+				rotB = new double[]{PId2,-PId2};
+
+			for( double b : rotB ) {
+				matrixToEuler(type,0.3,b,0.2);
+				matrixToEuler(type,-0.4,b,0.7);
+				quaternionToEuler(type,0.3,b,0.2);
+			}
+		}
+	}
+
 	/**
 	 * Creates a random matrix and sees if the approximation is a valid rotation matrix
 	 */
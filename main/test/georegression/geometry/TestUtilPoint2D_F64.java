@@ -20,6 +20,7 @@ package georegression.geometry;
 
 import georegression.metric.Intersection2D_F64;
 import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.Rectangle2D_F64;
 import georegression.struct.shapes.RectangleLength2D_F64;
@@ -77,6 +78,19 @@ public class TestUtilPoint2D_F64 {
 		assertEquals(Y/20, found.y , GrlConstants.DOUBLE_TEST_TOL);
 	}
 
+	@Test
+	public void mean_packed() {
+		List<Point2D_F64> list = UtilPoint2D_F64.random(-50,50,20,rand);
+		PackedPoint2D_F64 packed = new PackedPoint2D_F64();
+		packed.addAll(list);
+
+		Point2D_F64 expected = UtilPoint2D_F64.mean(list, null);
+		Point2D_F64 found = UtilPoint2D_F64.mean(packed, null);
+
+		assertEquals(expected.x, found.x , GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.y, found.y , GrlConstants.DOUBLE_TEST_TOL);
+	}
+
 	@Test
 	public void mean_2pt() {
 		Point2D_F64 a = new Point2D_F64(3,8);
@@ -132,6 +146,21 @@ public class TestUtilPoint2D_F64 {
 		}
 	}
 
+	@Test
+	public void bounding_packed() {
+		List<Point2D_F64> list = UtilPoint2D_F64.random(-50,50,20,rand);
+		PackedPoint2D_F64 packed = new PackedPoint2D_F64();
+		packed.addAll(list);
+
+		Rectangle2D_F64 expected = UtilPoint2D_F64.bounding(list,(Rectangle2D_F64)null);
+		Rectangle2D_F64 found = UtilPoint2D_F64.bounding(packed,null);
+
+		assertEquals(expected.p0.x, found.p0.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.p0.y, found.p0.y, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.p1.x, found.p1.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.p1.y, found.p1.y, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
 	@Test
 	public void orderCCW() {
 		List<Point2D_F64> input = new ArrayList<Point2D_F64>();
@@ -19,12 +19,14 @@
 package georegression.geometry;
 
 import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -32,6 +34,9 @@ import static org.junit.Assert.assertEquals;
  * @author Peter Abeles
  */
 public class TestUtilPoint3D_F32 {
+
+	Random rand = new Random(234);
+
 	@Test
 	public void distance() {
 		float found = UtilPoint3D_F32.distance(1,2,3,4,-3,-4);
@@ -58,4 +63,31 @@ public class TestUtilPoint3D_F32 {
 		assertEquals(0,cube.getP0().distance(list.get(0)),GrlConstants.FLOAT_TEST_TOL);
 		assertEquals(0,cube.getP1().distance(new Point3D_F32(2,3,5)),1e-8);
 	}
+
+	@Test
+	public void boundingBox_packed() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-10,10,30,rand);
+		PackedPoint3D_F32 packed = new PackedPoint3D_F32();
+		packed.addAll(list);
+
+		Box3D_F32 expected = new Box3D_F32();
+		Box3D_F32 found = new Box3D_F32();
+		UtilPoint3D_F32.boundingBox(list, expected);
+		UtilPoint3D_F32.boundingBox(packed, found);
+
+		assertEquals(0,expected.getP0().distance(found.getP0()),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(0,expected.getP1().distance(found.getP1()),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void mean_packed() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-10,10,30,rand);
+		PackedPoint3D_F32 packed = new PackedPoint3D_F32();
+		packed.addAll(list);
+
+		Point3D_F32 expected = UtilPoint3D_F32.mean(list,null);
+		Point3D_F32 found = UtilPoint3D_F32.mean(packed,null);
+
+		assertEquals(0,expected.distance(found),GrlConstants.FLOAT_TEST_TOL);
+	}
 }
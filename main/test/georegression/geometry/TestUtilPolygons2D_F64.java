@@ -150,6 +150,19 @@ public class TestUtilPolygons2D_F64 {
 		assertEquals(5, out.p1.y, GrlConstants.DOUBLE_TEST_TOL);
 	}
 
+	@Test
+	public void bounding_polygon() {
+		Polygon2D_F64 p = new Polygon2D_F64(3, 0, 2, -3, -2, 3, 1, 5, 0, 1);
+		Rectangle2D_F64 out = new Rectangle2D_F64();
+
+		UtilPolygons2D_F64.bounding(p, out);
+
+		assertEquals(-2, out.p0.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(-3, out.p0.y, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(3, out.p1.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(5, out.p1.y, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
 	@Test
 	public void center_quadrilateral() {
 		Quadrilateral_F64 q = new Quadrilateral_F64(3, 0, 2, -3, -2, 3, 1, 5);
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAndrewMonotoneConvexHullPacked_F64 {
+
+	Random rand = new Random(2355);
+
+	AndrewMonotoneConvexHullPacked_F64 alg = new AndrewMonotoneConvexHullPacked_F64();
+
+	@Test
+	public void randomPoints() {
+		for (int numPoints = 3; numPoints < 200; numPoints += 7) {
+			PackedPoint2D_F64 points = new PackedPoint2D_F64();
+			for (int i = 0; i < numPoints; i++) {
+				double x = rand.nextGaussian()*5;
+				double y = rand.nextGaussian()*5;
+				points.add(x, y);
+			}
+			checkSameAsObjects(points);
+		}
+	}
+
+	/**
+	 * Every point is on the hull so the heuristic can't remove any of them
+	 */
+	@Test
+	public void circle() {
+		PackedPoint2D_F64 points = new PackedPoint2D_F64();
+		for (int i = 0; i < 100; i++) {
+			double theta = Math.PI*2*rand.nextDouble();
+			double x = Math.cos(theta)*3 + 1;
+			double y = Math.sin(theta)*3 - 2;
+			points.add(x, y);
+		}
+		checkSameAsObjects(points);
+	}
+
+	/**
+	 * Lots of collinear and duplicate points
+	 */
+	@Test
+	public void grid() {
+		PackedPoint2D_F64 points = new PackedPoint2D_F64();
+		for (int trial = 0; trial < 3; trial++) {
+			for (int row = 0; row < 5; row++) {
+				for (int col = 0; col < 6; col++) {
+					points.add(col*1.2 - 2.6, row*1.2 - 2.1);
+				}
+			}
+		}
+		checkSameAsObjects(points);
+
+		// points along the edges of a diamond, which are also edges of the octagon
+		points.reset();
+		for (int i = 0; i <= 10; i++) {
+			points.add(i, 10-i);
+			points.add(-i, 10-i);
+			points.add(i, i-10);
+			points.add(-i, i-10);
+			points.add(rand.nextInt(5)-2, rand.nextInt(5)-2);
+		}
+		checkSameAsObjects(points);
+
+		// all the points lie along a line
+		points.reset();
+		for (int i = 0; i < 20; i++) {
+			points.add(rand.nextInt(5), 2);
+		}
+		checkSameAsObjects(points);
+	}
+
+	@Test
+	public void fewPoints() {
+		Polygon2D_F64 hull = new Polygon2D_F64(3);
+
+		alg.process(new PackedPoint2D_F64(), hull);
+		assertEquals(0, hull.size());
+
+		PackedPoint2D_F64 points = new PackedPoint2D_F64();
+		points.add(1, 2);
+		alg.process(points, hull);
+		assertEquals(0, hull.size());
+
+		points.add(3, -1);
+		checkSameAsObjects(points);
+		points.add(0, 0);
+		checkSameAsObjects(points);
+	}
+
+	@Test
+	public void offset() {
+		double data[] = new double[]{100, 100, 0, 0, 2, 0, 1, 1, 2, 2, 0, 2};
+
+		Polygon2D_F64 hull = new Polygon2D_F64();
+		alg.process(data, 2, 5, hull);
+
+		assertEquals(4, hull.size());
+		assertTrue(hull.isCCW());
+		assertEquals(0, hull.get(0).x, 0);
+		assertEquals(0, hull.get(0).y, 0);
+		assertEquals(2, hull.get(1).x, 0);
+		assertEquals(0, hull.get(1).y, 0);
+	}
+
+	/**
+	 * Multiple blocks with and without concurrency
+	 */
+	@Test
+	public void manyPoints() {
+		PackedPoint2D_F64 points = new PackedPoint2D_F64();
+		int N = AndrewMonotoneConvexHullPacked_F64.BLOCK_SIZE*3 + 100;
+		for (int i = 0; i < N; i++) {
+			double x = rand.nextGaussian()*5;
+			double y = rand.nextGaussian()*5;
+			points.add(x, y);
+		}
+		// a block with only points on the hull
+		for (int i = 0; i < 2000; i++) {
+			double theta = Math.PI*2*i/2000;
+			double x = Math.cos(theta)*100;
+			double y = Math.sin(theta)*100;
+			points.add(x, y);
+		}
+		Polygon2D_F64 expected = checkSameAsObjects(points);
+		assertEquals(2000, expected.size());
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+			checkSameAsObjects(points);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * Compares the results against the algorithm which works on objects
+	 */
+	private Polygon2D_F64 checkSameAsObjects( PackedPoint2D_F64 points ) {
+		Point2D_F64 input[] = new Point2D_F64[points.size];
+		for (int i = 0; i < points.size; i++) {
+			input[i] = points.get(i, null);
+		}
+		Polygon2D_F64 expected = new Polygon2D_F64();
+		new AndrewMonotoneConvexHull_F64().process(input, input.length, expected);
+
+		Polygon2D_F64 found = new Polygon2D_F64();
+		alg.process(points, found);
+
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, found.get(i).x, 0);
+			assertEquals(expected.get(i).y, found.get(i).y, 0);
+		}
+		return expected;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestClipConvexPolygons2D_F32 {
+
+	Random rand = new Random(234);
+
+	ClipConvexPolygons2D_F32 alg = new ClipConvexPolygons2D_F32();
+	Polygon2D_F32 output = new Polygon2D_F32();
+
+	@Test
+	public void overlappingSquares() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 2,0, 2,2, 0,2);
+		Polygon2D_F32 b = new Polygon2D_F32(1,1, 3,1, 3,3, 1,3);
+
+		assertTrue(alg.process(a,b,output));
+		assertEquals(4,output.size());
+		assertEquals(1,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertTrue(alg.process(b,a,output));
+		assertEquals(4,output.size());
+		assertEquals(1,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertEquals(1,alg.area(a,b),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * The order of the input polygons should not matter and the output is always counter-clockwise
+	 */
+	@Test
+	public void clockwiseInput() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 0,2, 2,2, 2,0);
+		Polygon2D_F32 b = new Polygon2D_F32(1,1, 1,3, 3,3, 3,1);
+
+		assertTrue(alg.process(a,b,output));
+		assertEquals(4,output.size());
+		assertEquals(1,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		// input should not be modified
+		assertEquals(0,a.get(1).x,0);
+		assertEquals(2,a.get(1).y,0);
+	}
+
+	@Test
+	public void nested() {
+		Polygon2D_F32 outer = new Polygon2D_F32(0,0, 4,0, 4,4, 0,4);
+		Polygon2D_F32 inner = new Polygon2D_F32(1,1, 2,1, 2,2, 1,2);
+
+		assertTrue(alg.process(outer,inner,output));
+		assertEquals(4,output.size());
+		assertEquals(1,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertTrue(alg.process(inner,outer,output));
+		assertEquals(1,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void disjoint() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 1,0, 1,1, 0,1);
+		Polygon2D_F32 b = new Polygon2D_F32(3,0, 4,0, 4,1, 3,1);
+
+		assertFalse(alg.process(a,b,output));
+		assertEquals(0,output.size());
+		assertEquals(0,alg.area(b,a),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Identical polygons, shared edges, and vertexes which touch edges
+	 */
+	@Test
+	public void degenerate() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 2,0, 2,2, 0,2);
+
+		// identical
+		assertTrue(alg.process(a,new Polygon2D_F32(a),output));
+		assertEquals(4,output.size());
+		assertEquals(4,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		// shares an edge.  No area
+		assertFalse(alg.process(a,new Polygon2D_F32(2,0, 3,0, 3,2, 2,2),output));
+
+		// touches at a single vertex
+		assertFalse(alg.process(a,new Polygon2D_F32(2,2, 3,2, 3,3),output));
+
+		// shares part of an edge and the region overlaps
+		checkBothOrders(a,new Polygon2D_F32(1,0, 3,0, 3,1, 1,1),1);
+
+		// vertex of one lies on an edge of the other
+		checkBothOrders(a,new Polygon2D_F32(1,1, 3,0, 3,2),0.5f);
+
+		// inside and touching the perimeter
+		checkBothOrders(a,new Polygon2D_F32(0,0, 1,0, 1,1, 0,1),1);
+		checkBothOrders(a,new Polygon2D_F32(1,0, 2,1, 1,2, 0,1),2);
+	}
+
+	private void checkBothOrders( Polygon2D_F32 a , Polygon2D_F32 b , float expected ) {
+		assertTrue(alg.process(a,b,output));
+		assertTrue(output.isConvex());
+		assertEquals(expected,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(alg.process(b,a,output));
+		assertTrue(output.isConvex());
+		assertEquals(expected,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Compare against the general purpose algorithm
+	 */
+	@Test
+	public void randomPolygons() {
+		PolygonBoolean2D_F32 general = new PolygonBoolean2D_F32();
+
+		for (int trial = 0; trial < 200; trial++) {
+			Polygon2D_F32 a = createConvex(rand.nextFloat()*2-1,rand.nextFloat()*2-1,3+rand.nextInt(15));
+			Polygon2D_F32 b = createConvex(rand.nextFloat()*2-1,rand.nextFloat()*2-1,3+rand.nextInt(15));
+
+			float expected = general.intersectionArea(a,b);
+
+			boolean found = alg.process(a,b,output);
+			assertEquals(expected > 0, found);
+			if( found ) {
+				assertTrue(output.isConvex());
+				assertEquals(expected,PolygonBoolean2D_F32.signedArea(output),GrlConstants.FLOAT_TEST_TOL);
+			}
+			assertEquals(expected,alg.area(b,a),GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Creates a convex polygon by sampling points along a circle
+	 */
+	private Polygon2D_F32 createConvex( float cx , float cy , int sides ) {
+		float angles[] = new float[sides];
+		for (int i = 0; i < sides; i++) {
+			angles[i] = (float)Math.PI*2*rand.nextFloat();
+		}
+		Arrays.sort(angles);
+
+		float r = 0.2f + rand.nextFloat()*0.8f;
+		Polygon2D_F32 polygon = new Polygon2D_F32(sides);
+		for (int i = 0; i < sides; i++) {
+			float x = (float)Math.cos(angles[i])*r + cx;
+			float y = (float)Math.sin(angles[i])*r + cy;
+			polygon.set(i,x,y);
+		}
+		return polygon;
+	}
+}
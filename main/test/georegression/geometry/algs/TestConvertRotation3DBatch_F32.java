@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
+import georegression.struct.so.Quaternion_F32;
+import georegression.struct.so.Rodrigues_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvertRotation3DBatch_F32 {
+
+	Random rand = new Random(234);
+
+	float tol = GrlConstants.FLOAT_TEST_TOL;
+
+	int N = 200;
+
+	ConvertRotation3DBatch_F32 alg = new ConvertRotation3DBatch_F32();
+
+	@Test
+	public void quaternionToMatrix() {
+		float quat[] = createQuaternions(N);
+		float R[] = new float[N*9];
+
+		alg.quaternionToMatrix(quat, 0, R, 0, N);
+		for (int i = 0; i < N; i++) {
+			DenseMatrix64F expected = ConvertRotation3D_F32.quaternionToMatrix(quaternion(quat, i), null);
+			checkMatrix(expected, R, i);
+		}
+	}
+
+	@Test
+	public void matrixToQuaternion() {
+		float R[] = createMatrices(N);
+		float quat[] = new float[N*4];
+
+		alg.matrixToQuaternion(R, 0, quat, 0, N);
+		for (int i = 0; i < N; i++) {
+			Quaternion_F32 expected = ConvertRotation3D_F32.matrixToQuaternion(matrix(R, i), null);
+			assertEquals(expected.w, quat[i*4], tol);
+			assertEquals(expected.x, quat[i*4+1], tol);
+			assertEquals(expected.y, quat[i*4+2], tol);
+			assertEquals(expected.z, quat[i*4+3], tol);
+		}
+	}
+
+	@Test
+	public void rodriguesToMatrix() {
+		float rod[] = createRodrigues(N);
+		float R[] = new float[N*9];
+
+		alg.rodriguesToMatrix(rod, 0, R, 0, N);
+		for (int i = 0; i < N; i++) {
+			DenseMatrix64F expected = ConvertRotation3D_F32.rodriguesToMatrix(rodrigues(rod, i), null);
+			checkMatrix(expected, R, i);
+		}
+	}
+
+	@Test
+	public void matrixToRodrigues() {
+		float R[] = createMatrices(N);
+		float rod[] = new float[N*4];
+
+		alg.matrixToRodrigues(R, 0, rod, 0, N);
+		for (int i = 0; i < N; i++) {
+			Rodrigues_F32 expected = ConvertRotation3D_F32.matrixToRodrigues(matrix(R, i), null);
+			assertEquals(expected.theta, rod[i*4], tol);
+			assertEquals(expected.unitAxisRotation.x, rod[i*4+1], tol);
+			assertEquals(expected.unitAxisRotation.y, rod[i*4+2], tol);
+			assertEquals(expected.unitAxisRotation.z, rod[i*4+3], tol);
+		}
+	}
+
+	@Test
+	public void rodriguesToQuaternion() {
+		float rod[] = createRodrigues(N);
+		float quat[] = new float[N*4];
+
+		alg.rodriguesToQuaternion(rod, 0, quat, 0, N);
+		for (int i = 0; i < N; i++) {
+			Quaternion_F32 expected = ConvertRotation3D_F32.rodriguesToQuaternion(rodrigues(rod, i), null);
+			assertEquals(expected.w, quat[i*4], tol);
+			assertEquals(expected.x, quat[i*4+1], tol);
+			assertEquals(expected.y, quat[i*4+2], tol);
+			assertEquals(expected.z, quat[i*4+3], tol);
+		}
+	}
+
+	@Test
+	public void quaternionToRodrigues() {
+		float quat[] = createQuaternions(N);
+		float rod[] = new float[N*4];
+
+		alg.quaternionToRodrigues(quat, 0, rod, 0, N);
+		for (int i = 0; i < N; i++) {
+			Rodrigues_F32 expected = ConvertRotation3D_F32.quaternionToRodrigues(quaternion(quat, i), null);
+			assertEquals(expected.theta, rod[i*4], tol);
+			assertEquals(expected.unitAxisRotation.x, rod[i*4+1], tol);
+			assertEquals(expected.unitAxisRotation.y, rod[i*4+2], tol);
+			assertEquals(expected.unitAxisRotation.z, rod[i*4+3], tol);
+		}
+	}
+
+	/**
+	 * Rotation vectors are compared against rodrigues coordinates.  Includes a vector with no rotation.
+	 */
+	@Test
+	public void rotationVector() {
+		float rod[] = createRodrigues(N);
+		float vector[] = new float[N*3];
+		for (int i = 0; i < N; i++) {
+			for (int k = 0; k < 3; k++) {
+				vector[i*3+k] = rod[i*4]*rod[i*4+1+k];
+			}
+		}
+		vector[0] = vector[1] = vector[2] = 0;
+		rod[0] = 0;
+
+		float R[] = new float[N*9];
+		float expectedR[] = new float[N*9];
+		alg.rotationVectorToMatrix(vector, 0, R, 0, N);
+		alg.rodriguesToMatrix(rod, 0, expectedR, 0, N);
+		assertArrayEquals(expectedR, R, tol);
+		checkMatrix(CommonOps.identity(3), R, 0);
+
+		float quat[] = new float[N*4];
+		float expectedQuat[] = new float[N*4];
+		alg.rotationVectorToQuaternion(vector, 0, quat, 0, N);
+		alg.rodriguesToQuaternion(rod, 0, expectedQuat, 0, N);
+		assertArrayEquals(expectedQuat, quat, tol);
+
+		// convert back into rotation vectors
+		float found[] = new float[N*3];
+		alg.quaternionToRotationVector(quat, 0, found, 0, N);
+		assertArrayEquals(vector, found, tol);
+		alg.matrixToRotationVector(R, 0, found, 0, N);
+		assertArrayEquals(vector, found, tol);
+	}
+
+	@Test
+	public void eulerToMatrix() {
+		float euler[] = createEuler(N);
+		float R[] = new float[N*9];
+
+		for( EulerType type : EulerType.values() ) {
+			alg.eulerToMatrix(type, euler, 0, R, 0, N);
+			for (int i = 0; i < N; i++) {
+				DenseMatrix64F expected = ConvertRotation3D_F32.eulerToMatrix(type,
+						euler[i*3], euler[i*3+1], euler[i*3+2], null);
+				checkMatrix(expected, R, i);
+			}
+		}
+	}
+
+	@Test
+	public void matrixToEuler() {
+		float R[] = createMatrices(N);
+		float euler[] = new float[N*3];
+
+		for( EulerType type : EulerType.values() ) {
+			// include matrices which are at a singularity for this rotation sequence
+			float PId2 = (float)Math.PI/2.0f;
+			float PI = (float)Math.PI;
+			float singular[] = new float[]{0.3f,0,0.2f, 0.3f,PI,0.2f, 0.3f,PId2,0.2f, 0.3f,-PId2,0.2f};
+			alg.eulerToMatrix(type, singular, 0, R, 9, 4);
+
+			alg.matrixToEuler(R, 0, type, euler, 0, N);
+			for (int i = 0; i < N; i++) {
+				float expected[] = ConvertRotation3D_F32.matrixToEuler(matrix(R, i), type, null);
+				for (int k = 0; k < 3; k++) {
+					assertEquals(expected[k], euler[i*3+k], tol);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void eulerToQuaternion() {
+		float euler[] = createEuler(N);
+		float quat[] = new float[N*4];
+
+		for( EulerType type : EulerType.values() ) {
+			alg.eulerToQuaternion(type, euler, 0, quat, 0, N);
+			for (int i = 0; i < N; i++) {
+				Quaternion_F32 expected = ConvertRotation3D_F32.eulerToQuaternion(type,
+						euler[i*3], euler[i*3+1], euler[i*3+2], null);
+				assertEquals(expected.w, quat[i*4], tol);
+				assertEquals(expected.x, quat[i*4+1], tol);
+				assertEquals(expected.y, quat[i*4+2], tol);
+				assertEquals(expected.z, quat[i*4+3], tol);
+			}
+		}
+	}
+
+	@Test
+	public void quaternionToEuler() {
+		float quat[] = createQuaternions(N);
+		float euler[] = new float[N*3];
+
+		for( EulerType type : EulerType.values() ) {
+			alg.quaternionToEuler(quat, 0, type, euler, 0, N);
+			for (int i = 0; i < N; i++) {
+				float expected[] = ConvertRotation3D_F32.quaternionToEuler(quaternion(quat, i), type, null);
+				for (int k = 0; k < 3; k++) {
+					assertEquals(expected[k], euler[i*3+k], tol);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Inputs and outputs which don't start at the beginning of the array
+	 */
+	@Test
+	public void offsets() {
+		float quat[] = createQuaternions(N);
+		float expected[] = new float[N*9];
+		alg.quaternionToMatrix(quat, 0, expected, 0, N);
+
+		float input[] = new float[N*4+3];
+		System.arraycopy(quat, 0, input, 3, N*4);
+		float found[] = new float[N*9+5];
+		alg.quaternionToMatrix(input, 3, found, 5, N-1);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, found[i], 0);
+		}
+		for (int i = 0; i < (N-1)*9; i++) {
+			assertEquals(expected[i], found[i+5], 0);
+		}
+		// only the requested number of rotations are written
+		for (int i = (N-1)*9; i < N*9; i++) {
+			assertEquals(0, found[i+5], 0);
+		}
+	}
+
+	@Test
+	public void concurrent() {
+		int N = ConvertRotation3DBatch_F32.BLOCK_SIZE*3 + 10;
+		float euler[] = createEuler(N);
+
+		float expected[] = new float[N*9];
+		alg.eulerToMatrix(EulerType.XYZ, euler, 0, expected, 0, N);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(1);
+			alg.setConcurrent(true);
+			float found[] = new float[N*9];
+			alg.eulerToMatrix(EulerType.XYZ, euler, 0, found, 0, N);
+			assertArrayEquals(expected, found, 0);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	@Test
+	public void badArguments() {
+		float quat[] = new float[8];
+		float R[] = new float[18];
+
+		// the count is valid, sanity check
+		alg.quaternionToMatrix(quat, 0, R, 0, 2);
+
+		try {
+			alg.quaternionToMatrix(quat, 1, R, 0, 2);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.quaternionToMatrix(quat, 0, R, 1, 2);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.quaternionToMatrix(quat, 0, R, 0, -1);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.matrixToEuler(R, 0, EulerType.XYZ, new float[5], 0, 2);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	private void checkMatrix( DenseMatrix64F expected , float R[] , int i ) {
+		for (int k = 0; k < 9; k++) {
+			assertEquals(expected.data[k], R[i*9+k], tol);
+		}
+	}
+
+	/**
+	 * Random unit quaternions
+	 */
+	private float[] createQuaternions( int N ) {
+		float quat[] = new float[N*4];
+		for (int i = 0; i < N; i++) {
+			Quaternion_F32 q = new Quaternion_F32((float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					(float)rand.nextGaussian(), (float)rand.nextGaussian());
+			q.normalize();
+			quat[i*4] = q.w; quat[i*4+1] = q.x; quat[i*4+2] = q.y; quat[i*4+3] = q.z;
+		}
+		return quat;
+	}
+
+	/**
+	 * Random rotation matrices.  Includes the identity matrix and a rotation of 180 degrees, which are special
+	 * cases when converting into rodrigues coordinates.
+	 */
+	private float[] createMatrices( int N ) {
+		float R[] = new float[N*9];
+		alg.eulerToMatrix(EulerType.ZYX, createEuler(N), 0, R, 0, N);
+		setMatrix(CommonOps.identity(3), R, 0);
+		setMatrix(ConvertRotation3D_F32.rotX(GrlConstants.F_PI, null), R, N-1);
+		return R;
+	}
+
+	private float[] createRodrigues( int N ) {
+		float rod[] = new float[N*4];
+		for (int i = 0; i < N; i++) {
+			Rodrigues_F32 r = new Rodrigues_F32((rand.nextFloat()-0.5f)*2*GrlConstants.F_PI,
+					(float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+			rod[i*4] = r.theta;
+			rod[i*4+1] = r.unitAxisRotation.x;
+			rod[i*4+2] = r.unitAxisRotation.y;
+			rod[i*4+3] = r.unitAxisRotation.z;
+		}
+		return rod;
+	}
+
+	private float[] createEuler( int N ) {
+		float euler[] = new float[N*3];
+		for (int i = 0; i < euler.length; i++) {
+			euler[i] = (rand.nextFloat()-0.5f)*2*GrlConstants.F_PI;
+		}
+		return euler;
+	}
+
+	private static Quaternion_F32 quaternion( float quat[] , int i ) {
+		return new Quaternion_F32(quat[i*4], quat[i*4+1], quat[i*4+2], quat[i*4+3]);
+	}
+
+	private static DenseMatrix64F matrix( float R[] , int i ) {
+		DenseMatrix64F M = new DenseMatrix64F(3, 3);
+		for (int k = 0; k < 9; k++) {
+			M.data[k] = R[i*9+k];
+		}
+		return M;
+	}
+
+	private static void setMatrix( DenseMatrix64F M , float R[] , int i ) {
+		for (int k = 0; k < 9; k++) {
+			R[i*9+k] = (float)M.data[k];
+		}
+	}
+
+	private static Rodrigues_F32 rodrigues( float rod[] , int i ) {
+		return new Rodrigues_F32(rod[i*4], rod[i*4+1], rod[i*4+2], rod[i*4+3]);
+	}
+}
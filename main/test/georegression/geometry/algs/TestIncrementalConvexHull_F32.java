@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIncrementalConvexHull_F32 {
+
+	Random rand = new Random(2355);
+
+	IncrementalConvexHull_F32 alg = new IncrementalConvexHull_F32();
+	List<Point2D_F32> points = new ArrayList<Point2D_F32>();
+
+	@Test
+	public void square() {
+		assertTrue(alg.add(0,0));
+		assertTrue(alg.add(2,0));
+		assertTrue(alg.add(2,2));
+		assertTrue(alg.add(0,2));
+
+		// inside and along the edges
+		assertFalse(alg.add(1,1));
+		assertFalse(alg.add(1,0));
+		assertFalse(alg.add(0,1));
+		assertFalse(alg.add(2,2));
+
+		Polygon2D_F32 hull = new Polygon2D_F32();
+		alg.getHull(hull);
+		assertEquals(4, alg.size());
+		assertEquals(4, hull.size());
+		assertTrue(hull.get(0).distance(0,0) == 0);
+		assertTrue(hull.get(1).distance(2,0) == 0);
+		assertTrue(hull.get(2).distance(2,2) == 0);
+		assertTrue(hull.get(3).distance(0,2) == 0);
+
+		// make it larger.  (2,2) is now inside
+		assertTrue(alg.add(3,3));
+		alg.getHull(hull);
+		assertEquals(4, hull.size());
+		assertTrue(hull.get(2).distance(3,3) == 0);
+	}
+
+	/**
+	 * After each point is added the hull should be the same as computing it from scratch
+	 */
+	@Test
+	public void randomPoints() {
+		Polygon2D_F32 found = new Polygon2D_F32();
+
+		for (int i = 0; i < 300; i++) {
+			float x = (float)rand.nextGaussian()*5;
+			float y = (float)rand.nextGaussian()*5;
+			add(x, y);
+
+			if( points.size() >= 3 ) {
+				alg.getHull(found);
+				checkSameAsBatch(found);
+			}
+		}
+	}
+
+	/**
+	 * Every point is on the hull and points are added in a random order
+	 */
+	@Test
+	public void circle() {
+		Polygon2D_F32 found = new Polygon2D_F32();
+
+		for (int i = 0; i < 200; i++) {
+			float theta = (float)Math.PI*2*rand.nextFloat();
+			float x = (float)Math.cos(theta)*3;
+			float y = (float)Math.sin(theta)*3;
+			add(x, y);
+		}
+		alg.getHull(found);
+		assertEquals(200, found.size());
+		checkSameAsBatch(found);
+	}
+
+	/**
+	 * Points on a grid with lots of collinear and duplicate points
+	 */
+	@Test
+	public void grid() {
+		Polygon2D_F32 found = new Polygon2D_F32();
+
+		for (int i = 0; i < 200; i++) {
+			add(rand.nextInt(6), rand.nextInt(5));
+			if( i >= 20 ) {
+				alg.getHull(found);
+				checkSameAsBatch(found);
+			}
+		}
+	}
+
+	/**
+	 * Points along a vertical line and a single point
+	 */
+	@Test
+	public void degenerate() {
+		Polygon2D_F32 found = new Polygon2D_F32();
+
+		alg.getHull(found);
+		assertEquals(0, found.size());
+		assertEquals(0, alg.size());
+
+		alg.add(1, 2);
+		alg.getHull(found);
+		assertEquals(1, found.size());
+		assertEquals(1, alg.size());
+
+		alg.add(1, 2);
+		alg.add(1, 5);
+		alg.add(1, 3);
+		alg.add(1, -1);
+		alg.getHull(found);
+		assertEquals(2, found.size());
+		assertEquals(2, alg.size());
+		assertEquals(-1, found.get(0).y, 0);
+		assertEquals(5, found.get(1).y, 0);
+
+		alg.reset();
+		alg.getHull(found);
+		assertEquals(0, found.size());
+		assertEquals(0, alg.size());
+	}
+
+	private void add( float x , float y ) {
+		points.add(new Point2D_F32(x, y));
+		alg.add(x, y);
+	}
+
+	private void checkSameAsBatch( Polygon2D_F32 found ) {
+		Point2D_F32 input[] = new Point2D_F32[points.size()];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = points.get(i).copy();
+		}
+		Polygon2D_F32 expected = new Polygon2D_F32();
+		new AndrewMonotoneConvexHull_F32().process(input, input.length, expected);
+
+		assertEquals(expected.size(), found.size());
+		assertEquals(expected.size(), alg.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, found.get(i).x, 0);
+			assertEquals(expected.get(i).y, found.get(i).y, 0);
+		}
+	}
+}
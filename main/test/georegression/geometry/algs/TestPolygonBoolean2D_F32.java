@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.metric.Area2D_F32;
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPolygonBoolean2D_F32 {
+
+	Random rand = new Random(234);
+
+	PolygonBoolean2D_F32 alg = new PolygonBoolean2D_F32();
+	FastQueue<Polygon2D_F32> output = new FastQueue<Polygon2D_F32>(Polygon2D_F32.class,true);
+
+	@Test
+	public void overlappingSquares() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 2,0, 2,2, 0,2);
+		Polygon2D_F32 b = new Polygon2D_F32(1,1, 3,1, 3,3, 1,3);
+
+		alg.intersection(a,b,output);
+		assertEquals(1,output.size());
+		assertEquals(4,output.get(0).size());
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(output.get(0).isCCW());
+
+		alg.union(a,b,output);
+		assertEquals(1,output.size());
+		assertEquals(8,output.get(0).size());
+		assertEquals(7,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.difference(a,b,output);
+		assertEquals(1,output.size());
+		assertEquals(6,output.get(0).size());
+		assertEquals(3,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.difference(b,a,output);
+		assertEquals(1,output.size());
+		assertEquals(3,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertEquals(1,alg.intersectionArea(a,b),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * The order of the input polygons should not matter
+	 */
+	@Test
+	public void clockwiseInput() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 0,2, 2,2, 2,0);
+		Polygon2D_F32 b = new Polygon2D_F32(1,1, 3,1, 3,3, 1,3);
+
+		alg.intersection(a,b,output);
+		assertEquals(1,output.size());
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.union(b,a,output);
+		assertEquals(1,output.size());
+		assertEquals(7,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.difference(a,b,output);
+		assertEquals(3,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertEquals(1,alg.intersectionArea(b,a),GrlConstants.FLOAT_TEST_TOL);
+
+		// input should not be modified
+		assertEquals(0,a.get(1).x,0);
+		assertEquals(2,a.get(1).y,0);
+	}
+
+	/**
+	 * A concave polygon where the results have multiple parts and a hole
+	 */
+	@Test
+	public void concave() {
+		Polygon2D_F32 u = new Polygon2D_F32(0,0, 3,0, 3,3, 2,3, 2,1, 1,1, 1,3, 0,3);
+		Polygon2D_F32 bar = new Polygon2D_F32(-1,2, 4,2, 4,2.5f, -1,2.5f);
+
+		alg.intersection(u,bar,output);
+		assertEquals(2,output.size());
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		// the space between the two arms becomes a hole
+		alg.union(u,bar,output);
+		assertEquals(2,output.size());
+		assertEquals(8.5f,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+		int holes = 0;
+		for (int i = 0; i < output.size(); i++) {
+			if( PolygonBoolean2D_F32.signedArea(output.get(i)) < 0 ) {
+				holes++;
+				assertEquals(-1,PolygonBoolean2D_F32.signedArea(output.get(i)),GrlConstants.FLOAT_TEST_TOL);
+			}
+		}
+		assertEquals(1,holes);
+
+		alg.difference(u,bar,output);
+		assertEquals(3,output.size());
+		assertEquals(6,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.difference(bar,u,output);
+		assertEquals(3,output.size());
+		assertEquals(1.5f,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertEquals(1,alg.intersectionArea(u,bar),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1,alg.intersectionArea(bar,u),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void nested() {
+		Polygon2D_F32 outer = new Polygon2D_F32(0,0, 4,0, 4,4, 0,4);
+		Polygon2D_F32 inner = new Polygon2D_F32(1,1, 2,1, 2,2, 1,2);
+
+		alg.intersection(outer,inner,output);
+		assertEquals(1,output.size());
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+		alg.intersection(inner,outer,output);
+		assertEquals(1,output.size());
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.union(inner,outer,output);
+		assertEquals(1,output.size());
+		assertEquals(16,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		// inner becomes a hole
+		alg.difference(outer,inner,output);
+		assertEquals(2,output.size());
+		assertEquals(15,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-1,PolygonBoolean2D_F32.signedArea(output.get(1)),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.difference(inner,outer,output);
+		assertEquals(0,output.size());
+
+		assertEquals(1,alg.intersectionArea(outer,inner),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1,alg.intersectionArea(inner,outer),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void disjoint() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 1,0, 1,1, 0,1);
+		Polygon2D_F32 b = new Polygon2D_F32(3,0, 4,0, 4,1, 3,1);
+
+		alg.intersection(a,b,output);
+		assertEquals(0,output.size());
+
+		alg.union(a,b,output);
+		assertEquals(2,output.size());
+		assertEquals(2,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		alg.difference(a,b,output);
+		assertEquals(1,output.size());
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+		assertEquals(0,alg.intersectionArea(a,b),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Identical polygons, shared edges, and vertexes which touch edges
+	 */
+	@Test
+	public void degenerate() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 2,0, 2,2, 0,2);
+
+		// identical
+		checkAreas(a,new Polygon2D_F32(a),4);
+
+		// shares an edge
+		checkAreas(a,new Polygon2D_F32(2,0, 3,0, 3,2, 2,2),0);
+
+		// shares part of an edge and the region overlaps
+		checkAreas(a,new Polygon2D_F32(1,0, 3,0, 3,1, 1,1),1);
+
+		// vertex of one lies on an edge of the other
+		checkAreas(a,new Polygon2D_F32(1,1, 3,0, 3,2),0.5f);
+
+		// touches at a single vertex
+		checkAreas(a,new Polygon2D_F32(2,2, 3,2, 3,3),0);
+	}
+
+	/**
+	 * If the degenerate configuration can't be removed it should report a failure instead of a bad polygon
+	 */
+	@Test
+	public void degenerate_failure() {
+		Polygon2D_F32 a = new Polygon2D_F32(0,0, 2,0, 2,2, 0,2);
+		Polygon2D_F32 b = new Polygon2D_F32(a);
+
+		// no perturbations are allowed so it stays degenerate
+		alg.maxPerturb = 0;
+
+		output.grow();
+		assertFalse(alg.intersection(a,b,output));
+		assertEquals(0,output.size());
+		assertFalse(alg.union(a,b,output));
+		assertEquals(0,output.size());
+		assertFalse(alg.difference(a,b,output));
+		assertEquals(0,output.size());
+		assertTrue(Float.isNaN(alg.intersectionArea(a,b)));
+
+		// configurations which aren't degenerate don't need to be perturbed
+		b = new Polygon2D_F32(1,1, 3,1, 3,3, 1,3);
+		assertTrue(alg.intersection(a,b,output));
+		assertEquals(1,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1,alg.intersectionArea(a,b),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Checks the area of the intersection, union, and difference
+	 */
+	private void checkAreas( Polygon2D_F32 a , Polygon2D_F32 b , float expected ) {
+		float tol = GrlConstants.FLOAT_TEST_TOL*100;
+		float areaA = Area2D_F32.polygonSimple(a);
+		float areaB = Area2D_F32.polygonSimple(b);
+
+		assertTrue(alg.intersection(a,b,output));
+		assertEquals(expected,sumArea(output),tol);
+		assertTrue(alg.union(a,b,output));
+		assertEquals(areaA+areaB-expected,sumArea(output),tol);
+		assertTrue(alg.difference(a,b,output));
+		assertEquals(areaA-expected,sumArea(output),tol);
+		assertTrue(alg.difference(b,a,output));
+		assertEquals(areaB-expected,sumArea(output),tol);
+
+		assertEquals(expected,alg.intersectionArea(a,b),tol);
+		assertEquals(expected,alg.intersectionArea(b,a),tol);
+	}
+
+	/**
+	 * Compare the different operations against each other and against a numerical estimate of the area
+	 */
+	@Test
+	public void randomPolygons() {
+		for (int trial = 0; trial < 50; trial++) {
+			Polygon2D_F32 a = createStar(rand.nextFloat()*2-1,rand.nextFloat()*2-1,3+rand.nextInt(15));
+			Polygon2D_F32 b = createStar(rand.nextFloat()*2-1,rand.nextFloat()*2-1,3+rand.nextInt(15));
+
+			float areaA = Area2D_F32.polygonSimple(a);
+			float areaB = Area2D_F32.polygonSimple(b);
+
+			float found = alg.intersectionArea(a,b);
+			assertEquals(found,alg.intersectionArea(b,a),GrlConstants.FLOAT_TEST_TOL);
+
+			alg.intersection(a,b,output);
+			assertEquals(found,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+			alg.union(a,b,output);
+			assertEquals(areaA+areaB-found,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+			alg.difference(a,b,output);
+			assertEquals(areaA-found,sumArea(output),GrlConstants.FLOAT_TEST_TOL);
+
+			// sample a grid of points
+			int total = 0;
+			int N = 200;
+			Point2D_F32 p = new Point2D_F32();
+			for (int i = 0; i < N; i++) {
+				p.y = 4.0f*(i+0.5f)/N - 2;
+				for (int j = 0; j < N; j++) {
+					p.x = 4.0f*(j+0.5f)/N - 2;
+					if( Intersection2D_F32.containConcave(a,p) && Intersection2D_F32.containConcave(b,p))
+						total++;
+				}
+			}
+			float estimated = 16.0f*total/(N*N);
+			assertEquals(estimated,found,0.05f);
+		}
+	}
+
+	/**
+	 * Creates a star shaped polygon with random radius at each vertex
+	 */
+	private Polygon2D_F32 createStar( float cx , float cy , int sides ) {
+		Polygon2D_F32 polygon = new Polygon2D_F32(sides);
+		for (int i = 0; i < sides; i++) {
+			float theta = (float)Math.PI*2*(i + rand.nextFloat()*0.8f)/sides;
+			float r = 0.2f + rand.nextFloat()*0.8f;
+			float x = (float)Math.cos(theta)*r + cx;
+			float y = (float)Math.sin(theta)*r + cy;
+			polygon.set(i,x,y);
+		}
+		return polygon;
+	}
+
+	private static float sumArea( FastQueue<Polygon2D_F32> polygons ) {
+		float total = 0;
+		for (int i = 0; i < polygons.size(); i++) {
+			total += PolygonBoolean2D_F32.signedArea(polygons.get(i));
+		}
+		return total;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint3D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestQuickHull3DBatch_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Each cluster should have the same hull as when it's processed by itself
+	 */
+	@Test
+	public void compareToSingle() {
+		List<PackedPoint3D_F32> clusters = createClusters(40);
+
+		QuickHull3DBatch_F32 alg = new QuickHull3DBatch_F32();
+		FastQueue<GrowQueue_I32> found = new FastQueue<GrowQueue_I32>(GrowQueue_I32.class, true);
+		alg.process(clusters, found);
+		assertEquals(clusters.size(), found.size);
+
+		QuickHull3D_F32 single = new QuickHull3D_F32();
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		for (int i = 0; i < clusters.size(); i++) {
+			if( single.process(clusters.get(i)) )
+				single.getFaces(expected);
+			else
+				expected.reset();
+			checkIdentical(expected, found.get(i));
+		}
+
+		// degenerate cluster has no faces
+		assertEquals(0, found.get(0).size);
+
+		// output storage is resized
+		alg.process(clusters.subList(0, 5), found);
+		assertEquals(5, found.size);
+	}
+
+	@Test
+	public void concurrent() {
+		List<PackedPoint3D_F32> clusters = createClusters(200);
+
+		QuickHull3DBatch_F32 alg = new QuickHull3DBatch_F32();
+		FastQueue<GrowQueue_I32> expected = new FastQueue<GrowQueue_I32>(GrowQueue_I32.class, true);
+		alg.process(clusters, expected);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(1);
+			alg.setConcurrent(true);
+			FastQueue<GrowQueue_I32> found = new FastQueue<GrowQueue_I32>(GrowQueue_I32.class, true);
+			alg.process(clusters, found);
+
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				checkIdentical(expected.get(i), found.get(i));
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	private List<PackedPoint3D_F32> createClusters( int N ) {
+		List<PackedPoint3D_F32> clusters = new ArrayList<PackedPoint3D_F32>();
+		// the first cluster is degenerate
+		PackedPoint3D_F32 flat = new PackedPoint3D_F32();
+		for (int i = 0; i < 20; i++) {
+			flat.add(rand.nextFloat(), rand.nextFloat(), 1);
+		}
+		clusters.add(flat);
+
+		for (int i = 1; i < N; i++) {
+			PackedPoint3D_F32 points = new PackedPoint3D_F32();
+			int size = 4 + rand.nextInt(300);
+			float cx = 10*rand.nextFloat(), cy = 10*rand.nextFloat(), cz = 10*rand.nextFloat();
+			for (int j = 0; j < size; j++) {
+				float x = (float)rand.nextGaussian();
+				float y = (float)rand.nextGaussian();
+				float z = (float)rand.nextGaussian();
+				points.add(cx + x, cy + y, cz + z);
+			}
+			clusters.add(points);
+		}
+		return clusters;
+	}
+
+	private void checkIdentical( GrowQueue_I32 expected , GrowQueue_I32 found ) {
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i), found.get(i));
+		}
+	}
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestQuickHull3D_F32 {
+
+	Random rand = new Random(234);
+
+	QuickHull3D_F32 alg = new QuickHull3D_F32();
+	GrowQueue_I32 faces = new GrowQueue_I32();
+	GrowQueue_I32 vertexes = new GrowQueue_I32();
+
+	@Test
+	public void tetrahedron() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		points.add(0,0,0);
+		points.add(1,0,0);
+		points.add(0,1,0);
+		points.add(0,0,1);
+
+		assertTrue(alg.process(points));
+		alg.getFaces(faces);
+		assertEquals(4*3, faces.size);
+		assertEquals(4, alg.getFaceCount());
+		checkHull(points.data, 0, points.size, faces);
+		assertEquals(1.0f/6.0f, alg.computeVolume(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Corners of a cube plus points inside of it and on its surface
+	 */
+	@Test
+	public void cube() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		for (int i = 0; i < 200; i++) {
+			points.add(rand.nextFloat(), rand.nextFloat(), rand.nextFloat());
+			// on a side
+			points.add(rand.nextFloat(), rand.nextFloat(), 1);
+			points.add(0, rand.nextFloat(), rand.nextFloat());
+		}
+		int first = points.size;
+		for (int i = 0; i < 8; i++) {
+			points.add(i & 1, (i >> 1) & 1, (i >> 2) & 1);
+		}
+
+		assertTrue(alg.process(points));
+		alg.getFaces(faces);
+		checkHull(points.data, 0, points.size, faces);
+		assertEquals(1.0f, alg.computeVolume(), GrlConstants.FLOAT_TEST_TOL);
+
+		// points on the sides can be vertexes but the corners must be
+		alg.getVertexes(vertexes);
+		for (int i = 0; i < 8; i++) {
+			assertTrue(contains(vertexes, first+i));
+		}
+		// nothing from inside the cube
+		for (int i = 0; i < vertexes.size; i++) {
+			int v = vertexes.get(i);
+			assertTrue(v >= first || v % 3 != 0);
+		}
+	}
+
+	/**
+	 * Only the corners and points inside.  The hull should be the minimal triangulation of the cube.
+	 */
+	@Test
+	public void cubeCorners() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		for (int i = 0; i < 8; i++) {
+			points.add(i & 1, (i >> 1) & 1, (i >> 2) & 1);
+		}
+		for (int i = 0; i < 200; i++) {
+			points.add(rand.nextFloat(), rand.nextFloat(), rand.nextFloat());
+		}
+
+		assertTrue(alg.process(points));
+		alg.getFaces(faces);
+		assertEquals(12*3, faces.size);
+		checkHull(points.data, 0, points.size, faces);
+		assertEquals(1.0f, alg.computeVolume(), GrlConstants.FLOAT_TEST_TOL);
+
+		alg.getVertexes(vertexes);
+		assertEquals(8, vertexes.size);
+		for (int i = 0; i < 8; i++) {
+			assertEquals(i, vertexes.get(i));
+		}
+	}
+
+	/**
+	 * Points on an integer grid.  Lots of points are collinear and coplanar with the hull's faces.
+	 */
+	@Test
+	public void grid() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		for (int i = 0; i < 5; i++) {
+			for (int j = 0; j < 5; j++) {
+				for (int k = 0; k < 5; k++) {
+					points.add(i, j, k);
+				}
+			}
+		}
+
+		assertTrue(alg.process(points));
+		alg.getFaces(faces);
+		checkHull(points.data, 0, points.size, faces);
+		assertEquals(64.0f, alg.computeVolume(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void randomInsideBall() {
+		for (int trial = 0; trial < 20; trial++) {
+			PackedPoint3D_F32 points = new PackedPoint3D_F32();
+			int N = 4 + rand.nextInt(2000);
+			for (int i = 0; i < N; i++) {
+				float x = 2*rand.nextFloat() - 1;
+				float y = 2*rand.nextFloat() - 1;
+				float z = 2*rand.nextFloat() - 1;
+				if( x*x + y*y + z*z <= 1 )
+					points.add(x, y, z);
+				else
+					i--;
+			}
+
+			assertTrue(alg.process(points));
+			alg.getFaces(faces);
+			checkHull(points.data, 0, points.size, faces);
+		}
+	}
+
+	/**
+	 * All the points are on the surface of a sphere and should be included in the hull
+	 */
+	@Test
+	public void sphereSurface() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		for (int i = 0; i < 500; i++) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			float r = (float)Math.sqrt(x*x + y*y + z*z);
+			points.add(10 + x/r, -5 + y/r, 3 + z/r);
+		}
+
+		assertTrue(alg.process(points));
+		alg.getFaces(faces);
+		checkHull(points.data, 0, points.size, faces);
+
+		alg.getVertexes(vertexes);
+		assertEquals(points.size, vertexes.size);
+		assertEquals(2*points.size - 4, alg.getFaceCount());
+		assertTrue(alg.computeVolume() < 4.0f*Math.PI/3.0f);
+		assertTrue(alg.computeVolume() > 0.95f*4.0f*Math.PI/3.0f);
+	}
+
+	@Test
+	public void degenerate() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		// too few points
+		points.add(0,0,0);
+		points.add(1,0,0);
+		points.add(0,1,0);
+		assertFalse(alg.process(points));
+		alg.getFaces(faces);
+		assertEquals(0, faces.size);
+
+		// coplanar
+		for (int i = 0; i < 50; i++) {
+			float x = rand.nextFloat();
+			float y = rand.nextFloat();
+			points.add(x, y, 2*x - y);
+		}
+		points.data[2] = 0; points.data[5] = 2; points.data[8] = -1;
+		assertFalse(alg.process(points));
+		alg.getFaces(faces);
+		assertEquals(0, faces.size);
+
+		// collinear
+		points.reset();
+		for (int i = 0; i < 50; i++) {
+			float t = rand.nextFloat();
+			points.add(t, 2*t, -t);
+		}
+		assertFalse(alg.process(points));
+
+		// identical
+		points.reset();
+		for (int i = 0; i < 10; i++) {
+			points.add(1, 2, 3);
+		}
+		assertFalse(alg.process(points));
+	}
+
+	/**
+	 * Points are in the middle of an array
+	 */
+	@Test
+	public void arrayOffset() {
+		int N = 300;
+		int offset = 7;
+		float xyz[] = new float[offset + N*3 + 5];
+		for (int i = 0; i < xyz.length; i++) {
+			xyz[i] = (float)rand.nextGaussian();
+		}
+
+		assertTrue(alg.process(xyz, offset, N));
+		alg.getFaces(faces);
+		checkHull(xyz, offset, N, faces);
+		for (int i = 0; i < faces.size; i++) {
+			assertTrue(faces.get(i) < N);
+		}
+	}
+
+	@Test
+	public void triangles() {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		addGaussian(points, 100);
+		assertTrue(alg.process(points));
+		alg.getFaces(faces);
+
+		FastQueue<Triangle3D_F32> triangles = new FastQueue<Triangle3D_F32>(Triangle3D_F32.class, true);
+		alg.getFaces(triangles);
+		assertEquals(faces.size/3, triangles.size);
+		for (int i = 0; i < triangles.size; i++) {
+			Triangle3D_F32 t = triangles.get(i);
+			assertEquals(0, t.v0.distance(points.getTemp(faces.get(i*3))), 0);
+			assertEquals(0, t.v1.distance(points.getTemp(faces.get(i*3+1))), 0);
+			assertEquals(0, t.v2.distance(points.getTemp(faces.get(i*3+2))), 0);
+		}
+	}
+
+	/**
+	 * Results should not depend on what was processed previously
+	 */
+	@Test
+	public void reuse() {
+		PackedPoint3D_F32 large = new PackedPoint3D_F32();
+		addGaussian(large, 5000);
+		PackedPoint3D_F32 small = new PackedPoint3D_F32();
+		addGaussian(small, 50);
+
+		QuickHull3D_F32 fresh = new QuickHull3D_F32();
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		assertTrue(fresh.process(small));
+		fresh.getFaces(expected);
+
+		assertTrue(alg.process(large));
+		assertFalse(alg.process(small.data, 0, 2));
+		assertTrue(alg.process(small));
+		alg.getFaces(faces);
+
+		checkHull(small.data, 0, small.size, faces);
+		assertEquals(expected.size, faces.size);
+		assertEquals(sortedFaces(expected), sortedFaces(faces));
+	}
+
+	private static boolean contains( GrowQueue_I32 list , int value ) {
+		for (int i = 0; i < list.size; i++) {
+			if( list.get(i) == value )
+				return true;
+		}
+		return false;
+	}
+
+	private void addGaussian( PackedPoint3D_F32 points , int N ) {
+		for (int i = 0; i < N; i++) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			points.add(x, y, z);
+		}
+	}
+
+	private Set<String> sortedFaces( GrowQueue_I32 faces ) {
+		Set<String> out = new HashSet<String>();
+		for (int i = 0; i < faces.size; i += 3) {
+			// rotate so that the smallest index is first without changing the order
+			int a = faces.get(i), b = faces.get(i+1), c = faces.get(i+2);
+			if( b < a && b < c ) {
+				out.add(b+" "+c+" "+a);
+			} else if( c < a && c < b ) {
+				out.add(c+" "+a+" "+b);
+			} else {
+				out.add(a+" "+b+" "+c);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Checks to see if the faces form a closed convex mesh with outward facing normals that contains every point
+	 */
+	private void checkHull( float xyz[] , int offset , int N , GrowQueue_I32 faces ) {
+		float tol = 10*alg.getTolerance();
+
+		int numFaces = faces.size/3;
+		Set<Long> edges = new HashSet<Long>();
+		Set<Integer> used = new HashSet<Integer>();
+		for (int f = 0; f < numFaces; f++) {
+			int a = faces.get(f*3), b = faces.get(f*3+1), c = faces.get(f*3+2);
+			used.add(a); used.add(b); used.add(c);
+
+			// every directed edge should be unique
+			assertTrue(edges.add((long)a*N + b));
+			assertTrue(edges.add((long)b*N + c));
+			assertTrue(edges.add((long)c*N + a));
+
+			float ux = xyz[offset+b*3]-xyz[offset+a*3];
+			float uy = xyz[offset+b*3+1]-xyz[offset+a*3+1];
+			float uz = xyz[offset+b*3+2]-xyz[offset+a*3+2];
+			float vx = xyz[offset+c*3]-xyz[offset+a*3];
+			float vy = xyz[offset+c*3+1]-xyz[offset+a*3+1];
+			float vz = xyz[offset+c*3+2]-xyz[offset+a*3+2];
+			float nx = uy*vz - uz*vy;
+			float ny = uz*vx - ux*vz;
+			float nz = ux*vy - uy*vx;
+			float norm = (float)Math.sqrt(nx*nx + ny*ny + nz*nz);
+			assertTrue(norm > 0);
+
+			// no point should be outside of the face
+			for (int i = 0; i < N; i++) {
+				float dx = xyz[offset+i*3]-xyz[offset+a*3];
+				float dy = xyz[offset+i*3+1]-xyz[offset+a*3+1];
+				float dz = xyz[offset+i*3+2]-xyz[offset+a*3+2];
+				assertTrue((nx*dx + ny*dy + nz*dz)/norm <= tol);
+			}
+		}
+
+		// closed.  Every edge is shared with a face going the other way
+		for (Long e : edges) {
+			long a = e/N, b = e%N;
+			assertTrue(edges.contains(b*N + a));
+		}
+
+		// Euler's formula
+		assertEquals(2, used.size() - edges.size()/2 + numFaces);
+	}
+}
@@ -137,6 +137,19 @@ public class TestIntersection2D_F32 {
 		assertFalse(Intersection2D_F32.containConcave(poly, new Point2D_F32(0, -2)));
 	}
 	
+	/**
+	 * The edge from the last vertex back to the first is not vertical
+	 */
+	@Test
+	public void containConcave_slantedLastEdge() {
+		Polygon2D_F32 poly = new Polygon2D_F32(0,0, 4,0, 4,4, 2,6);
+
+		assertTrue(Intersection2D_F32.containConcave(poly, new Point2D_F32(1.8f,3)));
+		assertTrue(Intersection2D_F32.containConcave(poly, new Point2D_F32(2.5f,5)));
+		assertFalse(Intersection2D_F32.containConcave(poly, new Point2D_F32(0.8f,3)));
+		assertFalse(Intersection2D_F32.containConcave(poly, new Point2D_F32(1.5f,5)));
+	}
+
 	@Test
 	public void intersection_ls_to_ls() {
 		// check positive, none pathological cases
@@ -137,6 +137,19 @@ public class TestIntersection2D_F64 {
 		assertFalse(Intersection2D_F64.containConcave(poly, new Point2D_F64(0, -2)));
 	}
 	
+	/**
+	 * The edge from the last vertex back to the first is not vertical
+	 */
+	@Test
+	public void containConcave_slantedLastEdge() {
+		Polygon2D_F64 poly = new Polygon2D_F64(0,0, 4,0, 4,4, 2,6);
+
+		assertTrue(Intersection2D_F64.containConcave(poly, new Point2D_F64(1.8,3)));
+		assertTrue(Intersection2D_F64.containConcave(poly, new Point2D_F64(2.5,5)));
+		assertFalse(Intersection2D_F64.containConcave(poly, new Point2D_F64(0.8,3)));
+		assertFalse(Intersection2D_F64.containConcave(poly, new Point2D_F64(1.5,5)));
+	}
+
 	@Test
 	public void intersection_ls_to_ls() {
 		// check positive, none pathological cases
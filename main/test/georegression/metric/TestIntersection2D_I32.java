@@ -96,6 +96,23 @@ public class TestIntersection2D_I32 {
 		assertFalse(Intersection2D_I32.containConcave(poly, new Point2D_I32(0,20)));
 		assertFalse(Intersection2D_I32.containConcave(poly, new Point2D_I32(0,-20)));
 	}
+
+	/**
+	 * The edge from the last vertex back to the first is not vertical
+	 */
+	@Test
+	public void containConcave_slantedLastEdge() {
+		Polygon2D_I32 poly = new Polygon2D_I32(4);
+		poly.vertexes.data[0].set(0, 0);
+		poly.vertexes.data[1].set(40, 0);
+		poly.vertexes.data[2].set(40, 40);
+		poly.vertexes.data[3].set(20, 60);
+
+		assertTrue(Intersection2D_I32.containConcave(poly, new Point2D_I32(18,30)));
+		assertTrue(Intersection2D_I32.containConcave(poly, new Point2D_I32(25,50)));
+		assertFalse(Intersection2D_I32.containConcave(poly, new Point2D_I32(8,30)));
+		assertFalse(Intersection2D_I32.containConcave(poly, new Point2D_I32(15,50)));
+	}
 	
 	@Test
 	public void intersects_rect_corners() {
@@ -27,9 +27,13 @@ import georegression.struct.plane.PlaneNormal3D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 import georegression.struct.shapes.BoxLength3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
 import georegression.struct.shapes.Triangle3D_F32;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 
@@ -205,6 +209,116 @@ public class TestIntersection3D_F32 {
 		// individually
 	}
 
+	@Test
+	public void intersect_box_line() {
+		Box3D_F32 box = new Box3D_F32(0,0,0, 1,2,3);
+		float t[] = new float[2];
+
+		// known solution along each axis and in both directions
+		assertTrue(Intersection3D_F32.intersect(box, new LineParametric3D_F32(-1,0.5f,0.5f, 1,0,0), t));
+		assertEquals(1, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(2, t[1], GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(Intersection3D_F32.intersect(box, new LineParametric3D_F32(0.5f,1,5, 0,0,-2), t));
+		assertEquals(1, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(2.5f, t[1], GrlConstants.FLOAT_TEST_TOL);
+
+		// miss, including a line which is parallel to a side
+		assertFalse(Intersection3D_F32.intersect(box, new LineParametric3D_F32(-1,2.5f,0.5f, 1,0,0), t));
+		assertFalse(Intersection3D_F32.intersect(box, new LineParametric3D_F32(-1,-1,0.5f, 1,0.4f,0), null));
+
+		// inside a side, including with a negative zero slope
+		assertTrue(Intersection3D_F32.intersect(box, new LineParametric3D_F32(-1,0,0.5f, 1,0,0), t));
+		assertEquals(1, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(Intersection3D_F32.intersect(box, new LineParametric3D_F32(-1,0,0.5f, 1,-0.0f,0), t));
+		assertTrue(Intersection3D_F32.intersect(box, new LineParametric3D_F32(-1,2,0.5f, 1,-0.0f,0), t));
+		assertEquals(2, t[1], GrlConstants.FLOAT_TEST_TOL);
+
+		// random lines through the box.  end points are on the surface and the middle is inside
+		Random rand = new Random(234);
+		for (int trial = 0; trial < 100; trial++) {
+			LineParametric3D_F32 line = new LineParametric3D_F32(
+					rand.nextFloat(), 2*rand.nextFloat(), 3*rand.nextFloat(),
+					rand.nextFloat()-0.5f, rand.nextFloat()-0.5f, rand.nextFloat()-0.5f);
+			assertTrue(Intersection3D_F32.intersect(box, line, t));
+			assertTrue(t[0] <= 0 && t[1] >= 0);
+			checkOnBoxSurface(box, line.getPointOnLine(t[0]));
+			checkOnBoxSurface(box, line.getPointOnLine(t[1]));
+		}
+	}
+
+	private void checkOnBoxSurface( Box3D_F32 box , Point3D_F32 p ) {
+		float tol = GrlConstants.FLOAT_TEST_TOL;
+		Box3D_F32 larger = new Box3D_F32(box.p0.x-tol,box.p0.y-tol,box.p0.z-tol,box.p1.x+tol,box.p1.y+tol,box.p1.z+tol);
+		Box3D_F32 smaller = new Box3D_F32(box.p0.x+tol,box.p0.y+tol,box.p0.z+tol,box.p1.x-tol,box.p1.y-tol,box.p1.z-tol);
+		assertTrue(Intersection3D_F32.contained2(larger, p));
+		assertFalse(Intersection3D_F32.contained2(smaller, p));
+	}
+
+	@Test
+	public void intersect_sphere_line() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(1,2,3, 2);
+		float t[] = new float[2];
+
+		assertTrue(Intersection3D_F32.intersect(sphere, new LineParametric3D_F32(1,2,-5, 0,0,2), t));
+		assertEquals(3, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(5, t[1], GrlConstants.FLOAT_TEST_TOL);
+
+		// the order doesn't depend on the direction
+		assertTrue(Intersection3D_F32.intersect(sphere, new LineParametric3D_F32(1,2,5, 0,0,-1), t));
+		assertEquals(0, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(4, t[1], GrlConstants.FLOAT_TEST_TOL);
+
+		// tangent
+		assertTrue(Intersection3D_F32.intersect(sphere, new LineParametric3D_F32(3,2,0, 0,0,1), t));
+		assertEquals(3, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(3, t[1], GrlConstants.FLOAT_TEST_TOL);
+
+		// miss and no slope
+		assertFalse(Intersection3D_F32.intersect(sphere, new LineParametric3D_F32(3.1f,2,0, 0,0,1), t));
+		assertFalse(Intersection3D_F32.intersect(sphere, new LineParametric3D_F32(1,2,3, 0,0,0), null));
+
+		// far from the sphere, where the naive solution loses precision
+		sphere = new Sphere3D_F32(0,0,0, 1);
+		assertTrue(Intersection3D_F32.intersect(sphere, new LineParametric3D_F32(1e4f,0.5f,0, -1,0,0), t));
+		assertEquals(1e4-Math.sqrt(0.75f), t[0], 1e4*GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1e4+Math.sqrt(0.75f), t[1], 1e4*GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void intersect_cylinder_line() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,1,0, 0,0,3, 1);
+		float t[] = new float[2];
+
+		assertTrue(Intersection3D_F32.intersect(cylinder, new LineParametric3D_F32(-2,1,5, 1,0,1), t));
+		assertEquals(2, t[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(4, t[1], GrlConstants.FLOAT_TEST_TOL);
+
+		// parallel to the axis
+		assertTrue(Intersection3D_F32.intersect(cylinder, new LineParametric3D_F32(1.5f,1,5, 0,0,-1), t));
+		assertEquals(Float.NEGATIVE_INFINITY, t[0], 0);
+		assertEquals(Float.POSITIVE_INFINITY, t[1], 0);
+		assertFalse(Intersection3D_F32.intersect(cylinder, new LineParametric3D_F32(2.5f,1,5, 0,0,-1), t));
+
+		// miss and no slope
+		assertFalse(Intersection3D_F32.intersect(cylinder, new LineParametric3D_F32(-2,2.5f,5, 1,0,1), t));
+		assertFalse(Intersection3D_F32.intersect(cylinder, new LineParametric3D_F32(1,1,0, 0,0,0), null));
+
+		// tilted cylinders and random lines.  The solution should be on the surface
+		Random rand = new Random(234);
+		for (int trial = 0; trial < 100; trial++) {
+			cylinder = new Cylinder3D_F32(rand.nextFloat(), rand.nextFloat(), rand.nextFloat(),
+					rand.nextFloat()-0.5f, rand.nextFloat()-0.5f, rand.nextFloat()-0.5f, 0.5f+rand.nextFloat());
+			// passes through the axis so it must intersect
+			Point3D_F32 p = cylinder.line.getPointOnLine(rand.nextFloat());
+			LineParametric3D_F32 line = new LineParametric3D_F32(p.x, p.y, p.z,
+					rand.nextFloat()-0.5f, rand.nextFloat()-0.5f, rand.nextFloat()-0.5f);
+			assertTrue(Intersection3D_F32.intersect(cylinder, line, t));
+			assertTrue(t[0] <= 0 && t[1] >= 0);
+			assertEquals(0, Distance3D_F32.distance(cylinder, line.getPointOnLine(t[0])), GrlConstants.FLOAT_TEST_TOL*10);
+			assertEquals(0, Distance3D_F32.distance(cylinder, line.getPointOnLine(t[1])), GrlConstants.FLOAT_TEST_TOL*10);
+		}
+	}
+
 	@Test
 	public void intersect_1d() {
 		// identical
@@ -27,9 +27,13 @@ import georegression.struct.plane.PlaneNormal3D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.shapes.Box3D_F64;
 import georegression.struct.shapes.BoxLength3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
 import georegression.struct.shapes.Triangle3D_F64;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 
@@ -205,6 +209,116 @@ public class TestIntersection3D_F64 {
 		// individually
 	}
 
+	@Test
+	public void intersect_box_line() {
+		Box3D_F64 box = new Box3D_F64(0,0,0, 1,2,3);
+		double t[] = new double[2];
+
+		// known solution along each axis and in both directions
+		assertTrue(Intersection3D_F64.intersect(box, new LineParametric3D_F64(-1,0.5,0.5, 1,0,0), t));
+		assertEquals(1, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(2, t[1], GrlConstants.DOUBLE_TEST_TOL);
+		assertTrue(Intersection3D_F64.intersect(box, new LineParametric3D_F64(0.5,1,5, 0,0,-2), t));
+		assertEquals(1, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(2.5, t[1], GrlConstants.DOUBLE_TEST_TOL);
+
+		// miss, including a line which is parallel to a side
+		assertFalse(Intersection3D_F64.intersect(box, new LineParametric3D_F64(-1,2.5,0.5, 1,0,0), t));
+		assertFalse(Intersection3D_F64.intersect(box, new LineParametric3D_F64(-1,-1,0.5, 1,0.4,0), null));
+
+		// inside a side, including with a negative zero slope
+		assertTrue(Intersection3D_F64.intersect(box, new LineParametric3D_F64(-1,0,0.5, 1,0,0), t));
+		assertEquals(1, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertTrue(Intersection3D_F64.intersect(box, new LineParametric3D_F64(-1,0,0.5, 1,-0.0,0), t));
+		assertTrue(Intersection3D_F64.intersect(box, new LineParametric3D_F64(-1,2,0.5, 1,-0.0,0), t));
+		assertEquals(2, t[1], GrlConstants.DOUBLE_TEST_TOL);
+
+		// random lines through the box.  end points are on the surface and the middle is inside
+		Random rand = new Random(234);
+		for (int trial = 0; trial < 100; trial++) {
+			LineParametric3D_F64 line = new LineParametric3D_F64(
+					rand.nextDouble(), 2*rand.nextDouble(), 3*rand.nextDouble(),
+					rand.nextDouble()-0.5, rand.nextDouble()-0.5, rand.nextDouble()-0.5);
+			assertTrue(Intersection3D_F64.intersect(box, line, t));
+			assertTrue(t[0] <= 0 && t[1] >= 0);
+			checkOnBoxSurface(box, line.getPointOnLine(t[0]));
+			checkOnBoxSurface(box, line.getPointOnLine(t[1]));
+		}
+	}
+
+	private void checkOnBoxSurface( Box3D_F64 box , Point3D_F64 p ) {
+		double tol = GrlConstants.DOUBLE_TEST_TOL;
+		Box3D_F64 larger = new Box3D_F64(box.p0.x-tol,box.p0.y-tol,box.p0.z-tol,box.p1.x+tol,box.p1.y+tol,box.p1.z+tol);
+		Box3D_F64 smaller = new Box3D_F64(box.p0.x+tol,box.p0.y+tol,box.p0.z+tol,box.p1.x-tol,box.p1.y-tol,box.p1.z-tol);
+		assertTrue(Intersection3D_F64.contained2(larger, p));
+		assertFalse(Intersection3D_F64.contained2(smaller, p));
+	}
+
+	@Test
+	public void intersect_sphere_line() {
+		Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3, 2);
+		double t[] = new double[2];
+
+		assertTrue(Intersection3D_F64.intersect(sphere, new LineParametric3D_F64(1,2,-5, 0,0,2), t));
+		assertEquals(3, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(5, t[1], GrlConstants.DOUBLE_TEST_TOL);
+
+		// the order doesn't depend on the direction
+		assertTrue(Intersection3D_F64.intersect(sphere, new LineParametric3D_F64(1,2,5, 0,0,-1), t));
+		assertEquals(0, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(4, t[1], GrlConstants.DOUBLE_TEST_TOL);
+
+		// tangent
+		assertTrue(Intersection3D_F64.intersect(sphere, new LineParametric3D_F64(3,2,0, 0,0,1), t));
+		assertEquals(3, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(3, t[1], GrlConstants.DOUBLE_TEST_TOL);
+
+		// miss and no slope
+		assertFalse(Intersection3D_F64.intersect(sphere, new LineParametric3D_F64(3.1,2,0, 0,0,1), t));
+		assertFalse(Intersection3D_F64.intersect(sphere, new LineParametric3D_F64(1,2,3, 0,0,0), null));
+
+		// far from the sphere, where the naive solution loses precision
+		sphere = new Sphere3D_F64(0,0,0, 1);
+		assertTrue(Intersection3D_F64.intersect(sphere, new LineParametric3D_F64(1e4,0.5,0, -1,0,0), t));
+		assertEquals(1e4-Math.sqrt(0.75), t[0], 1e4*GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1e4+Math.sqrt(0.75), t[1], 1e4*GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void intersect_cylinder_line() {
+		Cylinder3D_F64 cylinder = new Cylinder3D_F64(1,1,0, 0,0,3, 1);
+		double t[] = new double[2];
+
+		assertTrue(Intersection3D_F64.intersect(cylinder, new LineParametric3D_F64(-2,1,5, 1,0,1), t));
+		assertEquals(2, t[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(4, t[1], GrlConstants.DOUBLE_TEST_TOL);
+
+		// parallel to the axis
+		assertTrue(Intersection3D_F64.intersect(cylinder, new LineParametric3D_F64(1.5,1,5, 0,0,-1), t));
+		assertEquals(Double.NEGATIVE_INFINITY, t[0], 0);
+		assertEquals(Double.POSITIVE_INFINITY, t[1], 0);
+		assertFalse(Intersection3D_F64.intersect(cylinder, new LineParametric3D_F64(2.5,1,5, 0,0,-1), t));
+
+		// miss and no slope
+		assertFalse(Intersection3D_F64.intersect(cylinder, new LineParametric3D_F64(-2,2.5,5, 1,0,1), t));
+		assertFalse(Intersection3D_F64.intersect(cylinder, new LineParametric3D_F64(1,1,0, 0,0,0), null));
+
+		// tilted cylinders and random lines.  The solution should be on the surface
+		Random rand = new Random(234);
+		for (int trial = 0; trial < 100; trial++) {
+			cylinder = new Cylinder3D_F64(rand.nextDouble(), rand.nextDouble(), rand.nextDouble(),
+					rand.nextDouble()-0.5, rand.nextDouble()-0.5, rand.nextDouble()-0.5, 0.5+rand.nextDouble());
+			// passes through the axis so it must intersect
+			Point3D_F64 p = cylinder.line.getPointOnLine(rand.nextDouble());
+			LineParametric3D_F64 line = new LineParametric3D_F64(p.x, p.y, p.z,
+					rand.nextDouble()-0.5, rand.nextDouble()-0.5, rand.nextDouble()-0.5);
+			assertTrue(Intersection3D_F64.intersect(cylinder, line, t));
+			assertTrue(t[0] <= 0 && t[1] >= 0);
+			assertEquals(0, Distance3D_F64.distance(cylinder, line.getPointOnLine(t[0])), GrlConstants.DOUBLE_TEST_TOL*10);
+			assertEquals(0, Distance3D_F64.distance(cylinder, line.getPointOnLine(t[1])), GrlConstants.DOUBLE_TEST_TOL*10);
+		}
+	}
+
 	@Test
 	public void intersect_1d() {
 		// identical
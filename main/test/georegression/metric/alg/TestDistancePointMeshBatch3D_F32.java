@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.algs.QuickHull3D_F32;
+import georegression.metric.Distance3D_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistancePointMeshBatch3D_F32 {
+
+	Random rand = new Random(234);
+
+	float tol = GrlConstants.FLOAT_TEST_TOL*100;
+
+	PackedPoint3D_F32 vertexes = new PackedPoint3D_F32();
+	GrowQueue_I32 indexes = new GrowQueue_I32();
+
+	/**
+	 * Compare the closest points and distances against checking every triangle
+	 */
+	@Test
+	public void compareToBruteForce() {
+		createStar(200);
+		List<Triangle3D_F32> triangles = createTriangles();
+
+		DistancePointMeshBatch3D_F32 alg = new DistancePointMeshBatch3D_F32();
+		alg.setMesh(vertexes, indexes);
+
+		// points along a path so that the hint is useful, with jumps so that it isn't always correct
+		PackedPoint3D_F32 points = createPath(3000);
+
+		int N = points.size;
+		float closest[] = new float[N*3];
+		float distances[] = new float[N];
+		int found[] = new int[N];
+		alg.process(points.data, 0, N, closest, distances, found);
+
+		TriangleMeshBvhQuery3D_F32 query = new TriangleMeshBvhQuery3D_F32(alg.getMesh());
+		for (int i = 0; i < N; i++) {
+			Point3D_F32 p = points.get(i, null);
+
+			float expected = Float.MAX_VALUE;
+			for (int j = 0; j < triangles.size(); j++) {
+				expected = (float)Math.min(expected, (float)Math.abs(Distance3D_F32.distance(triangles.get(j), p)));
+			}
+
+			Point3D_F32 c = new Point3D_F32(closest[i*3], closest[i*3+1], closest[i*3+2]);
+			assertEquals(expected, c.distance(p), tol);
+			assertEquals(expected, (float)Math.abs(distances[i]), tol);
+			assertEquals(expected, (float)Math.abs(Distance3D_F32.distance(triangles.get(found[i]), p)), tol);
+			assertEquals(query.signedDistance(p), distances[i], tol);
+		}
+	}
+
+	/**
+	 * Each output is optional and the offset into the input array is respected
+	 */
+	@Test
+	public void optionalOutputs_offset() {
+		createStar(100);
+
+		DistancePointMeshBatch3D_F32 alg = new DistancePointMeshBatch3D_F32();
+		alg.setMesh(vertexes, indexes);
+
+		PackedPoint3D_F32 points = createPath(500);
+		int N = points.size;
+		float closest[] = new float[N*3];
+		float distances[] = new float[N];
+		int found[] = new int[N];
+		alg.process(points.data, 0, N, closest, distances, found);
+
+		float closest2[] = new float[N*3];
+		alg.closestPoints(points, closest2);
+		assertArrayEquals(closest, closest2, 0);
+
+		float distances2[] = new float[N];
+		alg.signedDistances(points, distances2);
+		assertArrayEquals(distances, distances2, 0);
+
+		int found2[] = new int[N];
+		alg.process(points.data, 0, N, null, null, found2);
+		assertArrayEquals(found, found2);
+
+		// skip the first two points
+		float shifted[] = new float[N-2];
+		alg.process(points.data, 6, N-2, null, shifted, null);
+		for (int i = 0; i < N-2; i++) {
+			assertEquals(distances[i+2], shifted[i], tol);
+		}
+	}
+
+	@Test
+	public void concurrent() {
+		createStar(300);
+
+		DistancePointMeshBatch3D_F32 alg = new DistancePointMeshBatch3D_F32();
+		alg.setMesh(vertexes, indexes);
+
+		PackedPoint3D_F32 points = createPath(5000);
+		int N = points.size;
+		float closest[] = new float[N*3];
+		float distances[] = new float[N];
+		int found[] = new int[N];
+		alg.process(points.data, 0, N, closest, distances, found);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(1);
+			alg.setConcurrent(true);
+			alg.setMesh(vertexes, indexes);
+
+			float closest2[] = new float[N*3];
+			float distances2[] = new float[N];
+			int found2[] = new int[N];
+			alg.process(points.data, 0, N, closest2, distances2, found2);
+
+			assertArrayEquals(closest, closest2, 0);
+			assertArrayEquals(distances, distances2, 0);
+			assertArrayEquals(found, found2);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * Changing the mesh should change the mesh used by queries which have already been created
+	 */
+	@Test
+	public void changeMesh() {
+		DistancePointMeshBatch3D_F32 alg = new DistancePointMeshBatch3D_F32();
+
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		triangles.add(new Triangle3D_F32(0,0,0, 1,0,0, 0,1,0));
+		alg.setMesh(triangles);
+
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		points.add(0.1f, 0.1f, 2);
+		float distances[] = new float[1];
+		alg.signedDistances(points, distances);
+		assertEquals(2, (float)Math.abs(distances[0]), tol);
+
+		TriangleMeshBvh3D_F32 other = new TriangleMeshBvh3D_F32();
+		triangles.get(0).set(0,0,1, 1,0,1, 0,1,1);
+		other.build(triangles);
+		alg.setMesh(other);
+		assertSame(other, alg.getMesh());
+
+		alg.signedDistances(points, distances);
+		assertEquals(1, (float)Math.abs(distances[0]), tol);
+	}
+
+	@Test
+	public void emptyMesh() {
+		DistancePointMeshBatch3D_F32 alg = new DistancePointMeshBatch3D_F32();
+		alg.setMesh(new ArrayList<Triangle3D_F32>());
+
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		points.add(1, 2, 3);
+		float closest[] = new float[3];
+		float distances[] = new float[1];
+		int found[] = new int[1];
+		alg.process(points.data, 0, 1, closest, distances, found);
+
+		assertTrue(Float.isNaN(closest[0]));
+		assertTrue(Float.isNaN(distances[0]));
+		assertEquals(-1, found[0]);
+	}
+
+	@Test
+	public void badArguments() {
+		DistancePointMeshBatch3D_F32 alg = new DistancePointMeshBatch3D_F32();
+		float points[] = new float[9];
+
+		checkBad(alg, points, 1, 3, null, null, null);
+		checkBad(alg, points, 0, 3, new float[8], null, null);
+		checkBad(alg, points, 0, 3, null, new float[2], null);
+		checkBad(alg, points, 0, 3, null, null, new int[2]);
+		alg.process(points, 0, 3, new float[9], new float[3], new int[3]);
+	}
+
+	private void checkBad( DistancePointMeshBatch3D_F32 alg , float points[] , int offset , int count ,
+						   float closest[] , float distances[] , int found[] ) {
+		try {
+			alg.process(points, offset, count, closest, distances, found);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Random walk which occasionally jumps to a new location
+	 */
+	private PackedPoint3D_F32 createPath( int N ) {
+		PackedPoint3D_F32 points = new PackedPoint3D_F32();
+		float x = 0, y = 0, z = 0;
+		for (int i = 0; i < N; i++) {
+			if( i % 100 == 0 ) {
+				x = 3*rand.nextFloat()-1.5f;
+				y = 3*rand.nextFloat()-1.5f;
+				z = 3*rand.nextFloat()-1.5f;
+			} else {
+				x += 0.05f*(rand.nextFloat()-0.5f);
+				y += 0.05f*(rand.nextFloat()-0.5f);
+				z += 0.05f*(rand.nextFloat()-0.5f);
+			}
+			points.add(x, y, z);
+		}
+		return points;
+	}
+
+	private List<Triangle3D_F32> createTriangles() {
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		for (int i = 0; i < indexes.size; i += 3) {
+			triangles.add(new Triangle3D_F32(vertexes.get(indexes.get(i), null),
+					vertexes.get(indexes.get(i+1), null), vertexes.get(indexes.get(i+2), null)));
+		}
+		return triangles;
+	}
+
+	/**
+	 * Creates a closed star shaped mesh by moving the vertexes of the convex hull of points on a sphere
+	 */
+	private void createStar( int N ) {
+		vertexes.reset();
+		indexes.reset();
+		for (int i = 0; i < N; i++) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			float r = (float)Math.sqrt(x*x + y*y + z*z);
+			vertexes.add(x/r, y/r, z/r);
+		}
+		QuickHull3D_F32 hull = new QuickHull3D_F32();
+		assertTrue(hull.process(vertexes));
+		hull.getFaces(indexes);
+
+		for (int i = 0; i < N; i++) {
+			float scale = 0.6f + 0.6f*rand.nextFloat();
+			vertexes.set(i, vertexes.getX(i)*scale, vertexes.getY(i)*scale, vertexes.getZ(i)*scale);
+		}
+	}
+}
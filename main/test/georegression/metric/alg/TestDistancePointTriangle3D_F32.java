@@ -22,9 +22,12 @@ import georegression.metric.Distance3D_F32;
 import georegression.misc.GrlConstants;
 import georegression.struct.line.LineSegment3D_F32;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -118,6 +121,49 @@ public class TestDistancePointTriangle3D_F32 {
 		assertEquals(d, distance(P.x,P.y,P.z), GrlConstants.FLOAT_TEST_TOL);
 	}
 
+	/**
+	 * Compare against the distance to each edge and to the plane for random triangles and points
+	 */
+	@Test
+	public void randomPoints() {
+		Random rand = new Random(234);
+		for (int i = 0; i < 2000; i++) {
+			Point3D_F32 A = randomPoint(rand);
+			Point3D_F32 B = randomPoint(rand);
+			Point3D_F32 C = randomPoint(rand);
+			Point3D_F32 P = randomPoint(rand);
+
+			float expected = Distance3D_F32.distance(new LineSegment3D_F32(A,B),P);
+			expected = (float)Math.min(expected, Distance3D_F32.distance(new LineSegment3D_F32(B,C),P));
+			expected = (float)Math.min(expected, Distance3D_F32.distance(new LineSegment3D_F32(C,A),P));
+
+			// project onto the plane.  Q = A + s*(B-A) + t*(C-A)
+			Vector3D_F32 u = new Vector3D_F32(A,B);
+			Vector3D_F32 v = new Vector3D_F32(A,C);
+			Vector3D_F32 w = new Vector3D_F32(A,P);
+			float uu = u.dot(u), uv = u.dot(v), vv = v.dot(v), wu = w.dot(u), wv = w.dot(v);
+			float det = uu*vv - uv*uv;
+			float s = (vv*wu - uv*wv)/det;
+			float t = (uu*wv - uv*wu)/det;
+			if( s >= 0 && t >= 0 && s + t <= 1 ) {
+				Point3D_F32 Q = new Point3D_F32(A.x + s*u.x + t*v.x, A.y + s*u.y + t*v.y, A.z + s*u.z + t*v.z);
+				expected = Q.distance(P);
+			}
+
+			alg.setTriangle(A,B,C);
+			Point3D_F32 found = new Point3D_F32();
+			alg.closestPoint(P,found);
+			assertEquals(expected, found.distance(P), GrlConstants.FLOAT_TEST_TOL*100);
+		}
+	}
+
+	private static Point3D_F32 randomPoint( Random rand ) {
+		float x = (float)rand.nextGaussian();
+		float y = (float)rand.nextGaussian();
+		float z = (float)rand.nextGaussian();
+		return new Point3D_F32(x,y,z);
+	}
+
 	public float distance( float x , float y , float z ) {
 		Point3D_F32 cp = new Point3D_F32();
 
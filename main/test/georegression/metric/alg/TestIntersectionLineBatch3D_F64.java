@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIntersectionLineBatch3D_F64 {
+
+	Random rand = new Random(234);
+
+	double tol = GrlConstants.DOUBLE_TEST_TOL;
+
+	int N = 500;
+
+	/**
+	 * Compare against the functions which process a single line
+	 */
+	@Test
+	public void boxes() {
+		double lines[] = createLines(N);
+		double boxes[] = new double[N*6];
+		for (int i = 0; i < N; i++) {
+			for (int k = 0; k < 3; k++) {
+				double a = rand.nextGaussian(), b = a + 0.5 + 1.5*rand.nextDouble();
+				boxes[i*6+k] = a;
+				boxes[i*6+3+k] = b;
+			}
+			// lines which are inside of a side
+			if( i % 5 == 0 ) {
+				lines[i*6+1] = boxes[i*6 + (rand.nextBoolean() ? 1 : 4)];
+				lines[i*6+4] = rand.nextBoolean() ? 0.0 : -0.0;
+			}
+		}
+
+		IntersectionLineBatch3D_F64 alg = new IntersectionLineBatch3D_F64();
+		double entry[] = new double[N], exit[] = new double[N];
+
+		// pairs of lines and boxes
+		alg.boxes(lines, 0, boxes, 0, N, entry, exit);
+		int total = 0;
+		for (int i = 0; i < N; i++) {
+			if( check(single(box(boxes, i), line(lines, i)), entry[i], exit[i]) )
+				total++;
+		}
+		assertTrue(total > N/10 && total < N*9/10);
+
+		// single line and many boxes
+		for (int j = 0; j < 20; j++) {
+			LineParametric3D_F64 line = line(lines, j);
+			alg.boxes(line, boxes, 0, N, entry, exit);
+			for (int i = 0; i < N; i++) {
+				check(single(box(boxes, i), line), entry[i], exit[i]);
+			}
+		}
+	}
+
+	@Test
+	public void spheres() {
+		double lines[] = createLines(N);
+		double spheres[] = new double[N*4];
+		for (int i = 0; i < N; i++) {
+			spheres[i*4] = rand.nextGaussian();
+			spheres[i*4+1] = rand.nextGaussian();
+			spheres[i*4+2] = rand.nextGaussian();
+			spheres[i*4+3] = 0.5 + rand.nextDouble();
+		}
+
+		IntersectionLineBatch3D_F64 alg = new IntersectionLineBatch3D_F64();
+		double entry[] = new double[N], exit[] = new double[N];
+
+		alg.spheres(lines, 0, spheres, 0, N, entry, exit);
+		int total = 0;
+		for (int i = 0; i < N; i++) {
+			Sphere3D_F64 sphere = new Sphere3D_F64(spheres[i*4], spheres[i*4+1], spheres[i*4+2], spheres[i*4+3]);
+			double t[] = new double[2];
+			boolean hit = Intersection3D_F64.intersect(sphere, line(lines, i), t);
+			if( check(hit ? t : null, entry[i], exit[i]) )
+				total++;
+		}
+		assertTrue(total > N/10 && total < N*9/10);
+
+		for (int j = 0; j < 20; j++) {
+			LineParametric3D_F64 line = line(lines, j);
+			alg.spheres(line, spheres, 0, N, entry, exit);
+			for (int i = 0; i < N; i++) {
+				Sphere3D_F64 sphere = new Sphere3D_F64(spheres[i*4], spheres[i*4+1], spheres[i*4+2], spheres[i*4+3]);
+				double t[] = new double[2];
+				boolean hit = Intersection3D_F64.intersect(sphere, line, t);
+				check(hit ? t : null, entry[i], exit[i]);
+			}
+		}
+	}
+
+	@Test
+	public void cylinders() {
+		double lines[] = createLines(N);
+		double cylinders[] = new double[N*7];
+		for (int i = 0; i < N; i++) {
+			for (int k = 0; k < 6; k++) {
+				cylinders[i*7+k] = rand.nextGaussian();
+			}
+			cylinders[i*7+6] = rand.nextDouble();
+			// lines which are parallel to the axis
+			if( i % 5 == 0 ) {
+				for (int k = 0; k < 3; k++) {
+					lines[i*6+3+k] = -2*cylinders[i*7+3+k];
+				}
+			}
+		}
+
+		IntersectionLineBatch3D_F64 alg = new IntersectionLineBatch3D_F64();
+		double entry[] = new double[N], exit[] = new double[N];
+
+		alg.cylinders(lines, 0, cylinders, 0, N, entry, exit);
+		int total = 0;
+		for (int i = 0; i < N; i++) {
+			double t[] = new double[2];
+			boolean hit = Intersection3D_F64.intersect(cylinder(cylinders, i), line(lines, i), t);
+			if( check(hit ? t : null, entry[i], exit[i]) )
+				total++;
+		}
+		assertTrue(total > N/10 && total < N*9/10);
+
+		for (int j = 0; j < 20; j++) {
+			LineParametric3D_F64 line = line(lines, j);
+			alg.cylinders(line, cylinders, 0, N, entry, exit);
+			for (int i = 0; i < N; i++) {
+				double t[] = new double[2];
+				boolean hit = Intersection3D_F64.intersect(cylinder(cylinders, i), line, t);
+				check(hit ? t : null, entry[i], exit[i]);
+			}
+		}
+	}
+
+	/**
+	 * Offsets into the input arrays are respected and exit is optional
+	 */
+	@Test
+	public void offsets_optionalExit() {
+		double lines[] = createLines(N+1);
+		double boxes[] = new double[(N+2)*6];
+		double spheres[] = new double[(N+2)*4];
+		double cylinders[] = new double[(N+2)*7];
+		for (int i = 0; i < boxes.length; i++) boxes[i] = rand.nextGaussian() + (i%6 >= 3 ? 2 : 0);
+		for (int i = 0; i < spheres.length; i++) spheres[i] = rand.nextGaussian();
+		for (int i = 0; i < cylinders.length; i++) cylinders[i] = rand.nextGaussian();
+
+		IntersectionLineBatch3D_F64 alg = new IntersectionLineBatch3D_F64();
+		double expected[] = new double[N+2], found[] = new double[N];
+
+		alg.boxes(lines, 0, boxes, 0, N+1, expected, null);
+		alg.boxes(lines, 6, boxes, 6, N, found, null);
+		checkShifted(expected, found);
+		alg.spheres(lines, 0, spheres, 0, N+1, expected, null);
+		alg.spheres(lines, 6, spheres, 4, N, found, null);
+		checkShifted(expected, found);
+		alg.cylinders(lines, 0, cylinders, 0, N+1, expected, null);
+		alg.cylinders(lines, 6, cylinders, 7, N, found, null);
+		checkShifted(expected, found);
+
+		LineParametric3D_F64 line = line(lines, 0);
+		alg.boxes(line, boxes, 0, N+1, expected, null);
+		alg.boxes(line, boxes, 6, N, found, null);
+		checkShifted(expected, found);
+		alg.spheres(line, spheres, 0, N+1, expected, null);
+		alg.spheres(line, spheres, 4, N, found, null);
+		checkShifted(expected, found);
+		alg.cylinders(line, cylinders, 0, N+1, expected, null);
+		alg.cylinders(line, cylinders, 7, N, found, null);
+		checkShifted(expected, found);
+	}
+
+	private void checkShifted( double expected[] , double found[] ) {
+		for (int i = 0; i < found.length; i++) {
+			assertEquals(expected[i+1], found[i], 0);
+		}
+	}
+
+	@Test
+	public void concurrent() {
+		int N = IntersectionLineBatch3D_F64.BLOCK_SIZE*3 + 10;
+		double lines[] = createLines(N);
+		double spheres[] = new double[N*4];
+		for (int i = 0; i < spheres.length; i++) spheres[i] = rand.nextGaussian();
+
+		IntersectionLineBatch3D_F64 alg = new IntersectionLineBatch3D_F64();
+		double expectedEntry[] = new double[N], expectedExit[] = new double[N];
+		alg.spheres(lines, 0, spheres, 0, N, expectedEntry, expectedExit);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(1);
+			alg.setConcurrent(true);
+			double entry[] = new double[N], exit[] = new double[N];
+			alg.spheres(lines, 0, spheres, 0, N, entry, exit);
+			assertArrayEquals(expectedEntry, entry, 0);
+			assertArrayEquals(expectedExit, exit, 0);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	@Test
+	public void badArguments() {
+		IntersectionLineBatch3D_F64 alg = new IntersectionLineBatch3D_F64();
+		double lines[] = new double[12];
+		double boxes[] = new double[12];
+
+		try {
+			alg.boxes(lines, 1, boxes, 0, 2, new double[2], null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.boxes(lines, 0, boxes, 0, 2, new double[1], null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.spheres(lines, 0, boxes, 0, 2, new double[2], new double[1]);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.cylinders(line(lines, 0), boxes, 0, 2, new double[2], null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Checks the batch solution against the expected solution, which is null if there's no intersection
+	 *
+	 * @return true if there was an intersection
+	 */
+	private boolean check( double expected[] , double entry , double exit ) {
+		if( expected == null ) {
+			assertTrue(Double.isNaN(entry));
+			assertTrue(Double.isNaN(exit));
+			return false;
+		}
+		assertEquals(expected[0], entry, tol);
+		assertEquals(expected[1], exit, tol);
+		return true;
+	}
+
+	private double[] single( Box3D_F64 box , LineParametric3D_F64 line ) {
+		double t[] = new double[2];
+		return Intersection3D_F64.intersect(box, line, t) ? t : null;
+	}
+
+	/**
+	 * Random lines where some have a slope of zero along an axis
+	 */
+	private double[] createLines( int N ) {
+		double lines[] = new double[N*6];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = rand.nextGaussian();
+		}
+		for (int i = 0; i < N; i += 7) {
+			lines[i*6+3+rand.nextInt(3)] = rand.nextBoolean() ? 0.0 : -0.0;
+		}
+		return lines;
+	}
+
+	private static LineParametric3D_F64 line( double lines[] , int i ) {
+		int o = i*6;
+		return new LineParametric3D_F64(lines[o], lines[o+1], lines[o+2], lines[o+3], lines[o+4], lines[o+5]);
+	}
+
+	private static Box3D_F64 box( double boxes[] , int i ) {
+		int o = i*6;
+		return new Box3D_F64(boxes[o], boxes[o+1], boxes[o+2], boxes[o+3], boxes[o+4], boxes[o+5]);
+	}
+
+	private static Cylinder3D_F64 cylinder( double cylinders[] , int i ) {
+		int o = i*7;
+		return new Cylinder3D_F64(cylinders[o], cylinders[o+1], cylinders[o+2],
+				cylinders[o+3], cylinders[o+4], cylinders[o+5], cylinders[o+6]);
+	}
+}
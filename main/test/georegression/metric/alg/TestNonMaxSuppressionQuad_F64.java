@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.UtilPolygons2D_F64;
+import georegression.geometry.algs.PolygonBoolean2D_F64;
+import georegression.metric.Area2D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Quadrilateral_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNonMaxSuppressionQuad_F64 {
+
+	Random rand = new Random(234);
+
+	List<Quadrilateral_F64> quads = new ArrayList<Quadrilateral_F64>();
+	GrowQueue_F64 scores = new GrowQueue_F64();
+	GrowQueue_I32 selected = new GrowQueue_I32();
+
+	@Test
+	public void identical() {
+		quads.add(new Quadrilateral_F64(0,0, 2,0, 2,2, 0,2));
+		quads.add(new Quadrilateral_F64(0,0, 2,0, 2,2, 0,2));
+		scores.add(1);
+		scores.add(2);
+
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64();
+		alg.process(quads, scores, selected);
+
+		assertEquals(1, selected.size);
+		assertEquals(1, selected.get(0));
+	}
+
+	/**
+	 * Two squares with an IoU of 1/3.  See if the threshold is correctly applied
+	 */
+	@Test
+	public void threshold() {
+		quads.add(new Quadrilateral_F64(0,0, 2,0, 2,2, 0,2));
+		quads.add(new Quadrilateral_F64(1,0, 3,0, 3,2, 1,2));
+		// far away and doesn't overlap with anything
+		quads.add(new Quadrilateral_F64(10,10, 11,10, 11,11, 10,11));
+		scores.add(2);
+		scores.add(3);
+		scores.add(1);
+
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64(0.3);
+		alg.process(quads, scores, selected);
+		assertEquals(1, alg.getCandidateCount());
+		assertEquals(2, selected.size);
+		assertEquals(1, selected.get(0));
+		assertEquals(2, selected.get(1));
+
+		alg.setThreshold(0.35);
+		alg.process(quads, scores, selected);
+		assertEquals(3, selected.size);
+		assertEquals(1, selected.get(0));
+		assertEquals(0, selected.get(1));
+		assertEquals(2, selected.get(2));
+	}
+
+	/**
+	 * A suppressed quadrilateral can't suppress other quadrilaterals
+	 */
+	@Test
+	public void chain() {
+		quads.add(new Quadrilateral_F64(0,0, 2,0, 2,2, 0,2));
+		quads.add(new Quadrilateral_F64(0.5,0, 2.5,0, 2.5,2, 0.5,2));
+		quads.add(new Quadrilateral_F64(1,0, 3,0, 3,2, 1,2));
+		scores.add(3);
+		scores.add(2);
+		scores.add(1);
+
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64(0.4);
+		alg.process(quads, scores, selected);
+
+		assertEquals(2, selected.size);
+		assertEquals(0, selected.get(0));
+		assertEquals(2, selected.get(1));
+	}
+
+	@Test
+	public void empty() {
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64();
+		selected.add(5);
+		alg.process(quads, scores, selected);
+		assertEquals(0, selected.size);
+	}
+
+	@Test
+	public void mismatchedScores() {
+		quads.add(new Quadrilateral_F64(0,0, 2,0, 2,2, 0,2));
+		try {
+			new NonMaxSuppressionQuad_F64().process(quads, scores, selected);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Compare against a brute force implementation on randomly rotated boxes
+	 */
+	@Test
+	public void compareToBruteForce() {
+		createRandom(500, 20);
+
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64(0.3);
+		alg.process(quads, scores, selected);
+
+		GrowQueue_I32 expected = bruteForce(0.3);
+		assertTrue(expected.size < quads.size());
+		assertEquals(expected.size, selected.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i), selected.get(i));
+		}
+		assertEquals(countOverlappingBounds(), alg.getCandidateCount());
+	}
+
+	/**
+	 * One very large box overlaps everything and spans all the bands
+	 */
+	@Test
+	public void largeBox() {
+		createRandom(300, 20);
+		quads.add(new Quadrilateral_F64(-5,-5, 25,-5, 25,25, -5,25));
+		scores.add(0.5);
+
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64(0.3);
+		alg.process(quads, scores, selected);
+
+		assertEquals(countOverlappingBounds(), alg.getCandidateCount());
+		GrowQueue_I32 expected = bruteForce(0.3);
+		assertEquals(expected.size, selected.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i), selected.get(i));
+		}
+	}
+
+	@Test
+	public void concurrent() {
+		createRandom(3000, 40);
+
+		NonMaxSuppressionQuad_F64 alg = new NonMaxSuppressionQuad_F64(0.3);
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		alg.process(quads, scores, expected);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+			alg.process(quads, scores, selected);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		assertEquals(expected.size, selected.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i), selected.get(i));
+		}
+	}
+
+	/**
+	 * Creates randomly rotated rectangles inside a square region
+	 */
+	private void createRandom( int total , double width ) {
+		for (int i = 0; i < total; i++) {
+			double cx = rand.nextDouble()*width;
+			double cy = rand.nextDouble()*width;
+			double theta = Math.PI*rand.nextDouble();
+			double w = 0.5 + rand.nextDouble();
+			double h = 0.5 + rand.nextDouble();
+
+			double c = Math.cos(theta);
+			double s = Math.sin(theta);
+
+			Quadrilateral_F64 q = new Quadrilateral_F64();
+			q.a.set(cx - c*w + s*h, cy - s*w - c*h);
+			q.b.set(cx + c*w + s*h, cy + s*w - c*h);
+			q.c.set(cx + c*w - s*h, cy + s*w + c*h);
+			q.d.set(cx - c*w - s*h, cy - s*w + c*h);
+			quads.add(q);
+			scores.add(rand.nextDouble());
+		}
+	}
+
+	private int countOverlappingBounds() {
+		Rectangle2D_F64 a = new Rectangle2D_F64();
+		Rectangle2D_F64 b = new Rectangle2D_F64();
+
+		int total = 0;
+		for (int i = 0; i < quads.size(); i++) {
+			UtilPolygons2D_F64.bounding(quads.get(i), a);
+			for (int j = i+1; j < quads.size(); j++) {
+				UtilPolygons2D_F64.bounding(quads.get(j), b);
+				if( a.p0.x <= b.p1.x && b.p0.x <= a.p1.x && a.p0.y <= b.p1.y && b.p0.y <= a.p1.y )
+					total++;
+			}
+		}
+		return total;
+	}
+
+	private GrowQueue_I32 bruteForce( double threshold ) {
+		PolygonBoolean2D_F64 alg = new PolygonBoolean2D_F64();
+		Polygon2D_F64 a = new Polygon2D_F64(4);
+		Polygon2D_F64 b = new Polygon2D_F64(4);
+
+		int N = quads.size();
+		boolean used[] = new boolean[N];
+		boolean suppressed[] = new boolean[N];
+		GrowQueue_I32 output = new GrowQueue_I32();
+
+		for (int iter = 0; iter < N; iter++) {
+			int best = -1;
+			for (int i = 0; i < N; i++) {
+				if( !used[i] && (best == -1 || scores.get(i) > scores.get(best)) )
+					best = i;
+			}
+			used[best] = true;
+			if( suppressed[best] )
+				continue;
+			output.add(best);
+
+			UtilPolygons2D_F64.convert(quads.get(best), a);
+			for (int i = 0; i < N; i++) {
+				if( used[i] )
+					continue;
+				UtilPolygons2D_F64.convert(quads.get(i), b);
+				double intersection = alg.intersectionArea(a, b);
+				double union = Area2D_F64.polygonSimple(a) + Area2D_F64.polygonSimple(b) - intersection;
+				if( intersection/union > threshold )
+					suppressed[i] = true;
+			}
+		}
+		return output;
+	}
+}
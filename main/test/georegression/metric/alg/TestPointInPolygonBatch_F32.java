@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_I64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointInPolygonBatch_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Creates a star shaped polygon with a random radius at each vertex, which will be concave.
+	 */
+	private Polygon2D_F32 createStar( int N ) {
+		Polygon2D_F32 poly = new Polygon2D_F32(N);
+		float offset = rand.nextFloat();
+		for (int i = 0; i < N; i++) {
+			float theta = (float)Math.PI*2*i/N + offset;
+			float r = 0.5f + rand.nextFloat()*1.5f;
+			float x = (float)Math.cos(theta)*r + 0.5f;
+			float y = (float)Math.sin(theta)*r - 0.2f;
+			poly.get(i).set(x, y);
+		}
+		if( rand.nextBoolean() )
+			poly.flip();
+		return poly;
+	}
+
+	/**
+	 * Random points which span several blocks.  Some have the same y-coordinate as a vertex.
+	 */
+	private PackedPoint2D_F32 createPoints( Polygon2D_F32 poly , int N ) {
+		PackedPoint2D_F32 points = new PackedPoint2D_F32();
+		for (int i = 0; i < N; i++) {
+			float x = rand.nextFloat()*5-2;
+			float y = rand.nextFloat()*5-2.7f;
+			if( i % 20 == 0 )
+				y = poly.get(rand.nextInt(poly.size())).y;
+			points.add(x, y);
+		}
+		return points;
+	}
+
+	@Test
+	public void classify() {
+		PointInPolygonBatch_F32 alg = new PointInPolygonBatch_F32();
+		GrowQueue_B found = new GrowQueue_B();
+
+		// both sides of the threshold for testing every edge
+		for( int N : new int[]{3,10,PointInPolygonBatch_F32.SMALL_POLYGON,PointInPolygonBatch_F32.SMALL_POLYGON+1,1000} ) {
+			Polygon2D_F32 poly = createStar(N);
+			PackedPoint2D_F32 points = createPoints(poly, PointInPolygonBatch_F32.BLOCK_SIZE*2+100);
+
+			alg.setPolygon(poly);
+			alg.classify(points, found);
+
+			assertEquals(points.size, found.size);
+			int inside = 0;
+			for (int i = 0; i < points.size; i++) {
+				boolean expected = Intersection2D_F32.containConcave(poly, points.getTemp(i));
+				assertEquals(expected, found.get(i));
+				if( expected )
+					inside++;
+			}
+			// make sure the test isn't trivial
+			assertTrue(inside > 100);
+		}
+	}
+
+	/**
+	 * Consecutive points lie in a narrow band along the y-axis, like points from a scan.  In the last block all
+	 * but a few points have almost the same y-coordinate, which crowds them into a couple of buckets.
+	 */
+	@Test
+	public void classify_clustered() {
+		Polygon2D_F32 poly = createStar(100);
+		int N = PointInPolygonBatch_F32.BLOCK_SIZE*3;
+		PackedPoint2D_F32 points = new PackedPoint2D_F32();
+		for (int i = 0; i < N; i++) {
+			float x = rand.nextFloat()*5-2;
+			float y;
+			if( i < PointInPolygonBatch_F32.BLOCK_SIZE*2 )
+				y = 4.0f*(i + rand.nextFloat()*2000)/N - 2.2f;
+			else if( i % 1000 == 0 )
+				y = -0.2f;
+			else
+				y = 0.1f + rand.nextFloat()*0.001f;
+			points.add(x, y);
+		}
+
+		PointInPolygonBatch_F32 alg = new PointInPolygonBatch_F32();
+		GrowQueue_B found = new GrowQueue_B();
+		alg.setPolygon(poly);
+		alg.classify(points, found);
+
+		int inside = 0;
+		for (int i = 0; i < points.size; i++) {
+			boolean expected = Intersection2D_F32.containConcave(poly, points.getTemp(i));
+			assertEquals(expected, found.get(i));
+			if( expected )
+				inside++;
+		}
+		assertTrue(inside > 100);
+	}
+
+	@Test
+	public void classify_offset() {
+		Polygon2D_F32 poly = createStar(20);
+		PackedPoint2D_F32 points = createPoints(poly, 500);
+
+		float array[] = new float[points.size*2+3];
+		System.arraycopy(points.data, 0, array, 3, points.size*2);
+
+		PointInPolygonBatch_F32 alg = new PointInPolygonBatch_F32();
+		alg.setPolygon(poly);
+		GrowQueue_B expected = new GrowQueue_B();
+		GrowQueue_B found = new GrowQueue_B();
+		alg.classify(points, expected);
+		alg.classify(array, 3, points.size, found);
+
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i), found.get(i));
+		}
+	}
+
+	@Test
+	public void classify_bits() {
+		Polygon2D_F32 poly = createStar(50);
+		PackedPoint2D_F32 points = createPoints(poly, PointInPolygonBatch_F32.BLOCK_SIZE+77);
+
+		PointInPolygonBatch_F32 alg = new PointInPolygonBatch_F32();
+		alg.setPolygon(poly);
+		GrowQueue_B expected = new GrowQueue_B();
+		alg.classify(points, expected);
+
+		GrowQueue_I64 bits = new GrowQueue_I64();
+		// the bits should be zeroed
+		bits.resize(1000);
+		bits.fill(-1);
+		alg.classify(points, bits);
+
+		assertEquals((points.size+63)/64, bits.size);
+		for (int i = 0; i < points.size; i++) {
+			assertEquals(expected.get(i), (bits.get(i/64) & (1L << (i%64))) != 0);
+		}
+		// bits after the last point are zero
+		assertEquals(0, bits.get(bits.size-1) >>> (points.size%64));
+	}
+
+	@Test
+	public void classify_concurrent() {
+		Polygon2D_F32 poly = createStar(200);
+		PackedPoint2D_F32 points = createPoints(poly, PointInPolygonBatch_F32.BLOCK_SIZE*5+10);
+
+		PointInPolygonBatch_F32 alg = new PointInPolygonBatch_F32();
+		alg.setPolygon(poly);
+		GrowQueue_B expected = new GrowQueue_B();
+		GrowQueue_I64 expectedBits = new GrowQueue_I64();
+		alg.classify(points, expected);
+		alg.classify(points, expectedBits);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+
+			GrowQueue_B found = new GrowQueue_B();
+			GrowQueue_I64 foundBits = new GrowQueue_I64();
+			alg.classify(points, found);
+			alg.classify(points, foundBits);
+
+			for (int i = 0; i < expected.size; i++) {
+				assertEquals(expected.get(i), found.get(i));
+			}
+			for (int i = 0; i < expectedBits.size; i++) {
+				assertEquals(expectedBits.get(i), foundBits.get(i));
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * Polygons without area, no points, and reusing the same instance for a smaller polygon
+	 */
+	@Test
+	public void setPolygon_degenerate() {
+		PointInPolygonBatch_F32 alg = new PointInPolygonBatch_F32();
+		GrowQueue_B found = new GrowQueue_B();
+
+		alg.setPolygon(createStar(100));
+		alg.classify(new PackedPoint2D_F32(), found);
+		assertEquals(0, found.size);
+
+		PackedPoint2D_F32 points = new PackedPoint2D_F32();
+		points.add(1, 1);
+		points.add(3, 3);
+		points.add(0, 1);
+
+		alg.setPolygon(new Polygon2D_F32(0));
+		alg.classify(points, found);
+		assertFalse(found.get(0) || found.get(1) || found.get(2));
+
+		alg.setPolygon(new Polygon2D_F32(0,1, 2,1, 4,1));
+		alg.classify(points, found);
+		assertFalse(found.get(0) || found.get(1) || found.get(2));
+
+		alg.setPolygon(new Polygon2D_F32(0,0, 4,0, 0,4));
+		alg.classify(points, found);
+		assertTrue(found.get(0));
+		assertFalse(found.get(1));
+		assertEquals(Intersection2D_F32.containConcave(new Polygon2D_F32(0,0, 4,0, 0,4), new Point2D_F32(0, 1)),
+				found.get(2));
+	}
+}
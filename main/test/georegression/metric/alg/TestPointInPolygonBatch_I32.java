@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_I32;
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.Point2D_I32;
+import georegression.struct.shapes.Polygon2D_I32;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_I64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointInPolygonBatch_I32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Creates a star shaped polygon with a random radius at each vertex, which will be concave.
+	 */
+	private Polygon2D_I32 createStar( int N ) {
+		Polygon2D_I32 poly = new Polygon2D_I32(N);
+		double offset = rand.nextDouble();
+		boolean reverse = rand.nextBoolean();
+		for (int i = 0; i < N; i++) {
+			double theta = Math.PI*2*i/N + offset;
+			double r = 10 + rand.nextDouble()*50;
+			int index = reverse ? N-1-i : i;
+			poly.vertexes.data[index].set((int)(Math.cos(theta)*r) + 5, (int)(Math.sin(theta)*r) - 3);
+		}
+		return poly;
+	}
+
+	/**
+	 * Every pixel inside and around the polygon in a random order, which includes a lot of points on the perimeter
+	 */
+	private int[] createPoints() {
+		int points[] = new int[131*131*2];
+		int N = 0;
+		for (int y = -65; y <= 65; y++) {
+			for (int x = -65; x <= 65; x++) {
+				points[N*2] = x;
+				points[N*2+1] = y;
+				N++;
+			}
+		}
+		for (int i = N-1; i > 0; i--) {
+			int j = rand.nextInt(i+1);
+			int tx = points[i*2], ty = points[i*2+1];
+			points[i*2] = points[j*2]; points[i*2+1] = points[j*2+1];
+			points[j*2] = tx; points[j*2+1] = ty;
+		}
+		return points;
+	}
+
+	@Test
+	public void classify() {
+		PointInPolygonBatch_I32 alg = new PointInPolygonBatch_I32();
+		GrowQueue_B found = new GrowQueue_B();
+		int points[] = createPoints();
+		int count = points.length/2;
+
+		// both sides of the threshold for testing every edge
+		for( int N : new int[]{3,10,PointInPolygonBatch_I32.SMALL_POLYGON,PointInPolygonBatch_I32.SMALL_POLYGON+1,100} ) {
+			Polygon2D_I32 poly = createStar(N);
+
+			alg.setPolygon(poly);
+			alg.classify(points, 0, count, found);
+
+			assertEquals(count, found.size);
+			Point2D_I32 p = new Point2D_I32();
+			int inside = 0;
+			for (int i = 0; i < count; i++) {
+				p.set(points[i*2], points[i*2+1]);
+				boolean expected = Intersection2D_I32.containConcave(poly, p);
+				assertEquals(expected, found.get(i));
+				if( expected )
+					inside++;
+			}
+			assertTrue(inside > 100);
+		}
+	}
+
+	/**
+	 * Consecutive points lie in a narrow band along the y-axis, like points from a scan.  In the last block all
+	 * but a few points are on two rows, which crowds them into a couple of buckets.
+	 */
+	@Test
+	public void classify_clustered() {
+		Polygon2D_I32 poly = createStar(50);
+		int count = PointInPolygonBatch_I32.BLOCK_SIZE*3;
+		int points[] = new int[count*2];
+		for (int i = 0; i < count; i++) {
+			points[i*2] = rand.nextInt(131)-65;
+			if( i < PointInPolygonBatch_I32.BLOCK_SIZE*2 )
+				points[i*2+1] = (i + rand.nextInt(2000))*120/count - 60;
+			else if( i % 1000 == 0 )
+				points[i*2+1] = -3;
+			else
+				points[i*2+1] = rand.nextInt(2);
+		}
+
+		PointInPolygonBatch_I32 alg = new PointInPolygonBatch_I32();
+		GrowQueue_B found = new GrowQueue_B();
+		alg.setPolygon(poly);
+		alg.classify(points, 0, count, found);
+
+		Point2D_I32 p = new Point2D_I32();
+		int inside = 0;
+		for (int i = 0; i < count; i++) {
+			p.set(points[i*2], points[i*2+1]);
+			boolean expected = Intersection2D_I32.containConcave(poly, p);
+			assertEquals(expected, found.get(i));
+			if( expected )
+				inside++;
+		}
+		assertTrue(inside > 100);
+	}
+
+	@Test
+	public void classify_bits() {
+		Polygon2D_I32 poly = createStar(30);
+		int points[] = createPoints();
+		int count = points.length/2 - 5;
+
+		PointInPolygonBatch_I32 alg = new PointInPolygonBatch_I32();
+		alg.setPolygon(poly);
+		GrowQueue_B expected = new GrowQueue_B();
+		alg.classify(points, 10, count, expected);
+
+		GrowQueue_I64 bits = new GrowQueue_I64();
+		bits.resize(1000);
+		bits.fill(-1);
+		alg.classify(points, 10, count, bits);
+
+		assertEquals((count+63)/64, bits.size);
+		for (int i = 0; i < count; i++) {
+			assertEquals(expected.get(i), (bits.get(i/64) & (1L << (i%64))) != 0);
+		}
+		assertEquals(0, bits.get(bits.size-1) >>> (count%64));
+	}
+
+	@Test
+	public void classify_concurrent() {
+		Polygon2D_I32 poly = createStar(60);
+		int points[] = createPoints();
+		int count = points.length/2;
+
+		PointInPolygonBatch_I32 alg = new PointInPolygonBatch_I32();
+		alg.setPolygon(poly);
+		GrowQueue_B expected = new GrowQueue_B();
+		alg.classify(points, 0, count, expected);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+
+			GrowQueue_B found = new GrowQueue_B();
+			alg.classify(points, 0, count, found);
+			for (int i = 0; i < count; i++) {
+				assertEquals(expected.get(i), found.get(i));
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+}
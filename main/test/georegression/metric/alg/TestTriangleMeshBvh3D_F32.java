@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PackedPoint3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangleMeshBvh3D_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Every triangle is in exactly one leaf and the bounds of each node contain everything below it
+	 */
+	@Test
+	public void structure() {
+		for (int leafSize = 1; leafSize <= 8; leafSize *= 2) {
+			List<Triangle3D_F32> triangles = createSoup(500);
+			TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+			alg.setMaxLeafSize(leafSize);
+			alg.build(triangles);
+
+			assertEquals(triangles.size(), alg.getTriangleCount());
+			int[] seen = new int[triangles.size()];
+			checkNode(alg, 0, seen, leafSize);
+			for (int i = 0; i < seen.length; i++) {
+				assertEquals(1, seen[i]);
+			}
+		}
+	}
+
+	/**
+	 * Recursively checks the node and everything below it
+	 */
+	private void checkNode( TriangleMeshBvh3D_F32 alg , int node , int[] seen , int leafSize ) {
+		float[] b = alg.nodeBounds;
+		int count = alg.nodeCount[node];
+		if( count > 0 ) {
+			assertTrue(count <= leafSize);
+			for (int i = alg.nodeStart[node]; i < alg.nodeStart[node]+count; i++) {
+				seen[alg.triangleIndex[i]]++;
+				for (int k = 0; k < 3; k++) {
+					float v = alg.v0[i*3+k];
+					for (int corner = 0; corner < 3; corner++) {
+						float c = corner == 0 ? v : (corner == 1 ? v + alg.e0[i*3+k] : v + alg.e1[i*3+k]);
+						assertTrue(c >= b[node*6+k] && c <= b[node*6+3+k]);
+					}
+				}
+			}
+		} else {
+			int[] children = new int[]{node+1, alg.nodeStart[node]};
+			for (int child : children) {
+				for (int k = 0; k < 3; k++) {
+					assertTrue(b[child*6+k] >= b[node*6+k]);
+					assertTrue(b[child*6+3+k] <= b[node*6+3+k]);
+				}
+				checkNode(alg, child, seen, leafSize);
+			}
+		}
+	}
+
+	@Test
+	public void getTriangle() {
+		List<Triangle3D_F32> triangles = createSoup(50);
+		TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+		alg.build(triangles);
+
+		// the vertexes should be exactly the same
+		Triangle3D_F32 found = new Triangle3D_F32();
+		for (int i = 0; i < triangles.size(); i++) {
+			alg.getTriangle(i, found);
+			Triangle3D_F32 expected = triangles.get(i);
+			assertEquals(0, expected.v0.distance(found.v0), 0);
+			assertEquals(0, expected.v1.distance(found.v1), 0);
+			assertEquals(0, expected.v2.distance(found.v2), 0);
+		}
+
+		try {
+			alg.getTriangle(triangles.size(), found);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Identical vertexes in a list of triangles should be merged together
+	 */
+	@Test
+	public void weldVertexes() {
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		triangles.add(new Triangle3D_F32(0,0,0, 1,0,0, 0,1,0));
+		triangles.add(new Triangle3D_F32(1,0,0, 1,1,0, 0,1,0));
+		triangles.add(new Triangle3D_F32(-0.0f,0,0, 0,1,0, 0,0,1));
+
+		TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+		alg.build(triangles);
+
+		assertEquals(5, alg.weldedVertexes.size);
+		assertEquals(9, alg.weldedIndexes.size);
+		assertEquals(alg.weldedIndexes.get(0), alg.weldedIndexes.get(6));
+		assertEquals(alg.weldedIndexes.get(1), alg.weldedIndexes.get(3));
+		assertEquals(alg.weldedIndexes.get(2), alg.weldedIndexes.get(5));
+	}
+
+	/**
+	 * Edge pseudo normals are the sum of the normals on either side and vertex normals are weighted by angle
+	 */
+	@Test
+	public void pseudoNormals() {
+		// two triangles which form a right angle along the edge (0,0,0)-(1,0,0)
+		PackedPoint3D_F32 vertexes = new PackedPoint3D_F32();
+		vertexes.add(0,0,0);
+		vertexes.add(1,0,0);
+		vertexes.add(0,1,0);
+		vertexes.add(0,0,1);
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		indexes.add(0); indexes.add(2); indexes.add(1);
+		indexes.add(0); indexes.add(1); indexes.add(3);
+
+		TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+		alg.build(vertexes, indexes);
+
+		for (int i = 0; i < 2; i++) {
+			for (int edge = 0; edge < 3; edge++) {
+				int a = alg.triangleVertex[i*3+edge];
+				int b = alg.triangleVertex[i*3+(edge+1)%3];
+				int idx = i*9+edge*3;
+				if( a+b == 1 ) {
+					// shared edge
+					assertEquals(0, alg.edgeNormal[idx], GrlConstants.FLOAT_TEST_TOL);
+					assertEquals(-1, alg.edgeNormal[idx+1], GrlConstants.FLOAT_TEST_TOL);
+					assertEquals(-1, alg.edgeNormal[idx+2], GrlConstants.FLOAT_TEST_TOL);
+				} else {
+					for (int k = 0; k < 3; k++) {
+						assertEquals(alg.normal[i*3+k], alg.edgeNormal[idx+k], GrlConstants.FLOAT_TEST_TOL);
+					}
+				}
+			}
+		}
+
+		// vertex 0 has a right angle in both triangles
+		assertEquals(0, alg.vertexNormal[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-Math.PI/2, alg.vertexNormal[1], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-Math.PI/2, alg.vertexNormal[2], GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void concurrent() {
+		List<Triangle3D_F32> triangles = createSoup(20000);
+
+		TriangleMeshBvh3D_F32 expected = new TriangleMeshBvh3D_F32();
+		expected.build(triangles);
+
+		TriangleMeshBvh3D_F32 found = new TriangleMeshBvh3D_F32();
+		found.setConcurrent(true);
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(1);
+			found.build(triangles);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		assertEquals(expected.numNodes, found.numNodes);
+		checkSameNodes(expected, found, 0);
+		for (int i = 0; i < triangles.size(); i++) {
+			assertEquals(expected.triangleIndex[i], found.triangleIndex[i]);
+		}
+	}
+
+	private void checkSameNodes( TriangleMeshBvh3D_F32 expected , TriangleMeshBvh3D_F32 found , int node ) {
+		assertEquals(expected.nodeCount[node], found.nodeCount[node]);
+		assertEquals(expected.nodeStart[node], found.nodeStart[node]);
+		for (int k = 0; k < 6; k++) {
+			assertEquals(expected.nodeBounds[node*6+k], found.nodeBounds[node*6+k], 0);
+		}
+		if( expected.nodeCount[node] == 0 ) {
+			checkSameNodes(expected, found, node+1);
+			checkSameNodes(expected, found, expected.nodeStart[node]);
+		}
+	}
+
+	/**
+	 * All the triangles are identical.  There's no good way to split them
+	 */
+	@Test
+	public void identicalTriangles() {
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		for (int i = 0; i < 100; i++) {
+			triangles.add(new Triangle3D_F32(0,0,0, 1,0,0, 0,1,0));
+		}
+		TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+		alg.build(triangles);
+
+		int[] seen = new int[triangles.size()];
+		checkNode(alg, 0, seen, alg.getMaxLeafSize());
+		for (int i = 0; i < seen.length; i++) {
+			assertEquals(1, seen[i]);
+		}
+	}
+
+	@Test
+	public void empty() {
+		TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+		alg.build(new ArrayList<Triangle3D_F32>());
+		assertEquals(0, alg.getTriangleCount());
+		assertEquals(0, alg.numNodes);
+	}
+
+	@Test
+	public void badInput() {
+		PackedPoint3D_F32 vertexes = new PackedPoint3D_F32();
+		vertexes.add(0,0,0);
+		vertexes.add(1,0,0);
+		vertexes.add(0,1,0);
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		indexes.add(0); indexes.add(1);
+
+		TriangleMeshBvh3D_F32 alg = new TriangleMeshBvh3D_F32();
+		try {
+			alg.build(vertexes, indexes);
+			fail("Expected an exception");
+		} catch( IllegalArgumentException ignore ) {}
+
+		indexes.add(3);
+		try {
+			alg.build(vertexes, indexes);
+			fail("Expected an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Small triangles randomly scattered inside a cube
+	 */
+	private List<Triangle3D_F32> createSoup( int N ) {
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		for (int i = 0; i < N; i++) {
+			float x = 10*rand.nextFloat();
+			float y = 10*rand.nextFloat();
+			float z = 10*rand.nextFloat();
+			Triangle3D_F32 t = new Triangle3D_F32();
+			t.v0.set(x, y, z);
+			t.v1.set(x + rand.nextFloat(), y + 0.5f*rand.nextFloat(), z + 0.2f*rand.nextFloat());
+			t.v2.set(x + 0.3f*rand.nextFloat(), y + rand.nextFloat(), z + 0.5f*rand.nextFloat());
+			triangles.add(t);
+		}
+		return triangles;
+	}
+}
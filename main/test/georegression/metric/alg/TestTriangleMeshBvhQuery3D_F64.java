@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.metric.alg;
+
+import georegression.geometry.algs.QuickHull3D_F64;
+import georegression.metric.ClosestPoint3D_F64;
+import georegression.metric.Intersection3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangleMeshBvhQuery3D_F64 {
+
+	Random rand = new Random(234);
+
+	double tol = GrlConstants.DOUBLE_TEST_TOL*100;
+
+	/**
+	 * Compare the first hit against checking every triangle
+	 */
+	@Test
+	public void intersectFirst_segment() {
+		List<Triangle3D_F64> triangles = createSoup(1000);
+		TriangleMeshBvhQuery3D_F64 alg = createQuery(triangles);
+
+		Point3D_F64 hit = new Point3D_F64();
+		int totalHits = 0;
+		for (int trial = 0; trial < 500; trial++) {
+			LineSegment3D_F64 segment = new LineSegment3D_F64();
+			segment.a.set(randomPoint(12));
+			segment.b.set(randomPoint(12));
+
+			double expected = bruteForceFirst(triangles, segment);
+			int found = alg.intersectFirst(segment, hit);
+			if( Double.isNaN(expected) ) {
+				assertEquals(-1, found);
+				assertFalse(alg.intersectAny(segment));
+			} else {
+				totalHits++;
+				assertTrue(found >= 0);
+				assertEquals(expected, alg.getHitT(), tol);
+				double t = alg.getHitT();
+				assertEquals(segment.a.x + t*(segment.b.x-segment.a.x), hit.x, tol);
+				assertEquals(segment.a.y + t*(segment.b.y-segment.a.y), hit.y, tol);
+				assertEquals(segment.a.z + t*(segment.b.z-segment.a.z), hit.z, tol);
+
+				// the hit should be on the triangle that was returned
+				Point3D_F64 check = new Point3D_F64();
+				assertEquals(1, Intersection3D_F64.intersection(triangles.get(found), segment, check));
+				assertEquals(0, check.distance(hit), tol);
+				assertTrue(alg.intersectAny(segment));
+			}
+		}
+		assertTrue(totalHits > 100);
+	}
+
+	@Test
+	public void intersectFirst_ray() {
+		List<Triangle3D_F64> triangles = createSoup(1000);
+		TriangleMeshBvhQuery3D_F64 alg = createQuery(triangles);
+
+		Point3D_F64 hit = new Point3D_F64();
+		int totalHits = 0;
+		for (int trial = 0; trial < 500; trial++) {
+			LineParametric3D_F64 ray = new LineParametric3D_F64();
+			ray.p.set(randomPoint(12));
+			double sx = rand.nextGaussian();
+			double sy = rand.nextGaussian();
+			double sz = rand.nextGaussian();
+			ray.slope.set(sx, sy, sz);
+
+			// segment which is long enough to act like a ray
+			double scale = 1000;
+			LineSegment3D_F64 segment = new LineSegment3D_F64();
+			segment.a.set(ray.p);
+			segment.b.set(ray.p.x + scale*ray.slope.x, ray.p.y + scale*ray.slope.y, ray.p.z + scale*ray.slope.z);
+
+			double expected = bruteForceFirst(triangles, segment);
+			int found = alg.intersectFirst(ray, hit);
+			if( Double.isNaN(expected) ) {
+				assertEquals(-1, found);
+				assertFalse(alg.intersectAny(ray));
+			} else {
+				totalHits++;
+				assertTrue(found >= 0);
+				assertEquals(expected*scale, alg.getHitT(), tol*scale);
+				assertTrue(alg.intersectAny(ray));
+			}
+		}
+		assertTrue(totalHits > 50);
+	}
+
+	/**
+	 * Segment which ends before reaching the triangle and rays which point away
+	 */
+	@Test
+	public void intersect_limits() {
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		triangles.add(new Triangle3D_F64(0,0,1, 1,0,1, 0,1,1));
+		TriangleMeshBvhQuery3D_F64 alg = createQuery(triangles);
+
+		assertEquals(0, alg.intersectFirst(new LineSegment3D_F64(0.2,0.2,0, 0.2,0.2,2), null));
+		assertEquals(0.5, alg.getHitT(), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(-1, alg.intersectFirst(new LineSegment3D_F64(0.2,0.2,0, 0.2,0.2,0.9), null));
+		assertEquals(-1, alg.intersectFirst(new LineSegment3D_F64(2,2,0, 2,2,2), null));
+
+		LineParametric3D_F64 ray = new LineParametric3D_F64(0.2,0.2,0, 0,0,1);
+		assertEquals(0, alg.intersectFirst(ray, null));
+		assertEquals(1, alg.getHitT(), GrlConstants.DOUBLE_TEST_TOL);
+		ray.slope.set(0,0,-1);
+		assertEquals(-1, alg.intersectFirst(ray, null));
+
+		// parallel to the triangle
+		ray.set(0.2,0.2,1, 1,0,0);
+		assertEquals(-1, alg.intersectFirst(ray, null));
+	}
+
+	/**
+	 * Compare the closest point against checking every triangle
+	 */
+	@Test
+	public void closestPoint() {
+		List<Triangle3D_F64> triangles = createSoup(1000);
+		TriangleMeshBvhQuery3D_F64 alg = createQuery(triangles);
+
+		Point3D_F64 found = new Point3D_F64();
+		Point3D_F64 work = new Point3D_F64();
+		for (int trial = 0; trial < 500; trial++) {
+			Point3D_F64 p = randomPoint(14);
+
+			double expected = Double.MAX_VALUE;
+			for (int i = 0; i < triangles.size(); i++) {
+				Triangle3D_F64 t = triangles.get(i);
+				ClosestPoint3D_F64.closestPoint(t.v0, t.v1, t.v2, p, work);
+				expected = Math.min(expected, work.distance(p));
+			}
+
+			int index = alg.closestPoint(p, found);
+			assertEquals(expected, alg.getDistance(), tol);
+			assertEquals(expected, found.distance(p), tol);
+
+			// the closest point should be on the returned triangle
+			Triangle3D_F64 t = triangles.get(index);
+			ClosestPoint3D_F64.closestPoint(t.v0, t.v1, t.v2, p, work);
+			assertEquals(0, work.distance(found), tol);
+		}
+	}
+
+	/**
+	 * Triangles which are a line or a point
+	 */
+	@Test
+	public void closestPoint_degenerate() {
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		triangles.add(new Triangle3D_F64(0,0,0, 1,0,0, 2,0,0));
+		triangles.add(new Triangle3D_F64(5,5,5, 5,5,5, 5,5,5));
+		TriangleMeshBvhQuery3D_F64 alg = createQuery(triangles);
+
+		Point3D_F64 found = new Point3D_F64();
+		assertEquals(0, alg.closestPoint(new Point3D_F64(1.5,1,0), found));
+		assertEquals(0, found.distance(new Point3D_F64(1.5,0,0)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, alg.closestPoint(new Point3D_F64(-1,0,0), found));
+		assertEquals(0, found.distance(new Point3D_F64(0,0,0)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1, alg.closestPoint(new Point3D_F64(5,6,5), found));
+		assertEquals(1, alg.getDistance(), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Signed distance for a closed mesh which isn't convex.  The mesh is star shaped, so a point is inside if the
+	 * line from the center to the point doesn't cross the surface.
+	 */
+	@Test
+	public void signedDistance() {
+		PackedPoint3D_F64 vertexes = new PackedPoint3D_F64();
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		createStar(300, vertexes, indexes);
+
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		for (int i = 0; i < indexes.size; i += 3) {
+			triangles.add(new Triangle3D_F64(vertexes.get(indexes.get(i), null),
+					vertexes.get(indexes.get(i+1), null), vertexes.get(indexes.get(i+2), null)));
+		}
+
+		TriangleMeshBvh3D_F64 bvh = new TriangleMeshBvh3D_F64();
+		bvh.build(vertexes, indexes);
+		TriangleMeshBvhQuery3D_F64 alg = new TriangleMeshBvhQuery3D_F64(bvh);
+
+		Point3D_F64 work = new Point3D_F64();
+		int totalInside = 0;
+		for (int trial = 0; trial < 1000; trial++) {
+			Point3D_F64 p = new Point3D_F64(3*rand.nextDouble()-1.5, 3*rand.nextDouble()-1.5, 3*rand.nextDouble()-1.5);
+
+			LineSegment3D_F64 fromCenter = new LineSegment3D_F64(0,0,0, p.x, p.y, p.z);
+			boolean inside = true;
+			for (int i = 0; i < triangles.size(); i++) {
+				if( Intersection3D_F64.intersection(triangles.get(i), fromCenter, work) == 1 ) {
+					inside = false;
+					break;
+				}
+			}
+
+			double found = alg.signedDistance(p);
+			if( Math.abs(found) < 1e-4 )
+				continue;
+			if( inside ) {
+				totalInside++;
+				assertTrue(found < 0);
+			} else {
+				assertTrue(found > 0);
+			}
+			assertEquals(alg.getDistance(), Math.abs(found), 0);
+		}
+		assertTrue(totalInside > 100);
+	}
+
+	/**
+	 * Points near the edges and corners of a cube, where the sign is determined by pseudo normals
+	 */
+	@Test
+	public void signedDistance_cube() {
+		PackedPoint3D_F64 vertexes = new PackedPoint3D_F64();
+		for (int i = 0; i < 8; i++) {
+			vertexes.add(i & 1, (i >> 1) & 1, (i >> 2) & 1);
+		}
+		QuickHull3D_F64 hull = new QuickHull3D_F64();
+		assertTrue(hull.process(vertexes));
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		hull.getFaces(indexes);
+
+		TriangleMeshBvh3D_F64 bvh = new TriangleMeshBvh3D_F64();
+		bvh.build(vertexes, indexes);
+		TriangleMeshBvhQuery3D_F64 alg = new TriangleMeshBvhQuery3D_F64(bvh);
+
+		double tol = GrlConstants.DOUBLE_TEST_TOL;
+		assertEquals(Math.sqrt(2)*0.1, alg.signedDistance(new Point3D_F64(1.1,1.1,0.5)), tol);
+		assertEquals(Math.sqrt(3)*0.1, alg.signedDistance(new Point3D_F64(-0.1,1.1,-0.1)), tol);
+		assertEquals(0.2, alg.signedDistance(new Point3D_F64(0.5,0.5,1.2)), tol);
+		assertEquals(-0.05, alg.signedDistance(new Point3D_F64(0.95,0.95,0.5)), tol);
+		assertEquals(-0.1, alg.signedDistance(new Point3D_F64(0.5,0.5,0.9)), tol);
+		assertEquals(0, alg.signedDistance(new Point3D_F64(1,1,1)), tol);
+	}
+
+	@Test
+	public void empty() {
+		TriangleMeshBvhQuery3D_F64 alg = createQuery(new ArrayList<Triangle3D_F64>());
+		assertEquals(-1, alg.closestPoint(new Point3D_F64(1,2,3), null));
+		assertTrue(Double.isNaN(alg.signedDistance(new Point3D_F64(1,2,3))));
+		assertEquals(-1, alg.intersectFirst(new LineSegment3D_F64(0,0,0, 1,1,1), null));
+		assertFalse(alg.intersectAny(new LineSegment3D_F64(0,0,0, 1,1,1)));
+	}
+
+	/**
+	 * Points on a sphere have their distance from the center randomly changed.  Since the triangles come from
+	 * the convex hull of the points on the sphere, the mesh is closed and star shaped.
+	 */
+	private void createStar( int N , PackedPoint3D_F64 vertexes , GrowQueue_I32 indexes ) {
+		for (int i = 0; i < N; i++) {
+			double x = rand.nextGaussian();
+			double y = rand.nextGaussian();
+			double z = rand.nextGaussian();
+			double r = Math.sqrt(x*x + y*y + z*z);
+			vertexes.add(x/r, y/r, z/r);
+		}
+		QuickHull3D_F64 hull = new QuickHull3D_F64();
+		assertTrue(hull.process(vertexes));
+		hull.getFaces(indexes);
+
+		for (int i = 0; i < N; i++) {
+			double scale = 0.6 + 0.6*rand.nextDouble();
+			vertexes.set(i, vertexes.getX(i)*scale, vertexes.getY(i)*scale, vertexes.getZ(i)*scale);
+		}
+	}
+
+	private double bruteForceFirst( List<Triangle3D_F64> triangles , LineSegment3D_F64 segment ) {
+		double best = Double.NaN;
+		double length = segment.getLength();
+		Point3D_F64 hit = new Point3D_F64();
+		for (int i = 0; i < triangles.size(); i++) {
+			if( Intersection3D_F64.intersection(triangles.get(i), segment, hit) == 1 ) {
+				double t = hit.distance(segment.a)/length;
+				if( Double.isNaN(best) || t < best )
+					best = t;
+			}
+		}
+		return best;
+	}
+
+	private TriangleMeshBvhQuery3D_F64 createQuery( List<Triangle3D_F64> triangles ) {
+		TriangleMeshBvh3D_F64 bvh = new TriangleMeshBvh3D_F64();
+		bvh.build(triangles);
+		return new TriangleMeshBvhQuery3D_F64(bvh);
+	}
+
+	private Point3D_F64 randomPoint( double size ) {
+		double x = size*rand.nextDouble() - 1;
+		double y = size*rand.nextDouble() - 1;
+		double z = size*rand.nextDouble() - 1;
+		return new Point3D_F64(x, y, z);
+	}
+
+	/**
+	 * Triangles randomly scattered inside a cube
+	 */
+	private List<Triangle3D_F64> createSoup( int N ) {
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		for (int i = 0; i < N; i++) {
+			double x = 10*rand.nextDouble();
+			double y = 10*rand.nextDouble();
+			double z = 10*rand.nextDouble();
+			Triangle3D_F64 t = new Triangle3D_F64();
+			t.v0.set(x, y, z);
+			t.v1.set(x + rand.nextDouble(), y + 0.5*rand.nextDouble(), z + 0.2*rand.nextDouble());
+			t.v2.set(x + 0.3*rand.nextDouble(), y + rand.nextDouble(), z + 0.5*rand.nextDouble());
+			triangles.add(t);
+		}
+		return triangles;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.misc;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGrlConcurrency {
+
+	/**
+	 * Every index should be processed exactly once
+	 */
+	@Test
+	public void loopBlocks_concurrent() {
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+
+			final int counts[] = new int[1003];
+			final AtomicInteger numBlocks = new AtomicInteger();
+			GrlConcurrency.loopBlocks(2, counts.length, new GrlConcurrency.IntRangeTask() {
+				@Override
+				public void process(int idx0, int idx1) {
+					numBlocks.incrementAndGet();
+					for (int i = idx0; i < idx1; i++) {
+						counts[i]++;
+					}
+				}
+			});
+
+			assertEquals(0,counts[0]);
+			assertEquals(0,counts[1]);
+			for (int i = 2; i < counts.length; i++) {
+				assertEquals(1,counts[i]);
+			}
+			assertTrue(numBlocks.get() > 1);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * Small inputs should be handed over as a single block
+	 */
+	@Test
+	public void loopBlocks_small() {
+		final AtomicInteger numBlocks = new AtomicInteger();
+		GrlConcurrency.loopBlocks(5, 25, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				numBlocks.incrementAndGet();
+				assertEquals(5,idx0);
+				assertEquals(25,idx1);
+			}
+		});
+		assertEquals(1,numBlocks.get());
+	}
+
+	/**
+	 * Every block should have the expected boundaries, independent of concurrency
+	 */
+	@Test
+	public void loopFixedBlocks() {
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			checkFixedBlocks(2, 1003, 10);
+			checkFixedBlocks(2, 1002, 10);
+			checkFixedBlocks(0, 5, 10);
+			GrlConcurrency.setMinimumConcurrent(10);
+			checkFixedBlocks(2, 1003, 10);
+			checkFixedBlocks(2, 1002, 10);
+			checkFixedBlocks(0, 5, 10);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * A small number of expensive indexes should still be processed inside the pool
+	 */
+	@Test
+	public void loopFixedBlocks_cost() {
+		final int counts[] = new int[20];
+		final AtomicInteger insidePool = new AtomicInteger();
+		GrlConcurrency.IntRangeTask task = new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				if( Thread.currentThread() instanceof ForkJoinWorkerThread )
+					insidePool.incrementAndGet();
+				for (int i = idx0; i < idx1; i++) {
+					counts[i]++;
+				}
+			}
+		};
+
+		GrlConcurrency.loopFixedBlocks(0, counts.length, 1, 1, task);
+		assertEquals(0, insidePool.get());
+
+		GrlConcurrency.loopFixedBlocks(0, counts.length, 1, GrlConcurrency.getMinimumConcurrent(), task);
+		assertTrue(insidePool.get() > 0);
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(2, counts[i]);
+		}
+	}
+
+	private void checkFixedBlocks( final int start , final int end , final int blockSize ) {
+		final int counts[] = new int[end];
+		GrlConcurrency.loopFixedBlocks(start, end, blockSize, new GrlConcurrency.IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				assertEquals(0, (idx0 - start) % blockSize);
+				assertEquals(Math.min(end, idx0 + blockSize), idx1);
+				for (int i = idx0; i < idx1; i++) {
+					counts[i]++;
+				}
+			}
+		});
+
+		for (int i = 0; i < end; i++) {
+			assertEquals(i < start ? 0 : 1, counts[i]);
+		}
+	}
+
+	@Test
+	public void setPool() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			GrlConcurrency.setPool(pool);
+			assertTrue(pool == GrlConcurrency.getPool());
+		} finally {
+			GrlConcurrency.setPool(null);
+			pool.shutdown();
+		}
+		assertTrue(pool != GrlConcurrency.getPool());
+	}
+}
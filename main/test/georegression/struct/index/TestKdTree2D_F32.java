@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdTree2D_F32 {
+
+	Random rand = new Random(234);
+
+	private List<Point2D_F32> createPoints( int N ) {
+		List<Point2D_F32> points = new ArrayList<Point2D_F32>();
+		for (int i = 0; i < N; i++) {
+			points.add(new Point2D_F32(rand.nextFloat()*10-5, rand.nextFloat()*2-1));
+		}
+		// add a few duplicates
+		for (int i = 0; i < N/10; i++) {
+			points.add(points.get(rand.nextInt(N)).copy());
+		}
+		return points;
+	}
+
+	@Test
+	public void findNearest() {
+		List<Point2D_F32> points = createPoints(500);
+
+		KdTree2D_F32 alg = new KdTree2D_F32();
+		alg.build(points);
+		assertEquals(points.size(), alg.size());
+
+		for (int trial = 0; trial < 200; trial++) {
+			Point2D_F32 q = new Point2D_F32(rand.nextFloat()*12-6, rand.nextFloat()*3-1.5f);
+			int found = alg.findNearest(q, Float.MAX_VALUE);
+			assertEquals(bruteForceDistance2(points, q), points.get(found).distance2(q), 0);
+
+			// limit the distance
+			float limit = 0.3f;
+			found = alg.findNearest(q, limit);
+			if( bruteForceDistance2(points, q) <= limit*limit )
+				assertEquals(bruteForceDistance2(points, q), points.get(found).distance2(q), 0);
+			else
+				assertEquals(-1, found);
+		}
+	}
+
+	@Test
+	public void findNearest_batch() {
+		List<Point2D_F32> points = createPoints(500);
+		KdTree2D_F32 alg = new KdTree2D_F32();
+		alg.build(points);
+
+		PackedPoint2D_F32 queries = new PackedPoint2D_F32();
+		for (int i = 0; i < 2000; i++) {
+			queries.add(rand.nextFloat()*12-6, rand.nextFloat()*3-1.5f);
+		}
+
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		alg.findNearest(queries, 0.5f, expected);
+		assertEquals(queries.size, expected.size);
+		for (int i = 0; i < queries.size; i++) {
+			assertEquals(alg.findNearest(queries.getTemp(i), 0.5f), expected.get(i));
+		}
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+
+			GrowQueue_I32 found = new GrowQueue_I32();
+			alg.findNearest(queries, 0.5f, found);
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				assertEquals(expected.get(i), found.get(i));
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	@Test
+	public void findNearest_K() {
+		List<Point2D_F32> points = createPoints(500);
+
+		KdTree2D_F32 alg = new KdTree2D_F32();
+		alg.build(points);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F32 distances = new GrowQueue_F32();
+
+		int[] ks = new int[]{1, 5, 20, points.size()+10};
+		for (int k : ks) {
+			for (int trial = 0; trial < 50; trial++) {
+				Point2D_F32 q = new Point2D_F32(rand.nextFloat()*12-6, rand.nextFloat()*3-1.5f);
+
+				float expected[] = sortedDistance2(points, q);
+
+				alg.findNearest(q, Float.MAX_VALUE, k, indexes, distances);
+				int N = k < points.size() ? k : points.size();
+				assertEquals(N, indexes.size);
+				assertEquals(N, distances.size);
+				for (int i = 0; i < N; i++) {
+					assertEquals(expected[i], distances.get(i), 0);
+					assertEquals(distances.get(i), points.get(indexes.get(i)).distance2(q), 0);
+				}
+
+				// only points within the maximum distance
+				float limit = 1.0f;
+				alg.findNearest(q, limit, k, indexes, distances);
+				int count = 0;
+				while( count < N && expected[count] <= limit*limit )
+					count++;
+				assertEquals(count, indexes.size);
+				for (int i = 0; i < count; i++) {
+					assertEquals(expected[i], distances.get(i), 0);
+				}
+			}
+		}
+
+		// no neighbors requested
+		alg.findNearest(new Point2D_F32(), Float.MAX_VALUE, 0, indexes, distances);
+		assertEquals(0, indexes.size);
+	}
+
+	@Test
+	public void findRadius() {
+		List<Point2D_F32> points = createPoints(500);
+
+		KdTree2D_F32 alg = new KdTree2D_F32();
+		alg.build(points);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F32 distances = new GrowQueue_F32();
+
+		for (int trial = 0; trial < 100; trial++) {
+			Point2D_F32 q = new Point2D_F32(rand.nextFloat()*12-6, rand.nextFloat()*3-1.5f);
+			float radius = rand.nextFloat()*2;
+
+			alg.findRadius(q, radius, indexes, distances);
+
+			boolean found[] = new boolean[points.size()];
+			for (int i = 0; i < indexes.size; i++) {
+				int index = indexes.get(i);
+				assertFalse(found[index]);
+				found[index] = true;
+				assertEquals(points.get(index).distance2(q), distances.get(i), 0);
+			}
+			for (int i = 0; i < points.size(); i++) {
+				assertEquals(points.get(i).distance2(q) <= radius*radius, found[i]);
+			}
+		}
+	}
+
+	/**
+	 * Different ways to build the tree should produce the same tree
+	 */
+	@Test
+	public void build_inputs() {
+		List<Point2D_F32> points = createPoints(300);
+
+		KdTree2D_F32 expected = new KdTree2D_F32();
+		expected.build(points);
+
+		PackedPoint2D_F32 packed = new PackedPoint2D_F32();
+		packed.addAll(points);
+		KdTree2D_F32 found = new KdTree2D_F32();
+		found.build(packed);
+		checkIdentical(expected, found);
+
+		float array[] = new float[points.size()*2+6];
+		System.arraycopy(packed.data, 0, array, 6, points.size()*2);
+		found.build(array, 6, points.size());
+		checkIdentical(expected, found);
+	}
+
+	@Test
+	public void build_concurrent() {
+		List<Point2D_F32> points = createPoints(5000);
+
+		KdTree2D_F32 expected = new KdTree2D_F32();
+		expected.build(points);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(100);
+
+			KdTree2D_F32 found = new KdTree2D_F32();
+			found.setConcurrent(true);
+			found.build(points);
+			checkIdentical(expected, found);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * Rebuild a tree with fewer points then more points
+	 */
+	@Test
+	public void build_reuse() {
+		KdTree2D_F32 alg = new KdTree2D_F32();
+		alg.build(createPoints(200));
+
+		List<Point2D_F32> points = createPoints(50);
+		alg.build(points);
+		assertEquals(points.size(), alg.size());
+		checkNearest(alg, points);
+
+		points = createPoints(1000);
+		alg.build(points);
+		assertEquals(points.size(), alg.size());
+		checkNearest(alg, points);
+
+		alg.build(new ArrayList<Point2D_F32>());
+		assertEquals(0, alg.size());
+		assertEquals(-1, alg.findNearest(new Point2D_F32(), Float.MAX_VALUE));
+	}
+
+	/**
+	 * Points which are all on a line or identical
+	 */
+	@Test
+	public void degenerate() {
+		List<Point2D_F32> points = new ArrayList<Point2D_F32>();
+		for (int i = 0; i < 100; i++) {
+			points.add(new Point2D_F32(1, 3));
+			points.add(new Point2D_F32(1, i*0.1f));
+		}
+
+		KdTree2D_F32 alg = new KdTree2D_F32();
+		alg.build(points);
+		checkNearest(alg, points);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F32 distances = new GrowQueue_F32();
+		alg.findRadius(1, 3, 0, indexes, distances);
+		assertEquals(101, indexes.size);
+	}
+
+	private void checkNearest( KdTree2D_F32 alg , List<Point2D_F32> points ) {
+		for (int i = 0; i < points.size(); i++) {
+			int found = alg.findNearest(points.get(i), Float.MAX_VALUE);
+			assertEquals(0, points.get(found).distance2(points.get(i)), 0);
+		}
+	}
+
+	private void checkIdentical( KdTree2D_F32 a , KdTree2D_F32 b ) {
+		assertEquals(a.size, b.size);
+		for (int i = 0; i < a.size; i++) {
+			assertEquals(a.indexes[i], b.indexes[i]);
+			assertEquals(a.axes[i], b.axes[i]);
+		}
+		for (int i = 0; i < a.size*2; i++) {
+			assertEquals(a.data[i], b.data[i], 0);
+		}
+	}
+
+	private static float bruteForceDistance2( List<Point2D_F32> points , Point2D_F32 q ) {
+		float best = Float.MAX_VALUE;
+		for (int i = 0; i < points.size(); i++) {
+			float d = points.get(i).distance2(q);
+			if( d < best )
+				best = d;
+		}
+		return best;
+	}
+
+	private static float[] sortedDistance2( List<Point2D_F32> points , Point2D_F32 q ) {
+		float distances[] = new float[points.size()];
+		for (int i = 0; i < points.size(); i++) {
+			distances[i] = points.get(i).distance2(q);
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+}
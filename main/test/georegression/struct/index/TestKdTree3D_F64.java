@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.PackedPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdTree3D_F64 {
+
+	Random rand = new Random(234);
+
+	private List<Point3D_F64> createPoints( int N ) {
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for (int i = 0; i < N; i++) {
+			points.add(new Point3D_F64(rand.nextDouble()*10-5, rand.nextDouble()*10-5, rand.nextDouble()*2-1));
+		}
+		// add a few duplicates
+		for (int i = 0; i < N/10; i++) {
+			points.add(points.get(rand.nextInt(N)).copy());
+		}
+		return points;
+	}
+
+	@Test
+	public void findNearest() {
+		List<Point3D_F64> points = createPoints(500);
+
+		KdTree3D_F64 alg = new KdTree3D_F64();
+		alg.build(points);
+		assertEquals(points.size(), alg.size());
+
+		for (int trial = 0; trial < 200; trial++) {
+			Point3D_F64 q = new Point3D_F64(rand.nextDouble()*12-6, rand.nextDouble()*12-6, rand.nextDouble()*3-1.5);
+			int found = alg.findNearest(q, Double.MAX_VALUE);
+			assertEquals(bruteForceDistance2(points, q), points.get(found).distance2(q), 0);
+
+			// limit the distance
+			double limit = 0.3;
+			found = alg.findNearest(q, limit);
+			if( bruteForceDistance2(points, q) <= limit*limit )
+				assertEquals(bruteForceDistance2(points, q), points.get(found).distance2(q), 0);
+			else
+				assertEquals(-1, found);
+		}
+	}
+
+	@Test
+	public void findNearest_batch() {
+		List<Point3D_F64> points = createPoints(500);
+		KdTree3D_F64 alg = new KdTree3D_F64();
+		alg.build(points);
+
+		PackedPoint3D_F64 queries = new PackedPoint3D_F64();
+		for (int i = 0; i < 2000; i++) {
+			queries.add(rand.nextDouble()*12-6, rand.nextDouble()*12-6, rand.nextDouble()*3-1.5);
+		}
+
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		alg.findNearest(queries, 0.5, expected);
+		assertEquals(queries.size, expected.size);
+		for (int i = 0; i < queries.size; i++) {
+			assertEquals(alg.findNearest(queries.getTemp(i), 0.5), expected.get(i));
+		}
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			alg.setConcurrent(true);
+
+			GrowQueue_I32 found = new GrowQueue_I32();
+			alg.findNearest(queries, 0.5, found);
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				assertEquals(expected.get(i), found.get(i));
+			}
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	@Test
+	public void findNearest_K() {
+		List<Point3D_F64> points = createPoints(500);
+
+		KdTree3D_F64 alg = new KdTree3D_F64();
+		alg.build(points);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F64 distances = new GrowQueue_F64();
+
+		int[] ks = new int[]{1, 5, 20, points.size()+10};
+		for (int k : ks) {
+			for (int trial = 0; trial < 50; trial++) {
+				Point3D_F64 q = new Point3D_F64(rand.nextDouble()*12-6, rand.nextDouble()*12-6, rand.nextDouble()*3-1.5);
+
+				double expected[] = sortedDistance2(points, q);
+
+				alg.findNearest(q, Double.MAX_VALUE, k, indexes, distances);
+				int N = k < points.size() ? k : points.size();
+				assertEquals(N, indexes.size);
+				assertEquals(N, distances.size);
+				for (int i = 0; i < N; i++) {
+					assertEquals(expected[i], distances.get(i), 0);
+					assertEquals(distances.get(i), points.get(indexes.get(i)).distance2(q), 0);
+				}
+
+				// only points within the maximum distance
+				double limit = 1.0;
+				alg.findNearest(q, limit, k, indexes, distances);
+				int count = 0;
+				while( count < N && expected[count] <= limit*limit )
+					count++;
+				assertEquals(count, indexes.size);
+				for (int i = 0; i < count; i++) {
+					assertEquals(expected[i], distances.get(i), 0);
+				}
+			}
+		}
+
+		// no neighbors requested
+		alg.findNearest(new Point3D_F64(), Double.MAX_VALUE, 0, indexes, distances);
+		assertEquals(0, indexes.size);
+	}
+
+	@Test
+	public void findRadius() {
+		List<Point3D_F64> points = createPoints(500);
+
+		KdTree3D_F64 alg = new KdTree3D_F64();
+		alg.build(points);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F64 distances = new GrowQueue_F64();
+
+		for (int trial = 0; trial < 100; trial++) {
+			Point3D_F64 q = new Point3D_F64(rand.nextDouble()*12-6, rand.nextDouble()*12-6, rand.nextDouble()*3-1.5);
+			double radius = rand.nextDouble()*2;
+
+			alg.findRadius(q, radius, indexes, distances);
+
+			boolean found[] = new boolean[points.size()];
+			for (int i = 0; i < indexes.size; i++) {
+				int index = indexes.get(i);
+				assertFalse(found[index]);
+				found[index] = true;
+				assertEquals(points.get(index).distance2(q), distances.get(i), 0);
+			}
+			for (int i = 0; i < points.size(); i++) {
+				assertEquals(points.get(i).distance2(q) <= radius*radius, found[i]);
+			}
+		}
+	}
+
+	/**
+	 * Different ways to build the tree should produce the same tree
+	 */
+	@Test
+	public void build_inputs() {
+		List<Point3D_F64> points = createPoints(300);
+
+		KdTree3D_F64 expected = new KdTree3D_F64();
+		expected.build(points);
+
+		PackedPoint3D_F64 packed = new PackedPoint3D_F64();
+		packed.addAll(points);
+		KdTree3D_F64 found = new KdTree3D_F64();
+		found.build(packed);
+		checkIdentical(expected, found);
+
+		double array[] = new double[points.size()*3+6];
+		System.arraycopy(packed.data, 0, array, 6, points.size()*3);
+		found.build(array, 6, points.size());
+		checkIdentical(expected, found);
+	}
+
+	@Test
+	public void build_concurrent() {
+		List<Point3D_F64> points = createPoints(5000);
+
+		KdTree3D_F64 expected = new KdTree3D_F64();
+		expected.build(points);
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(100);
+
+			KdTree3D_F64 found = new KdTree3D_F64();
+			found.setConcurrent(true);
+			found.build(points);
+			checkIdentical(expected, found);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+	}
+
+	/**
+	 * Rebuild a tree with fewer points then more points
+	 */
+	@Test
+	public void build_reuse() {
+		KdTree3D_F64 alg = new KdTree3D_F64();
+		alg.build(createPoints(200));
+
+		List<Point3D_F64> points = createPoints(50);
+		alg.build(points);
+		assertEquals(points.size(), alg.size());
+		checkNearest(alg, points);
+
+		points = createPoints(1000);
+		alg.build(points);
+		assertEquals(points.size(), alg.size());
+		checkNearest(alg, points);
+
+		alg.build(new ArrayList<Point3D_F64>());
+		assertEquals(0, alg.size());
+		assertEquals(-1, alg.findNearest(new Point3D_F64(), Double.MAX_VALUE));
+	}
+
+	/**
+	 * Points which are all on a line or identical
+	 */
+	@Test
+	public void degenerate() {
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for (int i = 0; i < 100; i++) {
+			points.add(new Point3D_F64(1, 2, 3));
+			points.add(new Point3D_F64(1, 2, i*0.1));
+		}
+
+		KdTree3D_F64 alg = new KdTree3D_F64();
+		alg.build(points);
+		checkNearest(alg, points);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F64 distances = new GrowQueue_F64();
+		alg.findRadius(1, 2, 3, 0, indexes, distances);
+		assertEquals(101, indexes.size);
+	}
+
+	private void checkNearest( KdTree3D_F64 alg , List<Point3D_F64> points ) {
+		for (int i = 0; i < points.size(); i++) {
+			int found = alg.findNearest(points.get(i), Double.MAX_VALUE);
+			assertEquals(0, points.get(found).distance2(points.get(i)), 0);
+		}
+	}
+
+	private void checkIdentical( KdTree3D_F64 a , KdTree3D_F64 b ) {
+		assertEquals(a.size, b.size);
+		for (int i = 0; i < a.size; i++) {
+			assertEquals(a.indexes[i], b.indexes[i]);
+			assertEquals(a.axes[i], b.axes[i]);
+		}
+		for (int i = 0; i < a.size*3; i++) {
+			assertEquals(a.data[i], b.data[i], 0);
+		}
+	}
+
+	private static double bruteForceDistance2( List<Point3D_F64> points , Point3D_F64 q ) {
+		double best = Double.MAX_VALUE;
+		for (int i = 0; i < points.size(); i++) {
+			double d = points.get(i).distance2(q);
+			if( d < best )
+				best = d;
+		}
+		return best;
+	}
+
+	private static double[] sortedDistance2( List<Point3D_F64> points , Point3D_F64 q ) {
+		double distances[] = new double[points.size()];
+		for (int i = 0; i < points.size(); i++) {
+			distances[i] = points.get(i).distance2(q);
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+}
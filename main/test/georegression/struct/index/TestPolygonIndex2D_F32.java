@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.geometry.UtilPolygons2D_F32;
+import georegression.metric.Intersection2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPolygonIndex2D_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Creates concave star shaped polygons
+	 */
+	private List<Polygon2D_F32> createPolygons( int N ) {
+		List<Polygon2D_F32> polygons = new ArrayList<Polygon2D_F32>();
+		for (int i = 0; i < N; i++) {
+			float cx = rand.nextFloat()*20-10;
+			float cy = rand.nextFloat()*20-10;
+			int sides = 6 + rand.nextInt(6);
+			Polygon2D_F32 poly = new Polygon2D_F32(sides);
+			for (int j = 0; j < sides; j++) {
+				float theta = (float)Math.PI*2*j/sides;
+				float r = j%2 == 0 ? 1.0f : 0.4f;
+				float x = (float)Math.cos(theta)*r + cx;
+				float y = (float)Math.sin(theta)*r + cy;
+				poly.get(j).set(x, y);
+			}
+			polygons.add(poly);
+		}
+		return polygons;
+	}
+
+	@Test
+	public void findContaining() {
+		List<Polygon2D_F32> polygons = createPolygons(300);
+
+		PolygonIndex2D_F32 alg = new PolygonIndex2D_F32(4);
+		alg.build(polygons);
+		assertEquals(polygons.size(), alg.size());
+		assertSame(polygons, alg.getPolygons());
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		int total = 0;
+		for (int trial = 0; trial < 500; trial++) {
+			Point2D_F32 p = new Point2D_F32(rand.nextFloat()*24-12, rand.nextFloat()*24-12);
+			alg.findContaining(p, found);
+
+			boolean matched[] = new boolean[polygons.size()];
+			for (int i = 0; i < found.size; i++) {
+				assertFalse(matched[found.get(i)]);
+				matched[found.get(i)] = true;
+			}
+			for (int i = 0; i < polygons.size(); i++) {
+				assertEquals(Intersection2D_F32.containConcave(polygons.get(i), p), matched[i]);
+			}
+			total += found.size;
+		}
+		// make sure the test isn't trivial
+		assertTrue(total > 50);
+	}
+
+	@Test
+	public void findCandidates() {
+		List<Polygon2D_F32> polygons = createPolygons(300);
+
+		PolygonIndex2D_F32 alg = new PolygonIndex2D_F32();
+		alg.build(polygons);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		Rectangle2D_F32 bound = new Rectangle2D_F32();
+		for (int trial = 0; trial < 100; trial++) {
+			float x = rand.nextFloat()*24-12;
+			float y = rand.nextFloat()*24-12;
+			Rectangle2D_F32 window = new Rectangle2D_F32(x, y, x + rand.nextFloat()*4, y + rand.nextFloat()*4);
+			alg.findCandidates(window, found);
+
+			boolean matched[] = new boolean[polygons.size()];
+			for (int i = 0; i < found.size; i++) {
+				matched[found.get(i)] = true;
+			}
+			for (int i = 0; i < polygons.size(); i++) {
+				UtilPolygons2D_F32.bounding(polygons.get(i), bound);
+				boolean expected = bound.p0.x <= window.p1.x && bound.p1.x >= window.p0.x &&
+						bound.p0.y <= window.p1.y && bound.p1.y >= window.p0.y;
+				assertEquals(expected, matched[i]);
+			}
+		}
+	}
+
+	@Test
+	public void findNearestCandidate() {
+		List<Polygon2D_F32> polygons = new ArrayList<Polygon2D_F32>();
+		polygons.add(new Polygon2D_F32(0, 0, 1, 0, 1, 1));
+		polygons.add(new Polygon2D_F32(5, 0, 6, 0, 6, 1));
+
+		PolygonIndex2D_F32 alg = new PolygonIndex2D_F32();
+		alg.build(polygons);
+
+		assertEquals(0, alg.findNearestCandidate(new Point2D_F32(2, 0.5f), Float.MAX_VALUE));
+		assertEquals(1, alg.findNearestCandidate(new Point2D_F32(4, 0.5f), Float.MAX_VALUE));
+		assertEquals(-1, alg.findNearestCandidate(new Point2D_F32(3, 0.5f), 1));
+	}
+}
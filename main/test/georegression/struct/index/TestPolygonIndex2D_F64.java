@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.geometry.UtilPolygons2D_F64;
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPolygonIndex2D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Creates concave star shaped polygons
+	 */
+	private List<Polygon2D_F64> createPolygons( int N ) {
+		List<Polygon2D_F64> polygons = new ArrayList<Polygon2D_F64>();
+		for (int i = 0; i < N; i++) {
+			double cx = rand.nextDouble()*20-10;
+			double cy = rand.nextDouble()*20-10;
+			int sides = 6 + rand.nextInt(6);
+			Polygon2D_F64 poly = new Polygon2D_F64(sides);
+			for (int j = 0; j < sides; j++) {
+				double theta = Math.PI*2*j/sides;
+				double r = j%2 == 0 ? 1.0 : 0.4;
+				double x = Math.cos(theta)*r + cx;
+				double y = Math.sin(theta)*r + cy;
+				poly.get(j).set(x, y);
+			}
+			polygons.add(poly);
+		}
+		return polygons;
+	}
+
+	@Test
+	public void findContaining() {
+		List<Polygon2D_F64> polygons = createPolygons(300);
+
+		PolygonIndex2D_F64 alg = new PolygonIndex2D_F64(4);
+		alg.build(polygons);
+		assertEquals(polygons.size(), alg.size());
+		assertSame(polygons, alg.getPolygons());
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		int total = 0;
+		for (int trial = 0; trial < 500; trial++) {
+			Point2D_F64 p = new Point2D_F64(rand.nextDouble()*24-12, rand.nextDouble()*24-12);
+			alg.findContaining(p, found);
+
+			boolean matched[] = new boolean[polygons.size()];
+			for (int i = 0; i < found.size; i++) {
+				assertFalse(matched[found.get(i)]);
+				matched[found.get(i)] = true;
+			}
+			for (int i = 0; i < polygons.size(); i++) {
+				assertEquals(Intersection2D_F64.containConcave(polygons.get(i), p), matched[i]);
+			}
+			total += found.size;
+		}
+		// make sure the test isn't trivial
+		assertTrue(total > 50);
+	}
+
+	@Test
+	public void findCandidates() {
+		List<Polygon2D_F64> polygons = createPolygons(300);
+
+		PolygonIndex2D_F64 alg = new PolygonIndex2D_F64();
+		alg.build(polygons);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		Rectangle2D_F64 bound = new Rectangle2D_F64();
+		for (int trial = 0; trial < 100; trial++) {
+			double x = rand.nextDouble()*24-12;
+			double y = rand.nextDouble()*24-12;
+			Rectangle2D_F64 window = new Rectangle2D_F64(x, y, x + rand.nextDouble()*4, y + rand.nextDouble()*4);
+			alg.findCandidates(window, found);
+
+			boolean matched[] = new boolean[polygons.size()];
+			for (int i = 0; i < found.size; i++) {
+				matched[found.get(i)] = true;
+			}
+			for (int i = 0; i < polygons.size(); i++) {
+				UtilPolygons2D_F64.bounding(polygons.get(i), bound);
+				boolean expected = bound.p0.x <= window.p1.x && bound.p1.x >= window.p0.x &&
+						bound.p0.y <= window.p1.y && bound.p1.y >= window.p0.y;
+				assertEquals(expected, matched[i]);
+			}
+		}
+	}
+
+	@Test
+	public void findNearestCandidate() {
+		List<Polygon2D_F64> polygons = new ArrayList<Polygon2D_F64>();
+		polygons.add(new Polygon2D_F64(0, 0, 1, 0, 1, 1));
+		polygons.add(new Polygon2D_F64(5, 0, 6, 0, 6, 1));
+
+		PolygonIndex2D_F64 alg = new PolygonIndex2D_F64();
+		alg.build(polygons);
+
+		assertEquals(0, alg.findNearestCandidate(new Point2D_F64(2, 0.5), Double.MAX_VALUE));
+		assertEquals(1, alg.findNearestCandidate(new Point2D_F64(4, 0.5), Double.MAX_VALUE));
+		assertEquals(-1, alg.findNearestCandidate(new Point2D_F64(3, 0.5), 1));
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreparedPolygon2D_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Creates a star shaped polygon with a random radius at each vertex, which will be concave.
+	 */
+	private Polygon2D_F32 createStar( int N , boolean convex ) {
+		Polygon2D_F32 poly = new Polygon2D_F32(N);
+		float offset = rand.nextFloat();
+		for (int i = 0; i < N; i++) {
+			float theta = (float)Math.PI*2*i/N + offset;
+			float r = convex ? 2.0f : 0.5f + rand.nextFloat()*1.5f;
+			float x = (float)Math.cos(theta)*r + 0.5f;
+			float y = (float)Math.sin(theta)*r - 0.2f;
+			poly.get(i).set(x, y);
+		}
+		if( rand.nextBoolean() )
+			poly.flip();
+		return poly;
+	}
+
+	@Test
+	public void contains_concave() {
+		PreparedPolygon2D_F32 alg = new PreparedPolygon2D_F32();
+		for( int N : new int[]{3,4,10,100,1000} ) {
+			Polygon2D_F32 poly = createStar(N, false);
+			alg.setPolygon(poly);
+
+			int inside = 0;
+			for (int trial = 0; trial < 2000; trial++) {
+				Point2D_F32 p = new Point2D_F32(rand.nextFloat()*5-2, rand.nextFloat()*5-2.7f);
+				boolean expected = Intersection2D_F32.containConcave(poly, p);
+				assertEquals(expected, alg.contains(p));
+				if( expected )
+					inside++;
+			}
+			// make sure the test isn't trivial
+			assertTrue(inside > 100);
+		}
+	}
+
+	@Test
+	public void contains_convex() {
+		PreparedPolygon2D_F32 alg = new PreparedPolygon2D_F32();
+		for( int N : new int[]{3,5,50} ) {
+			Polygon2D_F32 poly = createStar(N, true);
+			alg.setPolygon(poly);
+
+			// each slab in a convex polygon is crossed by two edges
+			assertEquals(alg.getSlabCount()*2, alg.getEdgeEntries());
+
+			for (int trial = 0; trial < 2000; trial++) {
+				Point2D_F32 p = new Point2D_F32(rand.nextFloat()*5-2, rand.nextFloat()*5-2.7f);
+				boolean expected = Intersection2D_F32.containConvex(poly, p);
+				assertEquals(expected, Intersection2D_F32.containConcave(poly, p));
+				assertEquals(expected, alg.contains(p));
+			}
+		}
+	}
+
+	/**
+	 * Points which lie on a slab boundary
+	 */
+	@Test
+	public void contains_slabBoundary() {
+		Polygon2D_F32 poly = createStar(30, false);
+		PreparedPolygon2D_F32 alg = new PreparedPolygon2D_F32(poly);
+
+		for (int i = 0; i < poly.size(); i++) {
+			float y = poly.get(i).y;
+			for (int trial = 0; trial < 50; trial++) {
+				Point2D_F32 p = new Point2D_F32(rand.nextFloat()*5-2, y);
+				assertEquals(Intersection2D_F32.containConcave(poly, p), alg.contains(p));
+			}
+		}
+	}
+
+	@Test
+	public void contains_rectangle() {
+		Polygon2D_F32 poly = new Polygon2D_F32(-1,-1, 1,-1, 1,1, -1,1);
+		PreparedPolygon2D_F32 alg = new PreparedPolygon2D_F32(poly);
+
+		assertTrue(alg.contains(0, 0));
+		assertTrue(alg.contains(0.9f, -0.9f));
+
+		assertFalse(alg.contains(2, 0));
+		assertFalse(alg.contains(-2, 0));
+		assertFalse(alg.contains(0, 2));
+		assertFalse(alg.contains(0, -2));
+	}
+
+	/**
+	 * Polygons without area and reusing the same instance for a smaller polygon
+	 */
+	@Test
+	public void setPolygon_degenerate() {
+		PreparedPolygon2D_F32 alg = new PreparedPolygon2D_F32(createStar(100, false));
+
+		alg.setPolygon(new Polygon2D_F32(0));
+		assertEquals(0, alg.getSlabCount());
+		assertFalse(alg.contains(0, 0));
+
+		// all the points lie along a horizontal line
+		alg.setPolygon(new Polygon2D_F32(0,1, 2,1, 4,1));
+		assertEquals(0, alg.getSlabCount());
+		assertFalse(alg.contains(1, 1));
+
+		Polygon2D_F32 triangle = new Polygon2D_F32(0,0, 4,0, 0,4);
+		alg.setPolygon(triangle);
+		assertEquals(1, alg.getSlabCount());
+		assertTrue(alg.contains(1, 1));
+		assertFalse(alg.contains(3, 3));
+	}
+
+	@Test
+	public void getBounding() {
+		PreparedPolygon2D_F32 alg = new PreparedPolygon2D_F32(new Polygon2D_F32(3,0, 2,-3, -2,3, 1,5, 0,1));
+
+		Rectangle2D_F32 r = new Rectangle2D_F32();
+		alg.getBounding(r);
+
+		assertEquals(-2, r.p0.x, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-3, r.p0.y, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(3, r.p1.x, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(5, r.p1.y, GrlConstants.FLOAT_TEST_TOL);
+	}
+}
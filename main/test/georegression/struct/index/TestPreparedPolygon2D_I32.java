@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.metric.Intersection2D_I32;
+import georegression.struct.point.Point2D_I32;
+import georegression.struct.shapes.Polygon2D_I32;
+import georegression.struct.shapes.Rectangle2D_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreparedPolygon2D_I32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Creates a star shaped polygon with a random radius at each vertex, which will be concave.
+	 */
+	private Polygon2D_I32 createStar( int N ) {
+		Polygon2D_I32 poly = new Polygon2D_I32(N);
+		double offset = rand.nextDouble();
+		boolean reverse = rand.nextBoolean();
+		for (int i = 0; i < N; i++) {
+			double theta = Math.PI*2*i/N + offset;
+			double r = 10 + rand.nextDouble()*30;
+			int index = reverse ? N-1-i : i;
+			poly.vertexes.data[index].set((int)(Math.cos(theta)*r) + 5, (int)(Math.sin(theta)*r) - 3);
+		}
+		return poly;
+	}
+
+	/**
+	 * Compare against every pixel inside and around the polygon, which includes a lot of points on the perimeter
+	 */
+	@Test
+	public void contains_concave() {
+		PreparedPolygon2D_I32 alg = new PreparedPolygon2D_I32();
+		for( int N : new int[]{3,4,10,50} ) {
+			Polygon2D_I32 poly = createStar(N);
+			alg.setPolygon(poly);
+
+			Point2D_I32 p = new Point2D_I32();
+			int inside = 0;
+			for (int y = -45; y <= 45; y++) {
+				for (int x = -45; x <= 45; x++) {
+					p.set(x, y);
+					boolean expected = Intersection2D_I32.containConcave(poly, p);
+					assertEquals(expected, alg.contains(p));
+					if( expected )
+						inside++;
+				}
+			}
+			assertTrue(inside > 100);
+		}
+	}
+
+	@Test
+	public void contains_rectangle() {
+		Polygon2D_I32 poly = new Polygon2D_I32(4);
+		poly.vertexes.data[0].set(-10, -10);
+		poly.vertexes.data[1].set(10, -10);
+		poly.vertexes.data[2].set(10, 10);
+		poly.vertexes.data[3].set(-10, 10);
+		PreparedPolygon2D_I32 alg = new PreparedPolygon2D_I32(poly);
+
+		assertTrue(alg.contains(0, 0));
+		assertTrue(alg.contains(9, -9));
+
+		assertFalse(alg.contains(20, 0));
+		assertFalse(alg.contains(-20, 0));
+		assertFalse(alg.contains(0, 20));
+		assertFalse(alg.contains(0, -20));
+	}
+
+	/**
+	 * Polygons without area and reusing the same instance for a smaller polygon
+	 */
+	@Test
+	public void setPolygon_degenerate() {
+		PreparedPolygon2D_I32 alg = new PreparedPolygon2D_I32(createStar(50));
+
+		alg.setPolygon(new Polygon2D_I32(0));
+		assertEquals(0, alg.getSlabCount());
+		assertFalse(alg.contains(0, 0));
+
+		Polygon2D_I32 triangle = new Polygon2D_I32(3);
+		triangle.vertexes.data[0].set(0, 0);
+		triangle.vertexes.data[1].set(40, 0);
+		triangle.vertexes.data[2].set(0, 40);
+		alg.setPolygon(triangle);
+		assertEquals(1, alg.getSlabCount());
+		assertTrue(alg.contains(10, 10));
+		assertFalse(alg.contains(30, 30));
+	}
+
+	@Test
+	public void getBounding() {
+		Polygon2D_I32 poly = new Polygon2D_I32(3);
+		poly.vertexes.data[0].set(3, -3);
+		poly.vertexes.data[1].set(-2, 1);
+		poly.vertexes.data[2].set(1, 5);
+		PreparedPolygon2D_I32 alg = new PreparedPolygon2D_I32(poly);
+
+		Rectangle2D_I32 r = new Rectangle2D_I32();
+		alg.getBounding(r);
+
+		assertEquals(-2, r.x0);
+		assertEquals(-3, r.y0);
+		assertEquals(4, r.x1);
+		assertEquals(6, r.y1);
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.index;
+
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRTree2D_F64 {
+
+	Random rand = new Random(234);
+
+	private List<Rectangle2D_F64> createRectangles( int N ) {
+		List<Rectangle2D_F64> rectangles = new ArrayList<Rectangle2D_F64>();
+		for (int i = 0; i < N; i++) {
+			double x = rand.nextDouble()*20-10;
+			double y = rand.nextDouble()*10-5;
+			rectangles.add(new Rectangle2D_F64(x, y, x + rand.nextDouble(), y + rand.nextDouble()*0.5));
+		}
+		// add a few duplicates
+		for (int i = 0; i < N/10; i++) {
+			Rectangle2D_F64 r = rectangles.get(rand.nextInt(N));
+			rectangles.add(new Rectangle2D_F64(r.p0.x, r.p0.y, r.p1.x, r.p1.y));
+		}
+		return rectangles;
+	}
+
+	@Test
+	public void findIntersecting() {
+		for( int maxEntries : new int[]{2,4,16} ) {
+			List<Rectangle2D_F64> rectangles = createRectangles(500);
+
+			RTree2D_F64 alg = new RTree2D_F64(maxEntries);
+			alg.build(rectangles);
+			assertEquals(rectangles.size(), alg.size());
+
+			GrowQueue_I32 found = new GrowQueue_I32();
+			for (int trial = 0; trial < 200; trial++) {
+				double x = rand.nextDouble()*24-12;
+				double y = rand.nextDouble()*12-6;
+				Rectangle2D_F64 window = new Rectangle2D_F64(x, y, x + rand.nextDouble()*3, y + rand.nextDouble()*3);
+
+				alg.findIntersecting(window, found);
+
+				boolean matched[] = new boolean[rectangles.size()];
+				for (int i = 0; i < found.size; i++) {
+					assertFalse(matched[found.get(i)]);
+					matched[found.get(i)] = true;
+				}
+				for (int i = 0; i < rectangles.size(); i++) {
+					Rectangle2D_F64 r = rectangles.get(i);
+					boolean expected = r.p0.x <= window.p1.x && r.p1.x >= window.p0.x &&
+							r.p0.y <= window.p1.y && r.p1.y >= window.p0.y;
+					assertEquals(expected, matched[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rectangles which only touch the window are included
+	 */
+	@Test
+	public void findIntersecting_touching() {
+		List<Rectangle2D_F64> rectangles = new ArrayList<Rectangle2D_F64>();
+		rectangles.add(new Rectangle2D_F64(0, 0, 1, 1));
+		rectangles.add(new Rectangle2D_F64(2, 0, 3, 1));
+
+		RTree2D_F64 alg = new RTree2D_F64();
+		alg.build(rectangles);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		alg.findIntersecting(1, 0.5, 2, 0.6, found);
+		assertEquals(2, found.size);
+		alg.findIntersecting(1.1, 0.5, 1.9, 0.6, found);
+		assertEquals(0, found.size);
+	}
+
+	@Test
+	public void findContaining() {
+		List<Rectangle2D_F64> rectangles = createRectangles(500);
+
+		RTree2D_F64 alg = new RTree2D_F64();
+		alg.build(rectangles);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		for (int trial = 0; trial < 200; trial++) {
+			Point2D_F64 p = new Point2D_F64(rand.nextDouble()*24-12, rand.nextDouble()*12-6);
+
+			alg.findContaining(p, found);
+
+			boolean matched[] = new boolean[rectangles.size()];
+			for (int i = 0; i < found.size; i++) {
+				matched[found.get(i)] = true;
+			}
+			int total = 0;
+			for (int i = 0; i < rectangles.size(); i++) {
+				Rectangle2D_F64 r = rectangles.get(i);
+				boolean expected = r.p0.x <= p.x && r.p1.x >= p.x && r.p0.y <= p.y && r.p1.y >= p.y;
+				assertEquals(expected, matched[i]);
+				if( expected )
+					total++;
+			}
+			assertEquals(total, found.size);
+		}
+	}
+
+	@Test
+	public void findNearest() {
+		List<Rectangle2D_F64> rectangles = createRectangles(500);
+
+		RTree2D_F64 alg = new RTree2D_F64();
+		alg.build(rectangles);
+
+		for (int trial = 0; trial < 200; trial++) {
+			Point2D_F64 q = new Point2D_F64(rand.nextDouble()*30-15, rand.nextDouble()*16-8);
+			double expected = sortedDistance2(rectangles, q)[0];
+
+			int found = alg.findNearest(q, Double.MAX_VALUE);
+			assertEquals(expected, distance2(rectangles.get(found), q), 0);
+
+			// limit the distance
+			double limit = 0.3;
+			found = alg.findNearest(q, limit);
+			if( expected <= limit*limit )
+				assertEquals(expected, distance2(rectangles.get(found), q), 0);
+			else
+				assertEquals(-1, found);
+		}
+	}
+
+	@Test
+	public void findNearest_K() {
+		List<Rectangle2D_F64> rectangles = createRectangles(500);
+
+		RTree2D_F64 alg = new RTree2D_F64();
+		alg.build(rectangles);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		GrowQueue_F64 distances = new GrowQueue_F64();
+
+		int[] ks = new int[]{1, 5, 20, rectangles.size()+10};
+		for (int k : ks) {
+			for (int trial = 0; trial < 50; trial++) {
+				Point2D_F64 q = new Point2D_F64(rand.nextDouble()*30-15, rand.nextDouble()*16-8);
+
+				double expected[] = sortedDistance2(rectangles, q);
+
+				alg.findNearest(q, Double.MAX_VALUE, k, indexes, distances);
+				int N = k < rectangles.size() ? k : rectangles.size();
+				assertEquals(N, indexes.size);
+				assertEquals(N, distances.size);
+				for (int i = 0; i < N; i++) {
+					assertEquals(expected[i], distances.get(i), 0);
+					assertEquals(distances.get(i), distance2(rectangles.get(indexes.get(i)), q), 0);
+				}
+
+				// only rectangles within the maximum distance
+				double limit = 1.0;
+				alg.findNearest(q, limit, k, indexes, distances);
+				int count = 0;
+				while( count < N && expected[count] <= limit*limit )
+					count++;
+				assertEquals(count, indexes.size);
+				for (int i = 0; i < count; i++) {
+					assertEquals(expected[i], distances.get(i), 0);
+				}
+			}
+		}
+
+		// no neighbors requested
+		alg.findNearest(new Point2D_F64(), Double.MAX_VALUE, 0, indexes, distances);
+		assertEquals(0, indexes.size);
+	}
+
+	/**
+	 * Building from a list and a packed array should produce the same tree
+	 */
+	@Test
+	public void build_inputs() {
+		List<Rectangle2D_F64> rectangles = createRectangles(300);
+
+		RTree2D_F64 expected = new RTree2D_F64();
+		expected.build(rectangles);
+
+		double packed[] = new double[3 + rectangles.size()*4];
+		for (int i = 0; i < rectangles.size(); i++) {
+			Rectangle2D_F64 r = rectangles.get(i);
+			packed[3+i*4  ] = r.p0.x;
+			packed[3+i*4+1] = r.p0.y;
+			packed[3+i*4+2] = r.p1.x;
+			packed[3+i*4+3] = r.p1.y;
+		}
+		RTree2D_F64 found = new RTree2D_F64();
+		found.build(packed, 3, rectangles.size());
+
+		assertEquals(expected.numNodes, found.numNodes);
+		assertEquals(expected.numLeaves, found.numLeaves);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.itemIds[i], found.itemIds[i]);
+		}
+		for (int i = 0; i < expected.numNodes*4; i++) {
+			assertEquals(expected.nodeBoxes[i], found.nodeBoxes[i], 0);
+		}
+	}
+
+	/**
+	 * Each rectangle should appear once, nodes should not be overfull, and node bounding boxes should be tight
+	 */
+	@Test
+	public void build_structure() {
+		List<Rectangle2D_F64> rectangles = createRectangles(1000);
+
+		RTree2D_F64 alg = new RTree2D_F64(8);
+		alg.build(rectangles);
+
+		// each rectangle is in the tree once
+		boolean seen[] = new boolean[rectangles.size()];
+		for (int i = 0; i < alg.size(); i++) {
+			assertFalse(seen[alg.itemIds[i]]);
+			seen[alg.itemIds[i]] = true;
+		}
+
+		// every rectangle and node can be reached from the root
+		int root = alg.numNodes-1;
+		assertEquals(alg.size(), checkNode(alg, root, rectangles));
+		assertEquals(alg.numNodes, countNodes(alg, root));
+	}
+
+	private int checkNode( RTree2D_F64 alg , int node , List<Rectangle2D_F64> rectangles ) {
+		assertTrue(alg.nodeCount[node] <= alg.getMaxEntries());
+		assertTrue(alg.nodeCount[node] > 0);
+
+		double boxes[] = node < alg.numLeaves ? alg.itemBoxes : alg.nodeBoxes;
+		double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE, x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+		int total = 0;
+		for (int i = alg.nodeFirst[node]; i < alg.nodeFirst[node]+alg.nodeCount[node]; i++) {
+			x0 = Math.min(x0, boxes[i*4]);
+			y0 = Math.min(y0, boxes[i*4+1]);
+			x1 = Math.max(x1, boxes[i*4+2]);
+			y1 = Math.max(y1, boxes[i*4+3]);
+			if( node < alg.numLeaves ) {
+				Rectangle2D_F64 r = rectangles.get(alg.itemIds[i]);
+				assertEquals(r.p0.x, boxes[i*4], 0);
+				assertEquals(r.p1.y, boxes[i*4+3], 0);
+				total++;
+			} else {
+				assertTrue(i < node);
+				total += checkNode(alg, i, rectangles);
+			}
+		}
+		assertEquals(x0, alg.nodeBoxes[node*4], 0);
+		assertEquals(y0, alg.nodeBoxes[node*4+1], 0);
+		assertEquals(x1, alg.nodeBoxes[node*4+2], 0);
+		assertEquals(y1, alg.nodeBoxes[node*4+3], 0);
+		return total;
+	}
+
+	private int countNodes( RTree2D_F64 alg , int node ) {
+		if( node < alg.numLeaves )
+			return 1;
+		int total = 1;
+		for (int i = alg.nodeFirst[node]; i < alg.nodeFirst[node]+alg.nodeCount[node]; i++) {
+			total += countNodes(alg, i);
+		}
+		return total;
+	}
+
+	/**
+	 * Empty and single rectangle trees and rebuilding a tree with fewer rectangles
+	 */
+	@Test
+	public void build_small() {
+		RTree2D_F64 alg = new RTree2D_F64();
+		GrowQueue_I32 found = new GrowQueue_I32();
+		GrowQueue_F64 distances = new GrowQueue_F64();
+
+		alg.build(createRectangles(200));
+		alg.build(new ArrayList<Rectangle2D_F64>());
+		assertEquals(0, alg.size());
+		alg.findIntersecting(-100, -100, 100, 100, found);
+		assertEquals(0, found.size);
+		assertEquals(-1, alg.findNearest(0, 0, Double.MAX_VALUE));
+		alg.findNearest(0, 0, Double.MAX_VALUE, 3, found, distances);
+		assertEquals(0, found.size);
+
+		List<Rectangle2D_F64> rectangles = new ArrayList<Rectangle2D_F64>();
+		rectangles.add(new Rectangle2D_F64(1, 2, 3, 4));
+		alg.build(rectangles);
+		assertEquals(1, alg.size());
+		alg.findContaining(2, 3, found);
+		assertEquals(1, found.size);
+		assertEquals(0, found.get(0));
+		assertEquals(0, alg.findNearest(10, 10, Double.MAX_VALUE));
+		assertEquals(-1, alg.findNearest(10, 10, 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_badMaxEntries() {
+		new RTree2D_F64(1);
+	}
+
+	private static double distance2( Rectangle2D_F64 r , Point2D_F64 p ) {
+		double dx = Math.max(0, Math.max(r.p0.x - p.x, p.x - r.p1.x));
+		double dy = Math.max(0, Math.max(r.p0.y - p.y, p.y - r.p1.y));
+		return dx*dx + dy*dy;
+	}
+
+	private static double[] sortedDistance2( List<Rectangle2D_F64> rectangles , Point2D_F64 p ) {
+		double out[] = new double[rectangles.size()];
+		for (int i = 0; i < rectangles.size(); i++) {
+			out[i] = distance2(rectangles.get(i), p);
+		}
+		Arrays.sort(out);
+		return out;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.point;
+
+import georegression.geometry.UtilPoint3D_F32;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedPoint3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void add() {
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32(2);
+
+		// should grow past the initial capacity
+		for (int i = 0; i < 25; i++) {
+			alg.add(i,i+1,i+2);
+		}
+
+		assertEquals(25,alg.size());
+		for (int i = 0; i < 25; i++) {
+			assertTrue(alg.getTemp(i).isIdentical(i,i+1,i+2));
+		}
+	}
+
+	@Test
+	public void addAll() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-1,1,20,rand);
+
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32(2);
+		alg.add(1,2,3);
+		alg.addAll(list);
+
+		assertEquals(21,alg.size());
+		assertTrue(alg.get(0,null).isIdentical(1,2,3));
+		for (int i = 0; i < list.size(); i++) {
+			Point3D_F32 p = list.get(i);
+			assertTrue(alg.getTemp(i+1).isIdentical(p.x,p.y,p.z));
+			assertEquals(p.x,alg.getX(i+1),0);
+			assertEquals(p.y,alg.getY(i+1),0);
+			assertEquals(p.z,alg.getZ(i+1),0);
+		}
+	}
+
+	@Test
+	public void reserve() {
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32(2);
+		alg.add(1,2,3);
+		alg.reserve(30);
+
+		assertTrue(alg.data.length >= 90);
+		assertEquals(1,alg.size());
+		assertTrue(alg.getTemp(0).isIdentical(1,2,3));
+	}
+
+	@Test
+	public void set() {
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32();
+		alg.resize(3);
+		alg.set(1,4,5,6);
+		alg.set(2,new Point3D_F32(7,8,9));
+
+		assertTrue(alg.getTemp(1).isIdentical(4,5,6));
+		assertTrue(alg.getTemp(2).isIdentical(7,8,9));
+	}
+
+	@Test
+	public void getTemp_recycled() {
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32();
+		alg.add(1,2,3);
+		alg.add(4,5,6);
+
+		Point3D_F32 a = alg.getTemp(0);
+		Point3D_F32 b = alg.getTemp(1);
+
+		assertTrue(a == b);
+		assertTrue(b.isIdentical(4,5,6));
+	}
+
+	@Test
+	public void setTo_copy() {
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32();
+		alg.addAll(UtilPoint3D_F32.random(-1,1,20,rand));
+
+		PackedPoint3D_F32 found = alg.copy();
+		assertEquals(alg.size(),found.size());
+		for (int i = 0; i < alg.size*3; i++) {
+			assertEquals(alg.data[i],found.data[i],0);
+		}
+
+		alg.reset();
+		assertEquals(0,alg.size());
+		assertEquals(20,found.size());
+	}
+
+	@Test
+	public void toList() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-1,1,20,rand);
+
+		PackedPoint3D_F32 alg = new PackedPoint3D_F32();
+		alg.addAll(list);
+
+		List<Point3D_F32> found = alg.toList();
+		assertEquals(list.size(),found.size());
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(0,list.get(i).distance(found.get(i)),0);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package georegression.struct.se;
+
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.GenericInvertibleTransformTests_F64;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point3D_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSe3Fixed_F64 extends GenericInvertibleTransformTests_F64<Point3D_F64> {
+
+	Random rand = new Random( 234234 );
+
+	@Test
+	public void set_get_Se3() {
+		Se3_F64 expected = createRandomSe3();
+
+		Se3Fixed_F64 alg = new Se3Fixed_F64(expected);
+		Se3_F64 found = alg.get(null);
+
+		GeometryUnitTest.assertEquals(expected, found, GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Compare against the results of the Se3_F64 implementation
+	 */
+	@Test
+	public void concat_compare() {
+		Se3_F64 a = createRandomSe3();
+		Se3_F64 b = createRandomSe3();
+
+		Se3_F64 expected = a.concat(b,null);
+		Se3Fixed_F64 found = new Se3Fixed_F64(a).concat(new Se3Fixed_F64(b),null);
+
+		GeometryUnitTest.assertEquals(expected, found.get(null),
+				GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * The output is allowed to be the same instance as one of the inputs
+	 */
+	@Test
+	public void concat_aliased() {
+		Se3_F64 a = createRandomSe3();
+		Se3_F64 b = createRandomSe3();
+		Se3_F64 expected = a.concat(b,null);
+
+		Se3Fixed_F64 fa = new Se3Fixed_F64(a);
+		Se3Fixed_F64 fb = new Se3Fixed_F64(b);
+		fa.concat(fb,fa);
+		GeometryUnitTest.assertEquals(expected, fa.get(null),
+				GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL);
+
+		fa = new Se3Fixed_F64(a);
+		fa.concat(fb,fb);
+		GeometryUnitTest.assertEquals(expected, fb.get(null),
+				GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void invert_aliased() {
+		Se3_F64 a = createRandomSe3();
+		Se3_F64 expected = a.invert(null);
+
+		Se3Fixed_F64 fa = new Se3Fixed_F64(a);
+		fa.invert(fa);
+
+		GeometryUnitTest.assertEquals(expected, fa.get(null),
+				GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Override
+	public Point3D_F64 createRandomPoint() {
+		return new Point3D_F64( rand.nextGaussian() * 3,
+				rand.nextGaussian() * 3, rand.nextGaussian() * 3 );
+	}
+
+	@Override
+	public SpecialEuclidean createRandomTransform() {
+		return new Se3Fixed_F64(createRandomSe3());
+	}
+
+	private Se3_F64 createRandomSe3() {
+		double rotX = (double) ( ( rand.nextDouble() - 0.5 ) * 2.0 * Math.PI );
+		double rotY = (double) ( ( rand.nextDouble() - 0.5 ) * 2.0 * Math.PI );
+		double rotZ = (double) ( ( rand.nextDouble() - 0.5 ) * 2.0 * Math.PI );
+		double x = (double) ( rand.nextGaussian() * 2 );
+		double y = (double) ( rand.nextGaussian() * 2 );
+		double z = (double) ( rand.nextGaussian() * 2 );
+
+		return SpecialEuclideanOps_F64.setEulerXYZ( rotX, rotY, rotZ, x, y, z, null );
+	}
+
+	@Override
+	public Point3D_F64 apply( InvertibleTransform se, Point3D_F64 point, Point3D_F64 result ) {
+		return SePointOps_F64.transform( (Se3Fixed_F64) se, point, result );
+	}
+}
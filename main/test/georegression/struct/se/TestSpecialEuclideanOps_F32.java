@@ -21,6 +21,7 @@ package georegression.struct.se;
 import georegression.geometry.ConvertRotation3D_F32;
 import georegression.geometry.GeometryMath_F32;
 import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.EulerType;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.point.Point2D_F32;
@@ -118,6 +119,40 @@ public class TestSpecialEuclideanOps_F32 {
 		assertTrue( MatrixFeatures.isIdentical( se.getR(), found.getR(), GrlConstants.FLOAT_TEST_TOL ) );
 	}
 
+	@Test
+	public void convert_Se3Fixed() {
+		Se3_F32 se = SpecialEuclideanOps_F32.setEulerXYZ( 0.1f, 2, -0.3f, 2, -3, 4.4f, null );
+
+		Se3Fixed_F32 fixed = SpecialEuclideanOps_F32.convert( se, (Se3Fixed_F32)null );
+		Se3_F32 found = SpecialEuclideanOps_F32.convert( fixed, (Se3_F32)null );
+
+		GeometryUnitTest.assertEquals( se, found, GrlConstants.FLOAT_TEST_TOL, GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	@Test
+	public void toHomogeneous_Se3Fixed() {
+		Se3_F32 se = SpecialEuclideanOps_F32.setEulerXYZ( 0.1f, 2, -0.3f, 2, -3, 4.4f, null );
+
+		DenseMatrix64F expected = SpecialEuclideanOps_F32.toHomogeneous( se, null );
+		// provide a matrix which is filled with garbage
+		DenseMatrix64F found = new DenseMatrix64F(4,4);
+		CommonOps.fill(found, 2);
+		SpecialEuclideanOps_F32.toHomogeneous( new Se3Fixed_F32(se), found );
+
+		assertTrue( MatrixFeatures.isIdentical( expected, found, GrlConstants.FLOAT_TEST_TOL ) );
+	}
+
+	@Test
+	public void toSe3Fixed() {
+		Se3_F32 se = SpecialEuclideanOps_F32.setEulerXYZ( 0.1f, 2, -0.3f, 2, -3, 4.4f, null );
+
+		DenseMatrix64F H = SpecialEuclideanOps_F32.toHomogeneous( se, null );
+
+		Se3Fixed_F32 found = SpecialEuclideanOps_F32.toSe3Fixed( H, null );
+
+		GeometryUnitTest.assertEquals( se, found.get(null), GrlConstants.FLOAT_TEST_TOL, GrlConstants.FLOAT_TEST_TOL );
+	}
+
 	@Test
 	public void toSe2() {
 		Se2_F32 se = new Se2_F32( -3, 6.9f, -1.3f );
@@ -21,6 +21,7 @@ package georegression.struct.se;
 import georegression.geometry.ConvertRotation3D_F64;
 import georegression.geometry.GeometryMath_F64;
 import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.EulerType;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F64;
@@ -118,6 +119,40 @@ public class TestSpecialEuclideanOps_F64 {
 		assertTrue( MatrixFeatures.isIdentical( se.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL ) );
 	}
 
+	@Test
+	public void convert_Se3Fixed() {
+		Se3_F64 se = SpecialEuclideanOps_F64.setEulerXYZ( 0.1, 2, -0.3, 2, -3, 4.4, null );
+
+		Se3Fixed_F64 fixed = SpecialEuclideanOps_F64.convert( se, (Se3Fixed_F64)null );
+		Se3_F64 found = SpecialEuclideanOps_F64.convert( fixed, (Se3_F64)null );
+
+		GeometryUnitTest.assertEquals( se, found, GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	@Test
+	public void toHomogeneous_Se3Fixed() {
+		Se3_F64 se = SpecialEuclideanOps_F64.setEulerXYZ( 0.1, 2, -0.3, 2, -3, 4.4, null );
+
+		DenseMatrix64F expected = SpecialEuclideanOps_F64.toHomogeneous( se, null );
+		// provide a matrix which is filled with garbage
+		DenseMatrix64F found = new DenseMatrix64F(4,4);
+		CommonOps.fill(found, 2);
+		SpecialEuclideanOps_F64.toHomogeneous( new Se3Fixed_F64(se), found );
+
+		assertTrue( MatrixFeatures.isIdentical( expected, found, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Test
+	public void toSe3Fixed() {
+		Se3_F64 se = SpecialEuclideanOps_F64.setEulerXYZ( 0.1, 2, -0.3, 2, -3, 4.4, null );
+
+		DenseMatrix64F H = SpecialEuclideanOps_F64.toHomogeneous( se, null );
+
+		Se3Fixed_F64 found = SpecialEuclideanOps_F64.toSe3Fixed( H, null );
+
+		GeometryUnitTest.assertEquals( se, found.get(null), GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL );
+	}
+
 	@Test
 	public void toSe2() {
 		Se2_F64 se = new Se2_F64( -3, 6.9, -1.3 );
@@ -18,12 +18,18 @@
 
 package georegression.transform.affine;
 
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.PackedPoint2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Vector2D_F64;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 
@@ -73,4 +79,56 @@ public class TestAffinePointOps_F64 {
 		assertEquals(expectedX,found.x, GrlConstants.DOUBLE_TEST_TOL);
 		assertEquals(expectedY, found.y, GrlConstants.DOUBLE_TEST_TOL);
 	}
+
+	@Test
+	public void transform_packed() {
+		Affine2D_F64 transform = new Affine2D_F64(1,2,3,4,5,6);
+
+		List<Point2D_F64> list = UtilPoint2D_F64.random(-10,10,20,new Random(234));
+		PackedPoint2D_F64 packed = new PackedPoint2D_F64();
+		packed.addAll(list);
+
+		double dst[] = new double[ 1 + list.size()*2 ];
+		AffinePointOps_F64.transform(transform,packed.data,0,dst,1,list.size());
+
+		Point2D_F64 expected = new Point2D_F64();
+		for (int i = 0; i < list.size(); i++) {
+			AffinePointOps_F64.transform(transform,list.get(i),expected);
+			assertEquals(expected.x,dst[1+i*2], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected.y,dst[1+i*2+1], GrlConstants.DOUBLE_TEST_TOL);
+		}
+
+		// in place
+		AffinePointOps_F64.transform(transform,packed,packed);
+		for (int i = 0; i < list.size(); i++) {
+			AffinePointOps_F64.transform(transform,list.get(i),expected);
+			assertEquals(0,expected.distance(packed.getTemp(i)), GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void transform_concurrent() {
+		Affine2D_F64 transform = new Affine2D_F64(1,2,3,4,5,6);
+		Random rand = new Random(234);
+		double src[] = new double[ 1000*2 ];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rand.nextDouble()*20-10;
+		}
+		double expected[] = new double[ src.length ];
+		double found[] = new double[ src.length ];
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			AffinePointOps_F64.transform(transform,src,0,expected,0,1000);
+			AffinePointOps_F64.transformConcurrent(transform,src,0,found,0,1000);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		// results should be identical to the single threaded version
+		for (int i = 0; i < src.length; i++) {
+			assertEquals(expected[i],found[i],0);
+		}
+	}
 }
@@ -19,13 +19,17 @@
 package georegression.transform.homography;
 
 import georegression.geometry.GeometryMath_F32;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.homography.Homography2D_F32;
 import georegression.struct.homography.UtilHomography;
+import georegression.struct.point.PackedPoint2D_F32;
 import georegression.struct.point.Point2D_F32;
 import org.ejml.data.DenseMatrix64F;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
@@ -82,4 +86,53 @@ public class TestHomographyPointOps_F32 {
 		assertEquals(expected.x,dst.x, GrlConstants.FLOAT_TEST_TOL);
 		assertEquals(expected.y,dst.y, GrlConstants.FLOAT_TEST_TOL);
 	}
+
+	@Test
+	public void transform_packed() {
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-10,10,20,new Random(234));
+		PackedPoint2D_F32 packed = new PackedPoint2D_F32();
+		packed.addAll(list);
+
+		float dst[] = new float[ 1 + list.size()*2 ];
+		HomographyPointOps_F32.transform(tran,packed.data,0,dst,1,list.size());
+
+		Point2D_F32 expected = new Point2D_F32();
+		for (int i = 0; i < list.size(); i++) {
+			HomographyPointOps_F32.transform(tran,list.get(i),expected);
+			assertEquals(expected.x,dst[1+i*2], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y,dst[1+i*2+1], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		// in place
+		HomographyPointOps_F32.transform(tran,packed,packed);
+		for (int i = 0; i < list.size(); i++) {
+			HomographyPointOps_F32.transform(tran,list.get(i),expected);
+			assertEquals(0,expected.distance(packed.getTemp(i)), GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void transform_concurrent() {
+		Random rand = new Random(234);
+		float src[] = new float[ 1000*2 ];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rand.nextFloat()*20-10;
+		}
+		float expected[] = new float[ src.length ];
+		float found[] = new float[ src.length ];
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			HomographyPointOps_F32.transform(tran,src,0,expected,0,1000);
+			HomographyPointOps_F32.transformConcurrent(tran,src,0,found,0,1000);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		// results should be identical to the single threaded version
+		for (int i = 0; i < src.length; i++) {
+			assertEquals(expected[i],found[i],0);
+		}
+	}
 }
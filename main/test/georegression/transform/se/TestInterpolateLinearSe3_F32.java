@@ -22,6 +22,7 @@ import georegression.geometry.ConvertRotation3D_F32;
 import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.EulerType;
+import georegression.struct.se.Se3Fixed_F32;
 import georegression.struct.se.Se3_F32;
 import org.ejml.ops.MatrixFeatures;
 import org.junit.Test;
@@ -125,6 +126,32 @@ public class TestInterpolateLinearSe3_F32 {
 		}
 	}
 
+	/**
+	 * The Se3Fixed_F32 functions should produce the same results as the Se3_F32 functions
+	 */
+	@Test
+	public void compare_Se3Fixed() {
+		Se3_F32 a = create(1,2,3,    0.1f,-0.3f,0.2f);
+		Se3_F32 b = create(4,4,4,    0.9f,0.1f,-0.5f);
+		InterpolateLinearSe3_F32 alg = new InterpolateLinearSe3_F32();
+		InterpolateLinearSe3_F32 algFixed = new InterpolateLinearSe3_F32();
+
+		alg.setTransforms(a,b);
+		algFixed.setTransforms(new Se3Fixed_F32(a),new Se3Fixed_F32(b));
+
+		Se3_F32 expected = new Se3_F32();
+		Se3Fixed_F32 found = new Se3Fixed_F32();
+
+		for( int i = 0; i < 10; i++ ) {
+			float t = i / (float) 9;
+			alg.interpolate(t, expected);
+			algFixed.interpolate(t, found);
+
+			GeometryUnitTest.assertEquals(expected, found.get(null),
+					GrlConstants.FLOAT_TEST_TOL, GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
 	public static Se3_F32 create( float x , float y, float z,
 								  float rotX, float rotY , float rotZ ) {
 		Se3_F32 ret = new Se3_F32();
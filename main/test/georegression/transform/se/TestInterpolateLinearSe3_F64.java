@@ -22,6 +22,7 @@ import georegression.geometry.ConvertRotation3D_F64;
 import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.EulerType;
+import georegression.struct.se.Se3Fixed_F64;
 import georegression.struct.se.Se3_F64;
 import org.ejml.ops.MatrixFeatures;
 import org.junit.Test;
@@ -125,6 +126,32 @@ public class TestInterpolateLinearSe3_F64 {
 		}
 	}
 
+	/**
+	 * The Se3Fixed_F64 functions should produce the same results as the Se3_F64 functions
+	 */
+	@Test
+	public void compare_Se3Fixed() {
+		Se3_F64 a = create(1,2,3,    0.1,-0.3,0.2);
+		Se3_F64 b = create(4,4,4,    0.9,0.1,-0.5);
+		InterpolateLinearSe3_F64 alg = new InterpolateLinearSe3_F64();
+		InterpolateLinearSe3_F64 algFixed = new InterpolateLinearSe3_F64();
+
+		alg.setTransforms(a,b);
+		algFixed.setTransforms(new Se3Fixed_F64(a),new Se3Fixed_F64(b));
+
+		Se3_F64 expected = new Se3_F64();
+		Se3Fixed_F64 found = new Se3Fixed_F64();
+
+		for( int i = 0; i < 10; i++ ) {
+			double t = i / (double) 9;
+			alg.interpolate(t, expected);
+			algFixed.interpolate(t, found);
+
+			GeometryUnitTest.assertEquals(expected, found.get(null),
+					GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
 	public static Se3_F64 create( double x , double y, double z,
 								  double rotX, double rotY , double rotZ ) {
 		Se3_F64 ret = new Se3_F64();
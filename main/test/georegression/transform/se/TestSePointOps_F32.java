@@ -19,18 +19,25 @@
 package georegression.transform.se;
 
 import georegression.geometry.ConvertRotation3D_F32;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.EulerType;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.point.PackedPoint2D_F32;
+import georegression.struct.point.PackedPoint3D_F32;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3Fixed_F32;
 import georegression.struct.se.Se3_F32;
 import org.ejml.data.DenseMatrix64F;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -39,6 +46,8 @@ import static org.junit.Assert.assertEquals;
  */
 public class TestSePointOps_F32 {
 
+	Random rand = new Random(234);
+
 	@Test
 	public void transform_2d_single() {
 		Se2_F32 tran = new Se2_F32( -2, 3, (float)Math.PI );
@@ -162,4 +171,236 @@ public class TestSePointOps_F32 {
 		assertEquals( 7, Pt.getY(), GrlConstants.FLOAT_TEST_TOL );
 		assertEquals( 9, Pt.getZ(), GrlConstants.FLOAT_TEST_TOL );
 	}
+
+	@Test
+	public void transform_3d_Se3Fixed() {
+		DenseMatrix64F R = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, null );
+		Se3_F32 se = new Se3_F32( R, new Vector3D_F32( 1, 2, 3 ) );
+		Se3Fixed_F32 fixed = new Se3Fixed_F32(se);
+
+		Point3D_F32 P = new Point3D_F32( 1, 7, 9 );
+
+		Point3D_F32 expected = SePointOps_F32.transform( se, P, null );
+		Point3D_F32 found = SePointOps_F32.transform( fixed, P, null );
+		assertEquals( 0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL );
+
+		expected = SePointOps_F32.transformReverse( se, P, null );
+		found = SePointOps_F32.transformReverse( fixed, P, null );
+		assertEquals( 0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL );
+
+		// packed
+		float src[] = new float[]{1,7,9,-2,3,0.5f};
+		float dst[] = new float[6];
+		SePointOps_F32.transform( fixed, src, 0, dst, 0, 2 );
+		float expectedArray[] = new float[6];
+		SePointOps_F32.transform( se, src, 0, expectedArray, 0, 2 );
+		for (int i = 0; i < 6; i++) {
+			assertEquals( expectedArray[i], dst[i], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transform_2d_packed() {
+		Se2_F32 se = new Se2_F32( -2, 3, 0.4f );
+
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-10,10,20,rand);
+		PackedPoint2D_F32 packed = new PackedPoint2D_F32();
+		packed.addAll(list);
+
+		// use offsets to make sure they are handled correctly
+		float src[] = new float[ 2 + list.size()*2 ];
+		System.arraycopy(packed.data,0,src,2,list.size()*2);
+		float dst[] = new float[ 3 + list.size()*2 ];
+
+		SePointOps_F32.transform(se,src,2,dst,3,list.size());
+
+		Point2D_F32 expected = new Point2D_F32();
+		for (int i = 0; i < list.size(); i++) {
+			SePointOps_F32.transform(se,list.get(i),expected);
+			assertEquals(expected.x, dst[3+i*2], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, dst[3+i*2+1], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		// transform in place and go back to the original points
+		SePointOps_F32.transform(se,packed,packed);
+		SePointOps_F32.transformReverse(se,packed,packed);
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(0, list.get(i).distance(packed.getTemp(i)), GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void transformReverse_2d_packed() {
+		Se2_F32 se = new Se2_F32( -2, 3, 0.4f );
+
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-10,10,20,rand);
+		PackedPoint2D_F32 packed = new PackedPoint2D_F32();
+		packed.addAll(list);
+
+		float dst[] = new float[ list.size()*2 ];
+		SePointOps_F32.transformReverse(se,packed.data,0,dst,0,list.size());
+
+		Point2D_F32 expected = new Point2D_F32();
+		for (int i = 0; i < list.size(); i++) {
+			SePointOps_F32.transformReverse(se,list.get(i),expected);
+			assertEquals(expected.x, dst[i*2], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, dst[i*2+1], GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void transform_3d_packed() {
+		DenseMatrix64F R = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, null );
+		Se3_F32 se = new Se3_F32( R, new Vector3D_F32( 1, 2, 3 ) );
+
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-10,10,20,rand);
+		PackedPoint3D_F32 packed = new PackedPoint3D_F32();
+		packed.addAll(list);
+
+		// use offsets to make sure they are handled correctly
+		float src[] = new float[ 3 + list.size()*3 ];
+		System.arraycopy(packed.data,0,src,3,list.size()*3);
+		float dst[] = new float[ 2 + list.size()*3 ];
+
+		SePointOps_F32.transform(se,src,3,dst,2,list.size());
+
+		// should produce the same results as the single point version
+		Point3D_F32 expected = new Point3D_F32();
+		for (int i = 0; i < list.size(); i++) {
+			SePointOps_F32.transform(se,list.get(i),expected);
+			assertEquals(expected.x, dst[2+i*3], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, dst[2+i*3+1], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.z, dst[2+i*3+2], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		// transform in place and go back to the original points
+		SePointOps_F32.transform(se,packed,packed);
+		SePointOps_F32.transformReverse(se,packed,packed);
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(0, list.get(i).distance(packed.getTemp(i)), GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void transformReverse_3d_packed() {
+		DenseMatrix64F R = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, null );
+		Se3_F32 se = new Se3_F32( R, new Vector3D_F32( 1, 2, 3 ) );
+
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-10,10,20,rand);
+		PackedPoint3D_F32 packed = new PackedPoint3D_F32();
+		packed.addAll(list);
+
+		float dst[] = new float[ list.size()*3 ];
+		SePointOps_F32.transformReverse(se,packed.data,0,dst,0,list.size());
+
+		Point3D_F32 expected = new Point3D_F32();
+		for (int i = 0; i < list.size(); i++) {
+			SePointOps_F32.transformReverse(se,list.get(i),expected);
+			assertEquals(expected.x, dst[i*3], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, dst[i*3+1], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.z, dst[i*3+2], GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void transform_2d_concurrent() {
+		Se2_F32 se = new Se2_F32( -2, 3, 0.4f );
+		float src[] = new float[ 1000*2 ];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rand.nextFloat()*20-10;
+		}
+		float expected[] = new float[ src.length ];
+		float found[] = new float[ src.length ];
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			SePointOps_F32.transform(se,src,0,expected,0,1000);
+			SePointOps_F32.transformConcurrent(se,src,0,found,0,1000);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		// results should be identical to the single threaded version
+		for (int i = 0; i < src.length; i++) {
+			assertEquals(expected[i],found[i],0);
+		}
+	}
+
+	@Test
+	public void transformReverse_2d_concurrent() {
+		Se2_F32 se = new Se2_F32( -2, 3, 0.4f );
+		float src[] = new float[ 1000*2 ];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rand.nextFloat()*20-10;
+		}
+		float expected[] = new float[ src.length ];
+		float found[] = new float[ src.length ];
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			SePointOps_F32.transformReverse(se,src,0,expected,0,1000);
+			SePointOps_F32.transformReverseConcurrent(se,src,0,found,0,1000);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		// results should be identical to the single threaded version
+		for (int i = 0; i < src.length; i++) {
+			assertEquals(expected[i],found[i],0);
+		}
+	}
+
+	@Test
+	public void transform_3d_concurrent() {
+		DenseMatrix64F R = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, null );
+		Se3_F32 se = new Se3_F32( R, new Vector3D_F32( 1, 2, 3 ) );
+		float src[] = new float[ 1000*3 ];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rand.nextFloat()*20-10;
+		}
+		float expected[] = new float[ src.length ];
+		float found[] = new float[ src.length ];
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			SePointOps_F32.transform(se,src,0,expected,0,1000);
+			SePointOps_F32.transformConcurrent(se,src,0,found,0,1000);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		// results should be identical to the single threaded version
+		for (int i = 0; i < src.length; i++) {
+			assertEquals(expected[i],found[i],0);
+		}
+	}
+
+	@Test
+	public void transformReverse_3d_concurrent() {
+		DenseMatrix64F R = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, null );
+		Se3_F32 se = new Se3_F32( R, new Vector3D_F32( 1, 2, 3 ) );
+		float src[] = new float[ 1000*3 ];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rand.nextFloat()*20-10;
+		}
+		float expected[] = new float[ src.length ];
+		float found[] = new float[ src.length ];
+
+		int before = GrlConcurrency.getMinimumConcurrent();
+		try {
+			GrlConcurrency.setMinimumConcurrent(10);
+			SePointOps_F32.transformReverse(se,src,0,expected,0,1000);
+			SePointOps_F32.transformReverseConcurrent(se,src,0,found,0,1000);
+		} finally {
+			GrlConcurrency.setMinimumConcurrent(before);
+		}
+
+		// results should be identical to the single threaded version
+		for (int i = 0; i < src.length; i++) {
+			assertEquals(expected[i],found[i],0);
+		}
+	}
 }